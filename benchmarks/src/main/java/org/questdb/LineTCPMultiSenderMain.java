@@ -0,0 +1,90 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package org.questdb;
+
+import io.questdb.cutlass.line.LineProtoSender;
+import io.questdb.cutlass.line.tcp.LineTCPProtoSender;
+import io.questdb.network.Net;
+import io.questdb.std.Os;
+import io.questdb.std.Rnd;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures aggregate ILP throughput from many concurrent connections spread over several tables.
+ * Compare runs against a server with line.tcp.writer.queue.sharded set to false and true.
+ */
+public class LineTCPMultiSenderMain {
+    public static void main(String[] args) throws InterruptedException {
+        final int nSenders = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        final int nTables = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        final long countPerSender = args.length > 2 ? Long.parseLong(args[2]) : 5_000_000;
+        final String hostIPv4 = "127.0.0.1";
+        final int port = 9009;
+        final int bufferCapacity = 256 * 1024;
+
+        final CyclicBarrier start = new CyclicBarrier(nSenders + 1);
+        final CountDownLatch done = new CountDownLatch(nSenders);
+        final AtomicLong errors = new AtomicLong();
+        for (int i = 0; i < nSenders; i++) {
+            final int senderId = i;
+            new Thread(() -> {
+                final Rnd rnd = new Rnd(senderId, senderId);
+                try (LineProtoSender sender = new LineTCPProtoSender(Net.parseIPv4(hostIPv4), port, bufferCapacity)) {
+                    start.await();
+                    for (long n = 0; n < countPerSender; n++) {
+                        sender.metric("weather" + ((senderId + n) % nTables))
+                                .tag("location", "london")
+                                .tag("by", "quest")
+                                .field("temp", rnd.nextPositiveLong())
+                                .field("ok", rnd.nextPositiveInt())
+                                .$(Os.currentTimeMicros() * 1000);
+                    }
+                    sender.flush();
+                } catch (Throwable e) {
+                    errors.incrementAndGet();
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        try {
+            start.await();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        final long t = System.nanoTime();
+        done.await();
+        final long elapsed = System.nanoTime() - t;
+        final long count = countPerSender * nSenders;
+        System.out.println("Senders: " + nSenders + ", tables: " + nTables + ", errors: " + errors.get());
+        System.out.println("Actual rate: " + (count * 1_000_000_000L / elapsed));
+    }
+}
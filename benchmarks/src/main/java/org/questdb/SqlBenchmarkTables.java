@@ -0,0 +1,186 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package org.questdb;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.std.Files;
+import io.questdb.std.Rnd;
+import io.questdb.std.str.Path;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Engine and reproducible tables shared by SQL benchmarks. Tables are generated
+ * with rnd_*() functions seeded with default Rnd seeds, so that every run and every
+ * release benchmarks identical data.
+ * <p>
+ * "trades" is partitioned by day and has indexed "sym" and non-indexed "venue" symbols,
+ * "quotes" has the same symbols and is used as the right side of time series joins.
+ */
+public final class SqlBenchmarkTables implements Closeable {
+
+    // names are values of JMH @Param in SqlQueryBenchmark and SqlCompileBenchmark, keep them in sync
+    static final String[][] QUERIES = {
+            {"filter", "select * from trades where price > 50 and qty < 100"},
+            {"filter_symbol", "select * from trades where sym = 'IBM'"},
+            {"filter_interval", "select * from trades where ts = '1970-01-01T12'"},
+            {"group_by_vector", "select sum(price), min(qty), max(qty), avg(price) from trades"},
+            {"group_by_vector_keyed", "select sym, sum(price), max(qty) from trades"},
+            {"group_by_map_keyed", "select venue, side, count(), sum(qty), avg(price) from trades"},
+            {"sample_by", "select sym, avg(price), sum(qty) from trades sample by 1h"},
+            {"sample_by_fill_prev", "select sym, avg(price) from trades sample by 10m fill(prev)"},
+            {"sample_by_fill_linear", "select sym, avg(price) from trades sample by 10m fill(linear)"},
+            {"latest_by_indexed", "select * from trades latest by sym"},
+            {"latest_by_unindexed", "select * from trades latest by venue"},
+            {"asof_join", "select * from trades asof join quotes on (sym)"},
+            {"lt_join", "select * from trades lt join quotes on (sym)"},
+            {"splice_join", "select * from trades splice join quotes on (sym)"},
+            {"order_by", "select * from trades order by price desc"},
+            {"order_by_limit", "select * from trades order by price desc limit 100"},
+            {"union", "select sym, side from trades union select sym, side from quotes"},
+            {"union_all", "select sym, price from trades union all select sym, bid from quotes"}
+    };
+
+    private static final String SYMBOLS = "'IBM', 'MSFT', 'AAPL', 'GOOGL', 'AMZN', 'TSLA', 'NVDA', 'ORCL', 'INTC', 'CSCO'";
+    private final CairoEngine engine;
+    private final SqlCompiler compiler;
+    private final SqlExecutionContextImpl sqlExecutionContext;
+    private final String root;
+
+    public SqlBenchmarkTables(int rowCount, int workerCount) throws IOException, SqlException {
+        this.root = java.nio.file.Files.createTempDirectory("questdb-bench").toString();
+        this.engine = new CairoEngine(new DefaultCairoConfiguration(root));
+        this.compiler = new SqlCompiler(engine);
+        this.sqlExecutionContext = new SqlExecutionContextImpl(engine, workerCount)
+                .with(AllowAllCairoSecurityContext.INSTANCE, null, null, -1, null);
+
+        sqlExecutionContext.setRandom(new Rnd());
+        // one row every 100ms from epoch, rowCount of 1M spans roughly a day and two hours
+        compiler.compile(
+                "create table trades as (" +
+                        "select" +
+                        " rnd_symbol(" + SYMBOLS + ") sym," +
+                        " rnd_symbol('NYSE', 'NASDAQ', 'LSE', 'XETRA', 'TSE') venue," +
+                        " rnd_int(0, 3, 0) side," +
+                        " rnd_double(0) * 100 price," +
+                        " rnd_long(1, 1000, 0) qty," +
+                        " timestamp_sequence(0, 100000L) ts" +
+                        " from long_sequence(" + rowCount + ")" +
+                        "), index(sym) timestamp(ts) partition by DAY",
+                sqlExecutionContext
+        );
+
+        sqlExecutionContext.setRandom(new Rnd(42, 42));
+        compiler.compile(
+                "create table quotes as (" +
+                        "select" +
+                        " rnd_symbol(" + SYMBOLS + ") sym," +
+                        " rnd_int(0, 3, 0) side," +
+                        " rnd_double(0) * 100 bid," +
+                        " rnd_double(0) * 100 ask," +
+                        " timestamp_sequence(50000L, 250000L) ts" +
+                        " from long_sequence(" + (rowCount / 2) + ")" +
+                        ") timestamp(ts) partition by DAY",
+                sqlExecutionContext
+        );
+        sqlExecutionContext.setRandom(new Rnd());
+    }
+
+    /**
+     * Reads every column of every record so that benchmarks measure
+     * column access rather than cursor navigation alone.
+     */
+    static long consume(RecordCursor cursor, RecordMetadata metadata, Blackhole bh) {
+        final Record record = cursor.getRecord();
+        final int columnCount = metadata.getColumnCount();
+        long count = 0;
+        while (cursor.hasNext()) {
+            for (int i = 0; i < columnCount; i++) {
+                switch (metadata.getColumnType(i)) {
+                    case ColumnType.INT:
+                        bh.consume(record.getInt(i));
+                        break;
+                    case ColumnType.LONG:
+                        bh.consume(record.getLong(i));
+                        break;
+                    case ColumnType.TIMESTAMP:
+                        bh.consume(record.getTimestamp(i));
+                        break;
+                    case ColumnType.DOUBLE:
+                        bh.consume(record.getDouble(i));
+                        break;
+                    case ColumnType.SYMBOL:
+                        bh.consume(record.getSym(i));
+                        break;
+                    case ColumnType.STRING:
+                        bh.consume(record.getStr(i));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    static String getQuery(String name) {
+        for (int i = 0, n = QUERIES.length; i < n; i++) {
+            if (QUERIES[i][0].equals(name)) {
+                return QUERIES[i][1];
+            }
+        }
+        throw new IllegalArgumentException("unknown query: " + name);
+    }
+
+    @Override
+    public void close() {
+        compiler.close();
+        engine.close();
+        try (Path path = new Path()) {
+            Files.rmdir(path.of(root).$());
+        }
+    }
+
+    public SqlCompiler getCompiler() {
+        return compiler;
+    }
+
+    public SqlExecutionContextImpl getSqlExecutionContext() {
+        return sqlExecutionContext;
+    }
+}
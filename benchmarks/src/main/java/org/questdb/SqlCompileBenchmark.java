@@ -0,0 +1,107 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package org.questdb;
+
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.log.LogFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of SqlCompiler.compile() for the queries of {@link SqlQueryBenchmark},
+ * including code generation and resulting factory construction. Tables are small
+ * because compilation cost does not depend on data size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SqlCompileBenchmark {
+
+    @Param({
+            "filter",
+            "filter_symbol",
+            "filter_interval",
+            "group_by_vector",
+            "group_by_vector_keyed",
+            "group_by_map_keyed",
+            "sample_by",
+            "sample_by_fill_prev",
+            "sample_by_fill_linear",
+            "latest_by_indexed",
+            "latest_by_unindexed",
+            "asof_join",
+            "lt_join",
+            "splice_join",
+            "order_by",
+            "order_by_limit",
+            "union",
+            "union_all"
+    })
+    public String query;
+
+    private SqlBenchmarkTables tables;
+    private String sql;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SqlCompileBenchmark.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.INSTANCE.haltThread();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SqlException {
+        tables = new SqlBenchmarkTables(1000, 1);
+        sql = SqlBenchmarkTables.getQuery(query);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tables.close();
+    }
+
+    @Benchmark
+    public RecordCursorFactory testCompile() throws SqlException {
+        // factory holds no resources until cursor is opened, closing it here
+        // keeps memory flat without skewing the measurement
+        try (RecordCursorFactory factory = tables.getCompiler().compile(sql, tables.getSqlExecutionContext()).getRecordCursorFactory()) {
+            return factory;
+        }
+    }
+}
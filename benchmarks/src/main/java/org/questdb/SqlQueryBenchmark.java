@@ -0,0 +1,111 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package org.questdb;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.log.LogFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end execution of the main record cursor factory families against
+ * tables generated by {@link SqlBenchmarkTables}. Query is compiled once per
+ * trial, each invocation opens cursor and reads all columns of all rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SqlQueryBenchmark {
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    @Param({
+            "filter",
+            "filter_symbol",
+            "filter_interval",
+            "group_by_vector",
+            "group_by_vector_keyed",
+            "group_by_map_keyed",
+            "sample_by",
+            "sample_by_fill_prev",
+            "sample_by_fill_linear",
+            "latest_by_indexed",
+            "latest_by_unindexed",
+            "asof_join",
+            "lt_join",
+            "splice_join",
+            "order_by",
+            "order_by_limit",
+            "union",
+            "union_all"
+    })
+    public String query;
+
+    private SqlBenchmarkTables tables;
+    private RecordCursorFactory factory;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SqlQueryBenchmark.class.getSimpleName())
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.INSTANCE.haltThread();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SqlException {
+        tables = new SqlBenchmarkTables(rowCount, 1);
+        factory = tables.getCompiler().compile(SqlBenchmarkTables.getQuery(query), tables.getSqlExecutionContext()).getRecordCursorFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.close();
+        tables.close();
+    }
+
+    @Benchmark
+    public long testExecute(Blackhole bh) {
+        try (RecordCursor cursor = factory.getCursor(tables.getSqlExecutionContext())) {
+            return SqlBenchmarkTables.consume(cursor, factory.getMetadata(), bh);
+        }
+    }
+}
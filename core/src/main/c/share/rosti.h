@@ -292,6 +292,8 @@ void resize(rosti_t *map, uint64_t new_capacity, HASH_M hash_m, CPY cpy) {
     const uint64_t old_capacity = map->capacity_;
     map->capacity_ = new_capacity;
     initialize_slots(map);
+    // initial values live in the same arena as slots, carry them over
+    memcpy(map->slot_initial_values_, old_init, map->slot_size_);
 
     uint64_t total_probe_length = 0;
     for (uint64_t i = 0; i != old_capacity; ++i) {
@@ -379,4 +381,59 @@ inline std::pair<uint64_t, bool> find(rosti_t *map, const int32_t key) {
     return find_or_prepare_insert<int32_t>(map, key, hashInt, eqInt, hashIntMem, cpySlot);
 }
 
+// long keys are often multiples of large numbers (timestamp buckets, packed pairs)
+// so we mix all bits in to keep both H1 and H2 well distributed
+inline uint64_t hashLong(uint64_t v) {
+    uint64_t h = v;
+    h ^= h >> 33u;
+    h *= 0xff51afd7ed558ccdull;
+    h ^= h >> 33u;
+    h *= 0xc4ceb9fe1a85ec53ull;
+    h ^= h >> 33u;
+    return h;
+}
+
+// long equivalence
+inline bool eqLong(void *p, int64_t key) {
+    return *reinterpret_cast<int64_t *>(p) == key;
+}
+
+// long pointer hash
+inline uint64_t hashLongMem(void *p) {
+    return hashLong(*reinterpret_cast<int64_t *>(p));
+}
+
+// long key lookup
+inline std::pair<uint64_t, bool> find(rosti_t *map, const int64_t key) {
+    return find_or_prepare_insert<int64_t>(map, key, hashLong, eqLong, hashLongMem, cpySlot);
+}
+
+inline void store_key(unsigned char *p, const int32_t key) {
+    *reinterpret_cast<int32_t *>(p) = key;
+}
+
+inline void store_key(unsigned char *p, const int64_t key) {
+    *reinterpret_cast<int64_t *>(p) = key;
+}
+
+// Key lookup for code that does not know key width, such as merge and wrap up.
+// Key is copied out of "p" before lookup because lookup may resize the map and
+// free memory "p" points to. New slot is initialised with the key.
+inline std::pair<uint64_t, bool> find_key(rosti_t *map, const unsigned char *p) {
+    if (map->value_offsets_[1] == sizeof(int64_t)) {
+        const int64_t key = *reinterpret_cast<const int64_t *>(p);
+        auto res = find(map, key);
+        if (PREDICT_FALSE(res.second)) {
+            store_key(map->slots_ + res.first, key);
+        }
+        return res;
+    }
+    const int32_t key = *reinterpret_cast<const int32_t *>(p);
+    auto res = find(map, key);
+    if (PREDICT_FALSE(res.second)) {
+        store_key(map->slots_ + res.first, key);
+    }
+    return res;
+}
+
 #endif //ROSTI_H
@@ -26,6 +26,8 @@
 
 #define HOUR_MICROS  3600000000L
 #define DAY_HOURS  24
+#define MINUTE_MICROS  60000000L
+#define DAY_MICROS  86400000000L
 
 inline int32_t int64_to_hour(jlong ptr, int i) {
     const auto p = reinterpret_cast<int64_t *>(ptr);
@@ -44,6 +46,46 @@ inline int32_t to_int(jlong ptr, int i) {
     return p[i];
 }
 
+inline int64_t to_long(jlong ptr, int i) {
+    const auto p = reinterpret_cast<int64_t *>(ptr);
+    _mm_prefetch(p + 64, _MM_HINT_T0);
+    return p[i];
+}
+
+// floors timestamp to the bucket, NULL timestamp remains NULL
+inline int64_t floor_micros(int64_t micro, int64_t bucket) {
+    if (PREDICT_TRUE(micro > -1)) {
+        return micro - micro % bucket;
+    }
+    if (PREDICT_FALSE(micro == L_MIN)) {
+        return L_MIN;
+    }
+    return ((micro + 1) / bucket - 1) * bucket;
+}
+
+inline int64_t int64_to_minute(jlong ptr, int i) {
+    const auto p = reinterpret_cast<int64_t *>(ptr);
+    _mm_prefetch(p + 64, _MM_HINT_T0);
+    return floor_micros(p[i], MINUTE_MICROS);
+}
+
+inline int64_t int64_to_day(jlong ptr, int i) {
+    const auto p = reinterpret_cast<int64_t *>(ptr);
+    _mm_prefetch(p + 64, _MM_HINT_T0);
+    return floor_micros(p[i], DAY_MICROS);
+}
+
+// "ptr" is address of two addresses of INT (or SYMBOL) columns. Values are packed
+// into long so that value of the first column occupies lower 4 bytes of the key.
+inline int64_t int_pair_to_long(jlong ptr, int i) {
+    const auto pp = reinterpret_cast<int32_t **>(ptr);
+    const auto a = pp[0];
+    const auto b = pp[1];
+    _mm_prefetch(a + 64, _MM_HINT_T0);
+    _mm_prefetch(b + 64, _MM_HINT_T0);
+    return (static_cast<int64_t>(b[i]) << 32u) | static_cast<uint32_t>(a[i]);
+}
+
 template<typename TO_INT>
 void kIntCount(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong count, jint valueOffset);
 
@@ -115,15 +157,14 @@ Java_io_questdb_std_Rosti_keyedIntSumDoubleMerge(JNIEnv *env, jclass cl, jlong p
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto d = *reinterpret_cast<jdouble *>(src + value_offset);
             auto count = *reinterpret_cast<jlong *>(src + count_offset);
 
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jdouble *>(dest + value_offset) = d;
                 *reinterpret_cast<jlong *>(dest + count_offset) = count;
             } else {
@@ -158,12 +199,11 @@ Java_io_questdb_std_Rosti_keyedIntSumDoubleWrapUp(
 
     // populate null value
     if (valueAtNullCount > 0) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
             *reinterpret_cast<jlong *>(dest + count_offset) = valueAtNullCount;
         } else {
@@ -224,13 +264,12 @@ Java_io_questdb_std_Rosti_keyedIntCountMerge(JNIEnv *env, jclass cl, jlong pRost
     for (size_t i = 0; i < capacity; i++) {
         if (ctrl[i] > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto count = *reinterpret_cast<jlong *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jlong *>(dest + value_offset) = count;
             } else {
                 (*reinterpret_cast<jlong *>(dest + value_offset)) += count;
@@ -255,16 +294,15 @@ Java_io_questdb_std_Rosti_keyedIntKSumDoubleMerge(JNIEnv *env, jclass cl, jlong
     for (size_t i = 0; i < capacity; i++) {
         if (ctrl[i] > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto d = *reinterpret_cast<jdouble *>(src + value_offset);
             auto cc = *reinterpret_cast<jdouble *>(src + c_offset);
             auto count = *reinterpret_cast<jlong *>(src + count_offset);
 
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jdouble *>(dest + value_offset) = d;
                 *reinterpret_cast<jdouble *>(dest + c_offset) = cc;
                 *reinterpret_cast<jlong *>(dest + count_offset) = count;
@@ -295,12 +333,11 @@ Java_io_questdb_std_Rosti_keyedIntKSumDoubleWrapUp(JNIEnv *env, jclass cl, jlong
 
     // populate null value
     if (valueAtNullCount > 0) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
             *reinterpret_cast<jlong *>(dest + count_offset) = valueAtNullCount;
         } else {
@@ -354,15 +391,14 @@ Java_io_questdb_std_Rosti_keyedIntNSumDoubleMerge(JNIEnv *env, jclass cl, jlong
     for (size_t i = 0; i < capacity; i++) {
         if (ctrl[i] > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto d = *reinterpret_cast<jdouble *>(src + value_offset);
             auto count = *reinterpret_cast<jlong *>(src + count_offset);
 
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jdouble *>(dest + value_offset) = d;
                 *reinterpret_cast<jdouble *>(dest + c_offset) = *reinterpret_cast<jdouble *>(src + c_offset);
                 *reinterpret_cast<jlong *>(dest + count_offset) = count;
@@ -410,12 +446,11 @@ Java_io_questdb_std_Rosti_keyedIntNSumDoubleWrapUp(JNIEnv *env, jclass cl, jlong
 
     // populate null value
     if (valueAtNullCount > 0) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
             *reinterpret_cast<jlong *>(dest + c_offset) = valueAtNullC;
             *reinterpret_cast<jlong *>(dest + count_offset) = valueAtNullCount;
@@ -463,14 +498,13 @@ Java_io_questdb_std_Rosti_keyedIntMinDoubleMerge(JNIEnv *env, jclass cl, jlong p
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto d = *reinterpret_cast<jdouble *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             auto pVal = dest + value_offset;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jdouble *>(pVal) = std::isnan(d) ? D_MAX : d;
             } else {
                 const jdouble old = *reinterpret_cast<jdouble *>(pVal);
@@ -492,12 +526,11 @@ Java_io_questdb_std_Rosti_keyedIntMinDoubleWrapUp(JNIEnv *env, jclass cl, jlong
 
     // populate null value only if non-keyed aggregation did something useful
     if (valueAtNull < D_MAX) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
         } else {
             *reinterpret_cast<jdouble *>(dest + value_offset) = MIN(valueAtNull,
@@ -547,14 +580,13 @@ Java_io_questdb_std_Rosti_keyedIntMaxDoubleMerge(JNIEnv *env, jclass cl, jlong p
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto d = *reinterpret_cast<jdouble *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto pKey = map_a->slots_ + res.first;
             auto pVal = pKey + value_offset;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(pKey) = key;
                 *reinterpret_cast<jdouble *>(pVal) = std::isnan(d) ? D_MIN : d;
             } else {
                 const jdouble old = *reinterpret_cast<jdouble *>(pVal);
@@ -575,12 +607,11 @@ Java_io_questdb_std_Rosti_keyedIntMaxDoubleWrapUp(JNIEnv *env, jclass cl, jlong
     const auto slots = map->slots_;
 
     if (valueAtNull < D_MIN) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
         } else {
             *reinterpret_cast<jdouble *>(dest + value_offset) = MAX(valueAtNull,
@@ -616,12 +647,11 @@ Java_io_questdb_std_Rosti_keyedIntAvgDoubleWrapUp(JNIEnv *env, jclass cl, jlong
 
     // populate null value
     if (valueAtNullCount > 0) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
             *reinterpret_cast<jlong *>(dest + count_offset) = valueAtNullCount;
         } else {
@@ -658,12 +688,11 @@ Java_io_questdb_std_Rosti_keyedIntAvgLongWrapUp(JNIEnv *env, jclass cl, jlong pR
 
     // populate null value
     if (valueAtNullCount > 0) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jdouble *>(dest + value_offset) = valueAtNull;
             *reinterpret_cast<jlong *>(dest + count_offset) = valueAtNullCount;
         } else {
@@ -714,15 +743,14 @@ Java_io_questdb_std_Rosti_keyedIntSumIntMerge(JNIEnv *env, jclass cl, jlong pRos
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto val = *reinterpret_cast<jint *>(src + value_offset);
             auto count = *reinterpret_cast<jlong *>(src + count_offset);
 
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             auto dest = map_a->slots_ + res.first;
 
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
             }
 
             // when maps have non-null values, their count is >0 and val is not MIN
@@ -768,14 +796,13 @@ Java_io_questdb_std_Rosti_keyedIntMinIntMerge(JNIEnv *env, jclass cl, jlong pRos
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto val = *reinterpret_cast<jint *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             auto pVal = dest + value_offset;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jint *>(pVal) = val == I_MIN ? I_MAX : val;
             } else {
                 if (val != I_MIN) {
@@ -809,12 +836,11 @@ Java_io_questdb_std_Rosti_keyedIntMinIntWrapUp(JNIEnv *env, jclass cl, jlong pRo
     }
 
     if (valueAtNull < I_MAX) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jint *>(dest + value_offset) = valueAtNull;
         } else {
             *reinterpret_cast<jint *>(dest + value_offset) = MIN(valueAtNull,
@@ -852,14 +878,13 @@ Java_io_questdb_std_Rosti_keyedIntMaxIntMerge(JNIEnv *env, jclass cl, jlong pRos
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto val = *reinterpret_cast<jint *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             auto pVal = dest + value_offset;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jint *>(pVal) = val;
             } else {
                 const jint old = *reinterpret_cast<jint *>(pVal);
@@ -899,15 +924,14 @@ Java_io_questdb_std_Rosti_keyedIntSumLongMerge(JNIEnv *env, jclass cl, jlong pRo
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto val = *reinterpret_cast<jlong *>(src + value_offset);
             auto count = *reinterpret_cast<jlong *>(src + count_offset);
 
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             auto dest = map_a->slots_ + res.first;
 
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
             }
 
             // when maps have non-null values, their count is >0 and val is not MIN
@@ -948,12 +972,11 @@ Java_io_questdb_std_Rosti_keyedIntSumLongWrapUp(JNIEnv *env, jclass cl, jlong pR
 
     // populate null value
     if (valueAtNullCount > 0) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jlong *>(dest + value_offset) = valueAtNull;
             *reinterpret_cast<jlong *>(dest + count_offset) = valueAtNullCount;
         } else {
@@ -992,14 +1015,13 @@ Java_io_questdb_std_Rosti_keyedIntMinLongMerge(JNIEnv *env, jclass cl, jlong pRo
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto val = *reinterpret_cast<jlong *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             auto pVal = dest + value_offset;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jlong *>(pVal) = val == L_MIN ? L_MAX : val;
             } else {
                 if (val != L_MIN) {
@@ -1034,12 +1056,11 @@ Java_io_questdb_std_Rosti_keyedIntMinLongWrapUp(JNIEnv *env, jclass cl, jlong pR
 
     // populate null value
     if (valueAtNull < L_MAX) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jlong *>(dest + value_offset) = valueAtNull;
         } else {
             *reinterpret_cast<jlong *>(dest + value_offset) = MIN(valueAtNull,
@@ -1056,12 +1077,11 @@ Java_io_questdb_std_Rosti_keyedIntMaxLongWrapUp(JNIEnv *env, jclass cl, jlong pR
 
     // populate null value
     if (valueAtNull > L_MIN) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jlong *>(dest + value_offset) = valueAtNull;
         } else {
             *reinterpret_cast<jlong *>(dest + value_offset) = MAX(valueAtNull,
@@ -1078,12 +1098,11 @@ Java_io_questdb_std_Rosti_keyedIntMaxIntWrapUp(JNIEnv *env, jclass cl, jlong pRo
 
     // populate null value
     if (valueAtNull > I_MIN) {
-        auto nullKey = reinterpret_cast<int32_t *>(map->slot_initial_values_)[0];
-        auto res = find(map, nullKey);
+        auto nullKey = map->slot_initial_values_;
+        auto res = find_key(map, nullKey);
         // maps must have identical structure to use "shift" from map B on map A
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = nullKey;
             *reinterpret_cast<jint *>(dest + value_offset) = valueAtNull;
         } else {
             *reinterpret_cast<jint *>(dest + value_offset) = MAX(valueAtNull,
@@ -1121,14 +1140,13 @@ Java_io_questdb_std_Rosti_keyedIntMaxLongMerge(JNIEnv *env, jclass cl, jlong pRo
         ctrl_t c = ctrl[i];
         if (c > -1) {
             auto src = slots + (i << shift);
-            auto key = *reinterpret_cast<int32_t *>(src);
+            auto key = src;
             auto val = *reinterpret_cast<jlong *>(src + value_offset);
-            auto res = find(map_a, key);
+            auto res = find_key(map_a, key);
             // maps must have identical structure to use "shift" from map B on map A
             auto dest = map_a->slots_ + res.first;
             auto pVal = dest + value_offset;
             if (PREDICT_FALSE(res.second)) {
-                *reinterpret_cast<int32_t *>(dest) = key;
                 *reinterpret_cast<jlong *>(pVal) = val;
             } else {
                 const jlong old = *reinterpret_cast<jlong *>(pVal);
@@ -1137,6 +1155,316 @@ Java_io_questdb_std_Rosti_keyedIntMaxLongMerge(JNIEnv *env, jclass cl, jlong pRo
         }
     }
 }
+
+// LONG, minute, day and INT pair keys
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongCount(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count,
+                                         jint valueOffset) {
+    kIntCount(to_long, pRosti, pKeys, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteCount(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count,
+                                           jint valueOffset) {
+    kIntCount(int64_to_minute, pRosti, pKeys, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayCount(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count,
+                                        jint valueOffset) {
+    kIntCount(int64_to_day, pRosti, pKeys, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairCount(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count,
+                                            jint valueOffset) {
+    kIntCount(int_pair_to_long, pRosti, pKeys, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongDistinct(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count) {
+    kIntDistinct(to_long, pRosti, pKeys, count);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteDistinct(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count) {
+    kIntDistinct(int64_to_minute, pRosti, pKeys, count);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayDistinct(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count) {
+    kIntDistinct(int64_to_day, pRosti, pKeys, count);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairDistinct(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong count) {
+    kIntDistinct(int_pair_to_long, pRosti, pKeys, count);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                             jlong count, jint valueOffset) {
+    kIntSumDouble(to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                               jlong count, jint valueOffset) {
+    kIntSumDouble(int64_to_minute, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDaySumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                            jlong count, jint valueOffset) {
+    kIntSumDouble(int64_to_day, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                jlong count, jint valueOffset) {
+    kIntSumDouble(int_pair_to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongKSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                              jlong count, jint valueOffset) {
+    kIntKSumDouble(to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteKSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                jlong count, jint valueOffset) {
+    kIntKSumDouble(int64_to_minute, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayKSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                             jlong count, jint valueOffset) {
+    kIntKSumDouble(int64_to_day, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairKSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                 jlong count, jint valueOffset) {
+    kIntKSumDouble(int_pair_to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongNSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                              jlong count, jint valueOffset) {
+    kIntNSumDouble(to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteNSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                jlong count, jint valueOffset) {
+    kIntNSumDouble(int64_to_minute, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayNSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                             jlong count, jint valueOffset) {
+    kIntNSumDouble(int64_to_day, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairNSumDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                 jlong count, jint valueOffset) {
+    kIntNSumDouble(int_pair_to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongMinDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                             jlong count, jint valueOffset) {
+    kIntMinDouble(to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteMinDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                               jlong count, jint valueOffset) {
+    kIntMinDouble(int64_to_minute, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayMinDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                            jlong count, jint valueOffset) {
+    kIntMinDouble(int64_to_day, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairMinDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                jlong count, jint valueOffset) {
+    kIntMinDouble(int_pair_to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongMaxDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                             jlong count, jint valueOffset) {
+    kIntMaxDouble(to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteMaxDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                               jlong count, jint valueOffset) {
+    kIntMaxDouble(int64_to_minute, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayMaxDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                            jlong count, jint valueOffset) {
+    kIntMaxDouble(int64_to_day, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairMaxDouble(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pDouble,
+                                                jlong count, jint valueOffset) {
+    kIntMaxDouble(int_pair_to_long, pRosti, pKeys, pDouble, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongSumInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                          jlong count, jint valueOffset) {
+    kIntSumInt(to_long, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteSumInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                            jlong count, jint valueOffset) {
+    kIntSumInt(int64_to_minute, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDaySumInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                         jlong count, jint valueOffset) {
+    kIntSumInt(int64_to_day, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairSumInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                             jlong count, jint valueOffset) {
+    kIntSumInt(int_pair_to_long, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongMinInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                          jlong count, jint valueOffset) {
+    kIntMinInt(to_long, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteMinInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                            jlong count, jint valueOffset) {
+    kIntMinInt(int64_to_minute, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayMinInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                         jlong count, jint valueOffset) {
+    kIntMinInt(int64_to_day, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairMinInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                             jlong count, jint valueOffset) {
+    kIntMinInt(int_pair_to_long, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongMaxInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                          jlong count, jint valueOffset) {
+    kIntMaxInt(to_long, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteMaxInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                            jlong count, jint valueOffset) {
+    kIntMaxInt(int64_to_minute, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayMaxInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                         jlong count, jint valueOffset) {
+    kIntMaxInt(int64_to_day, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairMaxInt(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pInt,
+                                             jlong count, jint valueOffset) {
+    kIntMaxInt(int_pair_to_long, pRosti, pKeys, pInt, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongSumLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                           jlong count, jint valueOffset) {
+    kIntSumLong(to_long, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteSumLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                             jlong count, jint valueOffset) {
+    kIntSumLong(int64_to_minute, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDaySumLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                          jlong count, jint valueOffset) {
+    kIntSumLong(int64_to_day, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairSumLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                              jlong count, jint valueOffset) {
+    kIntSumLong(int_pair_to_long, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongMinLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                           jlong count, jint valueOffset) {
+    kIntMinLong(to_long, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteMinLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                             jlong count, jint valueOffset) {
+    kIntMinLong(int64_to_minute, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayMinLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                          jlong count, jint valueOffset) {
+    kIntMinLong(int64_to_day, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairMinLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                              jlong count, jint valueOffset) {
+    kIntMinLong(int_pair_to_long, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedLongMaxLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                           jlong count, jint valueOffset) {
+    kIntMaxLong(to_long, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedMinuteMaxLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                             jlong count, jint valueOffset) {
+    kIntMaxLong(int64_to_minute, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedDayMaxLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                          jlong count, jint valueOffset) {
+    kIntMaxLong(int64_to_day, pRosti, pKeys, pLong, count, valueOffset);
+}
+
+JNIEXPORT void JNICALL
+Java_io_questdb_std_Rosti_keyedIntPairMaxLong(JNIEnv *env, jclass cl, jlong pRosti, jlong pKeys, jlong pLong,
+                                              jlong count, jint valueOffset) {
+    kIntMaxLong(int_pair_to_long, pRosti, pKeys, pLong, count, valueOffset);
+}
 }
 
 template<typename TO_INT>
@@ -1147,13 +1475,13 @@ void kIntMaxInt(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pInt, jlong cou
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pi + 16, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jint val = pi[i];
         auto res = find(map, key);
         auto pKey = map->slots_ + res.first;
         auto pVal = pKey + value_offset;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(pKey) = key;
+            store_key(pKey, key);
             *reinterpret_cast<jint *>(pVal) = val;
         } else {
             const jint old = *reinterpret_cast<jint *>(pVal);
@@ -1169,13 +1497,13 @@ void kIntMaxLong(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pLong, jlong c
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pl + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jlong val = pl[i];
         auto res = find(map, key);
         auto pKey = map->slots_ + res.first;
         auto pVal = pKey + value_offset;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(pKey) = key;
+            store_key(pKey, key);
             *reinterpret_cast<jlong *>(pVal) = val;
         } else {
             const jlong old = *reinterpret_cast<jlong *>(pVal);
@@ -1191,13 +1519,13 @@ void kIntMaxDouble(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pDouble, jlo
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pd + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jdouble d = pd[i];
         auto res = find(map, key);
         auto pKey = map->slots_ + res.first;
         auto pVal = pKey + value_offset;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(pKey) = key;
+            store_key(pKey, key);
             *reinterpret_cast<jdouble *>(pVal) = std::isnan(d) ? D_MIN : d;
         } else {
             const jdouble old = *reinterpret_cast<jdouble *>(pVal);
@@ -1213,13 +1541,13 @@ void kIntMinInt(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pInt, jlong cou
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pi + 16, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jint val = pi[i];
         auto res = find(map, key);
         auto pKey = map->slots_ + res.first;
         auto pVal = pKey + value_offset;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(pKey) = key;
+            store_key(pKey, key);
             if (val != I_MIN) {
                 *reinterpret_cast<jint *>(pVal) = val;
             }
@@ -1237,13 +1565,13 @@ void kIntMinLong(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pLong, jlong c
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pi + 16, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jlong val = pi[i];
         auto res = find(map, key);
         auto pKey = map->slots_ + res.first;
         auto pVal = pKey + value_offset;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(pKey) = key;
+            store_key(pKey, key);
             if (val != L_MIN) {
                 *reinterpret_cast<jlong *>(pVal) = val;
             }
@@ -1261,13 +1589,13 @@ void kIntMinDouble(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pDouble, jlo
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pd + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jdouble d = pd[i];
         auto res = find(map, key);
         auto pKey = map->slots_ + res.first;
         auto pVal = pKey + value_offset;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(pKey) = key;
+            store_key(pKey, key);
             *reinterpret_cast<jdouble *>(pVal) = std::isnan(d) ? D_MAX : d;
         } else {
             const jdouble old = *reinterpret_cast<jdouble *>(pVal);
@@ -1284,12 +1612,12 @@ void kIntSumLong(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pLong, jlong c
     const auto count_offset = map->value_offsets_[valueOffset + 1];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pl + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jlong val = pl[i];
         auto res = find(map, key);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
             if (PREDICT_FALSE(val == L_MIN)) {
                 *reinterpret_cast<jlong *>(dest + value_offset) = 0;
                 *reinterpret_cast<jlong *>(dest + count_offset) = 0;
@@ -1316,12 +1644,12 @@ void kIntNSumDouble(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pDouble, jl
 
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pd + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jdouble d = pd[i];
         auto res = find(map, key);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
             *reinterpret_cast<jdouble *>(dest + value_offset) = std::isnan(d) ? 0 : d;
             *reinterpret_cast<jdouble *>(dest + c_offset) = 0.;
             *reinterpret_cast<jlong *>(dest + count_offset) = std::isnan(d) ? 0 : 1;
@@ -1348,12 +1676,12 @@ void kIntSumInt(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pInt, jlong cou
     const auto count_offset = map->value_offsets_[valueOffset + 1];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pi + 16, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jint val = pi[i];
         auto res = find(map, key);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
             if (PREDICT_FALSE(val == I_MIN)) {
                 *reinterpret_cast<jlong *>(dest + value_offset) = 0;
                 *reinterpret_cast<jlong *>(dest + count_offset) = 0;
@@ -1372,11 +1700,11 @@ template<typename TO_INT>
 void kIntDistinct(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong count) {
     auto map = reinterpret_cast<rosti_t *>(pRosti);
     for (int i = 0; i < count; i++) {
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         auto res = find(map, key);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
         }
     }
 }
@@ -1389,12 +1717,12 @@ void kIntSumDouble(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pDouble, jlo
     const auto count_offset = map->value_offsets_[valueOffset + 1];
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pd + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jdouble d = pd[i];
         auto res = find(map, key);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
             *reinterpret_cast<jdouble *>(dest + value_offset) = std::isnan(d) ? 0 : d;
             *reinterpret_cast<jlong *>(dest + count_offset) = std::isnan(d) ? 0 : 1;
         } else {
@@ -1414,12 +1742,12 @@ void kIntKSumDouble(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong pDouble, jl
 
     for (int i = 0; i < count; i++) {
         _mm_prefetch(pd + 8, _MM_HINT_T0);
-        const int32_t key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         const jdouble d = pd[i];
         auto res = find(map, key);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
             *reinterpret_cast<jdouble *>(dest + value_offset) = std::isnan(d) ? 0 : d;
             *reinterpret_cast<jdouble *>(dest + c_offset) = 0.;
             *reinterpret_cast<jlong *>(dest + count_offset) = std::isnan(d) ? 0 : 1;
@@ -1441,12 +1769,12 @@ void kIntCount(TO_INT *to_int, jlong pRosti, jlong pKeys, jlong count, jint valu
     auto map = reinterpret_cast<rosti_t *>(pRosti);
     const auto value_offset = map->value_offsets_[valueOffset];
     for (int i = 0; i < count; i++) {
-        auto const key = to_int(pKeys, i);
+        const auto key = to_int(pKeys, i);
         auto res = find(map, key);
 //        _mm_prefetch(map->slots_, _MM_HINT_NTA);
         auto dest = map->slots_ + res.first;
         if (PREDICT_FALSE(res.second)) {
-            *reinterpret_cast<int32_t *>(dest) = key;
+            store_key(dest, key);
             *reinterpret_cast<jlong *>(dest + value_offset) = 1;
         } else {
             (*reinterpret_cast<jlong *>(dest + value_offset))++;
@@ -29,6 +29,12 @@ import io.questdb.cairo.TableBlockWriter.TableBlockWriterTaskHolder;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.Sequence;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.HashJoinBuildTask;
+import io.questdb.tasks.OutOfOrderColumnTask;
+import io.questdb.tasks.ParallelFilterTask;
+import io.questdb.tasks.ParallelSampleByTask;
+import io.questdb.tasks.TableBackupTask;
+import io.questdb.tasks.TextImportTask;
 import io.questdb.tasks.VectorAggregateTask;
 
 public interface MessageBus {
@@ -44,6 +50,42 @@ public interface MessageBus {
 
     Sequence getVectorAggregateSubSequence();
 
+    RingQueue<ParallelFilterTask> getParallelFilterQueue();
+
+    Sequence getParallelFilterPubSequence();
+
+    Sequence getParallelFilterSubSequence();
+
+    RingQueue<OutOfOrderColumnTask> getOutOfOrderColumnQueue();
+
+    Sequence getOutOfOrderColumnPubSequence();
+
+    Sequence getOutOfOrderColumnSubSequence();
+
+    RingQueue<HashJoinBuildTask> getHashJoinBuildQueue();
+
+    Sequence getHashJoinBuildPubSequence();
+
+    Sequence getHashJoinBuildSubSequence();
+
+    RingQueue<TableBackupTask> getTableBackupQueue();
+
+    Sequence getTableBackupPubSequence();
+
+    Sequence getTableBackupSubSequence();
+
+    RingQueue<ParallelSampleByTask> getParallelSampleByQueue();
+
+    Sequence getParallelSampleByPubSequence();
+
+    Sequence getParallelSampleBySubSequence();
+
+    RingQueue<TextImportTask> getTextImportQueue();
+
+    Sequence getTextImportPubSequence();
+
+    Sequence getTextImportSubSequence();
+
     default RingQueue<TableBlockWriterTaskHolder> getTableBlockWriterQueue() {
         return null;
     }
@@ -31,6 +31,12 @@ import io.questdb.mp.MPSequence;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.Sequence;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.HashJoinBuildTask;
+import io.questdb.tasks.OutOfOrderColumnTask;
+import io.questdb.tasks.ParallelFilterTask;
+import io.questdb.tasks.ParallelSampleByTask;
+import io.questdb.tasks.TableBackupTask;
+import io.questdb.tasks.TextImportTask;
 import io.questdb.tasks.VectorAggregateTask;
 import org.jetbrains.annotations.NotNull;
 
@@ -43,10 +49,31 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence vectorAggregatePubSeq;
     private final MCSequence vectorAggregateSubSeq;
 
+    private final RingQueue<ParallelFilterTask> parallelFilterQueue;
+    private final MPSequence parallelFilterPubSeq;
+    private final MCSequence parallelFilterSubSeq;
+
+    private final RingQueue<OutOfOrderColumnTask> outOfOrderColumnQueue;
+    private final MPSequence outOfOrderColumnPubSeq;
+    private final MCSequence outOfOrderColumnSubSeq;
+
     private final RingQueue<TableBlockWriterTaskHolder> tableBlockWriterQueue;
     private final MPSequence tableBlockWriterPubSeq;
     private final MCSequence tableBlockWriterSubSeq;
 
+    private final RingQueue<HashJoinBuildTask> hashJoinBuildQueue;
+    private final MPSequence hashJoinBuildPubSeq;
+    private final MCSequence hashJoinBuildSubSeq;
+    private final RingQueue<TableBackupTask> tableBackupQueue;
+    private final MPSequence tableBackupPubSeq;
+    private final MCSequence tableBackupSubSeq;
+    private final RingQueue<ParallelSampleByTask> parallelSampleByQueue;
+    private final MPSequence parallelSampleByPubSeq;
+    private final MCSequence parallelSampleBySubSeq;
+
+    private final RingQueue<TextImportTask> textImportQueue;
+    private final MPSequence textImportPubSeq;
+    private final MCSequence textImportSubSeq;
     private final CairoConfiguration configuration;
 
     public MessageBusImpl(@NotNull CairoConfiguration configuration) {
@@ -60,8 +87,38 @@ public class MessageBusImpl implements MessageBus {
         this.vectorAggregatePubSeq = new MPSequence(vectorAggregateQueue.getCapacity());
         this.vectorAggregateSubSeq = new MCSequence(vectorAggregateQueue.getCapacity());
 
+        this.parallelFilterQueue = new RingQueue<>(ParallelFilterTask::new, configuration.getParallelFilterQueueCapacity());
+        this.parallelFilterPubSeq = new MPSequence(parallelFilterQueue.getCapacity());
+        this.parallelFilterSubSeq = new MCSequence(parallelFilterQueue.getCapacity());
+
+        this.outOfOrderColumnQueue = new RingQueue<>(OutOfOrderColumnTask::new, 1024);
+        this.outOfOrderColumnPubSeq = new MPSequence(outOfOrderColumnQueue.getCapacity());
+        this.outOfOrderColumnSubSeq = new MCSequence(outOfOrderColumnQueue.getCapacity());
+
+        this.hashJoinBuildQueue = new RingQueue<>(HashJoinBuildTask::new, configuration.getPartitionedHashJoinQueueCapacity());
+        this.hashJoinBuildPubSeq = new MPSequence(hashJoinBuildQueue.getCapacity());
+        this.hashJoinBuildSubSeq = new MCSequence(hashJoinBuildQueue.getCapacity());
+
+        this.tableBackupQueue = new RingQueue<>(TableBackupTask::new, 1024);
+        this.tableBackupPubSeq = new MPSequence(tableBackupQueue.getCapacity());
+        this.tableBackupSubSeq = new MCSequence(tableBackupQueue.getCapacity());
+
+        this.parallelSampleByQueue = new RingQueue<>(ParallelSampleByTask::new, configuration.getParallelSampleByQueueCapacity());
+        this.parallelSampleByPubSeq = new MPSequence(parallelSampleByQueue.getCapacity());
+        this.parallelSampleBySubSeq = new MCSequence(parallelSampleByQueue.getCapacity());
+
+        this.textImportQueue = new RingQueue<>(TextImportTask::new, configuration.getParallelTextImportQueueCapacity());
+        this.textImportPubSeq = new MPSequence(textImportQueue.getCapacity());
+        this.textImportSubSeq = new MCSequence(textImportQueue.getCapacity());
+
         indexerPubSeq.then(indexerSubSeq).then(indexerPubSeq);
         vectorAggregatePubSeq.then(vectorAggregateSubSeq).then(vectorAggregatePubSeq);
+        parallelFilterPubSeq.then(parallelFilterSubSeq).then(parallelFilterPubSeq);
+        outOfOrderColumnPubSeq.then(outOfOrderColumnSubSeq).then(outOfOrderColumnPubSeq);
+        hashJoinBuildPubSeq.then(hashJoinBuildSubSeq).then(hashJoinBuildPubSeq);
+        tableBackupPubSeq.then(tableBackupSubSeq).then(tableBackupPubSeq);
+        parallelSampleByPubSeq.then(parallelSampleBySubSeq).then(parallelSampleByPubSeq);
+        textImportPubSeq.then(textImportSubSeq).then(textImportPubSeq);
 
         this.tableBlockWriterQueue = new RingQueue<>(TableBlockWriterTaskHolder::new, configuration.getTableBlockWriterQueueSize());
         this.tableBlockWriterPubSeq = new MPSequence(tableBlockWriterQueue.getCapacity());
@@ -104,6 +161,96 @@ public class MessageBusImpl implements MessageBus {
         return vectorAggregateSubSeq;
     }
 
+    @Override
+    public RingQueue<ParallelFilterTask> getParallelFilterQueue() {
+        return parallelFilterQueue;
+    }
+
+    @Override
+    public Sequence getParallelFilterPubSequence() {
+        return parallelFilterPubSeq;
+    }
+
+    @Override
+    public Sequence getParallelFilterSubSequence() {
+        return parallelFilterSubSeq;
+    }
+
+    @Override
+    public RingQueue<OutOfOrderColumnTask> getOutOfOrderColumnQueue() {
+        return outOfOrderColumnQueue;
+    }
+
+    @Override
+    public Sequence getOutOfOrderColumnPubSequence() {
+        return outOfOrderColumnPubSeq;
+    }
+
+    @Override
+    public Sequence getOutOfOrderColumnSubSequence() {
+        return outOfOrderColumnSubSeq;
+    }
+
+    @Override
+    public RingQueue<HashJoinBuildTask> getHashJoinBuildQueue() {
+        return hashJoinBuildQueue;
+    }
+
+    @Override
+    public Sequence getHashJoinBuildPubSequence() {
+        return hashJoinBuildPubSeq;
+    }
+
+    @Override
+    public Sequence getHashJoinBuildSubSequence() {
+        return hashJoinBuildSubSeq;
+    }
+
+    @Override
+    public RingQueue<TableBackupTask> getTableBackupQueue() {
+        return tableBackupQueue;
+    }
+
+    @Override
+    public Sequence getTableBackupPubSequence() {
+        return tableBackupPubSeq;
+    }
+
+    @Override
+    public Sequence getTableBackupSubSequence() {
+        return tableBackupSubSeq;
+    }
+
+    @Override
+    public RingQueue<ParallelSampleByTask> getParallelSampleByQueue() {
+        return parallelSampleByQueue;
+    }
+
+    @Override
+    public Sequence getParallelSampleByPubSequence() {
+        return parallelSampleByPubSeq;
+    }
+
+    @Override
+    public Sequence getParallelSampleBySubSequence() {
+        return parallelSampleBySubSeq;
+    }
+
+    @Override
+    public RingQueue<TextImportTask> getTextImportQueue() {
+        return textImportQueue;
+    }
+
+    @Override
+    public Sequence getTextImportPubSequence() {
+        return textImportPubSeq;
+    }
+
+    @Override
+    public Sequence getTextImportSubSequence() {
+        return textImportSubSeq;
+    }
+
     @Override
     public RingQueue<TableBlockWriterTaskHolder> getTableBlockWriterQueue() {
         return tableBlockWriterQueue;
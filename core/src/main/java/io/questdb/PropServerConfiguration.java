@@ -41,6 +41,10 @@ import io.questdb.cutlass.text.TextConfiguration;
 import io.questdb.cutlass.text.types.InputFormatConfiguration;
 import io.questdb.griffin.SqlInterruptorConfiguration;
 import io.questdb.log.Log;
+import io.questdb.metrics.Metrics;
+import io.questdb.mp.BackoffIdleStrategy;
+import io.questdb.mp.ParkingIdleStrategy;
+import io.questdb.mp.WorkerIdleStrategy;
 import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.network.*;
 import io.questdb.std.*;
@@ -87,7 +91,26 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int maxSwapFileCount;
     private final int mkdirMode;
     private final int parallelIndexThreshold;
+    private final boolean parallelFilterEnabled;
+    private final int parallelFilterQueueCapacity;
+    private final int parallelFilterFrameRowCount;
+    private final boolean parallelOutOfOrderMergeEnabled;
+    private final int parallelOutOfOrderMergeThreshold;
+    private final boolean parallelSampleByEnabled;
+    private final int parallelSampleByQueueCapacity;
+    private final int parallelSampleByTaskRowCount;
+    private final boolean parallelTextImportEnabled;
+    private final int parallelTextImportChunkCount;
+    private final int parallelTextImportChunkSize;
+    private final int parallelTextImportQueueCapacity;
+    private final boolean partitionedHashJoinEnabled;
+    private final int partitionedHashJoinPartitionCount;
+    private final int partitionedHashJoinQueueCapacity;
+    private final long partitionedHashJoinSpillThreshold;
+    private final boolean sqlAsOfJoinSeekEnabled;
+    private final long sqlAsOfJoinLookback;
     private final int readerPoolMaxSegments;
+    private final boolean readerColumnMappingCacheEnabled;
     private final long spinLockTimeoutUs;
     private final int sqlCacheRows;
     private final int sqlCacheBlocks;
@@ -129,6 +152,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int[] sharedWorkerAffinity;
     private final int sharedWorkerCount;
     private final boolean sharedWorkerHaltOnError;
+    private final WorkerIdleStrategy sharedWorkerIdleStrategy;
     private final WorkerPoolConfiguration workerPoolConfiguration = new PropWorkerPoolConfiguration();
     private final PGWireConfiguration pgWireConfiguration = new PropPGWireConfiguration();
     private final InputFormatConfiguration inputFormatConfiguration;
@@ -166,6 +190,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean lineTcpEnabled;
     private final WorkerPoolAwareConfiguration lineTcpWorkerPoolConfiguration = new PropLineTcpWorkerPoolConfiguration();
     private final Log log;
+    private final Metrics metrics = new Metrics();
     private final PropHttpMinServerConfiguration httpMinServerConfiguration = new PropHttpMinServerConfiguration();
     private final PropHttpContextConfiguration httpContextConfiguration = new PropHttpContextConfiguration();
     private final boolean httpMinServerEnabled;
@@ -285,10 +310,12 @@ public class PropServerConfiguration implements ServerConfiguration {
     private int lineTcpWorkerCount;
     private int[] lineTcpWorkerAffinity;
     private boolean lineTcpWorkerPoolHaltOnError;
+    private WorkerIdleStrategy lineTcpWorkerIdleStrategy = BackoffIdleStrategy.DEFAULT;
     private int lineTcpNUpdatesPerLoadRebalance;
     private double lineTcpMaxLoadRatio;
     private int lineTcpMaxUncommittedRows;
     private long lineTcpMaintenanceJobHysteresisInMs;
+    private boolean lineTcpShardedWriterQueue;
     private String lineTcpAuthDbPath;
     private String httpVersion;
     private int httpMinWorkerCount;
@@ -314,6 +341,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.sharedWorkerCount = getInt(properties, env, "shared.worker.count", Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
         this.sharedWorkerAffinity = getAffinity(properties, env, "shared.worker.affinity", sharedWorkerCount);
         this.sharedWorkerHaltOnError = getBoolean(properties, env, "shared.worker.haltOnError", false);
+        this.sharedWorkerIdleStrategy = getIdleStrategy(properties, env, "shared.worker", sharedWorkerCount);
 
         final String databaseRoot = getString(properties, env, "cairo.root", "db");
         if (new File(databaseRoot).isAbsolute()) {
@@ -486,7 +514,26 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.maxSwapFileCount = getInt(properties, env, "cairo.max.swap.file.count", 30);
         this.mkdirMode = getInt(properties, env, "cairo.mkdir.mode", 509);
         this.parallelIndexThreshold = getInt(properties, env, "cairo.parallel.index.threshold", 100000);
+        this.parallelFilterEnabled = getBoolean(properties, env, "cairo.sql.parallel.filter.enabled", true);
+        this.parallelFilterQueueCapacity = Numbers.ceilPow2(getInt(properties, env, "cairo.sql.parallel.filter.queue.capacity", 1024));
+        this.parallelFilterFrameRowCount = getInt(properties, env, "cairo.sql.parallel.filter.frame.rows", 100_000);
+        this.parallelOutOfOrderMergeEnabled = getBoolean(properties, env, "cairo.o3.parallel.merge.enabled", true);
+        this.parallelOutOfOrderMergeThreshold = getInt(properties, env, "cairo.o3.parallel.merge.threshold", 100_000);
+        this.parallelSampleByEnabled = getBoolean(properties, env, "cairo.sql.parallel.sample.by.enabled", true);
+        this.parallelSampleByQueueCapacity = Numbers.ceilPow2(getInt(properties, env, "cairo.sql.parallel.sample.by.queue.capacity", 1024));
+        this.parallelSampleByTaskRowCount = getInt(properties, env, "cairo.sql.parallel.sample.by.task.rows", 500_000);
+        this.parallelTextImportEnabled = getBoolean(properties, env, "cairo.text.parallel.import.enabled", false);
+        this.parallelTextImportChunkCount = Math.max(2, getInt(properties, env, "cairo.text.parallel.import.chunk.count", 8));
+        this.parallelTextImportChunkSize = getIntSize(properties, env, "cairo.text.parallel.import.chunk.size", 16 * 1024 * 1024);
+        this.parallelTextImportQueueCapacity = Numbers.ceilPow2(getInt(properties, env, "cairo.text.parallel.import.queue.capacity", 64));
+        this.partitionedHashJoinEnabled = getBoolean(properties, env, "cairo.sql.partitioned.hash.join.enabled", true);
+        this.partitionedHashJoinPartitionCount = Math.max(1, getInt(properties, env, "cairo.sql.partitioned.hash.join.partition.count", 32));
+        this.partitionedHashJoinQueueCapacity = Numbers.ceilPow2(getInt(properties, env, "cairo.sql.partitioned.hash.join.queue.capacity", 1024));
+        this.partitionedHashJoinSpillThreshold = getLongSize(properties, env, "cairo.sql.partitioned.hash.join.spill.threshold", 512 * 1024 * 1024);
+        this.sqlAsOfJoinSeekEnabled = getBoolean(properties, env, "cairo.sql.asof.join.seek.enabled", true);
+        this.sqlAsOfJoinLookback = Math.max(0, getLong(properties, env, "cairo.sql.asof.join.lookback", 3_600_000_000L));
         this.readerPoolMaxSegments = getInt(properties, env, "cairo.reader.pool.max.segments", 5);
+        this.readerColumnMappingCacheEnabled = getBoolean(properties, env, "cairo.reader.column.mapping.cache.enabled", true);
         this.spinLockTimeoutUs = getLong(properties, env, "cairo.spin.lock.timeout", 1_000_000);
         this.sqlCacheRows = getInt(properties, env, "cairo.cache.rows", 16);
         this.sqlCacheBlocks = getIntSize(properties, env, "cairo.cache.blocks", 4);
@@ -618,10 +665,12 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.lineTcpWorkerCount = getInt(properties, env, "line.tcp.worker.count", 0);
             this.lineTcpWorkerAffinity = getAffinity(properties, env, "line.tcp.worker.affinity", lineTcpWorkerCount);
             this.lineTcpWorkerPoolHaltOnError = getBoolean(properties, env, "line.tcp.halt.on.error", false);
+            this.lineTcpWorkerIdleStrategy = getIdleStrategy(properties, env, "line.tcp.worker", lineTcpWorkerCount);
             this.lineTcpNUpdatesPerLoadRebalance = getInt(properties, env, "line.tcp.n.updates.per.load.balance", 10_000);
             this.lineTcpMaxLoadRatio = getDouble(properties, env, "line.tcp.max.load.ratio", 1.9);
             this.lineTcpMaxUncommittedRows = getInt(properties, env, "line.tcp.max.uncommitted.rows", 1000);
             this.lineTcpMaintenanceJobHysteresisInMs = getInt(properties, env, "line.tcp.maintenance.job.hysteresis.in.ms", 250);
+            this.lineTcpShardedWriterQueue = getBoolean(properties, env, "line.tcp.writer.queue.sharded", false);
             this.lineTcpAuthDbPath = getString(properties, env, "line.tcp.auth.db.path", null);
             if (null != lineTcpAuthDbPath) {
                 this.lineTcpAuthDbPath = new File(root, this.lineTcpAuthDbPath).getAbsolutePath();
@@ -733,6 +782,32 @@ public class PropServerConfiguration implements ServerConfiguration {
         }
     }
 
+    private WorkerIdleStrategy getIdleStrategy(Properties properties, @Nullable Map<String, String> env, String prefix, int workerCount) throws ServerConfigurationException {
+        final long yieldThreshold = getLong(properties, env, prefix + ".yield.threshold", 10);
+        final long sleepThreshold = getLong(properties, env, prefix + ".sleep.threshold", 10000);
+        if (yieldThreshold > sleepThreshold) {
+            throw new ServerConfigurationException(prefix + ".yield.threshold", Long.toString(yieldThreshold));
+        }
+        final long sleepMinMicros = getLong(properties, env, prefix + ".sleep.min.micros", 1000);
+        if (sleepMinMicros < 1) {
+            throw new ServerConfigurationException(prefix + ".sleep.min.micros", Long.toString(sleepMinMicros));
+        }
+        final long sleepMaxMicros = getLong(properties, env, prefix + ".sleep.max.micros", sleepMinMicros);
+        if (sleepMaxMicros < sleepMinMicros) {
+            throw new ServerConfigurationException(prefix + ".sleep.max.micros", Long.toString(sleepMaxMicros));
+        }
+
+        final String idleStrategy = getString(properties, env, prefix + ".idle.strategy", "backoff");
+        switch (idleStrategy) {
+            case "backoff":
+                return new BackoffIdleStrategy(yieldThreshold, sleepThreshold, sleepMinMicros * 1000, sleepMaxMicros * 1000);
+            case "park":
+                return new ParkingIdleStrategy(workerCount, yieldThreshold, sleepThreshold, sleepMinMicros * 1000, sleepMaxMicros * 1000);
+            default:
+                throw new ServerConfigurationException(prefix + ".idle.strategy", idleStrategy);
+        }
+    }
+
     private int getInt(Properties properties, @Nullable Map<String, String> env, String key, int defaultValue) throws ServerConfigurationException {
         final String value = overrideWithEnv(properties, env, key);
         try {
@@ -1361,6 +1436,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return maxSwapFileCount;
         }
 
+        @Override
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
         @Override
         public MicrosecondClock getMicrosecondClock() {
             return MicrosecondClockImpl.INSTANCE;
@@ -1386,11 +1466,76 @@ public class PropServerConfiguration implements ServerConfiguration {
             return parallelIndexThreshold;
         }
 
+        @Override
+        public int getParallelFilterQueueCapacity() {
+            return parallelFilterQueueCapacity;
+        }
+
+        @Override
+        public int getParallelFilterFrameRowCount() {
+            return parallelFilterFrameRowCount;
+        }
+
+        @Override
+        public int getParallelOutOfOrderMergeThreshold() {
+            return parallelOutOfOrderMergeThreshold;
+        }
+
+        @Override
+        public int getParallelSampleByQueueCapacity() {
+            return parallelSampleByQueueCapacity;
+        }
+
+        @Override
+        public int getParallelSampleByTaskRowCount() {
+            return parallelSampleByTaskRowCount;
+        }
+
+        @Override
+        public int getParallelTextImportChunkCount() {
+            return parallelTextImportChunkCount;
+        }
+
+        @Override
+        public int getParallelTextImportChunkSize() {
+            return parallelTextImportChunkSize;
+        }
+
+        @Override
+        public int getParallelTextImportQueueCapacity() {
+            return parallelTextImportQueueCapacity;
+        }
+
+        @Override
+        public int getPartitionedHashJoinPartitionCount() {
+            return partitionedHashJoinPartitionCount;
+        }
+
+        @Override
+        public int getPartitionedHashJoinQueueCapacity() {
+            return partitionedHashJoinQueueCapacity;
+        }
+
+        @Override
+        public long getPartitionedHashJoinSpillThreshold() {
+            return partitionedHashJoinSpillThreshold;
+        }
+
+        @Override
+        public long getSqlAsOfJoinLookback() {
+            return sqlAsOfJoinLookback;
+        }
+
         @Override
         public int getReaderPoolMaxSegments() {
             return readerPoolMaxSegments;
         }
 
+        @Override
+        public boolean isReaderColumnMappingCacheEnabled() {
+            return readerColumnMappingCacheEnabled;
+        }
+
         @Override
         public CharSequence getRoot() {
             return databaseRoot;
@@ -1591,6 +1736,36 @@ public class PropServerConfiguration implements ServerConfiguration {
             return parallelIndexingEnabled;
         }
 
+        @Override
+        public boolean isParallelFilterEnabled() {
+            return parallelFilterEnabled;
+        }
+
+        @Override
+        public boolean isParallelOutOfOrderMergeEnabled() {
+            return parallelOutOfOrderMergeEnabled;
+        }
+
+        @Override
+        public boolean isParallelSampleByEnabled() {
+            return parallelSampleByEnabled;
+        }
+
+        @Override
+        public boolean isParallelTextImportEnabled() {
+            return parallelTextImportEnabled;
+        }
+
+        @Override
+        public boolean isPartitionedHashJoinEnabled() {
+            return partitionedHashJoinEnabled;
+        }
+
+        @Override
+        public boolean isSqlAsOfJoinSeekEnabled() {
+            return sqlAsOfJoinSeekEnabled;
+        }
+
         @Override
         public int getSqlJoinMetadataPageSize() {
             return sqlJoinMetadataPageSize;
@@ -1858,6 +2033,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return lineTcpWorkerPoolHaltOnError;
         }
 
+        @Override
+        public WorkerIdleStrategy getIdleStrategy() {
+            return lineTcpWorkerIdleStrategy;
+        }
+
+        @Override
+        public String getPoolName() {
+            return "line_tcp";
+        }
+
         @Override
         public boolean isEnabled() {
             return true;
@@ -1949,6 +2134,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public String getAuthDbPath() {
             return lineTcpAuthDbPath;
         }
+
+        @Override
+        public boolean isShardedWriterQueue() {
+            return lineTcpShardedWriterQueue;
+        }
     }
 
     private class PropJsonQueryProcessorConfiguration implements JsonQueryProcessorConfiguration {
@@ -2008,6 +2198,16 @@ public class PropServerConfiguration implements ServerConfiguration {
         public boolean haltOnError() {
             return sharedWorkerHaltOnError;
         }
+
+        @Override
+        public WorkerIdleStrategy getIdleStrategy() {
+            return sharedWorkerIdleStrategy;
+        }
+
+        @Override
+        public String getPoolName() {
+            return "shared";
+        }
     }
 
     private class PropWaitProcessorConfiguration implements WaitProcessorConfiguration {
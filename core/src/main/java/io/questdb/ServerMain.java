@@ -33,6 +33,7 @@ import io.questdb.cutlass.line.udp.LinuxMMLineProtoReceiver;
 import io.questdb.cutlass.pgwire.PGWireServer;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.FunctionFactoryCache;
+import io.questdb.griffin.MatViewRefreshJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.log.LogRecord;
@@ -134,7 +135,10 @@ public class ServerMain {
                 break;
         }
 
-        final WorkerPool workerPool = new WorkerPool(configuration.getWorkerPoolConfiguration());
+        final WorkerPool workerPool = new WorkerPool(
+                configuration.getWorkerPoolConfiguration(),
+                configuration.getCairoConfiguration().getMetrics().getRegistry()
+        );
         final FunctionFactoryCache functionFactoryCache = new FunctionFactoryCache(configuration.getCairoConfiguration(), ServiceLoader.load(FunctionFactory.class));
         final ObjList<Closeable> instancesToClean = new ObjList<>();
 
@@ -152,6 +156,10 @@ public class ServerMain {
             workerPool.assign(telemetryJob);
         }
 
+        final MatViewRefreshJob matViewRefreshJob = new MatViewRefreshJob(cairoEngine, functionFactoryCache);
+        workerPool.assign(matViewRefreshJob);
+        instancesToClean.add(matViewRefreshJob);
+
         try {
             initQuestDb(workerPool, cairoEngine, log);
 
@@ -27,6 +27,7 @@ package io.questdb;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.log.Log;
+import io.questdb.metrics.MetricsRegistry;
 import io.questdb.mp.WorkerPool;
 import io.questdb.mp.WorkerPoolConfiguration;
 import org.jetbrains.annotations.Nullable;
@@ -61,7 +62,15 @@ public interface WorkerPoolAwareConfiguration extends WorkerPoolConfiguration {
             WorkerPoolAwareConfiguration configuration,
             WorkerPool sharedPool
     ) {
-        return configuration.getWorkerCount() > 0 ? new WorkerPool(configuration) : sharedPool;
+        return configureWorkerPool(configuration, sharedPool, null);
+    }
+
+    static WorkerPool configureWorkerPool(
+            WorkerPoolAwareConfiguration configuration,
+            WorkerPool sharedPool,
+            @Nullable MetricsRegistry metricsRegistry
+    ) {
+        return configuration.getWorkerCount() > 0 ? new WorkerPool(configuration, metricsRegistry) : sharedPool;
     }
 
     @Nullable
@@ -76,7 +85,11 @@ public interface WorkerPoolAwareConfiguration extends WorkerPoolConfiguration {
         final T server;
         if (configuration.isEnabled()) {
 
-            final WorkerPool localPool = configureWorkerPool(configuration, sharedWorkerPool);
+            final WorkerPool localPool = configureWorkerPool(
+                    configuration,
+                    sharedWorkerPool,
+                    cairoEngine.getConfiguration().getMetrics().getRegistry()
+            );
             final boolean local = localPool != sharedWorkerPool;
             final MessageBus bus = local ? new MessageBusImpl(cairoEngine.getConfiguration()) : cairoEngine.getMessageBus();
 
@@ -24,9 +24,11 @@
 
 package io.questdb.cairo;
 
+import io.questdb.cairo.sql.RowCursor;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
 import io.questdb.std.Unsafe;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.str.Path;
@@ -38,7 +40,9 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
     protected final ReadOnlyMemory keyMem = new ReadOnlyMemory();
     protected final ReadOnlyMemory valueMem = new ReadOnlyMemory();
     protected int blockValueCountMod;
+    protected int blockValueCountShift;
     protected int blockCapacity;
+    protected boolean packed;
     protected long spinLockTimeoutUs;
     protected MicrosecondClock clock;
     protected int keyCount;
@@ -83,10 +87,12 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
             }
 
             // verify header signature
-            if (this.keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE) != BitmapIndexUtils.SIGNATURE) {
+            final byte signature = this.keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE);
+            if (signature != BitmapIndexUtils.SIGNATURE && signature != BitmapIndexUtils.SIGNATURE_PACKED) {
                 LOG.error().$("unknown format [corrupt] ").$(path).$();
                 throw CairoException.instance(0).put("Unknown format: ").put(path);
             }
+            this.packed = signature == BitmapIndexUtils.SIGNATURE_PACKED;
 
             // Triple check atomic read. We read first and last sequences. If they match - there is a chance at stable
             // read. Confirm start sequence hasn't changed after values read. If it has changed - retry the whole thing.
@@ -117,6 +123,7 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
             }
 
             this.blockValueCountMod = blockValueCountMod;
+            this.blockValueCountShift = Numbers.msb(blockValueCountMod + 1);
             this.blockCapacity = (blockValueCountMod + 1) * 8 + BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
             this.keyCount = this.keyCountIncludingNulls = keyCount;
             if (unIndexedNullCount > 0) {
@@ -163,4 +170,91 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
             }
         }
     }
+
+    /**
+     * Base of cursors over packed index. Writer reuses last value block of the key once values in it are
+     * packed. To this end cursor copies values of this block when it is set up. Packed blocks do not change
+     * and cursor decodes them one at a time.
+     */
+    protected abstract class AbstractPackedCursor implements RowCursor {
+        protected long[] blockValues;
+        protected long[] plainValues;
+        protected int plainValueCount;
+        protected long packedBlockCount;
+        protected long firstPackedBlockOffset;
+        protected long lastPackedBlockOffset;
+        protected long next;
+
+        @Override
+        public long next() {
+            return next;
+        }
+
+        protected long getPackedBlockLong(long blockOffset, int headerOffset) {
+            valueMem.grow(blockOffset + BitmapIndexUtils.PACKED_BLOCK_HEADER_SIZE);
+            return valueMem.getLong(blockOffset + headerOffset);
+        }
+
+        protected void readKey(int key, long keyCount) {
+            final int blockValueCount = blockValueCountMod + 1;
+            if (plainValues == null || plainValues.length != blockValueCount) {
+                plainValues = new long[blockValueCount];
+                blockValues = new long[blockValueCount];
+            }
+
+            plainValueCount = 0;
+            packedBlockCount = 0;
+
+            if (keyCount == 0) {
+                return;
+            }
+
+            assert key > -1 : "key must be positive integer: " + key;
+            final long offset = BitmapIndexUtils.getKeyEntryOffset(key);
+            keyMem.grow(offset + BitmapIndexUtils.KEY_ENTRY_SIZE);
+            // Read key entry as plain cursors do, except that values of the plain block are copied before
+            // count is checked the second time. Writer changes count before it overwrites the block, so it
+            // is safe to accept count that has grown as long as it still ends in the same block.
+            final long deadline = clock.getTicks() + spinLockTimeoutUs;
+            while (true) {
+                final long valueCount = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT);
+
+                Unsafe.getUnsafe().loadFence();
+                if (keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_COUNT_CHECK) == valueCount) {
+                    if (valueCount > 0) {
+                        final long valueBlockOffset = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_LAST_VALUE_BLOCK_OFFSET);
+                        firstPackedBlockOffset = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_FIRST_VALUE_BLOCK_OFFSET);
+                        packedBlockCount = (valueCount - 1) >>> blockValueCountShift;
+                        plainValueCount = (int) (valueCount - (packedBlockCount << blockValueCountShift));
+
+                        valueMem.grow(valueBlockOffset + blockCapacity);
+                        for (int i = 0; i < plainValueCount; i++) {
+                            plainValues[i] = valueMem.getLong(valueBlockOffset + i * 8L);
+                        }
+                        lastPackedBlockOffset = valueMem.getLong(valueBlockOffset + blockCapacity - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED);
+                    } else {
+                        plainValueCount = 0;
+                        packedBlockCount = 0;
+                    }
+
+                    Unsafe.getUnsafe().loadFence();
+                    final long count = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT);
+                    if (count == valueCount || (valueCount > 0 && count > valueCount && (count - 1) >>> blockValueCountShift == packedBlockCount)) {
+                        break;
+                    }
+                }
+
+                if (clock.getTicks() > deadline) {
+                    LOG.error().$(INDEX_CORRUPT).$(" [timeout=").$(spinLockTimeoutUs).utf8("μs, key=").$(key).$(", offset=").$(offset).$(']').$();
+                    throw CairoException.instance(0).put(INDEX_CORRUPT);
+                }
+            }
+        }
+
+        protected void unpack(long blockOffset) {
+            valueMem.grow(blockOffset + BitmapIndexUtils.PACKED_BLOCK_HEADER_SIZE);
+            valueMem.grow(blockOffset + valueMem.getInt(blockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_SIZE));
+            BitmapIndexUtils.unpackValueBlock(valueMem, blockOffset, blockValues, blockValueCountMod + 1);
+        }
+    }
 }
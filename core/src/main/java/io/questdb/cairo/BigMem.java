@@ -99,4 +99,8 @@ public interface BigMem extends Closeable {
     void putStr(long offset, CharSequence value);
 
     void putStr(long offset, CharSequence value, int pos, int len);
+
+    long putVarchar(CharSequence value);
+
+    long putVarchar(CharSequence value, int pos, int len);
 }
@@ -31,6 +31,8 @@ import io.questdb.std.str.Path;
 public class BitmapIndexBwdReader extends AbstractIndexReader {
     private final Cursor cursor = new Cursor();
     private final NullCursor nullCursor = new NullCursor();
+    private final PackedCursor packedCursor = new PackedCursor();
+    private final PackedNullCursor packedNullCursor = new PackedNullCursor();
 
     public BitmapIndexBwdReader() {
     }
@@ -48,6 +50,10 @@ public class BitmapIndexBwdReader extends AbstractIndexReader {
             updateKeyCount();
         }
 
+        if (packed) {
+            return getPackedCursor(cachedInstance, key, minValue, maxValue);
+        }
+
         if (key == 0 && unIndexedNullCount > 0) {
             final NullCursor nullCursor = getNullCursor(cachedInstance);
             nullCursor.nullCount = unIndexedNullCount;
@@ -72,6 +78,23 @@ public class BitmapIndexBwdReader extends AbstractIndexReader {
         return cachedInstance ? nullCursor : new NullCursor();
     }
 
+    private RowCursor getPackedCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+        if (key == 0 && unIndexedNullCount > 0) {
+            final PackedNullCursor nullCursor = cachedInstance ? packedNullCursor : new PackedNullCursor();
+            nullCursor.nullCount = unIndexedNullCount;
+            nullCursor.of(key, minValue, maxValue, keyCount);
+            return nullCursor;
+        }
+
+        if (key < keyCount) {
+            final PackedCursor cursor = cachedInstance ? packedCursor : new PackedCursor();
+            cursor.of(key, minValue, maxValue, keyCount);
+            return cursor;
+        }
+
+        return EmptyRowCursor.INSTANCE;
+    }
+
     private class Cursor implements RowCursor {
         protected long valueCount;
         protected long minValue;
@@ -185,4 +208,86 @@ public class BitmapIndexBwdReader extends AbstractIndexReader {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private class PackedCursor extends AbstractPackedCursor {
+        protected long minValue;
+        private long[] values;
+        private int position;
+        private long remainingBlockCount;
+        private long prevBlockOffset;
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (position > 0) {
+                    final long result = values[--position];
+                    if (result >= minValue) {
+                        this.next = result;
+                        return true;
+                    }
+                    position = 0;
+                    remainingBlockCount = 0;
+                    return false;
+                }
+
+                if (remainingBlockCount > 0) {
+                    prevBlock();
+                    position = blockValueCountMod + 1;
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        private void prevBlock() {
+            unpack(prevBlockOffset);
+            values = blockValues;
+            remainingBlockCount--;
+            if (remainingBlockCount > 0) {
+                prevBlockOffset = getPackedBlockLong(prevBlockOffset, BitmapIndexUtils.PACKED_BLOCK_OFFSET_PREV);
+            }
+        }
+
+        void of(int key, long minValue, long maxValue, long keyCount) {
+            readKey(key, keyCount);
+            this.minValue = minValue;
+            this.remainingBlockCount = packedBlockCount;
+            this.prevBlockOffset = lastPackedBlockOffset;
+            // values of plain block were copied when cursor was set up
+            this.values = plainValues;
+            this.position = BitmapIndexUtils.searchValues(plainValues, plainValueCount, maxValue);
+
+            if (position == 0) {
+                // skip packed blocks entirely above maxValue without decoding them
+                while (remainingBlockCount > 0 && getPackedBlockLong(prevBlockOffset, BitmapIndexUtils.PACKED_BLOCK_OFFSET_FIRST_VALUE) > maxValue) {
+                    remainingBlockCount--;
+                    if (remainingBlockCount > 0) {
+                        prevBlockOffset = getPackedBlockLong(prevBlockOffset, BitmapIndexUtils.PACKED_BLOCK_OFFSET_PREV);
+                    }
+                }
+
+                if (remainingBlockCount > 0) {
+                    prevBlock();
+                    position = BitmapIndexUtils.searchValues(values, blockValueCountMod + 1, maxValue);
+                }
+            }
+        }
+    }
+
+    private class PackedNullCursor extends PackedCursor {
+        private long nullCount;
+
+        @Override
+        public boolean hasNext() {
+            if (super.hasNext()) {
+                return true;
+            }
+
+            if (--nullCount >= minValue) {
+                this.next = nullCount;
+                return true;
+            }
+            return false;
+        }
+    }
+}
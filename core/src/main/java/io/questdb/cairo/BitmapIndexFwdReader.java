@@ -34,6 +34,8 @@ public class BitmapIndexFwdReader extends AbstractIndexReader {
     private final static Log LOG = LogFactory.getLog(BitmapIndexFwdReader.class);
     private final Cursor cursor = new Cursor();
     private final NullCursor nullCursor = new NullCursor();
+    private final PackedCursor packedCursor = new PackedCursor();
+    private final PackedNullCursor packedNullCursor = new PackedNullCursor();
 
     public BitmapIndexFwdReader(CairoConfiguration configuration, Path path, CharSequence name, long unIndexedNullCount) {
         of(configuration, path, name, unIndexedNullCount);
@@ -46,6 +48,10 @@ public class BitmapIndexFwdReader extends AbstractIndexReader {
             updateKeyCount();
         }
 
+        if (packed) {
+            return getPackedCursor(cachedInstance, key, minValue, maxValue);
+        }
+
         if (key == 0 && unIndexedNullCount > 0 && minValue < unIndexedNullCount) {
             // we need to return some nulls and the whole set of actual index values
             final NullCursor nullCursor = getNullCursor(cachedInstance);
@@ -72,6 +78,24 @@ public class BitmapIndexFwdReader extends AbstractIndexReader {
         return cachedInstance ? nullCursor : new NullCursor();
     }
 
+    private RowCursor getPackedCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+        if (key == 0 && unIndexedNullCount > 0 && minValue < unIndexedNullCount) {
+            final PackedNullCursor nullCursor = cachedInstance ? packedNullCursor : new PackedNullCursor();
+            nullCursor.nullPos = minValue;
+            nullCursor.nullCount = unIndexedNullCount;
+            nullCursor.of(key, 0, maxValue, keyCount);
+            return nullCursor;
+        }
+
+        if (key < keyCount) {
+            final PackedCursor cursor = cachedInstance ? packedCursor : new PackedCursor();
+            cursor.of(key, minValue, maxValue, keyCount);
+            return cursor;
+        }
+
+        return EmptyRowCursor.INSTANCE;
+    }
+
     private class Cursor implements RowCursor {
         protected long position;
         protected long valueCount;
@@ -186,4 +210,94 @@ public class BitmapIndexFwdReader extends AbstractIndexReader {
             return super.hasNext();
         }
     }
-}
\ No newline at end of file
+
+    private class PackedCursor extends AbstractPackedCursor {
+        private long[] values;
+        private int position;
+        private int limit;
+        private long remainingBlockCount;
+        private long nextBlockOffset;
+        private boolean plainBlockPending;
+        private long maxValue;
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (position < limit) {
+                    final long result = values[position++];
+                    if (result > maxValue) {
+                        position = limit = 0;
+                        remainingBlockCount = 0;
+                        plainBlockPending = false;
+                        return false;
+                    }
+                    this.next = result;
+                    return true;
+                }
+
+                if (!nextBlock()) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean nextBlock() {
+            if (remainingBlockCount > 0) {
+                unpack(nextBlockOffset);
+                values = blockValues;
+                position = 0;
+                limit = blockValueCountMod + 1;
+                remainingBlockCount--;
+                if (remainingBlockCount > 0) {
+                    nextBlockOffset = getPackedBlockLong(nextBlockOffset, BitmapIndexUtils.PACKED_BLOCK_OFFSET_NEXT);
+                }
+                return true;
+            }
+
+            if (plainBlockPending) {
+                // values of plain block were copied when cursor was set up
+                plainBlockPending = false;
+                values = plainValues;
+                position = 0;
+                limit = plainValueCount;
+                return true;
+            }
+            return false;
+        }
+
+        void of(int key, long minValue, long maxValue, long keyCount) {
+            readKey(key, keyCount);
+            this.maxValue = maxValue;
+            this.position = this.limit = 0;
+            this.remainingBlockCount = packedBlockCount;
+            this.nextBlockOffset = firstPackedBlockOffset;
+            this.plainBlockPending = plainValueCount > 0;
+
+            // skip packed blocks entirely below minValue without decoding them
+            while (remainingBlockCount > 0 && getPackedBlockLong(nextBlockOffset, BitmapIndexUtils.PACKED_BLOCK_OFFSET_LAST_VALUE) < minValue) {
+                remainingBlockCount--;
+                if (remainingBlockCount > 0) {
+                    nextBlockOffset = getPackedBlockLong(nextBlockOffset, BitmapIndexUtils.PACKED_BLOCK_OFFSET_NEXT);
+                }
+            }
+
+            if (nextBlock()) {
+                position = BitmapIndexUtils.searchValues(values, limit, minValue - 1);
+            }
+        }
+    }
+
+    private class PackedNullCursor extends PackedCursor {
+        private long nullCount;
+        private long nullPos;
+
+        @Override
+        public boolean hasNext() {
+            if (nullPos < nullCount) {
+                next = nullPos++;
+                return true;
+            }
+            return super.hasNext();
+        }
+    }
+}
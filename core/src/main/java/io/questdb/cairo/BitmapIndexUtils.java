@@ -24,6 +24,7 @@
 
 package io.questdb.cairo;
 
+import io.questdb.std.Unsafe;
 import io.questdb.std.str.Path;
 
 public final class BitmapIndexUtils {
@@ -45,8 +46,23 @@ public final class BitmapIndexUtils {
     static final int KEY_RESERVED_OFFSET_SEQUENCE_CHECK = 29;
 
     static final byte SIGNATURE = (byte) 0xfa;
+    static final byte SIGNATURE_PACKED = (byte) 0xfb;
     static final int VALUE_BLOCK_FILE_RESERVED = 16;
 
+    /**
+     * Packed value block header offsets. Packed index keeps last block of each key as plain list
+     * of longs. When this block fills up its values are delta encoded into packed block, which
+     * is then linked in front of the plain block.
+     */
+    static final int PACKED_BLOCK_OFFSET_PREV = 0;
+    static final int PACKED_BLOCK_OFFSET_NEXT = 8;
+    static final int PACKED_BLOCK_OFFSET_FIRST_VALUE = 16;
+    static final int PACKED_BLOCK_OFFSET_LAST_VALUE = 24;
+    static final int PACKED_BLOCK_OFFSET_MIN_DELTA = 32;
+    static final int PACKED_BLOCK_OFFSET_BIT_WIDTH = 40;
+    static final int PACKED_BLOCK_OFFSET_SIZE = 44;
+    static final int PACKED_BLOCK_HEADER_SIZE = 48;
+
     public static Path keyFileName(Path path, CharSequence name) {
         return path.concat(name).put(".k").$();
     }
@@ -172,10 +188,131 @@ public final class BitmapIndexUtils {
     }
 
 
+    static long getPackedBlockSize(int valueCount, int bitWidth) {
+        return PACKED_BLOCK_HEADER_SIZE + (((valueCount - 1) * (long) bitWidth + 63) >>> 6) * 8;
+    }
+
     static long getKeyEntryOffset(int key) {
         return key * KEY_ENTRY_SIZE + KEY_FILE_RESERVED;
     }
 
+    /**
+     * Checks that key file was not caught half-way through an update, e.g. when it was copied
+     * while writer was adding values to the index.
+     *
+     * @param keyMem     address of key file contents
+     * @param keyMemSize size of key file contents
+     * @return true when both header and all key entries are consistent
+     */
+    static boolean isKeyFileConsistent(long keyMem, long keyMemSize) {
+        if (keyMemSize < KEY_FILE_RESERVED
+                || Unsafe.getUnsafe().getLong(keyMem + KEY_RESERVED_OFFSET_SEQUENCE) != Unsafe.getUnsafe().getLong(keyMem + KEY_RESERVED_OFFSET_SEQUENCE_CHECK)) {
+            return false;
+        }
+        final int keyCount = Unsafe.getUnsafe().getInt(keyMem + KEY_RESERVED_OFFSET_KEY_COUNT);
+        if (getKeyEntryOffset(keyCount) > keyMemSize) {
+            return false;
+        }
+        for (int key = 0; key < keyCount; key++) {
+            final long p = keyMem + getKeyEntryOffset(key);
+            if (Unsafe.getUnsafe().getLong(p + KEY_ENTRY_OFFSET_VALUE_COUNT) != Unsafe.getUnsafe().getLong(p + KEY_ENTRY_OFFSET_COUNT_CHECK)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes ordered list of values as packed block. Values are stored as first value followed by deltas between
+     * adjacent values. Smallest delta is subtracted from all deltas and remainders are bit-packed using
+     * as many bits as largest remainder requires. Runs of consecutive row ids and regularly spaced rows
+     * therefore take no space beyond block header.
+     * <p>
+     * Links to previous and next blocks are left for caller to write.
+     *
+     * @param valueMem    value block memory
+     * @param srcOffset   offset of list of values to pack
+     * @param valueCount  number of values in the list
+     * @param blockOffset offset to write packed block at
+     * @return size of packed block in bytes
+     */
+    static long packValueBlock(VirtualMemory valueMem, long srcOffset, int valueCount, long blockOffset) {
+        final long first = valueMem.getLong(srcOffset);
+        long minDelta = Long.MAX_VALUE;
+        long maxDelta = 0;
+        long prev = first;
+        for (int i = 1; i < valueCount; i++) {
+            final long value = valueMem.getLong(srcOffset + i * 8L);
+            final long delta = value - prev;
+            assert delta > -1 : "values must be in ascending order";
+            minDelta = Math.min(minDelta, delta);
+            maxDelta = Math.max(maxDelta, delta);
+            prev = value;
+        }
+
+        if (valueCount < 2) {
+            minDelta = 0;
+        }
+
+        final int bitWidth = 64 - Long.numberOfLeadingZeros(maxDelta - minDelta);
+        final long size = getPackedBlockSize(valueCount, bitWidth);
+
+        valueMem.putLong(blockOffset + PACKED_BLOCK_OFFSET_FIRST_VALUE, first);
+        valueMem.putLong(blockOffset + PACKED_BLOCK_OFFSET_LAST_VALUE, prev);
+        valueMem.putLong(blockOffset + PACKED_BLOCK_OFFSET_MIN_DELTA, minDelta);
+        valueMem.putInt(blockOffset + PACKED_BLOCK_OFFSET_BIT_WIDTH, bitWidth);
+        valueMem.putInt(blockOffset + PACKED_BLOCK_OFFSET_SIZE, (int) size);
+
+        if (bitWidth > 0) {
+            long p = blockOffset + PACKED_BLOCK_HEADER_SIZE;
+            long word = 0;
+            int bits = 0;
+            prev = first;
+            for (int i = 1; i < valueCount; i++) {
+                final long value = valueMem.getLong(srcOffset + i * 8L);
+                final long delta = value - prev - minDelta;
+                prev = value;
+                word |= delta << bits;
+                bits += bitWidth;
+                if (bits >= 64) {
+                    valueMem.putLong(p, word);
+                    p += 8;
+                    bits -= 64;
+                    // carry over high bits of delta that did not fit the word
+                    word = bits > 0 ? delta >>> (bitWidth - bits) : 0;
+                }
+            }
+
+            if (bits > 0) {
+                valueMem.putLong(p, word);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Searches ordered array of values. Semantics are the same as of {@link #searchValueBlock(VirtualMemory, long, long, long)},
+     * except that value does not have to be less than the last value in the array.
+     *
+     * @param values     ordered values
+     * @param valueCount number of values in the array to search
+     * @param value      value we search for
+     * @return number of values that are less or equal than searched value
+     */
+    static int searchValues(long[] values, int valueCount, long value) {
+        int low = 0;
+        int high = valueCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     /**
      * Searches ordered list of long values. Return value is either index behind matching value in the list or
      * index of where values would be inserted in order to maintain ascending order of the list. When list
@@ -228,6 +365,51 @@ public final class BitmapIndexUtils {
         }
     }
 
+    /**
+     * Decodes packed block created by {@link #packValueBlock(VirtualMemory, long, int, long)}.
+     *
+     * @param valueMem    value block memory
+     * @param blockOffset offset of packed block
+     * @param values      array to decode values to
+     * @param valueCount  number of values in the block
+     */
+    static void unpackValueBlock(VirtualMemory valueMem, long blockOffset, long[] values, int valueCount) {
+        final long minDelta = valueMem.getLong(blockOffset + PACKED_BLOCK_OFFSET_MIN_DELTA);
+        final int bitWidth = valueMem.getInt(blockOffset + PACKED_BLOCK_OFFSET_BIT_WIDTH);
+        long value = valueMem.getLong(blockOffset + PACKED_BLOCK_OFFSET_FIRST_VALUE);
+        values[0] = value;
+
+        if (bitWidth == 0) {
+            for (int i = 1; i < valueCount; i++) {
+                value += minDelta;
+                values[i] = value;
+            }
+            return;
+        }
+
+        final long mask = bitWidth == 64 ? -1L : (1L << bitWidth) - 1;
+        long p = blockOffset + PACKED_BLOCK_HEADER_SIZE;
+        long word = valueMem.getLong(p);
+        int bits = 0;
+        for (int i = 1; i < valueCount; i++) {
+            long delta = word >>> bits;
+            bits += bitWidth;
+            if (bits >= 64) {
+                bits -= 64;
+                p += 8;
+                // avoid reading past the end of block
+                if (bits > 0 || i < valueCount - 1) {
+                    word = valueMem.getLong(p);
+                }
+                if (bits > 0) {
+                    delta |= word << (bitWidth - bits);
+                }
+            }
+            value += (delta & mask) + minDelta;
+            values[i] = value;
+        }
+    }
+
     @FunctionalInterface
     interface ValueBlockSeeker {
         void seek(long count, long offset);
@@ -39,8 +39,12 @@ public class BitmapIndexWriter implements Closeable {
     private final ReadWriteMemory keyMem = new ReadWriteMemory();
     private final ReadWriteMemory valueMem = new ReadWriteMemory();
     private final Cursor cursor = new Cursor();
+    private final PackedCursor packedCursor = new PackedCursor();
     private int blockCapacity;
     private int blockValueCountMod;
+    private int blockValueCountShift;
+    private boolean packed;
+    private long[] values;
     private long valueMemSize = -1;
     private int keyCount = -1;
     private long seekValueCount;
@@ -55,11 +59,22 @@ public class BitmapIndexWriter implements Closeable {
     }
 
     public static void initKeyMemory(VirtualMemory keyMem, int blockValueCount) {
+        initKeyMemory(keyMem, blockValueCount, false);
+    }
+
+    /**
+     * Initializes key memory of new index.
+     *
+     * @param keyMem          key memory
+     * @param blockValueCount number of values in value block, must be power of 2
+     * @param packed          when true index stores full value blocks delta encoded and bit-packed
+     */
+    public static void initKeyMemory(VirtualMemory keyMem, int blockValueCount, boolean packed) {
 
         // block value count must be power of 2
         assert blockValueCount == Numbers.ceilPow2(blockValueCount);
 
-        keyMem.putByte(BitmapIndexUtils.SIGNATURE);
+        keyMem.putByte(packed ? BitmapIndexUtils.SIGNATURE_PACKED : BitmapIndexUtils.SIGNATURE);
         keyMem.putLong(1); // SEQUENCE
         Unsafe.getUnsafe().storeFence();
         keyMem.putLong(0); // VALUE MEM SIZE
@@ -101,6 +116,10 @@ public class BitmapIndexWriter implements Closeable {
             } else if (valueCount == 0) {
                 // this is scenario #3: we are effectively adding a new key and creating new block
                 initValueBlockAndStoreValue(offset, value);
+            } else if (packed) {
+                // scenario #2 for packed index: last block is packed and then reused for new values
+                assert valueBlockOffset + blockCapacity <= valueMemSize;
+                packValueBlockAndStoreValue(offset, valueBlockOffset, valueCount, value);
             } else {
                 // this is scenario #2: key exists but last block is full. We need to create new block and add value there
                 assert valueBlockOffset + blockCapacity <= valueMemSize;
@@ -133,12 +152,20 @@ public class BitmapIndexWriter implements Closeable {
 
     public RowCursor getCursor(int key) {
         if (key < keyCount) {
+            if (packed) {
+                packedCursor.of(key);
+                return packedCursor;
+            }
             cursor.of(key);
             return cursor;
         }
         return EmptyRowCursor.INSTANCE;
     }
 
+    public boolean isPacked() {
+        return packed;
+    }
+
     final public void of(CairoConfiguration configuration, Path path, CharSequence name) {
         close();
         long pageSize = configuration.getFilesFacade().getMapPageSize();
@@ -160,10 +187,12 @@ public class BitmapIndexWriter implements Closeable {
             }
 
             // verify header signature
-            if (this.keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE) != BitmapIndexUtils.SIGNATURE) {
+            final byte signature = this.keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE);
+            if (signature != BitmapIndexUtils.SIGNATURE && signature != BitmapIndexUtils.SIGNATURE_PACKED) {
                 LOG.error().$("unknown format [corrupt] ").$(path).$();
                 throw CairoException.instance(0).put("Unknown format: ").put(path);
             }
+            this.packed = signature == BitmapIndexUtils.SIGNATURE_PACKED;
 
             // verify key count
             this.keyCount = this.keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_KEY_COUNT);
@@ -190,6 +219,7 @@ public class BitmapIndexWriter implements Closeable {
             // to calculate remainder we use faster 'x & (count-1)', which is equivalent to (x % count)
             this.blockValueCountMod = this.keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_BLOCK_VALUE_COUNT) - 1;
             assert blockValueCountMod > 0;
+            this.blockValueCountShift = Numbers.msb(this.blockValueCountMod + 1);
             this.blockCapacity = (this.blockValueCountMod + 1) * 8 + BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
         } catch (CairoException e) {
             this.close();
@@ -213,10 +243,12 @@ public class BitmapIndexWriter implements Closeable {
             }
 
             // verify header signature
-            if (this.keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE) != BitmapIndexUtils.SIGNATURE) {
+            final byte signature = this.keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE);
+            if (signature != BitmapIndexUtils.SIGNATURE && signature != BitmapIndexUtils.SIGNATURE_PACKED) {
                 LOG.error().$("unknown format [corrupt] [fd=").$(keyFd).$(']').$();
                 throw CairoException.instance(0).put("Unknown format: [fd=").put(keyFd).put(']');
             }
+            this.packed = signature == BitmapIndexUtils.SIGNATURE_PACKED;
 
             // verify key count
             this.keyCount = this.keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_KEY_COUNT);
@@ -243,6 +275,7 @@ public class BitmapIndexWriter implements Closeable {
             // to calculate remainder we use faster 'x & (count-1)', which is equivalent to (x % count)
             this.blockValueCountMod = this.keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_BLOCK_VALUE_COUNT) - 1;
             assert blockValueCountMod > 0;
+            this.blockValueCountShift = Numbers.msb(this.blockValueCountMod + 1);
             this.blockCapacity = (this.blockValueCountMod + 1) * 8 + BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
         } catch (CairoException e) {
             this.close();
@@ -258,6 +291,11 @@ public class BitmapIndexWriter implements Closeable {
      */
     public void rollbackValues(long maxValue) {
 
+        if (packed) {
+            rollbackPackedValues(maxValue);
+            return;
+        }
+
         long maxValueBlockOffset = 0;
         for (int k = 0; k < keyCount; k++) {
             long offset = BitmapIndexUtils.getKeyEntryOffset(k);
@@ -352,6 +390,14 @@ public class BitmapIndexWriter implements Closeable {
         keyMem.putLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_COUNT_CHECK, valueCount + 1);
     }
 
+    private long[] getValues() {
+        final int blockValueCount = blockValueCountMod + 1;
+        if (values == null || values.length != blockValueCount) {
+            values = new long[blockValueCount];
+        }
+        return values;
+    }
+
     private void initValueBlockAndStoreValue(long offset, long value) {
         long newValueBlockOffset = allocateValueBlockAndStore(value);
 
@@ -375,6 +421,118 @@ public class BitmapIndexWriter implements Closeable {
         Unsafe.getUnsafe().storeFence();
     }
 
+    private void packValueBlockAndStoreValue(long offset, long valueBlockOffset, long valueCount, long value) {
+        final long linkOffset = valueBlockOffset + blockCapacity - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
+        final boolean firstPackedBlock = valueCount == blockValueCountMod + 1;
+        final long prevPackedBlockOffset = firstPackedBlock ? -1 : valueMem.getLong(linkOffset);
+
+        // pack full block of values and link packed block in front of the plain block
+        final long packedBlockOffset = valueMemSize;
+        final long packedBlockSize = BitmapIndexUtils.packValueBlock(valueMem, valueBlockOffset, blockValueCountMod + 1, packedBlockOffset);
+        valueMem.putLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_PREV, prevPackedBlockOffset);
+        valueMem.putLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_NEXT, valueBlockOffset);
+        valueMem.jumpTo(valueMemSize + packedBlockSize);
+        valueMemSize += packedBlockSize;
+        updateValueMemSize();
+
+        if (!firstPackedBlock) {
+            valueMem.putLong(prevPackedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_NEXT, packedBlockOffset);
+        }
+
+        // plain block is about to be overwritten, readers could be copying values out of it
+        // we change count before touching the block, readers re-check count after copying
+        Unsafe.getUnsafe().storeFence();
+        keyMem.putLong(offset, valueCount + 1);
+        Unsafe.getUnsafe().storeFence();
+
+        valueMem.putLong(valueBlockOffset, value);
+        // plain block keeps reference to last packed block
+        valueMem.putLong(linkOffset, packedBlockOffset);
+        if (firstPackedBlock) {
+            keyMem.putLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_FIRST_VALUE_BLOCK_OFFSET, packedBlockOffset);
+        }
+        Unsafe.getUnsafe().storeFence();
+
+        // write count check
+        keyMem.putLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_COUNT_CHECK, valueCount + 1);
+        Unsafe.getUnsafe().storeFence();
+    }
+
+    private void rollbackPackedValues(long maxValue) {
+        final int blockValueCount = blockValueCountMod + 1;
+        long maxValueMemSize = 0;
+        for (int k = 0; k < keyCount; k++) {
+            final long offset = BitmapIndexUtils.getKeyEntryOffset(k);
+            final long valueCount = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT);
+
+            if (valueCount > 0) {
+                final long valueBlockOffset = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_LAST_VALUE_BLOCK_OFFSET);
+                final long linkOffset = valueBlockOffset + blockCapacity - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
+                final long packedBlockCount = (valueCount - 1) >>> blockValueCountShift;
+                long newPackedBlockCount = packedBlockCount;
+                long packedBlockOffset = packedBlockCount > 0 ? valueMem.getLong(linkOffset) : -1;
+                int unpackedCount = 0;
+                long newValueCount;
+
+                if (valueMem.getLong(valueBlockOffset) <= maxValue) {
+                    // values to remove are all in the plain block
+                    final long cellCount = valueCount - (packedBlockCount << blockValueCountShift);
+                    if (valueMem.getLong(valueBlockOffset + (cellCount - 1) * 8) > maxValue) {
+                        newValueCount = (packedBlockCount << blockValueCountShift)
+                                + BitmapIndexUtils.searchValueBlock(valueMem, valueBlockOffset, cellCount, maxValue);
+                    } else {
+                        newValueCount = valueCount;
+                    }
+                } else {
+                    // drop packed blocks we don't need and unpack the one that is left into plain block
+                    while (newPackedBlockCount > 0 && valueMem.getLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_FIRST_VALUE) > maxValue) {
+                        packedBlockOffset = valueMem.getLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_PREV);
+                        newPackedBlockCount--;
+                    }
+
+                    if (newPackedBlockCount > 0) {
+                        BitmapIndexUtils.unpackValueBlock(valueMem, packedBlockOffset, getValues(), blockValueCount);
+                        unpackedCount = BitmapIndexUtils.searchValues(values, blockValueCount, maxValue);
+                        packedBlockOffset = valueMem.getLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_PREV);
+                        newPackedBlockCount--;
+                    }
+                    newValueCount = (newPackedBlockCount << blockValueCountShift) + unpackedCount;
+                }
+
+                if (newValueCount != valueCount) {
+                    // same as when adding values, count goes first because plain block may be overwritten
+                    keyMem.putLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT, newValueCount);
+                    Unsafe.getUnsafe().storeFence();
+
+                    if (newPackedBlockCount != packedBlockCount) {
+                        for (int i = 0; i < unpackedCount; i++) {
+                            valueMem.putLong(valueBlockOffset + i * 8L, values[i]);
+                        }
+                        valueMem.putLong(linkOffset, packedBlockOffset);
+                        if (newPackedBlockCount > 0) {
+                            valueMem.putLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_NEXT, valueBlockOffset);
+                        } else {
+                            keyMem.putLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_FIRST_VALUE_BLOCK_OFFSET, valueBlockOffset);
+                        }
+                    }
+                    Unsafe.getUnsafe().storeFence();
+                    keyMem.putLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_COUNT_CHECK, newValueCount);
+                }
+
+                maxValueMemSize = Math.max(maxValueMemSize, valueBlockOffset + blockCapacity);
+                if (newPackedBlockCount > 0) {
+                    // packed blocks of the key are allocated in ascending order, last block is the farthest
+                    maxValueMemSize = Math.max(
+                            maxValueMemSize,
+                            packedBlockOffset + valueMem.getInt(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_SIZE)
+                    );
+                }
+            }
+        }
+        valueMemSize = maxValueMemSize;
+        updateValueMemSize();
+    }
+
     private long keyMemSize() {
         return this.keyCount * BitmapIndexUtils.KEY_ENTRY_SIZE + BitmapIndexUtils.KEY_FILE_RESERVED;
     }
@@ -387,7 +545,7 @@ public class BitmapIndexWriter implements Closeable {
     void truncate() {
         keyMem.truncate();
         valueMem.truncate();
-        initKeyMemory(keyMem, TableUtils.MIN_INDEX_VALUE_BLOCK_SIZE);
+        initKeyMemory(keyMem, TableUtils.MIN_INDEX_VALUE_BLOCK_SIZE, packed);
         keyCount = 0;
         valueMemSize = TableUtils.MIN_INDEX_VALUE_BLOCK_SIZE;
     }
@@ -457,4 +615,49 @@ public class BitmapIndexWriter implements Closeable {
             this.valueBlockOffset = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_LAST_VALUE_BLOCK_OFFSET);
         }
     }
+
+    private class PackedCursor implements RowCursor {
+        private long[] values;
+        private long valueCount;
+        private long packedBlockOffset;
+        private int position;
+
+        @Override
+        public boolean hasNext() {
+            return valueCount > 0;
+        }
+
+        @Override
+        public long next() {
+            valueCount--;
+            final long result = values[--position];
+            if (position == 0 && valueCount > 0) {
+                // plain block or previous packed block is exhausted, values continue in previous packed block
+                BitmapIndexUtils.unpackValueBlock(valueMem, packedBlockOffset, values, blockValueCountMod + 1);
+                position = blockValueCountMod + 1;
+                packedBlockOffset = valueMem.getLong(packedBlockOffset + BitmapIndexUtils.PACKED_BLOCK_OFFSET_PREV);
+            }
+            return result;
+        }
+
+        void of(int key) {
+            assert key > -1 : "key must be positive integer: " + key;
+            final int blockValueCount = blockValueCountMod + 1;
+            if (values == null || values.length != blockValueCount) {
+                values = new long[blockValueCount];
+            }
+
+            final long offset = BitmapIndexUtils.getKeyEntryOffset(key);
+            this.valueCount = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT);
+            assert valueCount > -1;
+            if (valueCount > 0) {
+                final long valueBlockOffset = keyMem.getLong(offset + BitmapIndexUtils.KEY_ENTRY_OFFSET_LAST_VALUE_BLOCK_OFFSET);
+                this.position = (int) (valueCount - ((valueCount - 1) >>> blockValueCountShift << blockValueCountShift));
+                for (int i = 0; i < position; i++) {
+                    values[i] = valueMem.getLong(valueBlockOffset + i * 8L);
+                }
+                this.packedBlockOffset = valueMem.getLong(valueBlockOffset + blockCapacity - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED);
+            }
+        }
+    }
 }
@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.BuildInformation;
 import io.questdb.TelemetryConfiguration;
 import io.questdb.cutlass.text.TextConfiguration;
+import io.questdb.metrics.Metrics;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.NanosecondClock;
 import io.questdb.std.datetime.DateFormat;
@@ -68,6 +69,8 @@ public interface CairoConfiguration {
 
     int getMaxSwapFileCount();
 
+    Metrics getMetrics();
+
     MicrosecondClock getMicrosecondClock();
 
     MillisecondClock getMillisecondClock();
@@ -78,8 +81,34 @@ public interface CairoConfiguration {
 
     int getParallelIndexThreshold();
 
+    int getParallelFilterQueueCapacity();
+
+    int getParallelFilterFrameRowCount();
+
+    int getParallelOutOfOrderMergeThreshold();
+
+    int getParallelSampleByQueueCapacity();
+
+    int getParallelSampleByTaskRowCount();
+
+    int getParallelTextImportChunkCount();
+
+    int getParallelTextImportChunkSize();
+
+    int getParallelTextImportQueueCapacity();
+
+    int getPartitionedHashJoinPartitionCount();
+
+    int getPartitionedHashJoinQueueCapacity();
+
+    long getPartitionedHashJoinSpillThreshold();
+
+    long getSqlAsOfJoinLookback();
+
     int getReaderPoolMaxSegments();
 
+    boolean isReaderColumnMappingCacheEnabled();
+
     CharSequence getRoot();
 
     // null input root disables "copy" sql
@@ -162,6 +191,18 @@ public interface CairoConfiguration {
 
     boolean isParallelIndexingEnabled();
 
+    boolean isParallelFilterEnabled();
+
+    boolean isParallelOutOfOrderMergeEnabled();
+
+    boolean isParallelSampleByEnabled();
+
+    boolean isParallelTextImportEnabled();
+
+    boolean isPartitionedHashJoinEnabled();
+
+    boolean isSqlAsOfJoinSeekEnabled();
+
     /**
      * This holds table metadata, which is usually quite small. 16K page should be adequate.
      *
@@ -33,6 +33,8 @@ import io.questdb.cairo.pool.WriterSource;
 import io.questdb.cairo.sql.ReaderOutOfDateException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.Scrapable;
 import io.questdb.mp.*;
 import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
@@ -49,6 +51,7 @@ public class CairoEngine implements Closeable, WriterSource {
     private static final Log LOG = LogFactory.getLog(CairoEngine.class);
 
     private final WriterPool writerPool;
+    private final MatViewRegistry matViewRegistry;
     private final ReaderPool readerPool;
     private final CairoConfiguration configuration;
     private final WriterMaintenanceJob writerMaintenanceJob;
@@ -59,11 +62,13 @@ public class CairoEngine implements Closeable, WriterSource {
     private final long tableIndexFd;
     private final long tableIndexMem;
     private final long tableIndexMemSize;
+    private final ObjList<Scrapable> poolMetrics = new ObjList<>();
 
     public CairoEngine(CairoConfiguration configuration) {
         this.configuration = configuration;
         this.messageBus = new MessageBusImpl(configuration);
-        this.writerPool = new WriterPool(configuration, messageBus);
+        this.matViewRegistry = new MatViewRegistry(configuration);
+        this.writerPool = new WriterPool(configuration, messageBus, matViewRegistry);
         this.readerPool = new ReaderPool(configuration);
         this.writerMaintenanceJob = new WriterMaintenanceJob(configuration);
         this.telemetryQueue = new RingQueue<>(TelemetryTask::new, configuration.getTelemetryConfiguration().getQueueCapacity());
@@ -71,6 +76,12 @@ public class CairoEngine implements Closeable, WriterSource {
         this.telemetrySubSeq = new SCSequence();
         telemetryPubSeq.then(telemetrySubSeq).then(telemetryPubSeq);
 
+        final MetricsRegistry metricsRegistry = configuration.getMetrics().getRegistry();
+        poolMetrics.add(metricsRegistry.newVirtualGauge("questdb_reader_pool_busy", "Readers checked out of the reader pool", this::getBusyReaderCount));
+        poolMetrics.add(metricsRegistry.newVirtualGauge("questdb_reader_pool_capacity", "Maximum number of readers the reader pool can hand out", readerPool::getMaxEntries));
+        poolMetrics.add(metricsRegistry.newVirtualGauge("questdb_reader_column_mappings", "Column file mappings shared by pooled readers", readerPool::getColumnMappingCount));
+        poolMetrics.add(metricsRegistry.newVirtualGauge("questdb_writer_pool_busy", "Writers checked out of the writer pool", this::getBusyWriterCount));
+
         final FilesFacade ff = configuration.getFilesFacade();
         try (Path path = new Path().of(configuration.getRoot()).concat("_tab_index.d").$()) {
             this.tableIndexMemSize = Files.PAGE_SIZE;
@@ -90,6 +101,7 @@ public class CairoEngine implements Closeable, WriterSource {
             }
             try {
                 upgradeTableId();
+                matViewRegistry.load();
             } catch (CairoException e) {
                 close();
                 throw e;
@@ -99,8 +111,14 @@ public class CairoEngine implements Closeable, WriterSource {
 
     @Override
     public void close() {
+        final MetricsRegistry metricsRegistry = configuration.getMetrics().getRegistry();
+        for (int i = 0, n = poolMetrics.size(); i < n; i++) {
+            metricsRegistry.remove(poolMetrics.getQuick(i));
+        }
+        poolMetrics.clear();
         Misc.free(writerPool);
         Misc.free(readerPool);
+        Misc.free(matViewRegistry);
         configuration.getFilesFacade().munmap(tableIndexMem, tableIndexMemSize);
         configuration.getFilesFacade().close(tableIndexFd);
     }
@@ -167,6 +185,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return configuration;
     }
 
+    public MatViewRegistry getMatViewRegistry() {
+        return matViewRegistry;
+    }
+
     public MessageBus getMessageBus() {
         return messageBus;
     }
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.ConcurrentHashMap;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.NativeLPSZ;
+
+/**
+ * Read-only mappings of column files, which are shared by all table readers of the engine. Mappings
+ * are reference counted and unmapped when the last reader lets go of them.
+ * <p>
+ * Mapping, once created, never changes its address or size, readers use it without locking. When reader
+ * needs more of the file than is mapped, it gets new mapping of the whole file, which replaces the old one
+ * in the cache. Readers of older transactions keep using old mapping until they reload. Writer extends
+ * column files in whole pages ahead of rows, so readers of the following transactions usually find what
+ * they need mapped already.
+ * <p>
+ * File is looked up by its path. Cached mapping of file that has been deleted, for example when column
+ * has been dropped and re-added, is not shared, new readers map the file that replaced it.
+ */
+public class ColumnMappingCache {
+    private static final Log LOG = LogFactory.getLog(ColumnMappingCache.class);
+    private final ConcurrentHashMap<Mapping> mappings = new ConcurrentHashMap<>();
+    private final NativeLPSZ lookupKey = new NativeLPSZ();
+    private final FilesFacade ff;
+    private long mappingCount;
+
+    public ColumnMappingCache(FilesFacade ff) {
+        this.ff = ff;
+    }
+
+    /**
+     * Number of mappings readers hold, including mappings superseded by larger ones.
+     */
+    public synchronized long getMappingCount() {
+        return mappingCount;
+    }
+
+    synchronized Mapping acquire(LPSZ name, long minSize) {
+        // path does not hash by its content, file name is looked up via flyweight
+        final Mapping mapping = mappings.get(lookupKey.of(name.address()));
+        if (mapping != null && ff.exists(mapping.file.fd)) {
+            if (mapping.size >= minSize) {
+                mapping.refCount++;
+                return mapping;
+            }
+            return map(mapping.file, mapping.key, minSize, true);
+        }
+
+        if (!ff.exists(name)) {
+            throw CairoException.instance(0).put("File not found: ").put(name);
+        }
+
+        final long fd = ff.openRO(name);
+        if (fd == -1) {
+            throw CairoException.instance(ff.errno()).put("Cannot open file: ").put(name);
+        }
+
+        final MappedFile file = new MappedFile(fd);
+        try {
+            return map(file, Chars.toString(name), minSize, true);
+        } finally {
+            if (file.refCount == 0) {
+                ff.close(fd);
+            }
+        }
+    }
+
+    /**
+     * Maps at least minSize bytes of the same file as the given mapping. Given mapping is released
+     * when the new one is acquired.
+     */
+    synchronized Mapping grow(Mapping mapping, long minSize) {
+        final Mapping cached = mappings.get(mapping.key);
+        final Mapping result;
+        if (cached != null && cached.file == mapping.file && cached.size >= minSize) {
+            cached.refCount++;
+            result = cached;
+        } else {
+            // file could have been replaced at the same path, mapping of the old one is private to the reader
+            result = map(mapping.file, mapping.key, minSize, cached == null || cached.file == mapping.file);
+        }
+        release(mapping);
+        return result;
+    }
+
+    synchronized void release(Mapping mapping) {
+        if (--mapping.refCount == 0) {
+            if (mapping.page != -1) {
+                ff.munmap(mapping.page, mapping.size);
+            }
+            mappings.remove(mapping.key, mapping);
+            mappingCount--;
+
+            final MappedFile file = mapping.file;
+            if (--file.refCount == 0) {
+                ff.close(file.fd);
+                LOG.info().$("closed [fd=").$(file.fd).$(']').$();
+            }
+        }
+    }
+
+    private Mapping map(MappedFile file, String key, long minSize, boolean share) {
+        final long size = Math.max(minSize, ff.length(file.fd));
+        final long page;
+        if (size > 0) {
+            page = ff.mmap(file.fd, size, 0, Files.MAP_RO);
+            if (page == FilesFacade.MAP_FAILED) {
+                throw CairoException.instance(ff.errno())
+                        .put("Could not mmap ").put(key)
+                        .put(" [size=").put(size)
+                        .put(", fd=").put(file.fd)
+                        .put(']');
+            }
+        } else {
+            page = -1;
+        }
+
+        final Mapping mapping = new Mapping(key, file, page, size);
+        file.refCount++;
+        mappingCount++;
+        if (share) {
+            mappings.put(key, mapping);
+        }
+        LOG.info().$("open ").$(key).$(" [fd=").$(file.fd).$(", size=").$(size).$(", shared=").$(share).$(']').$();
+        return mapping;
+    }
+
+    static class Mapping {
+        final String key;
+        final MappedFile file;
+        final long page;
+        final long size;
+        int refCount = 1;
+
+        private Mapping(String key, MappedFile file, long page, long size) {
+            this.key = key;
+            this.file = file;
+            this.page = page;
+            this.size = size;
+        }
+    }
+
+    static class MappedFile {
+        final long fd;
+        int refCount;
+
+        private MappedFile(long fd) {
+            this.fd = fd;
+        }
+    }
+}
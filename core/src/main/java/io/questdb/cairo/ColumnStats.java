@@ -0,0 +1,265 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Min, max and null count of a column within single partition. Statistics are stored next to column
+ * data in "column.st" file when partition is sealed and used to skip partitions that cannot satisfy a filter.
+ * <p>
+ * File layout is: row count, null count, min and max, eight bytes each. Integer column types store
+ * min and max as long values, including null sentinels. Floating point types store bits of double
+ * min and max over non-NaN values, NaN is only accounted for in null count.
+ */
+public class ColumnStats implements Closeable {
+    static final int FILE_SIZE = 32;
+    private static final int OFFSET_ROW_COUNT = 0;
+    private static final int OFFSET_NULL_COUNT = 8;
+    private static final int OFFSET_MIN = 16;
+    private static final int OFFSET_MAX = 24;
+    private long mem = Unsafe.malloc(FILE_SIZE);
+
+    public static boolean isFloatingPoint(int columnType) {
+        return columnType == ColumnType.FLOAT || columnType == ColumnType.DOUBLE;
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (columnType) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.SYMBOL:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (mem != 0) {
+            Unsafe.free(mem, FILE_SIZE);
+            mem = 0;
+        }
+    }
+
+    public long getMax() {
+        return Unsafe.getUnsafe().getLong(mem + OFFSET_MAX);
+    }
+
+    public double getMaxDouble() {
+        return Double.longBitsToDouble(getMax());
+    }
+
+    public long getMin() {
+        return Unsafe.getUnsafe().getLong(mem + OFFSET_MIN);
+    }
+
+    public double getMinDouble() {
+        return Double.longBitsToDouble(getMin());
+    }
+
+    public long getNullCount() {
+        return Unsafe.getUnsafe().getLong(mem + OFFSET_NULL_COUNT);
+    }
+
+    public long getRowCount() {
+        return Unsafe.getUnsafe().getLong(mem + OFFSET_ROW_COUNT);
+    }
+
+    /**
+     * Reads statistics of column in partition.
+     *
+     * @param path partition path, it is restored to original length on exit
+     * @return false when statistics file does not exist
+     */
+    boolean read(FilesFacade ff, Path path, CharSequence columnName) {
+        final int plen = path.length();
+        try {
+            if (!ff.exists(TableUtils.statsFile(path, columnName))) {
+                return false;
+            }
+            final long fd = ff.openRO(path);
+            if (fd == -1) {
+                return false;
+            }
+            try {
+                return ff.read(fd, mem, FILE_SIZE, 0) == FILE_SIZE;
+            } finally {
+                ff.close(fd);
+            }
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    /**
+     * Scans column data file and writes statistics file for the column.
+     *
+     * @param path      partition path, it is restored to original length on exit
+     * @param rowCount  number of rows in partition
+     * @param columnTop number of rows column is missing at the start of partition
+     */
+    void write(FilesFacade ff, Path path, CharSequence columnName, int columnType, long rowCount, long columnTop) {
+        final int plen = path.length();
+        try {
+            final long top = Math.min(columnTop, rowCount);
+            final long size = (rowCount - top) << ColumnType.pow2SizeOf(columnType);
+            long address = 0;
+            long fd = -1;
+            if (size > 0) {
+                fd = ff.openRO(TableUtils.dFile(path, columnName));
+                if (fd == -1) {
+                    throw CairoException.instance(ff.errno()).put("Cannot open: ").put(path);
+                }
+                address = ff.mmap(fd, size, 0, Files.MAP_RO);
+                if (address == FilesFacade.MAP_FAILED) {
+                    ff.close(fd);
+                    throw CairoException.instance(ff.errno()).put("Cannot mmap: ").put(path);
+                }
+            }
+            try {
+                Unsafe.getUnsafe().putLong(mem + OFFSET_ROW_COUNT, rowCount);
+                compute(columnType, address, size, top);
+            } finally {
+                if (fd != -1) {
+                    ff.munmap(address, size);
+                    ff.close(fd);
+                }
+            }
+
+            final long fd2 = ff.openRW(TableUtils.statsFile(path.trimTo(plen), columnName));
+            if (fd2 == -1) {
+                throw CairoException.instance(ff.errno()).put("Cannot open: ").put(path);
+            }
+            try {
+                if (ff.write(fd2, mem, FILE_SIZE, 0) != FILE_SIZE) {
+                    throw CairoException.instance(ff.errno()).put("Cannot write: ").put(path);
+                }
+            } finally {
+                ff.close(fd2);
+            }
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    private void compute(int columnType, long address, long size, long top) {
+        long nullCount = top;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        switch (columnType) {
+            case ColumnType.BYTE:
+                if (top > 0) {
+                    // missing values read as zero
+                    min = max = 0;
+                }
+                for (long p = address, hi = address + size; p < hi; p++) {
+                    final long v = Unsafe.getUnsafe().getByte(p);
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                break;
+            case ColumnType.SHORT:
+                if (top > 0) {
+                    min = max = 0;
+                }
+                for (long p = address, hi = address + size; p < hi; p += Short.BYTES) {
+                    final long v = Unsafe.getUnsafe().getShort(p);
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                break;
+            case ColumnType.INT:
+            case ColumnType.SYMBOL:
+                if (top > 0) {
+                    min = max = Numbers.INT_NaN;
+                }
+                for (long p = address, hi = address + size; p < hi; p += Integer.BYTES) {
+                    final int v = Unsafe.getUnsafe().getInt(p);
+                    if (v == Numbers.INT_NaN) {
+                        nullCount++;
+                    }
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                if (top > 0) {
+                    min = max = Numbers.LONG_NaN;
+                }
+                for (long p = address, hi = address + size; p < hi; p += Long.BYTES) {
+                    final long v = Unsafe.getUnsafe().getLong(p);
+                    if (v == Numbers.LONG_NaN) {
+                        nullCount++;
+                    }
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                break;
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                double dMin = Double.POSITIVE_INFINITY;
+                double dMax = Double.NEGATIVE_INFINITY;
+                final boolean isFloat = columnType == ColumnType.FLOAT;
+                for (long p = address, hi = address + size; p < hi; ) {
+                    final double v;
+                    if (isFloat) {
+                        v = Unsafe.getUnsafe().getFloat(p);
+                        p += Float.BYTES;
+                    } else {
+                        v = Unsafe.getUnsafe().getDouble(p);
+                        p += Double.BYTES;
+                    }
+                    if (v != v) {
+                        nullCount++;
+                    } else {
+                        dMin = Math.min(dMin, v);
+                        dMax = Math.max(dMax, v);
+                    }
+                }
+                min = Double.doubleToLongBits(dMin);
+                max = Double.doubleToLongBits(dMax);
+                break;
+            default:
+                break;
+        }
+        Unsafe.getUnsafe().putLong(mem + OFFSET_NULL_COUNT, nullCount);
+        Unsafe.getUnsafe().putLong(mem + OFFSET_MIN, min);
+        Unsafe.getUnsafe().putLong(mem + OFFSET_MAX, max);
+    }
+}
@@ -52,11 +52,12 @@ public final class ColumnType {
     public static final int VAR_ARG = 16;
     public static final int CURSOR = 15;
     public static final int RECORD = 17;
-    public static final int MAX = RECORD;
+    public static final int VARCHAR = 18;
+    public static final int MAX = VARCHAR;
     private static final IntObjHashMap<String> typeNameMap = new IntObjHashMap<>();
     private static final LowerCaseAsciiCharSequenceIntHashMap nameTypeMap = new LowerCaseAsciiCharSequenceIntHashMap();
-    private static final int[] TYPE_SIZE_POW2 = new int[ColumnType.PARAMETER + 1];
-    private static final int[] TYPE_SIZE = new int[ColumnType.PARAMETER + 1];
+    private static final int[] TYPE_SIZE_POW2 = new int[MAX + 1];
+    private static final int[] TYPE_SIZE = new int[MAX + 1];
     // this list governs the order of types being chosen for
     // the undefined functions
     private static final byte[] typeWidthPrecedence = new byte[MAX + 1];
@@ -85,7 +86,7 @@ public final class ColumnType {
     }
 
     public static int sizeOf(int columnType) {
-        if (columnType < 0 || columnType > ColumnType.PARAMETER) {
+        if (columnType < 0 || columnType > MAX) {
             return -1;
         }
         return TYPE_SIZE[columnType];
@@ -110,6 +111,7 @@ public final class ColumnType {
         typeNameMap.put(CURSOR, "CURSOR");
         typeNameMap.put(RECORD, "RECORD");
         typeNameMap.put(VAR_ARG, "VARARG");
+        typeNameMap.put(VARCHAR, "VARCHAR");
 
         nameTypeMap.put("boolean", BOOLEAN);
         nameTypeMap.put("byte", BYTE);
@@ -132,6 +134,7 @@ public final class ColumnType {
         nameTypeMap.put("bigint", ColumnType.LONG);
         nameTypeMap.put("real", ColumnType.FLOAT);
         nameTypeMap.put("bytea", ColumnType.STRING);
+        nameTypeMap.put("varchar", ColumnType.VARCHAR);
 
         TYPE_SIZE_POW2[ColumnType.BOOLEAN] = 0;
         TYPE_SIZE_POW2[ColumnType.BYTE] = 0;
@@ -158,6 +161,10 @@ public final class ColumnType {
         TYPE_SIZE[ColumnType.DATE] = Long.BYTES;
         TYPE_SIZE[ColumnType.TIMESTAMP] = Long.BYTES;
         TYPE_SIZE[ColumnType.LONG256] = Long256.BYTES;
+        // function-only types cannot be stored
+        TYPE_SIZE[ColumnType.CURSOR] = -1;
+        TYPE_SIZE[ColumnType.VAR_ARG] = -1;
+        TYPE_SIZE[ColumnType.RECORD] = -1;
 
         typeWidthPrecedence[BOOLEAN] = 0;
         typeWidthPrecedence[BYTE] = 1;
@@ -174,5 +181,6 @@ public final class ColumnType {
         typeWidthPrecedence[LONG256] = 12;
         typeWidthPrecedence[BINARY] = 13;
         typeWidthPrecedence[VAR_ARG] = 14;
+        typeWidthPrecedence[VARCHAR] = 11;
     }
 }
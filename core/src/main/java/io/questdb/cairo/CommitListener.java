@@ -0,0 +1,43 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+/**
+ * Receives notifications about data changes made by {@link TableWriter}.
+ */
+@FunctionalInterface
+public interface CommitListener {
+
+    /**
+     * Called after writer made its changes visible to readers. Rows with timestamp lower
+     * than the one provided were not changed.
+     *
+     * @param tableName    name of changed table
+     * @param minTimestamp lowest timestamp that could have changed, Long.MIN_VALUE when
+     *                     change is not limited to a time range
+     */
+    void onCommit(CharSequence tableName, long minTimestamp);
+}
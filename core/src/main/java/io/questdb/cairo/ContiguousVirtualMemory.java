@@ -301,6 +301,14 @@ public class ContiguousVirtualMemory implements BigMem, Mutable {
         copyStrChars(value, pos, len, baseAddress + offset + STRING_LENGTH_BYTES);
     }
 
+    public final long putVarchar(CharSequence value) {
+        return value == null ? putNullStr() : putVarchar0(value, 0, value.length());
+    }
+
+    public final long putVarchar(CharSequence value, int pos, int len) {
+        return value == null ? putNullStr() : putVarchar0(value, pos, len);
+    }
+
     public final long getAppendOffset() {
         return appendAddress - baseAddress;
     }
@@ -513,6 +521,15 @@ public class ContiguousVirtualMemory implements BigMem, Mutable {
         return offset;
     }
 
+    private long putVarchar0(CharSequence value, int pos, int len) {
+        final int header = VarcharUtils.getHeader(value, pos, len);
+        checkLimits(VarcharUtils.getStorageSize(header));
+        final long offset = getAppendOffset();
+        Unsafe.getUnsafe().putInt(appendAddress, header);
+        appendAddress = VarcharUtils.encode(value, pos, len, appendAddress + VarcharUtils.HEADER_BYTES);
+        return offset;
+    }
+
     protected long reallocateMemory(long currentBaseAddress, long currentSize, long newSize) {
         if (currentBaseAddress != 0) {
             return Unsafe.realloc(currentBaseAddress, currentSize, newSize);
@@ -30,6 +30,7 @@ import io.questdb.DefaultTelemetryConfiguration;
 import io.questdb.TelemetryConfiguration;
 import io.questdb.cutlass.text.DefaultTextConfiguration;
 import io.questdb.cutlass.text.TextConfiguration;
+import io.questdb.metrics.Metrics;
 import io.questdb.std.Chars;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
@@ -54,6 +55,8 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
 
     private final BuildInformation buildInformation = new BuildInformationHolder();
 
+    private final Metrics metrics = new Metrics();
+
     public DefaultCairoConfiguration(CharSequence root) {
         this.root = Chars.toString(root);
     }
@@ -138,6 +141,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 30;
     }
 
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public MicrosecondClock getMicrosecondClock() {
         return MicrosecondClockImpl.INSTANCE;
@@ -163,11 +171,76 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 100000;
     }
 
+    @Override
+    public int getParallelFilterQueueCapacity() {
+        return 1024;
+    }
+
+    @Override
+    public int getParallelFilterFrameRowCount() {
+        return 100_000;
+    }
+
+    @Override
+    public int getParallelOutOfOrderMergeThreshold() {
+        return 100_000;
+    }
+
+    @Override
+    public int getParallelSampleByQueueCapacity() {
+        return 1024;
+    }
+
+    @Override
+    public int getParallelSampleByTaskRowCount() {
+        return 500_000;
+    }
+
+    @Override
+    public int getParallelTextImportChunkCount() {
+        return 8;
+    }
+
+    @Override
+    public int getParallelTextImportChunkSize() {
+        return 16 * 1024 * 1024;
+    }
+
+    @Override
+    public int getParallelTextImportQueueCapacity() {
+        return 64;
+    }
+
+    @Override
+    public int getPartitionedHashJoinPartitionCount() {
+        return 32;
+    }
+
+    @Override
+    public int getPartitionedHashJoinQueueCapacity() {
+        return 1024;
+    }
+
+    @Override
+    public long getPartitionedHashJoinSpillThreshold() {
+        return 512 * 1024 * 1024;
+    }
+
+    @Override
+    public long getSqlAsOfJoinLookback() {
+        return 3_600_000_000L;
+    }
+
     @Override
     public int getReaderPoolMaxSegments() {
         return 5;
     }
 
+    @Override
+    public boolean isReaderColumnMappingCacheEnabled() {
+        return true;
+    }
+
     @Override
     public CharSequence getRoot() {
         return root;
@@ -370,6 +443,36 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isParallelFilterEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isParallelOutOfOrderMergeEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isParallelSampleByEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isParallelTextImportEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isPartitionedHashJoinEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlAsOfJoinSeekEnabled() {
+        return true;
+    }
+
     @Override
     public int getSqlJoinMetadataPageSize() {
         return 16 * 1024;
@@ -29,7 +29,7 @@ import io.questdb.std.FilesFacade;
 import io.questdb.std.str.LPSZ;
 
 public class ExtendableOnePageMemory extends OnePageMemory {
-    private long grownLength;
+    protected long grownLength;
 
     public ExtendableOnePageMemory(FilesFacade ff, LPSZ name, long size) {
         super(ff, name, size);
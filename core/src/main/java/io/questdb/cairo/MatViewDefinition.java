@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+/**
+ * Materialized view is a regular table that holds result of SAMPLE BY query over base table.
+ * View is refreshed incrementally: buckets at and after the lowest timestamp changed by base
+ * table commits are removed from the view and re-aggregated from the base table.
+ */
+public class MatViewDefinition {
+    private final String viewName;
+    private final String baseTableName;
+    private final String samplingInterval;
+    private final String query;
+    private final String refreshQuery;
+    // base table txn the view is consistent with, persisted
+    private long refreshTxn;
+    // guarded by registry
+    private long refreshLo = Long.MAX_VALUE;
+    private boolean suspended;
+
+    /**
+     * @param viewName         name of the view table
+     * @param baseTableName    name of the table view query selects from
+     * @param samplingInterval SAMPLE BY interval of view query, such as '1m'
+     * @param query            view query, used to rebuild entire view
+     * @param refreshQuery     view query with base table rows limited to those at or after
+     *                         timestamp bind variable $1
+     * @param refreshTxn       base table txn the view is consistent with
+     */
+    public MatViewDefinition(
+            String viewName,
+            String baseTableName,
+            String samplingInterval,
+            String query,
+            String refreshQuery,
+            long refreshTxn
+    ) {
+        this.viewName = viewName;
+        this.baseTableName = baseTableName;
+        this.samplingInterval = samplingInterval;
+        this.query = query;
+        this.refreshQuery = refreshQuery;
+        this.refreshTxn = refreshTxn;
+    }
+
+    public String getBaseTableName() {
+        return baseTableName;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public String getRefreshQuery() {
+        return refreshQuery;
+    }
+
+    public long getRefreshTxn() {
+        return refreshTxn;
+    }
+
+    public String getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+
+    long getRefreshLo() {
+        return refreshLo;
+    }
+
+    void setRefreshLo(long refreshLo) {
+        this.refreshLo = refreshLo;
+    }
+
+    void setRefreshTxn(long refreshTxn) {
+        this.refreshTxn = refreshTxn;
+    }
+
+    boolean isSuspended() {
+        return suspended;
+    }
+
+    void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+/**
+ * Keeps track of materialized views and of base table changes that views have not caught up with yet.
+ * Registry listens to commits of all writers handed out by the engine. Each commit lowers refresh
+ * bound of views that select from the committed table, refresh job then re-aggregates view buckets
+ * from that bound onwards.
+ * <p>
+ * View definition is persisted in "_mv" file in view table directory. The file holds base table txn
+ * the view is consistent with, followed by base table name, sampling interval, view query and refresh query.
+ */
+public class MatViewRegistry implements CommitListener, Closeable {
+    private static final Log LOG = LogFactory.getLog(MatViewRegistry.class);
+    private static final long REFRESH_TXN_OFFSET = 0;
+    private final CairoConfiguration configuration;
+    private final LowerCaseCharSequenceObjHashMap<MatViewDefinition> views = new LowerCaseCharSequenceObjHashMap<>();
+    private final LowerCaseCharSequenceObjHashMap<ObjList<MatViewDefinition>> viewsByBaseTable = new LowerCaseCharSequenceObjHashMap<>();
+    private final Path path = new Path();
+    private long tempMem8b = Unsafe.malloc(8);
+    // allows commits to skip the lock when there are no views
+    private volatile int viewCount;
+
+    public MatViewRegistry(CairoConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    public synchronized void close() {
+        Misc.free(path);
+        if (tempMem8b != 0) {
+            Unsafe.free(tempMem8b, 8);
+            tempMem8b = 0;
+        }
+    }
+
+    /**
+     * Persists view definition in view table directory and starts tracking base table commits for the view.
+     * View table must exist.
+     *
+     * @param view view definition
+     */
+    public synchronized void create(MatViewDefinition view) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        path.of(configuration.getRoot()).concat(view.getViewName()).concat(TableUtils.MAT_VIEW_FILE_NAME).$();
+        try (ReadWriteMemory mem = new ReadWriteMemory(ff, path, ff.getPageSize())) {
+            mem.putLong(view.getRefreshTxn());
+            mem.putStr(view.getBaseTableName());
+            mem.putStr(view.getSamplingInterval());
+            mem.putStr(view.getQuery());
+            mem.putStr(view.getRefreshQuery());
+        }
+        add(view);
+    }
+
+    public synchronized MatViewDefinition getView(CharSequence viewName) {
+        return views.get(viewName);
+    }
+
+    /**
+     * Copies definitions of all registered views into the sink.
+     *
+     * @param sink list to copy view definitions to, it is not cleared
+     */
+    public synchronized void getViews(ObjList<MatViewDefinition> sink) {
+        final ObjList<CharSequence> names = views.keys();
+        for (int i = 0, n = names.size(); i < n; i++) {
+            sink.add(views.get(names.getQuick(i)));
+        }
+    }
+
+    /**
+     * Loads view definitions from disk. Views whose base table has moved on since their last refresh
+     * are scheduled for full rebuild.
+     */
+    public synchronized void load() {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+        final int rootLen = path.of(configuration.getRoot()).length();
+        final StringSink viewName = new StringSink();
+        ff.iterateDir(path.$(), (name, type) -> {
+            if (type == Files.DT_DIR) {
+                nativeLPSZ.of(name);
+                if (Chars.notDots(nativeLPSZ)) {
+                    viewName.clear();
+                    viewName.put(nativeLPSZ);
+                    path.trimTo(rootLen).concat(viewName).concat(TableUtils.MAT_VIEW_FILE_NAME).$();
+                    if (ff.exists(path)) {
+                        try {
+                            load(ff, Chars.toString(viewName));
+                        } catch (CairoException e) {
+                            LOG.error().$("could not load materialized view [view=").$(viewName).$(", errno=").$(e.getErrno()).$(", error=").$(e.getFlyweightMessage()).$(']').$();
+                        }
+                    }
+                    path.trimTo(rootLen).$();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onCommit(CharSequence tableName, long minTimestamp) {
+        if (viewCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            final ObjList<MatViewDefinition> dependants = viewsByBaseTable.get(tableName);
+            if (dependants != null) {
+                for (int i = 0, n = dependants.size(); i < n; i++) {
+                    final MatViewDefinition view = dependants.getQuick(i);
+                    view.setRefreshLo(Math.min(view.getRefreshLo(), minTimestamp));
+                    view.setSuspended(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops tracking the view. View table and its "_mv" file are left alone.
+     *
+     * @param viewName name of the view
+     */
+    public synchronized void remove(CharSequence viewName) {
+        final int index = views.keyIndex(viewName);
+        if (index < 0) {
+            final MatViewDefinition view = views.valueAt(index);
+            views.removeAt(index);
+            final ObjList<MatViewDefinition> dependants = viewsByBaseTable.get(view.getBaseTableName());
+            if (dependants != null) {
+                dependants.remove(view);
+                if (dependants.size() == 0) {
+                    viewsByBaseTable.remove(view.getBaseTableName());
+                }
+            }
+            viewCount = views.size();
+        }
+    }
+
+    /**
+     * Lowers refresh bound of the view, for example when refresh could not complete.
+     *
+     * @param view    view definition
+     * @param refreshLo lowest base table timestamp view has to re-aggregate from
+     */
+    public synchronized void scheduleRefresh(MatViewDefinition view, long refreshLo) {
+        view.setRefreshLo(Math.min(view.getRefreshLo(), refreshLo));
+    }
+
+    /**
+     * Records base table txn the view is consistent with, both in memory and on disk.
+     *
+     * @param view       view definition
+     * @param refreshTxn base table txn
+     */
+    public synchronized void setRefreshTxn(MatViewDefinition view, long refreshTxn) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        path.of(configuration.getRoot()).concat(view.getViewName()).concat(TableUtils.MAT_VIEW_FILE_NAME).$();
+        final long fd = TableUtils.openFileRWOrFail(ff, path);
+        try {
+            Unsafe.getUnsafe().putLong(tempMem8b, refreshTxn);
+            if (ff.write(fd, tempMem8b, Long.BYTES, REFRESH_TXN_OFFSET) != Long.BYTES) {
+                throw CairoException.instance(ff.errno()).put("could not write [file=").put(path).put(']');
+            }
+        } finally {
+            ff.close(fd);
+        }
+        view.setRefreshTxn(refreshTxn);
+    }
+
+    /**
+     * Marks view as failing to refresh. Suspended views are skipped by refresh job until next
+     * commit to their base table.
+     *
+     * @param view view definition
+     */
+    public synchronized void suspend(MatViewDefinition view) {
+        view.setSuspended(true);
+    }
+
+    /**
+     * Returns lowest base table timestamp view has to re-aggregate from and resets it. Long.MAX_VALUE
+     * means view is up to date, Long.MIN_VALUE means view has to be rebuilt entirely.
+     *
+     * @param view view definition
+     * @return lowest base table timestamp changed since last call
+     */
+    public synchronized long takeRefreshLo(MatViewDefinition view) {
+        if (view.isSuspended()) {
+            return Long.MAX_VALUE;
+        }
+        final long refreshLo = view.getRefreshLo();
+        view.setRefreshLo(Long.MAX_VALUE);
+        return refreshLo;
+    }
+
+    private void add(MatViewDefinition view) {
+        remove(view.getViewName());
+        views.put(view.getViewName(), view);
+        ObjList<MatViewDefinition> dependants = viewsByBaseTable.get(view.getBaseTableName());
+        if (dependants == null) {
+            dependants = new ObjList<>();
+            viewsByBaseTable.put(view.getBaseTableName(), dependants);
+        }
+        dependants.add(view);
+        viewCount = views.size();
+    }
+
+    private void load(FilesFacade ff, String viewName) {
+        final MatViewDefinition view;
+        try (ReadOnlyMemory mem = new ReadOnlyMemory(ff, path, ff.getPageSize(), ff.length(path))) {
+            long offset = REFRESH_TXN_OFFSET;
+            final long refreshTxn = mem.getLong(offset);
+            offset += Long.BYTES;
+            final String baseTableName = Chars.toString(mem.getStr(offset));
+            offset += VirtualMemory.getStorageLength(baseTableName);
+            final String samplingInterval = Chars.toString(mem.getStr(offset));
+            offset += VirtualMemory.getStorageLength(samplingInterval);
+            final String query = Chars.toString(mem.getStr(offset));
+            offset += VirtualMemory.getStorageLength(query);
+            final String refreshQuery = Chars.toString(mem.getStr(offset));
+            view = new MatViewDefinition(viewName, baseTableName, samplingInterval, query, refreshQuery, refreshTxn);
+        }
+
+        path.of(configuration.getRoot()).concat(view.getBaseTableName()).concat(TableUtils.TXN_FILE_NAME).$();
+        if (!ff.exists(path) || TableUtils.readLongAtOffset(ff, path, tempMem8b, TableUtils.TX_OFFSET_TXN) != view.getRefreshTxn()) {
+            view.setRefreshLo(Long.MIN_VALUE);
+        }
+        add(view);
+        LOG.info().$("loaded materialized view [view=").$(viewName).$(", baseTable=").$(view.getBaseTableName()).$(", refreshTxn=").$(view.getRefreshTxn()).$(']').$();
+    }
+}
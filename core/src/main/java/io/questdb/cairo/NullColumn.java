@@ -110,6 +110,21 @@ public class NullColumn implements ReadOnlyColumn {
         return TableUtils.NULL_LEN;
     }
 
+    @Override
+    public CharSequence getVarchar(long offset) {
+        return null;
+    }
+
+    @Override
+    public CharSequence getVarchar2(long offset) {
+        return null;
+    }
+
+    @Override
+    public int getVarcharLen(long offset) {
+        return TableUtils.NULL_LEN;
+    }
+
     @Override
     public void grow(long size) {
     }
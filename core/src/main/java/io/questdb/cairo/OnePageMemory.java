@@ -38,6 +38,8 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
     private final ByteSequenceView bsview = new ByteSequenceView();
     private final CharSequenceView csview = new CharSequenceView();
     private final CharSequenceView csview2 = new CharSequenceView();
+    private final VarcharView vcview = new VarcharView();
+    private final VarcharView vcview2 = new VarcharView();
     private final Long256Impl long256 = new Long256Impl();
     private final Long256Impl long256B = new Long256Impl();
     protected long page = -1;
@@ -216,6 +218,21 @@ public class OnePageMemory implements ReadOnlyColumn, Closeable {
         return getInt(offset);
     }
 
+    @Override
+    public final CharSequence getVarchar(long offset) {
+        return vcview.of(absolutePointer + offset);
+    }
+
+    @Override
+    public final CharSequence getVarchar2(long offset) {
+        return vcview2.of(absolutePointer + offset);
+    }
+
+    @Override
+    public final int getVarcharLen(long offset) {
+        return VarcharUtils.getLength(absolutePointer + offset);
+    }
+
     @Override
     public void grow(long size) {
     }
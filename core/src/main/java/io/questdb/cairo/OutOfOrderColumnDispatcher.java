@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
+import io.questdb.std.ObjList;
+import io.questdb.tasks.OutOfOrderColumnTask;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spreads per-column out-of-order work of a single writer across the shared worker pool.
+ * Columns are published on the message bus and the committing thread steals whatever
+ * the workers have not picked up yet, so the work completes even when no worker is running.
+ * Every dispatch is tagged with a new sequence, which makes stale queue items from earlier
+ * dispatches harmless.
+ */
+public class OutOfOrderColumnDispatcher {
+    private final SOCountDownLatch latch = new SOCountDownLatch();
+    private final ObjList<AtomicLong> claims = new ObjList<>();
+    private final RingQueue<OutOfOrderColumnTask> queue;
+    private final Sequence pubSeq;
+    private final long workStealTimeoutNanos;
+    private ColumnAction action;
+    private int columnCount;
+    private long sequence;
+    private volatile Throwable error;
+
+    public OutOfOrderColumnDispatcher(CairoConfiguration configuration, MessageBus messageBus) {
+        this.queue = messageBus.getOutOfOrderColumnQueue();
+        this.pubSeq = messageBus.getOutOfOrderColumnPubSequence();
+        this.workStealTimeoutNanos = configuration.getWorkStealTimeoutNanos();
+    }
+
+    /**
+     * Waits for all columns of the current dispatch to complete, running columns that
+     * have not been picked up by workers on the calling thread. Exception thrown by any
+     * column is re-thrown here once all columns have finished.
+     */
+    public void await() {
+        if (!latch.await(workStealTimeoutNanos)) {
+            for (int i = 0; i < columnCount; i++) {
+                run(i, sequence);
+            }
+            latch.await();
+        }
+        action = null;
+
+        final Throwable e = error;
+        if (e != null) {
+            error = null;
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            throw new CairoError(e);
+        }
+    }
+
+    /**
+     * Publishes columns [0, columnCount) to the worker pool. Caller is free to do other work
+     * before calling {@link #await()}, which must always follow.
+     */
+    public void dispatch(int columnCount, ColumnAction action) {
+        this.action = action;
+        this.columnCount = columnCount;
+        final long sequence = ++this.sequence;
+        for (int i = claims.size(); i < columnCount; i++) {
+            claims.add(new AtomicLong());
+        }
+        for (int i = 0; i < columnCount; i++) {
+            claims.getQuick(i).set(sequence);
+        }
+        latch.setCount(columnCount);
+
+        for (int i = 0; i < columnCount; i++) {
+            long cursor;
+            do {
+                cursor = pubSeq.next();
+            } while (cursor == -2);
+
+            if (cursor == -1) {
+                // queue is full, process column in the current thread
+                run(i, sequence);
+                continue;
+            }
+
+            final OutOfOrderColumnTask task = queue.get(cursor);
+            task.dispatcher = this;
+            task.columnIndex = i;
+            task.sequence = sequence;
+            pubSeq.done(cursor);
+        }
+    }
+
+    boolean run(int columnIndex, long sequence) {
+        if (claims.getQuick(columnIndex).compareAndSet(sequence, 0)) {
+            try {
+                action.run(columnIndex);
+            } catch (Throwable e) {
+                if (error == null) {
+                    error = e;
+                }
+            } finally {
+                latch.countDown();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    public interface ColumnAction {
+        void run(int columnIndex);
+    }
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.mp.Job;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.tasks.OutOfOrderColumnTask;
+
+public class OutOfOrderColumnJob implements Job {
+    private final RingQueue<OutOfOrderColumnTask> queue;
+    private final Sequence subSeq;
+
+    public OutOfOrderColumnJob(MessageBus messageBus) {
+        this.queue = messageBus.getOutOfOrderColumnQueue();
+        this.subSeq = messageBus.getOutOfOrderColumnSubSequence();
+    }
+
+    @Override
+    public boolean run(int workerId) {
+        long cursor = subSeq.next();
+        return cursor > -1 && doMerge(cursor);
+    }
+
+    private boolean doMerge(long cursor) {
+        final OutOfOrderColumnTask queueItem = queue.get(cursor);
+        // copy values and release queue item
+        final OutOfOrderColumnDispatcher dispatcher = queueItem.dispatcher;
+        final int columnIndex = queueItem.columnIndex;
+        final long sequence = queueItem.sequence;
+        subSeq.done(cursor);
+
+        // committing thread steals columns it cannot see being picked up,
+        // in which case the claim fails and there is nothing for us to do
+        return dispatcher.run(columnIndex, sequence);
+    }
+}
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.DataFrameCursor;
+import io.questdb.cairo.sql.DataFrameCursorFactory;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.*;
+import io.questdb.std.str.CharSink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Skips data frames of partitions, which column statistics prove to have no rows matching
+ * all of the given "column op constant" conditions. Conditions are conjuncts of the query filter,
+ * which is still applied to the rows of remaining frames.
+ */
+public class PartitionPruningDataFrameCursorFactory implements DataFrameCursorFactory {
+    public static final int OP_EQ = 0;
+    public static final int OP_LT = 1;
+    public static final int OP_LE = 2;
+    public static final int OP_GT = 3;
+    public static final int OP_GE = 4;
+    // tolerance of double equality function
+    private static final double EQ_TOLERANCE = 0.0000000001;
+    private static final int KIND_LONG = 0;
+    private static final int KIND_DOUBLE = 1;
+    private static final int KIND_SYMBOL = 2;
+    private final DataFrameCursorFactory base;
+    private final IntList columnIndexes = new IntList();
+    private final IntList ops = new IntList();
+    private final IntList kinds = new IntList();
+    private final LongList values = new LongList();
+    private final ObjList<String> symbolValues = new ObjList<>();
+    private ColumnStats stats;
+    private final PruningDataFrameCursor cursor = new PruningDataFrameCursor();
+
+    public PartitionPruningDataFrameCursorFactory(DataFrameCursorFactory base) {
+        this.base = base;
+    }
+
+    public void addDouble(int columnIndex, int op, double value) {
+        add(columnIndex, op, KIND_DOUBLE, Double.doubleToLongBits(value), null);
+    }
+
+    public void addLong(int columnIndex, int op, long value) {
+        add(columnIndex, op, KIND_LONG, value, null);
+    }
+
+    public void addSymbol(int columnIndex, CharSequence value) {
+        add(columnIndex, OP_EQ, KIND_SYMBOL, SymbolTable.VALUE_NOT_FOUND, Chars.toString(value));
+    }
+
+    @Override
+    public void close() {
+        Misc.free(base);
+        stats = Misc.free(stats);
+    }
+
+    @Override
+    public DataFrameCursor getCursor(SqlExecutionContext executionContext) {
+        if (stats == null) {
+            stats = new ColumnStats();
+        }
+        return cursor.of(base.getCursor(executionContext));
+    }
+
+    public int getConditionCount() {
+        return columnIndexes.size();
+    }
+
+    @Override
+    public void toSink(CharSink sink) {
+        sink.put("{\"name\":\"").put(this.getClass().getSimpleName()).put("\", \"base\":");
+        base.toSink(sink);
+        sink.put('}');
+    }
+
+    private static boolean skipDouble(int op, double v, double min, double max) {
+        switch (op) {
+            case OP_EQ:
+                return v - max >= EQ_TOLERANCE || min - v >= EQ_TOLERANCE;
+            case OP_LT:
+                return min >= v;
+            case OP_LE:
+                return min > v;
+            case OP_GT:
+                return max <= v;
+            default:
+                return max < v;
+        }
+    }
+
+    private static boolean skipLong(int op, long v, long min, long max) {
+        switch (op) {
+            case OP_EQ:
+                return v < min || v > max;
+            case OP_LT:
+                return min >= v;
+            case OP_LE:
+                return min > v;
+            case OP_GT:
+                return max <= v;
+            default:
+                return max < v;
+        }
+    }
+
+    private void add(int columnIndex, int op, int kind, long value, String symbolValue) {
+        columnIndexes.add(columnIndex);
+        ops.add(op);
+        kinds.add(kind);
+        values.add(value);
+        symbolValues.add(symbolValue);
+    }
+
+    private class PruningDataFrameCursor implements DataFrameCursor {
+        private DataFrameCursor baseCursor;
+        private boolean empty;
+
+        @Override
+        public void close() {
+            baseCursor = Misc.free(baseCursor);
+        }
+
+        @Override
+        public SymbolMapReader getSymbolTable(int columnIndex) {
+            return baseCursor.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public TableReader getTableReader() {
+            return baseCursor.getTableReader();
+        }
+
+        @Override
+        public @Nullable DataFrame next() {
+            if (empty) {
+                return null;
+            }
+            DataFrame frame;
+            while ((frame = baseCursor.next()) != null) {
+                if (!canSkip(frame.getPartitionIndex())) {
+                    return frame;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean reload() {
+            final boolean moreData = baseCursor.reload();
+            resolveSymbolKeys();
+            return moreData;
+        }
+
+        @Override
+        public long size() {
+            // number of rows in frames that are not skipped is not known upfront
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            baseCursor.toTop();
+        }
+
+        private boolean canSkip(int partitionIndex) {
+            final TableReader reader = baseCursor.getTableReader();
+            for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+                final int columnIndex = columnIndexes.getQuick(i);
+                if (!reader.readColumnStats(partitionIndex, columnIndex, stats)) {
+                    continue;
+                }
+                final int op = ops.getQuick(i);
+                final long value = values.getQuick(i);
+                if (kinds.getQuick(i) == KIND_DOUBLE) {
+                    final double v = Double.longBitsToDouble(value);
+                    final boolean fp = ColumnStats.isFloatingPoint(reader.getMetadata().getColumnType(columnIndex));
+                    final double min = fp ? stats.getMinDouble() : stats.getMin();
+                    final double max = fp ? stats.getMaxDouble() : stats.getMax();
+                    if (skipDouble(op, v, min, max)) {
+                        return true;
+                    }
+                } else if (skipLong(op, value, stats.getMin(), stats.getMax())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private PruningDataFrameCursor of(DataFrameCursor baseCursor) {
+            this.baseCursor = baseCursor;
+            resolveSymbolKeys();
+            return this;
+        }
+
+        private void resolveSymbolKeys() {
+            empty = false;
+            final TableReader reader = baseCursor.getTableReader();
+            for (int i = 0, n = kinds.size(); i < n; i++) {
+                if (kinds.getQuick(i) == KIND_SYMBOL) {
+                    final int key = reader.getSymbolMapReader(columnIndexes.getQuick(i)).keyOf(symbolValues.getQuick(i));
+                    if (key == SymbolTable.VALUE_NOT_FOUND) {
+                        // value is not in the table at all
+                        empty = true;
+                    }
+                    values.setQuick(i, key);
+                }
+            }
+        }
+    }
+}
@@ -73,6 +73,12 @@ public interface ReadOnlyColumn extends Closeable {
 
     int getStrLen(long offset);
 
+    CharSequence getVarchar(long offset);
+
+    CharSequence getVarchar2(long offset);
+
+    int getVarcharLen(long offset);
+
     void grow(long size);
 
     long getGrownLength();
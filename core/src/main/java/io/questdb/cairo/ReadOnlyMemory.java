@@ -28,10 +28,13 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
+import io.questdb.std.Unsafe;
 import io.questdb.std.str.LPSZ;
 
 public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
     private static final Log LOG = LogFactory.getLog(ReadOnlyMemory.class);
+    private final VarcharView vcview = new VarcharView();
+    private final VarcharView vcview2 = new VarcharView();
     private FilesFacade ff;
     private long fd = -1;
     private long size = 0;
@@ -39,6 +42,8 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
     private int lastPageIndex;
     private long pageSize;
     private long userSize = 0;
+    private long varcharBuf = 0;
+    private long varcharBufSize = 0;
 
     public ReadOnlyMemory(FilesFacade ff, LPSZ name, long pageSize, long size) {
         of(ff, name, pageSize, size);
@@ -50,6 +55,11 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
     @Override
     public void close() {
         super.close();
+        if (varcharBuf != 0) {
+            Unsafe.free(varcharBuf, varcharBufSize);
+            varcharBuf = 0;
+            varcharBufSize = 0;
+        }
         if (fd != -1) {
             ff.close(fd);
             LOG.info().$("closed [fd=").$(fd).$(']').$();
@@ -79,6 +89,59 @@ public class ReadOnlyMemory extends VirtualMemory implements ReadOnlyColumn {
         return lastPageSize;
     }
 
+    @Override
+    public CharSequence getVarchar(long offset) {
+        return getVarchar(offset, vcview);
+    }
+
+    @Override
+    public CharSequence getVarchar2(long offset) {
+        return getVarchar(offset, vcview2);
+    }
+
+    @Override
+    public int getVarcharLen(long offset) {
+        final int header = getInt(offset);
+        if (header == TableUtils.NULL_LEN || VarcharUtils.isAscii(header)) {
+            return header == TableUtils.NULL_LEN ? header : VarcharUtils.getSize(header);
+        }
+        return VarcharUtils.getLength(getVarcharAddress(offset, header));
+    }
+
+    /**
+     * Returns address of VARCHAR value at given offset. Value that spans page boundary is
+     * copied into contiguous buffer, which stays valid until next value is copied.
+     */
+    private long getVarcharAddress(long offset, int header) {
+        final long size = VarcharUtils.getStorageSize(header);
+        if (pageRemaining(offset) >= size) {
+            return addressOf(offset);
+        }
+        if (size > varcharBufSize) {
+            varcharBuf = Unsafe.realloc(varcharBuf, varcharBufSize, size);
+            varcharBufSize = size;
+        }
+        for (long copied = 0; copied < size; ) {
+            final long len = Math.min(pageRemaining(offset + copied), size - copied);
+            Unsafe.getUnsafe().copyMemory(addressOf(offset + copied), varcharBuf + copied, len);
+            copied += len;
+        }
+        return varcharBuf;
+    }
+
+    private CharSequence getVarchar(long offset, VarcharView view) {
+        final int header = getInt(offset);
+        if (header == TableUtils.NULL_LEN) {
+            return null;
+        }
+        final long address = getVarcharAddress(offset, header);
+        if (address == varcharBuf) {
+            // buffer is reused by the next split value, view must not keep pointing at it
+            return view.ofDecoded(address);
+        }
+        return view.of(address);
+    }
+
     @Override
     protected long mapWritePage(int page) {
         throw new UnsupportedOperationException("Cannot jump() read-only memory. Use grow() instead.");
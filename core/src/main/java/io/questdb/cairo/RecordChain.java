@@ -62,6 +62,7 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
 
             switch (type) {
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                 case ColumnType.BINARY:
                     columnOffsets[i] = varOffset;
                     varOffset += 8;
@@ -104,6 +105,10 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
         varAppendOffset = 0L;
     }
 
+    public long getAppendOffset() {
+        return varAppendOffset;
+    }
+
     public long getOffsetOfColumn(long recordOffset, int columnIndex) {
         return rowToDataOffset(recordOffset) + varOffset + columnOffsets[columnIndex];
     }
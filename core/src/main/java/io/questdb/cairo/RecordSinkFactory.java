@@ -183,6 +183,7 @@ public class RecordSinkFactory {
                     asm.invokeInterface(wPutDouble, 2);
                     break;
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     asm.aload(2);
                     asm.aload(1);
                     asm.iconst(getSkewedIndex(index, skewIndex));
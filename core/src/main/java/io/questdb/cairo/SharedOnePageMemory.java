@@ -0,0 +1,81 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Column memory of table reader, which maps column file via {@link ColumnMappingCache}. Unlike
+ * {@link ExtendableOnePageMemory} it does not remap file in place, mapping is shared with other
+ * readers, memory switches to larger mapping instead.
+ */
+public class SharedOnePageMemory extends ExtendableOnePageMemory {
+    private final ColumnMappingCache cache;
+    private ColumnMappingCache.Mapping mapping;
+
+    public SharedOnePageMemory(ColumnMappingCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void close() {
+        if (mapping != null) {
+            cache.release(mapping);
+            mapping = null;
+        }
+        this.page = -1;
+        this.fd = -1;
+        this.size = 0;
+        this.absolutePointer = -1;
+        this.grownLength = 0;
+    }
+
+    @Override
+    public void grow(long newSize) {
+        if (newSize > grownLength) {
+            grownLength = newSize;
+        }
+        if (newSize > size) {
+            attach(cache.grow(mapping, newSize));
+        }
+    }
+
+    @Override
+    public void of(FilesFacade ff, LPSZ name, long pageSize, long size) {
+        close();
+        this.ff = ff;
+        attach(cache.acquire(name, size));
+    }
+
+    private void attach(ColumnMappingCache.Mapping mapping) {
+        this.mapping = mapping;
+        this.page = mapping.page;
+        this.fd = mapping.file.fd;
+        this.size = mapping.size;
+        this.absolutePointer = mapping.page;
+    }
+}
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.MessageBus;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.std.*;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.tasks.TableBackupTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Backs up table by copying its files as of the transaction table reader is at. Rows committed after that
+ * are present in copied files but are not visible, transaction file of backup is written by the reader.
+ * <p>
+ * Partitions are copied in parallel on worker threads. Partition that has the same number of rows as in
+ * the latest previous backup of the same table structure and data version is hard linked to the files of
+ * that backup instead of being copied, which makes successive backups of large tables incremental.
+ */
+public class TableBackup implements Closeable {
+    private static final Log LOG = LogFactory.getLog(TableBackup.class);
+    private final CairoConfiguration configuration;
+    private final FilesFacade ff;
+    private final ObjList<TableBackupEntry> entries = new ObjList<>();
+    private final Path path = new Path();
+    private final Path otherPath = new Path();
+    private final StringSink srcDir = new StringSink();
+    private final StringSink dstDir = new StringSink();
+    private final StringSink linkDir = new StringSink();
+    private final StringSink previousBackupDir = new StringSink();
+    private final NativeLPSZ nativeLPSZ = new NativeLPSZ();
+    private final AppendMemory mem = new AppendMemory();
+    private final FindVisitor previousBackupVisitor = this::onPreviousBackup;
+    private long tempMem8b = Unsafe.malloc(8);
+    private TableReader reader;
+    private long previousBackupTxn;
+
+    public TableBackup(CairoConfiguration configuration) {
+        this.configuration = configuration;
+        this.ff = configuration.getFilesFacade();
+    }
+
+    /**
+     * Copies table files into backup directory. Table directory in backup is expected to exist and to
+     * have metadata file already.
+     *
+     * @param reader      reader at the transaction to back up
+     * @param backupRoot  directory table directory of backup is in
+     * @param messageBus  bus to publish partitions to workers, null to copy all of them on this thread
+     * @param workerCount number of workers in the pool
+     */
+    public void backup(TableReader reader, CharSequence backupRoot, @Nullable MessageBus messageBus, int workerCount) {
+        final CharSequence tableName = reader.getTableName();
+        findPreviousBackup(reader);
+        copySymbolMaps(reader, backupRoot);
+        try {
+            copyPartitions(reader, backupRoot, workerCount > 1 ? messageBus : null, Math.max(1, workerCount) * 2);
+        } finally {
+            // backups are rare, entries are not worth keeping native memory for
+            Misc.freeObjList(entries);
+            entries.clear();
+        }
+
+        try {
+            mem.of(ff, path.of(backupRoot).concat(tableName).concat(TableUtils.TXN_FILE_NAME).$(), ff.getPageSize());
+            reader.copyTxnTo(mem);
+        } finally {
+            mem.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(entries);
+        entries.clear();
+        Misc.free(path);
+        Misc.free(otherPath);
+        if (tempMem8b != 0) {
+            Unsafe.free(tempMem8b, 8);
+            tempMem8b = 0;
+        }
+    }
+
+    private static void await(TableBackupEntry entry) {
+        // copy partition on this thread unless worker beat us to it
+        if (!entry.run()) {
+            while (!entry.isDone()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+    }
+
+    private static void rethrow(Throwable error) {
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        throw CairoException.instance(0).put("backup failed [error=").put(error.getMessage()).put(']');
+    }
+
+    private void copyPartitions(TableReader reader, CharSequence backupRoot, @Nullable MessageBus messageBus, int window) {
+        final CharSequence tableName = reader.getTableName();
+        final RingQueue<TableBackupTask> queue = messageBus != null ? messageBus.getTableBackupQueue() : null;
+        final Sequence pubSeq = messageBus != null ? messageBus.getTableBackupPubSequence() : null;
+        while (entries.size() < window) {
+            entries.add(new TableBackupEntry(configuration));
+        }
+
+        int head = 0;
+        int inFlightCount = 0;
+        Throwable error = null;
+        for (int i = 0, n = reader.getPartitionCount(); i < n && error == null; i++) {
+            final long rowCount = reader.openPartition(i);
+            if (rowCount < 1) {
+                continue;
+            }
+
+            if (inFlightCount == window) {
+                final TableBackupEntry entry = entries.getQuick(head);
+                await(entry);
+                error = entry.getError();
+                head = (head + 1) % window;
+                inFlightCount--;
+                if (error != null) {
+                    break;
+                }
+            }
+
+            srcDir.clear();
+            srcDir.put(configuration.getRoot()).put(Files.SEPARATOR).put(tableName).put(Files.SEPARATOR);
+            reader.putPartitionName(i, srcDir);
+            dstDir.clear();
+            dstDir.put(backupRoot).put(Files.SEPARATOR).put(tableName).put(Files.SEPARATOR);
+            reader.putPartitionName(i, dstDir);
+
+            boolean link = false;
+            if (previousBackupDir.length() > 0) {
+                linkDir.clear();
+                linkDir.put(configuration.getBackupRoot()).put(Files.SEPARATOR).put(previousBackupDir).put(Files.SEPARATOR).put(tableName).put(Files.SEPARATOR);
+                reader.putPartitionName(i, linkDir);
+                link = readPreviousPartitionSize() == rowCount;
+            }
+
+            final TableBackupEntry entry = entries.getQuick((head + inFlightCount) % window);
+            entry.of(srcDir, dstDir, link ? linkDir : null, rowCount);
+            inFlightCount++;
+
+            // when queue is full we do not publish, this thread will copy partition when it gets to it
+            if (pubSeq != null) {
+                final long seq = pubSeq.next();
+                if (seq > -1) {
+                    queue.get(seq).entry = entry;
+                    pubSeq.done(seq);
+                }
+            }
+        }
+
+        // entries in flight refer to table files, all of them must be done before we return
+        for (int i = 0; i < inFlightCount; i++) {
+            final TableBackupEntry entry = entries.getQuick((head + i) % window);
+            await(entry);
+            if (error == null) {
+                error = entry.getError();
+            }
+        }
+
+        if (error != null) {
+            rethrow(error);
+        }
+    }
+
+    private void copySymbolMaps(TableReader reader, CharSequence backupRoot) {
+        final CharSequence tableName = reader.getTableName();
+        final TableReaderMetadata metadata = reader.getMetadata();
+        path.of(configuration.getRoot()).concat(tableName);
+        final int srcLen = path.length();
+        otherPath.of(backupRoot).concat(tableName);
+        final int dstLen = otherPath.length();
+
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            if (metadata.getColumnType(i) == ColumnType.SYMBOL) {
+                final CharSequence columnName = metadata.getColumnName(i);
+                // symbol count in backup transaction limits symbols visible in copied files
+                TableUtils.copyFile(ff, SymbolMapWriter.offsetFileName(path.trimTo(srcLen), columnName), SymbolMapWriter.offsetFileName(otherPath.trimTo(dstLen), columnName));
+                TableUtils.copyFile(ff, SymbolMapWriter.charFileName(path.trimTo(srcLen), columnName), SymbolMapWriter.charFileName(otherPath.trimTo(dstLen), columnName));
+                TableBackupEntry.copyFile(
+                        ff,
+                        BitmapIndexUtils.keyFileName(path.trimTo(srcLen), columnName),
+                        BitmapIndexUtils.keyFileName(otherPath.trimTo(dstLen), columnName),
+                        ".k",
+                        configuration.getFileOperationRetryCount()
+                );
+                TableUtils.copyFile(ff, BitmapIndexUtils.valueFileName(path.trimTo(srcLen), columnName), BitmapIndexUtils.valueFileName(otherPath.trimTo(dstLen), columnName));
+            }
+        }
+
+        if (ff.exists(path.trimTo(srcLen).concat(TableUtils.MAT_VIEW_FILE_NAME).$())) {
+            TableUtils.copyFile(ff, path, otherPath.trimTo(dstLen).concat(TableUtils.MAT_VIEW_FILE_NAME).$());
+        }
+    }
+
+    /**
+     * Finds the latest backup of the table, which has the same structure and data version,
+     * hence the same rows in partitions of the same size.
+     */
+    private void findPreviousBackup(TableReader reader) {
+        this.reader = reader;
+        this.previousBackupTxn = -1;
+        previousBackupDir.clear();
+        try {
+            ff.iterateDir(path.of(configuration.getBackupRoot()).$(), previousBackupVisitor);
+        } finally {
+            this.reader = null;
+        }
+        if (previousBackupDir.length() > 0) {
+            LOG.info().$("incremental backup [table=").$(reader.getTableName()).$(", previous=").$(previousBackupDir).$(']').$();
+        }
+    }
+
+    private void onPreviousBackup(long name, int type) {
+        if (type != Files.DT_DIR) {
+            return;
+        }
+        nativeLPSZ.of(name);
+        if (Files.isDots(nativeLPSZ) || Chars.equals(nativeLPSZ, configuration.getBackupTempDirName())) {
+            return;
+        }
+        otherPath.of(configuration.getBackupRoot()).concat(name).concat(reader.getTableName()).concat(TableUtils.TXN_FILE_NAME).$();
+        if (ff.exists(otherPath)) {
+            try {
+                final long txn = TableUtils.readLongAtOffset(ff, otherPath, tempMem8b, TableUtils.TX_OFFSET_TXN);
+                if (txn > previousBackupTxn
+                        && txn <= reader.getTxn()
+                        && TableUtils.readLongAtOffset(ff, otherPath, tempMem8b, TableUtils.TX_OFFSET_STRUCT_VERSION) == reader.getVersion()
+                        && TableUtils.readLongAtOffset(ff, otherPath, tempMem8b, TableUtils.TX_OFFSET_DATA_VERSION) == reader.getDataVersion()) {
+                    previousBackupTxn = txn;
+                    previousBackupDir.clear();
+                    previousBackupDir.put(nativeLPSZ);
+                }
+            } catch (CairoException e) {
+                LOG.info().$("ignoring backup [path=").$(otherPath).$(", errno=").$(e.getErrno()).$(']').$();
+            }
+        }
+    }
+
+    private long readPreviousPartitionSize() {
+        otherPath.of(linkDir).concat(TableUtils.ARCHIVE_FILE_NAME).$();
+        if (ff.exists(otherPath)) {
+            try {
+                return TableUtils.readLongAtOffset(ff, otherPath, tempMem8b, 0);
+            } catch (CairoException e) {
+                LOG.info().$("ignoring partition of previous backup [path=").$(otherPath).$(", errno=").$(e.getErrno()).$(']').$();
+            }
+        }
+        return -1;
+    }
+}
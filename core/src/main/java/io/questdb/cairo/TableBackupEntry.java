@@ -0,0 +1,214 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.*;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Copies files of single table partition into backup directory. Entries are copied by worker threads,
+ * when there are any, and by the thread that runs backup otherwise. Partition that did not change since
+ * previous backup is hard linked to the files of that backup instead.
+ */
+public class TableBackupEntry implements Closeable {
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+    private static final long STATE_OFFSET;
+    private final FilesFacade ff;
+    private final int mkDirMode;
+    private final int retryCount;
+    private final Path srcPath = new Path();
+    private final Path dstPath = new Path();
+    private final NativeLPSZ fileName = new NativeLPSZ();
+    private final FindVisitor fileVisitor = this::onFile;
+    private int srcLen;
+    private int dstLen;
+    private boolean link;
+    private boolean valueFiles;
+    private long rowCount;
+    private long tempMem8b = Unsafe.malloc(8);
+    private Throwable error;
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int state = STATE_DONE;
+
+    public TableBackupEntry(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.mkDirMode = configuration.getBackupMkDirMode();
+        this.retryCount = configuration.getFileOperationRetryCount();
+    }
+
+    @Override
+    public void close() {
+        Misc.free(srcPath);
+        Misc.free(dstPath);
+        if (tempMem8b != 0) {
+            Unsafe.free(tempMem8b, 8);
+            tempMem8b = 0;
+        }
+    }
+
+    public boolean run() {
+        if (tryLock()) {
+            copy();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies table file, key files of indexes are copied until they are consistent.
+     */
+    static void copyFile(FilesFacade ff, Path from, Path to, CharSequence fileName, int retryCount) {
+        if (!Chars.endsWith(fileName, ".k")) {
+            TableUtils.copyFile(ff, from, to);
+            return;
+        }
+
+        // key file is updated in place by writer, which could be committing while we copy
+        for (int i = 0; ; i++) {
+            final long len = TableUtils.copyFile(ff, from, to);
+            if (isKeyFileConsistent(ff, to, len)) {
+                return;
+            }
+            if (i == retryCount) {
+                throw CairoException.instance(0).put("index key file keeps changing [path=").put(from).put(']');
+            }
+        }
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    boolean isDone() {
+        return state == STATE_DONE;
+    }
+
+    /**
+     * Prepares entry to be copied.
+     *
+     * @param src      partition directory of the table
+     * @param dst      partition directory in backup
+     * @param link     partition directory in previous backup, which has the same rows, null when partition changed
+     * @param rowCount number of partition rows as of backup transaction
+     */
+    void of(CharSequence src, CharSequence dst, @Nullable CharSequence link, long rowCount) {
+        this.link = link != null;
+        this.srcPath.of(this.link ? link : src);
+        this.srcLen = srcPath.length();
+        this.dstPath.of(dst);
+        this.dstLen = dstPath.length();
+        this.rowCount = rowCount;
+        this.error = null;
+        // volatile write publishes entry to the thread that locks it
+        state = STATE_PENDING;
+    }
+
+    private static boolean isKeyFileConsistent(FilesFacade ff, Path path, long len) {
+        final long fd = ff.openRO(path);
+        if (fd == -1) {
+            throw CairoException.instance(ff.errno()).put("Cannot open: ").put(path);
+        }
+        try {
+            if (len == 0) {
+                return false;
+            }
+            final long addr = ff.mmap(fd, len, 0, Files.MAP_RO);
+            if (addr == FilesFacade.MAP_FAILED) {
+                throw CairoException.instance(ff.errno()).put("Cannot map: ").put(path);
+            }
+            try {
+                return BitmapIndexUtils.isKeyFileConsistent(addr, len);
+            } finally {
+                ff.munmap(addr, len);
+            }
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private void copy() {
+        try {
+            if (ff.mkdirs(dstPath.trimTo(dstLen).put(Files.SEPARATOR).$(), mkDirMode) != 0) {
+                throw CairoException.instance(ff.errno()).put("Could not create [dir=").put(dstPath).put(']');
+            }
+
+            // value files of indexes go after key files, copy of key file
+            // must not refer to value blocks missing from copy of value file
+            valueFiles = false;
+            ff.iterateDir(srcPath.trimTo(srcLen).$(), fileVisitor);
+            valueFiles = true;
+            ff.iterateDir(srcPath.trimTo(srcLen).$(), fileVisitor);
+
+            // row count is taken from backup transaction rather than copied, partition
+            // could have been extended by out-of-order commit since then
+            final long fd = TableUtils.openFileRWOrFail(ff, dstPath.trimTo(dstLen).concat(TableUtils.ARCHIVE_FILE_NAME).$());
+            try {
+                Unsafe.getUnsafe().putLong(tempMem8b, rowCount);
+                if (ff.write(fd, tempMem8b, Long.BYTES, 0) != Long.BYTES) {
+                    throw CairoException.instance(ff.errno()).put("Cannot write: ").put(dstPath);
+                }
+            } finally {
+                ff.close(fd);
+            }
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            srcPath.trimTo(srcLen);
+            dstPath.trimTo(dstLen);
+            state = STATE_DONE;
+        }
+    }
+
+    private void onFile(long name, int type) {
+        if (type == Files.DT_DIR) {
+            return;
+        }
+        fileName.of(name);
+        if (Chars.equals(fileName, TableUtils.ARCHIVE_FILE_NAME) || Chars.endsWith(fileName, ".v") != valueFiles) {
+            return;
+        }
+        srcPath.trimTo(srcLen).concat(name).$();
+        dstPath.trimTo(dstLen).concat(name).$();
+        // files of previous backup do not change, they can be shared
+        if (!link || !ff.hardLink(srcPath, dstPath)) {
+            copyFile(ff, srcPath, dstPath, fileName, retryCount);
+        }
+    }
+
+    private boolean tryLock() {
+        return Unsafe.cas(this, STATE_OFFSET, STATE_PENDING, STATE_RUNNING);
+    }
+
+    static {
+        STATE_OFFSET = Unsafe.getFieldOffset(TableBackupEntry.class, "state");
+    }
+}
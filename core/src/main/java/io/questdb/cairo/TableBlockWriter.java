@@ -263,6 +263,12 @@ public class TableBlockWriter implements Closeable {
             case PartitionBy.YEAR:
                 timestampFloorMethod = Timestamps.FLOOR_YYYY;
                 break;
+            case PartitionBy.HOUR:
+                timestampFloorMethod = Timestamps.FLOOR_HH;
+                break;
+            case PartitionBy.WEEK:
+                timestampFloorMethod = Timestamps.FLOOR_WW;
+                break;
             default:
                 timestampFloorMethod = NO_PARTITIONING_FLOOR;
                 break;
@@ -271,7 +277,7 @@ public class TableBlockWriter implements Closeable {
     }
 
     private enum TaskType {
-        AppendBlock, GenerateStringIndex, GenerateBinaryIndex
+        AppendBlock, GenerateStringIndex, GenerateVarcharIndex, GenerateBinaryIndex
     }
 
     private static class PartitionStruct {
@@ -464,6 +470,7 @@ public class TableBlockWriter implements Closeable {
                     int columnType = metadata.getColumnType(columnIndex);
                     switch (columnType) {
                         case ColumnType.STRING:
+                        case ColumnType.VARCHAR:
                         case ColumnType.BINARY:
                             partitionStruct.setColumnIndexFd(columnIndex, TableUtils.openFileRWOrFail(ff, iFile(path.trimTo(plen), name)));
                             partitionStruct.setColumnFieldSizePow2(columnIndex, -1);
@@ -614,6 +621,7 @@ public class TableBlockWriter implements Closeable {
                 // Add binary and string indexes
                 switch (columnType) {
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                     case ColumnType.BINARY: {
                         TableBlockWriterTask task = getConcurrentTask();
                         if (offsetHi != offsetLo) {
@@ -626,6 +634,8 @@ public class TableBlockWriter implements Closeable {
 
                             if (columnType == ColumnType.STRING) {
                                 task.assignUpdateStringIndex(columnDataAddressLo, columnDataAddressHi, offsetLo, indexFd, indexOffsetLo, columnIndex, partitionStruct);
+                            } else if (columnType == ColumnType.VARCHAR) {
+                                task.assignUpdateVarcharIndex(columnDataAddressLo, columnDataAddressHi, offsetLo, indexFd, indexOffsetLo, columnIndex, partitionStruct);
                             } else {
                                 task.assignUpdateBinaryIndex(columnDataAddressLo, columnDataAddressHi, offsetLo, indexFd, indexOffsetLo, columnIndex, partitionStruct);
                             }
@@ -718,6 +728,25 @@ public class TableBlockWriter implements Closeable {
             this.partitionStruct = partitionStruct;
         }
 
+        private void assignUpdateVarcharIndex(
+                long columnDataAddressLo,
+                long columnDataAddressHi,
+                long columnDataOffsetLo,
+                long indexFd,
+                long indexOffsetLo,
+                int columnIndex,
+                PartitionStruct partitionStruct
+        ) {
+            taskType = TaskType.GenerateVarcharIndex;
+            this.sourceAddress = columnDataAddressLo;
+            this.sourceSizeOrEnd = columnDataAddressHi;
+            this.sourceInitialOffset = columnDataOffsetLo;
+            this.indexFd = indexFd;
+            this.indexOffsetLo = indexOffsetLo;
+            this.columnIndex = columnIndex;
+            this.partitionStruct = partitionStruct;
+        }
+
         private void cancel() {
             if (ready.compareAndSet(true, false)) {
                 nCompletedConcurrentTasks.incrementAndGet();
@@ -796,6 +825,36 @@ public class TableBlockWriter implements Closeable {
             unmapFile(ff, indexMappingStart, indexMappingSz);
         }
 
+        private void completeUpdateVarcharIndex(
+                long columnDataAddressLo,
+                long columnDataAddressHi,
+                long columnDataOffsetLo,
+                long indexFd,
+                long indexOffsetLo,
+                int columnIndex,
+                PartitionStruct partitionStruct
+        ) {
+            // shortest value is its header, same as string, so index cannot be larger than twice the data
+            final long indexMappingSz = (columnDataAddressHi - columnDataAddressLo) * 2;
+            final long indexMappingStart = mapFile(ff, indexFd, indexOffsetLo, indexMappingSz);
+            long offset = columnDataOffsetLo;
+            long columnDataAddress = columnDataAddressLo;
+            long columnIndexAddress = indexMappingStart;
+            long nRowsAdded = 0;
+            while (columnDataAddress < columnDataAddressHi) {
+                assert columnIndexAddress + Long.BYTES <= (indexMappingStart + indexMappingSz);
+                nRowsAdded++;
+                Unsafe.getUnsafe().putLong(columnIndexAddress, offset);
+                columnIndexAddress += Long.BYTES;
+                final long sz = VarcharUtils.getStorageSize(Unsafe.getUnsafe().getInt(columnDataAddress));
+                columnDataAddress += sz;
+                offset += sz;
+            }
+
+            partitionStruct.setColumnNRowsAdded(columnIndex, nRowsAdded);
+            unmapFile(ff, indexMappingStart, indexMappingSz);
+        }
+
         private boolean run() {
             if (ready.compareAndSet(true, false)) {
                 try {
@@ -808,6 +867,10 @@ public class TableBlockWriter implements Closeable {
                             completeUpdateStringIndex(sourceAddress, sourceSizeOrEnd, sourceInitialOffset, indexFd, indexOffsetLo, columnIndex, partitionStruct);
                             return true;
 
+                        case GenerateVarcharIndex:
+                            completeUpdateVarcharIndex(sourceAddress, sourceSizeOrEnd, sourceInitialOffset, indexFd, indexOffsetLo, columnIndex, partitionStruct);
+                            return true;
+
                         case GenerateBinaryIndex:
                             completeUpdateBinaryIndex(sourceAddress, sourceSizeOrEnd, sourceInitialOffset, indexFd, indexOffsetLo, columnIndex, partitionStruct);
                             return true;
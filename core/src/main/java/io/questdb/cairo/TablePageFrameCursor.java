@@ -142,6 +142,19 @@ public class TablePageFrameCursor implements PageFrameCursor {
                             break;
                         }
 
+                        case ColumnType.VARCHAR: {
+                            final ReadOnlyColumn offsetCol = reader.getColumn(TableReader.getPrimaryColumnIndex(columnBase, columnIndex) + 1);
+                            columnPageLength = calculateVarcharPagePosition(col, offsetCol, colFrameLastRow, colMaxRow);
+
+                            if (colFrameFirstRow > 0) {
+                                long columnPageBegin = calculateVarcharPagePosition(col, offsetCol, colFrameFirstRow, colMaxRow);
+                                columnPageAddress += columnPageBegin;
+                                columnPageLength -= columnPageBegin;
+                            }
+
+                            break;
+                        }
+
                         case ColumnType.BINARY: {
                             final ReadOnlyColumn binLenCol = reader.getColumn(TableReader.getPrimaryColumnIndex(columnBase, columnIndex) + 1);
                             columnPageLength = calculateBinaryPagePosition(col, binLenCol, colFrameLastRow, colMaxRow);
@@ -234,6 +247,17 @@ public class TablePageFrameCursor implements PageFrameCursor {
         return prevStrOffset + sz;
     }
 
+    private long calculateVarcharPagePosition(final ReadOnlyColumn col, final ReadOnlyColumn offsetCol, long row, long maxRows) {
+        assert row > 0 && row <= maxRows;
+
+        if (row < maxRows) {
+            return offsetCol.getLong(row << 3);
+        }
+
+        final long prevOffset = offsetCol.getLong((row - 1) << 3);
+        return prevOffset + VarcharUtils.getStorageSize(col.getInt(prevOffset));
+    }
+
     @Override
     public void toTop() {
         partitionIndex = -1;
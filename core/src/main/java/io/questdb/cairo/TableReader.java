@@ -30,8 +30,10 @@ import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.CharSink;
 import io.questdb.std.str.Path;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.concurrent.locks.LockSupport;
@@ -43,6 +45,8 @@ public class TableReader implements Closeable, SymbolTableSource {
     private static final PartitionPathGenerator YEAR_GEN = TableReader::pathGenYear;
     private static final PartitionPathGenerator MONTH_GEN = TableReader::pathGenMonth;
     private static final PartitionPathGenerator DAY_GEN = TableReader::pathGenDay;
+    private static final PartitionPathGenerator HOUR_GEN = TableReader::pathGenHour;
+    private static final PartitionPathGenerator WEEK_GEN = TableReader::pathGenWeek;
     private static final PartitionPathGenerator DEFAULT_GEN = (reader, partitionIndex) -> reader.pathGenDefault();
     private static final ReloadMethod FIRST_TIME_NON_PARTITIONED_RELOAD_METHOD = TableReader::reloadInitialNonPartitioned;
     private static final ReloadMethod FIRST_TIME_PARTITIONED_RELOAD_METHOD = TableReader::reloadInitialPartitioned;
@@ -64,6 +68,7 @@ public class TableReader implements Closeable, SymbolTableSource {
     private final String tableName;
     private final ObjList<SymbolMapReader> symbolMapReaders = new ObjList<>();
     private final CairoConfiguration configuration;
+    private final ColumnMappingCache mappingCache;
     private final IntList symbolCountSnapshot = new IntList();
     private final LongHashSet removedPartitions = new LongHashSet();
     private LongList columnTops;
@@ -82,13 +87,19 @@ public class TableReader implements Closeable, SymbolTableSource {
     private long maxTimestamp = Numbers.LONG_NaN;
     private int partitionCount;
     private long minTimestamp = Long.MAX_VALUE;
+    private long txnMinTimestamp = Long.MAX_VALUE;
     private long prevMinTimestamp = Long.MAX_VALUE;
     private ReloadMethod reloadMethod;
     private long tempMem8b = Unsafe.malloc(8);
 
     public TableReader(CairoConfiguration configuration, CharSequence tableName) {
+        this(configuration, tableName, null);
+    }
+
+    public TableReader(CairoConfiguration configuration, CharSequence tableName, @Nullable ColumnMappingCache mappingCache) {
         LOG.info().$("open '").utf8(tableName).$('\'').$();
         this.configuration = configuration;
+        this.mappingCache = mappingCache;
         this.ff = configuration.getFilesFacade();
         this.tableName = Chars.toString(tableName);
         this.path = new Path().of(configuration.getRoot()).concat(tableName);
@@ -121,6 +132,20 @@ public class TableReader implements Closeable, SymbolTableSource {
                     intervalLengthMethod = Timestamps::getYearsBetween;
                     timestampAddMethod = Timestamps::addYear;
                     break;
+                case PartitionBy.HOUR:
+                    partitionPathGenerator = HOUR_GEN;
+                    reloadMethod = FIRST_TIME_PARTITIONED_RELOAD_METHOD;
+                    timestampFloorMethod = Timestamps::floorHH;
+                    intervalLengthMethod = Timestamps::getHoursBetween;
+                    timestampAddMethod = Timestamps::addHours;
+                    break;
+                case PartitionBy.WEEK:
+                    partitionPathGenerator = WEEK_GEN;
+                    reloadMethod = FIRST_TIME_PARTITIONED_RELOAD_METHOD;
+                    timestampFloorMethod = Timestamps::floorWW;
+                    intervalLengthMethod = Timestamps::getWeeksBetween;
+                    timestampAddMethod = Timestamps::addWeeks;
+                    break;
                 default:
                     partitionPathGenerator = DEFAULT_GEN;
                     reloadMethod = FIRST_TIME_NON_PARTITIONED_RELOAD_METHOD;
@@ -361,6 +386,32 @@ public class TableReader implements Closeable, SymbolTableSource {
         return openPartition0(partitionIndex);
     }
 
+    /**
+     * Reads min, max and null count of column values in given partition. Statistics are not available for
+     * the last partition, which is still being appended to, and for partitions that had been modified
+     * after statistics were written.
+     *
+     * @param partitionIndex index of open partition
+     * @param columnIndex    index of column in reader metadata
+     * @param stats          sink for statistics values
+     * @return true when statistics are available and match partition row count
+     */
+    public boolean readColumnStats(int partitionIndex, int columnIndex, ColumnStats stats) {
+        if (partitionIndex >= partitionCount - 1) {
+            return false;
+        }
+        final long rowCount = getPartitionRowCount(partitionIndex);
+        if (rowCount < 1) {
+            return false;
+        }
+        try {
+            return stats.read(ff, partitionPathGenerator.generate(this, partitionIndex).chopZ(), metadata.getColumnName(columnIndex))
+                    && stats.getRowCount() == rowCount;
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     public boolean reload() {
         return reloadMethod.reload(this);
     }
@@ -483,6 +534,9 @@ public class TableReader implements Closeable, SymbolTableSource {
                 case ColumnType.STRING:
                     growStr(mem1, mem2, rowCount);
                     break;
+                case ColumnType.VARCHAR:
+                    growVarchar(mem1, mem2, rowCount);
+                    break;
             }
         }
     }
@@ -498,6 +552,14 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    private static void growVarchar(ReadOnlyColumn mem1, ReadOnlyColumn mem2, long rowCount) {
+        assert mem2 != null;
+        mem2.grow(rowCount * 8);
+        final long offset = mem2.getLong((rowCount - 1) * 8);
+        mem1.grow(offset + VarcharUtils.HEADER_BYTES);
+        mem1.grow(offset + VarcharUtils.getStorageSize(mem1.getInt(offset)));
+    }
+
     private static void growBin(ReadOnlyColumn mem1, ReadOnlyColumn mem2, long rowCount) {
         assert mem2 != null;
         mem2.grow(rowCount * 8);
@@ -758,16 +820,55 @@ public class TableReader implements Closeable, SymbolTableSource {
         return columnBase >>> columnCountBits;
     }
 
+    /**
+     * Writes transaction file that matches the snapshot this reader is at, rather than the
+     * one table writer may have committed since reader was reloaded.
+     */
+    void copyTxnTo(VirtualMemory txMem) {
+        final int symbolMapCount = symbolCountSnapshot.size();
+        final int removedPartitionCount = removedPartitions.size();
+        txMem.putLong(TableUtils.TX_OFFSET_TXN, txn);
+        txMem.putLong(TableUtils.TX_OFFSET_TRANSIENT_ROW_COUNT, transientRowCount);
+        txMem.putLong(TableUtils.TX_OFFSET_FIXED_ROW_COUNT, rowCount - transientRowCount);
+        txMem.putLong(TableUtils.TX_OFFSET_MIN_TIMESTAMP, txnMinTimestamp);
+        txMem.putLong(TableUtils.TX_OFFSET_MAX_TIMESTAMP, maxTimestamp);
+        txMem.putLong(TableUtils.TX_OFFSET_STRUCT_VERSION, structVersion);
+        txMem.putLong(TableUtils.TX_OFFSET_DATA_VERSION, dataVersion);
+        txMem.putLong(TableUtils.TX_OFFSET_PARTITION_TABLE_VERSION, partitionTableVersion);
+        txMem.putLong(TableUtils.TX_OFFSET_TXN_CHECK, txn);
+        txMem.putInt(TableUtils.TX_OFFSET_MAP_WRITER_COUNT, symbolMapCount);
+        for (int i = 0; i < symbolMapCount; i++) {
+            txMem.putInt(TableUtils.getSymbolWriterIndexOffset(i), symbolCountSnapshot.getQuick(i));
+        }
+        txMem.putInt(TableUtils.getPartitionTableSizeOffset(symbolMapCount), removedPartitionCount);
+        for (int i = 0; i < removedPartitionCount; i++) {
+            txMem.putLong(TableUtils.getPartitionTableIndexOffset(symbolMapCount, i), removedPartitions.get(i));
+        }
+        txMem.jumpTo(TableUtils.getPartitionTableIndexOffset(symbolMapCount, removedPartitionCount));
+    }
+
     long getPartitionRowCount(int partitionIndex) {
         assert partitionRowCounts.size() > 0;
         return partitionRowCounts.getQuick(partitionIndex);
     }
 
+    /**
+     * Appends name of partition directory, e.g. "2020-01-01" for table partitioned by day, to the sink.
+     */
+    void putPartitionName(int partitionIndex, CharSink sink) {
+        try {
+            final Path p = partitionPathGenerator.generate(this, partitionIndex);
+            sink.put(p, rootLen + 1, p.length());
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     long getTransientRowCount() {
         return transientRowCount;
     }
 
-    long getTxn() {
+    public long getTxn() {
         return txn;
     }
 
@@ -813,7 +914,10 @@ public class TableReader implements Closeable, SymbolTableSource {
         if (mem != null && mem != NullColumn.INSTANCE) {
             mem.of(ff, path, ff.getMapPageSize(), ff.length(path));
         } else {
-            if (lastPartition) {
+            if (mappingCache != null) {
+                mem = new SharedOnePageMemory(mappingCache);
+                mem.of(ff, path, ff.getMapPageSize(), ff.length(path));
+            } else if (lastPartition) {
                 mem = new ExtendableOnePageMemory(ff, path, ff.getMapPageSize());
             } else {
                 mem = new OnePageMemory(ff, path, ff.length(path));
@@ -913,6 +1017,16 @@ public class TableReader implements Closeable, SymbolTableSource {
         return path.concat(TableUtils.DEFAULT_PARTITION_NAME).$();
     }
 
+    private Path pathGenHour(int partitionIndex) {
+        TableUtils.fmtHour.format(
+                Timestamps.addHours(minTimestamp, partitionIndex),
+                null, // this format does not need locale access
+                null,
+                path.put(Files.SEPARATOR)
+        );
+        return path.$();
+    }
+
     private Path pathGenMonth(int partitionIndex) {
         TableUtils.fmtMonth.format(
                 Timestamps.addMonths(minTimestamp, partitionIndex),
@@ -933,6 +1047,17 @@ public class TableReader implements Closeable, SymbolTableSource {
         return path.$();
     }
 
+    private Path pathGenWeek(int partitionIndex) {
+        // week partitions are named after their Monday, minTimestamp is already floored to it
+        TableUtils.fmtDay.format(
+                Timestamps.addWeeks(minTimestamp, partitionIndex),
+                null, // this format does not need locale access
+                null,
+                path.put(Files.SEPARATOR)
+        );
+        return path.$();
+    }
+
     private boolean readTxn() {
         // fast path
         return this.txn != txMem.getLong(TableUtils.TX_OFFSET_TXN) && readTxnSlow();
@@ -994,6 +1119,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                     this.transientRowCount = transientRowCount;
                     this.rowCount = fixedRowCount + transientRowCount;
                     this.prevMinTimestamp = this.minTimestamp;
+                    this.txnMinTimestamp = minTimestamp;
                     if (minTimestamp == Long.MAX_VALUE) {
                         this.minTimestamp = Long.MAX_VALUE;
                     } else {
@@ -1055,6 +1181,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                 switch (type) {
                     case ColumnType.BINARY:
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                         TableUtils.iFile(path.trimTo(plen), name);
                         mem2 = openOrCreateMemory(path, columns, lastPartition, secondaryIndex, mem2);
                         growColumn(mem1, mem2, type, partitionRowCount - columnTop);
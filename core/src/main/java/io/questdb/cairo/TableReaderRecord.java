@@ -152,9 +152,9 @@ public class TableReaderRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final ReadOnlyColumn column = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? column.getVarchar(offset) : column.getStr(offset);
     }
 
     @Override
@@ -186,9 +186,9 @@ public class TableReaderRecord implements Record {
         final int index = TableReader.getPrimaryColumnIndex(columnBase, col);
         final long recordIndex = getAdjustedRecordIndex(col) * Long.BYTES;
         final int absoluteColumnIndex = ifOffsetNegThen0ElseValue(recordIndex, index);
-        return reader.getColumn(absoluteColumnIndex).getStr2(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final ReadOnlyColumn column = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? column.getVarchar2(offset) : column.getStr2(offset);
     }
 
     @Override
@@ -196,9 +196,9 @@ public class TableReaderRecord implements Record {
         final int index = TableReader.getPrimaryColumnIndex(columnBase, col);
         final long recordIndex = getAdjustedRecordIndex(col) * Long.BYTES;
         final int absoluteColumnIndex = ifOffsetNegThen0ElseValue(recordIndex, index);
-        return reader.getColumn(absoluteColumnIndex).getStrLen(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final ReadOnlyColumn column = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? column.getVarcharLen(offset) : column.getStrLen(offset);
     }
 
     @Override
@@ -241,4 +241,8 @@ public class TableReaderRecord implements Record {
         assert col > -1 && col < reader.getColumnCount() : "Column index out of bounds: " + col + " >= " + reader.getColumnCount();
         return recordIndex - reader.getColumnTop(columnBase, col);
     }
+
+    private boolean isVarchar(int col) {
+        return reader.getMetadata().getColumnType(col) == ColumnType.VARCHAR;
+    }
 }
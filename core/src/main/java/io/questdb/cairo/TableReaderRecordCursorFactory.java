@@ -41,6 +41,7 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
     private final IntList columnSizes;
     private TablePageFrameCursor pageFrameCursor = null;
     private final boolean framingSupported;
+    private final boolean timestampSeekSupported;
 
     public TableReaderRecordCursorFactory(
             RecordMetadata metadata,
@@ -50,6 +51,19 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
             @NotNull IntList columnIndexes,
             @NotNull IntList columnSizes,
             boolean framingSupported
+    ) {
+        this(metadata, engine, tableName, tableVersion, columnIndexes, columnSizes, framingSupported, false);
+    }
+
+    public TableReaderRecordCursorFactory(
+            RecordMetadata metadata,
+            CairoEngine engine,
+            String tableName,
+            long tableVersion,
+            @NotNull IntList columnIndexes,
+            @NotNull IntList columnSizes,
+            boolean framingSupported,
+            boolean timestampSeekSupported
     ) {
         super(metadata);
         this.cursor = new TableReaderSelectedColumnRecordCursor(columnIndexes);
@@ -59,6 +73,7 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
         this.columnIndexes = columnIndexes;
         this.columnSizes = columnSizes;
         this.framingSupported = framingSupported;
+        this.timestampSeekSupported = timestampSeekSupported;
     }
 
     @Override
@@ -67,17 +82,38 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
         Misc.free(pageFrameCursor);
     }
 
+    public IntList getColumnIndexes() {
+        return columnIndexes;
+    }
+
+    public IntList getColumnSizes() {
+        return columnSizes;
+    }
+
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) {
         cursor.of(engine.getReader(executionContext.getCairoSecurityContext(), tableName, tableVersion));
         return cursor;
     }
 
+    public String getTableName() {
+        return tableName;
+    }
+
+    public long getTableVersion() {
+        return tableVersion;
+    }
+
     @Override
     public boolean recordCursorSupportsRandomAccess() {
         return true;
     }
 
+    @Override
+    public boolean recordCursorSupportsTimestampSeek() {
+        return timestampSeekSupported;
+    }
+
     @Override
     public PageFrameCursor getPageFrameCursor(SqlExecutionContext executionContext) {
         if (pageFrameCursor != null) {
@@ -92,6 +128,10 @@ public class TableReaderRecordCursorFactory extends AbstractRecordCursorFactory
         }
     }
 
+    public boolean isFramingSupported() {
+        return framingSupported;
+    }
+
     @Override
     public boolean supportPageFrameCursor() {
         return framingSupported;
@@ -160,9 +160,9 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final ReadOnlyColumn column = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? column.getVarchar(offset) : column.getStr(offset);
     }
 
     @Override
@@ -200,9 +200,9 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr2(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final ReadOnlyColumn column = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? column.getVarchar2(offset) : column.getStr2(offset);
     }
 
     @Override
@@ -213,9 +213,9 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStrLen(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final ReadOnlyColumn column = reader.getColumn(absoluteColumnIndex);
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        return isVarchar(col) ? column.getVarcharLen(offset) : column.getStrLen(offset);
     }
 
     @Override
@@ -254,4 +254,8 @@ public class TableReaderSelectedColumnRecord implements Record {
         assert col > -1 && col < reader.getColumnCount() : "Column index out of bounds: " + col + " >= " + reader.getColumnCount();
         return recordIndex - reader.getColumnTop(columnBase, col);
     }
+
+    private boolean isVarchar(int col) {
+        return reader.getMetadata().getColumnType(col) == ColumnType.VARCHAR;
+    }
 }
@@ -61,6 +61,11 @@ public class TableReaderSelectedColumnRecordCursor implements RecordCursor {
         return recordA;
     }
 
+    @Override
+    public long getPrevRowId(long rowId) {
+        return getPrevRowId(Rows.toPartitionIndex(rowId), Rows.toLocalRowID(rowId));
+    }
+
     @Override
     public SymbolTable getSymbolTable(int columnIndex) {
         return reader.getSymbolMapReader(columnIndexes.getQuick(columnIndex));
@@ -102,6 +107,54 @@ public class TableReaderSelectedColumnRecordCursor implements RecordCursor {
         return reader.size();
     }
 
+    @Override
+    public long skipToTimestamp(long timestamp) {
+        final int partition = partitionIndex - 1;
+        final long recordIndex = recordA.getAdjustedRecordIndex();
+        final long origin;
+        if (partition > -1) {
+            origin = recordIndex > -1 ? Rows.toRowID(partition, recordIndex) : getPrevRowId(partition, 0);
+            if (recordIndex < maxRecordIndex) {
+                // check if timestamp falls within rows remaining in current partition
+                final long hi = BinarySearch.find(getTimestampColumn(partition), timestamp, recordIndex + 1, maxRecordIndex, BinarySearch.SCAN_DOWN);
+                if (hi < maxRecordIndex) {
+                    if (hi > recordIndex) {
+                        recordA.jumpTo(partition, hi);
+                        return Rows.toRowID(partition, hi);
+                    }
+                    return -1;
+                }
+            }
+        } else {
+            origin = -1;
+        }
+
+        // partitions before the one timestamp falls into contain only smaller timestamps,
+        // we skip them without opening
+        for (int p = Math.max(partitionIndex, getPartitionIndex(timestamp)); p < partitionLimit; p++) {
+            final long partitionSize = reader.openPartition(p);
+            if (partitionSize > 0) {
+                final long hi = BinarySearch.find(getTimestampColumn(p), timestamp, 0, partitionSize - 1, BinarySearch.SCAN_DOWN);
+                if (hi < partitionSize - 1) {
+                    maxRecordIndex = partitionSize - 1;
+                    recordA.jumpTo(p, hi);
+                    partitionIndex = p + 1;
+                    final long rowId = getPrevRowId(p, hi + 1);
+                    return rowId > origin ? rowId : -1;
+                }
+            }
+        }
+
+        // all rows are skipped, leave cursor on the last row as if it was scrolled to the end
+        partitionIndex = partitionLimit;
+        final long rowId = getPrevRowId(partitionLimit, 0);
+        if (rowId > -1) {
+            maxRecordIndex = Rows.toLocalRowID(rowId);
+            recordA.jumpTo(Rows.toPartitionIndex(rowId), maxRecordIndex);
+        }
+        return rowId > origin ? rowId : -1;
+    }
+
     public void of(TableReader reader) {
         this.partitionLo = 0;
         this.recodLo = 0;
@@ -129,6 +182,35 @@ public class TableReaderSelectedColumnRecordCursor implements RecordCursor {
         this.partitionLimit = reader.getPartitionCount();
     }
 
+    private int getPartitionIndex(long timestamp) {
+        if (reader.getPartitionedBy() == PartitionBy.NONE || timestamp <= reader.getMinTimestamp()) {
+            return 0;
+        }
+        return reader.getPartitionCountBetweenTimestamps(reader.getMinTimestamp(), reader.floorToPartitionTimestamp(timestamp));
+    }
+
+    private long getPrevRowId(int partitionIndex, long recordIndex) {
+        if (recordIndex > 0) {
+            return Rows.toRowID(partitionIndex, recordIndex - 1);
+        }
+        while (--partitionIndex > -1) {
+            final long partitionSize = reader.openPartition(partitionIndex);
+            if (partitionSize > 0) {
+                return Rows.toRowID(partitionIndex, partitionSize - 1);
+            }
+        }
+        return -1;
+    }
+
+    private ReadOnlyColumn getTimestampColumn(int partitionIndex) {
+        return reader.getColumn(
+                TableReader.getPrimaryColumnIndex(
+                        reader.getColumnBase(partitionIndex),
+                        reader.getMetadata().getTimestampIndex()
+                )
+        );
+    }
+
     private void of0(TableReader reader) {
         close();
         this.reader = reader;
@@ -41,6 +41,7 @@ public final class TableUtils {
     public static final int TABLE_DOES_NOT_EXIST = 1;
     public static final int TABLE_RESERVED = 2;
     public static final String META_FILE_NAME = "_meta";
+    public static final String MAT_VIEW_FILE_NAME = "_mv";
     public static final String TXN_FILE_NAME = "_txn";
     public static final String UPGRADE_FILE_NAME = "_upgrade.d";
     public static final int INITIAL_TXN = 0;
@@ -62,8 +63,11 @@ public final class TableUtils {
     static final DateFormat fmtDay;
     static final DateFormat fmtMonth;
     static final DateFormat fmtYear;
+    static final DateFormat fmtHour;
     static final String ARCHIVE_FILE_NAME = "_archive";
     static final String DEFAULT_PARTITION_NAME = "default";
+    // multiple of OS page size and mapping granularity, source file is mapped at offsets aligned to this value
+    static final long COPY_FILE_WINDOW_SIZE = 64 * 1024 * 1024;
     // transaction file structure
     static final long TX_OFFSET_TXN = 0;
     static final long TX_OFFSET_MIN_TIMESTAMP = 24;
@@ -98,6 +102,7 @@ public final class TableUtils {
     static final long META_OFFSET_COLUMN_TYPES = 128;
     static final int META_FLAG_BIT_INDEXED = 1;
     static final int META_FLAG_BIT_SEQUENTIAL = 1 << 1;
+    static final int META_FLAG_BIT_INDEX_PACKED = 1 << 2;
     static final String TODO_FILE_NAME = "_todo";
     private static final int MIN_SYMBOL_CAPACITY = 2;
     private static final int MAX_SYMBOL_CAPACITY = Numbers.ceilPow2(Integer.MAX_VALUE);
@@ -354,6 +359,15 @@ public final class TableUtils {
         path.put(Files.SEPARATOR);
         final long partitionHi;
         switch (partitionBy) {
+            case PartitionBy.HOUR:
+                fmtHour.format(timestamp, null, null, path);
+                partitionHi = Timestamps.ceilHH(timestamp);
+                break;
+            case PartitionBy.WEEK:
+                // week partition is named after its first day, which is Monday
+                fmtDay.format(Timestamps.floorWW(timestamp), null, null, path);
+                partitionHi = Timestamps.ceilWW(timestamp);
+                break;
             case PartitionBy.DAY:
                 y = Timestamps.getYear(timestamp);
                 leap = Timestamps.isLeapYear(y);
@@ -488,6 +502,57 @@ public final class TableUtils {
         }
     }
 
+    /**
+     * Copies file contents via memory mapping of the source. Source is mapped and written in windows of
+     * at most {@link #COPY_FILE_WINDOW_SIZE} bytes because single write() call is capped by OS at just under 2GB.
+     *
+     * @return number of bytes copied
+     */
+    static long copyFile(FilesFacade ff, LPSZ from, LPSZ to) {
+        final long srcFd = ff.openRO(from);
+        if (srcFd == -1) {
+            throw CairoException.instance(ff.errno()).put("Cannot open: ").put(from);
+        }
+        try {
+            final long dstFd = ff.openRW(to);
+            if (dstFd == -1) {
+                throw CairoException.instance(ff.errno()).put("Cannot open: ").put(to);
+            }
+            try {
+                final long len = ff.length(srcFd);
+                if (!ff.truncate(dstFd, 0)) {
+                    throw CairoException.instance(ff.errno()).put("Cannot truncate: ").put(to);
+                }
+                long offset = 0;
+                while (offset < len) {
+                    final long windowSize = Math.min(COPY_FILE_WINDOW_SIZE, len - offset);
+                    final long addr = ff.mmap(srcFd, windowSize, offset, Files.MAP_RO);
+                    if (addr == FilesFacade.MAP_FAILED) {
+                        throw CairoException.instance(ff.errno()).put("Cannot map: ").put(from);
+                    }
+                    try {
+                        long written = 0;
+                        while (written < windowSize) {
+                            final long n = ff.write(dstFd, addr + written, windowSize - written, offset + written);
+                            if (n <= 0) {
+                                throw CairoException.instance(ff.errno()).put("Cannot write: ").put(to);
+                            }
+                            written += n;
+                        }
+                    } finally {
+                        ff.munmap(addr, windowSize);
+                    }
+                    offset += windowSize;
+                }
+                return len;
+            } finally {
+                ff.close(dstFd);
+            }
+        } finally {
+            ff.close(srcFd);
+        }
+    }
+
     static long readLongAtOffset(FilesFacade ff, Path path, long tempMem8b, long offset) {
         long fd = ff.openRO(path);
         if (fd == -1) {
@@ -540,6 +605,10 @@ public final class TableUtils {
         return path.concat(columnName).put(FILE_SUFFIX_I).$();
     }
 
+    static LPSZ statsFile(Path path, CharSequence columnName) {
+        return path.concat(columnName).put(".st").$();
+    }
+
     static long getColumnFlags(ReadOnlyColumn metaMem, int columnIndex) {
         return metaMem.getLong(META_OFFSET_COLUMN_TYPES + columnIndex * META_COLUMN_DATA_SIZE + 1);
     }
@@ -548,6 +617,10 @@ public final class TableUtils {
         return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_INDEXED) != 0;
     }
 
+    static boolean isIndexPacked(ReadOnlyColumn metaMem, int columnIndex) {
+        return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_INDEX_PACKED) != 0;
+    }
+
     static boolean isSequential(ReadOnlyColumn metaMem, int columnIndex) {
         return (getColumnFlags(metaMem, columnIndex) & META_FLAG_BIT_SEQUENTIAL) != 0;
     }
@@ -617,6 +690,10 @@ public final class TableUtils {
                 return Timestamps.floorMM(timestampA) == Timestamps.floorMM(timestampB);
             case PartitionBy.YEAR:
                 return Timestamps.floorYYYY(timestampA) == Timestamps.floorYYYY(timestampB);
+            case PartitionBy.HOUR:
+                return Timestamps.floorHH(timestampA) == Timestamps.floorHH(timestampB);
+            case PartitionBy.WEEK:
+                return Timestamps.floorWW(timestampA) == Timestamps.floorWW(timestampB);
             default:
                 throw CairoException.instance(0).put("Cannot compare timestamps for unsupported partition type: [").put(partitionBy).put(']');
         }
@@ -652,5 +729,6 @@ public final class TableUtils {
         fmtDay = compiler.compile("yyyy-MM-dd");
         fmtMonth = compiler.compile("yyyy-MM");
         fmtYear = compiler.compile("yyyy");
+        fmtHour = compiler.compile("yyyy-MM-ddTHH");
     }
 }
@@ -32,6 +32,7 @@ import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.griffin.SqlException;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.Metrics;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.SOCountDownLatch;
 import io.questdb.mp.Sequence;
@@ -42,6 +43,7 @@ import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.SingleCharCharSequence;
 import io.questdb.tasks.ColumnIndexerTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -80,7 +82,7 @@ public class TableWriter implements Closeable {
     private final Path path;
     private final Path other;
     private final LongList refs = new LongList();
-    private final Row row = new Row();
+    private final RowImpl row = new RowImpl();
     private final int rootLen;
     private final ReadWriteMemory txMem;
     private final ReadOnlyMemory metaMem;
@@ -100,6 +102,7 @@ public class TableWriter implements Closeable {
     private final CharSequence name;
     private final TableWriterMetadata metadata;
     private final CairoConfiguration configuration;
+    private final Metrics metrics;
     private final CharSequenceIntHashMap validationMap = new CharSequenceIntHashMap();
     private final FragileCode RECOVER_FROM_META_RENAME_FAILURE = this::recoverFromMetaRenameFailure;
     private final SOCountDownLatch indexLatch = new SOCountDownLatch();
@@ -115,6 +118,7 @@ public class TableWriter implements Closeable {
     private final ObjList<Runnable> oooNullSetters;
     private final ObjList<ContiguousVirtualMemory> oooColumns;
     private final OnePageMemory timestampSearchColumn = new OnePageMemory();
+    private final ColumnStats columnStats = new ColumnStats();
     private final TableBlockWriter blockWriter;
     private final LongList partitionListByTimestamp = new LongList();
     private final LongList partitionsToDrop = new LongList();
@@ -135,6 +139,8 @@ public class TableWriter implements Closeable {
     private RowFunction rowFunction = openPartitionFunction;
     private long prevMaxTimestamp;
     private long txPrevTransientRowCount;
+    // lowest timestamp of rows removed in current transaction, Long.MAX_VALUE when rows were not removed
+    private long removedRowsTimestamp = Long.MAX_VALUE;
     private long maxTimestamp;
     private long minTimestamp;
     private long prevMinTimestamp;
@@ -172,7 +178,21 @@ public class TableWriter implements Closeable {
         }
     };
     private long mergeRowCount;
+    private long mergeTimestampMin;
+    private CommitListener commitListener;
     private final LongConsumer mergeTimestampMethodRef = this::mergeTimestampSetter;
+    private final OutOfOrderColumnDispatcher oooColumnDispatcher;
+    private final OutOfOrderColumnDispatcher.ColumnAction oooShuffleFixedColumnAction = this::shuffleFixedColumn;
+    private final OutOfOrderColumnDispatcher.ColumnAction oooCopyOutOfOrderColumnAction = this::copyOutOfOrderColumn;
+    private final OutOfOrderColumnDispatcher.ColumnAction oooCopyPartitionColumnAction = this::copyPartitionColumn;
+    private final OutOfOrderColumnDispatcher.ColumnAction oooMergeShuffleColumnAction = this::mergeOOAndShuffleColumn;
+    // arguments of the column action in flight, column actions are bound once to avoid allocation
+    private long oooMergedTimestamps;
+    private long oooIndexLo;
+    private long oooIndexHi;
+    private long[] oooMergeStruct;
+    private long oooMergeIndex;
+    private long oooMergeIndexLen;
     private long transientRowCountBeforeOutOfOrder;
 
     public TableWriter(CairoConfiguration configuration, CharSequence name) {
@@ -203,11 +223,17 @@ public class TableWriter implements Closeable {
     ) {
         LOG.info().$("open '").utf8(name).$('\'').$();
         this.configuration = configuration;
+        this.metrics = configuration.getMetrics();
         this.outOfOrderEnabled = configuration.isOutOfOrderEnabled();
         this.messageBus = messageBus;
         this.defaultCommitMode = configuration.getCommitMode();
         this.lifecycleManager = lifecycleManager;
         this.parallelIndexerEnabled = messageBus != null && configuration.isParallelIndexingEnabled();
+        if (messageBus != null && configuration.isParallelOutOfOrderMergeEnabled()) {
+            this.oooColumnDispatcher = new OutOfOrderColumnDispatcher(configuration, messageBus);
+        } else {
+            this.oooColumnDispatcher = null;
+        }
         this.ff = configuration.getFilesFacade();
         this.mkDirMode = configuration.getMkDirMode();
         this.fileOperationRetryCount = configuration.getFileOperationRetryCount();
@@ -286,6 +312,17 @@ public class TableWriter implements Closeable {
                     timestampAddMethod = Timestamps.ADD_YYYY;
                     partitionDirFmt = fmtYear;
                     break;
+                case PartitionBy.HOUR:
+                    timestampFloorMethod = Timestamps.FLOOR_HH;
+                    timestampAddMethod = Timestamps.ADD_HH;
+                    partitionDirFmt = fmtHour;
+                    break;
+                case PartitionBy.WEEK:
+                    // week partitions are named after their first day, Monday
+                    timestampFloorMethod = Timestamps.FLOOR_WW;
+                    timestampAddMethod = Timestamps.ADD_WW;
+                    partitionDirFmt = fmtDay;
+                    break;
                 default:
                     timestampFloorMethod = null;
                     timestampAddMethod = null;
@@ -313,6 +350,10 @@ public class TableWriter implements Closeable {
                 return fmtMonth;
             case PartitionBy.YEAR:
                 return fmtYear;
+            case PartitionBy.HOUR:
+                return fmtHour;
+            case PartitionBy.WEEK:
+                return fmtDay;
             default:
                 return null;
         }
@@ -446,6 +487,18 @@ public class TableWriter implements Closeable {
     }
 
     public void addIndex(CharSequence columnName, int indexValueBlockSize) {
+        addIndex(columnName, indexValueBlockSize, false);
+    }
+
+    /**
+     * Adds index to existing symbol column.
+     *
+     * @param columnName          name of symbol column
+     * @param indexValueBlockSize approximation of number of rows for single index key, must be power of 2
+     * @param packed              when true, full value blocks of the index are delta encoded and bit-packed,
+     *                            which makes index of low cardinality column several times smaller
+     */
+    public void addIndex(CharSequence columnName, int indexValueBlockSize, boolean packed) {
         assert indexValueBlockSize == Numbers.ceilPow2(indexValueBlockSize) : "power of 2 expected";
 
         checkDistressed();
@@ -483,7 +536,7 @@ public class TableWriter implements Closeable {
                 //
                 if (partitionBy != PartitionBy.NONE) {
                     // run indexer for the whole table
-                    final long timestamp = indexHistoricPartitions(indexer, columnName, indexValueBlockSize);
+                    final long timestamp = indexHistoricPartitions(indexer, columnName, indexValueBlockSize, packed);
                     path.trimTo(rootLen);
                     setStateForTimestamp(path, timestamp, true);
                 } else {
@@ -491,7 +544,7 @@ public class TableWriter implements Closeable {
                 }
 
                 // create index in last partition
-                indexLastPartition(indexer, columnName, columnIndex, indexValueBlockSize);
+                indexLastPartition(indexer, columnName, columnIndex, indexValueBlockSize, packed);
 
             } finally {
                 path.trimTo(rootLen);
@@ -505,7 +558,7 @@ public class TableWriter implements Closeable {
         // set index flag in metadata
         // create new _meta.swp
 
-        metaSwapIndex = copyMetadataAndSetIndexed(columnIndex, indexValueBlockSize);
+        metaSwapIndex = copyMetadataAndSetIndexed(columnIndex, indexValueBlockSize, packed);
 
         // close _meta so we can rename it
         metaMem.close();
@@ -593,8 +646,15 @@ public class TableWriter implements Closeable {
 
         if (inTransaction()) {
 
+            // rows appended in order cannot be older than max timestamp of the previous transaction
+            long txnMinTimestamp = Math.min(txMem.getLong(TX_OFFSET_MAX_TIMESTAMP), removedRowsTimestamp);
             if (mergeRowCount > 0) {
+                final long mergeStart = configuration.getMicrosecondClock().getTicks();
+                final long rowCount = mergeRowCount;
                 mergeOutOfOrderRecords();
+                metrics.getO3MergeDuration().record(configuration.getMicrosecondClock().getTicks() - mergeStart);
+                metrics.getO3MergedRows().add(rowCount);
+                txnMinTimestamp = Math.min(txnMinTimestamp, mergeTimestampMin);
             }
 
             if (commitMode != CommitMode.NOSYNC) {
@@ -618,6 +678,12 @@ public class TableWriter implements Closeable {
             txMem.putLong(TX_OFFSET_MIN_TIMESTAMP, minTimestamp);
             txMem.putLong(TX_OFFSET_MAX_TIMESTAMP, maxTimestamp);
 
+            if (removedRowsTimestamp != Long.MAX_VALUE) {
+                // rows that replace removed ones must not be taken for the old rows, for example by incremental backup
+                txMem.putLong(TX_OFFSET_DATA_VERSION, ++dataVersion);
+                removedRowsTimestamp = Long.MAX_VALUE;
+            }
+
             // store symbol counts
             for (int i = 0, n = denseSymbolMapWriters.size(); i < n; i++) {
                 txMem.putInt(getSymbolWriterIndexOffset(i), denseSymbolMapWriters.getQuick(i).getSymbolCount());
@@ -629,6 +695,7 @@ public class TableWriter implements Closeable {
                 txMem.sync(0, commitMode == CommitMode.ASYNC);
             }
             txPrevTransientRowCount = transientRowCount;
+            notifyCommitListener(txnMinTimestamp);
         }
     }
 
@@ -665,7 +732,7 @@ public class TableWriter implements Closeable {
     }
 
     public boolean inTransaction() {
-        return txPartitionCount > 1 || transientRowCount != txPrevTransientRowCount;
+        return txPartitionCount > 1 || transientRowCount != txPrevTransientRowCount || removedRowsTimestamp != Long.MAX_VALUE;
     }
 
     public boolean isOpen() {
@@ -692,7 +759,11 @@ public class TableWriter implements Closeable {
             throw CairoException.instance(0).put("table is not partitioned");
         }
         try {
-            return partitionDirFmt.parse(partitionName, null);
+            final long timestamp = partitionDirFmt.parse(partitionName, null);
+            if (partitionBy == PartitionBy.WEEK && timestamp != Timestamps.floorWW(timestamp)) {
+                throw CairoException.instance(0).put("week partition name must be a Monday [name=").put(partitionName).put(']');
+            }
+            return timestamp;
         } catch (NumericException e) {
             final CairoException ee = CairoException.instance(0);
             switch (partitionBy) {
@@ -702,6 +773,12 @@ public class TableWriter implements Closeable {
                 case PartitionBy.MONTH:
                     ee.put("'YYYY-MM'");
                     break;
+                case PartitionBy.HOUR:
+                    ee.put("'YYYY-MM-DDTHH'");
+                    break;
+                case PartitionBy.WEEK:
+                    ee.put("'YYYY-MM-DD'");
+                    break;
                 default:
                     ee.put("'YYYY'");
                     break;
@@ -870,6 +947,7 @@ public class TableWriter implements Closeable {
                 fixedRowCount -= partitionSize;
 
                 LOG.info().$("partition marked for delete [path=").$(path).$(']').$();
+                notifyCommitListener(timestampFloorMethod.floor(timestamp));
                 return true;
             } else {
                 LOG.error().$("cannot remove already missing partition [path=").$(path).$(']').$();
@@ -908,6 +986,81 @@ public class TableWriter implements Closeable {
         }
     }
 
+    /**
+     * Removes rows with timestamp greater or equal to the given one. Uncommitted rows are rolled back.
+     * Removal is part of the current transaction, rows appended afterwards take place of removed rows
+     * and readers see both changes at the next commit. Appended rows overwrite removed ones in place,
+     * rolling back such transaction leaves removed rows with values of the appended ones.
+     * <p>
+     * Rows can only be removed from the last partition, table is left unchanged when removal would have
+     * to reach into older partitions or remove last partition of partitioned table entirely.
+     *
+     * @param timestamp lowest timestamp to remove
+     * @return true when there are no rows left at or after timestamp
+     */
+    public boolean removeRows(long timestamp) {
+        checkDistressed();
+
+        if ((masterRef & 1) != 0) {
+            cancelRow();
+        }
+        rollback();
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        if (timestampIndex == -1) {
+            return false;
+        }
+
+        if (timestamp > maxTimestamp) {
+            return true;
+        }
+
+        // minTimestamp is not maintained for non-partitioned tables
+        if (partitionBy != PartitionBy.NONE && (timestamp <= minTimestamp || timestampFloorMethod.floor(timestamp) != timestampFloorMethod.floor(maxTimestamp))) {
+            return false;
+        }
+
+        final long rowCount;
+        final long nextMaxTimestamp;
+        if (timestamp == Long.MIN_VALUE) {
+            rowCount = 0;
+            nextMaxTimestamp = Long.MIN_VALUE;
+        } else {
+            timestampSearchColumn.of(ff, getPrimaryColumn(timestampIndex).getFd(), path, transientRowCount * Long.BYTES);
+            try {
+                rowCount = BinarySearch.find(timestampSearchColumn, timestamp - 1, 0, transientRowCount - 1, BinarySearch.SCAN_DOWN) + 1;
+                nextMaxTimestamp = rowCount > 0 ? timestampSearchColumn.getLong((rowCount - 1) * Long.BYTES) : Long.MIN_VALUE;
+            } finally {
+                timestampSearchColumn.detach();
+            }
+        }
+
+        if (rowCount == transientRowCount) {
+            return true;
+        }
+        if (rowCount == 0 && partitionBy != PartitionBy.NONE) {
+            // we would have to remove last partition, which cannot be done by moving append position
+            return false;
+        }
+        // neither can we cut into column top
+        for (int i = 0; i < columnCount; i++) {
+            if (columnTops.getQuick(i) > rowCount) {
+                return false;
+            }
+        }
+
+        // indexes keep values of removed rows until rows appended in their place are indexed
+        setAppendPosition(rowCount, false);
+        transientRowCount = rowCount;
+        txPrevTransientRowCount = rowCount;
+        maxTimestamp = nextMaxTimestamp;
+        prevMaxTimestamp = nextMaxTimestamp;
+        removedRowsTimestamp = timestamp;
+
+        LOG.info().$("removing rows [name=").$(name).$(", from=").$ts(timestamp).$(", rowCount=").$(size()).$(']').$();
+        return true;
+    }
+
     public void renameColumn(CharSequence currentName, CharSequence newName) {
 
         checkDistressed();
@@ -971,6 +1124,10 @@ public class TableWriter implements Closeable {
         }
     }
 
+    public void setCommitListener(@Nullable CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
     public void setLifecycleManager(LifecycleManager lifecycleManager) {
         this.lifecycleManager = lifecycleManager;
     }
@@ -1032,6 +1189,7 @@ public class TableWriter implements Closeable {
         prevMinTimestamp = Long.MAX_VALUE;
         minTimestamp = Long.MAX_VALUE;
         txPrevTransientRowCount = 0;
+        removedRowsTimestamp = Long.MAX_VALUE;
         transientRowCount = 0;
         fixedRowCount = 0;
         txn++;
@@ -1045,6 +1203,7 @@ public class TableWriter implements Closeable {
         }
 
         LOG.info().$("truncated [name=").$(name).$(']').$();
+        notifyCommitListener(Long.MIN_VALUE);
     }
 
     public void updateMetadataVersion() {
@@ -1190,6 +1349,19 @@ public class TableWriter implements Closeable {
                     mem1.setSize(mem1Size);
                     mem2.setSize(actualPosition * Long.BYTES);
                     break;
+                case ColumnType.VARCHAR:
+                    assert mem2 != null;
+                    readOffsetBytes(ff, mem2, actualPosition, buf);
+                    offset = Unsafe.getUnsafe().getLong(buf);
+                    readBytes(ff, mem1, buf, Integer.BYTES, offset, "Cannot read length, fd=");
+                    mem1Size = offset + VarcharUtils.getStorageSize(Unsafe.getUnsafe().getInt(buf));
+                    if (ensureFileSize) {
+                        mem1.ensureFileSize(mem1.pageIndex(mem1Size));
+                        mem2.ensureFileSize(mem2.pageIndex(actualPosition * Long.BYTES));
+                    }
+                    mem1.setSize(mem1Size);
+                    mem2.setSize(actualPosition * Long.BYTES);
+                    break;
                 default:
                     mem1Size = actualPosition << ColumnType.pow2SizeOf(type);
                     if (ensureFileSize) {
@@ -1330,6 +1502,7 @@ public class TableWriter implements Closeable {
                 nullers.add(() -> mem1.putChar((char) 0));
                 break;
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 nullers.add(() -> mem2.putLong(mem1.putNullStr()));
                 break;
             case ColumnType.SYMBOL:
@@ -1519,6 +1692,10 @@ public class TableWriter implements Closeable {
                 return Timestamps.ceilMM(this.maxTimestamp);
             case PartitionBy.YEAR:
                 return Timestamps.ceilYYYY(this.maxTimestamp);
+            case PartitionBy.HOUR:
+                return Timestamps.ceilHH(this.maxTimestamp);
+            case PartitionBy.WEEK:
+                return Timestamps.ceilWW(this.maxTimestamp);
             default:
                 assert false;
                 return -1;
@@ -1571,6 +1748,7 @@ public class TableWriter implements Closeable {
             try {
                 long partitionTimestamp = txPendingPartitionSizes.getLong(offset + 8);
                 setStateForTimestamp(path, partitionTimestamp, false);
+                final int plen = path.length();
                 long fd = openReadWriteOrFail(ff, path.concat(ARCHIVE_FILE_NAME).$());
                 try {
                     int len = 8;
@@ -1586,6 +1764,7 @@ public class TableWriter implements Closeable {
                 } finally {
                     ff.close(fd);
                 }
+                writeColumnStats(path.trimTo(plen), txPendingPartitionSizes.getLong(offset));
                 offset += 16;
             } finally {
                 path.trimTo(rootLen);
@@ -1597,6 +1776,7 @@ public class TableWriter implements Closeable {
         this.txn = txMem.getLong(TX_OFFSET_TXN);
         this.transientRowCount = txMem.getLong(TX_OFFSET_TRANSIENT_ROW_COUNT);
         this.txPrevTransientRowCount = this.transientRowCount;
+        this.removedRowsTimestamp = Long.MAX_VALUE;
         this.fixedRowCount = txMem.getLong(TX_OFFSET_FIXED_ROW_COUNT);
         this.minTimestamp = txMem.getLong(TX_OFFSET_MIN_TIMESTAMP);
         this.maxTimestamp = txMem.getLong(TX_OFFSET_MAX_TIMESTAMP);
@@ -1624,6 +1804,7 @@ public class TableWriter implements Closeable {
         switch (type) {
             case ColumnType.BINARY:
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 secondary = new AppendMemory();
                 oooSecondary = new ContiguousVirtualMemory(16 * Numbers.SIZE_1MB, Integer.MAX_VALUE);
                 break;
@@ -1733,7 +1914,7 @@ public class TableWriter implements Closeable {
         MergeStruct.setDestFixedAppendOffset(mergeStruct, columnIndex, offset + dataOOMergeIndexLen * Long.BYTES);
     }
 
-    private int copyMetadataAndSetIndexed(int columnIndex, int indexValueBlockSize) {
+    private int copyMetadataAndSetIndexed(int columnIndex, int indexValueBlockSize, boolean packed) {
         try {
             int index = openMetaSwapFile(ff, ddlMem, path, rootLen, configuration.getMaxSwapFileCount());
             int columnCount = metaMem.getInt(META_OFFSET_COUNT);
@@ -1752,6 +1933,9 @@ public class TableWriter implements Closeable {
                     if (isSequential(metaMem, i)) {
                         flags |= META_FLAG_BIT_SEQUENTIAL;
                     }
+                    if (packed) {
+                        flags |= META_FLAG_BIT_INDEX_PACKED;
+                    }
                     ddlMem.putLong(flags);
                     ddlMem.putInt(indexValueBlockSize);
                     ddlMem.skip(META_COLUMN_DATA_RESERVED);
@@ -1809,92 +1993,110 @@ public class TableWriter implements Closeable {
         copyFixedSizeCol(mem.addressOf(0), mergeStruct, columnIndex, srcLo, srcHi, shl);
     }
 
-    private void copyOutOfOrderData(long indexLo, long indexHi, long[] mergeStruct, int timestampIndex) {
-        for (int i = 0; i < columnCount; i++) {
-            ContiguousVirtualMemory mem = oooColumns.getQuick(getPrimaryColumnIndex(i));
-            ContiguousVirtualMemory mem2;
-            final int columnType = metadata.getColumnType(i);
+    private void copyOutOfOrderColumn(int i) {
+        final long indexLo = oooIndexLo;
+        final long indexHi = oooIndexHi;
+        final long[] mergeStruct = oooMergeStruct;
+        final ContiguousVirtualMemory mem = oooColumns.getQuick(getPrimaryColumnIndex(i));
+        ContiguousVirtualMemory mem2;
+        final int columnType = metadata.getColumnType(i);
 
-            switch (columnType) {
-                case ColumnType.STRING:
-                case ColumnType.BINARY:
-                    // we can find out the edge of string column in one of two ways
-                    // 1. if indexHi is at the limit of the page - we need to copy the whole page of strings
-                    // 2  if there are more items behind indexHi we can get offset of indexHi+1
-                    mem2 = oooColumns.getQuick(getSecondaryColumnIndex(i));
-                    copyVarSizeCol(
-                            mem2.addressOf(0),
-                            mem2.getAppendOffset(),
-                            mem.addressOf(0),
-                            mem.getAppendOffset(),
-                            mergeStruct,
-                            i,
-                            indexLo,
-                            indexHi
-                    );
-                    break;
-                case ColumnType.BOOLEAN:
-                case ColumnType.BYTE:
-                    copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 0);
-                    break;
-                case ColumnType.CHAR:
-                case ColumnType.SHORT:
-                    copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 1);
-                    break;
-                case ColumnType.INT:
-                case ColumnType.FLOAT:
-                case ColumnType.SYMBOL:
-                    copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 2);
-                    break;
-                case ColumnType.LONG:
-                case ColumnType.DATE:
-                case ColumnType.DOUBLE:
+        switch (columnType) {
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+            case ColumnType.BINARY:
+                // we can find out the edge of string column in one of two ways
+                // 1. if indexHi is at the limit of the page - we need to copy the whole page of strings
+                // 2  if there are more items behind indexHi we can get offset of indexHi+1
+                mem2 = oooColumns.getQuick(getSecondaryColumnIndex(i));
+                copyVarSizeCol(
+                        mem2.addressOf(0),
+                        mem2.getAppendOffset(),
+                        mem.addressOf(0),
+                        mem.getAppendOffset(),
+                        mergeStruct,
+                        i,
+                        indexLo,
+                        indexHi
+                );
+                break;
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+                copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 0);
+                break;
+            case ColumnType.CHAR:
+            case ColumnType.SHORT:
+                copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 1);
+                break;
+            case ColumnType.INT:
+            case ColumnType.FLOAT:
+            case ColumnType.SYMBOL:
+                copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 2);
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.DOUBLE:
+                copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 3);
+                break;
+            case ColumnType.TIMESTAMP:
+                if (i != metadata.getTimestampIndex()) {
                     copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 3);
-                    break;
-                case ColumnType.TIMESTAMP:
-                    if (i != timestampIndex) {
-                        copyOOFixed(mem, mergeStruct, i, indexLo, indexHi, 3);
-                    } else {
-                        copyFromTimestampIndex(mem.addressOf(0), mergeStruct, i, indexLo, indexHi);
-                    }
-                    break;
-                default:
-                    break;
-            }
+                } else {
+                    copyFromTimestampIndex(mem.addressOf(0), mergeStruct, i, indexLo, indexHi);
+                }
+                break;
+            default:
+                break;
         }
     }
 
-    private void copyPartitionData(long indexLo, long indexHi, long[] mergeStruct) {
-        for (int i = 0; i < columnCount; i++) {
-            final int columnType = metadata.getColumnType(i);
-            switch (columnType) {
-                case ColumnType.STRING:
-                case ColumnType.BINARY:
-                    copyVarSizeCol(
-                            MergeStruct.getSrcFixedAddress(mergeStruct, i),
-                            MergeStruct.getSrcFixedAddressSize(mergeStruct, i),
-                            MergeStruct.getSrcVarAddress(mergeStruct, i),
-                            MergeStruct.getSrcVarAddressSize(mergeStruct, i),
-                            mergeStruct,
-                            i,
-                            indexLo,
-                            indexHi
-                    );
-                    break;
-                default:
-                    copyFixedSizeCol(
-                            MergeStruct.getSrcFixedAddress(mergeStruct, i),
-                            mergeStruct,
-                            i,
-                            indexLo,
-                            indexHi,
-                            ColumnType.pow2SizeOf(columnType)
-                    );
-                    break;
-            }
+    private void copyOutOfOrderData(long indexLo, long indexHi, long[] mergeStruct) {
+        oooIndexLo = indexLo;
+        oooIndexHi = indexHi;
+        oooMergeStruct = mergeStruct;
+        runOutOfOrderColumns(oooCopyOutOfOrderColumnAction, indexHi - indexLo + 1);
+    }
+
+    private void copyPartitionColumn(int i) {
+        final long indexLo = oooIndexLo;
+        final long indexHi = oooIndexHi;
+        final long[] mergeStruct = oooMergeStruct;
+        final int columnType = metadata.getColumnType(i);
+        switch (columnType) {
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+            case ColumnType.BINARY:
+                copyVarSizeCol(
+                        MergeStruct.getSrcFixedAddress(mergeStruct, i),
+                        MergeStruct.getSrcFixedAddressSize(mergeStruct, i),
+                        MergeStruct.getSrcVarAddress(mergeStruct, i),
+                        MergeStruct.getSrcVarAddressSize(mergeStruct, i),
+                        mergeStruct,
+                        i,
+                        indexLo,
+                        indexHi
+                );
+                break;
+            default:
+                copyFixedSizeCol(
+                        MergeStruct.getSrcFixedAddress(mergeStruct, i),
+                        mergeStruct,
+                        i,
+                        indexLo,
+                        indexHi,
+                        ColumnType.pow2SizeOf(columnType)
+                );
+                break;
         }
     }
 
+    private void copyPartitionData(long indexLo, long indexHi, long[] mergeStruct) {
+        oooIndexLo = indexLo;
+        oooIndexHi = indexHi;
+        oooMergeStruct = mergeStruct;
+        runOutOfOrderColumns(oooCopyPartitionColumnAction, indexHi - indexLo + 1);
+    }
+
     private void copyTempPartitionBack(long[] mergeStruct) {
         for (int i = 0; i < columnCount; i++) {
             copyTempPartitionColumnBack(mergeStruct, MergeStruct.getFirstColumnOffset(i));
@@ -1966,9 +2168,10 @@ public class TableWriter implements Closeable {
      *
      * @param columnName              column name
      * @param indexValueBlockCapacity approximate number of values per index key
+     * @param packed                  creates index that packs full value blocks
      * @param plen                    path length. This is used to trim shared path object to.
      */
-    private void createIndexFiles(CharSequence columnName, int indexValueBlockCapacity, int plen, boolean force) {
+    private void createIndexFiles(CharSequence columnName, int indexValueBlockCapacity, boolean packed, int plen, boolean force) {
         try {
             BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName);
 
@@ -1979,7 +2182,7 @@ public class TableWriter implements Closeable {
             // reuse memory column object to create index and close it at the end
             try {
                 ddlMem.of(ff, path, ff.getPageSize());
-                BitmapIndexWriter.initKeyMemory(ddlMem, indexValueBlockCapacity);
+                BitmapIndexWriter.initKeyMemory(ddlMem, indexValueBlockCapacity, packed);
             } catch (CairoException e) {
                 // looks like we could not create key file properly
                 // lets not leave half baked file sitting around
@@ -2031,6 +2234,7 @@ public class TableWriter implements Closeable {
             Misc.free(tmpShuffleData);
             Misc.free(tmpShuffleIndex);
             Misc.free(timestampSearchColumn);
+            Misc.free(columnStats);
             try {
                 releaseLock(!truncate | tx | performRecovery | distressed);
             } finally {
@@ -2246,6 +2450,11 @@ public class TableWriter implements Closeable {
             } else {
                 offset = lastValueOffset + Integer.BYTES + len * 2L; // character bytes
             }
+        } else if (columnType == ColumnType.VARCHAR) {
+            addr = ff.mmap(dataFd, lastValueOffset + Integer.BYTES, 0, Files.MAP_RO);
+            final int header = Unsafe.getUnsafe().getInt(addr + lastValueOffset);
+            ff.munmap(addr, lastValueOffset + Integer.BYTES);
+            offset = lastValueOffset + VarcharUtils.getStorageSize(header);
         } else {
             // BINARY
             addr = ff.mmap(dataFd, lastValueOffset + Long.BYTES, 0, Files.MAP_RO);
@@ -2260,7 +2469,7 @@ public class TableWriter implements Closeable {
         return offset;
     }
 
-    private long indexHistoricPartitions(SymbolColumnIndexer indexer, CharSequence columnName, int indexValueBlockSize) {
+    private long indexHistoricPartitions(SymbolColumnIndexer indexer, CharSequence columnName, int indexValueBlockSize, boolean packed) {
         final long maxTimestamp = timestampFloorMethod.floor(this.maxTimestamp);
         long timestamp = minTimestamp;
 
@@ -2284,7 +2493,7 @@ public class TableWriter implements Closeable {
 
                         LOG.info().$("indexing [path=").$(path).$(']').$();
 
-                        createIndexFiles(columnName, indexValueBlockSize, plen, true);
+                        createIndexFiles(columnName, indexValueBlockSize, packed, plen, true);
 
                         final long partitionSize = TableUtils.readPartitionSize(ff, path.trimTo(plen), tempMem8b);
                         final long columnTop = TableUtils.readColumnTop(ff, path.trimTo(plen), columnName, plen, tempMem8b);
@@ -2306,10 +2515,10 @@ public class TableWriter implements Closeable {
         return timestamp;
     }
 
-    private void indexLastPartition(SymbolColumnIndexer indexer, CharSequence columnName, int columnIndex, int indexValueBlockSize) {
+    private void indexLastPartition(SymbolColumnIndexer indexer, CharSequence columnName, int columnIndex, int indexValueBlockSize, boolean packed) {
         final int plen = path.length();
 
-        createIndexFiles(columnName, indexValueBlockSize, plen, true);
+        createIndexFiles(columnName, indexValueBlockSize, packed, plen, true);
 
         final long columnTop = TableUtils.readColumnTop(ff, path.trimTo(plen), columnName, plen, tempMem8b);
 
@@ -2429,6 +2638,42 @@ public class TableWriter implements Closeable {
         MergeStruct.setDestVarAppendOffset(mergeStruct, columnIndex, destVarOffset);
     }
 
+    private void mergeCopyVarchar(long[] mergeStruct, long dataOOMergeIndex, long dataOOMergeIndexLen, int columnIndex) {
+        // destination of variable length data
+        long destVarOffset = MergeStruct.getDestVarAppendOffset(mergeStruct, columnIndex);
+        final long destVar = MergeStruct.getDestVarAddress(mergeStruct, columnIndex);
+        final long destFixOffset = MergeStruct.getDestFixedAppendOffset(mergeStruct, columnIndex);
+        final long dstFix = MergeStruct.getDestFixedAddress(mergeStruct, columnIndex) + destFixOffset;
+
+        // fixed length column
+        final long srcFix1 = MergeStruct.getSrcFixedAddress(mergeStruct, columnIndex);
+        final long srcFix2 = oooColumns.getQuick(getSecondaryColumnIndex(columnIndex)).addressOf(0);
+
+        long srcVar1 = MergeStruct.getSrcVarAddress(mergeStruct, columnIndex);
+        long srcVar2 = oooColumns.getQuick(getPrimaryColumnIndex(columnIndex)).addressOf(0);
+
+        // reverse order
+        // todo: cache?
+        long[] srcFix = new long[]{srcFix2, srcFix1};
+        long[] srcVar = new long[]{srcVar2, srcVar1};
+
+        for (long l = 0; l < dataOOMergeIndexLen; l++) {
+            final long row = getTimestampIndexRow(dataOOMergeIndex, l);
+            // high bit in the index in the source array [0,1]
+            final int bit = (int) (row >>> 63);
+            // row number is "row" with high bit removed
+            final long rr = row & ~(1L << 63);
+            Unsafe.getUnsafe().putLong(dstFix + l * Long.BYTES, destVarOffset);
+            long offset = Unsafe.getUnsafe().getLong(srcFix[bit] + rr * Long.BYTES);
+            long addr = srcVar[bit] + offset;
+            final long size = VarcharUtils.getStorageSize(Unsafe.getUnsafe().getInt(addr));
+            Unsafe.getUnsafe().copyMemory(addr, destVar + destVarOffset, size);
+            destVarOffset += size;
+        }
+        MergeStruct.setDestFixedAppendOffset(mergeStruct, columnIndex, destFixOffset + dataOOMergeIndexLen * Long.BYTES);
+        MergeStruct.setDestVarAppendOffset(mergeStruct, columnIndex, destVarOffset);
+    }
+
     private void mergeOOAndShuffleColumns(int timestampIndex, long mergedTimestamps, long mergeDataLo, long mergeDataHi, long mergeOOOLo, long mergeOOOHi, long[] mergeStruct) {
         final long dataOOMergeIndexLen = mergeOOOHi - mergeOOOLo + 1 + mergeDataHi - mergeDataLo + 1;
         // copy timestamp column of the partition into a "index" memory
@@ -2444,45 +2689,56 @@ public class TableWriter implements Closeable {
         );
 
         try {
-            for (int i = 0; i < columnCount; i++) {
-                switch (metadata.getColumnType(i)) {
-                    case ColumnType.BOOLEAN:
-                    case ColumnType.BYTE:
-                        mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 0, MERGE_SHUFFLE_8);
-                        break;
-                    case ColumnType.SHORT:
-                    case ColumnType.CHAR:
-                        mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 1, MERGE_SHUFFLE_16);
-                        break;
-                    case ColumnType.STRING:
-                        mergeCopyStr(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
-                        break;
-                    case ColumnType.BINARY:
-                        mergeCopyBin(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
-                        break;
-                    case ColumnType.INT:
-                    case ColumnType.FLOAT:
-                    case ColumnType.SYMBOL:
-                        mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 2, MERGE_SHUFFLE_32);
-                        break;
-                    case ColumnType.DOUBLE:
-                    case ColumnType.LONG:
-                    case ColumnType.DATE:
-                    case ColumnType.TIMESTAMP:
-                        if (i == timestampIndex) {
-                            // copy timestamp values from the merge index
-                            copyIndex(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
-                            break;
-                        }
-                        mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 3, MERGE_SHUFFLE_64);
-                        break;
-                }
-            }
+            oooMergeStruct = mergeStruct;
+            oooMergeIndex = dataOOMergeIndex;
+            oooMergeIndexLen = dataOOMergeIndexLen;
+            runOutOfOrderColumns(oooMergeShuffleColumnAction, dataOOMergeIndexLen);
         } finally {
             Vect.freeMergedIndex(dataOOMergeIndex);
         }
     }
 
+    private void mergeOOAndShuffleColumn(int i) {
+        final long[] mergeStruct = oooMergeStruct;
+        final long dataOOMergeIndex = oooMergeIndex;
+        final long dataOOMergeIndexLen = oooMergeIndexLen;
+        switch (metadata.getColumnType(i)) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+                mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 0, MERGE_SHUFFLE_8);
+                break;
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+                mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 1, MERGE_SHUFFLE_16);
+                break;
+            case ColumnType.STRING:
+                mergeCopyStr(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
+                break;
+            case ColumnType.VARCHAR:
+                mergeCopyVarchar(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
+                break;
+            case ColumnType.BINARY:
+                mergeCopyBin(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
+                break;
+            case ColumnType.INT:
+            case ColumnType.FLOAT:
+            case ColumnType.SYMBOL:
+                mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 2, MERGE_SHUFFLE_32);
+                break;
+            case ColumnType.DOUBLE:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                if (i == metadata.getTimestampIndex()) {
+                    // copy timestamp values from the merge index
+                    copyIndex(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i);
+                    break;
+                }
+                mergeShuffle(mergeStruct, dataOOMergeIndex, dataOOMergeIndexLen, i, 3, MERGE_SHUFFLE_64);
+                break;
+        }
+    }
+
     private void mergeOutOfOrderRecords() {
         final int timestampIndex = metadata.getTimestampIndex();
         final long ceilOfMaxTimestamp = ceilMaxTimestamp();
@@ -2498,37 +2754,20 @@ public class TableWriter implements Closeable {
             final long mergedTimestamps = timestampMergeMem.addressOf(0);
             Vect.sortLongIndexAscInPlace(mergedTimestamps, mergeRowCount);
 
-            // reshuffle all variable length columns
-            for (int i = 0; i < columnCount; i++) {
-                final int type = metadata.getColumnType(i);
-                switch (type) {
-                    case ColumnType.BINARY:
-                    case ColumnType.STRING:
-                        shuffleVarLenValues(i, mergedTimestamps, mergeRowCount);
-                        break;
-                    case ColumnType.FLOAT:
-                    case ColumnType.INT:
-                    case ColumnType.SYMBOL:
-                        shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 2, SHUFFLE_32);
-                        break;
-                    case ColumnType.LONG:
-                    case ColumnType.DOUBLE:
-                    case ColumnType.DATE:
-                        shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 3, SHUFFLE_64);
-                        break;
-                    case ColumnType.TIMESTAMP:
-                        if (i != timestampIndex) {
-                            shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 3, SHUFFLE_64);
-                        }
-                        break;
-                    case ColumnType.SHORT:
-                    case ColumnType.CHAR:
-                        shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 1, SHUFFLE_16);
-                        break;
-                    case ColumnType.BOOLEAN:
-                    case ColumnType.BYTE:
-                        shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 0, SHUFFLE_8);
-                        break;
+            // reshuffle all columns, fixed length columns can be shuffled by worker threads while
+            // variable length columns share temporary memory and are shuffled on this thread
+            oooMergedTimestamps = mergedTimestamps;
+            if (isParallelOutOfOrderMerge(mergeRowCount)) {
+                oooColumnDispatcher.dispatch(columnCount, oooShuffleFixedColumnAction);
+                try {
+                    shuffleVarLenColumns(mergedTimestamps, mergeRowCount);
+                } finally {
+                    oooColumnDispatcher.await();
+                }
+            } else {
+                shuffleVarLenColumns(mergedTimestamps, mergeRowCount);
+                for (int i = 0; i < columnCount; i++) {
+                    shuffleFixedColumn(i);
                 }
             }
 
@@ -2543,6 +2782,7 @@ public class TableWriter implements Closeable {
             long indexHi;
             long indexMax = mergeRowCount;
             long ooTimestampMin = getTimestampIndexValue(mergedTimestamps, 0);
+            mergeTimestampMin = ooTimestampMin;
             long ooTimestampHi = getTimestampIndexValue(mergedTimestamps, indexMax - 1);
 
             LOG.debug()
@@ -2608,7 +2848,7 @@ public class TableWriter implements Closeable {
                             indexMax
                     );
                     try {
-                        copyOutOfOrderData(indexLo, indexHi, mergeStruct, timestampIndex);
+                        copyOutOfOrderData(indexLo, indexHi, mergeStruct);
                     } finally {
                         freeMergeStruct(mergeStruct);
                     }
@@ -2938,7 +3178,7 @@ public class TableWriter implements Closeable {
                             switch (prefixType) {
                                 case OO_BLOCK_OO:
                                     LOG.info().$("copy ooo prefix set [from=").$(prefixLo).$(", to=").$(prefixHi).$(']').$();
-                                    copyOutOfOrderData(prefixLo, prefixHi, mergeStruct, timestampIndex);
+                                    copyOutOfOrderData(prefixLo, prefixHi, mergeStruct);
                                     break;
                                 case OO_BLOCK_DATA:
                                     LOG.info().$("copy data prefix set [from=").$(prefixLo).$(", to=").$(prefixHi).$(']').$();
@@ -2972,7 +3212,7 @@ public class TableWriter implements Closeable {
                                     break;
                                 case OO_BLOCK_OO:
                                     LOG.info().$("copy OO middle set [from=").$(mergeOOOLo).$(", to=").$(mergeOOOHi).$(']').$();
-                                    copyOutOfOrderData(mergeOOOLo, mergeOOOHi, mergeStruct, timestampIndex);
+                                    copyOutOfOrderData(mergeOOOLo, mergeOOOHi, mergeStruct);
                                     break;
                                 default:
                                     break;
@@ -2981,7 +3221,7 @@ public class TableWriter implements Closeable {
                             switch (suffixType) {
                                 case OO_BLOCK_OO:
                                     LOG.info().$("copy ooo suffix set [from=").$(suffixLo).$(", to=").$(suffixHi).$(']').$();
-                                    copyOutOfOrderData(suffixLo, suffixHi, mergeStruct, timestampIndex);
+                                    copyOutOfOrderData(suffixLo, suffixHi, mergeStruct);
                                     break;
                                 case OO_BLOCK_DATA:
                                     LOG.info().$("copy data suffix set [from=").$(suffixLo).$(", to=").$(suffixHi).$(']').$();
@@ -3212,6 +3452,7 @@ public class TableWriter implements Closeable {
             switch (columnType) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     //
                     oooMapDestColumn(
                             mergeStruct,
@@ -3258,6 +3499,7 @@ public class TableWriter implements Closeable {
             switch (columnType) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     // index files are opened as normal
                     iFile(path.trimTo(plen), metadata.getColumnName(i));
                     oooMapSrcColumn(
@@ -3356,6 +3598,7 @@ public class TableWriter implements Closeable {
             switch (columnType) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     // index files are opened as normal
                     iFile(path.trimTo(plen), metadata.getColumnName(i));
                     oooMapDestColumn(
@@ -3439,6 +3682,7 @@ public class TableWriter implements Closeable {
             switch (columnType) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     shl = ColumnType.pow2SizeOf(ColumnType.LONG);
 
                     iFile(path.trimTo(plen), metadata.getColumnName(i));
@@ -3533,6 +3777,7 @@ public class TableWriter implements Closeable {
             switch (columnType) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     oooSetPathAndEnsureDir(path, plen, i, FILE_SUFFIX_I);
                     oooMapDestColumn(
                             mergeStruct,
@@ -3661,6 +3906,12 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private void notifyCommitListener(long minTimestamp) {
+        if (commitListener != null) {
+            commitListener.onCommit(name, minTimestamp);
+        }
+    }
+
     private void openNewColumnFiles(CharSequence name, boolean indexFlag, int indexValueBlockCapacity) {
         try {
             // open column files
@@ -3671,7 +3922,7 @@ public class TableWriter implements Closeable {
             // index must be created before column is initialised because
             // it uses primary column object as temporary tool
             if (indexFlag) {
-                createIndexFiles(name, indexValueBlockCapacity, plen, true);
+                createIndexFiles(name, indexValueBlockCapacity, false, plen, true);
             }
 
             openColumnFiles(name, columnIndex, plen);
@@ -3710,7 +3961,7 @@ public class TableWriter implements Closeable {
                 if (indexed) {
                     // we have to create files before columns are open
                     // because we are reusing AppendMemory object from columns list
-                    createIndexFiles(name, metadata.getIndexValueBlockCapacity(i), plen, transientRowCount < 1);
+                    createIndexFiles(name, metadata.getIndexValueBlockCapacity(i), isIndexPacked(metaMem, i), plen, transientRowCount < 1);
                 }
 
                 openColumnFiles(name, i, plen);
@@ -3860,6 +4111,7 @@ public class TableWriter implements Closeable {
                     removeLambda.remove(ff, dFile(path, columnName));
                     removeLambda.remove(ff, iFile(path.trimTo(plen), columnName));
                     removeLambda.remove(ff, topFile(path.trimTo(plen), columnName));
+                    removeLambda.remove(ff, statsFile(path.trimTo(plen), columnName));
                     removeLambda.remove(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName));
                     removeLambda.remove(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName));
                 }
@@ -4078,6 +4330,7 @@ public class TableWriter implements Closeable {
                     renameFileOrLog(ff, dFile(path.trimTo(plen), columnName), dFile(other.trimTo(plen), newName));
                     renameFileOrLog(ff, iFile(path.trimTo(plen), columnName), iFile(other.trimTo(plen), newName));
                     renameFileOrLog(ff, topFile(path.trimTo(plen), columnName), topFile(other.trimTo(plen), newName));
+                    renameFileOrLog(ff, statsFile(path.trimTo(plen), columnName), statsFile(other.trimTo(plen), newName));
                     renameFileOrLog(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), columnName), BitmapIndexUtils.keyFileName(other.trimTo(plen), newName));
                     renameFileOrLog(ff, BitmapIndexUtils.valueFileName(path.trimTo(plen), columnName), BitmapIndexUtils.valueFileName(other.trimTo(plen), newName));
                 }
@@ -4285,7 +4538,10 @@ public class TableWriter implements Closeable {
     }
 
     private void rollbackIndexes() {
-        final long maxRow = transientRowCount - 1;
+        rollbackIndexes(transientRowCount - 1);
+    }
+
+    private void rollbackIndexes(long maxRow) {
         for (int i = 0, n = denseIndexers.size(); i < n; i++) {
             ColumnIndexer indexer = denseIndexers.getQuick(i);
             LOG.info().$("recovering index [fd=").$(indexer.getFd()).$(']').$();
@@ -4346,6 +4602,21 @@ public class TableWriter implements Closeable {
         }
     }
 
+    private boolean isParallelOutOfOrderMerge(long rowCount) {
+        return oooColumnDispatcher != null && columnCount > 1 && rowCount >= configuration.getParallelOutOfOrderMergeThreshold();
+    }
+
+    private void runOutOfOrderColumns(OutOfOrderColumnDispatcher.ColumnAction action, long rowCount) {
+        if (isParallelOutOfOrderMerge(rowCount)) {
+            oooColumnDispatcher.dispatch(columnCount, action);
+            oooColumnDispatcher.await();
+        } else {
+            for (int i = 0; i < columnCount; i++) {
+                action.run(i);
+            }
+        }
+    }
+
     private void shiftCopyFixedSizeColumnData(
             long shift,
             long src,
@@ -4384,6 +4655,46 @@ public class TableWriter implements Closeable {
         Unsafe.free(src, srcSize);
     }
 
+    private void shuffleFixedColumn(int i) {
+        final long mergedTimestamps = oooMergedTimestamps;
+        switch (metadata.getColumnType(i)) {
+            case ColumnType.FLOAT:
+            case ColumnType.INT:
+            case ColumnType.SYMBOL:
+                shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 2, SHUFFLE_32);
+                break;
+            case ColumnType.LONG:
+            case ColumnType.DOUBLE:
+            case ColumnType.DATE:
+                shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 3, SHUFFLE_64);
+                break;
+            case ColumnType.TIMESTAMP:
+                if (i != metadata.getTimestampIndex()) {
+                    shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 3, SHUFFLE_64);
+                }
+                break;
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+                shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 1, SHUFFLE_16);
+                break;
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+                shuffleFixedLengthValues(i, mergedTimestamps, mergeRowCount, 0, SHUFFLE_8);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void shuffleVarLenColumns(long mergedTimestamps, long indexRowCount) {
+        for (int i = 0; i < columnCount; i++) {
+            final int type = metadata.getColumnType(i);
+            if (type == ColumnType.STRING || type == ColumnType.VARCHAR || type == ColumnType.BINARY) {
+                shuffleVarLenValues(i, mergedTimestamps, indexRowCount);
+            }
+        }
+    }
+
     private void shuffleVarLenValues(int columnIndex, long timestampIndex, long indexRowCount) {
         final int primaryIndex = getPrimaryColumnIndex(columnIndex);
         final int secondaryIndex = getSecondaryColumnIndex(columnIndex);
@@ -4507,6 +4818,10 @@ public class TableWriter implements Closeable {
         if (indexCount == 0) {
             return;
         }
+        if (removedRowsTimestamp != Long.MAX_VALUE && txPartitionCount == 1) {
+            // indexers are still on the partition rows were removed from
+            rollbackIndexes(txPrevTransientRowCount - 1);
+        }
         updateIndexesSlow();
     }
 
@@ -4650,11 +4965,35 @@ public class TableWriter implements Closeable {
         if (isSequential(metaMem, i)) {
             flags |= META_FLAG_BIT_SEQUENTIAL;
         }
+
+        if (isIndexPacked(metaMem, i)) {
+            flags |= META_FLAG_BIT_INDEX_PACKED;
+        }
         ddlMem.putLong(flags);
         ddlMem.putInt(getIndexBlockCapacity(metaMem, i));
         ddlMem.skip(META_COLUMN_DATA_RESERVED);
     }
 
+    private void writeColumnStats(Path path, long partitionSize) {
+        // statistics are an optimisation for readers, failure to produce them must not fail the commit
+        final int plen = path.length();
+        for (int i = 0; i < columnCount; i++) {
+            final int type = metadata.getColumnType(i);
+            if (ColumnStats.isSupported(type)) {
+                final CharSequence columnName = metadata.getColumnName(i);
+                try {
+                    final long columnTop = readColumnTop(ff, path, columnName, plen, tempMem8b);
+                    columnStats.write(ff, path, columnName, type, partitionSize, columnTop);
+                } catch (CairoException e) {
+                    LOG.error().$("could not write column stats [path=").$(path).$(", column=").utf8(columnName).$(", errno=").$(e.getErrno()).$(']').$();
+                    removeFileAndOrLog(ff, statsFile(path.trimTo(plen), columnName));
+                } finally {
+                    path.trimTo(plen);
+                }
+            }
+        }
+    }
+
     private void writeColumnTop(CharSequence name) {
         writeColumnTop(name, transientRowCount);
     }
@@ -4804,10 +5143,80 @@ public class TableWriter implements Closeable {
         }
     }
 
-    public class Row {
+    public interface Row {
+        void append();
+
+        void cancel();
+
+        void putBin(int index, long address, long len);
+
+        void putBin(int index, BinarySequence sequence);
+
+        void putBool(int index, boolean value);
+
+        void putByte(int index, byte value);
+
+        void putChar(int index, char value);
+
+        void putDate(int index, long value);
+
+        void putDouble(int index, double value);
+
+        void putFloat(int index, float value);
+
+        void putInt(int index, int value);
+
+        void putLong(int index, long value);
+
+        void putLong256(int index, long l0, long l1, long l2, long l3);
+
+        void putLong256(int index, Long256 value);
+
+        void putLong256(int index, CharSequence hexString);
+
+        void putLong256(int index, @NotNull CharSequence hexString, int start, int end);
+
+        void putShort(int index, short value);
+
+        void putStr(int index, CharSequence value);
+
+        void putStr(int index, char value);
+
+        void putStr(int index, CharSequence value, int pos, int len);
+
+        void putSym(int index, CharSequence value);
+
+        void putSym(int index, char value);
+
+        void putTimestamp(int index, long value);
+
+        default void putTimestamp(int index, CharSequence value) {
+            // try UTC timestamp first (micro)
+            long l;
+            try {
+                l = TimestampFormatUtils.parseUTCTimestamp(value);
+            } catch (NumericException e) {
+                try {
+                    l = TimestampFormatUtils.parseTimestamp(value);
+                } catch (NumericException numericException) {
+                    throw CairoException.instance(0).put("could not convert to timestamp [value=").put(value).put(']');
+                }
+            }
+            putTimestamp(index, l);
+        }
+
+        void putVarchar(int index, CharSequence value);
+
+        void putVarchar(int index, char value);
+
+        void putVarchar(int index, CharSequence value, int pos, int len);
+    }
+
+    private class RowImpl implements Row {
         private ObjList<? extends BigMem> activeColumns;
         private ObjList<Runnable> activeNullSetters;
 
+        @Override
         public void append() {
             if ((masterRef & 1) != 0) {
                 for (int i = 0; i < columnCount; i++) {
@@ -4823,126 +5232,150 @@ public class TableWriter implements Closeable {
             }
         }
 
+        @Override
         public void cancel() {
             cancelRow();
         }
 
+        @Override
         public void putBin(int index, long address, long len) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putBin(address, len));
             notNull(index);
         }
 
+        @Override
         public void putBin(int index, BinarySequence sequence) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putBin(sequence));
             notNull(index);
         }
 
+        @Override
         public void putBool(int index, boolean value) {
             getPrimaryColumn(index).putBool(value);
             notNull(index);
         }
 
+        @Override
         public void putByte(int index, byte value) {
             getPrimaryColumn(index).putByte(value);
             notNull(index);
         }
 
+        @Override
         public void putChar(int index, char value) {
             getPrimaryColumn(index).putChar(value);
             notNull(index);
         }
 
+        @Override
         public void putDate(int index, long value) {
             putLong(index, value);
         }
 
+        @Override
         public void putDouble(int index, double value) {
             getPrimaryColumn(index).putDouble(value);
             notNull(index);
         }
 
+        @Override
         public void putFloat(int index, float value) {
             getPrimaryColumn(index).putFloat(value);
             notNull(index);
         }
 
+        @Override
         public void putInt(int index, int value) {
             getPrimaryColumn(index).putInt(value);
             notNull(index);
         }
 
+        @Override
         public void putLong(int index, long value) {
             getPrimaryColumn(index).putLong(value);
             notNull(index);
         }
 
+        @Override
         public void putLong256(int index, long l0, long l1, long l2, long l3) {
             getPrimaryColumn(index).putLong256(l0, l1, l2, l3);
             notNull(index);
         }
 
+        @Override
         public void putLong256(int index, Long256 value) {
             getPrimaryColumn(index).putLong256(value.getLong0(), value.getLong1(), value.getLong2(), value.getLong3());
             notNull(index);
         }
 
+        @Override
         public void putLong256(int index, CharSequence hexString) {
             getPrimaryColumn(index).putLong256(hexString);
             notNull(index);
         }
 
+        @Override
         public void putLong256(int index, @NotNull CharSequence hexString, int start, int end) {
             getPrimaryColumn(index).putLong256(hexString, start, end);
             notNull(index);
         }
 
+        @Override
         public void putShort(int index, short value) {
             getPrimaryColumn(index).putShort(value);
             notNull(index);
         }
 
+        @Override
         public void putStr(int index, CharSequence value) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putStr(value));
             notNull(index);
         }
 
+        @Override
         public void putStr(int index, char value) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putStr(value));
             notNull(index);
         }
 
+        @Override
         public void putStr(int index, CharSequence value, int pos, int len) {
             getSecondaryColumn(index).putLong(getPrimaryColumn(index).putStr(value, pos, len));
             notNull(index);
         }
 
+        @Override
         public void putSym(int index, CharSequence value) {
             getPrimaryColumn(index).putInt(symbolMapWriters.getQuick(index).put(value));
             notNull(index);
         }
 
+        @Override
         public void putSym(int index, char value) {
             getPrimaryColumn(index).putInt(symbolMapWriters.getQuick(index).put(value));
             notNull(index);
         }
 
+        @Override
         public void putTimestamp(int index, long value) {
             putLong(index, value);
         }
 
-        public void putTimestamp(int index, CharSequence value) {
-            // try UTC timestamp first (micro)
-            long l;
-            try {
-                l = TimestampFormatUtils.parseUTCTimestamp(value);
-            } catch (NumericException e) {
-                try {
-                    l = TimestampFormatUtils.parseTimestamp(value);
-                } catch (NumericException numericException) {
-                    throw CairoException.instance(0).put("could not convert to timestamp [value=").put(value).put(']');
-                }
-            }
-            putTimestamp(index, l);
+        @Override
+        public void putVarchar(int index, CharSequence value) {
+            getSecondaryColumn(index).putLong(getPrimaryColumn(index).putVarchar(value));
+            notNull(index);
+        }
+
+        @Override
+        public void putVarchar(int index, char value) {
+            putVarchar(index, value != 0 ? SingleCharCharSequence.get(value) : null);
+        }
+
+        @Override
+        public void putVarchar(int index, CharSequence value, int pos, int len) {
+            getSecondaryColumn(index).putLong(getPrimaryColumn(index).putVarchar(value, pos, len));
+            notNull(index);
         }
 
         private BigMem getPrimaryColumn(int columnIndex) {
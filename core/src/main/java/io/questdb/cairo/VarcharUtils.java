@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.cairo;
+
+import io.questdb.std.Unsafe;
+
+/**
+ * Storage format of VARCHAR column values. Data file holds each value as an int header
+ * followed by UTF-8 bytes, index file holds 8-byte offsets into data file, same as STRING.
+ * Header is {@link TableUtils#NULL_LEN} for null values, otherwise it is byte count of the
+ * value with {@link #ASCII_FLAG} set when all bytes are below 0x80. ASCII values are read
+ * without decoding and their length is known from header alone.
+ */
+public final class VarcharUtils {
+    public static final int HEADER_BYTES = Integer.BYTES;
+    public static final int ASCII_FLAG = 1 << 30;
+    public static final int SIZE_MASK = ASCII_FLAG - 1;
+
+    private VarcharUtils() {
+    }
+
+    public static long encode(CharSequence value, int pos, int len, long address) {
+        long p = address;
+        for (int i = pos, n = pos + len; i < n; i++) {
+            final char c = value.charAt(i);
+            if (c < 128) {
+                Unsafe.getUnsafe().putByte(p++, (byte) c);
+            } else {
+                final long bytes = encodeChar(value, i, n);
+                final int count = getByteCount(bytes);
+                for (int k = 0; k < count; k++) {
+                    Unsafe.getUnsafe().putByte(p++, (byte) (bytes >>> (k << 3)));
+                }
+                i += count >> 2;
+            }
+        }
+        return p;
+    }
+
+    public static void encode(CharSequence value, int pos, int len, BigMem mem) {
+        for (int i = pos, n = pos + len; i < n; i++) {
+            final char c = value.charAt(i);
+            if (c < 128) {
+                mem.putByte((byte) c);
+            } else {
+                final long bytes = encodeChar(value, i, n);
+                final int count = getByteCount(bytes);
+                for (int k = 0; k < count; k++) {
+                    mem.putByte((byte) (bytes >>> (k << 3)));
+                }
+                i += count >> 2;
+            }
+        }
+    }
+
+    public static int getHeader(CharSequence value, int pos, int len) {
+        int size = 0;
+        boolean ascii = true;
+        for (int i = pos, n = pos + len; i < n; i++) {
+            if (value.charAt(i) < 128) {
+                size++;
+                continue;
+            }
+            ascii = false;
+            final int count = getByteCount(encodeChar(value, i, n));
+            size += count;
+            // four byte sequence consumes surrogate pair
+            i += count >> 2;
+        }
+        if (size > SIZE_MASK) {
+            throw CairoException.instance(0).put("varchar value is too long [bytes=").put(size).put(']');
+        }
+        return ascii ? size | ASCII_FLAG : size;
+    }
+
+    /**
+     * Length of value in chars, as it would be reported by {@link CharSequence#length()} of decoded value.
+     *
+     * @param address address of value header
+     * @return char count or {@link TableUtils#NULL_LEN} for null value
+     */
+    public static int getLength(long address) {
+        final int header = Unsafe.getUnsafe().getInt(address);
+        if (header == TableUtils.NULL_LEN || isAscii(header)) {
+            return header == TableUtils.NULL_LEN ? header : getSize(header);
+        }
+        int len = 0;
+        for (long p = address + HEADER_BYTES, hi = p + getSize(header); p < hi; p++) {
+            final int b = Unsafe.getUnsafe().getByte(p);
+            if ((b & 0xC0) != 0x80) {
+                // four byte sequences decode to surrogate pairs
+                len += (b & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
+        return len;
+    }
+
+    public static int getSize(int header) {
+        return header & SIZE_MASK;
+    }
+
+    public static long getStorageSize(int header) {
+        return header < 0 ? HEADER_BYTES : HEADER_BYTES + (header & SIZE_MASK);
+    }
+
+    public static boolean isAscii(int header) {
+        return (header & ASCII_FLAG) != 0;
+    }
+
+    /**
+     * Encodes char at given index as UTF-8. Surrogate pair is encoded as single four byte
+     * sequence and unpaired surrogate as '?'.
+     *
+     * @return UTF-8 bytes, first byte in the lowest 8 bits, and byte count in the upper 32 bits
+     */
+    private static long encodeChar(CharSequence value, int i, int n) {
+        final char c = value.charAt(i);
+        if (c < 128) {
+            return 1L << 32 | c;
+        }
+        if (c < 2048) {
+            return 2L << 32 | (128 | c & 63) << 8 | (192 | c >> 6);
+        }
+        if (Character.isSurrogate(c)) {
+            if (isSurrogatePair(value, i, n)) {
+                final int dword = Character.toCodePoint(c, value.charAt(i + 1));
+                return 4L << 32
+                        | (128L | dword & 63) << 24
+                        | (128 | dword >> 6 & 63) << 16
+                        | (128 | dword >> 12 & 63) << 8
+                        | (240 | dword >> 18);
+            }
+            return 1L << 32 | '?';
+        }
+        return 3L << 32 | (128 | c & 63) << 16 | (128 | c >> 6 & 63) << 8 | (224 | c >> 12);
+    }
+
+    private static int getByteCount(long bytes) {
+        return (int) (bytes >>> 32);
+    }
+
+    private static boolean isSurrogatePair(CharSequence value, int i, int n) {
+        return Character.isHighSurrogate(value.charAt(i)) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1));
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.cairo;
+
+import io.questdb.std.Chars;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.AbstractCharSequence;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Flyweight over VARCHAR value in mapped memory. ASCII values are served straight from memory,
+ * other values are decoded on first access and cached until view is pointed at another value.
+ */
+public class VarcharView extends AbstractCharSequence {
+    private final StringSink decoded = new StringSink();
+    private long lo;
+    private int size;
+    private boolean ascii;
+    private boolean decodedValid;
+
+    @Override
+    public int length() {
+        return ascii ? size : decode().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return ascii ? (char) Unsafe.getUnsafe().getByte(lo + index) : decode().charAt(index);
+    }
+
+    /**
+     * Points view at value stored at given address.
+     *
+     * @param address address of value header
+     * @return this view or null when value is null
+     */
+    public VarcharView of(long address) {
+        final int header = Unsafe.getUnsafe().getInt(address);
+        if (header == TableUtils.NULL_LEN) {
+            return null;
+        }
+        this.lo = address + VarcharUtils.HEADER_BYTES;
+        this.size = VarcharUtils.getSize(header);
+        this.ascii = VarcharUtils.isAscii(header);
+        this.decodedValid = false;
+        return this;
+    }
+
+    /**
+     * Points view at value stored at given address and decodes it straight away, so that
+     * view does not refer to memory at the address once this method returns.
+     *
+     * @param address address of value header, value must not be null
+     * @return this view
+     */
+    public VarcharView ofDecoded(long address) {
+        of(address);
+        ascii = false;
+        decode();
+        return this;
+    }
+
+    private StringSink decode() {
+        if (!decodedValid) {
+            decoded.clear();
+            Chars.utf8Decode(lo, lo + size, decoded);
+            decodedValid = true;
+        }
+        return decoded;
+    }
+}
@@ -629,6 +629,16 @@ public class VirtualMemory implements BigMem {
         }
     }
 
+    @Override
+    public final long putVarchar(CharSequence value) {
+        return value == null ? putNullStr() : putVarchar0(value, 0, value.length());
+    }
+
+    @Override
+    public final long putVarchar(CharSequence value, int pos, int len) {
+        return value == null ? putNullStr() : putVarchar0(value, pos, len);
+    }
+
     /**
      * Skips given number of bytes. Same as logically appending 0-bytes. Advantage of this method is that
      * no memory write takes place.
@@ -1048,6 +1058,18 @@ public class VirtualMemory implements BigMem {
         putByte((byte) (c >> 8));
     }
 
+    private long putVarchar0(CharSequence value, int pos, int len) {
+        final long offset = getAppendOffset();
+        final int header = VarcharUtils.getHeader(value, pos, len);
+        putInt(header);
+        if (pageHi - appendPointer < VarcharUtils.getSize(header)) {
+            VarcharUtils.encode(value, pos, len, this);
+        } else {
+            appendPointer = VarcharUtils.encode(value, pos, len, appendPointer);
+        }
+        return offset;
+    }
+
     private long putStr0(CharSequence value, int pos, int len) {
         final long offset = getAppendOffset();
         putInt(len);
@@ -242,6 +242,7 @@ public class CompactMap implements Map {
                 case ColumnType.DATE:
                 case ColumnType.TIMESTAMP:
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                 case ColumnType.BINARY:
                     sz = 8;
                     break;
@@ -75,6 +75,7 @@ final class FastMapRecord implements MapRecord {
         for (int i = 0; i < n; i++) {
             switch (keyTypes.getColumnType(i)) {
                 case ColumnType.STRING:
+                case ColumnType.VARCHAR:
                     if (csA == null) {
                         csA = new DirectCharSequence[n + split];
                         csB = new DirectCharSequence[n + split];
@@ -26,6 +26,7 @@ package io.questdb.cairo.pool;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnMappingCache;
 import io.questdb.cairo.EntryUnavailableException;
 import io.questdb.cairo.TableReader;
 import io.questdb.cairo.pool.ex.EntryLockedException;
@@ -51,11 +52,13 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
     private final ConcurrentHashMap<Entry> entries = new ConcurrentHashMap<>();
     private final int maxSegments;
     private final int maxEntries;
+    private final ColumnMappingCache mappingCache;
 
     public ReaderPool(CairoConfiguration configuration) {
         super(configuration, configuration.getInactiveReaderTTL());
         this.maxSegments = configuration.getReaderPoolMaxSegments();
         this.maxEntries = maxSegments * ENTRY_SIZE;
+        this.mappingCache = configuration.isReaderColumnMappingCacheEnabled() ? new ColumnMappingCache(configuration.getFilesFacade()) : null;
     }
 
     @Override
@@ -141,6 +144,10 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
         return maxEntries;
     }
 
+    public long getColumnMappingCount() {
+        return mappingCache != null ? mappingCache.getMappingCount() : 0;
+    }
+
     public boolean lock(CharSequence name) {
 
         Entry e = getEntry(name);
@@ -347,7 +354,7 @@ public class ReaderPool extends AbstractPool implements ResourcePool<TableReader
         private Entry entry;
 
         public R(ReaderPool pool, Entry entry, int index, CharSequence name) {
-            super(pool.getConfiguration(), name);
+            super(pool.getConfiguration(), name, pool.mappingCache);
             this.pool = pool;
             this.entry = entry;
             this.index = index;
@@ -71,6 +71,8 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
     private final CharSequence root;
     @Nullable
     private final MessageBus messageBus;
+    @Nullable
+    private final CommitListener commitListener;
 
     /**
      * Pool constructor. WriterPool root directory is passed via configuration.
@@ -79,9 +81,21 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
      * @param messageBus    message bus instance to allow index tasks to be communicated to available threads.
      */
     public WriterPool(CairoConfiguration configuration, @Nullable MessageBus messageBus) {
+        this(configuration, messageBus, null);
+    }
+
+    /**
+     * Pool constructor. WriterPool root directory is passed via configuration.
+     *
+     * @param configuration  configuration parameters.
+     * @param messageBus     message bus instance to allow index tasks to be communicated to available threads.
+     * @param commitListener notified about commits of all writers handed out by this pool.
+     */
+    public WriterPool(CairoConfiguration configuration, @Nullable MessageBus messageBus, @Nullable CommitListener commitListener) {
         super(configuration, configuration.getInactiveWriterTTL());
         this.configuration = configuration;
         this.messageBus = messageBus;
+        this.commitListener = commitListener;
         this.clock = configuration.getMicrosecondClock();
         this.root = configuration.getRoot();
         notifyListener(Thread.currentThread().getId(), null, PoolListener.EV_POOL_OPEN);
@@ -265,6 +279,7 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
             } else {
                 e.writer = writer;
                 writer.setLifecycleManager(e);
+                writer.setCommitListener(commitListener);
                 writer.transferLock(e.lockFd);
                 e.lockFd = -1;
                 Unsafe.getUnsafe().putOrderedLong(e, ENTRY_OWNER, UNALLOCATED);
@@ -369,6 +384,7 @@ public class WriterPool extends AbstractPool implements ResourcePool<TableWriter
             checkClosed();
             LOG.info().$("open [table=`").utf8(name).$("`, thread=").$(thread).$(']').$();
             e.writer = new TableWriter(configuration, name, messageBus, true, e, root);
+            e.writer.setCommitListener(commitListener);
             return logAndReturn(e, PoolListener.EV_CREATE);
         } catch (CairoException ex) {
             LOG.error()
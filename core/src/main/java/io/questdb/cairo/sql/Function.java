@@ -136,6 +136,13 @@ public interface Function extends Closeable {
         return false;
     }
 
+    // If function can be evaluated concurrently by multiple threads against
+    // different records. Functions that keep mutable state between calls,
+    // such as sinks, views or symbol lookups, must not claim this.
+    default boolean isReadThreadSafe() {
+        return false;
+    }
+
     default void toTop() {
     }
 }
@@ -32,6 +32,17 @@ public interface RecordCursor extends Closeable, SymbolTableSource {
 
     Record getRecord();
 
+    /**
+     * Returns id of the row, which precedes the given one in designated timestamp order. Only supported
+     * by cursors of factories that return true from {@link RecordCursorFactory#recordCursorSupportsTimestampSeek()}.
+     *
+     * @param rowId id of the row
+     * @return id of the previous row or -1 when given row is the first one
+     */
+    default long getPrevRowId(long rowId) {
+        throw new UnsupportedOperationException();
+    }
+
     default SymbolTable getSymbolTable(int columnIndex) {
         throw new UnsupportedOperationException();
     }
@@ -42,6 +53,19 @@ public interface RecordCursor extends Closeable, SymbolTableSource {
 
     void recordAt(Record record, long atRowId);
 
+    /**
+     * Moves cursor past rows with designated timestamp less or equal to the given value, so that next call
+     * to {@link #hasNext()} returns first row with greater timestamp. Cursor never moves backwards, rows it
+     * has already returned are not revisited. Only supported by cursors of factories that return true
+     * from {@link RecordCursorFactory#recordCursorSupportsTimestampSeek()}.
+     *
+     * @param timestamp the timestamp to skip to, inclusive
+     * @return id of the last skipped row or -1 when cursor did not move
+     */
+    default long skipToTimestamp(long timestamp) {
+        throw new UnsupportedOperationException();
+    }
+
     void toTop();
 
     long size();
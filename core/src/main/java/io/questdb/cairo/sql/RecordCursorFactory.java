@@ -49,6 +49,10 @@ public interface RecordCursorFactory extends Closeable, Sinkable {
 
     boolean recordCursorSupportsRandomAccess();
 
+    default boolean recordCursorSupportsTimestampSeek() {
+        return false;
+    }
+
     default boolean supportPageFrameCursor() {
         return false;
     }
@@ -0,0 +1,775 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ContiguousVirtualMemory;
+import io.questdb.cairo.VarcharUtils;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Encodes query result as Apache Arrow IPC stream: schema message, record batches and
+ * end-of-stream marker. Output is pulled by {@link #drain(long, long)} into whatever buffer
+ * transport has available, which lets transport suspend encoding when peer is slow to read
+ * and resume it where it left off.
+ * <p>
+ * When query can produce page frames, column memory of each frame is sent as is and frame
+ * becomes a record batch. Otherwise records are copied into column buffers, up to
+ * {@link #BATCH_ROW_COUNT} rows per batch.
+ * <p>
+ * Values QuestDB treats as null (NaN, INT and LONG minimums and zero CHAR) are marked in
+ * validity bitmap. Bitmap is only sent for columns that have nulls in the batch.
+ */
+public class ArrowStreamWriter implements Mutable, Closeable {
+    public static final int BATCH_ROW_COUNT = 64 * 1024;
+    private static final int CONTINUATION_MARKER = -1;
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final short ENDIANNESS_LITTLE = 0;
+    // MessageHeader union
+    private static final byte MESSAGE_HEADER_SCHEMA = 1;
+    private static final byte MESSAGE_HEADER_RECORD_BATCH = 3;
+    // Type union
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_BINARY = 4;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_BOOL = 6;
+    private static final byte TYPE_DATE = 8;
+    private static final byte TYPE_TIMESTAMP = 10;
+    private static final byte TYPE_FIXED_SIZE_BINARY = 15;
+    private static final short PRECISION_SINGLE = 1;
+    private static final short PRECISION_DOUBLE = 2;
+    private static final short DATE_UNIT_MILLISECOND = 1;
+    private static final short TIME_UNIT_MICROSECOND = 2;
+    private static final int LONG256_BYTES = 4 * Long.BYTES;
+    // var-length values are addressed by 32-bit offsets, batch is cut short before they overflow
+    private static final long MAX_VAR_DATA_SIZE = Integer.MAX_VALUE / 2;
+    private static final long MEM_PAGE_SIZE = 64 * 1024;
+    private static final int STATE_SCHEMA = 0;
+    private static final int STATE_RECORD_BATCH = 1;
+    private static final int STATE_END_OF_STREAM = 2;
+    // message prefix, end-of-stream marker and zeros to pad buffers with
+    private static final int PREFIX_OFFSET = 0;
+    private static final int END_OF_STREAM_OFFSET = 8;
+    private static final int PADDING_OFFSET = 16;
+    private static final int CONSTANTS_SIZE = 24;
+    private final FlatBufferBuilder builder = new FlatBufferBuilder();
+    // address and size pairs of pending output, drained in order
+    private final LongList segments = new LongList();
+    // length and null count pairs, one for each column of current batch
+    private final LongList fieldNodes = new LongList();
+    // address and size pairs, buffers of current batch in the order Arrow expects them
+    private final LongList bodyBuffers = new LongList();
+    private final IntList fieldOffsets = new IntList();
+    private final LongList nullCounts = new LongList();
+    private final ObjList<ContiguousVirtualMemory> validityMem = new ObjList<>();
+    private final ObjList<ContiguousVirtualMemory> offsetMem = new ObjList<>();
+    private final ObjList<ContiguousVirtualMemory> dataMem = new ObjList<>();
+    private long constants;
+    private RecordMetadata metadata;
+    private RecordCursor cursor;
+    private Record record;
+    private PageFrameCursor pageFrameCursor;
+    private int columnCount;
+    private long skip;
+    private long stop;
+    private long count;
+    private long rowCount;
+    private int state = STATE_END_OF_STREAM;
+    private int segmentIndex;
+    private long segmentOffset;
+
+    public ArrowStreamWriter() {
+        this.constants = Unsafe.calloc(CONSTANTS_SIZE);
+        Unsafe.getUnsafe().putInt(constants + END_OF_STREAM_OFFSET, CONTINUATION_MARKER);
+    }
+
+    /**
+     * Opens page frame cursor when factory can frame its result and frames can be sent
+     * to Arrow as they are.
+     *
+     * @return page frame cursor or null when result has to be streamed record by record
+     */
+    @Nullable
+    public static PageFrameCursor getPageFrameCursor(RecordCursorFactory factory, SqlExecutionContext executionContext) {
+        if (factory.supportPageFrameCursor() && isPageFrameCompatible(factory.getMetadata())) {
+            return factory.getPageFrameCursor(executionContext);
+        }
+        return null;
+    }
+
+    /**
+     * Page frames can be sent when every column is fixed width and stored in the
+     * same format Arrow expects, with exception of BOOLEAN, which is packed into bits.
+     */
+    public static boolean isPageFrameCompatible(RecordMetadata metadata) {
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            switch (metadata.getColumnType(i)) {
+                case ColumnType.BOOLEAN:
+                case ColumnType.BYTE:
+                case ColumnType.SHORT:
+                case ColumnType.CHAR:
+                case ColumnType.INT:
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                case ColumnType.FLOAT:
+                case ColumnType.DOUBLE:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        metadata = null;
+        cursor = null;
+        record = null;
+        pageFrameCursor = null;
+        state = STATE_END_OF_STREAM;
+        segments.clear();
+        segmentIndex = 0;
+        segmentOffset = 0;
+        fieldNodes.clear();
+        bodyBuffers.clear();
+        builder.clear();
+        for (int i = 0, n = dataMem.size(); i < n; i++) {
+            validityMem.getQuick(i).clear();
+            offsetMem.getQuick(i).clear();
+            dataMem.getQuick(i).clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.freeObjList(validityMem);
+        Misc.freeObjList(offsetMem);
+        Misc.freeObjList(dataMem);
+        validityMem.clear();
+        offsetMem.clear();
+        dataMem.clear();
+        Misc.free(builder);
+        if (constants != 0) {
+            Unsafe.free(constants, CONSTANTS_SIZE);
+            constants = 0;
+        }
+    }
+
+    /**
+     * Copies as much of the stream as fits into given buffer.
+     *
+     * @param lo address of the first byte of the buffer
+     * @param hi address of the byte after the buffer
+     * @return number of bytes copied, less than buffer size only when stream ends
+     */
+    public long drain(long lo, long hi) {
+        long p = lo;
+        while (p < hi) {
+            if (segmentIndex < segments.size()) {
+                final long address = segments.getQuick(segmentIndex);
+                final long size = segments.getQuick(segmentIndex + 1);
+                final long n = Math.min(size - segmentOffset, hi - p);
+                Unsafe.getUnsafe().copyMemory(address + segmentOffset, p, n);
+                p += n;
+                segmentOffset += n;
+                if (segmentOffset == size) {
+                    segmentIndex += 2;
+                    segmentOffset = 0;
+                }
+            } else if (!prepareNextMessage()) {
+                break;
+            }
+        }
+        return p - lo;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public boolean isDone() {
+        return state == STATE_END_OF_STREAM && segmentIndex == segments.size();
+    }
+
+    /**
+     * Streams records of the cursor. Rows are counted from 1, row is sent when its number
+     * is greater than skip and does not exceed stop.
+     */
+    public ArrowStreamWriter of(RecordMetadata metadata, RecordCursor cursor, long skip, long stop) {
+        of(metadata);
+        this.cursor = cursor;
+        this.record = cursor.getRecord();
+        this.skip = skip;
+        this.stop = stop;
+        return this;
+    }
+
+    public ArrowStreamWriter of(RecordMetadata metadata, PageFrameCursor pageFrameCursor) {
+        of(metadata);
+        this.pageFrameCursor = pageFrameCursor;
+        return this;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static long getBitmapSize(long rowCount) {
+        return (rowCount + 7) >>> 3;
+    }
+
+    private static byte getTypeId(int columnType) {
+        switch (columnType) {
+            case ColumnType.BOOLEAN:
+                return TYPE_BOOL;
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+                return TYPE_INT;
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return TYPE_FLOATING_POINT;
+            case ColumnType.DATE:
+                return TYPE_DATE;
+            case ColumnType.TIMESTAMP:
+                return TYPE_TIMESTAMP;
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+            case ColumnType.SYMBOL:
+                return TYPE_UTF8;
+            case ColumnType.BINARY:
+                return TYPE_BINARY;
+            case ColumnType.LONG256:
+                return TYPE_FIXED_SIZE_BINARY;
+            default:
+                throw CairoException.instance(0).put("unsupported column type in arrow export [type=").put(ColumnType.nameOf(columnType)).put(']');
+        }
+    }
+
+    private static boolean isNull(int columnType, long address) {
+        switch (columnType) {
+            case ColumnType.CHAR:
+                return Unsafe.getUnsafe().getChar(address) == 0;
+            case ColumnType.INT:
+                return Unsafe.getUnsafe().getInt(address) == Numbers.INT_NaN;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                return Unsafe.getUnsafe().getLong(address) == Numbers.LONG_NaN;
+            case ColumnType.FLOAT:
+                return Float.isNaN(Unsafe.getUnsafe().getFloat(address));
+            case ColumnType.DOUBLE:
+                return Double.isNaN(Unsafe.getUnsafe().getDouble(address));
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isNullable(int columnType) {
+        return columnType != ColumnType.BOOLEAN && columnType != ColumnType.BYTE && columnType != ColumnType.SHORT;
+    }
+
+    private static boolean isVarLength(int columnType) {
+        switch (columnType) {
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+            case ColumnType.SYMBOL:
+            case ColumnType.BINARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void putBit(ContiguousVirtualMemory mem, long row, boolean value) {
+        if ((row & 7) == 0) {
+            mem.putByte((byte) 0);
+        }
+        if (value) {
+            setBit(mem.addressOf(0), row);
+        }
+    }
+
+    private static void setBit(long bitmap, long row) {
+        final long p = bitmap + (row >>> 3);
+        Unsafe.getUnsafe().putByte(p, (byte) (Unsafe.getUnsafe().getByte(p) | (1 << (row & 7))));
+    }
+
+    private void addBuffer(long address, long size) {
+        bodyBuffers.add(address);
+        bodyBuffers.add(size);
+    }
+
+    private void addCursorColumn(int columnIndex, long rows) {
+        final int columnType = metadata.getColumnType(columnIndex);
+        final long nullCount = nullCounts.getQuick(columnIndex);
+        final ContiguousVirtualMemory data = dataMem.getQuick(columnIndex);
+        fieldNodes.add(rows);
+        fieldNodes.add(nullCount);
+        if (nullCount > 0) {
+            addBuffer(validityMem.getQuick(columnIndex).addressOf(0), getBitmapSize(rows));
+        } else {
+            addBuffer(0, 0);
+        }
+        if (isVarLength(columnType)) {
+            addBuffer(offsetMem.getQuick(columnIndex).addressOf(0), (rows + 1) * Integer.BYTES);
+        }
+        addBuffer(data.addressOf(0), data.getAppendOffset());
+    }
+
+    private int addField(int columnIndex) {
+        final int columnType = metadata.getColumnType(columnIndex);
+        final int name = builder.createString(metadata.getColumnName(columnIndex));
+        final int type = addType(columnType);
+        // Arrow readers expect children vector even when type has no children
+        builder.startVector(Integer.BYTES, 0, Integer.BYTES);
+        final int children = builder.endVector(0);
+        builder.startTable(7);
+        builder.addOffset(0, name);
+        builder.addOffset(3, type);
+        builder.addOffset(5, children);
+        builder.addBoolean(1, true);
+        builder.addByte(2, getTypeId(columnType));
+        return builder.endTable();
+    }
+
+    private void addFrameColumn(PageFrame frame, int columnIndex, long rows) {
+        final int columnType = metadata.getColumnType(columnIndex);
+        final long address = frame.getPageAddress(columnIndex);
+        final long bitmapSize = getBitmapSize(rows);
+        fieldNodes.add(rows);
+
+        if (address == 0) {
+            // column top, column was added after rows of this frame had been written
+            final long size = columnType == ColumnType.BOOLEAN ? bitmapSize : rows * ColumnType.sizeOf(columnType);
+            final ContiguousVirtualMemory data = dataMem.getQuick(columnIndex);
+            data.jumpTo(0);
+            data.skip(size);
+            final long zeros = data.addressOf(0);
+            Unsafe.getUnsafe().setMemory(zeros, size, (byte) 0);
+            fieldNodes.add(rows);
+            addBuffer(zeros, bitmapSize);
+            addBuffer(zeros, size);
+            return;
+        }
+
+        if (columnType == ColumnType.BOOLEAN) {
+            // QuestDB stores byte per value, Arrow packs them into bits
+            final ContiguousVirtualMemory data = dataMem.getQuick(columnIndex);
+            data.jumpTo(0);
+            data.skip(bitmapSize);
+            final long bitmap = data.addressOf(0);
+            Unsafe.getUnsafe().setMemory(bitmap, bitmapSize, (byte) 0);
+            for (long r = 0; r < rows; r++) {
+                if (Unsafe.getUnsafe().getByte(address + r) != 0) {
+                    setBit(bitmap, r);
+                }
+            }
+            fieldNodes.add(0);
+            addBuffer(0, 0);
+            addBuffer(bitmap, bitmapSize);
+            return;
+        }
+
+        final int valueSize = ColumnType.sizeOf(columnType);
+        long nullCount = 0;
+        if (isNullable(columnType)) {
+            for (long r = 0, p = address; r < rows; r++, p += valueSize) {
+                if (isNull(columnType, p)) {
+                    nullCount++;
+                }
+            }
+        }
+
+        fieldNodes.add(nullCount);
+        if (nullCount > 0) {
+            final ContiguousVirtualMemory validity = validityMem.getQuick(columnIndex);
+            validity.jumpTo(0);
+            validity.skip(bitmapSize);
+            final long bitmap = validity.addressOf(0);
+            Unsafe.getUnsafe().setMemory(bitmap, bitmapSize, (byte) 0);
+            for (long r = 0, p = address; r < rows; r++, p += valueSize) {
+                if (!isNull(columnType, p)) {
+                    setBit(bitmap, r);
+                }
+            }
+            addBuffer(bitmap, bitmapSize);
+        } else {
+            addBuffer(0, 0);
+        }
+        // fixed width values go out straight from column memory
+        addBuffer(address, rows * valueSize);
+    }
+
+    private void addSegment(long address, long size) {
+        if (size > 0) {
+            segments.add(address);
+            segments.add(size);
+        }
+    }
+
+    private int addType(int columnType) {
+        switch (columnType) {
+            case ColumnType.BYTE:
+                return addIntType(Byte.SIZE, true);
+            case ColumnType.SHORT:
+                return addIntType(Short.SIZE, true);
+            case ColumnType.CHAR:
+                return addIntType(Character.SIZE, false);
+            case ColumnType.INT:
+                return addIntType(Integer.SIZE, true);
+            case ColumnType.LONG:
+                return addIntType(Long.SIZE, true);
+            case ColumnType.FLOAT:
+                builder.startTable(1);
+                builder.addShort(0, PRECISION_SINGLE);
+                return builder.endTable();
+            case ColumnType.DOUBLE:
+                builder.startTable(1);
+                builder.addShort(0, PRECISION_DOUBLE);
+                return builder.endTable();
+            case ColumnType.DATE:
+                builder.startTable(1);
+                builder.addShort(0, DATE_UNIT_MILLISECOND);
+                return builder.endTable();
+            case ColumnType.TIMESTAMP:
+                // timestamps have no time zone
+                builder.startTable(2);
+                builder.addShort(0, TIME_UNIT_MICROSECOND);
+                return builder.endTable();
+            case ColumnType.LONG256:
+                builder.startTable(1);
+                builder.addInt(0, LONG256_BYTES);
+                return builder.endTable();
+            default:
+                // Bool, Utf8 and Binary types have no attributes
+                builder.startTable(0);
+                return builder.endTable();
+        }
+    }
+
+    private int addIntType(int bitWidth, boolean signed) {
+        builder.startTable(2);
+        builder.addInt(0, bitWidth);
+        builder.addBoolean(1, signed);
+        return builder.endTable();
+    }
+
+    private void appendBin(int columnIndex, long row, BinarySequence value) {
+        final ContiguousVirtualMemory data = dataMem.getQuick(columnIndex);
+        if (value != null) {
+            final long len = value.length();
+            final long offset = data.getAppendOffset();
+            data.skip(len);
+            value.copyTo(data.addressOf(offset), 0, len);
+        }
+        appendVarLength(columnIndex, row, value != null);
+    }
+
+    private void appendRecord(long row) {
+        for (int i = 0; i < columnCount; i++) {
+            final ContiguousVirtualMemory data = dataMem.getQuick(i);
+            final boolean valid;
+            switch (metadata.getColumnType(i)) {
+                case ColumnType.BOOLEAN:
+                    putBit(data, row, record.getBool(i));
+                    valid = true;
+                    break;
+                case ColumnType.BYTE:
+                    data.putByte(record.getByte(i));
+                    valid = true;
+                    break;
+                case ColumnType.SHORT:
+                    data.putShort(record.getShort(i));
+                    valid = true;
+                    break;
+                case ColumnType.CHAR:
+                    final char c = record.getChar(i);
+                    data.putChar(c);
+                    valid = c != 0;
+                    break;
+                case ColumnType.INT:
+                    final int n = record.getInt(i);
+                    data.putInt(n);
+                    valid = n != Numbers.INT_NaN;
+                    break;
+                case ColumnType.LONG:
+                    long l = record.getLong(i);
+                    data.putLong(l);
+                    valid = l != Numbers.LONG_NaN;
+                    break;
+                case ColumnType.DATE:
+                    l = record.getDate(i);
+                    data.putLong(l);
+                    valid = l != Numbers.LONG_NaN;
+                    break;
+                case ColumnType.TIMESTAMP:
+                    l = record.getTimestamp(i);
+                    data.putLong(l);
+                    valid = l != Numbers.LONG_NaN;
+                    break;
+                case ColumnType.FLOAT:
+                    final float f = record.getFloat(i);
+                    data.putFloat(f);
+                    valid = f == f;
+                    break;
+                case ColumnType.DOUBLE:
+                    final double d = record.getDouble(i);
+                    data.putDouble(d);
+                    valid = d == d;
+                    break;
+                case ColumnType.LONG256:
+                    final Long256 value = record.getLong256A(i);
+                    data.putLong256(value);
+                    valid = value.getLong0() != Numbers.LONG_NaN
+                            || value.getLong1() != Numbers.LONG_NaN
+                            || value.getLong2() != Numbers.LONG_NaN
+                            || value.getLong3() != Numbers.LONG_NaN;
+                    break;
+                case ColumnType.STRING:
+                case ColumnType.VARCHAR:
+                    appendUtf8(i, row, record.getStr(i));
+                    continue;
+                case ColumnType.SYMBOL:
+                    appendUtf8(i, row, record.getSym(i));
+                    continue;
+                case ColumnType.BINARY:
+                    appendBin(i, row, record.getBin(i));
+                    continue;
+                default:
+                    throw CairoException.instance(0).put("unsupported column type in arrow export [type=").put(ColumnType.nameOf(metadata.getColumnType(i))).put(']');
+            }
+            appendValidity(i, row, valid);
+        }
+    }
+
+    private void appendUtf8(int columnIndex, long row, CharSequence value) {
+        if (value != null) {
+            VarcharUtils.encode(value, 0, value.length(), dataMem.getQuick(columnIndex));
+        }
+        appendVarLength(columnIndex, row, value != null);
+    }
+
+    private void appendValidity(int columnIndex, long row, boolean valid) {
+        putBit(validityMem.getQuick(columnIndex), row, valid);
+        if (!valid) {
+            nullCounts.increment(columnIndex);
+        }
+    }
+
+    private void appendVarLength(int columnIndex, long row, boolean valid) {
+        offsetMem.getQuick(columnIndex).putInt((int) dataMem.getQuick(columnIndex).getAppendOffset());
+        appendValidity(columnIndex, row, valid);
+    }
+
+    private long fillFromCursor() {
+        for (int i = 0; i < columnCount; i++) {
+            validityMem.getQuick(i).jumpTo(0);
+            dataMem.getQuick(i).jumpTo(0);
+            final ContiguousVirtualMemory offsets = offsetMem.getQuick(i);
+            offsets.jumpTo(0);
+            if (isVarLength(metadata.getColumnType(i))) {
+                offsets.putInt(0);
+            }
+        }
+        nullCounts.setAll(columnCount, 0);
+
+        long rows = 0;
+        while (rows < BATCH_ROW_COUNT && count < stop && !isVarDataFull() && cursor.hasNext()) {
+            if (++count > skip) {
+                appendRecord(rows++);
+            }
+        }
+
+        if (rows > 0) {
+            for (int i = 0; i < columnCount; i++) {
+                addCursorColumn(i, rows);
+            }
+        }
+        return rows;
+    }
+
+    private long fillFromPageFrame() {
+        PageFrame frame;
+        while ((frame = pageFrameCursor.next()) != null) {
+            final long rows = getFrameRowCount(frame);
+            if (rows > 0) {
+                for (int i = 0; i < columnCount; i++) {
+                    addFrameColumn(frame, i, rows);
+                }
+                return rows;
+            }
+        }
+        return 0;
+    }
+
+    private long getFrameRowCount(PageFrame frame) {
+        // size of column top is reported in rows rather than bytes
+        final long size = frame.getPageSize(0);
+        if (frame.getPageAddress(0) == 0) {
+            return size;
+        }
+        return size >> Numbers.msb(ColumnType.sizeOf(metadata.getColumnType(0)));
+    }
+
+    private boolean isVarDataFull() {
+        for (int i = 0; i < columnCount; i++) {
+            if (isVarLength(metadata.getColumnType(i)) && dataMem.getQuick(i).getAppendOffset() > MAX_VAR_DATA_SIZE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void of(RecordMetadata metadata) {
+        clear();
+        this.metadata = metadata;
+        this.columnCount = metadata.getColumnCount();
+        this.count = 0;
+        this.rowCount = 0;
+        this.state = STATE_SCHEMA;
+        for (int i = dataMem.size(); i < columnCount; i++) {
+            validityMem.add(new ContiguousVirtualMemory(MEM_PAGE_SIZE, Integer.MAX_VALUE));
+            offsetMem.add(new ContiguousVirtualMemory(MEM_PAGE_SIZE, Integer.MAX_VALUE));
+            dataMem.add(new ContiguousVirtualMemory(MEM_PAGE_SIZE, Integer.MAX_VALUE));
+        }
+    }
+
+    private void prepareEndOfStream() {
+        segments.clear();
+        segmentIndex = 0;
+        segmentOffset = 0;
+        addSegment(constants + END_OF_STREAM_OFFSET, 2 * Integer.BYTES);
+    }
+
+    private void prepareMessage(byte headerType, int header, long bodyLength) {
+        builder.startTable(5);
+        builder.addLong(3, bodyLength);
+        builder.addOffset(2, header);
+        builder.addShort(0, METADATA_VERSION_V5);
+        builder.addByte(1, headerType);
+        builder.finish(builder.endTable());
+
+        // builder pads metadata to 8 bytes, body that follows prefix and metadata is aligned
+        Unsafe.getUnsafe().putInt(constants + PREFIX_OFFSET, CONTINUATION_MARKER);
+        Unsafe.getUnsafe().putInt(constants + PREFIX_OFFSET + Integer.BYTES, builder.getSize());
+        segments.clear();
+        segmentIndex = 0;
+        segmentOffset = 0;
+        addSegment(constants + PREFIX_OFFSET, 2 * Integer.BYTES);
+        addSegment(builder.getAddress(), builder.getSize());
+    }
+
+    private boolean prepareNextMessage() {
+        switch (state) {
+            case STATE_SCHEMA:
+                prepareSchema();
+                state = STATE_RECORD_BATCH;
+                return true;
+            case STATE_RECORD_BATCH:
+                final long rows = pageFrameCursor != null ? fillFromPageFrame() : fillFromCursor();
+                if (rows > 0) {
+                    prepareRecordBatch(rows);
+                    rowCount += rows;
+                } else {
+                    prepareEndOfStream();
+                    state = STATE_END_OF_STREAM;
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void prepareRecordBatch(long rows) {
+        builder.clear();
+
+        final int nodeCount = fieldNodes.size() / 2;
+        builder.startVector(2 * Long.BYTES, nodeCount, Long.BYTES);
+        for (int i = nodeCount - 1; i > -1; i--) {
+            builder.addStruct(fieldNodes.getQuick(2 * i), fieldNodes.getQuick(2 * i + 1));
+        }
+        final int nodes = builder.endVector(nodeCount);
+
+        // every buffer starts at 8-byte boundary of message body
+        final int bufferCount = bodyBuffers.size() / 2;
+        long bodyLength = 0;
+        for (int i = 0; i < bufferCount; i++) {
+            bodyLength += align(bodyBuffers.getQuick(2 * i + 1));
+        }
+        builder.startVector(2 * Long.BYTES, bufferCount, Long.BYTES);
+        long offset = bodyLength;
+        for (int i = bufferCount - 1; i > -1; i--) {
+            final long size = bodyBuffers.getQuick(2 * i + 1);
+            offset -= align(size);
+            builder.addStruct(offset, size);
+        }
+        final int buffers = builder.endVector(bufferCount);
+
+        builder.startTable(4);
+        builder.addLong(0, rows);
+        builder.addOffset(1, nodes);
+        builder.addOffset(2, buffers);
+        prepareMessage(MESSAGE_HEADER_RECORD_BATCH, builder.endTable(), bodyLength);
+
+        for (int i = 0; i < bufferCount; i++) {
+            final long size = bodyBuffers.getQuick(2 * i + 1);
+            addSegment(bodyBuffers.getQuick(2 * i), size);
+            addSegment(constants + PADDING_OFFSET, align(size) - size);
+        }
+        fieldNodes.clear();
+        bodyBuffers.clear();
+    }
+
+    private void prepareSchema() {
+        builder.clear();
+        fieldOffsets.clear();
+        for (int i = 0; i < columnCount; i++) {
+            fieldOffsets.add(addField(i));
+        }
+        builder.startVector(Integer.BYTES, columnCount, Integer.BYTES);
+        for (int i = columnCount - 1; i > -1; i--) {
+            builder.addOffset(fieldOffsets.getQuick(i));
+        }
+        final int fields = builder.endVector(columnCount);
+
+        builder.startTable(4);
+        builder.addOffset(1, fields);
+        builder.addShort(0, ENDIANNESS_LITTLE);
+        prepareMessage(MESSAGE_HEADER_SCHEMA, builder.endTable(), 0);
+    }
+}
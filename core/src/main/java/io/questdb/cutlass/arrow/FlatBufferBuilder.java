@@ -0,0 +1,231 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.VarcharUtils;
+import io.questdb.std.IntList;
+import io.questdb.std.Mutable;
+import io.questdb.std.Unsafe;
+
+import java.io.Closeable;
+
+/**
+ * Minimal FlatBuffers encoder, just enough to write Arrow IPC metadata. Buffer is built
+ * back to front, same as the reference implementation, so that offsets to child objects
+ * always point forward. Offsets returned by this builder are measured from the end of
+ * the buffer and remain valid when buffer is extended.
+ */
+public class FlatBufferBuilder implements Mutable, Closeable {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final IntList vtable = new IntList();
+    private long buf;
+    private int capacity;
+    private int space;
+    private int minAlign;
+    private int objectStart;
+
+    public FlatBufferBuilder() {
+        this.capacity = INITIAL_CAPACITY;
+        this.buf = Unsafe.malloc(capacity);
+        clear();
+    }
+
+    public void addBoolean(int slot, boolean value) {
+        addByte(slot, (byte) (value ? 1 : 0));
+    }
+
+    public void addByte(int slot, byte value) {
+        prep(Byte.BYTES, 0);
+        putByte(value);
+        slot(slot);
+    }
+
+    public void addInt(int slot, int value) {
+        prep(Integer.BYTES, 0);
+        putInt(value);
+        slot(slot);
+    }
+
+    public void addLong(int slot, long value) {
+        prep(Long.BYTES, 0);
+        putLong(value);
+        slot(slot);
+    }
+
+    public void addOffset(int slot, int offset) {
+        addOffset(offset);
+        slot(slot);
+    }
+
+    public void addOffset(int offset) {
+        prep(Integer.BYTES, 0);
+        assert offset <= offset();
+        putInt(offset() - offset + Integer.BYTES);
+    }
+
+    public void addShort(int slot, short value) {
+        prep(Short.BYTES, 0);
+        putShort(value);
+        slot(slot);
+    }
+
+    /**
+     * Writes struct of two longs, such as Arrow's FieldNode and Buffer, into a vector
+     * started by {@link #startVector(int, int, int)}.
+     */
+    public void addStruct(long first, long second) {
+        prep(Long.BYTES, 2 * Long.BYTES);
+        putLong(second);
+        putLong(first);
+    }
+
+    @Override
+    public void clear() {
+        space = capacity;
+        minAlign = 1;
+        vtable.clear();
+    }
+
+    @Override
+    public void close() {
+        if (buf != 0) {
+            Unsafe.free(buf, capacity);
+            buf = 0;
+        }
+    }
+
+    public int createString(CharSequence value) {
+        final int len = VarcharUtils.getSize(VarcharUtils.getHeader(value, 0, value.length()));
+        prep(Integer.BYTES, len + 1);
+        putByte((byte) 0);
+        space -= len;
+        VarcharUtils.encode(value, 0, value.length(), buf + space);
+        putInt(len);
+        return offset();
+    }
+
+    public int endTable() {
+        prep(Integer.BYTES, 0);
+        putInt(0);
+        final int objectOffset = offset();
+        final int n = vtable.size();
+        for (int i = n - 1; i >= 0; i--) {
+            final int fieldOffset = vtable.getQuick(i);
+            prep(Short.BYTES, 0);
+            putShort((short) (fieldOffset != 0 ? objectOffset - fieldOffset : 0));
+        }
+        prep(Short.BYTES, Short.BYTES);
+        putShort((short) (objectOffset - objectStart));
+        putShort((short) ((n + 2) * Short.BYTES));
+        Unsafe.getUnsafe().putInt(buf + capacity - objectOffset, offset() - objectOffset);
+        vtable.clear();
+        return objectOffset;
+    }
+
+    public int endVector(int elementCount) {
+        putInt(elementCount);
+        return offset();
+    }
+
+    /**
+     * Writes offset to root table and pads the buffer to 8 bytes, which is what Arrow
+     * requires of encapsulated message metadata.
+     */
+    public void finish(int root) {
+        prep(Math.max(minAlign, Long.BYTES), Integer.BYTES);
+        addOffset(root);
+    }
+
+    public long getAddress() {
+        return buf + space;
+    }
+
+    public int getSize() {
+        return capacity - space;
+    }
+
+    public void startTable(int fieldCount) {
+        vtable.setAll(fieldCount, 0);
+        objectStart = offset();
+    }
+
+    public void startVector(int elementSize, int elementCount, int alignment) {
+        final int size = elementSize * elementCount;
+        prep(Integer.BYTES, size);
+        prep(alignment, size);
+    }
+
+    private void grow() {
+        final int newCapacity = capacity * 2;
+        final long newBuf = Unsafe.malloc(newCapacity);
+        final int size = capacity - space;
+        Unsafe.getUnsafe().copyMemory(buf + space, newBuf + newCapacity - size, size);
+        Unsafe.free(buf, capacity);
+        buf = newBuf;
+        space += newCapacity - capacity;
+        capacity = newCapacity;
+    }
+
+    private int offset() {
+        return capacity - space;
+    }
+
+    private void prep(int size, int additionalBytes) {
+        if (size > minAlign) {
+            minAlign = size;
+        }
+        final int alignSize = (~(capacity - space + additionalBytes) + 1) & (size - 1);
+        while (space < alignSize + size + additionalBytes) {
+            grow();
+        }
+        for (int i = 0; i < alignSize; i++) {
+            putByte((byte) 0);
+        }
+    }
+
+    private void putByte(byte value) {
+        Unsafe.getUnsafe().putByte(buf + --space, value);
+    }
+
+    private void putInt(int value) {
+        space -= Integer.BYTES;
+        Unsafe.getUnsafe().putInt(buf + space, value);
+    }
+
+    private void putLong(long value) {
+        space -= Long.BYTES;
+        Unsafe.getUnsafe().putLong(buf + space, value);
+    }
+
+    private void putShort(short value) {
+        space -= Short.BYTES;
+        Unsafe.getUnsafe().putShort(buf + space, value);
+    }
+
+    private void slot(int slot) {
+        vtable.setQuick(slot, offset());
+    }
+}
@@ -29,10 +29,27 @@ import io.questdb.network.PeerIsSlowToReadException;
 import io.questdb.std.str.CharSink;
 
 public interface HttpChunkedResponseSocket extends CharSink {
+    /**
+     * Moves write pointer after bytes that were copied to {@link #getWriteAddress()} directly.
+     *
+     * @param len number of bytes written
+     */
+    void advance(long len);
+
     void bookmark();
 
     void done() throws PeerDisconnectedException, PeerIsSlowToReadException;
 
+    /**
+     * Address where next byte of the chunk goes. Binary content can be copied
+     * to the response buffer directly, up to {@link #getWriteLimit()}.
+     *
+     * @return address of response buffer write pointer
+     */
+    long getWriteAddress();
+
+    long getWriteLimit();
+
     HttpResponseHeader headers();
 
     boolean resetToBookmark();
@@ -634,6 +634,12 @@ public class HttpResponseSink implements Closeable, Mutable {
 
         private long bookmark = outPtr;
 
+        @Override
+        public void advance(long len) {
+            assert _wPtr + len <= limit;
+            _wPtr += len;
+        }
+
         @Override
         public void bookmark() {
             bookmark = _wPtr;
@@ -650,6 +656,16 @@ public class HttpResponseSink implements Closeable, Mutable {
             }
         }
 
+        @Override
+        public long getWriteAddress() {
+            return _wPtr;
+        }
+
+        @Override
+        public long getWriteLimit() {
+            return limit;
+        }
+
         @Override
         public HttpResponseHeader headers() {
             return headerImpl;
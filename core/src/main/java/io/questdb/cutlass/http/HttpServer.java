@@ -29,12 +29,21 @@ import io.questdb.WorkerPoolAwareConfiguration;
 import io.questdb.WorkerPoolAwareConfiguration.ServerFactory;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.ColumnIndexerJob;
+import io.questdb.cairo.OutOfOrderColumnJob;
+import io.questdb.cairo.TableBackupJob;
 import io.questdb.cairo.TableBlockWriter.TableBlockWriterJob;
 import io.questdb.cutlass.http.processors.*;
+import io.questdb.cutlass.text.TextImportJob;
 import io.questdb.griffin.FunctionFactoryCache;
+import io.questdb.griffin.engine.groupby.ParallelSampleByJob;
 import io.questdb.griffin.engine.groupby.vect.GroupByJob;
+import io.questdb.griffin.engine.join.HashJoinBuildJob;
+import io.questdb.griffin.engine.table.ParallelFilterJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.Metrics;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.Scrapable;
 import io.questdb.mp.EagerThreadSetup;
 import io.questdb.mp.Job;
 import io.questdb.mp.WorkerPool;
@@ -58,6 +67,9 @@ public class HttpServer implements Closeable {
     private final HttpContextFactory httpContextFactory;
     private final WorkerPool workerPool;
     private final WaitProcessor rescheduleContext;
+    private final ObjList<Scrapable> serverMetrics = new ObjList<>();
+    private MetricsRegistry metricsRegistry;
+    private QueryCache queryCache;
 
 
     public HttpServer(HttpMinServerConfiguration configuration, WorkerPool pool, boolean localPool) {
@@ -103,7 +115,6 @@ public class HttpServer implements Closeable {
             pool.assign(i, () -> {
                 Misc.free(selectors.getQuick(index));
                 httpContextFactory.closeContextPool();
-                Misc.free(QueryCache.getInstance());
             });
         }
     }
@@ -186,6 +197,12 @@ public class HttpServer implements Closeable {
         // jobs that help parallel execution of queries
         workerPool.assign(new ColumnIndexerJob(messageBus));
         workerPool.assign(new GroupByJob(messageBus));
+        workerPool.assign(new ParallelFilterJob(messageBus));
+        workerPool.assign(new ParallelSampleByJob(messageBus));
+        workerPool.assign(new HashJoinBuildJob(messageBus));
+        workerPool.assign(new TableBackupJob(messageBus));
+        workerPool.assign(new TextImportJob(messageBus));
+        workerPool.assign(new OutOfOrderColumnJob(messageBus));
         workerPool.assign(new TableBlockWriterJob(messageBus));
     }
 
@@ -277,8 +294,16 @@ public class HttpServer implements Closeable {
         if (workerPool != null) {
             workerPool.halt();
         }
+        if (metricsRegistry != null) {
+            for (int i = 0, n = serverMetrics.size(); i < n; i++) {
+                metricsRegistry.remove(serverMetrics.getQuick(i));
+            }
+            serverMetrics.clear();
+        }
         Misc.free(httpContextFactory);
         Misc.free(dispatcher);
+        // query cache is shared by all workers, workers have halted by now
+        queryCache = Misc.free(queryCache);
     }
 
     private static HttpServer create0(
@@ -290,7 +315,7 @@ public class HttpServer implements Closeable {
             FunctionFactoryCache functionFactoryCache
     ) {
         final HttpServer s = new HttpServer(configuration, workerPool, localPool);
-        QueryCache.configure(configuration);
+        s.queryCache = QueryCache.configure(configuration);
         HttpRequestProcessorBuilder jsonQueryProcessorBuilder = () -> new JsonQueryProcessor(
                 configuration.getJsonQueryProcessorConfiguration(),
                 cairoEngine,
@@ -298,6 +323,7 @@ public class HttpServer implements Closeable {
                 workerPool.getWorkerCount(),
                 functionFactoryCache);
         addDefaultEndpoints(s, configuration, cairoEngine, workerPool, messageBus, jsonQueryProcessorBuilder, functionFactoryCache);
+        s.registerMetrics(cairoEngine.getConfiguration().getMetrics().getRegistry());
         return s;
     }
 
@@ -321,9 +347,38 @@ public class HttpServer implements Closeable {
                 return "*";
             }
         });
+        final Metrics metrics = cairoEngine.getConfiguration().getMetrics();
+        s.bind(new HttpRequestProcessorFactory() {
+            @Override
+            public HttpRequestProcessor newInstance() {
+                return new MetricsProcessor(metrics);
+            }
+
+            @Override
+            public String getUrl() {
+                return "/metrics";
+            }
+        });
         return s;
     }
 
+    private static long getQueryCacheHitCount() {
+        final QueryCache queryCache = QueryCache.getInstance();
+        return queryCache != null ? queryCache.getHitCount() : 0;
+    }
+
+    private static long getQueryCacheMissCount() {
+        final QueryCache queryCache = QueryCache.getInstance();
+        return queryCache != null ? queryCache.getMissCount() : 0;
+    }
+
+    private void registerMetrics(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        serverMetrics.add(metricsRegistry.newVirtualGauge("questdb_http_connections", "Open HTTP connections", dispatcher::getConnectionCount));
+        serverMetrics.add(metricsRegistry.newVirtualCounter("questdb_http_query_cache_hits_total", "HTTP queries served from the compiled query cache", HttpServer::getQueryCacheHitCount));
+        serverMetrics.add(metricsRegistry.newVirtualCounter("questdb_http_query_cache_misses_total", "HTTP queries compiled because the query cache had no factory", HttpServer::getQueryCacheMissCount));
+    }
+
     public interface HttpRequestProcessorBuilder {
         HttpRequestProcessor newInstance();
     }
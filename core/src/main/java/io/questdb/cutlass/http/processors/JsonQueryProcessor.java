@@ -104,6 +104,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         this.queryExecutors.extendAndSet(CompiledQuery.INSERT_AS_SELECT, sendConfirmation);
         this.queryExecutors.extendAndSet(CompiledQuery.COPY_REMOTE, JsonQueryProcessor::cannotCopyRemote);
         this.queryExecutors.extendAndSet(CompiledQuery.BACKUP_TABLE, sendConfirmation);
+        this.queryExecutors.extendAndSet(CompiledQuery.COPY_OUT, JsonQueryProcessor::cannotCopyOut);
+        this.queryExecutors.extendAndSet(CompiledQuery.COPY_OUT_ARROW, JsonQueryProcessor::cannotCopyOut);
         this.sqlExecutionContext = new SqlExecutionContextImpl(engine, workerCount, messageBus);
         this.nanosecondClock = engine.getConfiguration().getNanosecondClock();
         this.interruptor = new HttpSqlExecutionInterruptor(configuration.getInterruptorConfiguration());
@@ -133,6 +135,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
                             factory,
                             configuration.getKeepAliveHeader());
                 } catch (ReaderOutOfDateException e) {
+                    // other pooled instances of this factory are out of date too
+                    QueryCache.getInstance().remove(state.getQuery());
                     Misc.free(factory);
                     compileQuery(state);
                 }
@@ -243,6 +247,15 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         throw SqlException.$(0, "copy from STDIN is not supported over REST");
     }
 
+    private static void cannotCopyOut(
+            JsonQueryProcessorState state,
+            CompiledQuery cc,
+            CharSequence keepAliveHeader
+    ) throws SqlException {
+        Misc.free(cc.getRecordCursorFactory());
+        throw SqlException.$(0, "copy to STDOUT is not supported over REST");
+    }
+
     protected static void header(
             HttpChunkedResponseSocket socket,
             CharSequence keepAliveHeader
@@ -119,6 +119,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         skewedValueWriters.extendAndSet(ColumnType.CHAR, this::putSkewedCharValue);
         skewedValueWriters.extendAndSet(ColumnType.STRING, this::putSkewedStrValue);
         skewedValueWriters.extendAndSet(ColumnType.SYMBOL, this::putSkewedSymValue);
+        skewedValueWriters.extendAndSet(ColumnType.VARCHAR, this::putSkewedStrValue);
         skewedValueWriters.extendAndSet(ColumnType.BINARY, this::putSkewedBinValue);
         skewedValueWriters.extendAndSet(ColumnType.LONG256, this::putSkewedLong256Value);
         skewedValueWriters.extendAndSet(ColumnType.CURSOR, JsonQueryProcessorState::putCursorValue);
@@ -135,6 +136,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         allValueWriters.extendAndSet(ColumnType.CHAR, JsonQueryProcessorState::putCharValue);
         allValueWriters.extendAndSet(ColumnType.STRING, JsonQueryProcessorState::putStrValue);
         allValueWriters.extendAndSet(ColumnType.SYMBOL, JsonQueryProcessorState::putSymValue);
+        allValueWriters.extendAndSet(ColumnType.VARCHAR, JsonQueryProcessorState::putStrValue);
         allValueWriters.extendAndSet(ColumnType.BINARY, JsonQueryProcessorState::putBinValue);
         allValueWriters.extendAndSet(ColumnType.LONG256, JsonQueryProcessorState::putLong256Value);
         allValueWriters.extendAndSet(ColumnType.RECORD, JsonQueryProcessorState::putCursorValue);
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cutlass.http.HttpChunkedResponseSocket;
+import io.questdb.cutlass.http.HttpConnectionContext;
+import io.questdb.cutlass.http.HttpRequestProcessor;
+import io.questdb.cutlass.http.LocalValue;
+import io.questdb.metrics.Scrapable;
+import io.questdb.network.PeerDisconnectedException;
+import io.questdb.network.PeerIsSlowToReadException;
+
+/**
+ * Serves metrics in Prometheus text exposition format. Metrics are rendered into a
+ * per-connection buffer first and then sent in chunks, so that output larger than the
+ * response buffer survives slow readers.
+ */
+public class MetricsProcessor implements HttpRequestProcessor {
+    private static final LocalValue<MetricsProcessorState> LV = new LocalValue<>();
+    private static final CharSequence CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final int CHUNK_SIZE = 4096;
+    private final Scrapable metrics;
+
+    public MetricsProcessor(Scrapable metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onRequestComplete(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        MetricsProcessorState state = LV.get(context);
+        if (state == null) {
+            LV.set(context, state = new MetricsProcessorState());
+        }
+        state.clear();
+        metrics.scrapeIntoPrometheus(state.sink);
+
+        final HttpChunkedResponseSocket r = context.getChunkedResponseSocket();
+        r.status(200, CONTENT_TYPE);
+        r.sendHeader();
+        send(state, r);
+    }
+
+    @Override
+    public void resumeSend(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final MetricsProcessorState state = LV.get(context);
+        if (state != null && !state.done) {
+            send(state, context.getChunkedResponseSocket());
+        }
+    }
+
+    private static void send(MetricsProcessorState state, HttpChunkedResponseSocket r) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final int len = state.sink.length();
+        while (state.position < len) {
+            final int lo = state.position;
+            final int hi = Math.min(len, lo + CHUNK_SIZE);
+            r.encodeUtf8(state.sink, lo, hi);
+            // advance before sending, the chunk is buffered even when the peer is slow to read it
+            state.position = hi;
+            r.sendChunk();
+        }
+        state.done = true;
+        r.done();
+    }
+}
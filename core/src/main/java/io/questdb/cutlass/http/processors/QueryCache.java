@@ -28,35 +28,60 @@ import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cutlass.http.HttpServerConfiguration;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
-import io.questdb.std.AssociativeCache;
-import io.questdb.std.ThreadLocal;
+import io.questdb.std.ConcurrentAssociativeCache;
 
 import java.io.Closeable;
 
+/**
+ * Compiled query factories shared by all HTTP workers. Factory is checked out
+ * exclusively for the duration of the query and pushed back when query completes,
+ * concurrent executions of the same SQL text compile and pool their own instances.
+ */
 public final class QueryCache implements Closeable {
 
     private static final Log LOG = LogFactory.getLog(QueryCache.class);
-    private static ThreadLocal<QueryCache> TL_QUERY_CACHE;
-    private final AssociativeCache<RecordCursorFactory> cache;
+    private static volatile QueryCache INSTANCE;
+    private final ConcurrentAssociativeCache<RecordCursorFactory> cache;
 
     public QueryCache(int blocks, int rows) {
-        this.cache = new AssociativeCache<>(blocks, rows);
+        this.cache = new ConcurrentAssociativeCache<>(blocks, rows);
     }
 
-    public static void configure(HttpServerConfiguration configuration) {
-        TL_QUERY_CACHE = new ThreadLocal<>(() -> new QueryCache(configuration.getQueryCacheBlocks(), configuration.getQueryCacheRows()));
+    /**
+     * Creates cache and makes it visible to HTTP processors. Caller owns the returned
+     * instance and must close it once workers using it have stopped. Instance
+     * created earlier is left to its owner.
+     *
+     * @param configuration provides cache dimensions
+     * @return new cache instance
+     */
+    public static QueryCache configure(HttpServerConfiguration configuration) {
+        final QueryCache queryCache = new QueryCache(configuration.getQueryCacheBlocks(), configuration.getQueryCacheRows());
+        INSTANCE = queryCache;
+        return queryCache;
     }
 
     public static QueryCache getInstance() {
-        return TL_QUERY_CACHE.get();
+        return INSTANCE;
     }
 
     @Override
     public void close() {
+        if (INSTANCE == this) {
+            INSTANCE = null;
+        }
         cache.close();
         LOG.info().$("closed").$();
     }
 
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
     public RecordCursorFactory poll(CharSequence sql) {
         final RecordCursorFactory factory = cache.poll(sql);
         log(factory == null ? "miss" : "hit", sql);
@@ -65,13 +90,13 @@ public final class QueryCache implements Closeable {
 
     public void push(CharSequence sql, RecordCursorFactory factory) {
         if (factory != null) {
-            cache.put(sql, factory);
+            cache.push(sql, factory);
             log("push", sql);
         }
     }
 
     public void remove(CharSequence sql) {
-        cache.put(sql, null);
+        cache.remove(sql);
         log("remove", sql);
     }
 
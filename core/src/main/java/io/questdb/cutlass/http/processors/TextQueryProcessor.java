@@ -30,7 +30,10 @@ import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoError;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.ReaderOutOfDateException;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
 import io.questdb.cutlass.http.*;
 import io.questdb.cutlass.text.TextUtil;
 import io.questdb.cutlass.text.Utf8Exception;
@@ -108,7 +111,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             sqlExecutionContext.with(context.getCairoSecurityContext(), null, null, context.getFd(), interruptor.of(context.getFd()));
             if (state.recordCursorFactory == null) {
                 final CompiledQuery cc = compiler.compile(state.query, sqlExecutionContext);
-                if (cc.getType() == CompiledQuery.SELECT) {
+                if (cc.getType() == CompiledQuery.SELECT || cc.getType() == CompiledQuery.COPY_OUT || cc.getType() == CompiledQuery.COPY_OUT_ARROW) {
                     state.recordCursorFactory = cc.getRecordCursorFactory();
                 }
                 info(state).$("execute-new [q=`").utf8(state.query).
@@ -126,10 +129,21 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
 
             if (state.recordCursorFactory != null) {
                 try {
-                    state.cursor = state.recordCursorFactory.getCursor(sqlExecutionContext);
-                    state.metadata = state.recordCursorFactory.getMetadata();
-                    header(context.getChunkedResponseSocket());
+                    if (state.arrow) {
+                        openArrowStream(state);
+                        arrowHeader(context.getChunkedResponseSocket());
+                    } else {
+                        state.cursor = state.recordCursorFactory.getCursor(sqlExecutionContext);
+                        state.metadata = state.recordCursorFactory.getMetadata();
+                        header(context.getChunkedResponseSocket());
+                    }
                     resumeSend(context);
+                } catch (ReaderOutOfDateException e) {
+                    // cached factory was compiled against previous table structure,
+                    // drop all its pooled instances and compile query again
+                    QueryCache.getInstance().remove(state.query);
+                    state.recordCursorFactory = Misc.free(state.recordCursorFactory);
+                    execute(context, state);
                 } catch (CairoException e) {
                     state.setQueryCacheable(e.isCacheable());
                     internalError(context.getChunkedResponseSocket(), e, state);
@@ -174,7 +188,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             HttpConnectionContext context
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
         TextQueryProcessorState state = LV.get(context);
-        if (state == null || state.cursor == null) {
+        if (state == null || (state.cursor == null && state.pageFrameCursor == null)) {
             return;
         }
 
@@ -183,6 +197,12 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         LOG.debug().$("resume [fd=").$(context.getFd()).$(']').$();
 
         final HttpChunkedResponseSocket socket = context.getChunkedResponseSocket();
+        if (state.arrow) {
+            resumeSendArrow(socket, state);
+            readyForNextRequest(context);
+            return;
+        }
+
         final int columnCount = state.metadata.getColumnCount();
 
         OUT:
@@ -298,6 +318,13 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
                 .$(", totalBytesSent=").$(context.getTotalBytesSent()).$(']').$();
     }
 
+    private void arrowHeader(HttpChunkedResponseSocket socket) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        socket.status(200, "application/vnd.apache.arrow.stream");
+        socket.headers().put("Content-Disposition: attachment; filename=\"questdb-query-").put(clock.getTicks()).put(".arrow\"").put(Misc.EOL);
+        socket.headers().setKeepAlive(configuration.getKeepAliveHeader());
+        socket.sendHeader();
+    }
+
     private LogRecord error(TextQueryProcessorState state) {
         return LOG.error().$('[').$(state.getFd()).$("] ");
     }
@@ -322,6 +349,22 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         sendException(socket, 0, e.getMessage(), state.query);
     }
 
+    private void openArrowStream(TextQueryProcessorState state) {
+        final RecordCursorFactory factory = state.recordCursorFactory;
+        state.metadata = factory.getMetadata();
+        // page frames carry every row of the result, they cannot be used to send part of it
+        if (state.skip == 0 && state.stop == Long.MAX_VALUE) {
+            state.pageFrameCursor = ArrowStreamWriter.getPageFrameCursor(factory, sqlExecutionContext);
+        }
+
+        if (state.pageFrameCursor != null) {
+            state.getArrowWriter().of(state.metadata, state.pageFrameCursor);
+        } else {
+            state.cursor = factory.getCursor(sqlExecutionContext);
+            state.getArrowWriter().of(state.metadata, state.cursor, state.skip, state.stop);
+        }
+    }
+
     private boolean parseUrl(
             HttpChunkedResponseSocket socket,
             HttpRequestHeader request,
@@ -380,6 +423,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         state.stop = stop;
         state.noMeta = Chars.equalsNc("true", request.getUrlParam("nm"));
         state.countRows = Chars.equalsNc("true", request.getUrlParam("count"));
+        state.arrow = Chars.equalsNc("arrow", request.getUrlParam("fmt"));
         return true;
     }
 
@@ -437,6 +481,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
                 }
                 break;
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 putStringOrNull(socket, rec.getStr(col));
                 break;
             case ColumnType.SYMBOL:
@@ -452,6 +497,25 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         }
     }
 
+    private void resumeSendArrow(
+            HttpChunkedResponseSocket socket,
+            TextQueryProcessorState state
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final ArrowStreamWriter writer = state.arrowWriter;
+        while (true) {
+            if (!writer.isDone()) {
+                // writer remembers how far it got, chunk that is slow to send is not encoded twice
+                socket.advance(writer.drain(socket.getWriteAddress(), socket.getWriteLimit()));
+            }
+
+            if (writer.isDone()) {
+                sendDone(socket, state);
+                break;
+            }
+            socket.sendChunk();
+        }
+    }
+
     private void sendConfirmation(HttpChunkedResponseSocket socket) throws PeerDisconnectedException, PeerIsSlowToReadException {
         socket.put('{').putQuoted("ddl").put(':').putQuoted("OK").put('}');
         socket.sendChunk();
@@ -24,10 +24,12 @@
 
 package io.questdb.cutlass.http.processors;
 
+import io.questdb.cairo.sql.PageFrameCursor;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
 import io.questdb.cutlass.http.HttpConnectionContext;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
@@ -41,9 +43,13 @@ public class TextQueryProcessorState implements Mutable, Closeable {
     private final HttpConnectionContext httpConnectionContext;
     boolean countRows = false;
     boolean noMeta = false;
+    // result is streamed in Arrow IPC format rather than CSV
+    boolean arrow = false;
     RecordCursorFactory recordCursorFactory;
     RecordMetadata metadata;
     RecordCursor cursor;
+    PageFrameCursor pageFrameCursor;
+    ArrowStreamWriter arrowWriter;
     long count;
     long skip;
     long stop;
@@ -61,6 +67,10 @@ public class TextQueryProcessorState implements Mutable, Closeable {
     public void clear() {
         metadata = null;
         cursor = Misc.free(cursor);
+        pageFrameCursor = Misc.free(pageFrameCursor);
+        if (arrowWriter != null) {
+            arrowWriter.clear();
+        }
         record = null;
         if (null != recordCursorFactory) {
             if (queryCacheable) {
@@ -75,11 +85,14 @@ public class TextQueryProcessorState implements Mutable, Closeable {
         queryState = JsonQueryProcessorState.QUERY_PREFIX;
         columnIndex = 0;
         countRows = false;
+        arrow = false;
     }
 
     @Override
     public void close() {
         cursor = Misc.free(cursor);
+        pageFrameCursor = Misc.free(pageFrameCursor);
+        arrowWriter = Misc.free(arrowWriter);
         recordCursorFactory = Misc.free(recordCursorFactory);
     }
 
@@ -87,6 +100,13 @@ public class TextQueryProcessorState implements Mutable, Closeable {
         return httpConnectionContext.getFd();
     }
 
+    ArrowStreamWriter getArrowWriter() {
+        if (arrowWriter == null) {
+            arrowWriter = new ArrowStreamWriter();
+        }
+        return arrowWriter;
+    }
+
     void setQueryCacheable(boolean queryCacheable) {
         this.queryCacheable = queryCacheable;
     }
@@ -56,6 +56,9 @@ public class CairoLineProtoParserSupport {
                 case ColumnType.STRING:
                     row.putStr(columnIndex, value, 1, value.length() - 2);
                     break;
+                case ColumnType.VARCHAR:
+                    row.putVarchar(columnIndex, value, 1, value.length() - 2);
+                    break;
                 case ColumnType.SYMBOL:
                     row.putSym(columnIndex, value);
                     break;
@@ -120,6 +120,11 @@ public class DefaultLineTcpReceiverConfiguration implements LineTcpReceiverConfi
     public long getMaintenanceJobHysteresisInMs() {
         return 100;
     }
+
+    @Override
+    public boolean isShardedWriterQueue() {
+        return false;
+    }
 	
 	@Override
 	public String getAuthDbPath() {
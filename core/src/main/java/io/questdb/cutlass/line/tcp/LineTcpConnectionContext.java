@@ -138,7 +138,7 @@ class LineTcpConnectionContext implements IOContext, Mutable {
                 final long lim = recvBufPos;
                 queueFull = false;
                 do {
-                    final LineTcpMeasurementEvent event = scheduler.getNewEvent();
+                    final LineTcpMeasurementEvent event = scheduler.getNewEvent(recvBufLineStart, recvBufPos);
                     if (event != null) {
                         boolean success = true;
                         try {
@@ -35,6 +35,9 @@ import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionContextImpl;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.Metrics;
+import io.questdb.metrics.VirtualMetric;
 import io.questdb.mp.*;
 import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
@@ -58,6 +61,11 @@ class LineTcpMeasurementScheduler implements Closeable {
     private final CairoConfiguration cairoConfiguration;
     private final MillisecondClock milliClock;
     private final RingQueue<LineTcpMeasurementEvent> queue;
+    // In sharded mode every writer thread has its own queue, published to by any number of IO threads. Tables
+    // are pinned to queues by the hash of their name, so there is no shared assignment state to synchronise on
+    private final ObjList<RingQueue<LineTcpMeasurementEvent>> shardQueues;
+    private final ObjList<MPSequence> shardPubSeqs;
+    private final boolean sharded;
     private final CharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsByTableName;
     private final int[] loadByThread;
     private final int nUpdatesPerLoadRebalance;
@@ -65,6 +73,9 @@ class LineTcpMeasurementScheduler implements Closeable {
     private final int maxUncommittedRows;
     private final long maintenanceJobHysteresisInMs;
     private final SqlExecutionContext sqlExecutionContext;
+    private final ObjList<WriterJob> writerJobs;
+    private final Metrics metrics;
+    private final VirtualMetric queueDepthMetric;
     private Sequence pubSeq;
     private long nextEventCursor = -1;
     private int nLoadCheckCycles = 0;
@@ -85,55 +96,132 @@ class LineTcpMeasurementScheduler implements Closeable {
         this.sqlExecutionContext = new SqlExecutionContextImpl(engine, 1, messageBus);
         tableUpdateDetailsByTableName = new CharSequenceObjHashMap<>();
         loadByThread = new int[writerWorkerPool.getWorkerCount()];
-        int maxMeasurementSize = lineConfiguration.getMaxMeasurementSize();
         int queueSize = lineConfiguration.getWriterQueueSize();
-        queue = new RingQueue<>(
-                () -> new LineTcpMeasurementEvent(
-                        maxMeasurementSize,
-                        lineConfiguration.getMicrosecondClock(),
-                        lineConfiguration.getTimestampAdapter()
-                ),
-                queueSize
-        );
-        pubSeq = new SPSequence(queueSize);
-
         int nWriterThreads = writerWorkerPool.getWorkerCount();
-        if (nWriterThreads > 1) {
-            FanOut fanOut = new FanOut();
+        writerJobs = new ObjList<>(nWriterThreads);
+        sharded = lineConfiguration.isShardedWriterQueue();
+        // publishing unparks idle writer workers when the pool parks them
+        final WaitStrategy writerWaitStrategy = writerWorkerPool.getIdleStrategy() instanceof WaitStrategy
+                ? (WaitStrategy) writerWorkerPool.getIdleStrategy()
+                : null;
+        if (sharded) {
+            queue = null;
+            shardQueues = new ObjList<>(nWriterThreads);
+            shardPubSeqs = new ObjList<>(nWriterThreads);
             for (int n = 0; n < nWriterThreads; n++) {
-                SCSequence subSeq = new SCSequence();
-                fanOut.and(subSeq);
-                WriterJob writerJob = new WriterJob(n, subSeq);
+                RingQueue<LineTcpMeasurementEvent> shardQueue = createQueue(lineConfiguration, queueSize);
+                MPSequence shardPubSeq = new MPSequence(queueSize);
+                SCSequence subSeq = new SCSequence(writerWaitStrategy);
+                shardPubSeq.then(subSeq).then(shardPubSeq);
+                shardQueues.add(shardQueue);
+                shardPubSeqs.add(shardPubSeq);
+                WriterJob writerJob = new WriterJob(n, shardQueue, subSeq);
+                writerJobs.add(writerJob);
                 writerWorkerPool.assign(n, writerJob);
                 writerWorkerPool.assign(n, writerJob::close);
             }
-            pubSeq.then(fanOut).then(pubSeq);
+            pubSeq = shardPubSeqs.getQuick(0);
         } else {
-            SCSequence subSeq = new SCSequence();
-            pubSeq.then(subSeq).then(pubSeq);
-            WriterJob writerJob = new WriterJob(0, subSeq);
-            writerWorkerPool.assign(0, writerJob);
-            writerWorkerPool.assign(0, writerJob::close);
+            queue = createQueue(lineConfiguration, queueSize);
+            shardQueues = null;
+            shardPubSeqs = null;
+            pubSeq = new SPSequence(queueSize);
+            if (nWriterThreads > 1) {
+                FanOut fanOut = new FanOut();
+                for (int n = 0; n < nWriterThreads; n++) {
+                    SCSequence subSeq = new SCSequence(writerWaitStrategy);
+                    fanOut.and(subSeq);
+                    WriterJob writerJob = new WriterJob(n, queue, subSeq);
+                    writerJobs.add(writerJob);
+                    writerWorkerPool.assign(n, writerJob);
+                    writerWorkerPool.assign(n, writerJob::close);
+                }
+                pubSeq.then(fanOut).then(pubSeq);
+            } else {
+                SCSequence subSeq = new SCSequence(writerWaitStrategy);
+                pubSeq.then(subSeq).then(pubSeq);
+                WriterJob writerJob = new WriterJob(0, queue, subSeq);
+                writerJobs.add(writerJob);
+                writerWorkerPool.assign(0, writerJob);
+                writerWorkerPool.assign(0, writerJob::close);
+            }
         }
 
         nUpdatesPerLoadRebalance = lineConfiguration.getNUpdatesPerLoadRebalance();
         maxLoadRatio = lineConfiguration.getMaxLoadRatio();
         maxUncommittedRows = lineConfiguration.getMaxUncommittedRows();
         maintenanceJobHysteresisInMs = lineConfiguration.getMaintenanceJobHysteresisInMs();
+        metrics = cairoConfiguration.getMetrics();
+        queueDepthMetric = metrics.getRegistry().newVirtualGauge(
+                "questdb_line_tcp_queue_depth",
+                "Measurements queued for ILP TCP writer threads",
+                this::getQueueDepth
+        );
     }
 
     @Override
     public void close() {
         // Both the writer and the net worker pools must have been closed so that their respective cleaners have run
         if (null != pubSeq) {
+            metrics.getRegistry().remove(queueDepthMetric);
             pubSeq = null;
             tableUpdateDetailsByTableName.clear();
-            for (int n = 0; n < queue.getCapacity(); n++) {
-                queue.get(n).close();
+            if (sharded) {
+                for (int i = 0, n = shardQueues.size(); i < n; i++) {
+                    closeQueue(shardQueues.getQuick(i));
+                }
+            } else {
+                closeQueue(queue);
             }
         }
     }
 
+    private static void closeQueue(RingQueue<LineTcpMeasurementEvent> queue) {
+        for (int n = 0; n < queue.getCapacity(); n++) {
+            queue.get(n).close();
+        }
+    }
+
+    private static RingQueue<LineTcpMeasurementEvent> createQueue(LineTcpReceiverConfiguration lineConfiguration, int queueSize) {
+        final int maxMeasurementSize = lineConfiguration.getMaxMeasurementSize();
+        return new RingQueue<>(
+                () -> new LineTcpMeasurementEvent(
+                        maxMeasurementSize,
+                        lineConfiguration.getMicrosecondClock(),
+                        lineConfiguration.getTimestampAdapter()
+                ),
+                queueSize
+        );
+    }
+
+    // Hashes the measurement name at the start of the line without parsing it. Escaped characters are
+    // hashed without their escape byte, so that the hash depends only on the table name. When the
+    // name is not terminated within the buffer the line is incomplete and the hash does not matter
+    static int measurementNameHash(long lo, long hi) {
+        int h = 0;
+        long p = lo;
+        while (p < hi) {
+            byte b = Unsafe.getUnsafe().getByte(p++);
+            switch (b) {
+                case ',':
+                case ' ':
+                case '\n':
+                case '\r':
+                    return h;
+                case '\\':
+                    if (p == hi) {
+                        return h;
+                    }
+                    b = Unsafe.getUnsafe().getByte(p++);
+                    // fall through
+                default:
+                    h = 31 * h + b;
+                    break;
+            }
+        }
+        return h;
+    }
+
     @NotNull
     private TableUpdateDetails assignTableToThread(LineTcpMeasurementEvent event, int keyIndex) {
         TableUpdateDetails tableUpdateDetails;
@@ -163,6 +251,10 @@ class LineTcpMeasurementScheduler implements Closeable {
     }
 
     void commitNewEvent(LineTcpMeasurementEvent event, boolean success) {
+        if (sharded) {
+            commitShardEvent(event, success);
+            return;
+        }
         assert isOpen() && nextEventCursor != -1 && queue.get(nextEventCursor) == event;
 
         final TableUpdateDetails tableUpdateDetails;
@@ -193,6 +285,14 @@ class LineTcpMeasurementScheduler implements Closeable {
         nextEventCursor = -1;
     }
 
+    private void commitShardEvent(LineTcpMeasurementEvent event, boolean success) {
+        assert isOpen() && event.shardCursor != -1 && shardQueues.getQuick(event.shardId).get(event.shardCursor) == event;
+        final long cursor = event.shardCursor;
+        event.threadId = success ? event.shardId : INCOMPLETE_EVENT_ID;
+        event.shardCursor = -1;
+        shardPubSeqs.getQuick(event.shardId).done(cursor);
+    }
+
     int[] getLoadByThread() {
         return loadByThread;
     }
@@ -205,6 +305,25 @@ class LineTcpMeasurementScheduler implements Closeable {
         return nRebalances;
     }
 
+    // Number of events published but not yet consumed. Without sharding every writer thread sees
+    // every event, so the queue is as deep as its slowest consumer.
+    private long getQueueDepth() {
+        long depth = 0;
+        if (sharded) {
+            for (int i = 0, n = writerJobs.size(); i < n; i++) {
+                depth += shardPubSeqs.getQuick(i).current() - writerJobs.getQuick(i).sequence.current();
+            }
+        } else {
+            final Sequence pubSeq = this.pubSeq;
+            if (pubSeq != null) {
+                for (int i = 0, n = writerJobs.size(); i < n; i++) {
+                    depth = Math.max(depth, pubSeq.current() - writerJobs.getQuick(i).sequence.current());
+                }
+            }
+        }
+        return depth;
+    }
+
     LineTcpMeasurementEvent getNewEvent() {
         assert isOpen();
         if (nextEventCursor != -1 || (nextEventCursor = pubSeq.next()) > -1) {
@@ -223,6 +342,35 @@ class LineTcpMeasurementScheduler implements Closeable {
         return queue.get(nextEventCursor);
     }
 
+    // Claims a queue slot for the line starting at lo. In sharded mode this is safe to call from
+    // multiple IO threads concurrently, the slot is released by commitNewEvent()
+    LineTcpMeasurementEvent getNewEvent(long lo, long hi) {
+        if (!sharded) {
+            return getNewEvent();
+        }
+
+        assert isOpen();
+        final int shardId = (measurementNameHash(lo, hi) & Integer.MAX_VALUE) % shardQueues.size();
+        final MPSequence shardPubSeq = shardPubSeqs.getQuick(shardId);
+        long cursor;
+        while ((cursor = shardPubSeq.next()) == -2) {
+            // another IO thread won the slot, try again
+        }
+
+        if (cursor < 0) {
+            return null;
+        }
+
+        final LineTcpMeasurementEvent event = shardQueues.getQuick(shardId).get(cursor);
+        event.shardId = shardId;
+        event.shardCursor = cursor;
+        return event;
+    }
+
+    boolean isSharded() {
+        return sharded;
+    }
+
     private boolean isOpen() {
         return null != pubSeq;
     }
@@ -310,6 +458,7 @@ class LineTcpMeasurementScheduler implements Closeable {
                     .$(", toThreadId=").$(toThreadId)
                     .$(']').$();
 
+            metrics.getLineTcpRebalances().inc();
             commitRebalanceEvent(event, fromThreadId, toThreadId, tableNameToMove);
             TableUpdateDetails stats = tableUpdateDetailsByTableName.get(tableNameToMove);
             stats.threadId = toThreadId;
@@ -329,6 +478,8 @@ class LineTcpMeasurementScheduler implements Closeable {
         private int errorCode;
         private int threadId;
         private long timestamp;
+        private int shardId;
+        private long shardCursor = -1;
 
         private int rebalanceFromThreadId;
         private int rebalanceToThreadId;
@@ -488,6 +639,7 @@ class LineTcpMeasurementScheduler implements Closeable {
 
     private class WriterJob implements Job {
         private final int id;
+        private final RingQueue<LineTcpMeasurementEvent> queue;
         private final Sequence sequence;
         private final CharSequenceObjHashMap<Parser> parserCache = new CharSequenceObjHashMap<>();
         private final AppendMemory appendMemory = new AppendMemory();
@@ -496,9 +648,10 @@ class LineTcpMeasurementScheduler implements Closeable {
         private final String jobName;
         private long lastMaintenanceJobMillis = 0;
 
-        private WriterJob(int id, Sequence sequence) {
+        private WriterJob(int id, RingQueue<LineTcpMeasurementEvent> queue, Sequence sequence) {
             super();
             this.id = id;
+            this.queue = queue;
             this.sequence = sequence;
             this.jobName = "tcp-line-writer-" + id;
         }
@@ -633,6 +786,7 @@ class LineTcpMeasurementScheduler implements Closeable {
             private final IntList colTypes = new IntList();
             private final IntList colIndexMappings = new IntList();
             private TableWriter writer;
+            private Counter rowCounter;
             private int nUncommitted = 0;
 
             private transient int nMeasurementValues;
@@ -694,6 +848,7 @@ class LineTcpMeasurementScheduler implements Closeable {
                     }
                     return;
                 }
+                rowCounter.inc();
                 nUncommitted++;
                 if (nUncommitted > maxUncommittedRows) {
                     commit();
@@ -726,7 +881,8 @@ class LineTcpMeasurementScheduler implements Closeable {
                     } else {
                         final int tableColType = metadata.getColumnType(colIndex);
                         if (tableColType != colType) {
-                            if (colType == ColumnType.LONG && ALLOWED_LONG_CONVERSIONS.contains(tableColType)) {
+                            if ((colType == ColumnType.LONG && ALLOWED_LONG_CONVERSIONS.contains(tableColType))
+                                    || (colType == ColumnType.STRING && tableColType == ColumnType.VARCHAR)) {
                                 colTypes.setQuick(n, tableColType);
                             } else {
                                 LOG.error().$("mismatched column and value types [table=").$(writer.getName())
@@ -773,6 +929,7 @@ class LineTcpMeasurementScheduler implements Closeable {
             private void processFirstEvent(CairoEngine engine, CairoSecurityContext securityContext, LineTcpMeasurementEvent event) {
                 sqlExecutionContext.storeTelemetry(Telemetry.SYSTEM_ILP_RESERVE_WRITER, Telemetry.ORIGIN_ILP_TCP);
                 assert null == writer;
+                rowCounter = metrics.getLineTcpRows().getChild(event.getTableName());
                 int status = engine.getStatus(securityContext, path, event.getTableName(), 0, event.getTableName().length());
                 if (status == TableUtils.TABLE_EXISTS) {
                     writer = engine.getWriter(securityContext, event.getTableName());
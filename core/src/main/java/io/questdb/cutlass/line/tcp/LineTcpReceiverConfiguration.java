@@ -64,6 +64,8 @@ public interface LineTcpReceiverConfiguration {
     int getMaxUncommittedRows();
 
     long getMaintenanceJobHysteresisInMs();
+
+    boolean isShardedWriterQueue();
     
     String getAuthDbPath();
 }
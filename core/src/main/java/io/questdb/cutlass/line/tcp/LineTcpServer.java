@@ -31,6 +31,7 @@ import io.questdb.cairo.CairoEngine;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.EagerThreadSetup;
+import io.questdb.mp.Job;
 import io.questdb.mp.SynchronizedJob;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.*;
@@ -61,32 +62,21 @@ public class LineTcpServer implements Closeable {
         );
         workerPool.assign(dispatcher);
         scheduler = new LineTcpMeasurementScheduler(lineConfiguration, engine, workerPool, messageBus);
-        workerPool.assign(new SynchronizedJob() {
-            // Context blocked on LineTcpMeasurementScheduler queue
-            private LineTcpConnectionContext busyContext;
-            private final IORequestProcessor<LineTcpConnectionContext> onRequest = this::onRequest;
-
-            private void onRequest(int operation, LineTcpConnectionContext context) {
-                assert busyContext == null;
-                if (handleIO(context)) {
-                    busyContext = context;
-                }
+        if (scheduler.isSharded()) {
+            // Scheduler accepts measurements from any number of threads, each worker handles its own connections
+            for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
+                final IOJob ioJob = new IOJob();
+                workerPool.assign(i, ioJob);
             }
-
-            @Override
-            protected boolean runSerially() {
-                if (null == busyContext) {
-                    return dispatcher.processIOQueue(onRequest);
-                }
-
-                if (!handleIO(busyContext)) {
-                    busyContext = null;
-                    return true;
+        } else {
+            final IOJob ioJob = new IOJob();
+            workerPool.assign(new SynchronizedJob() {
+                @Override
+                protected boolean runSerially() {
+                    return ioJob.processIOQueue();
                 }
-
-                return false;
-            }
-        });
+            });
+        }
 
         final Closeable cleaner = contextFactory::closeContextPool;
         for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
@@ -156,6 +146,37 @@ public class LineTcpServer implements Closeable {
         return false;
     }
 
+    private class IOJob implements Job {
+        private final IORequestProcessor<LineTcpConnectionContext> onRequest = this::onRequest;
+        // Context blocked on LineTcpMeasurementScheduler queue
+        private LineTcpConnectionContext busyContext;
+
+        private void onRequest(int operation, LineTcpConnectionContext context) {
+            assert busyContext == null;
+            if (handleIO(context)) {
+                busyContext = context;
+            }
+        }
+
+        @Override
+        public boolean run(int workerId) {
+            return processIOQueue();
+        }
+
+        private boolean processIOQueue() {
+            if (null == busyContext) {
+                return dispatcher.processIOQueue(onRequest);
+            }
+
+            if (!handleIO(busyContext)) {
+                busyContext = null;
+                return true;
+            }
+
+            return false;
+        }
+    }
+
     private class LineTcpConnectionContextFactory implements IOContextFactory<LineTcpConnectionContext>, Closeable, EagerThreadSetup {
         private final ThreadLocal<WeakObjectPool<LineTcpConnectionContext>> contextPool;
         private boolean closed = false;
@@ -345,8 +345,8 @@ public class CairoLineProtoParser implements LineProtoParser, Closeable {
     }
 
     private void parseValue(CachedCharSequence value, int valueType, CharSequenceCache cache) {
-        if (columnType == valueType) {
-            columnIndexAndType.add(Numbers.encodeLowHighInts(columnIndex, valueType));
+        if (columnType == valueType || (columnType == ColumnType.VARCHAR && valueType == ColumnType.STRING)) {
+            columnIndexAndType.add(Numbers.encodeLowHighInts(columnIndex, columnType));
             columnValues.add(value.getCacheAddress());
         } else {
             possibleNewColumn(value, valueType, cache);
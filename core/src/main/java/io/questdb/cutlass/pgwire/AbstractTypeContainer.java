@@ -42,7 +42,9 @@ public abstract class AbstractTypeContainer<T extends CleanClosable> implements
     @Override
     public void close() {
         getTypes().clear();
-        this.parentPool.push((T) this);
+        if (parentPool != null) {
+            this.parentPool.push((T) this);
+        }
     }
 
     public void defineBindVariables(BindVariableService bindVariableService) throws SqlException {
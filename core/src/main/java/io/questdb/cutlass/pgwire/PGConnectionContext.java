@@ -30,6 +30,7 @@ import io.questdb.cairo.*;
 import io.questdb.cairo.pool.WriterSource;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.*;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
 import io.questdb.cutlass.text.TextLoader;
 import io.questdb.cutlass.text.types.TypeManager;
 import io.questdb.griffin.*;
@@ -83,11 +84,26 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     private static final byte MESSAGE_TYPE_CLOSE_COMPLETE = '3';
     private static final byte MESSAGE_TYPE_NO_DATA = 'n';
     private static final byte MESSAGE_TYPE_COPY_IN_RESPONSE = 'G';
+    private static final byte MESSAGE_TYPE_COPY_OUT_RESPONSE = 'H';
+    private static final byte MESSAGE_TYPE_COPY_DATA = 'd';
+    private static final byte MESSAGE_TYPE_COPY_DONE = 'c';
+    // CopyData message is not started unless there is room for its header and some data
+    private static final int COPY_DATA_MIN_SIZE = 64;
+    // signature that starts binary COPY stream: "PGCOPY\n\377\r\n\0"
+    private static final byte[] COPY_BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final short NUMERIC_POS = 0x0000;
+    private static final int NUMERIC_NBASE = 10000;
+    // 2^256 has 78 decimal digits, which is 20 base 10000 digits
+    private static final int LONG256_MAX_NUMERIC_DIGITS = 20;
     private static final int NO_TRANSACTION = 0;
     private static final int IN_TRANSACTION = 1;
     private static final int COMMIT_TRANSACTION = 2;
     private static final int ERROR_TRANSACTION = 3;
     private static final int ROLLING_BACK_TRANSACTION = 4;
+    // "copy ... to stdout" progress, stream is resumed from here when client is slow to read
+    private static final int COPY_OUT_NONE = 0;
+    private static final int COPY_OUT_ROWS = 1;
+    private static final int COPY_OUT_DONE = 2;
     private final long recvBuffer;
     private final long sendBuffer;
     private final int recvBufferSize;
@@ -117,6 +133,8 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     private final AssociativeCache<TypesAndInsert> typesAndInsertCache;
     private final CharSequenceObjHashMap<NamedStatementWrapper> namedStatementMap;
     private final IntList syncActions = new IntList(4);
+    private final int[] long256Words = new int[8];
+    private final short[] numericDigits = new short[LONG256_MAX_NUMERIC_DIGITS];
     private IntList activeSelectColumnTypes;
     private int parsePhaseBindVariableCount;
     private long sendBufferPtr;
@@ -133,6 +151,16 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     // served to client or query errored out due to network issues
     private TypesAndSelect typesAndSelect = null;
     private TypesAndInsert typesAndInsert = null;
+    // factory of "copy ... to stdout", it is not cached and freed as soon as data is sent
+    private RecordCursorFactory copyOutFactory = null;
+    private boolean copyOutArrow = false;
+    private ArrowStreamWriter arrowStreamWriter;
+    private PageFrameCursor copyOutPageFrameCursor = null;
+    private int copyOutState = COPY_OUT_NONE;
+    // row is taken from cursor, but is not in send buffer yet
+    private boolean copyOutRowPending = false;
+    // simple query protocol expects ReadyForQuery as soon as stream is done
+    private boolean copyOutReadyForQuery = false;
     private long fd;
     private CharSequence queryText;
     private CharSequence queryTag;
@@ -144,8 +172,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     private boolean isEmptyQuery;
     private int transactionState = NO_TRANSACTION;
     private NamedStatementWrapper wrapper;
-    private AssociativeCache<TypesAndSelect> typesAndSelectCache;
-    private WeakAutoClosableObjectPool<TypesAndSelect> typesAndSelectPool;
+    private ConcurrentAssociativeCache<TypesAndSelect> typesAndSelectCache;
     // this is a reference to types either from the context or named statement, where it is provided
     private IntList activeBindVariableTypes;
     private boolean sendParameterDescription;
@@ -291,6 +318,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         Unsafe.free(recvBuffer, recvBufferSize);
         Misc.free(path);
         Misc.free(utf8Sink);
+        arrowStreamWriter = Misc.free(arrowStreamWriter);
     }
 
     @Override
@@ -310,19 +338,27 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
 
     public void handleClientOperation(
             @Transient SqlCompiler compiler,
-            @Transient AssociativeCache<TypesAndSelect> selectAndTypesCache,
-            @Transient WeakAutoClosableObjectPool<TypesAndSelect> selectAndTypesPool,
+            @Transient ConcurrentAssociativeCache<TypesAndSelect> selectAndTypesCache,
             int operation
     ) throws PeerDisconnectedException, PeerIsSlowToReadException, PeerIsSlowToWriteException, BadProtocolException {
 
         this.typesAndSelectCache = selectAndTypesCache;
-        this.typesAndSelectPool = selectAndTypesPool;
 
         if (bufferRemainingSize > 0) {
             doSend(bufferRemainingOffset, bufferRemainingSize);
         }
 
         try {
+            if (copyOutState != COPY_OUT_NONE) {
+                // simple query that started the stream did not get to finish its response
+                final boolean readyForQuery = copyOutReadyForQuery;
+                resumeCopyOut();
+                if (readyForQuery) {
+                    prepareReadyForQuery();
+                    sendAndReset();
+                }
+            }
+
             boolean keepReceiving = true;
             OUTER:
             do {
@@ -331,6 +367,8 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                         keepReceiving = false;
                     }
                 }
+                // once pending output is sent and buffered input is parsed we wait for more input
+                operation = IOOperation.READ;
 
                 // we do not pre-compute length because 'parse' will mutate 'recvBufferReadOffset'
                 if (keepReceiving) {
@@ -534,6 +572,11 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         responseAsciiSink.put(record.getBool(columnIndex) ? 't' : 'f');
     }
 
+    private void appendBooleanColumnBin(Record record, int columnIndex) {
+        responseAsciiSink.putNetworkInt(Byte.BYTES);
+        responseAsciiSink.put(record.getBool(columnIndex) ? (byte) 1 : (byte) 0);
+    }
+
     private void appendByteColumn(Record record, int columnIndex) {
         long a = responseAsciiSink.skip();
         responseAsciiSink.put((int) record.getByte(columnIndex));
@@ -564,7 +607,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     }
 
     private void appendDateColumnBin(Record record, int columnIndex) {
-        final long longValue = record.getLong(columnIndex);
+        final long longValue = record.getDate(columnIndex);
         if (longValue != Numbers.LONG_NaN) {
             responseAsciiSink.putNetworkInt(Long.BYTES);
             // PG epoch starts at 2000 rather than 1970
@@ -646,6 +689,66 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         responseAsciiSink.putLenEx(a);
     }
 
+    private void appendLong256ColumnBin(Record record, int columnIndex) {
+        final Long256 long256Value = record.getLong256A(columnIndex);
+        final long l0 = long256Value.getLong0();
+        final long l1 = long256Value.getLong1();
+        final long l2 = long256Value.getLong2();
+        final long l3 = long256Value.getLong3();
+        if (l0 == Numbers.LONG_NaN && l1 == Numbers.LONG_NaN && l2 == Numbers.LONG_NaN && l3 == Numbers.LONG_NaN) {
+            responseAsciiSink.setNullValue();
+            return;
+        }
+
+        // NUMERIC is sent as base 10000 digits, most significant first. Long256 is unsigned, we
+        // split it into 32-bit words (least significant first) and divide by 10000 until nothing is left
+        final int[] words = long256Words;
+        words[0] = (int) l0;
+        words[1] = (int) (l0 >>> 32);
+        words[2] = (int) l1;
+        words[3] = (int) (l1 >>> 32);
+        words[4] = (int) l2;
+        words[5] = (int) (l2 >>> 32);
+        words[6] = (int) l3;
+        words[7] = (int) (l3 >>> 32);
+
+        int top = words.length - 1;
+        while (top > -1 && words[top] == 0) {
+            top--;
+        }
+
+        int digitCount = 0;
+        while (top > -1) {
+            long remainder = 0;
+            for (int i = top; i > -1; i--) {
+                final long value = (remainder << 32) | (words[i] & 0xffffffffL);
+                words[i] = (int) (value / NUMERIC_NBASE);
+                remainder = value % NUMERIC_NBASE;
+            }
+            numericDigits[digitCount++] = (short) remainder;
+            while (top > -1 && words[top] == 0) {
+                top--;
+            }
+        }
+
+        // weight is the power of 10000 of the first digit, trailing zero digits are implied by it
+        final short weight = (short) (digitCount - 1);
+        int lo = 0;
+        while (lo < digitCount && numericDigits[lo] == 0) {
+            lo++;
+        }
+        final int n = digitCount - lo;
+
+        responseAsciiSink.putNetworkInt(4 * Short.BYTES + n * Short.BYTES);
+        responseAsciiSink.putNetworkShort((short) n);
+        responseAsciiSink.putNetworkShort(n == 0 ? 0 : weight);
+        responseAsciiSink.putNetworkShort(NUMERIC_POS);
+        responseAsciiSink.putNetworkShort((short) 0); // display scale
+        for (int i = digitCount - 1; i >= lo; i--) {
+            responseAsciiSink.putNetworkShort(numericDigits[i]);
+        }
+    }
+
     private void appendLongColumn(Record record, int columnIndex) {
         final long longValue = record.getLong(columnIndex);
         if (longValue != Numbers.LONG_NaN) {
@@ -667,8 +770,9 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         }
     }
 
-    private void appendRecord(Record record, int columnCount) throws SqlException {
-        responseAsciiSink.put(MESSAGE_TYPE_DATA_ROW); // data
+    private void appendRecord(byte messageType, Record record, int columnCount) throws SqlException {
+        // DataRow and binary COPY tuple share the layout, field count followed by length prefixed values
+        responseAsciiSink.put(messageType);
         final long offset = responseAsciiSink.skip();
         responseAsciiSink.putNetworkShort((short) columnCount);
         for (int i = 0; i < columnCount; i++) {
@@ -681,6 +785,8 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                     break;
                 case ColumnType.STRING:
                 case BINARY_TYPE_STRING:
+                case ColumnType.VARCHAR:
+                case BINARY_TYPE_VARCHAR:
                     appendStrColumn(record, i);
                     break;
                 case ColumnType.SYMBOL:
@@ -727,9 +833,11 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                     appendDateColumn(record, i);
                     break;
                 case ColumnType.BOOLEAN:
-                case BINARY_TYPE_BOOLEAN:
                     appendBooleanColumn(record, i);
                     break;
+                case BINARY_TYPE_BOOLEAN:
+                    appendBooleanColumnBin(record, i);
+                    break;
                 case ColumnType.BYTE:
                     appendByteColumn(record, i);
                     break;
@@ -742,9 +850,11 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                     appendCharColumn(record, i);
                     break;
                 case ColumnType.LONG256:
-                case BINARY_TYPE_LONG256:
                     appendLong256Column(record, i);
                     break;
+                case BINARY_TYPE_LONG256:
+                    appendLong256ColumnBin(record, i);
+                    break;
                 default:
                     assert false;
             }
@@ -799,7 +909,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     }
 
     private void appendTimestampColumnBin(Record record, int columnIndex) {
-        final long longValue = record.getLong(columnIndex);
+        final long longValue = record.getTimestamp(columnIndex);
         if (longValue == Numbers.LONG_NaN) {
             responseAsciiSink.setNullValue();
         } else {
@@ -906,6 +1016,19 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         }
     }
 
+    private void clearCopyOut() {
+        if (arrowStreamWriter != null) {
+            arrowStreamWriter.clear();
+        }
+        copyOutPageFrameCursor = Misc.free(copyOutPageFrameCursor);
+        currentCursor = Misc.free(currentCursor);
+        copyOutFactory = Misc.free(copyOutFactory);
+        copyOutArrow = false;
+        copyOutRowPending = false;
+        copyOutReadyForQuery = false;
+        copyOutState = COPY_OUT_NONE;
+    }
+
     void clearRecvBuffer() {
         recvBufferWriteOffset = 0;
         recvBufferReadOffset = 0;
@@ -944,7 +1067,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
 
             switch (cc.getType()) {
                 case CompiledQuery.SELECT:
-                    typesAndSelect = typesAndSelectPool.pop();
+                    typesAndSelect = new TypesAndSelect();
                     typesAndSelect.of(cc.getRecordCursorFactory(), bindVariableService);
                     queryTag = TAG_SELECT;
                     LOG.debug().$("cache select [sql=").$(queryText).$(", thread=").$(Thread.currentThread().getId()).$(']').$();
@@ -964,6 +1087,17 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                     queryTag = TAG_COPY;
                     sendCopyInResponse(compiler.getEngine(), cc.getTextLoader());
                     break;
+                case CompiledQuery.COPY_OUT:
+                    // uncached
+                    queryTag = TAG_COPY;
+                    copyOutFactory = cc.getRecordCursorFactory();
+                    break;
+                case CompiledQuery.COPY_OUT_ARROW:
+                    // uncached
+                    queryTag = TAG_COPY;
+                    copyOutFactory = cc.getRecordCursorFactory();
+                    copyOutArrow = true;
+                    break;
                 case CompiledQuery.SET:
                     configureContextForSet();
                     break;
@@ -1342,12 +1476,18 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         LOG.error().$("error [pos=").$(position).$(", msg=`").$(message).$("`]").$();
     }
 
+    private void invalidateTypesAndSelect() {
+        // drop all pooled instances of the factory along with the one we hold
+        typesAndSelectCache.remove(queryText);
+        typesAndSelect = Misc.free(typesAndSelect);
+    }
+
     private void prepareForNewQuery() {
         LOG.debug().$("prepare for new query").$();
         isEmptyQuery = false;
         characterStore.clear();
         bindVariableService.clear();
-        currentCursor = Misc.free(currentCursor);
+        clearCopyOut();
         typesAndInsert = null;
         rowCount = 0;
         queryTag = TAG_OK;
@@ -1637,13 +1777,23 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
     private void processExecute() throws PeerDisconnectedException, PeerIsSlowToReadException, SqlException {
         if (typesAndSelect != null) {
             LOG.debug().$("executing query").$();
-            currentCursor = typesAndSelect.getFactory().getCursor(sqlExecutionContext);
+            try {
+                currentCursor = typesAndSelect.getFactory().getCursor(sqlExecutionContext);
+            } catch (ReaderOutOfDateException e) {
+                // client has already been given row description of the cached factory,
+                // it has to prepare statement again
+                invalidateTypesAndSelect();
+                throw CairoException.instance(0).put("table structure has changed, statement must be prepared again");
+            }
             // cache random if it was replaced
             this.rnd = sqlExecutionContext.getRandom();
             sendCursor();
         } else if (typesAndInsert != null) {
             LOG.debug().$("executing insert").$();
             executeInsert();
+        } else if (copyOutFactory != null) {
+            LOG.debug().$("executing copy out").$();
+            sendCopyOut();
         } else { //this must be a OK/SET/COMMIT/ROLLBACK or empty query
             executeTag();
             prepareCommandComplete(false);
@@ -1799,11 +1949,22 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
             buildSelectColumnTypes();
             assert queryText != null;
             queryTag = TAG_SELECT;
-            currentCursor = typesAndSelect.getFactory().getCursor(sqlExecutionContext);
+            try {
+                currentCursor = typesAndSelect.getFactory().getCursor(sqlExecutionContext);
+            } catch (ReaderOutOfDateException e) {
+                // cached factory was compiled against previous table structure
+                invalidateTypesAndSelect();
+                compileQuery(compiler);
+                buildSelectColumnTypes();
+                currentCursor = typesAndSelect.getFactory().getCursor(sqlExecutionContext);
+            }
             prepareRowDescription();
             sendCursor();
         } else if (typesAndInsert != null) {
             executeInsert();
+        } else if (copyOutFactory != null) {
+            copyOutReadyForQuery = true;
+            sendCopyOut();
         } else {
             executeTag();
             prepareCommandComplete(false);
@@ -1875,6 +2036,44 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         clearRecvBuffer();
     }
 
+    /**
+     * Streams rows of "copy ... to stdout" until stream is done. When client is slow to read, cursor and
+     * Arrow writer are kept and this method carries on from the same place after pending data is sent.
+     * Cursor and factory are freed once stream is done or has failed.
+     */
+    private void resumeCopyOut() throws PeerDisconnectedException, PeerIsSlowToReadException, SqlException {
+        try {
+            if (copyOutState == COPY_OUT_ROWS) {
+                if (copyOutArrow) {
+                    sendCopyOutArrowData();
+                } else {
+                    sendCopyOutBinaryRows();
+                }
+                copyOutState = COPY_OUT_DONE;
+            }
+
+            if (sendBufferLimit - sendBufferPtr < COPY_DATA_MIN_SIZE) {
+                sendAndReset();
+            }
+            if (!copyOutArrow) {
+                // file trailer
+                responseAsciiSink.put(MESSAGE_TYPE_COPY_DATA);
+                final long addr = responseAsciiSink.skip();
+                responseAsciiSink.putNetworkShort((short) -1);
+                responseAsciiSink.putLen(addr);
+            }
+            responseAsciiSink.put(MESSAGE_TYPE_COPY_DONE);
+            responseAsciiSink.putIntDirect(INT_BYTES_X);
+            prepareCommandComplete(true);
+        } catch (PeerIsSlowToReadException e) {
+            throw e;
+        } catch (Throwable e) {
+            clearCopyOut();
+            throw e;
+        }
+        clearCopyOut();
+    }
+
     private void sendAndReset() throws PeerDisconnectedException, PeerIsSlowToReadException {
         doSend(0, (int) (sendBufferPtr - sendBuffer));
         responseAsciiSink.reset();
@@ -1905,6 +2104,98 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
         sendAndReset();
     }
 
+    private void sendCopyOut() throws PeerDisconnectedException, PeerIsSlowToReadException, SqlException {
+        final RecordMetadata metadata = copyOutFactory.getMetadata();
+        final int columnCount = metadata.getColumnCount();
+
+        // every column is sent in binary format, Arrow stream is opaque to the client and is announced as binary too
+        responseAsciiSink.put(MESSAGE_TYPE_COPY_OUT_RESPONSE);
+        long addr = responseAsciiSink.skip();
+        responseAsciiSink.put((byte) 1); // BINARY
+        responseAsciiSink.putNetworkShort((short) columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            responseAsciiSink.putNetworkShort((short) 1);
+        }
+        responseAsciiSink.putLen(addr);
+
+        rowCount = 0;
+        copyOutRowPending = false;
+        copyOutState = COPY_OUT_ROWS;
+        try {
+            if (copyOutArrow) {
+                if (arrowStreamWriter == null) {
+                    arrowStreamWriter = new ArrowStreamWriter();
+                }
+                copyOutPageFrameCursor = ArrowStreamWriter.getPageFrameCursor(copyOutFactory, sqlExecutionContext);
+                if (copyOutPageFrameCursor != null) {
+                    arrowStreamWriter.of(metadata, copyOutPageFrameCursor);
+                } else {
+                    currentCursor = copyOutFactory.getCursor(sqlExecutionContext);
+                    arrowStreamWriter.of(metadata, currentCursor, 0, Long.MAX_VALUE);
+                }
+            } else {
+                activeSelectColumnTypes = selectColumnTypes;
+                activeSelectColumnTypes.setPos(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    activeSelectColumnTypes.setQuick(i, toColumnBinaryType((short) 1, metadata.getColumnType(i)));
+                }
+
+                // file header: signature, flags and header extension length
+                responseAsciiSink.put(MESSAGE_TYPE_COPY_DATA);
+                addr = responseAsciiSink.skip();
+                for (int i = 0, n = COPY_BINARY_SIGNATURE.length; i < n; i++) {
+                    responseAsciiSink.put(COPY_BINARY_SIGNATURE[i]);
+                }
+                responseAsciiSink.putIntDirect(0);
+                responseAsciiSink.putIntDirect(0);
+                responseAsciiSink.putLen(addr);
+
+                currentCursor = copyOutFactory.getCursor(sqlExecutionContext);
+            }
+        } catch (Throwable e) {
+            clearCopyOut();
+            throw e;
+        }
+        resumeCopyOut();
+    }
+
+    private void sendCopyOutArrowData() throws PeerDisconnectedException, PeerIsSlowToReadException {
+        while (!arrowStreamWriter.isDone()) {
+            if (sendBufferLimit - sendBufferPtr < COPY_DATA_MIN_SIZE) {
+                sendAndReset();
+            }
+            responseAsciiSink.put(MESSAGE_TYPE_COPY_DATA);
+            final long addr = responseAsciiSink.skip();
+            // writer remembers how far it got, keep a byte in reserve, same as the rest of response sink does
+            sendBufferPtr += arrowStreamWriter.drain(sendBufferPtr, sendBufferLimit - 1);
+            responseAsciiSink.putLen(addr);
+        }
+        rowCount = arrowStreamWriter.getRowCount();
+    }
+
+    private void sendCopyOutBinaryRows() throws PeerDisconnectedException, PeerIsSlowToReadException, SqlException {
+        final Record record = currentCursor.getRecord();
+        final int columnCount = activeSelectColumnTypes.size();
+        while (copyOutRowPending || currentCursor.hasNext()) {
+            copyOutRowPending = true;
+            responseAsciiSink.bookmark();
+            try {
+                try {
+                    appendRecord(MESSAGE_TYPE_COPY_DATA, record, columnCount);
+                } catch (NoSpaceLeftInResponseBufferException e) {
+                    responseAsciiSink.resetToBookmark();
+                    sendAndReset();
+                    appendRecord(MESSAGE_TYPE_COPY_DATA, record, columnCount);
+                }
+            } catch (SqlException e) {
+                responseAsciiSink.resetToBookmark();
+                throw e;
+            }
+            copyOutRowPending = false;
+            rowCount++;
+        }
+    }
+
     private void sendCursor() throws PeerDisconnectedException, PeerIsSlowToReadException, SqlException {
         // the assumption for now is that any  will fit into response buffer. This of course precludes us from
         // streaming large BLOBs, but, and its a big one, PostgreSQL protocol for DataRow does not allow for
@@ -1923,13 +2214,13 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                 responseAsciiSink.bookmark();
                 try {
                     try {
-                        appendRecord(record, columnCount);
+                        appendRecord(MESSAGE_TYPE_DATA_ROW, record, columnCount);
                         rowCount++;
                     } catch (NoSpaceLeftInResponseBufferException e) {
                         responseAsciiSink.resetToBookmark();
                         sendAndReset();
                         // this is now start of send buffer, when this fails we need to log and disconnect
-                        appendRecord(record, columnCount);
+                        appendRecord(MESSAGE_TYPE_DATA_ROW, record, columnCount);
                     }
                 } catch (SqlException e) {
                     responseAsciiSink.resetToBookmark();
@@ -1937,7 +2228,7 @@ public class PGConnectionContext implements IOContext, Mutable, WriterSource {
                 }
             }
         } finally {
-            typesAndSelectCache.put(queryText, typesAndSelect);
+            typesAndSelectCache.push(queryText, typesAndSelect);
             // clear selectAndTypes so that context doesn't accidentally
             // free the factory when context finishes abnormally
             this.typesAndSelect = null;
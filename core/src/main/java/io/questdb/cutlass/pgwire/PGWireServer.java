@@ -30,11 +30,15 @@ import io.questdb.cairo.CairoEngine;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.Scrapable;
 import io.questdb.mp.EagerThreadSetup;
 import io.questdb.mp.Job;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.*;
+import io.questdb.std.ConcurrentAssociativeCache;
 import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
 import io.questdb.std.ThreadLocal;
 import io.questdb.std.WeakObjectPool;
 import org.jetbrains.annotations.Nullable;
@@ -46,6 +50,9 @@ public class PGWireServer implements Closeable {
     private final IODispatcher<PGConnectionContext> dispatcher;
     private final PGConnectionContextFactory contextFactory;
     private final WorkerPool workerPool;
+    private final ConcurrentAssociativeCache<TypesAndSelect> selectAndTypesCache;
+    private final MetricsRegistry metricsRegistry;
+    private final ObjList<Scrapable> serverMetrics = new ObjList<>();
 
     public PGWireServer(
             PGWireConfiguration configuration,
@@ -63,8 +70,14 @@ public class PGWireServer implements Closeable {
 
         workerPool.assign(dispatcher);
 
+        // compiled select factories are shared by all workers and connections
+        this.selectAndTypesCache = new ConcurrentAssociativeCache<>(
+                configuration.getFactoryCacheColumnCount(),
+                configuration.getFactoryCacheRowCount()
+        );
+
         for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
-            final PGJobContext jobContext = new PGJobContext(configuration, engine, messageBus, functionFactoryCache);
+            final PGJobContext jobContext = new PGJobContext(engine, messageBus, functionFactoryCache, selectAndTypesCache);
             workerPool.assign(i, new Job() {
                 private final IORequestProcessor<PGConnectionContext> processor = (operation, context) -> {
                     try {
@@ -98,6 +111,11 @@ public class PGWireServer implements Closeable {
         } else {
             this.workerPool = null;
         }
+
+        this.metricsRegistry = engine.getConfiguration().getMetrics().getRegistry();
+        serverMetrics.add(metricsRegistry.newVirtualGauge("questdb_pg_connections", "Open PostgreSQL wire protocol connections", dispatcher::getConnectionCount));
+        serverMetrics.add(metricsRegistry.newVirtualCounter("questdb_pg_query_cache_hits_total", "PostgreSQL wire protocol queries served from the compiled query cache", selectAndTypesCache::getHitCount));
+        serverMetrics.add(metricsRegistry.newVirtualCounter("questdb_pg_query_cache_misses_total", "PostgreSQL wire protocol queries compiled because the query cache had no factory", selectAndTypesCache::getMissCount));
     }
 
     @Nullable
@@ -124,8 +142,13 @@ public class PGWireServer implements Closeable {
         if (workerPool != null) {
             workerPool.halt();
         }
+        for (int i = 0, n = serverMetrics.size(); i < n; i++) {
+            metricsRegistry.remove(serverMetrics.getQuick(i));
+        }
+        serverMetrics.clear();
         Misc.free(contextFactory);
         Misc.free(dispatcher);
+        Misc.free(selectAndTypesCache);
     }
 
     private static class PGConnectionContextFactory implements IOContextFactory<PGConnectionContext>, Closeable, EagerThreadSetup {
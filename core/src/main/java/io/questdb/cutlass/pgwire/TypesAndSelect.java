@@ -27,13 +27,14 @@ package io.questdb.cutlass.pgwire;
 import io.questdb.cairo.sql.BindVariableService;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.std.Misc;
-import io.questdb.std.WeakAutoClosableObjectPool;
 
 public class TypesAndSelect extends AbstractTypeContainer<TypesAndSelect> {
     private RecordCursorFactory factory;
 
-    public TypesAndSelect(WeakAutoClosableObjectPool<TypesAndSelect> parentPool) {
-        super(parentPool);
+    // select factories are shared between workers via query cache and can be
+    // released on any thread, therefore they are not pooled
+    public TypesAndSelect() {
+        super(null);
     }
 
     @Override
@@ -203,6 +203,26 @@ public class CairoTextWriter implements Closeable, Mutable {
         }
     }
 
+    int getAtomicity() {
+        return atomicity;
+    }
+
+    TimestampAdapter getTimestampAdapter() {
+        return timestampAdapter;
+    }
+
+    int getTimestampIndex() {
+        return timestampIndex;
+    }
+
+    ObjList<TypeAdapter> getTypes() {
+        return types;
+    }
+
+    TableWriter getWriter() {
+        return writer;
+    }
+
     private void createTable(
             ObjList<CharSequence> names,
             ObjList<TypeAdapter> detectedTypes,
@@ -0,0 +1,335 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.text;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cutlass.text.types.TimestampAdapter;
+import io.questdb.cutlass.text.types.TypeAdapter;
+import io.questdb.cutlass.text.types.TypeManager;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.log.LogRecord;
+import io.questdb.std.*;
+import io.questdb.std.str.DirectByteCharSequence;
+import io.questdb.std.str.DirectCharSink;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+/**
+ * Fragment of text that starts and ends at line boundary. Chunk is parsed by its own lexer
+ * and type adapters into rows kept in memory. Rows are appended to the destination table by
+ * the thread that owns the import, strictly in the order chunks appear in the text. Chunk is
+ * evaluated exactly once, either by a worker that picked it from the queue or by the importing
+ * thread when it gets to merge the chunk.
+ */
+public class TextImportChunk implements Closeable {
+    static final int STATE_PENDING = 0;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_DONE = 2;
+    private static final Log LOG = LogFactory.getLog(TextImportChunk.class);
+    private static final long STATE_OFFSET;
+    private final DirectCharSink utf8Sink;
+    private final TypeManager typeManager;
+    private final TextLexer lexer;
+    private final ObjList<TypeAdapter> types = new ObjList<>();
+    private final LongList columnErrorCounts = new LongList();
+    private final StringSink errorMessage = new StringSink();
+    private final long capacity;
+    private final TextImportRows rows;
+    private final TextLexer.Listener nonPartitionedListener = this::onFieldsNonPartitioned;
+    private final TextLexer.Listener partitionedListener = this::onFieldsPartitioned;
+    private long address;
+    private long size;
+    private CharSequence tableName;
+    private TimestampAdapter timestampAdapter;
+    private int timestampIndex;
+    private int atomicity;
+    private byte columnDelimiter;
+    private int fieldCount;
+    private boolean last;
+    private long lineCount;
+    private long errorLineCount;
+    private boolean error;
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int state = STATE_DONE;
+
+    public TextImportChunk(CairoConfiguration configuration) {
+        final TextConfiguration textConfiguration = configuration.getTextConfiguration();
+        this.capacity = configuration.getParallelTextImportChunkSize();
+        this.rows = new TextImportRows(capacity);
+        this.utf8Sink = new DirectCharSink(textConfiguration.getUtf8SinkSize());
+        this.typeManager = new TypeManager(textConfiguration, utf8Sink);
+        this.lexer = new TextLexer(textConfiguration, typeManager);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(rows);
+        if (address != 0) {
+            Unsafe.free(address, capacity);
+            address = 0;
+        }
+        size = 0;
+        Misc.free(lexer);
+        Misc.free(utf8Sink);
+    }
+
+    public boolean run() {
+        if (tryLock()) {
+            evaluate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Attempts to cancel chunk, which is still sitting in the queue. Chunk that is being
+     * parsed by another thread cannot be cancelled and must be awaited.
+     *
+     * @return true when chunk will not be parsed
+     */
+    boolean cancel() {
+        if (tryLock()) {
+            state = STATE_DONE;
+            return true;
+        }
+        return state == STATE_DONE;
+    }
+
+    long getErrorLineCount() {
+        return errorLineCount;
+    }
+
+    CharSequence getErrorMessage() {
+        return errorMessage;
+    }
+
+    long getLineCount() {
+        return lineCount;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    boolean hasError() {
+        return error;
+    }
+
+    boolean isDone() {
+        return state == STATE_DONE;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Appends parsed rows to destination table and releases chunk for the next fragment of text.
+     *
+     * @param target                  writer of destination table
+     * @param targetColumnErrorCounts per column error counts of the whole import
+     */
+    void merge(TableWriter target, LongList targetColumnErrorCounts) {
+        rows.appendTo(target, timestampIndex);
+        for (int i = 0, n = columnErrorCounts.size(); i < n; i++) {
+            targetColumnErrorCounts.setQuick(i, targetColumnErrorCounts.getQuick(i) + columnErrorCounts.getQuick(i));
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves bytes that follow the last line break of this chunk to the start of the next chunk,
+     * so that lines are not split between chunks.
+     *
+     * @param next chunk that is going to be filled after this one
+     * @throws CairoException when chunk has no line break, i.e. line is longer than chunk
+     */
+    void moveTail(TextImportChunk next) {
+        long p = address + size - 1;
+        while (p >= address && Unsafe.getUnsafe().getByte(p) != '\n') {
+            p--;
+        }
+
+        if (p < address) {
+            throw CairoException.instance(0).put("line is longer than import chunk [table=").put(tableName).put(", chunkSize=").put(capacity).put(']');
+        }
+
+        final long tail = address + size - p - 1;
+        if (tail > 0) {
+            next.put(p + 1, p + 1 + tail);
+            size -= tail;
+        }
+    }
+
+    void of(
+            CharSequence tableName,
+            RecordMetadata metadata,
+            ObjList<TypeAdapter> types,
+            TimestampAdapter timestampAdapter,
+            int timestampIndex,
+            int atomicity,
+            byte columnDelimiter,
+            int fieldCount,
+            boolean skipLinesWithExtraValues
+    ) {
+        this.tableName = tableName;
+        this.rows.of(metadata);
+        this.typeManager.clear();
+        this.types.clear();
+        for (int i = 0, n = types.size(); i < n; i++) {
+            this.types.add(types.getQuick(i).bind(typeManager));
+        }
+        this.timestampAdapter = timestampAdapter;
+        this.timestampIndex = timestampAdapter != null ? timestampIndex : -1;
+        this.atomicity = atomicity;
+        this.columnDelimiter = columnDelimiter;
+        this.fieldCount = fieldCount;
+        this.columnErrorCounts.seed(metadata.getColumnCount(), 0);
+        this.lexer.setSkipLinesWithExtraValues(skipLinesWithExtraValues);
+        this.lexer.setTableName(tableName);
+    }
+
+    long put(long lo, long hi) {
+        if (address == 0) {
+            address = Unsafe.malloc(capacity);
+        }
+        final long len = Math.min(hi - lo, capacity - size);
+        Unsafe.getUnsafe().copyMemory(lo, address + size, len);
+        size += len;
+        return len;
+    }
+
+    void schedule(boolean last) {
+        this.last = last;
+        this.lineCount = 0;
+        this.errorLineCount = 0;
+        this.error = false;
+        this.errorMessage.clear();
+        this.columnErrorCounts.zero(0);
+        // volatile write publishes the fields above to the thread that locks the chunk
+        this.state = STATE_PENDING;
+    }
+
+    private void evaluate() {
+        try {
+            lexer.of(columnDelimiter, fieldCount);
+            lexer.parse(address, address + size, Integer.MAX_VALUE, timestampAdapter != null ? partitionedListener : nonPartitionedListener);
+            if (last) {
+                lexer.parseLast();
+            }
+        } catch (Throwable e) {
+            error = true;
+            if (e instanceof FlyweightMessageContainer) {
+                errorMessage.put(((FlyweightMessageContainer) e).getFlyweightMessage());
+            } else {
+                errorMessage.put(e.toString());
+            }
+            LOG.error().$("could not parse chunk [table=").$(tableName).$(", e=").$(e).$(']').$();
+            rows.clear();
+        } finally {
+            lineCount = lexer.getLineCount();
+            errorLineCount = lexer.getErrorCount();
+            state = STATE_DONE;
+        }
+    }
+
+    private void logError(long line, int i, DirectByteCharSequence dbcs) {
+        LogRecord logRecord = LOG.error().$("type syntax [type=").$(ColumnType.nameOf(types.getQuick(i).getType())).$("]\n\t");
+        logRecord.$('[').$(line).$(':').$(i).$("] -> ").$(dbcs).$();
+        columnErrorCounts.increment(i);
+    }
+
+    private void onFieldsNonPartitioned(long line, ObjList<DirectByteCharSequence> values, int valuesLength) {
+        final TableWriter.Row w = rows.newRow(Numbers.LONG_NaN);
+        for (int i = 0; i < valuesLength; i++) {
+            final DirectByteCharSequence dbcs = values.getQuick(i);
+            if (dbcs.length() == 0) {
+                continue;
+            }
+            try {
+                types.getQuick(i).write(w, i, dbcs);
+            } catch (Exception ignore) {
+                logError(line, i, dbcs);
+                switch (atomicity) {
+                    case Atomicity.SKIP_ALL:
+                        throw CairoException.instance(0).put("bad syntax [line=").put(line).put(", col=").put(i).put(']');
+                    case Atomicity.SKIP_ROW:
+                        w.cancel();
+                        return;
+                    default:
+                        // SKIP column
+                        break;
+                }
+            }
+        }
+        w.append();
+    }
+
+    private void onFieldsPartitioned(long line, ObjList<DirectByteCharSequence> values, int valuesLength) {
+        final int timestampIndex = this.timestampIndex;
+        DirectByteCharSequence dbcs = values.getQuick(timestampIndex);
+        try {
+            final TableWriter.Row w = rows.newRow(timestampAdapter.getTimestamp(dbcs));
+            for (int i = 0; i < valuesLength; i++) {
+                dbcs = values.getQuick(i);
+                if (i == timestampIndex || dbcs.length() == 0) {
+                    continue;
+                }
+                try {
+                    types.getQuick(i).write(w, i, dbcs);
+                } catch (Exception ignore) {
+                    logError(line, i, dbcs);
+                    switch (atomicity) {
+                        case Atomicity.SKIP_ALL:
+                            throw CairoException.instance(0).put("bad syntax [line=").put(line).put(", col=").put(i).put(']');
+                        case Atomicity.SKIP_ROW:
+                            w.cancel();
+                            return;
+                        default:
+                            // SKIP column
+                            break;
+                    }
+                }
+            }
+            w.append();
+        } catch (NumericException e) {
+            logError(line, timestampIndex, dbcs);
+        }
+    }
+
+    private boolean tryLock() {
+        return Unsafe.cas(this, STATE_OFFSET, STATE_PENDING, STATE_RUNNING);
+    }
+
+    static {
+        STATE_OFFSET = Unsafe.getFieldOffset(TextImportChunk.class, "state");
+    }
+}
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.text;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.VirtualMemory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.IntList;
+import io.questdb.std.Long256;
+import io.questdb.std.Mutable;
+import io.questdb.std.str.SingleCharCharSequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+/**
+ * Rows of import chunk, parsed but not yet appended to the destination table. Values are
+ * kept in memory in their binary form, each row is a timestamp followed by index and
+ * value of every column that is not null and terminated by -1. Rows are handed over to
+ * writer of destination table in the order they were parsed.
+ */
+class TextImportRows implements TableWriter.Row, Closeable, Mutable {
+    private static final int END_OF_ROW = -1;
+    private final VirtualMemory mem;
+    private final IntList columnTypes = new IntList();
+    private long rowOffset;
+
+    TextImportRows(long pageSize) {
+        this.mem = new VirtualMemory(pageSize, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void append() {
+        mem.putInt(END_OF_ROW);
+    }
+
+    @Override
+    public void cancel() {
+        mem.jumpTo(rowOffset);
+    }
+
+    @Override
+    public void clear() {
+        mem.clear();
+    }
+
+    @Override
+    public void close() {
+        mem.close();
+    }
+
+    @Override
+    public void putBin(int index, long address, long len) {
+        mem.putInt(index);
+        mem.putBin(address, len);
+    }
+
+    @Override
+    public void putBin(int index, BinarySequence sequence) {
+        mem.putInt(index);
+        mem.putBin(sequence);
+    }
+
+    @Override
+    public void putBool(int index, boolean value) {
+        mem.putInt(index);
+        mem.putBool(value);
+    }
+
+    @Override
+    public void putByte(int index, byte value) {
+        mem.putInt(index);
+        mem.putByte(value);
+    }
+
+    @Override
+    public void putChar(int index, char value) {
+        mem.putInt(index);
+        mem.putChar(value);
+    }
+
+    @Override
+    public void putDate(int index, long value) {
+        putLong(index, value);
+    }
+
+    @Override
+    public void putDouble(int index, double value) {
+        mem.putInt(index);
+        mem.putDouble(value);
+    }
+
+    @Override
+    public void putFloat(int index, float value) {
+        mem.putInt(index);
+        mem.putFloat(value);
+    }
+
+    @Override
+    public void putInt(int index, int value) {
+        mem.putInt(index);
+        mem.putInt(value);
+    }
+
+    @Override
+    public void putLong(int index, long value) {
+        mem.putInt(index);
+        mem.putLong(value);
+    }
+
+    @Override
+    public void putLong256(int index, long l0, long l1, long l2, long l3) {
+        mem.putInt(index);
+        mem.putLong256(l0, l1, l2, l3);
+    }
+
+    @Override
+    public void putLong256(int index, Long256 value) {
+        mem.putInt(index);
+        mem.putLong256(value);
+    }
+
+    @Override
+    public void putLong256(int index, CharSequence hexString) {
+        mem.putInt(index);
+        mem.putLong256(hexString);
+    }
+
+    @Override
+    public void putLong256(int index, @NotNull CharSequence hexString, int start, int end) {
+        mem.putInt(index);
+        mem.putLong256(hexString, start, end);
+    }
+
+    @Override
+    public void putShort(int index, short value) {
+        mem.putInt(index);
+        mem.putShort(value);
+    }
+
+    @Override
+    public void putStr(int index, CharSequence value) {
+        mem.putInt(index);
+        mem.putStr(value);
+    }
+
+    @Override
+    public void putStr(int index, char value) {
+        mem.putInt(index);
+        mem.putStr(value);
+    }
+
+    @Override
+    public void putStr(int index, CharSequence value, int pos, int len) {
+        mem.putInt(index);
+        mem.putStr(value, pos, len);
+    }
+
+    @Override
+    public void putSym(int index, CharSequence value) {
+        putStr(index, value);
+    }
+
+    @Override
+    public void putSym(int index, char value) {
+        putStr(index, value);
+    }
+
+    @Override
+    public void putTimestamp(int index, long value) {
+        putLong(index, value);
+    }
+
+    @Override
+    public void putVarchar(int index, CharSequence value) {
+        putStr(index, value);
+    }
+
+    @Override
+    public void putVarchar(int index, char value) {
+        putStr(index, value != 0 ? SingleCharCharSequence.get(value) : null);
+    }
+
+    @Override
+    public void putVarchar(int index, CharSequence value, int pos, int len) {
+        putStr(index, value, pos, len);
+    }
+
+    TableWriter.Row newRow(long timestamp) {
+        rowOffset = mem.getAppendOffset();
+        mem.putLong(timestamp);
+        return this;
+    }
+
+    void of(RecordMetadata metadata) {
+        columnTypes.clear();
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            columnTypes.add(metadata.getColumnType(i));
+        }
+        mem.clear();
+    }
+
+    /**
+     * Appends rows to destination table and empties this buffer.
+     *
+     * @param writer         writer of destination table
+     * @param timestampIndex index of designated timestamp or -1 when rows are not timestamped
+     */
+    void appendTo(TableWriter writer, int timestampIndex) {
+        final long hi = mem.getAppendOffset();
+        long offset = 0;
+        while (offset < hi) {
+            final TableWriter.Row row;
+            if (timestampIndex > -1) {
+                row = writer.newRow(mem.getLong(offset));
+            } else {
+                row = writer.newRow();
+            }
+            offset += Long.BYTES;
+
+            int index;
+            while ((index = mem.getInt(offset)) != END_OF_ROW) {
+                offset = appendValue(row, index, offset + Integer.BYTES);
+            }
+            offset += Integer.BYTES;
+            row.append();
+        }
+        mem.clear();
+    }
+
+    private long appendValue(TableWriter.Row row, int index, long offset) {
+        final int columnType = columnTypes.getQuick(index);
+        switch (columnType) {
+            case ColumnType.BOOLEAN:
+                row.putBool(index, mem.getBool(offset));
+                return offset + Byte.BYTES;
+            case ColumnType.BYTE:
+                row.putByte(index, mem.getByte(offset));
+                return offset + Byte.BYTES;
+            case ColumnType.SHORT:
+                row.putShort(index, mem.getShort(offset));
+                return offset + Short.BYTES;
+            case ColumnType.CHAR:
+                row.putChar(index, mem.getChar(offset));
+                return offset + Character.BYTES;
+            case ColumnType.INT:
+                row.putInt(index, mem.getInt(offset));
+                return offset + Integer.BYTES;
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+                row.putLong(index, mem.getLong(offset));
+                return offset + Long.BYTES;
+            case ColumnType.FLOAT:
+                row.putFloat(index, mem.getFloat(offset));
+                return offset + Float.BYTES;
+            case ColumnType.DOUBLE:
+                row.putDouble(index, mem.getDouble(offset));
+                return offset + Double.BYTES;
+            case ColumnType.LONG256:
+                row.putLong256(index, mem.getLong256A(offset));
+                return offset + Long256.BYTES;
+            case ColumnType.STRING:
+                row.putStr(index, mem.getStr(offset));
+                return skipStr(offset);
+            case ColumnType.SYMBOL:
+                row.putSym(index, mem.getStr(offset));
+                return skipStr(offset);
+            case ColumnType.VARCHAR:
+                row.putVarchar(index, mem.getStr(offset));
+                return skipStr(offset);
+            case ColumnType.BINARY: {
+                final long len = mem.getBinLen(offset);
+                row.putBin(index, mem.getBin(offset));
+                return offset + Long.BYTES + Math.max(len, 0);
+            }
+            default:
+                throw CairoException.instance(0).put("cannot import text into ").put(ColumnType.nameOf(columnType)).put(" column [index=").put(index).put(']');
+        }
+    }
+
+    private long skipStr(long offset) {
+        final int len = mem.getStrLen(offset);
+        return offset + Integer.BYTES + (len > 0 ? len * 2L : 0);
+    }
+}
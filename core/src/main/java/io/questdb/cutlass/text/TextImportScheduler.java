@@ -0,0 +1,201 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.text;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+import io.questdb.tasks.TextImportTask;
+
+import java.io.Closeable;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Splits text of the data phase of an import into chunks at line boundaries and publishes
+ * chunks to worker threads. Workers parse chunks into rows kept in memory, rows are handed over
+ * to the destination table in the order chunks were cut from the text, which keeps the import
+ * result identical to that of the sequential import.
+ */
+class TextImportScheduler implements Closeable, Mutable {
+    private static final Log LOG = LogFactory.getLog(TextImportScheduler.class);
+    private final CairoConfiguration configuration;
+    private final RingQueue<TextImportTask> queue;
+    private final Sequence pubSeq;
+    private final ObjList<TextImportChunk> chunks = new ObjList<>();
+    private final int chunkCount;
+    private CairoTextWriter textWriter;
+    // sequence of the oldest chunk that has not been merged yet
+    private long chunkLo;
+    // sequence of the chunk being filled
+    private long chunkHi;
+    private long parsedLineCount;
+    private long errorLineCount;
+
+    TextImportScheduler(CairoEngine engine) {
+        final MessageBus messageBus = engine.getMessageBus();
+        this.configuration = engine.getConfiguration();
+        this.queue = messageBus.getTextImportQueue();
+        this.pubSeq = messageBus.getTextImportPubSequence();
+        this.chunkCount = configuration.getParallelTextImportChunkCount();
+    }
+
+    @Override
+    public void clear() {
+        // chunks in flight are owned by workers, we cannot free
+        // chunk memory until workers are done with these chunks
+        for (long seq = chunkLo; seq < chunkHi; seq++) {
+            final TextImportChunk chunk = chunkAt(seq);
+            while (!chunk.cancel()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+
+        Misc.freeObjList(chunks);
+        chunks.clear();
+        chunkLo = 0;
+        chunkHi = 0;
+        parsedLineCount = 0;
+        errorLineCount = 0;
+        textWriter = null;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    long getErrorLineCount() {
+        return errorLineCount;
+    }
+
+    long getParsedLineCount() {
+        return parsedLineCount;
+    }
+
+    boolean isActive() {
+        return chunks.size() > 0;
+    }
+
+    /**
+     * Allocates chunks and binds them to the destination table.
+     *
+     * @param textWriter writer of destination table, prepared by structure analysis
+     * @param lexer      lexer that analysed the structure and parsed the first line of data
+     */
+    void of(CairoTextWriter textWriter, TextLexer lexer) {
+        assert chunks.size() == 0;
+        this.textWriter = textWriter;
+        for (int i = 0; i < chunkCount; i++) {
+            final TextImportChunk chunk = new TextImportChunk(configuration);
+            chunks.add(chunk);
+            chunk.of(
+                    textWriter.getTableName(),
+                    textWriter.getMetadata(),
+                    textWriter.getTypes(),
+                    textWriter.getTimestampAdapter(),
+                    textWriter.getTimestampIndex(),
+                    textWriter.getAtomicity(),
+                    lexer.getColumnDelimiter(),
+                    lexer.getFieldCount(),
+                    lexer.isSkipLinesWithExtraValues()
+            );
+        }
+        LOG.info().$("parallel import [table=`").$(textWriter.getTableName()).$("`, chunks=").$(chunkCount).$(']').$();
+    }
+
+    void parse(long lo, long hi) {
+        while (lo < hi) {
+            final TextImportChunk chunk = chunkAt(chunkHi);
+            lo += chunk.put(lo, hi);
+            if (chunk.isFull()) {
+                dispatch(chunk, false);
+            }
+        }
+    }
+
+    void wrapUp() {
+        final TextImportChunk chunk = chunkAt(chunkHi);
+        if (chunk.getSize() > 0) {
+            dispatch(chunk, true);
+        }
+        while (chunkLo < chunkHi) {
+            mergeOldest();
+        }
+    }
+
+    private TextImportChunk chunkAt(long seq) {
+        return chunks.getQuick((int) (seq % chunkCount));
+    }
+
+    private void dispatch(TextImportChunk chunk, boolean last) {
+        if (!last) {
+            // chunk that follows must be free before the tail of
+            // the last line can be carried over to it
+            if (chunkHi + 1 - chunkLo == chunkCount) {
+                mergeOldest();
+            }
+            try {
+                chunk.moveTail(chunkAt(chunkHi + 1));
+            } catch (CairoException e) {
+                textWriter.getWriter().rollback();
+                throw e;
+            }
+        }
+        chunk.schedule(last);
+        chunkHi++;
+
+        // when queue is full we do not publish, chunk will be parsed by this thread when it gets to merge it
+        final long seq = pubSeq.next();
+        if (seq > -1) {
+            queue.get(seq).chunk = chunk;
+            pubSeq.done(seq);
+        }
+    }
+
+    private void mergeOldest() {
+        final TextImportChunk chunk = chunkAt(chunkLo++);
+        if (!chunk.run()) {
+            while (!chunk.isDone()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+
+        parsedLineCount += chunk.getLineCount();
+        errorLineCount += chunk.getErrorLineCount();
+        if (chunk.hasError()) {
+            textWriter.getWriter().rollback();
+            throw CairoException.instance(0).put(chunk.getErrorMessage());
+        }
+        chunk.merge(textWriter.getWriter(), textWriter.getColumnErrorCounts());
+    }
+}
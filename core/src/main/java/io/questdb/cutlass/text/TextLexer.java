@@ -66,6 +66,7 @@ public class TextLexer implements Closeable, Mutable {
     private long fieldLo;
     private long fieldHi;
     private boolean skipLinesWithExtraValues;
+    private boolean fixedFieldCount;
 
     public TextLexer(TextConfiguration textConfiguration, TypeManager typeManager) {
         this.metadataDetector = new TextMetadataDetector(typeManager, textConfiguration);
@@ -161,6 +162,7 @@ public class TextLexer implements Closeable, Mutable {
         this.useLineRollBuf = false;
         this.rollBufferUnusable = false;
         this.header = header;
+        this.fixedFieldCount = false;
         fields.clear();
         csPool.clear();
     }
@@ -215,6 +217,30 @@ public class TextLexer implements Closeable, Mutable {
         }
     }
 
+    /**
+     * Prepares lexer to parse a fragment of text that follows already parsed lines. Field
+     * count is fixed upfront instead of being taken from the first line of the fragment,
+     * so that lines with extra values are treated the same way in every fragment.
+     *
+     * @param columnDelimiter column delimiter
+     * @param fieldCount      number of fields established by the lexer that parsed the first line
+     */
+    void of(byte columnDelimiter, int fieldCount) {
+        of(columnDelimiter);
+        for (int i = 0; i < fieldCount; i++) {
+            addField();
+        }
+        this.fixedFieldCount = true;
+    }
+
+    byte getColumnDelimiter() {
+        return columnDelimiter;
+    }
+
+    int getFieldCount() {
+        return fieldMax + 1;
+    }
+
     ObjList<CharSequence> getColumnNames() {
         return metadataDetector.getColumnNames();
     }
@@ -401,7 +427,7 @@ public class TextLexer implements Closeable, Mutable {
     }
 
     private void stashField(int fieldIndex) {
-        if (lineCount == 0 && fieldIndex >= fields.size()) {
+        if (lineCount == 0 && !fixedFieldCount && fieldIndex >= fields.size()) {
             addField();
         }
 
@@ -37,6 +37,7 @@ import io.questdb.std.LongList;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
 import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
 import io.questdb.std.str.DirectCharSink;
 import io.questdb.std.str.Path;
 
@@ -57,6 +58,8 @@ public class TextLoader implements Closeable, Mutable {
     private final DirectCharSink utf8Sink;
     private final TypeManager typeManager;
     private final ObjList<ParserMethod> parseMethods = new ObjList<>();
+    private final TextImportScheduler importScheduler;
+    private final boolean parallelImportEnabled;
     private int state;
     private boolean forceHeaders = false;
     private byte columnDelimiter = -1;
@@ -78,10 +81,13 @@ public class TextLoader implements Closeable, Mutable {
         parseMethods.extendAndSet(ANALYZE_STRUCTURE, this::parseStructure);
         parseMethods.extendAndSet(LOAD_DATA, this::parseData);
         textLexer.setSkipLinesWithExtraValues(true);
+        importScheduler = new TextImportScheduler(engine);
+        parallelImportEnabled = engine.getConfiguration().isParallelTextImportEnabled();
     }
 
     @Override
     public void clear() {
+        importScheduler.clear();
         textWriter.clear();
         textLexer.clear();
         textMetadataParser.clear();
@@ -93,6 +99,7 @@ public class TextLoader implements Closeable, Mutable {
 
     @Override
     public void close() {
+        Misc.free(importScheduler);
         Misc.free(textWriter);
         Misc.free(textLexer);
         Misc.free(textMetadataParser);
@@ -140,11 +147,11 @@ public class TextLoader implements Closeable, Mutable {
     }
 
     public long getParsedLineCount() {
-        return textLexer.getLineCount();
+        return textLexer.getLineCount() + importScheduler.getParsedLineCount();
     }
 
     public long getErrorLineCount() {
-        return textLexer.getErrorCount();
+        return textLexer.getErrorCount() + importScheduler.getErrorLineCount();
     }
 
     public int getPartitionBy() {
@@ -205,6 +212,9 @@ public class TextLoader implements Closeable, Mutable {
             case ANALYZE_STRUCTURE:
             case LOAD_DATA:
                 textLexer.parseLast();
+                if (importScheduler.isActive()) {
+                    importScheduler.wrapUp();
+                }
                 textWriter.commit();
                 break;
             default:
@@ -213,7 +223,26 @@ public class TextLoader implements Closeable, Mutable {
     }
 
     private void parseData(long lo, long hi, CairoSecurityContext cairoSecurityContext) {
-        textLexer.parse(lo, hi, Integer.MAX_VALUE, textWriter.getTextListener());
+        if (importScheduler.isActive()) {
+            importScheduler.parse(lo, hi);
+        } else if (parallelImportEnabled && textLexer.getFieldCount() > 0) {
+            // lexer that analysed structure finishes the line it has started,
+            // so that text is handed over to the scheduler at the line boundary
+            long p = lo;
+            while (p < hi && Unsafe.getUnsafe().getByte(p) != '\n') {
+                p++;
+            }
+
+            if (p < hi) {
+                textLexer.parse(lo, ++p, Integer.MAX_VALUE, textWriter.getTextListener());
+                importScheduler.of(textWriter, textLexer);
+                importScheduler.parse(p, hi);
+            } else {
+                textLexer.parse(lo, hi, Integer.MAX_VALUE, textWriter.getTextListener());
+            }
+        } else {
+            textLexer.parse(lo, hi, Integer.MAX_VALUE, textWriter.getTextListener());
+        }
     }
 
     private void parseJsonMetadata(long lo, long hi, CairoSecurityContext cairoSecurityContext) throws TextException {
@@ -43,6 +43,11 @@ public class DateUtf8Adapter extends AbstractTypeAdapter implements Mutable {
         this.utf8Sink = utf8Sink;
     }
 
+    @Override
+    public TypeAdapter bind(TypeManager typeManager) {
+        return typeManager.nextDateAdapter().of(format, locale);
+    }
+
     @Override
     public void clear() {
         this.format = null;
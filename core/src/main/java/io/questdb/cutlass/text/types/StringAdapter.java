@@ -38,6 +38,11 @@ public class StringAdapter extends AbstractTypeAdapter {
         this.utf8Sink = utf8Sink;
     }
 
+    @Override
+    public TypeAdapter bind(TypeManager typeManager) {
+        return typeManager.getTypeAdapter(ColumnType.STRING);
+    }
+
     @Override
     public int getType() {
         return ColumnType.STRING;
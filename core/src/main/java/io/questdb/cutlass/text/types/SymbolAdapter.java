@@ -38,6 +38,11 @@ public class SymbolAdapter extends AbstractTypeAdapter {
         this.utf8Sink = utf8Sink;
     }
 
+    @Override
+    public TypeAdapter bind(TypeManager typeManager) {
+        return typeManager.getTypeAdapter(ColumnType.SYMBOL);
+    }
+
     @Override
     public int getType() {
         return ColumnType.SYMBOL;
@@ -28,6 +28,19 @@ import io.questdb.cairo.TableWriter;
 import io.questdb.std.str.DirectByteCharSequence;
 
 public interface TypeAdapter {
+
+    /**
+     * Returns adapter equivalent to this one that is safe to use alongside adapters of the given
+     * type manager. Adapters that decode UTF8 into shared sink must not be used by two threads at
+     * the same time, stateless adapters return themselves.
+     *
+     * @param typeManager type manager owned by the thread that is going to use the adapter
+     * @return adapter instance
+     */
+    default TypeAdapter bind(TypeManager typeManager) {
+        return this;
+    }
+
     int getType();
 
     boolean probe(CharSequence text);
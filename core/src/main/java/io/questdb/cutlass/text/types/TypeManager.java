@@ -39,6 +39,7 @@ public class TypeManager implements Mutable {
     private final ObjList<TypeAdapter> probes = new ObjList<>();
     private final int probeCount;
     private final StringAdapter stringAdapter;
+    private final VarcharAdapter varcharAdapter;
     private final ObjectPool<DateUtf8Adapter> dateAdapterPool;
     private final ObjectPool<TimestampUtf8Adapter> timestampUtf8AdapterPool;
     private final ObjectPool<TimestampAdapter> timestampAdapterPool;
@@ -54,6 +55,7 @@ public class TypeManager implements Mutable {
         this.timestampAdapterPool = new ObjectPool<>(TimestampAdapter::new, configuration.getTimestampAdapterPoolCapacity());
         this.inputFormatConfiguration = configuration.getInputFormatConfiguration();
         this.stringAdapter = new StringAdapter(utf8Sink);
+        this.varcharAdapter = new VarcharAdapter(utf8Sink);
         this.symbolAdapter = new SymbolAdapter(utf8Sink);
         addDefaultProbes();
 
@@ -120,6 +122,8 @@ public class TypeManager implements Mutable {
                 return DoubleAdapter.INSTANCE;
             case ColumnType.STRING:
                 return stringAdapter;
+            case ColumnType.VARCHAR:
+                return varcharAdapter;
             case ColumnType.SYMBOL:
                 return symbolAdapter;
             case ColumnType.LONG256:
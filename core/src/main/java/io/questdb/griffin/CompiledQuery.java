@@ -42,6 +42,8 @@ public interface CompiledQuery {
     short COPY_REMOTE = 11;
     short RENAME_TABLE = 12;
     short BACKUP_TABLE = 13;
+    short COPY_OUT = 14;
+    short COPY_OUT_ARROW = 15;
 
     RecordCursorFactory getRecordCursorFactory();
 
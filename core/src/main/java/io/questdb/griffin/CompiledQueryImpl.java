@@ -81,6 +81,10 @@ public class CompiledQueryImpl implements CompiledQuery {
         return of(COPY_REMOTE);
     }
 
+    CompiledQuery ofCopyOut(RecordCursorFactory factory, boolean arrowFormat) {
+        return of(arrowFormat ? COPY_OUT_ARROW : COPY_OUT, factory);
+    }
+
     CompiledQuery ofCreateTable() {
         return of(CREATE_TABLE);
     }
@@ -323,7 +323,7 @@ class ExpressionParser {
                                     // validate type
                                     final int columnType = ColumnType.columnTypeOf(node.token);
 
-                                    if ((columnType < 0 || columnType > ColumnType.LONG256) && !asPoppedNull) {
+                                    if ((columnType < 0 || columnType > ColumnType.LONG256 && columnType != ColumnType.VARCHAR) && !asPoppedNull) {
                                         throw SqlException.$(node.position, "invalid type");
                                     }
 
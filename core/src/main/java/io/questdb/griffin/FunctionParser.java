@@ -93,6 +93,7 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor {
             case ColumnType.DOUBLE:
                 return new DoubleColumn(position, index);
             case ColumnType.STRING:
+            case ColumnType.VARCHAR:
                 return new StrColumn(position, index);
             case ColumnType.SYMBOL:
                 return new SymbolColumn(position, index, metadata.isSymbolTableStatic(index));
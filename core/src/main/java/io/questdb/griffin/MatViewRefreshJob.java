@@ -0,0 +1,114 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.pool.ex.EntryLockedException;
+import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Sinkable;
+import io.questdb.std.str.Path;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Refreshes materialized views whose base tables have been committed to since their last refresh.
+ * Views that fail to refresh are suspended until next commit to their base table.
+ */
+public class MatViewRefreshJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(MatViewRefreshJob.class);
+    private final CairoEngine engine;
+    private final MatViewRegistry registry;
+    private final SqlCompiler compiler;
+    private final SqlExecutionContextImpl sqlExecutionContext;
+    private final ObjList<MatViewDefinition> views = new ObjList<>();
+    private final Path path = new Path();
+
+    public MatViewRefreshJob(CairoEngine engine) {
+        this(engine, null);
+    }
+
+    public MatViewRefreshJob(CairoEngine engine, @Nullable FunctionFactoryCache functionFactoryCache) {
+        this.engine = engine;
+        this.registry = engine.getMatViewRegistry();
+        this.compiler = new SqlCompiler(engine, engine.getMessageBus(), functionFactoryCache);
+        this.sqlExecutionContext = new SqlExecutionContextImpl(engine, 1, engine.getMessageBus());
+        this.sqlExecutionContext.with(
+                AllowAllCairoSecurityContext.INSTANCE,
+                new BindVariableServiceImpl(engine.getConfiguration()),
+                null
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.free(compiler);
+        Misc.free(path);
+    }
+
+    @Override
+    protected boolean runSerially() {
+        views.clear();
+        registry.getViews(views);
+        boolean useful = false;
+        for (int i = 0, n = views.size(); i < n; i++) {
+            final MatViewDefinition view = views.getQuick(i);
+            final long refreshLo = registry.takeRefreshLo(view);
+            if (refreshLo != Long.MAX_VALUE) {
+                useful |= refresh(view, refreshLo);
+            }
+        }
+        return useful;
+    }
+
+    private boolean refresh(MatViewDefinition view, long refreshLo) {
+        try {
+            compiler.refreshMatView(view, refreshLo, sqlExecutionContext);
+            return true;
+        } catch (EntryUnavailableException | EntryLockedException e) {
+            // view or base table is busy, try again later
+            registry.scheduleRefresh(view, refreshLo);
+        } catch (CairoException | SqlException e) {
+            if (engine.getStatus(AllowAllCairoSecurityContext.INSTANCE, path, view.getViewName()) == TableUtils.TABLE_DOES_NOT_EXIST) {
+                LOG.info().$("materialized view table is gone [view=").$(view.getViewName()).$(']').$();
+                registry.remove(view.getViewName());
+                return false;
+            }
+            LOG.error().$("could not refresh materialized view [view=").$(view.getViewName())
+                    .$(", error=").$((Sinkable) e)
+                    .$(']').$();
+            registry.scheduleRefresh(view, refreshLo);
+            registry.suspend(view);
+        }
+        return false;
+    }
+}
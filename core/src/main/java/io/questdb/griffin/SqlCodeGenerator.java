@@ -35,11 +35,15 @@ import io.questdb.griffin.engine.analytic.AnalyticFunction;
 import io.questdb.griffin.engine.analytic.CachedAnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.SymbolKeyPredicateFunction;
+import io.questdb.griffin.engine.functions.columns.SymbolColumn;
 import io.questdb.griffin.engine.functions.constants.LongConstant;
 import io.questdb.griffin.engine.groupby.*;
 import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.vect.*;
 import io.questdb.griffin.engine.join.*;
+import io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursorFactory;
+import io.questdb.griffin.engine.orderby.LimitedSizeSortedRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
 import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.SortedRecordCursorFactory;
@@ -57,7 +61,14 @@ import static io.questdb.griffin.model.ExpressionNode.LITERAL;
 public class SqlCodeGenerator implements Mutable {
     public static final int GKK_VANILLA_INT = 0;
     public static final int GKK_HOUR_INT = 1;
+    public static final int GKK_VANILLA_LONG = 2;
+    public static final int GKK_MINUTE_LONG = 3;
+    public static final int GKK_DAY_LONG = 4;
+    // pair of INT or SYMBOL keys packed into LONG
+    public static final int GKK_PAIR_LONG = 5;
     private static final IntHashSet limitTypes = new IntHashSet();
+    private static final CharSequenceIntHashMap pruningOps = new CharSequenceIntHashMap();
+    private static final IntList swappedPruningOps = new IntList();
     private static final FullFatJoinGenerator CREATE_FULL_FAT_LT_JOIN = SqlCodeGenerator::createFullFatLtJoin;
     private static final FullFatJoinGenerator CREATE_FULL_FAT_AS_OF_JOIN = SqlCodeGenerator::createFullFatAsOfJoin;
     private static final boolean[] joinsRequiringTimestamp = {false, false, false, true, true, false, true};
@@ -97,6 +108,8 @@ public class SqlCodeGenerator implements Mutable {
     private final IntList tempKeyKinds = new IntList();
     private final ObjObjHashMap<IntList, ObjList<AnalyticFunction>> grouppedAnalytic = new ObjObjHashMap<>();
     private boolean fullFatJoins = false;
+    // false when rows produced by inner joins of current model are sorted afterwards
+    private boolean joinOrderRequired = true;
 
     public SqlCodeGenerator(
             CairoEngine engine,
@@ -171,9 +184,10 @@ public class SqlCodeGenerator implements Mutable {
             tempVecConstructorArgIndexes.add(columnIndex);
             return sumConstructors.get(metadata.getColumnType(columnIndex));
         } else if (ast.type == FUNCTION && ast.paramCount == 0 && SqlKeywords.isCountKeyword(ast.token)) {
-            // count() is a no-arg function
+            // count() is a no-arg function, it derives row count from size of the key column
+            // so key has to be known by now, e.g. "select k, count() from x"
             tempVecConstructorArgIndexes.add(-1);
-            return countConstructors.get(ColumnType.pow2SizeOf(tempKeyIndexesInBase.getQuick(0)));
+            return tempKeyIndexesInBase.size() > 0 ? countConstructors.get(metadata.getColumnType(tempKeyIndexesInBase.getQuick(0))) : null;
         } else if (isSingleColumnFunction(ast, "ksum")) {
             columnIndex = metadata.getColumnIndex(ast.rhs.token);
             tempVecConstructorArgIndexes.add(columnIndex);
@@ -228,6 +242,11 @@ public class SqlCodeGenerator implements Mutable {
                         tempSymbolSkewIndexes.extendAndSet(i, columnIndex);
                         arrayColumnTypes.add(ColumnType.SYMBOL);
                         tempKeyKinds.add(GKK_VANILLA_INT);
+                    } else if (type == ColumnType.LONG && Rosti.isKeyedLongSupported()) {
+                        tempKeyIndexesInBase.add(columnIndex);
+                        tempKeyIndex.add(i);
+                        arrayColumnTypes.add(ColumnType.LONG);
+                        tempKeyKinds.add(GKK_VANILLA_LONG);
                     } else {
                         return false;
                     }
@@ -242,7 +261,56 @@ public class SqlCodeGenerator implements Mutable {
                 }
             }
         }
-        return true;
+
+        // two keys are supported when both are 32-bit, we pack them into LONG
+        switch (tempKeyKinds.size()) {
+            case 0:
+            case 1:
+                return true;
+            case 2:
+                return Rosti.isKeyedLongSupported()
+                        && tempKeyKinds.getQuick(0) == GKK_VANILLA_INT
+                        && tempKeyKinds.getQuick(1) == GKK_VANILLA_INT;
+            default:
+                return false;
+        }
+    }
+
+    // Key kind of function Rosti can compute from timestamp column values or -1
+    // when function is not one of hour(ts), timestamp_floor('m', ts) or timestamp_floor('d', ts)
+    private static int getTimeFunctionKeyKind(ExpressionNode node) {
+        if (node.rhs == null || node.rhs.type != LITERAL) {
+            return -1;
+        }
+
+        if (node.paramCount == 1 && isHourKeyword(node.token)) {
+            return GKK_HOUR_INT;
+        }
+
+        if (node.paramCount == 2
+                && Rosti.isKeyedLongSupported()
+                && isTimestampFloorKeyword(node.token)
+                && node.lhs.type == ExpressionNode.CONSTANT
+                && node.lhs.token.length() == 3
+        ) {
+            switch (node.lhs.token.charAt(1)) {
+                case 'm':
+                    return GKK_MINUTE_LONG;
+                case 'd':
+                    return GKK_DAY_LONG;
+                default:
+                    break;
+            }
+        }
+        return -1;
+    }
+
+    // limits counted from the end of result set need all rows to be sorted
+    private static boolean isLimitedSortSupported(Function loFunc, @Nullable Function hiFunc) {
+        if (loFunc.isConstant() && loFunc.getLong(null) < 0) {
+            return false;
+        }
+        return hiFunc == null || !hiFunc.isConstant() || hiFunc.getLong(null) > -1;
     }
 
     private RecordMetadata calculateSetMetadata(RecordMetadata masterMetadata) {
@@ -250,6 +318,200 @@ public class SqlCodeGenerator implements Mutable {
     }
 
     @Nullable
+    // 1 for literal of indexed symbol column, 0 for constant or bind variable and -1 otherwise
+    private static int getSymbolPredicateArgKind(ExpressionNode node, RecordMetadata metadata) {
+        if (node == null || node.type == ExpressionNode.CONSTANT || node.type == ExpressionNode.BIND_VARIABLE) {
+            return 0;
+        }
+        if (node.type == ExpressionNode.LITERAL) {
+            final int columnIndex = metadata.getColumnIndexQuiet(node.token);
+            if (columnIndex > -1 && metadata.getColumnType(columnIndex) == ColumnType.SYMBOL && metadata.isColumnIndexed(columnIndex)) {
+                return 1;
+            }
+        }
+        return -1;
+    }
+
+    // true when expression does not depend on columns, bind variables or functions evaluated at runtime
+    private static boolean isConstantExpression(ExpressionNode node) {
+        if (node == null) {
+            return true;
+        }
+        switch (node.type) {
+            case ExpressionNode.CONSTANT:
+                return true;
+            case ExpressionNode.OPERATION:
+            case ExpressionNode.FUNCTION:
+                if (node.paramCount < 3) {
+                    return isConstantExpression(node.lhs) && isConstantExpression(node.rhs);
+                }
+                for (int i = 0, n = node.args.size(); i < n; i++) {
+                    if (!isConstantExpression(node.args.getQuick(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isIntegerType(int columnType) {
+        return columnType == ColumnType.BYTE
+                || columnType == ColumnType.SHORT
+                || columnType == ColumnType.INT
+                || columnType == ColumnType.LONG;
+    }
+
+    // filter such as "sym like 'ab%'" or "sym in ('a', 'b')", where "sym" is indexed symbol column
+    // and the rest of arguments are constants
+    private static boolean isIndexedSymbolPredicate(ExpressionNode node, RecordMetadata metadata) {
+        if (node.type != ExpressionNode.OPERATION && node.type != ExpressionNode.FUNCTION) {
+            return false;
+        }
+
+        int symbolCount = 0;
+        if (node.paramCount < 3) {
+            final int lhsKind = getSymbolPredicateArgKind(node.lhs, metadata);
+            final int rhsKind = getSymbolPredicateArgKind(node.rhs, metadata);
+            if (lhsKind < 0 || rhsKind < 0) {
+                return false;
+            }
+            symbolCount = lhsKind + rhsKind;
+        } else {
+            for (int i = 0, n = node.args.size(); i < n; i++) {
+                final int kind = getSymbolPredicateArgKind(node.args.getQuick(i), metadata);
+                if (kind < 0) {
+                    return false;
+                }
+                symbolCount += kind;
+            }
+        }
+        return symbolCount == 1;
+    }
+
+    // collects "column op constant" conjuncts of filter, which column statistics can rule out for whole partition
+    private void addPruningConditions(
+            PartitionPruningDataFrameCursorFactory pruningFactory,
+            ExpressionNode node,
+            RecordMetadata metadata,
+            IntList columnIndexes,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        if (node.type != ExpressionNode.OPERATION || node.paramCount != 2) {
+            return;
+        }
+
+        if (isAndKeyword(node.token)) {
+            addPruningConditions(pruningFactory, node.lhs, metadata, columnIndexes, executionContext);
+            addPruningConditions(pruningFactory, node.rhs, metadata, columnIndexes, executionContext);
+            return;
+        }
+
+        int op = pruningOps.get(node.token);
+        if (op == -1) {
+            return;
+        }
+
+        final ExpressionNode columnNode;
+        final ExpressionNode valueNode;
+        if (node.lhs.type == LITERAL && isConstantExpression(node.rhs)) {
+            columnNode = node.lhs;
+            valueNode = node.rhs;
+        } else if (node.rhs.type == LITERAL && isConstantExpression(node.lhs)) {
+            columnNode = node.rhs;
+            valueNode = node.lhs;
+            op = swappedPruningOps.getQuick(op);
+        } else {
+            return;
+        }
+
+        final int columnIndex = metadata.getColumnIndexQuiet(columnNode.token);
+        if (columnIndex == -1) {
+            return;
+        }
+        final int columnType = metadata.getColumnType(columnIndex);
+        if (!ColumnStats.isSupported(columnType)) {
+            return;
+        }
+
+        final Function value = functionParser.parseFunction(valueNode, metadata, executionContext);
+        try {
+            if (value.isConstant()) {
+                addPruningCondition(pruningFactory, columnIndexes.getQuick(columnIndex), columnType, op, value);
+            }
+        } finally {
+            Misc.free(value);
+        }
+    }
+
+    private static void addPruningCondition(
+            PartitionPruningDataFrameCursorFactory pruningFactory,
+            int readerColumnIndex,
+            int columnType,
+            int op,
+            Function value
+    ) {
+        final int valueType = value.getType();
+        if (columnType == ColumnType.SYMBOL) {
+            if (op == PartitionPruningDataFrameCursorFactory.OP_EQ) {
+                if (valueType == ColumnType.STRING) {
+                    final CharSequence str = value.getStr(null);
+                    if (str != null) {
+                        pruningFactory.addSymbol(readerColumnIndex, str);
+                    }
+                } else if (valueType == ColumnType.CHAR) {
+                    final char c = value.getChar(null);
+                    if (c != 0) {
+                        pruningFactory.addSymbol(readerColumnIndex, String.valueOf(c));
+                    }
+                }
+            }
+            return;
+        }
+
+        if (ColumnStats.isFloatingPoint(columnType) || valueType == ColumnType.FLOAT || valueType == ColumnType.DOUBLE) {
+            // comparison is done on double values
+            if ((isIntegerType(columnType) || ColumnStats.isFloatingPoint(columnType))
+                    && (isIntegerType(valueType) || valueType == ColumnType.FLOAT || valueType == ColumnType.DOUBLE)) {
+                final double d = value.getDouble(null);
+                if (d == d) {
+                    pruningFactory.addDouble(readerColumnIndex, op, d);
+                }
+            }
+            return;
+        }
+
+        final long l;
+        if (isIntegerType(columnType) && isIntegerType(valueType)) {
+            switch (valueType) {
+                case ColumnType.BYTE:
+                    l = value.getByte(null);
+                    break;
+                case ColumnType.SHORT:
+                    l = value.getShort(null);
+                    break;
+                case ColumnType.INT:
+                    final int i = value.getInt(null);
+                    l = i == Numbers.INT_NaN ? Numbers.LONG_NaN : i;
+                    break;
+                default:
+                    l = value.getLong(null);
+                    break;
+            }
+        } else if (columnType == ColumnType.TIMESTAMP && valueType == ColumnType.TIMESTAMP) {
+            l = value.getTimestamp(null);
+        } else if (columnType == ColumnType.DATE && valueType == ColumnType.DATE) {
+            l = value.getDate(null);
+        } else {
+            return;
+        }
+
+        if (l != Numbers.LONG_NaN) {
+            pruningFactory.addLong(readerColumnIndex, op, l);
+        }
+    }
+
     private Function compileFilter(IntrinsicModel intrinsicModel, RecordMetadata readerMeta, SqlExecutionContext executionContext) throws SqlException {
         if (intrinsicModel.filter != null) {
             return compileFilter(intrinsicModel.filter, readerMeta, executionContext);
@@ -310,7 +572,7 @@ public class SqlCodeGenerator implements Mutable {
         for (int k = 0, m = slaveMetadata.getColumnCount(); k < m; k++) {
             if (intHashSet.excludes(k)) {
                 int type = slaveMetadata.getColumnType(k);
-                if (type == ColumnType.STRING || type == ColumnType.BINARY) {
+                if (type == ColumnType.STRING || type == ColumnType.VARCHAR || type == ColumnType.BINARY) {
                     throw SqlException
                             .position(joinPosition).put("right side column '")
                             .put(slaveMetadata.getColumnName(k)).put("' is of unsupported type");
@@ -447,10 +709,11 @@ public class SqlCodeGenerator implements Mutable {
     }
 
     private RecordCursorFactory createHashJoin(
-            RecordMetadata metadata,
+            JoinRecordMetadata metadata,
             RecordCursorFactory master,
             RecordCursorFactory slave,
-            int joinType
+            int joinType,
+            boolean joinOrderRequired
     ) {
         /*
          * JoinContext provides the following information:
@@ -485,6 +748,19 @@ public class SqlCodeGenerator implements Mutable {
 
         if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
             if (joinType == QueryModel.JOIN_INNER) {
+                if (!joinOrderRequired && master.recordCursorSupportsRandomAccess() && isPartitionedHashJoinSupported()) {
+                    // rows come out grouped by partition, they are not ordered by master timestamp
+                    metadata.setTimestampIndex(-1);
+                    return new PartitionedHashJoinLightRecordCursorFactory(
+                            configuration,
+                            metadata,
+                            master,
+                            slave,
+                            masterKeySink,
+                            slaveKeySink,
+                            masterMetadata.getColumnCount()
+                    );
+                }
                 return new HashJoinLightRecordCursorFactory(
                         configuration,
                         metadata,
@@ -661,6 +937,22 @@ public class SqlCodeGenerator implements Mutable {
                 return new EmptyTableRecordCursorFactory(factory.getMetadata());
             }
         }
+
+        if (
+                configuration.isParallelFilterEnabled()
+                        && executionContext.getWorkerCount() > 1
+                        && executionContext.getMessageBus() != null
+                        && factory instanceof DataFrameRecordCursorFactory
+                        && ((DataFrameRecordCursorFactory) factory).supportsParallelFilter()
+                        && f.isReadThreadSafe()
+        ) {
+            return new ParallelFilteredRecordCursorFactory(
+                    configuration,
+                    (DataFrameRecordCursorFactory) factory,
+                    f,
+                    executionContext.getWorkerCount()
+            );
+        }
         return new FilteredRecordCursorFactory(factory, f);
     }
 
@@ -678,6 +970,9 @@ public class SqlCodeGenerator implements Mutable {
         IntList ordered = model.getOrderedJoinModels();
         RecordCursorFactory master = null;
         CharSequence masterAlias = null;
+        // models being joined are generated with their own order intact
+        final boolean joinOrderRequired = this.joinOrderRequired || hasTimestampJoins(model);
+        this.joinOrderRequired = true;
 
         try {
             int n = ordered.size();
@@ -741,6 +1036,7 @@ public class SqlCodeGenerator implements Mutable {
                                         );
                                     } else {
                                         master = new AsOfJoinNoKeyRecordCursorFactory(
+                                                configuration,
                                                 createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
                                                 master,
                                                 slave,
@@ -791,6 +1087,7 @@ public class SqlCodeGenerator implements Mutable {
                                         );
                                     } else {
                                         master = new LtJoinNoKeyRecordCursorFactory(
+                                                configuration,
                                                 createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
                                                 master,
                                                 slave,
@@ -852,7 +1149,8 @@ public class SqlCodeGenerator implements Mutable {
                                     createJoinMetadata(masterAlias, masterMetadata, slaveModel.getName(), slaveMetadata),
                                     master,
                                     slave,
-                                    joinType
+                                    joinType,
+                                    joinOrderRequired
                             );
                             masterAlias = null;
                             break;
@@ -887,6 +1185,8 @@ public class SqlCodeGenerator implements Mutable {
         } catch (CairoException | SqlException e) {
             Misc.free(master);
             throw e;
+        } finally {
+            this.joinOrderRequired = joinOrderRequired;
         }
     }
 
@@ -1074,29 +1374,34 @@ public class SqlCodeGenerator implements Mutable {
             return factory;
         }
 
-        final Function loFunc;
-        final Function hiFunc;
+        final Function loFunc = generateLimitLoFunction(limitLo, executionContext);
+        final Function hiFunc = generateLimitHiFunction(limitHi, executionContext);
+        return new LimitRecordCursorFactory(factory, loFunc, hiFunc);
+    }
 
-        if (limitLo == null) {
-            loFunc = new LongConstant(0, 0L);
-        } else {
-            loFunc = functionParser.parseFunction(limitLo, EmptyRecordMetadata.INSTANCE, executionContext);
-            final int type = loFunc.getType();
-            if (limitTypes.excludes(type)) {
-                throw SqlException.$(limitLo.position, "invalid type: ").put(ColumnType.nameOf(type));
-            }
+    @Nullable
+    private Function generateLimitHiFunction(ExpressionNode limitHi, SqlExecutionContext executionContext) throws SqlException {
+        if (limitHi == null) {
+            return null;
+        }
+        final Function hiFunc = functionParser.parseFunction(limitHi, EmptyRecordMetadata.INSTANCE, executionContext);
+        final int type = hiFunc.getType();
+        if (limitTypes.excludes(type)) {
+            throw SqlException.$(limitHi.position, "invalid type: ").put(ColumnType.nameOf(type));
         }
+        return hiFunc;
+    }
 
-        if (limitHi != null) {
-            hiFunc = functionParser.parseFunction(limitHi, EmptyRecordMetadata.INSTANCE, executionContext);
-            final int type = hiFunc.getType();
-            if (limitTypes.excludes(type)) {
-                throw SqlException.$(limitHi.position, "invalid type: ").put(ColumnType.nameOf(type));
-            }
-        } else {
-            hiFunc = null;
+    private Function generateLimitLoFunction(ExpressionNode limitLo, SqlExecutionContext executionContext) throws SqlException {
+        if (limitLo == null) {
+            return new LongConstant(0, 0L);
         }
-        return new LimitRecordCursorFactory(factory, loFunc, hiFunc);
+        final Function loFunc = functionParser.parseFunction(limitLo, EmptyRecordMetadata.INSTANCE, executionContext);
+        final int type = loFunc.getType();
+        if (limitTypes.excludes(type)) {
+            throw SqlException.$(limitLo.position, "invalid type: ").put(ColumnType.nameOf(type));
+        }
+        return loFunc;
     }
 
     private RecordCursorFactory generateNoSelect(
@@ -1114,7 +1419,7 @@ public class SqlCodeGenerator implements Mutable {
         return generateSubQuery(model, executionContext);
     }
 
-    private RecordCursorFactory generateOrderBy(RecordCursorFactory recordCursorFactory, QueryModel model) throws SqlException {
+    private RecordCursorFactory generateOrderBy(RecordCursorFactory recordCursorFactory, QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         if (recordCursorFactory.followedOrderByAdvice()) {
             return recordCursorFactory;
         }
@@ -1178,7 +1483,32 @@ public class SqlCodeGenerator implements Mutable {
                 }
                 orderedMetadata = GenericRecordMetadata.copyOfSansTimestamp(metadata);
 
+                // with limit we only need to keep top N rows, limit
+                // itself is still applied by LimitRecordCursorFactory
+                final ExpressionNode limitLo = model.getLimitLo();
+                final ExpressionNode limitHi = model.getLimitHi();
+                Function loFunc = null;
+                Function hiFunc = null;
+                if (limitLo != null || limitHi != null) {
+                    loFunc = generateLimitLoFunction(limitLo, executionContext);
+                    hiFunc = generateLimitHiFunction(limitHi, executionContext);
+                    if (!isLimitedSortSupported(loFunc, hiFunc)) {
+                        loFunc = Misc.free(loFunc);
+                        hiFunc = Misc.free(hiFunc);
+                    }
+                }
+
                 if (recordCursorFactory.recordCursorSupportsRandomAccess()) {
+                    if (loFunc != null) {
+                        return new LimitedSizeSortedLightRecordCursorFactory(
+                                configuration,
+                                orderedMetadata,
+                                recordCursorFactory,
+                                recordComparatorCompiler.compile(metadata, listColumnFilterA),
+                                loFunc,
+                                hiFunc
+                        );
+                    }
                     return new SortedLightRecordCursorFactory(
                             configuration,
                             orderedMetadata,
@@ -1192,6 +1522,24 @@ public class SqlCodeGenerator implements Mutable {
 
                 entityColumnFilter.of(orderedMetadata.getColumnCount());
 
+                if (loFunc != null) {
+                    return new LimitedSizeSortedRecordCursorFactory(
+                            configuration,
+                            orderedMetadata,
+                            recordCursorFactory,
+                            orderedMetadata,
+                            RecordSinkFactory.getInstance(
+                                    asm,
+                                    orderedMetadata,
+                                    entityColumnFilter,
+                                    false
+                            ),
+                            recordComparatorCompiler.compile(metadata, listColumnFilterA),
+                            loFunc,
+                            hiFunc
+                    );
+                }
+
                 return new SortedRecordCursorFactory(
                         configuration,
                         orderedMetadata,
@@ -1223,22 +1571,32 @@ public class SqlCodeGenerator implements Mutable {
     }
 
     private RecordCursorFactory generateQuery0(QueryModel model, SqlExecutionContext executionContext, boolean processJoins) throws SqlException {
-        return generateLimit(
-                generateOrderBy(
-                        generateFilter(
-                                generateSelect(
-                                        model,
-                                        executionContext,
-                                        processJoins
-                                ),
-                                model,
-                                executionContext
-                        ),
-                        model
-                ),
-                model,
-                executionContext
-        );
+        // order of join rows does not matter when they are sorted by this model or one
+        // above it, as long as nothing in between depends on the order
+        final boolean joinOrderRequired = this.joinOrderRequired;
+        this.joinOrderRequired = !isOrderInsensitive(model)
+                || (model.getOrderBy().size() == 0 && (joinOrderRequired || model.getLimitLo() != null || model.getLimitHi() != null));
+        try {
+            return generateLimit(
+                    generateOrderBy(
+                            generateFilter(
+                                    generateSelect(
+                                            model,
+                                            executionContext,
+                                            processJoins
+                                    ),
+                                    model,
+                                    executionContext
+                            ),
+                            model,
+                            executionContext
+                    ),
+                    model,
+                    executionContext
+            );
+        } finally {
+            this.joinOrderRequired = joinOrderRequired;
+        }
     }
 
     @NotNull
@@ -1256,9 +1614,10 @@ public class SqlCodeGenerator implements Mutable {
 
             final RecordMetadata metadata = factory.getMetadata();
             final ObjList<ExpressionNode> sampleByFill = model.getSampleByFill();
-            final TimestampSampler timestampSampler = TimestampSamplerFactory.getInstance(sampleByNode.token, sampleByNode.position);
+            final TimestampSampler timestampSampler = TimestampSamplerFactory.getInstance(sampleByNode.token, sampleByNode.position, model.isSampleByAlignToCalendar());
 
             final int fillCount = sampleByFill.size();
+            RecordCursorFactory sampleByBase = factory;
             try {
                 keyTypes.clear();
                 valueTypes.clear();
@@ -1309,22 +1668,72 @@ public class SqlCodeGenerator implements Mutable {
                         timestampIndex
                 );
 
+                int sampleByTimestampIndex = timestampIndex;
+                if (isParallelSampleBySupported(executionContext, factory, groupByFunctions)) {
+                    final DataFrameRecordCursorFactory scanFactory = toDataFrameRecordCursorFactory(factory);
+                    sampleByBase = scanFactory;
+                    final ParallelSampleByRecordCursorFactory parallelFactory = new ParallelSampleByRecordCursorFactory(
+                            configuration,
+                            scanFactory,
+                            groupByFunctions,
+                            timestampSampler,
+                            listColumnFilterA,
+                            asm,
+                            keyTypes,
+                            valueTypes,
+                            timestampIndex,
+                            executionContext.getWorkerCount()
+                    );
+                    sampleByBase = parallelFactory;
+
+                    // workers produce final aggregate values for each bucket and key, sample by
+                    // on top of them only has to take the first value of each bucket and key
+                    final RecordMetadata preAggregatedMetadata = parallelFactory.getMetadata();
+                    sampleByTimestampIndex = preAggregatedMetadata.getTimestampIndex();
+                    valueTypes.clear();
+                    valueTypes.add(ColumnType.TIMESTAMP);
+                    for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+                        final GroupByFunction function = groupByFunctions.getQuick(i);
+                        final GroupByFunction first = GroupByUtils.newFirstGroupByFunction(function.getType(), function.getPosition(), i);
+                        assert first != null;
+                        first.pushValueTypes(valueTypes);
+                        groupByFunctions.setQuick(i, first);
+                    }
+
+                    keyTypes.clear();
+                    listColumnFilterA.clear();
+                    recordFunctions.clear();
+                    groupByMetadata.clear();
+                    GroupByUtils.prepareGroupByRecordFunctions(
+                            model,
+                            preAggregatedMetadata,
+                            listColumnFilterA,
+                            groupByFunctions,
+                            recordFunctions,
+                            groupByMetadata,
+                            keyTypes,
+                            valueTypes.getColumnCount(),
+                            false,
+                            sampleByTimestampIndex
+                    );
+                }
+
                 if (fillCount == 1 && Chars.equalsLowerCaseAscii(sampleByFill.getQuick(0).token, "prev")) {
                     if (keyTypes.getColumnCount() == 0) {
                         return new SampleByFillPrevNotKeyedRecordCursorFactory(
-                                factory,
+                                sampleByBase,
                                 timestampSampler,
                                 groupByMetadata,
                                 groupByFunctions,
                                 recordFunctions,
-                                timestampIndex,
+                                sampleByTimestampIndex,
                                 valueTypes.getColumnCount()
                         );
                     }
 
                     return new SampleByFillPrevRecordCursorFactory(
                             configuration,
-                            factory,
+                            sampleByBase,
                             timestampSampler,
                             listColumnFilterA,
                             asm,
@@ -1333,7 +1742,7 @@ public class SqlCodeGenerator implements Mutable {
                             groupByMetadata,
                             groupByFunctions,
                             recordFunctions,
-                            timestampIndex
+                            sampleByTimestampIndex
                     );
                 }
 
@@ -1342,19 +1751,19 @@ public class SqlCodeGenerator implements Mutable {
                     if (keyTypes.getColumnCount() == 0) {
                         // this sample by is not keyed
                         return new SampleByFillNoneNotKeyedRecordCursorFactory(
-                                factory,
+                                sampleByBase,
                                 timestampSampler,
                                 groupByMetadata,
                                 groupByFunctions,
                                 recordFunctions,
                                 valueTypes.getColumnCount(),
-                                timestampIndex
+                                sampleByTimestampIndex
                         );
                     }
 
                     return new SampleByFillNoneRecordCursorFactory(
                             configuration,
-                            factory,
+                            sampleByBase,
                             groupByMetadata,
                             groupByFunctions,
                             recordFunctions,
@@ -1363,26 +1772,26 @@ public class SqlCodeGenerator implements Mutable {
                             asm,
                             keyTypes,
                             valueTypes,
-                            timestampIndex
+                            sampleByTimestampIndex
                     );
                 }
 
                 if (fillCount == 1 && isNullKeyword(sampleByFill.getQuick(0).token)) {
                     if (keyTypes.getColumnCount() == 0) {
                         return new SampleByFillNullNotKeyedRecordCursorFactory(
-                                factory,
+                                sampleByBase,
                                 timestampSampler,
                                 groupByMetadata,
                                 groupByFunctions,
                                 recordFunctions,
                                 valueTypes.getColumnCount(),
-                                timestampIndex
+                                sampleByTimestampIndex
                         );
                     }
 
                     return new SampleByFillNullRecordCursorFactory(
                             configuration,
-                            factory,
+                            sampleByBase,
                             timestampSampler,
                             listColumnFilterA,
                             asm,
@@ -1391,7 +1800,7 @@ public class SqlCodeGenerator implements Mutable {
                             groupByMetadata,
                             groupByFunctions,
                             recordFunctions,
-                            timestampIndex
+                            sampleByTimestampIndex
                     );
                 }
 
@@ -1399,20 +1808,20 @@ public class SqlCodeGenerator implements Mutable {
 
                 if (keyTypes.getColumnCount() == 0) {
                     return new SampleByFillValueNotKeyedRecordCursorFactory(
-                            factory,
+                            sampleByBase,
                             timestampSampler,
                             sampleByFill,
                             groupByMetadata,
                             groupByFunctions,
                             recordFunctions,
                             valueTypes.getColumnCount(),
-                            timestampIndex
+                            sampleByTimestampIndex
                     );
                 }
 
                 return new SampleByFillValueRecordCursorFactory(
                         configuration,
-                        factory,
+                        sampleByBase,
                         timestampSampler,
                         listColumnFilterA,
                         asm,
@@ -1422,10 +1831,10 @@ public class SqlCodeGenerator implements Mutable {
                         groupByMetadata,
                         groupByFunctions,
                         recordFunctions,
-                        timestampIndex
+                        sampleByTimestampIndex
                 );
             } catch (SqlException | CairoException e) {
-                factory.close();
+                sampleByBase.close();
                 throw e;
             }
         } finally {
@@ -1834,20 +2243,22 @@ public class SqlCodeGenerator implements Mutable {
             // check for special case time function aggregations
             final QueryModel nested = model.getNestedModel();
             assert nested != null;
-            // check if underlying model has reference to hour(column) function
+            // check if underlying model has reference to hour(column) or timestamp_floor('m', column) function
+            final int timeKeyKind;
             if (nested.getSelectModelType() == QueryModel.SELECT_MODEL_VIRTUAL
                     && (columnExpr = nested.getColumns().getQuick(0).getAst()).type == FUNCTION
-                    && isHourKeyword(columnExpr.token)
-                    && columnExpr.paramCount == 1
-                    && columnExpr.rhs.type == LITERAL
+                    && (timeKeyKind = getTimeFunctionKeyKind(columnExpr)) != -1
             ) {
                 specialCaseKeys = true;
                 factory = generateSubQuery(nested, executionContext);
-                pageFramingSupported = factory.supportPageFrameCursor();
+                final int timeKeyIndex = factory.getMetadata().getColumnIndex(columnExpr.rhs.token);
+                // Rosti computes key from raw column values, these must be timestamps
+                pageFramingSupported = factory.supportPageFrameCursor()
+                        && factory.getMetadata().getColumnType(timeKeyIndex) == ColumnType.TIMESTAMP;
                 if (pageFramingSupported) {
 
-                    // find position of the hour() argument in the factory meta
-                    tempKeyIndexesInBase.add(factory.getMetadata().getColumnIndex(columnExpr.rhs.token));
+                    // find position of the function argument in the factory meta
+                    tempKeyIndexesInBase.add(timeKeyIndex);
 
                     // find position of hour() alias in selected columns
                     // also make sure there are no other literal column than our function reference
@@ -1857,9 +2268,13 @@ public class SqlCodeGenerator implements Mutable {
                         if (columnExpr.type == LITERAL) {
                             if (Chars.equals(columnExpr.token, functionColumnName)) {
                                 tempKeyIndex.add(i);
-                                // storage dimension for Rosti is INT when we use hour(). This function produces INT.
-                                tempKeyKinds.add(GKK_HOUR_INT);
-                                arrayColumnTypes.add(ColumnType.INT);
+                                tempKeyKinds.add(timeKeyKind);
+                                if (timeKeyKind == GKK_HOUR_INT) {
+                                    // storage dimension for Rosti is INT when we use hour(). This function produces INT.
+                                    arrayColumnTypes.add(ColumnType.INT);
+                                } else {
+                                    arrayColumnTypes.add(ColumnType.TIMESTAMP);
+                                }
                             } else {
                                 // there is something else here, fallback to default implementation
                                 pageFramingSupported = false;
@@ -1914,12 +2329,22 @@ public class SqlCodeGenerator implements Mutable {
                     }
                 }
 
+                final int keyKind;
+                if (tempKeyKinds.size() == 2) {
+                    // both keys are stored in single LONG slot of Rosti
+                    keyKind = GKK_PAIR_LONG;
+                    arrayColumnTypes.clear();
+                    arrayColumnTypes.add(ColumnType.LONG);
+                } else {
+                    keyKind = tempKeyKinds.size() == 0 ? 0 : tempKeyKinds.getQuick(0);
+                }
+
                 // add aggregates
                 for (int i = 0, n = tempVecConstructors.size(); i < n; i++) {
                     VectorAggregateFunctionConstructor constructor = tempVecConstructors.getQuick(i);
                     int indexInBase = tempVecConstructorArgIndexes.getQuick(i);
                     int indexInThis = tempAggIndex.getQuick(i);
-                    VectorAggregateFunction vaf = constructor.create(0, tempKeyKinds.size() == 0 ? 0 : tempKeyKinds.getQuick(0), indexInBase, executionContext.getWorkerCount());
+                    VectorAggregateFunction vaf = constructor.create(0, keyKind, indexInBase, executionContext.getWorkerCount());
                     tempVaf.add(vaf);
                     meta.add(indexInThis,
                             new TableColumnMetadata(
@@ -1939,25 +2364,23 @@ public class SqlCodeGenerator implements Mutable {
                     );
                 }
 
-                if (tempKeyIndexesInBase.size() == 1) {
-                    for (int i = 0, n = tempVaf.size(); i < n; i++) {
-                        tempVaf.getQuick(i).pushValueTypes(arrayColumnTypes);
-                    }
+                for (int i = 0, n = tempVaf.size(); i < n; i++) {
+                    tempVaf.getQuick(i).pushValueTypes(arrayColumnTypes);
+                }
 
-                    GroupByUtils.validateGroupByColumns(model, 1);
+                GroupByUtils.validateGroupByColumns(model, tempKeyIndexesInBase.size());
 
-                    return new GroupByRecordCursorFactory(
-                            configuration,
-                            factory,
-                            meta,
-                            arrayColumnTypes,
-                            executionContext.getWorkerCount(),
-                            tempVaf,
-                            tempKeyIndexesInBase.getQuick(0),
-                            tempKeyIndex.getQuick(0),
-                            tempSymbolSkewIndexes
-                    );
-                }
+                return new GroupByRecordCursorFactory(
+                        configuration,
+                        factory,
+                        meta,
+                        arrayColumnTypes,
+                        executionContext.getWorkerCount(),
+                        tempVaf,
+                        tempKeyIndexesInBase,
+                        tempKeyIndex,
+                        tempSymbolSkewIndexes
+                );
             }
 
             if (specialCaseKeys) {
@@ -2530,7 +2953,34 @@ public class SqlCodeGenerator implements Mutable {
                     }
                 }
 
+                if (intrinsicModel.filter != null && isIndexedSymbolPredicate(intrinsicModel.filter, myMeta)) {
+                    // predicate over indexed symbol, e.g. "sym like 'ab%'", resolves into set of symbol keys;
+                    // index is only worth merging when the number of keys is bounded
+                    Function f = compileFilter(intrinsicModel, myMeta, executionContext);
+                    if (f instanceof SymbolKeyPredicateFunction) {
+                        final Function arg = ((SymbolKeyPredicateFunction) f).getArg();
+                        if (arg instanceof SymbolColumn) {
+                            final int columnIndex = ((SymbolColumn) arg).getColumnIndex();
+                            final int readerColumnIndex = columnIndexes.getQuick(columnIndex);
+                            if (
+                                    myMeta.isColumnIndexed(columnIndex)
+                                            && reader.getSymbolMapReader(readerColumnIndex).size() <= configuration.getMaxSymbolNotEqualsCount()
+                            ) {
+                                return new FilterOnSymbolKeysRecordCursorFactory(
+                                        myMeta,
+                                        dfcFactory,
+                                        readerColumnIndex,
+                                        (SymbolKeyPredicateFunction) f,
+                                        columnIndexes
+                                );
+                            }
+                        }
+                    }
+                    Misc.free(f);
+                }
+
                 model.setWhereClause(intrinsicModel.filter);
+                dfcFactory = wrapPartitionPruning(dfcFactory, intrinsicModel.filter, myMeta, columnIndexes, reader, executionContext);
                 return new DataFrameRecordCursorFactory(myMeta, dfcFactory, new DataFrameRowCursorFactory(), false, null, framingSupported, columnIndexes, columnSizes);
             }
 
@@ -2547,7 +2997,9 @@ public class SqlCodeGenerator implements Mutable {
                         model.getTableVersion(),
                         columnIndexes,
                         columnSizes,
-                        framingSupported
+                        framingSupported,
+                        // cursor seeks by designated timestamp, it has to be the timestamp of this query
+                        readerTimestampIndex != -1 && readerTimestampIndex == readerMeta.getTimestampIndex()
                 );
             }
 
@@ -2651,6 +3103,115 @@ public class SqlCodeGenerator implements Mutable {
         return metadata.getTimestampIndex();
     }
 
+    // joins that match rows by timestamp need master rows in timestamp order
+    private static boolean hasTimestampJoins(QueryModel model) {
+        final ObjList<QueryModel> joinModels = model.getJoinModels();
+        for (int i = 1, n = joinModels.size(); i < n; i++) {
+            switch (joinModels.getQuick(i).getJoinType()) {
+                case QueryModel.JOIN_ASOF:
+                case QueryModel.JOIN_LT:
+                case QueryModel.JOIN_SPLICE:
+                    return true;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    // true when model produces the same rows regardless of order of rows it selects from
+    private static boolean isOrderInsensitive(QueryModel model) {
+        switch (model.getSelectModelType()) {
+            case QueryModel.SELECT_MODEL_NONE:
+            case QueryModel.SELECT_MODEL_CHOOSE:
+            case QueryModel.SELECT_MODEL_VIRTUAL:
+                return model.getSampleBy() == null && model.getLatestBy().size() == 0;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isPartitionedHashJoinSupported() {
+        if (!configuration.isPartitionedHashJoinEnabled()) {
+            return false;
+        }
+        // partitioned join holds up to spill threshold in memory and does not count map resizes,
+        // join maps restricted to less memory than that are left to the join that enforces the limit
+        final int maxResizes = configuration.getSqlMapMaxResizes();
+        return maxResizes > 30
+                || ((long) configuration.getSqlMapPageSize() << maxResizes) >= configuration.getPartitionedHashJoinSpillThreshold();
+    }
+
+    private boolean isParallelSampleBySupported(
+            SqlExecutionContext executionContext,
+            RecordCursorFactory factory,
+            ObjList<GroupByFunction> groupByFunctions
+    ) {
+        if (
+                !configuration.isParallelSampleByEnabled()
+                        || executionContext.getWorkerCount() < 2
+                        || executionContext.getMessageBus() == null
+        ) {
+            return false;
+        }
+
+        // full table scan without where clause is re-created as data frame scan
+        if (
+                !(factory instanceof TableReaderRecordCursorFactory)
+                        && !(factory instanceof DataFrameRecordCursorFactory && ((DataFrameRecordCursorFactory) factory).supportsParallelFilter())
+        ) {
+            return false;
+        }
+
+        // aggregate values are passed on to sample by as columns, which
+        // requires a "first" group-by function of the same type
+        for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+            final GroupByFunction function = groupByFunctions.getQuick(i);
+            if (!function.isReadThreadSafe()) {
+                return false;
+            }
+            switch (function.getType()) {
+                case ColumnType.BYTE:
+                case ColumnType.SHORT:
+                case ColumnType.INT:
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                case ColumnType.DOUBLE:
+                    break;
+                default:
+                    return false;
+            }
+        }
+
+        // workers copy keys straight from the table, only fixed size values are safe to read concurrently
+        for (int i = 0, n = keyTypes.getColumnCount(); i < n; i++) {
+            switch (keyTypes.getColumnType(i)) {
+                case ColumnType.BOOLEAN:
+                case ColumnType.BYTE:
+                case ColumnType.SHORT:
+                case ColumnType.CHAR:
+                case ColumnType.INT:
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                case ColumnType.FLOAT:
+                case ColumnType.DOUBLE:
+                case ColumnType.SYMBOL:
+                    break;
+                default:
+                    return false;
+            }
+            // key columns become columns of pre-aggregated rows, they must be unique
+            for (int j = 0; j < i; j++) {
+                if (listColumnFilterA.getColumnIndex(i) == listColumnFilterA.getColumnIndex(j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private boolean isSingleColumnFunction(ExpressionNode ast, CharSequence name) {
         return ast.type == FUNCTION && ast.paramCount == 1 && Chars.equals(ast.token, name) && ast.rhs.type == LITERAL;
     }
@@ -2720,6 +3281,26 @@ public class SqlCodeGenerator implements Mutable {
         this.fullFatJoins = fullFatJoins;
     }
 
+    private DataFrameRecordCursorFactory toDataFrameRecordCursorFactory(RecordCursorFactory factory) {
+        if (factory instanceof DataFrameRecordCursorFactory) {
+            return (DataFrameRecordCursorFactory) factory;
+        }
+
+        final TableReaderRecordCursorFactory tableReaderFactory = (TableReaderRecordCursorFactory) factory;
+        final DataFrameRecordCursorFactory dataFrameFactory = new DataFrameRecordCursorFactory(
+                tableReaderFactory.getMetadata(),
+                new FullFwdDataFrameCursorFactory(engine, tableReaderFactory.getTableName(), tableReaderFactory.getTableVersion()),
+                new DataFrameRowCursorFactory(),
+                false,
+                null,
+                tableReaderFactory.isFramingSupported(),
+                tableReaderFactory.getColumnIndexes(),
+                tableReaderFactory.getColumnSizes()
+        );
+        tableReaderFactory.close();
+        return dataFrameFactory;
+    }
+
     private IntList toOrderIndices(RecordMetadata m, ObjList<ExpressionNode> orderBy, IntList orderByDirection) throws SqlException {
         // todo: pool
         final IntList indices = new IntList();
@@ -2771,7 +3352,7 @@ public class SqlCodeGenerator implements Mutable {
 
     private Record.CharSequenceFunction validateSubQueryColumnAndGetGetter(IntrinsicModel intrinsicModel, RecordMetadata metadata) throws SqlException {
         final int zeroColumnType = metadata.getColumnType(0);
-        if (zeroColumnType != ColumnType.STRING && zeroColumnType != ColumnType.SYMBOL) {
+        if (zeroColumnType != ColumnType.STRING && zeroColumnType != ColumnType.VARCHAR && zeroColumnType != ColumnType.SYMBOL) {
             assert intrinsicModel.keySubQuery.getColumns() != null;
             assert intrinsicModel.keySubQuery.getColumns().size() > 0;
 
@@ -2783,7 +3364,24 @@ public class SqlCodeGenerator implements Mutable {
                     .put(ColumnType.nameOf(zeroColumnType));
         }
 
-        return zeroColumnType == ColumnType.STRING ? Record.GET_STR : Record.GET_SYM;
+        return zeroColumnType == ColumnType.SYMBOL ? Record.GET_SYM : Record.GET_STR;
+    }
+
+    private DataFrameCursorFactory wrapPartitionPruning(
+            DataFrameCursorFactory dfcFactory,
+            ExpressionNode filter,
+            RecordMetadata metadata,
+            IntList columnIndexes,
+            TableReader reader,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        // last partition never has column statistics, there is nothing to prune in non-partitioned table
+        if (filter == null || reader.getPartitionedBy() == PartitionBy.NONE) {
+            return dfcFactory;
+        }
+        final PartitionPruningDataFrameCursorFactory pruningFactory = new PartitionPruningDataFrameCursorFactory(dfcFactory);
+        addPruningConditions(pruningFactory, filter, metadata, columnIndexes, executionContext);
+        return pruningFactory.getConditionCount() > 0 ? pruningFactory : dfcFactory;
     }
 
     @FunctionalInterface
@@ -2816,6 +3414,21 @@ public class SqlCodeGenerator implements Mutable {
         limitTypes.add(ColumnType.INT);
     }
 
+    static {
+        pruningOps.put("=", PartitionPruningDataFrameCursorFactory.OP_EQ);
+        pruningOps.put("<", PartitionPruningDataFrameCursorFactory.OP_LT);
+        pruningOps.put("<=", PartitionPruningDataFrameCursorFactory.OP_LE);
+        pruningOps.put(">", PartitionPruningDataFrameCursorFactory.OP_GT);
+        pruningOps.put(">=", PartitionPruningDataFrameCursorFactory.OP_GE);
+
+        // operator to use when column is on the right of constant, indexed by operator
+        swappedPruningOps.extendAndSet(PartitionPruningDataFrameCursorFactory.OP_EQ, PartitionPruningDataFrameCursorFactory.OP_EQ);
+        swappedPruningOps.extendAndSet(PartitionPruningDataFrameCursorFactory.OP_LT, PartitionPruningDataFrameCursorFactory.OP_GT);
+        swappedPruningOps.extendAndSet(PartitionPruningDataFrameCursorFactory.OP_LE, PartitionPruningDataFrameCursorFactory.OP_GE);
+        swappedPruningOps.extendAndSet(PartitionPruningDataFrameCursorFactory.OP_GT, PartitionPruningDataFrameCursorFactory.OP_LT);
+        swappedPruningOps.extendAndSet(PartitionPruningDataFrameCursorFactory.OP_GE, PartitionPruningDataFrameCursorFactory.OP_LE);
+    }
+
     static {
         sumConstructors.put(ColumnType.DOUBLE, SumDoubleVectorAggregateFunction::new);
         sumConstructors.put(ColumnType.INT, SumIntVectorAggregateFunction::new);
@@ -2850,5 +3463,6 @@ public class SqlCodeGenerator implements Mutable {
         addCountConstructor(ColumnType.DATE);
         addCountConstructor(ColumnType.TIMESTAMP);
         addCountConstructor(ColumnType.INT);
+        addCountConstructor(ColumnType.SYMBOL);
     }
 }
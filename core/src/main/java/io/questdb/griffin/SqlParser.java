@@ -147,6 +147,22 @@ public final class SqlParser {
         );
     }
 
+    private static void checkMatViewQueryModel(QueryModel model) throws SqlException {
+        if (model.getJoinModels().size() > 1 || model.getUnionModel() != null) {
+            throw SqlException.$(model.getModelPosition(), "materialized view query must select from single table");
+        }
+
+        if (model.getSampleBy() != null) {
+            if (!model.isSampleByAlignToCalendar()) {
+                throw SqlException.$(model.getSampleBy().position, "materialized view query must use 'sample by ... align to calendar'");
+            }
+            final ObjList<ExpressionNode> fill = model.getSampleByFill();
+            if (fill.size() > 1 || fill.size() == 1 && !Chars.equalsLowerCaseAscii(fill.getQuick(0).token, "none")) {
+                throw SqlException.$(fill.getQuick(0).position, "materialized view query does not support fill");
+            }
+        }
+    }
+
     private void expectBy(GenericLexer lexer) throws SqlException {
         if (isByKeyword(tok(lexer, "by"))) {
             return;
@@ -322,13 +338,38 @@ public final class SqlParser {
     }
 
     private ExecutionModel parseCopy(GenericLexer lexer) throws SqlException {
-        if (configuration.getInputRoot() == null) {
-            throw SqlException.$(lexer.lastTokenPosition(), "COPY is disabled ['cairo.sql.copy.root' is not set?]");
+        final int copyPosition = lexer.lastTokenPosition();
+        CharSequence tok = tok(lexer, "table name or '('");
+        if (Chars.equals(tok, '(')) {
+            final QueryModel queryModel = parseAsSubQueryAndExpectClosingBrace(lexer, null);
+            tok = tok(lexer, "'to'");
+            if (isToKeyword(tok)) {
+                return parseCopyTo(lexer, queryModel);
+            }
+            throw SqlException.$(lexer.lastTokenPosition(), "'to' expected");
         }
+        lexer.unparse();
+
         ExpressionNode tableName = expectExpr(lexer);
-        CharSequence tok = tok(lexer, "'from' or 'to'");
+        tok = tok(lexer, "'from' or 'to'");
+
+        if (isToKeyword(tok)) {
+            // same as "copy (select * from tableName) to ..."
+            final QueryModel queryModel = queryModelPool.next();
+            queryModel.setModelPosition(tableName.position);
+            queryModel.addBottomUpColumn(SqlUtil.nextColumn(queryColumnPool, expressionNodePool, "*", "*"));
+            final QueryModel nestedModel = queryModelPool.next();
+            nestedModel.setModelPosition(tableName.position);
+            nestedModel.setTableName(literal(GenericLexer.unquote(tableName.token), tableName.position));
+            queryModel.setSelectModelType(QueryModel.SELECT_MODEL_CHOOSE);
+            queryModel.setNestedModel(nestedModel);
+            return parseCopyTo(lexer, queryModel);
+        }
 
         if (isFromKeyword(tok)) {
+            if (configuration.getInputRoot() == null) {
+                throw SqlException.$(copyPosition, "COPY is disabled ['cairo.sql.copy.root' is not set?]");
+            }
             final ExpressionNode fileName = expectExpr(lexer);
             if (fileName.token.length() < 3 && Chars.startsWith(fileName.token, '\'')) {
                 throw SqlException.$(fileName.position, "file name expected");
@@ -351,11 +392,122 @@ public final class SqlParser {
             }
             return model;
         }
-        throw SqlException.$(lexer.lastTokenPosition(), "'from' expected");
+        throw SqlException.$(lexer.lastTokenPosition(), "'from' or 'to' expected");
+    }
+
+    private ExecutionModel parseCopyTo(GenericLexer lexer, QueryModel queryModel) throws SqlException {
+        CharSequence tok = tok(lexer, "'stdout'");
+        if (!isStdoutKeyword(tok)) {
+            throw SqlException.$(lexer.lastTokenPosition(), "'stdout' expected");
+        }
+
+        // both "with binary" and "with (format binary)" forms are accepted, "with" is optional
+        int formatPosition = lexer.getPosition();
+        boolean binary = false;
+        boolean arrow = false;
+        tok = optTok(lexer);
+        if (tok != null && isWithKeyword(tok)) {
+            tok = tok(lexer, "copy option");
+        }
+        if (tok != null) {
+            formatPosition = lexer.lastTokenPosition();
+            if (Chars.equals(tok, '(')) {
+                tok = tok(lexer, "'format'");
+                if (!isFormatKeyword(tok)) {
+                    throw SqlException.$(lexer.lastTokenPosition(), "'format' expected");
+                }
+                tok = tok(lexer, "format name");
+                formatPosition = lexer.lastTokenPosition();
+                binary = isBinaryKeyword(tok);
+                arrow = isArrowKeyword(tok);
+                expectTok(lexer, ')');
+            } else {
+                binary = isBinaryKeyword(tok);
+                arrow = isArrowKeyword(tok);
+            }
+        }
+
+        if (!binary && !arrow) {
+            throw SqlException.$(formatPosition, "only binary and arrow formats are supported when copying to stdout");
+        }
+
+        CopyModel model = copyModelPool.next();
+        model.setQueryModel(queryModel);
+        model.setArrowFormat(arrow);
+        return model;
+    }
+
+    private ExecutionModel parseCreateMatView(GenericLexer lexer, SqlExecutionContext executionContext) throws SqlException {
+        final CreateTableModel model = createTableModelPool.next();
+        final CharSequence viewName = tok(lexer, "view name");
+        model.setName(nextLiteral(GenericLexer.assertNoDotsAndSlashes(GenericLexer.unquote(viewName), lexer.lastTokenPosition()), lexer.lastTokenPosition()));
+
+        expectTok(lexer, "as");
+        expectTok(lexer, '(');
+        final int queryLo = lexer.getPosition();
+        final QueryModel queryModel = parseDml(lexer, null);
+
+        // refresh re-runs view query over the rows of the base table that changed,
+        // which only produces the same buckets when buckets do not depend on the
+        // first sampled row and there is no fill across buckets
+        ExpressionNode sampleBy = null;
+        QueryModel m = queryModel;
+        while (m.getTableName() == null) {
+            checkMatViewQueryModel(m);
+            if (m.getSampleBy() != null) {
+                sampleBy = m.getSampleBy();
+            }
+            m = m.getNestedModel();
+            if (m == null) {
+                throw SqlException.$(queryLo, "materialized view query must select from a table");
+            }
+        }
+        checkMatViewQueryModel(m);
+        if (m.getSampleBy() != null) {
+            sampleBy = m.getSampleBy();
+        }
+
+        final ExpressionNode baseTable = m.getTableName();
+        if (baseTable.type != ExpressionNode.LITERAL) {
+            throw SqlException.$(baseTable.position, "materialized view query must select from a table");
+        }
+        if (sampleBy == null) {
+            throw SqlException.$(queryLo, "materialized view query must use 'sample by'");
+        }
+
+        final CharSequence content = lexer.getContent();
+        final int baseTableLo = baseTable.position;
+        int baseTableHi = baseTableLo + baseTable.token.length();
+        final char c = content.charAt(baseTableLo);
+        if (c == '\'' || c == '"') {
+            baseTableHi = Chars.indexOf(content, baseTableLo + 1, c) + 1;
+        }
+
+        setCreateTableQueryModel(model, optimiser.optimise(queryModel, executionContext));
+        expectTok(lexer, ')');
+        final int queryHi = lexer.lastTokenPosition();
+        model.setMatView(
+                content.subSequence(queryLo, queryHi).toString(),
+                baseTable,
+                baseTableLo - queryLo,
+                baseTableHi - queryLo,
+                sampleBy
+        );
+
+        final CharSequence tok = optTok(lexer);
+        if (tok == null || Chars.equals(tok, ';')) {
+            return model;
+        }
+        throw errUnexpected(lexer, tok);
     }
 
     private ExecutionModel parseCreateStatement(GenericLexer lexer, SqlExecutionContext executionContext) throws SqlException {
-        expectTok(lexer, "table");
+        final CharSequence tok = tok(lexer, "'table' or 'materialized view'");
+        if (isMaterializedKeyword(tok)) {
+            expectTok(lexer, "view");
+            return parseCreateMatView(lexer, executionContext);
+        }
+        expectTok(lexer, tok, "table");
         return parseCreateTable(lexer, executionContext);
     }
 
@@ -409,7 +561,7 @@ public final class SqlParser {
         ExpressionNode partitionBy = parseCreateTablePartition(lexer, tok);
         if (partitionBy != null) {
             if (PartitionBy.fromString(partitionBy.token) == -1) {
-                throw SqlException.$(partitionBy.position, "'NONE', 'DAY', 'MONTH' or 'YEAR' expected");
+                throw SqlException.$(partitionBy.position, "'NONE', 'HOUR', 'DAY', 'WEEK', 'MONTH' or 'YEAR' expected");
             }
             model.setPartitionBy(partitionBy);
             tok = optTok(lexer);
@@ -423,17 +575,7 @@ public final class SqlParser {
 
     private void parseCreateTableAsSelect(GenericLexer lexer, CreateTableModel model, SqlExecutionContext executionContext) throws SqlException {
         expectTok(lexer, '(');
-        QueryModel queryModel = optimiser.optimise(parseDml(lexer, null), executionContext);
-        ObjList<QueryColumn> columns = queryModel.getBottomUpColumns();
-        assert columns.size() > 0;
-
-        // we do not know types of columns at this stage
-        // compiler must put table together using query metadata.
-        for (int i = 0, n = columns.size(); i < n; i++) {
-            model.addColumn(columns.getQuick(i).getName(), -1, configuration.getDefaultSymbolCapacity());
-        }
-
-        model.setQueryModel(queryModel);
+        setCreateTableQueryModel(model, optimiser.optimise(parseDml(lexer, null), executionContext));
         expectTok(lexer, ')');
     }
 
@@ -805,6 +947,19 @@ public final class SqlParser {
                 } while (true);
                 tok = optTok(lexer);
             }
+
+            if (tok != null && isAlignKeyword(tok)) {
+                expectTok(lexer, "to");
+                tok = tok(lexer, "'calendar' or 'first observation'");
+                if (isCalendarKeyword(tok)) {
+                    model.setSampleByAlignToCalendar(true);
+                } else if (isFirstKeyword(tok)) {
+                    expectTok(lexer, "observation");
+                } else {
+                    throw SqlException.$(lexer.lastTokenPosition(), "'calendar' or 'first observation' expected");
+                }
+                tok = optTok(lexer);
+            }
         }
 
         //expect [group by]
@@ -878,6 +1033,19 @@ public final class SqlParser {
         }
     }
 
+    private void setCreateTableQueryModel(CreateTableModel model, QueryModel queryModel) {
+        ObjList<QueryColumn> columns = queryModel.getBottomUpColumns();
+        assert columns.size() > 0;
+
+        // we do not know types of columns at this stage
+        // compiler must put table together using query metadata.
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            model.addColumn(columns.getQuick(i).getName(), -1, configuration.getDefaultSymbolCapacity());
+        }
+
+        model.setQueryModel(queryModel);
+    }
+
     private CharSequence setModelAliasAndTimestamp(GenericLexer lexer, QueryModel model) throws SqlException {
         CharSequence tok;
         tok = setModelAliasAndGetOptTok(lexer, model);
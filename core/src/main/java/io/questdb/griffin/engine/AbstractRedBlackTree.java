@@ -40,8 +40,8 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
     private static final int O_COLOUR = 24;
     private static final int O_REF = 25;
 
-    private static final byte RED = 1;
-    private static final byte BLACK = 0;
+    protected static final byte RED = 1;
+    protected static final byte BLACK = 0;
     protected final MemoryPages mem;
     protected long root = -1;
 
@@ -102,6 +102,9 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
     }
 
     protected static void setColor(long blockAddress, byte colour) {
+        if (blockAddress == -1) {
+            return;
+        }
         Unsafe.getUnsafe().putByte(blockAddress + O_COLOUR, colour);
     }
 
@@ -127,6 +130,17 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
         return p;
     }
 
+    protected static long maxOf(long blockAddress) {
+        long p = blockAddress;
+        if (p != -1) {
+            long r;
+            while ((r = rightOf(p)) != -1) {
+                p = r;
+            }
+        }
+        return p;
+    }
+
     protected long allocateBlock() {
         long p = mem.allocate(getBlockSize());
         setLeft(p, -1);
@@ -182,6 +196,49 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
         setColor(root, BLACK);
     }
 
+    // Unlinks node from the tree and returns address of the block that is no longer
+    // used. When node has two children its successor is unlinked instead, after
+    // successor reference is moved into node.
+    protected long remove(long p) {
+        if (leftOf(p) != -1 && rightOf(p) != -1) {
+            final long s = successor(p);
+            setRef(p, refOf(s));
+            p = s;
+        }
+
+        final long replacement = leftOf(p) != -1 ? leftOf(p) : rightOf(p);
+        final long parent = parentOf(p);
+        if (replacement != -1) {
+            setParent(replacement, parent);
+            if (parent == -1) {
+                root = replacement;
+            } else if (p == leftOf(parent)) {
+                setLeft(parent, replacement);
+            } else {
+                setRight(parent, replacement);
+            }
+            if (colorOf(p) == BLACK) {
+                fixAfterRemove(replacement);
+            }
+        } else if (parent == -1) {
+            root = -1;
+        } else {
+            // node is a leaf, it acts as phantom replacement while tree is re-balanced
+            if (colorOf(p) == BLACK) {
+                fixAfterRemove(p);
+            }
+            final long pp = parentOf(p);
+            if (pp != -1) {
+                if (p == leftOf(pp)) {
+                    setLeft(pp, -1);
+                } else if (p == rightOf(pp)) {
+                    setRight(pp, -1);
+                }
+            }
+        }
+        return p;
+    }
+
     protected int getBlockSize() {
         return BLOCK_SIZE;
     }
@@ -192,6 +249,64 @@ public abstract class AbstractRedBlackTree implements Mutable, Closeable {
         setParent(root, -1);
     }
 
+    private void fixAfterRemove(long x) {
+        while (x != root && colorOf(x) == BLACK) {
+            final long px = parentOf(x);
+            if (x == leftOf(px)) {
+                long sib = rightOf(px);
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(px, RED);
+                    rotateLeft(px);
+                    sib = rightOf(parentOf(x));
+                }
+
+                if (colorOf(leftOf(sib)) == BLACK && colorOf(rightOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(rightOf(sib)) == BLACK) {
+                        setColor(leftOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateRight(sib);
+                        sib = rightOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(rightOf(sib), BLACK);
+                    rotateLeft(parentOf(x));
+                    x = root;
+                }
+            } else {
+                long sib = leftOf(px);
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(px, RED);
+                    rotateRight(px);
+                    sib = leftOf(parentOf(x));
+                }
+
+                if (colorOf(rightOf(sib)) == BLACK && colorOf(leftOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(leftOf(sib)) == BLACK) {
+                        setColor(rightOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateLeft(sib);
+                        sib = leftOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(leftOf(sib), BLACK);
+                    rotateRight(parentOf(x));
+                    x = root;
+                }
+            }
+        }
+        setColor(x, BLACK);
+    }
+
     private void rotateLeft(long p) {
         if (p != -1) {
             final long r = rightOf(p);
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions;
+
+import io.questdb.cairo.sql.Function;
+
+/**
+ * Function that can be evaluated for a batch of consecutive rows at a time. Batch methods
+ * fill the first {@link FunctionBatch#size()} elements of the value array, one element per
+ * row, and produce exactly the same values as their row-by-row counterparts. Callers must
+ * check {@link #supportsBatch()} on the root of expression tree before using batch methods.
+ * <p>
+ * Batch method is declared by the sub-interface for function's return type. Int and long
+ * batch functions can also fill wider batches, values are widened the same way row-by-row
+ * accessors widen them.
+ */
+public interface BatchFunction extends Function {
+
+    static boolean supportsBatch(Function function) {
+        return function instanceof BatchFunction && ((BatchFunction) function).supportsBatch();
+    }
+
+    /**
+     * @return true when this function and all of its arguments can be evaluated in batches
+     */
+    boolean supportsBatch();
+}
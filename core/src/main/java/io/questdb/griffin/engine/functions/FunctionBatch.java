@@ -0,0 +1,119 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions;
+
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+
+/**
+ * Run of consecutive rows, for which {@link BatchFunction} values are calculated. Batch
+ * provides column data addresses for the first row of the run and scratch arrays, which
+ * functions borrow to hold values of their arguments. Scratch arrays are borrowed and
+ * released in stack order, batch is not thread-safe and must be owned by single evaluating thread.
+ */
+public class FunctionBatch {
+    public static final int CAPACITY = 1024;
+
+    private final LongList columnAddresses = new LongList();
+    private final ObjList<boolean[]> bools = new ObjList<>();
+    private final ObjList<double[]> doubles = new ObjList<>();
+    private final ObjList<int[]> ints = new ObjList<>();
+    private final ObjList<long[]> longs = new ObjList<>();
+    private int boolTop;
+    private int doubleTop;
+    private int intTop;
+    private int longTop;
+    private int size;
+
+    public FunctionBatch(int columnCount) {
+        columnAddresses.setAll(columnCount, 0);
+    }
+
+    /**
+     * @param columnIndex index of column in the record
+     * @return address of column value for the first row of the batch or 0 when column has no values for these rows
+     */
+    public long getColumnAddress(int columnIndex) {
+        return columnAddresses.getQuick(columnIndex);
+    }
+
+    public boolean[] nextBools() {
+        if (boolTop == bools.size()) {
+            bools.add(new boolean[CAPACITY]);
+        }
+        return bools.getQuick(boolTop++);
+    }
+
+    public double[] nextDoubles() {
+        if (doubleTop == doubles.size()) {
+            doubles.add(new double[CAPACITY]);
+        }
+        return doubles.getQuick(doubleTop++);
+    }
+
+    public int[] nextInts() {
+        if (intTop == ints.size()) {
+            ints.add(new int[CAPACITY]);
+        }
+        return ints.getQuick(intTop++);
+    }
+
+    public long[] nextLongs() {
+        if (longTop == longs.size()) {
+            longs.add(new long[CAPACITY]);
+        }
+        return longs.getQuick(longTop++);
+    }
+
+    public void of(int size) {
+        assert size > 0 && size <= CAPACITY;
+        this.size = size;
+    }
+
+    public void releaseBools() {
+        boolTop--;
+    }
+
+    public void releaseDoubles() {
+        doubleTop--;
+    }
+
+    public void releaseInts() {
+        intTop--;
+    }
+
+    public void releaseLongs() {
+        longTop--;
+    }
+
+    public void setColumnAddress(int columnIndex, long address) {
+        columnAddresses.setQuick(columnIndex, address);
+    }
+
+    public int size() {
+        return size;
+    }
+}
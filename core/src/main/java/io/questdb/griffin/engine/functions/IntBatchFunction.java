@@ -0,0 +1,54 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions;
+
+import io.questdb.std.Numbers;
+
+public interface IntBatchFunction extends LongBatchFunction {
+
+    @Override
+    default void getDoubleBatch(FunctionBatch batch, double[] values) {
+        final int size = batch.size();
+        final int[] ints = batch.nextInts();
+        getIntBatch(batch, ints);
+        for (int i = 0; i < size; i++) {
+            values[i] = Numbers.intToDouble(ints[i]);
+        }
+        batch.releaseInts();
+    }
+
+    void getIntBatch(FunctionBatch batch, int[] values);
+
+    @Override
+    default void getLongBatch(FunctionBatch batch, long[] values) {
+        final int size = batch.size();
+        final int[] ints = batch.nextInts();
+        getIntBatch(batch, ints);
+        for (int i = 0; i < size; i++) {
+            values[i] = Numbers.intToLong(ints[i]);
+        }
+        batch.releaseInts();
+    }
+}
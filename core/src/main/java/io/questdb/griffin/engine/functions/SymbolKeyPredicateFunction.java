@@ -0,0 +1,103 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.BitSet;
+import io.questdb.std.IntList;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Boolean function of a single symbol argument. When argument has static symbol table
+ * the predicate is evaluated once per distinct symbol in init() and rows are tested
+ * by their symbol key. Code generator can also use matching keys to scan symbol index.
+ */
+public abstract class SymbolKeyPredicateFunction extends NegatableBooleanFunction implements UnaryFunction {
+    protected final SymbolFunction arg;
+    private final BitSet matchingKeys = new BitSet();
+    // number of symbol keys evaluated by init(), -1 when symbol table is not static
+    private int keyCount = -1;
+    private boolean nullMatches;
+
+    public SymbolKeyPredicateFunction(int position, SymbolFunction arg) {
+        super(position);
+        this.arg = arg;
+    }
+
+    public void findMatchingKeys(StaticSymbolTable symbolTable, IntList keys) {
+        for (int key = 0, n = symbolTable.size(); key < n; key++) {
+            if (test(symbolTable.valueOf(key))) {
+                keys.add(key);
+            }
+        }
+        if (test(null)) {
+            keys.add(SymbolTable.VALUE_IS_NULL);
+        }
+    }
+
+    @Override
+    public Function getArg() {
+        return arg;
+    }
+
+    @Override
+    public boolean getBool(Record rec) {
+        if (keyCount > -1) {
+            final int key = arg.getInt(rec);
+            if (key > -1 && key < keyCount) {
+                return matchingKeys.get(key);
+            }
+            if (key == SymbolTable.VALUE_IS_NULL) {
+                return nullMatches;
+            }
+        }
+        return test(arg.getSymbol(rec));
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        arg.init(symbolTableSource, executionContext);
+        final StaticSymbolTable symbolTable = arg.getStaticSymbolTable();
+        if (symbolTable != null) {
+            matchingKeys.clear();
+            keyCount = symbolTable.size();
+            for (int key = 0; key < keyCount; key++) {
+                if (test(symbolTable.valueOf(key))) {
+                    matchingKeys.set(key);
+                }
+            }
+            nullMatches = test(null);
+        } else {
+            keyCount = -1;
+        }
+    }
+
+    protected abstract boolean test(@Nullable CharSequence symbol);
+}
@@ -27,19 +27,14 @@ package io.questdb.griffin.engine.functions.bool;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.sql.Function;
-import io.questdb.cairo.sql.Record;
-import io.questdb.cairo.sql.StaticSymbolTable;
-import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
-import io.questdb.griffin.engine.functions.BooleanFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
-import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.functions.SymbolKeyPredicateFunction;
 import io.questdb.griffin.engine.functions.constants.BooleanConstant;
 import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.Chars;
-import io.questdb.std.IntHashSet;
 import io.questdb.std.ObjList;
 
 public class InSymbolFunctionFactory implements FunctionFactory {
@@ -83,56 +78,17 @@ public class InSymbolFunctionFactory implements FunctionFactory {
         return new Func(position, var, set);
     }
 
-    @FunctionalInterface
-    private interface TestFunc {
-        boolean test(Record rec);
-    }
-
-    private static class Func extends BooleanFunction implements UnaryFunction {
-        private final SymbolFunction arg;
+    private static class Func extends SymbolKeyPredicateFunction {
         private final CharSequenceHashSet set;
-        private final IntHashSet intSet = new IntHashSet();
-        private final TestFunc intTest = this::testAsInt;
-        private final TestFunc strTest = this::testAsString;
-        private TestFunc testFunc;
 
         public Func(int position, SymbolFunction arg, CharSequenceHashSet set) {
-            super(position);
-            this.arg = arg;
+            super(position, arg);
             this.set = set;
         }
 
         @Override
-        public Function getArg() {
-            return arg;
-        }
-
-        @Override
-        public boolean getBool(Record rec) {
-            return testFunc.test(rec);
-        }
-
-        @Override
-        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
-            arg.init(symbolTableSource, executionContext);
-            final StaticSymbolTable symbolTable = arg.getStaticSymbolTable();
-            if (symbolTable != null) {
-                intSet.clear();
-                for (int i = 0, n = set.size(); i < n; i++) {
-                    intSet.add(symbolTable.keyOf(set.get(i)));
-                }
-                testFunc = intTest;
-            } else {
-                testFunc = strTest;
-            }
-        }
-
-        private boolean testAsString(Record rec) {
-            return set.contains(arg.getSymbol(rec));
-        }
-
-        private boolean testAsInt(Record rec) {
-            return intSet.contains(arg.getInt(rec));
+        protected boolean test(CharSequence symbol) {
+            return set.contains(symbol);
         }
     }
 }
@@ -29,7 +29,10 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
+import io.questdb.griffin.engine.functions.BooleanBatchFunction;
 import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
 import io.questdb.griffin.engine.functions.UnaryFunction;
 import io.questdb.std.ObjList;
 
@@ -44,7 +47,7 @@ public class NotFunctionFactory implements FunctionFactory {
         return new Func(position, args.getQuick(0));
     }
 
-    private static class Func extends BooleanFunction implements UnaryFunction {
+    private static class Func extends BooleanFunction implements UnaryFunction, BooleanBatchFunction {
         private final Function arg;
 
         public Func(int position, Function arg) {
@@ -57,6 +60,24 @@ public class NotFunctionFactory implements FunctionFactory {
             return arg;
         }
 
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
+
+        @Override
+        public void getBoolBatch(FunctionBatch batch, boolean[] values) {
+            ((BooleanBatchFunction) arg).getBoolBatch(batch, values);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                values[i] = !values[i];
+            }
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(arg);
+        }
+
         @Override
         public boolean getBool(Record rec) {
             return !arg.getBool(rec);
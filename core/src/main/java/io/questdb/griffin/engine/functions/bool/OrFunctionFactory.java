@@ -29,8 +29,11 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.BooleanBatchFunction;
 import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
 import io.questdb.griffin.engine.functions.constants.BooleanConstant;
 import io.questdb.std.Misc;
 import io.questdb.std.ObjList;
@@ -67,7 +70,7 @@ public class OrFunctionFactory implements FunctionFactory {
         return new MyBooleanFunction(position, leftFunc, rightFunc);
     }
 
-    private static class MyBooleanFunction extends BooleanFunction implements BinaryFunction {
+    private static class MyBooleanFunction extends BooleanFunction implements BinaryFunction, BooleanBatchFunction {
         final Function left;
         final Function right;
 
@@ -91,5 +94,26 @@ public class OrFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getBoolBatch(FunctionBatch batch, boolean[] values) {
+            final boolean[] rights = batch.nextBools();
+            ((BooleanBatchFunction) left).getBoolBatch(batch, values);
+            ((BooleanBatchFunction) right).getBoolBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                values[i] |= rights[i];
+            }
+            batch.releaseBools();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 }
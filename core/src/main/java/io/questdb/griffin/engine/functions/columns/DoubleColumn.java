@@ -26,9 +26,14 @@ package io.questdb.griffin.engine.functions.columns;
 
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.ScalarFunction;
+import io.questdb.griffin.engine.functions.DoubleBatchFunction;
 import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.std.Unsafe;
 
-public class DoubleColumn extends DoubleFunction implements ScalarFunction {
+import java.util.Arrays;
+
+public class DoubleColumn extends DoubleFunction implements ScalarFunction, DoubleBatchFunction {
     private final int columnIndex;
 
     public DoubleColumn(int position, int columnIndex) {
@@ -36,8 +41,28 @@ public class DoubleColumn extends DoubleFunction implements ScalarFunction {
         this.columnIndex = columnIndex;
     }
 
+    @Override
+    public void getDoubleBatch(FunctionBatch batch, double[] values) {
+        final long address = batch.getColumnAddress(columnIndex);
+        if (address == 0) {
+            Arrays.fill(values, 0, batch.size(), Double.NaN);
+        } else {
+            Unsafe.getUnsafe().copyMemory(null, address, values, Unsafe.DOUBLE_OFFSET, (long) batch.size() << 3);
+        }
+    }
+
     @Override
     public double getDouble(Record rec) {
         return rec.getDouble(columnIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
 }
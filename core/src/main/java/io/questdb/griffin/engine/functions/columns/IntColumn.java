@@ -26,9 +26,15 @@ package io.questdb.griffin.engine.functions.columns;
 
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.ScalarFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.IntBatchFunction;
 import io.questdb.griffin.engine.functions.IntFunction;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
 
-public class IntColumn extends IntFunction implements ScalarFunction {
+import java.util.Arrays;
+
+public class IntColumn extends IntFunction implements ScalarFunction, IntBatchFunction {
     private final int columnIndex;
 
     public IntColumn(int position, int columnIndex) {
@@ -36,8 +42,28 @@ public class IntColumn extends IntFunction implements ScalarFunction {
         this.columnIndex = columnIndex;
     }
 
+    @Override
+    public void getIntBatch(FunctionBatch batch, int[] values) {
+        final long address = batch.getColumnAddress(columnIndex);
+        if (address == 0) {
+            Arrays.fill(values, 0, batch.size(), Numbers.INT_NaN);
+        } else {
+            Unsafe.getUnsafe().copyMemory(null, address, values, Unsafe.INT_OFFSET, (long) batch.size() << 2);
+        }
+    }
+
     @Override
     public int getInt(Record rec) {
         return rec.getInt(columnIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
 }
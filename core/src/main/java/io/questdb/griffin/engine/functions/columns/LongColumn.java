@@ -26,9 +26,15 @@ package io.questdb.griffin.engine.functions.columns;
 
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.ScalarFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.LongBatchFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
 
-public class LongColumn extends LongFunction implements ScalarFunction {
+import java.util.Arrays;
+
+public class LongColumn extends LongFunction implements ScalarFunction, LongBatchFunction {
     private final int columnIndex;
 
     public LongColumn(int position, int columnIndex) {
@@ -36,8 +42,28 @@ public class LongColumn extends LongFunction implements ScalarFunction {
         this.columnIndex = columnIndex;
     }
 
+    @Override
+    public void getLongBatch(FunctionBatch batch, long[] values) {
+        final long address = batch.getColumnAddress(columnIndex);
+        if (address == 0) {
+            Arrays.fill(values, 0, batch.size(), Numbers.LONG_NaN);
+        } else {
+            Unsafe.getUnsafe().copyMemory(null, address, values, Unsafe.LONG_OFFSET, (long) batch.size() << 3);
+        }
+    }
+
     @Override
     public long getLong(Record rec) {
         return rec.getLong(columnIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
 }
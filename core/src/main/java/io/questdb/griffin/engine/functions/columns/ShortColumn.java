@@ -40,4 +40,9 @@ public class ShortColumn extends ShortFunction implements ScalarFunction {
     public short getShort(Record rec) {
         return rec.getShort(columnIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return true;
+    }
 }
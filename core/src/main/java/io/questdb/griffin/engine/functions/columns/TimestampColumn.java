@@ -40,4 +40,9 @@ public class TimestampColumn extends TimestampFunction implements ScalarFunction
     public long getTimestamp(Record rec) {
         return rec.getTimestamp(columnIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return true;
+    }
 }
@@ -64,6 +64,8 @@ public final class Constants {
         Constants.typeConstants.extendAndSet(ColumnType.FLOAT, FloatTypeConstant.INSTANCE);
         Constants.typeConstants.extendAndSet(ColumnType.BINARY, BinTypeConstant.INSTANCE);
         Constants.typeConstants.extendAndSet(ColumnType.LONG256, Long256TypeConstant.INSTANCE);
+        // VARCHAR is storage format, values are cast to and read as STRING
+        Constants.typeConstants.extendAndSet(ColumnType.VARCHAR, StrTypeConstant.INSTANCE);
     }
 
     public static ConstantFunction getNullConstant(int columnType) {
@@ -25,9 +25,13 @@
 package io.questdb.griffin.engine.functions.constants;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.DoubleBatchFunction;
 import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
 
-public class DoubleConstant extends DoubleFunction implements ConstantFunction {
+import java.util.Arrays;
+
+public class DoubleConstant extends DoubleFunction implements ConstantFunction, DoubleBatchFunction {
     private final double value;
 
     public DoubleConstant(int position, double value) {
@@ -35,8 +39,18 @@ public class DoubleConstant extends DoubleFunction implements ConstantFunction {
         this.value = value;
     }
 
+    @Override
+    public void getDoubleBatch(FunctionBatch batch, double[] values) {
+        Arrays.fill(values, 0, batch.size(), value);
+    }
+
     @Override
     public double getDouble(Record rec) {
         return value;
     }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
 }
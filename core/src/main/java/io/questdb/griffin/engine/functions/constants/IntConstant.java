@@ -25,9 +25,13 @@
 package io.questdb.griffin.engine.functions.constants;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.IntBatchFunction;
 import io.questdb.griffin.engine.functions.IntFunction;
 
-public class IntConstant extends IntFunction implements ConstantFunction {
+import java.util.Arrays;
+
+public class IntConstant extends IntFunction implements ConstantFunction, IntBatchFunction {
     private final int value;
 
     public IntConstant(int position, int value) {
@@ -35,8 +39,18 @@ public class IntConstant extends IntFunction implements ConstantFunction {
         this.value = value;
     }
 
+    @Override
+    public void getIntBatch(FunctionBatch batch, int[] values) {
+        Arrays.fill(values, 0, batch.size(), value);
+    }
+
     @Override
     public int getInt(Record rec) {
         return value;
     }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
 }
@@ -25,9 +25,13 @@
 package io.questdb.griffin.engine.functions.constants;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.LongBatchFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
 
-public class LongConstant extends LongFunction implements ConstantFunction {
+import java.util.Arrays;
+
+public class LongConstant extends LongFunction implements ConstantFunction, LongBatchFunction {
     private final long value;
 
     public LongConstant(int position, long value) {
@@ -35,8 +39,18 @@ public class LongConstant extends LongFunction implements ConstantFunction {
         this.value = value;
     }
 
+    @Override
+    public void getLongBatch(FunctionBatch batch, long[] values) {
+        Arrays.fill(values, 0, batch.size(), value);
+    }
+
     @Override
     public long getLong(Record rec) {
         return value;
     }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
 }
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.date;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.TimestampFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.datetime.microtime.Timestamps;
+
+public class TimestampFloorFunctionFactory implements FunctionFactory {
+
+    // floors timestamp to the bucket of fixed size, NULL timestamp remains NULL
+    // native keyed aggregation uses identical arithmetic, these must be kept in sync
+    public static long floor(long micros, long bucket) {
+        if (micros > -1) {
+            return micros - micros % bucket;
+        }
+        if (micros == Numbers.LONG_NaN) {
+            return Numbers.LONG_NaN;
+        }
+        return ((micros + 1) / bucket - 1) * bucket;
+    }
+
+    @Override
+    public String getSignature() {
+        return "timestamp_floor(aN)";
+    }
+
+    @Override
+    public Function newInstance(ObjList<Function> args, int position, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        final Function unit = args.getQuick(0);
+        final Function arg = args.getQuick(1);
+        final char c = unit.getChar(null);
+        switch (c) {
+            case 's':
+                return new FixedBucketFunc(position, arg, Timestamps.SECOND_MICROS);
+            case 'm':
+                return new FixedBucketFunc(position, arg, Timestamps.MINUTE_MICROS);
+            case 'h':
+                return new FixedBucketFunc(position, arg, Timestamps.HOUR_MICROS);
+            case 'd':
+                return new FixedBucketFunc(position, arg, Timestamps.DAY_MICROS);
+            case 'M':
+                return new MonthFunc(position, arg);
+            case 'y':
+                return new YearFunc(position, arg);
+            default:
+                throw SqlException.$(unit.getPosition(), "invalid unit '").put(c).put('\'');
+        }
+    }
+
+    private static final class FixedBucketFunc extends TimestampFunction implements UnaryFunction {
+        private final Function arg;
+        private final long bucket;
+
+        public FixedBucketFunc(int position, Function arg, long bucket) {
+            super(position);
+            this.arg = arg;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public long getTimestamp(Record rec) {
+            return floor(arg.getTimestamp(rec), bucket);
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return arg.isReadThreadSafe();
+        }
+    }
+
+    private static final class MonthFunc extends TimestampFunction implements UnaryFunction {
+        private final Function arg;
+
+        public MonthFunc(int position, Function arg) {
+            super(position);
+            this.arg = arg;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public long getTimestamp(Record rec) {
+            final long value = arg.getTimestamp(rec);
+            return value == Numbers.LONG_NaN ? Numbers.LONG_NaN : Timestamps.floorMM(value);
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return arg.isReadThreadSafe();
+        }
+    }
+
+    private static final class YearFunc extends TimestampFunction implements UnaryFunction {
+        private final Function arg;
+
+        public YearFunc(int position, Function arg) {
+            super(position);
+            this.arg = arg;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public long getTimestamp(Record rec) {
+            final long value = arg.getTimestamp(rec);
+            return value == Numbers.LONG_NaN ? Numbers.LONG_NaN : Timestamps.floorYYYY(value);
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return arg.isReadThreadSafe();
+        }
+    }
+}
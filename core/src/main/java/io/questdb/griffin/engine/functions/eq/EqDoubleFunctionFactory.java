@@ -30,7 +30,11 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.BooleanBatchFunction;
+import io.questdb.griffin.engine.functions.DoubleBatchFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
 import io.questdb.griffin.engine.functions.NegatableBooleanFunction;
 import io.questdb.griffin.engine.functions.UnaryFunction;
 import io.questdb.std.Numbers;
@@ -94,7 +98,7 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         return new Func(position, args.getQuick(0), args.getQuick(1));
     }
 
-    protected static class Func extends NegatableBooleanFunction implements BinaryFunction {
+    protected static class Func extends NegatableBooleanFunction implements BinaryFunction, BooleanBatchFunction {
         protected final Function left;
         protected final Function right;
 
@@ -120,6 +124,31 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getBoolBatch(FunctionBatch batch, boolean[] values) {
+            final double[] lefts = batch.nextDoubles();
+            final double[] rights = batch.nextDoubles();
+            ((DoubleBatchFunction) left).getDoubleBatch(batch, lefts);
+            ((DoubleBatchFunction) right).getDoubleBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                final double l = lefts[i];
+                final double r = rights[i];
+                values[i] = negated != (l != l && r != r || Math.abs(l - r) < 0.0000000001);
+            }
+            batch.releaseDoubles();
+            batch.releaseDoubles();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 
     protected static class FuncIntIsNaN extends NegatableBooleanFunction implements UnaryFunction {
@@ -139,6 +168,11 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getArg() {
             return arg;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
     }
 
     protected static class FuncLongIsNaN extends NegatableBooleanFunction implements UnaryFunction {
@@ -158,6 +192,11 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getArg() {
             return arg;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
     }
 
     protected static class FuncDateIsNaN extends NegatableBooleanFunction implements UnaryFunction {
@@ -177,6 +216,11 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getArg() {
             return arg;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
     }
 
     protected static class FuncTimestampIsNaN extends NegatableBooleanFunction implements UnaryFunction {
@@ -196,6 +240,11 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getArg() {
             return arg;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
     }
 
     protected static class FuncFloatIsNaN extends NegatableBooleanFunction implements UnaryFunction {
@@ -215,6 +264,11 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getArg() {
             return arg;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
     }
 
     protected static class FuncDoubleIsNaN extends NegatableBooleanFunction implements UnaryFunction {
@@ -234,5 +288,10 @@ public class EqDoubleFunctionFactory implements FunctionFactory {
         public Function getArg() {
             return arg;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getArg().isReadThreadSafe();
+        }
     }
 }
@@ -29,7 +29,11 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.BooleanBatchFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.LongBatchFunction;
 import io.questdb.griffin.engine.functions.NegatableBooleanFunction;
 import io.questdb.std.ObjList;
 
@@ -49,7 +53,7 @@ public class EqLongFunctionFactory implements FunctionFactory {
         return new Func(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static class Func extends NegatableBooleanFunction implements BinaryFunction {
+    private static class Func extends NegatableBooleanFunction implements BinaryFunction, BooleanBatchFunction {
         private final Function left;
         private final Function right;
 
@@ -73,5 +77,30 @@ public class EqLongFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getBoolBatch(FunctionBatch batch, boolean[] values) {
+            final long[] lefts = batch.nextLongs();
+            final long[] rights = batch.nextLongs();
+            ((LongBatchFunction) left).getLongBatch(batch, lefts);
+            ((LongBatchFunction) right).getLongBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                final long l = lefts[i];
+                final long r = rights[i];
+                values[i] = negated != (l == r);
+            }
+            batch.releaseLongs();
+            batch.releaseLongs();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 }
@@ -136,6 +136,12 @@ public class EqSymStrFunctionFactory implements FunctionFactory {
             return arg;
         }
 
+        @Override
+        public boolean isReadThreadSafe() {
+            // only symbol key is read from the record
+            return true;
+        }
+
         @Override
         public boolean getBool(Record rec) {
             return negated != (exists && arg.getInt(rec) == valueIndex);
@@ -165,6 +171,12 @@ public class EqSymStrFunctionFactory implements FunctionFactory {
             return arg;
         }
 
+        @Override
+        public boolean isReadThreadSafe() {
+            // only symbol key is read from the record
+            return true;
+        }
+
         @Override
         public boolean getBool(Record rec) {
             return negated != (arg.getInt(rec) == valueIndex);
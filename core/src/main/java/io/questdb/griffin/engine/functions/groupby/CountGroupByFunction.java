@@ -75,4 +75,8 @@ public class CountGroupByFunction extends LongFunction implements GroupByFunctio
         return false;
     }
 
+    @Override
+    public boolean isReadThreadSafe() {
+        return true;
+    }
 }
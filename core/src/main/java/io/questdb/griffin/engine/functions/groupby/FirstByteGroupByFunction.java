@@ -78,4 +78,9 @@ public class FirstByteGroupByFunction extends ByteFunction implements GroupByFun
     public void setByte(MapValue mapValue, byte value) {
         mapValue.putByte(this.valueIndex, value);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
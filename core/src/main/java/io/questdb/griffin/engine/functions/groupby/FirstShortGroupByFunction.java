@@ -78,4 +78,9 @@ public class FirstShortGroupByFunction extends ShortFunction implements GroupByF
     public short getShort(Record rec) {
         return rec.getShort(this.valueIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -105,4 +105,9 @@ public class KSumDoubleGroupByFunction extends DoubleFunction implements GroupBy
     public boolean isConstant() {
         return false;
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -83,4 +83,9 @@ public class MaxIntGroupByFunction extends IntFunction implements GroupByFunctio
     public int getInt(Record rec) {
         return rec.getInt(valueIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -83,4 +83,9 @@ public class MaxLongGroupByFunction extends LongFunction implements GroupByFunct
     public long getLong(Record rec) {
         return rec.getLong(valueIndex);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -111,4 +111,9 @@ public class NSumDoubleGroupByFunction extends DoubleFunction implements GroupBy
         mapValue.putDouble(valueIndex, t);
         mapValue.putDouble(valueIndex + 1, c);
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
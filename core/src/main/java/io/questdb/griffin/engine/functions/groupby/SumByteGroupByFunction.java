@@ -83,4 +83,9 @@ public class SumByteGroupByFunction extends ByteFunction implements GroupByFunct
     public boolean isConstant() {
         return false;
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -102,4 +102,9 @@ public class SumDoubleGroupByFunction extends DoubleFunction implements GroupByF
     public boolean isConstant() {
         return false;
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -84,4 +84,9 @@ public class SumShortGroupByFunction extends ShortFunction implements GroupByFun
     public boolean isConstant() {
         return false;
     }
+
+    @Override
+    public boolean isReadThreadSafe() {
+        return arg.isReadThreadSafe();
+    }
 }
@@ -29,8 +29,12 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.BooleanBatchFunction;
 import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.DoubleBatchFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
 import io.questdb.griffin.engine.functions.NegatableBooleanFunction;
 import io.questdb.std.ObjList;
 
@@ -50,7 +54,7 @@ public class LtDoubleVVFunctionFactory implements FunctionFactory {
         return new FuncVV(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static class FuncVV extends NegatableBooleanFunction implements BinaryFunction {
+    private static class FuncVV extends NegatableBooleanFunction implements BinaryFunction, BooleanBatchFunction {
         private final Function left;
         private final Function right;
 
@@ -76,5 +80,30 @@ public class LtDoubleVVFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getBoolBatch(FunctionBatch batch, boolean[] values) {
+            final double[] lefts = batch.nextDoubles();
+            final double[] rights = batch.nextDoubles();
+            ((DoubleBatchFunction) left).getDoubleBatch(batch, lefts);
+            ((DoubleBatchFunction) right).getDoubleBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                final double l = lefts[i];
+                final double r = rights[i];
+                values[i] = (l < r) != negated;
+            }
+            batch.releaseDoubles();
+            batch.releaseDoubles();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 }
@@ -29,8 +29,11 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.DoubleBatchFunction;
 import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
 import io.questdb.std.ObjList;
 
 public class AddDoubleFunctionFactory implements FunctionFactory {
@@ -44,7 +47,7 @@ public class AddDoubleFunctionFactory implements FunctionFactory {
         return new Func(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static class Func extends DoubleFunction implements BinaryFunction {
+    private static class Func extends DoubleFunction implements BinaryFunction, DoubleBatchFunction {
         private final Function left;
         private final Function right;
 
@@ -68,5 +71,26 @@ public class AddDoubleFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getDoubleBatch(FunctionBatch batch, double[] values) {
+            final double[] rights = batch.nextDoubles();
+            ((DoubleBatchFunction) left).getDoubleBatch(batch, values);
+            ((DoubleBatchFunction) right).getDoubleBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                values[i] = values[i] + rights[i];
+            }
+            batch.releaseDoubles();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 }
@@ -29,7 +29,10 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.LongBatchFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.Numbers;
 import io.questdb.std.ObjList;
@@ -45,7 +48,7 @@ public class AddLongFunctionFactory implements FunctionFactory {
         return new AddLongFunc(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static class AddLongFunc extends LongFunction implements BinaryFunction {
+    private static class AddLongFunc extends LongFunction implements BinaryFunction, LongBatchFunction {
         final Function left;
         final Function right;
 
@@ -65,6 +68,29 @@ public class AddLongFunctionFactory implements FunctionFactory {
             return right;
         }
 
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getLongBatch(FunctionBatch batch, long[] values) {
+            final long[] rights = batch.nextLongs();
+            ((LongBatchFunction) left).getLongBatch(batch, values);
+            ((LongBatchFunction) right).getLongBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                final long l = values[i];
+                final long r = rights[i];
+                values[i] = l == Numbers.LONG_NaN || r == Numbers.LONG_NaN ? Numbers.LONG_NaN : l + r;
+            }
+            batch.releaseLongs();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
+
         @Override
         public long getLong(Record rec) {
             final long l = left.getLong(rec);
@@ -65,6 +65,11 @@ public class DivLongFunctionFactory implements FunctionFactory {
             return right;
         }
 
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
         @Override
         public long getLong(Record rec) {
             final long l = left.getLong(rec);
@@ -29,7 +29,10 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.IntBatchFunction;
 import io.questdb.griffin.engine.functions.IntFunction;
 import io.questdb.std.ObjList;
 
@@ -44,7 +47,7 @@ public class MulIntFunctionFactory implements FunctionFactory {
         return new Func(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static final class Func extends IntFunction implements BinaryFunction {
+    private static final class Func extends IntFunction implements BinaryFunction, IntBatchFunction {
         private final Function left;
         private final Function right;
 
@@ -68,5 +71,26 @@ public class MulIntFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getIntBatch(FunctionBatch batch, int[] values) {
+            final int[] rights = batch.nextInts();
+            ((IntBatchFunction) left).getIntBatch(batch, values);
+            ((IntBatchFunction) right).getIntBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                values[i] = values[i] * rights[i];
+            }
+            batch.releaseInts();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 }
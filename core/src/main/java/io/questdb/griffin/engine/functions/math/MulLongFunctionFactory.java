@@ -29,7 +29,10 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.LongBatchFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.ObjList;
 
@@ -44,7 +47,7 @@ public class MulLongFunctionFactory implements FunctionFactory {
         return new Func(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static final class Func extends LongFunction implements BinaryFunction {
+    private static final class Func extends LongFunction implements BinaryFunction, LongBatchFunction {
         private final Function left;
         private final Function right;
 
@@ -64,6 +67,27 @@ public class MulLongFunctionFactory implements FunctionFactory {
             return right;
         }
 
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getLongBatch(FunctionBatch batch, long[] values) {
+            final long[] rights = batch.nextLongs();
+            ((LongBatchFunction) left).getLongBatch(batch, values);
+            ((LongBatchFunction) right).getLongBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                values[i] = values[i] * rights[i];
+            }
+            batch.releaseLongs();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
+
         @Override
         public long getLong(Record rec) {
             return left.getLong(rec) * right.getLong(rec);
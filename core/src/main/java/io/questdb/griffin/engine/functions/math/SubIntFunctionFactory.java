@@ -29,7 +29,10 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BatchFunction;
 import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.griffin.engine.functions.IntBatchFunction;
 import io.questdb.griffin.engine.functions.IntFunction;
 import io.questdb.std.Numbers;
 import io.questdb.std.ObjList;
@@ -45,7 +48,7 @@ public class SubIntFunctionFactory implements FunctionFactory {
         return new SubtractIntVVFunc(position, args.getQuick(0), args.getQuick(1));
     }
 
-    private static class SubtractIntVVFunc extends IntFunction implements BinaryFunction {
+    private static class SubtractIntVVFunc extends IntFunction implements BinaryFunction, IntBatchFunction {
         final Function left;
         final Function right;
 
@@ -76,5 +79,28 @@ public class SubIntFunctionFactory implements FunctionFactory {
         public Function getRight() {
             return right;
         }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return getLeft().isReadThreadSafe() && getRight().isReadThreadSafe();
+        }
+
+        @Override
+        public void getIntBatch(FunctionBatch batch, int[] values) {
+            final int[] rights = batch.nextInts();
+            ((IntBatchFunction) left).getIntBatch(batch, values);
+            ((IntBatchFunction) right).getIntBatch(batch, rights);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                final int l = values[i];
+                final int r = rights[i];
+                values[i] = l == Numbers.INT_NaN || r == Numbers.INT_NaN ? Numbers.INT_NaN : l - r;
+            }
+            batch.releaseInts();
+        }
+
+        @Override
+        public boolean supportsBatch() {
+            return BatchFunction.supportsBatch(left) && BatchFunction.supportsBatch(right);
+        }
     }
 }
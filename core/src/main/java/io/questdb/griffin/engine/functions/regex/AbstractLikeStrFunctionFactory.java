@@ -37,37 +37,9 @@ import io.questdb.griffin.engine.functions.UnaryFunction;
 import io.questdb.griffin.engine.functions.bind.IndexedParameterLinkFunction;
 import io.questdb.griffin.engine.functions.constants.BooleanConstant;
 import io.questdb.std.Chars;
-import io.questdb.std.Misc;
 import io.questdb.std.ObjList;
-import io.questdb.std.str.StringSink;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory {
-    public static String escapeSpecialChars(CharSequence pattern, CharSequence prev) {
-        int len = pattern.length();
-
-        StringSink sink = Misc.getThreadLocalBuilder();
-        for (int i = 0; i < len; i++) {
-            char c = pattern.charAt(i);
-            if (c == '_')
-                sink.put(".");
-            else if (c == '%')
-                sink.put(".*?");
-            else if ("[](){}.*+?$^|#\\".indexOf(c) != -1) {
-                sink.put("\\");
-                sink.put(c);
-            } else
-                sink.put(c);
-
-        }
-
-        if (Chars.equalsNc(sink, prev)) {
-            return null;
-        }
-        return Chars.toString(sink);
-    }
 
     @Override
     public Function newInstance(ObjList<Function> args, int position, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) throws SqlException {
@@ -77,13 +49,7 @@ public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory
         if (pattern.isConstant()) {
             final CharSequence likeString = pattern.getStr(null);
             if (likeString != null && likeString.length() > 0) {
-                String p = escapeSpecialChars(likeString, null);
-                assert p != null;
-                return new ConstLikeStrFunction(
-                        position,
-                        value,
-                        Pattern.compile(p, Pattern.DOTALL).matcher("")
-                );
+                return new ConstLikeStrFunction(position, value, StrMatchers.like(likeString));
             }
             return BooleanConstant.FALSE;
         }
@@ -98,9 +64,9 @@ public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory
 
     private static class ConstLikeStrFunction extends BooleanFunction implements UnaryFunction {
         private final Function value;
-        private final Matcher matcher;
+        private final StrMatcher matcher;
 
-        public ConstLikeStrFunction(int position, Function value, Matcher matcher) {
+        public ConstLikeStrFunction(int position, Function value, StrMatcher matcher) {
             super(position);
             this.value = value;
             this.matcher = matcher;
@@ -114,14 +80,14 @@ public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory
         @Override
         public boolean getBool(Record rec) {
             CharSequence cs = getArg().getStr(rec);
-            return cs != null && matcher.reset(cs).matches();
+            return cs != null && matcher.matches(cs);
         }
     }
 
     private static class BindLikeStrFunction extends BooleanFunction implements UnaryFunction {
         private final Function value;
         private final Function pattern;
-        private Matcher matcher;
+        private StrMatcher matcher;
         private String lastPattern = null;
 
         public BindLikeStrFunction(int position, Function value, Function pattern) {
@@ -139,7 +105,7 @@ public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory
         public boolean getBool(Record rec) {
             if (matcher != null) {
                 CharSequence cs = getArg().getStr(rec);
-                return cs != null && matcher.reset(cs).matches();
+                return cs != null && matcher.matches(cs);
             }
             return false;
         }
@@ -151,10 +117,9 @@ public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory
             // this is bind variable, we can use it as constant
             final CharSequence patternValue = pattern.getStr(null);
             if (patternValue != null && patternValue.length() > 0) {
-                final String p = escapeSpecialChars(patternValue, lastPattern);
-                if (p != null) {
-                    this.matcher = Pattern.compile(p, Pattern.DOTALL).matcher("");
-                    this.lastPattern = p;
+                if (!Chars.equalsNc(patternValue, lastPattern)) {
+                    this.matcher = StrMatchers.like(patternValue);
+                    this.lastPattern = Chars.toString(patternValue);
                 }
             } else {
                 lastPattern = null;
@@ -163,7 +128,3 @@ public abstract class AbstractLikeStrFunctionFactory implements FunctionFactory
         }
     }
 }
-
-
-
-
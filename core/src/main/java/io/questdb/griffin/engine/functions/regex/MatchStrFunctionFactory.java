@@ -32,11 +32,8 @@ import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.functions.BooleanFunction;
 import io.questdb.griffin.engine.functions.UnaryFunction;
-import io.questdb.std.Chars;
 import io.questdb.std.ObjList;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 public class MatchStrFunctionFactory implements FunctionFactory {
@@ -55,8 +52,7 @@ public class MatchStrFunctionFactory implements FunctionFactory {
         }
 
         try {
-            Matcher matcher = Pattern.compile(Chars.toString(regex)).matcher("");
-            return new MatchFunction(position, value, matcher);
+            return new MatchFunction(position, value, StrMatchers.regex(regex));
         } catch (PatternSyntaxException e) {
             throw SqlException.$(args.getQuick(1).getPosition() + e.getIndex() + 1, e.getMessage());
         }
@@ -64,9 +60,9 @@ public class MatchStrFunctionFactory implements FunctionFactory {
 
     private static class MatchFunction extends BooleanFunction implements UnaryFunction {
         private final Function value;
-        private final Matcher matcher;
+        private final StrMatcher matcher;
 
-        public MatchFunction(int position, Function value, Matcher matcher) {
+        public MatchFunction(int position, Function value, StrMatcher matcher) {
             super(position);
             this.value = value;
             this.matcher = matcher;
@@ -75,7 +71,7 @@ public class MatchStrFunctionFactory implements FunctionFactory {
         @Override
         public boolean getBool(Record rec) {
             CharSequence cs = getArg().getStr(rec);
-            return cs != null && matcher.reset(cs).find();
+            return cs != null && matcher.matches(cs);
         }
 
         @Override
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.engine.functions.SymbolFunction;
+import io.questdb.griffin.engine.functions.SymbolKeyPredicateFunction;
+import io.questdb.griffin.engine.functions.constants.BooleanConstant;
+
+class MatchSymbolFunction extends SymbolKeyPredicateFunction {
+    private final StrMatcher matcher;
+
+    private MatchSymbolFunction(int position, SymbolFunction arg, StrMatcher matcher, boolean negated) {
+        super(position, arg);
+        this.matcher = matcher;
+        this.negated = negated;
+    }
+
+    static Function newInstance(int position, SymbolFunction arg, StrMatcher matcher, boolean negated) {
+        if (arg.isConstant()) {
+            return new BooleanConstant(position, test(matcher, arg.getSymbol(null), negated));
+        }
+        return new MatchSymbolFunction(position, arg, matcher, negated);
+    }
+
+    private static boolean test(StrMatcher matcher, CharSequence value, boolean negated) {
+        return value == null ? negated : matcher.matches(value) != negated;
+    }
+
+    @Override
+    protected boolean test(CharSequence symbol) {
+        return test(matcher, symbol, negated);
+    }
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matchers for LIKE patterns and regular expressions. Patterns that reduce to a literal
+ * prefix, suffix, exact or contains test are matched by plain char comparison without
+ * java.util.regex. Other LIKE patterns are matched segment by segment, where each segment
+ * is located once left to right, so matching never backtracks into previous segments.
+ * Regular expressions that are not literal fall back to java.util.regex.
+ */
+public final class StrMatchers {
+    private static final String REGEX_META_CHARS = "[](){}.*+?$^|\\";
+    private static final StrMatcher ANY = value -> true;
+
+    private StrMatchers() {
+    }
+
+    public static StrMatcher like(CharSequence pattern) {
+        final int len = pattern.length();
+        if (Chars.indexOf(pattern, '_') == -1) {
+            final boolean leading = len > 0 && pattern.charAt(0) == '%';
+            final boolean trailing = len > 1 && pattern.charAt(len - 1) == '%';
+            final int lo = leading ? 1 : 0;
+            final int hi = trailing ? len - 1 : len;
+            if (Chars.indexOf(pattern, lo, hi, '%') == -1) {
+                return literal(Chars.toString(pattern, lo, hi), !leading, !trailing);
+            }
+        }
+        return new WildcardMatcher(pattern);
+    }
+
+    /**
+     * Creates matcher that finds regular expression anywhere in the value. Expressions without
+     * meta chars, optionally anchored with '^', are matched as literals.
+     *
+     * @param regex regular expression
+     * @return matcher
+     * @throws java.util.regex.PatternSyntaxException when expression cannot be compiled
+     */
+    public static StrMatcher regex(CharSequence regex) {
+        final int len = regex.length();
+        final boolean anchored = len > 0 && regex.charAt(0) == '^';
+        for (int i = anchored ? 1 : 0; i < len; i++) {
+            if (REGEX_META_CHARS.indexOf(regex.charAt(i)) != -1) {
+                return new RegexMatcher(Pattern.compile(Chars.toString(regex)).matcher(""));
+            }
+        }
+        return literal(Chars.toString(regex, anchored ? 1 : 0, len), anchored, false);
+    }
+
+    private static StrMatcher literal(String literal, boolean anchoredStart, boolean anchoredEnd) {
+        if (anchoredStart) {
+            return anchoredEnd ? new ExactMatcher(literal) : new PrefixMatcher(literal);
+        }
+
+        if (anchoredEnd) {
+            return new SuffixMatcher(literal);
+        }
+
+        switch (literal.length()) {
+            case 0:
+                return ANY;
+            case 1:
+                final char c = literal.charAt(0);
+                return value -> Chars.indexOf(value, c) != -1;
+            default:
+                return new ContainsMatcher(literal);
+        }
+    }
+
+    // compares literal with value chars starting at the offset, '_' matches any char when wildcard is set
+    private static boolean regionMatches(CharSequence value, int offset, String literal, boolean wildcard) {
+        for (int i = 0, n = literal.length(); i < n; i++) {
+            final char c = literal.charAt(i);
+            if (c != value.charAt(offset + i) && !(wildcard && c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ExactMatcher implements StrMatcher {
+        private final String literal;
+
+        private ExactMatcher(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            return value.length() == literal.length() && regionMatches(value, 0, literal, false);
+        }
+    }
+
+    private static class PrefixMatcher implements StrMatcher {
+        private final String literal;
+
+        private PrefixMatcher(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            return value.length() >= literal.length() && regionMatches(value, 0, literal, false);
+        }
+    }
+
+    private static class SuffixMatcher implements StrMatcher {
+        private final String literal;
+
+        private SuffixMatcher(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            final int offset = value.length() - literal.length();
+            return offset >= 0 && regionMatches(value, offset, literal, false);
+        }
+    }
+
+    /**
+     * Boyer-Moore-Horspool search. Shift table is indexed by the low byte of a char,
+     * chars that share low byte share the smallest of their shifts.
+     */
+    private static class ContainsMatcher implements StrMatcher {
+        private final String literal;
+        private final int[] shifts = new int[256];
+
+        private ContainsMatcher(String literal) {
+            final int last = literal.length() - 1;
+            this.literal = literal;
+            for (int i = 0; i < 256; i++) {
+                shifts[i] = last + 1;
+            }
+            for (int i = 0; i < last; i++) {
+                shifts[literal.charAt(i) & 0xff] = last - i;
+            }
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            final String literal = this.literal;
+            final int last = literal.length() - 1;
+            final char lastChar = literal.charAt(last);
+            final int limit = value.length() - last;
+            int offset = 0;
+            while (offset < limit) {
+                final char c = value.charAt(offset + last);
+                if (c == lastChar && regionMatches(value, offset, literal, false)) {
+                    return true;
+                }
+                offset += shifts[c & 0xff];
+            }
+            return false;
+        }
+    }
+
+    /**
+     * General LIKE pattern. Pattern is split by '%' into segments, where '_' matches any char.
+     * First and last segments are anchored unless pattern starts or ends with '%', other
+     * segments are matched at their leftmost position after the previous segment.
+     */
+    private static class WildcardMatcher implements StrMatcher {
+        private final ObjList<String> segments = new ObjList<>();
+        private final boolean anchoredStart;
+        private final boolean anchoredEnd;
+
+        private WildcardMatcher(CharSequence pattern) {
+            final int len = pattern.length();
+            int lo = 0;
+            for (int i = 0; i <= len; i++) {
+                if (i == len || pattern.charAt(i) == '%') {
+                    if (i > lo) {
+                        segments.add(Chars.toString(pattern, lo, i));
+                    }
+                    lo = i + 1;
+                }
+            }
+            this.anchoredStart = len > 0 && pattern.charAt(0) != '%';
+            this.anchoredEnd = len > 0 && pattern.charAt(len - 1) != '%';
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            final int segmentCount = segments.size();
+            int lo = 0;
+            int hi = value.length();
+            int first = 0;
+            int last = segmentCount - 1;
+
+            if (anchoredStart && segmentCount > 0) {
+                final String segment = segments.getQuick(0);
+                if (hi < segment.length() || !regionMatches(value, 0, segment, true)) {
+                    return false;
+                }
+                lo = segment.length();
+                first = 1;
+                if (anchoredEnd && segmentCount == 1) {
+                    return lo == hi;
+                }
+            }
+
+            if (anchoredEnd && last >= first) {
+                final String segment = segments.getQuick(last);
+                final int offset = hi - segment.length();
+                if (offset < lo || !regionMatches(value, offset, segment, true)) {
+                    return false;
+                }
+                hi = offset;
+                last--;
+            }
+
+            for (int i = first; i <= last; i++) {
+                final String segment = segments.getQuick(i);
+                final int limit = hi - segment.length();
+                int offset = lo;
+                while (offset <= limit && !regionMatches(value, offset, segment, true)) {
+                    offset++;
+                }
+                if (offset > limit) {
+                    return false;
+                }
+                lo = offset + segment.length();
+            }
+            return true;
+        }
+    }
+
+    private static class RegexMatcher implements StrMatcher {
+        private final Matcher matcher;
+
+        private RegexMatcher(Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean matches(CharSequence value) {
+            return matcher.reset(value).find();
+        }
+    }
+}
@@ -87,8 +87,8 @@ public abstract class AbstractNoRecordSampleByCursor implements DelegatingRecord
         this.base = base;
         this.baseRecord = base.getRecord();
         final long timestamp = baseRecord.getTimestamp(timestampIndex);
-        this.nextTimestamp = timestampSampler.round(timestamp);
-        this.baselineOffset = timestamp - nextTimestamp;
+        this.baselineOffset = timestampSampler.getOffset(timestamp);
+        this.nextTimestamp = timestampSampler.round(timestamp - baselineOffset);
         this.lastTimestamp = this.nextTimestamp;
         interruptor = executionContext.getSqlExecutionInterruptor();
     }
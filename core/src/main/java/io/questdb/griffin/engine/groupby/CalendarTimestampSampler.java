@@ -0,0 +1,64 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+/**
+ * Aligns buckets to calendar instead of the first sampled timestamp. Bucket boundaries do not
+ * depend on which rows are sampled, which makes result of sampling any time range consistent with
+ * sampling the whole table.
+ */
+class CalendarTimestampSampler implements TimestampSampler {
+    private final TimestampSampler delegate;
+
+    CalendarTimestampSampler(TimestampSampler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long nextTimestamp(long timestamp) {
+        return delegate.nextTimestamp(timestamp);
+    }
+
+    @Override
+    public long previousTimestamp(long timestamp) {
+        return delegate.previousTimestamp(timestamp);
+    }
+
+    @Override
+    public long round(long timestamp) {
+        return delegate.round(timestamp);
+    }
+
+    @Override
+    public long getBucketSize() {
+        return delegate.getBucketSize();
+    }
+
+    @Override
+    public long getOffset(long firstTimestamp) {
+        return 0;
+    }
+}
@@ -35,6 +35,7 @@ import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
 import io.questdb.griffin.engine.functions.columns.*;
+import io.questdb.griffin.engine.functions.groupby.*;
 import io.questdb.griffin.model.ExpressionNode;
 import io.questdb.griffin.model.QueryColumn;
 import io.questdb.griffin.model.QueryModel;
@@ -44,6 +45,31 @@ import org.jetbrains.annotations.NotNull;
 
 public class GroupByUtils {
 
+    /**
+     * Creates group-by function, which keeps the first value of the given column. Returns null
+     * when there is no such function for the column type.
+     */
+    public static GroupByFunction newFirstGroupByFunction(int type, int position, int columnIndex) {
+        switch (type) {
+            case ColumnType.BYTE:
+                return new FirstByteGroupByFunction(position, new ByteColumn(position, columnIndex));
+            case ColumnType.SHORT:
+                return new FirstShortGroupByFunction(position, new ShortColumn(position, columnIndex));
+            case ColumnType.INT:
+                return new FirstIntGroupByFunction(position, new IntColumn(position, columnIndex));
+            case ColumnType.LONG:
+                return new FirstLongGroupByFunction(position, new LongColumn(position, columnIndex));
+            case ColumnType.DATE:
+                return new FirstDateGroupByFunction(position, new DateColumn(position, columnIndex));
+            case ColumnType.TIMESTAMP:
+                return new FirstTimestampGroupByFunction(position, new TimestampColumn(position, columnIndex));
+            case ColumnType.DOUBLE:
+                return new FirstDoubleGroupByFunction(position, new DoubleColumn(position, columnIndex));
+            default:
+                return null;
+        }
+    }
+
     public static void prepareGroupByFunctions(
             QueryModel model,
             RecordMetadata metadata,
@@ -150,6 +176,7 @@ public class GroupByUtils {
                             fun = new DoubleColumn(node.position, keyColumnIndex - 1);
                             break;
                         case ColumnType.STRING:
+                        case ColumnType.VARCHAR:
                             fun = new StrColumn(node.position, keyColumnIndex - 1);
                             break;
                         case ColumnType.SYMBOL:
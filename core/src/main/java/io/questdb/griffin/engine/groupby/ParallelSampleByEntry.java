@@ -0,0 +1,183 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+
+import java.io.Closeable;
+
+/**
+ * Contiguous range of table rows, possibly spanning several data frames, aggregated into
+ * its own map keyed by sample bucket and the SAMPLE BY keys. Range boundaries are aligned
+ * to sample buckets, so that every bucket is aggregated entirely by one entry. Entry is
+ * evaluated exactly once, either by a worker that picked it from the queue or by the cursor
+ * that owns it.
+ */
+public class ParallelSampleByEntry implements Closeable {
+    static final int STATE_PENDING = 0;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_DONE = 2;
+    private static final long STATE_OFFSET;
+
+    private final TableReaderSelectedColumnRecord record;
+    private final Map map;
+    private final RecordSink keySink;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final TimestampSampler timestampSampler;
+    private final int timestampIndex;
+    // frame triplets of partition index, row low and row high, shared by all entries of the cursor
+    private LongList frames;
+    private int frameLo;
+    private long rowLo;
+    private int frameHi;
+    private long rowHi;
+    private long offset;
+    private Throwable error;
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int state = STATE_DONE;
+
+    public ParallelSampleByEntry(
+            CairoConfiguration configuration,
+            IntList columnIndexes,
+            ColumnTypes keyTypes,
+            ColumnTypes valueTypes,
+            RecordSink keySink,
+            ObjList<GroupByFunction> groupByFunctions,
+            TimestampSampler timestampSampler,
+            int timestampIndex
+    ) {
+        this.record = new TableReaderSelectedColumnRecord(columnIndexes);
+        this.map = MapFactory.createMap(configuration, keyTypes, valueTypes);
+        this.keySink = keySink;
+        this.groupByFunctions = groupByFunctions;
+        this.timestampSampler = timestampSampler;
+        this.timestampIndex = timestampIndex;
+    }
+
+    @Override
+    public void close() {
+        map.close();
+    }
+
+    public boolean run() {
+        if (tryLock()) {
+            evaluate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Attempts to cancel entry, which is still sitting in the queue. Entry that is being
+     * evaluated by another thread cannot be cancelled and must be awaited.
+     *
+     * @return true when entry will not be evaluated
+     */
+    boolean cancel() {
+        if (tryLock()) {
+            state = STATE_DONE;
+            return true;
+        }
+        return state == STATE_DONE;
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    Map getMap() {
+        return map;
+    }
+
+    boolean isDone() {
+        return state == STATE_DONE;
+    }
+
+    void of(TableReader reader, LongList frames, int frameLo, long rowLo, int frameHi, long rowHi, long offset) {
+        this.record.of(reader);
+        this.frames = frames;
+        this.frameLo = frameLo;
+        this.rowLo = rowLo;
+        this.frameHi = frameHi;
+        this.rowHi = rowHi;
+        this.offset = offset;
+        this.error = null;
+        this.map.clear();
+        // volatile write publishes the fields above to the thread that locks the entry
+        this.state = STATE_PENDING;
+    }
+
+    private void evaluate() {
+        try {
+            final TableReaderSelectedColumnRecord record = this.record;
+            final ObjList<GroupByFunction> groupByFunctions = this.groupByFunctions;
+            final int n = groupByFunctions.size();
+            long bucket = 0;
+            // rows are ordered by timestamp, bucket is only re-calculated when timestamp reaches its end
+            long bucketHi = Long.MIN_VALUE;
+            for (int f = frameLo; f <= frameHi; f++) {
+                final long lo = f == frameLo ? rowLo : frames.getQuick(f * 3 + 1);
+                final long hi = f == frameHi ? rowHi : frames.getQuick(f * 3 + 2);
+                record.jumpTo((int) frames.getQuick(f * 3), lo);
+                for (long r = lo; r < hi; r++) {
+                    record.setRecordIndex(r);
+                    final long timestamp = record.getTimestamp(timestampIndex);
+                    if (timestamp >= bucketHi) {
+                        bucket = timestampSampler.round(timestamp - offset) + offset;
+                        bucketHi = timestampSampler.nextTimestamp(bucket - offset) + offset;
+                    }
+                    final MapKey key = map.withKey();
+                    key.putLong(bucket);
+                    keySink.copy(record, key);
+                    GroupByUtils.updateFunctions(groupByFunctions, n, key.createValue(), record);
+                }
+            }
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            state = STATE_DONE;
+        }
+    }
+
+    private boolean tryLock() {
+        return Unsafe.cas(this, STATE_OFFSET, STATE_PENDING, STATE_RUNNING);
+    }
+
+    static {
+        STATE_OFFSET = Unsafe.getFieldOffset(ParallelSampleByEntry.class, "state");
+    }
+}
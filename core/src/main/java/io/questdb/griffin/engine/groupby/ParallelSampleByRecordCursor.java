@@ -0,0 +1,388 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.map.MapRecord;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.tasks.ParallelSampleByTask;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Splits table scan into row ranges aligned to sample buckets and publishes them on the message
+ * bus for the worker pool to aggregate. Each range yields one row per bucket and key, which this
+ * cursor returns in timestamp order. Values are final aggregates, so the SAMPLE BY cursor on top
+ * only has to take the first value of each bucket and key. No more than "window" ranges are in
+ * flight at any time.
+ */
+class ParallelSampleByRecordCursor implements NoRandomAccessRecordCursor {
+    private final ObjList<ParallelSampleByEntry> entries;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final IntList columnIndexes;
+    // maps column of this cursor to the column of the base table scan, -1 for aggregate values
+    private final IntList baseColumnIndexes;
+    private final TableReaderSelectedColumnRecord timestampRecord;
+    private final PreAggregatedRecord record = new PreAggregatedRecord();
+    private final LongList frames = new LongList();
+    private final SymbolTableSource baseSymbolTableSource;
+    private final TimestampSampler timestampSampler;
+    private final int timestampIndex;
+    private final long taskRowCount;
+    private final int window;
+    private RingQueue<ParallelSampleByTask> queue;
+    private Sequence pubSeq;
+    private DataFrameCursor dataFrameCursor;
+    private TableReader reader;
+    private int head;
+    private int inFlightCount;
+    private ParallelSampleByEntry current;
+    private RecordCursor mapCursor;
+    private int frameIndex;
+    private long frameRow;
+    private long offset;
+
+    public ParallelSampleByRecordCursor(
+            ObjList<ParallelSampleByEntry> entries,
+            ObjList<GroupByFunction> groupByFunctions,
+            IntList columnIndexes,
+            IntList baseColumnIndexes,
+            TimestampSampler timestampSampler,
+            int timestampIndex,
+            int mapKeyIndex,
+            long taskRowCount
+    ) {
+        this.entries = entries;
+        this.groupByFunctions = groupByFunctions;
+        this.columnIndexes = columnIndexes;
+        this.baseColumnIndexes = baseColumnIndexes;
+        this.timestampRecord = new TableReaderSelectedColumnRecord(columnIndexes);
+        this.timestampSampler = timestampSampler;
+        this.timestampIndex = timestampIndex;
+        this.taskRowCount = taskRowCount;
+        this.window = entries.size();
+        this.record.functionCount = groupByFunctions.size();
+        this.record.mapKeyIndex = mapKeyIndex;
+        this.baseSymbolTableSource = columnIndex -> dataFrameCursor.getSymbolTable(this.columnIndexes.getQuick(columnIndex));
+    }
+
+    @Override
+    public void close() {
+        if (dataFrameCursor != null) {
+            drain();
+            dataFrameCursor = Misc.free(dataFrameCursor);
+        }
+        reader = null;
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return dataFrameCursor.getSymbolTable(columnIndexes.getQuick(baseColumnIndexes.getQuick(columnIndex)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (true) {
+            if (mapCursor != null && mapCursor.hasNext()) {
+                return true;
+            }
+
+            if (current != null) {
+                release();
+            }
+
+            dispatch();
+
+            if (inFlightCount == 0) {
+                return false;
+            }
+
+            current = entries.getQuick(head);
+            await(current);
+            mapCursor = current.getMap().getCursor();
+            record.of(current.getMap().getRecord());
+        }
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        drain();
+        GroupByUtils.toTop(groupByFunctions);
+    }
+
+    private static void await(ParallelSampleByEntry entry) {
+        // evaluate entry on this thread unless worker beat us to it
+        if (!entry.run()) {
+            while (!entry.isDone()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+
+        final Throwable error = entry.getError();
+        if (error != null) {
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw CairoException.instance(0).put("sample by failed [error=").put(error.getMessage()).put(']');
+        }
+    }
+
+    private void dispatch() {
+        final int frameCount = frames.size() / 3;
+        while (inFlightCount < window && frameIndex < frameCount) {
+            final int frameLo = frameIndex;
+            final long rowLo = frameRow;
+
+            // take at least "taskRowCount" rows, possibly from several frames
+            long remaining = taskRowCount;
+            int f = frameLo;
+            long r = rowLo;
+            boolean split = false;
+            while (true) {
+                final long hi = frames.getQuick(f * 3 + 2);
+                if (hi - r > remaining) {
+                    r += remaining;
+                    split = true;
+                    break;
+                }
+                remaining -= hi - r;
+                if (f == frameCount - 1) {
+                    r = hi;
+                    break;
+                }
+                r = frames.getQuick(++f * 3 + 1);
+            }
+
+            if (split) {
+                // extend range to the end of the bucket row "r" belongs to, bucket must not be split between entries
+                final long limit = timestampSampler.nextTimestamp(timestampSampler.round(getTimestamp(f, r) - offset)) + offset;
+                r = search(f, r, limit);
+                while (r == frames.getQuick(f * 3 + 2) && f < frameCount - 1) {
+                    f++;
+                    r = search(f, frames.getQuick(f * 3 + 1), limit);
+                }
+            }
+
+            final ParallelSampleByEntry entry = entries.getQuick((head + inFlightCount) % window);
+            entry.of(reader, frames, frameLo, rowLo, f, r, offset);
+            inFlightCount++;
+
+            if (r < frames.getQuick(f * 3 + 2)) {
+                frameIndex = f;
+                frameRow = r;
+            } else if (f < frameCount - 1) {
+                frameIndex = f + 1;
+                frameRow = frames.getQuick(frameIndex * 3 + 1);
+            } else {
+                frameIndex = frameCount;
+            }
+
+            // when queue is full we do not publish, cursor will evaluate entry when it gets to it
+            final long seq = pubSeq.next();
+            if (seq > -1) {
+                queue.get(seq).entry = entry;
+                pubSeq.done(seq);
+            }
+        }
+    }
+
+    private void drain() {
+        // entries in flight reference table reader, we cannot let go of
+        // the reader until workers are done with these entries
+        for (int i = 0; i < inFlightCount; i++) {
+            final ParallelSampleByEntry entry = entries.getQuick((head + i) % window);
+            while (!entry.cancel()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+        head = 0;
+        inFlightCount = 0;
+        current = null;
+        mapCursor = null;
+        frameIndex = 0;
+        frameRow = frames.size() > 0 ? frames.getQuick(1) : 0;
+    }
+
+    SymbolTableSource getBaseSymbolTableSource() {
+        return baseSymbolTableSource;
+    }
+
+    private long getTimestamp(int frame, long row) {
+        timestampRecord.jumpTo((int) frames.getQuick(frame * 3), row);
+        return timestampRecord.getTimestamp(timestampIndex);
+    }
+
+    void of(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext) {
+        if (this.dataFrameCursor != dataFrameCursor) {
+            close();
+            this.dataFrameCursor = dataFrameCursor;
+        }
+        final MessageBus bus = executionContext.getMessageBus();
+        assert bus != null;
+        this.queue = bus.getParallelSampleByQueue();
+        this.pubSeq = bus.getParallelSampleByPubSequence();
+        this.reader = dataFrameCursor.getTableReader();
+        this.timestampRecord.of(reader);
+
+        // frames are collected upfront, this opens partitions before workers get to read them
+        frames.clear();
+        dataFrameCursor.toTop();
+        DataFrame dataFrame;
+        while ((dataFrame = dataFrameCursor.next()) != null) {
+            if (dataFrame.getRowHi() > dataFrame.getRowLo()) {
+                frames.add(dataFrame.getPartitionIndex());
+                frames.add(dataFrame.getRowLo());
+                frames.add(dataFrame.getRowHi());
+            }
+        }
+
+        if (frames.size() > 0) {
+            // buckets are aligned the same way serial SAMPLE BY aligns them
+            this.offset = timestampSampler.getOffset(getTimestamp(0, frames.getQuick(1)));
+        }
+        drain();
+    }
+
+    private void release() {
+        current = null;
+        mapCursor = null;
+        head = (head + 1) % window;
+        inFlightCount--;
+    }
+
+    /**
+     * @return first row in the [rowLo, frame row high) range with timestamp at or above the limit,
+     * frame row high when there is no such row
+     */
+    private long search(int frame, long rowLo, long limit) {
+        long lo = rowLo;
+        long hi = frames.getQuick(frame * 3 + 2);
+        timestampRecord.jumpTo((int) frames.getQuick(frame * 3), lo);
+        while (lo < hi) {
+            final long mid = (lo + hi) >>> 1;
+            timestampRecord.setRecordIndex(mid);
+            if (timestampRecord.getTimestamp(timestampIndex) < limit) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private class PreAggregatedRecord implements Record {
+        private int functionCount;
+        private int mapKeyIndex;
+        private MapRecord mapRecord;
+
+        @Override
+        public boolean getBool(int col) {
+            return mapRecord.getBool(mapColumn(col));
+        }
+
+        @Override
+        public byte getByte(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getByte(mapRecord) : mapRecord.getByte(mapColumn(col));
+        }
+
+        @Override
+        public char getChar(int col) {
+            return mapRecord.getChar(mapColumn(col));
+        }
+
+        @Override
+        public long getDate(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getDate(mapRecord) : mapRecord.getDate(mapColumn(col));
+        }
+
+        @Override
+        public double getDouble(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getDouble(mapRecord) : mapRecord.getDouble(mapColumn(col));
+        }
+
+        @Override
+        public float getFloat(int col) {
+            return mapRecord.getFloat(mapColumn(col));
+        }
+
+        @Override
+        public int getInt(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getInt(mapRecord) : mapRecord.getInt(mapColumn(col));
+        }
+
+        @Override
+        public long getLong(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getLong(mapRecord) : mapRecord.getLong(mapColumn(col));
+        }
+
+        @Override
+        public short getShort(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getShort(mapRecord) : mapRecord.getShort(mapColumn(col));
+        }
+
+        @Override
+        public CharSequence getSym(int col) {
+            return getSymbolTable(col).valueOf(getInt(col));
+        }
+
+        @Override
+        public long getTimestamp(int col) {
+            return col < functionCount ? groupByFunctions.getQuick(col).getTimestamp(mapRecord) : mapRecord.getTimestamp(mapColumn(col));
+        }
+
+        // bucket timestamp and keys follow aggregate values in both this record and the map record
+        private int mapColumn(int col) {
+            return mapKeyIndex + col - functionCount;
+        }
+
+        private void of(MapRecord mapRecord) {
+            this.mapRecord = mapRecord;
+        }
+    }
+}
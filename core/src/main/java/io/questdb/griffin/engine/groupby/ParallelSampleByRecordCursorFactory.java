@@ -0,0 +1,150 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.table.DataFrameRecordCursorFactory;
+import io.questdb.std.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Aggregates SAMPLE BY buckets of a table scan using the shared worker pool. Cursor returns one
+ * row per bucket and key, aggregate values come first, then the bucket timestamp and then
+ * the key columns. SAMPLE BY factories with their fill logic run on top of this factory.
+ * Group-by functions must be safe to evaluate concurrently, see {@link Function#isReadThreadSafe()}.
+ */
+public class ParallelSampleByRecordCursorFactory implements RecordCursorFactory {
+    private final DataFrameRecordCursorFactory base;
+    private final GenericRecordMetadata metadata = new GenericRecordMetadata();
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final ObjList<ParallelSampleByEntry> entries;
+    private final ParallelSampleByRecordCursor cursor;
+
+    public ParallelSampleByRecordCursorFactory(
+            CairoConfiguration configuration,
+            DataFrameRecordCursorFactory base,
+            @NotNull ObjList<GroupByFunction> groupByFunctions,
+            @NotNull TimestampSampler timestampSampler,
+            @Transient @NotNull ListColumnFilter listColumnFilter,
+            @Transient @NotNull BytecodeAssembler asm,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            int timestampIndex,
+            int workerCount
+    ) {
+        assert base.supportsParallelFilter();
+        this.base = base;
+        this.groupByFunctions = new ObjList<>(groupByFunctions);
+
+        final RecordMetadata baseMetadata = base.getMetadata();
+        final IntList baseColumnIndexes = new IntList();
+        final int functionCount = groupByFunctions.size();
+        for (int i = 0; i < functionCount; i++) {
+            metadata.add(new TableColumnMetadata("$v" + i, groupByFunctions.getQuick(i).getType(), null));
+            baseColumnIndexes.add(-1);
+        }
+        metadata.add(BaseRecordMetadata.copyOf(baseMetadata, timestampIndex));
+        metadata.setTimestampIndex(functionCount);
+        baseColumnIndexes.add(timestampIndex);
+
+        // bucket timestamp is the first key of the map
+        final ArrayColumnTypes mapKeyTypes = new ArrayColumnTypes();
+        mapKeyTypes.add(ColumnType.TIMESTAMP);
+        for (int i = 0, n = listColumnFilter.getColumnCount(); i < n; i++) {
+            final int index = listColumnFilter.getColumnIndex(i) - 1;
+            metadata.add(BaseRecordMetadata.copyOf(baseMetadata, index));
+            baseColumnIndexes.add(index);
+            mapKeyTypes.add(keyTypes.getColumnType(i));
+        }
+
+        final RecordSink keySink = RecordSinkFactory.getInstance(asm, baseMetadata, listColumnFilter, false);
+        // let each worker have a range to steal while the cursor is consuming one
+        final int window = Math.max(2, 2 * workerCount);
+        this.entries = new ObjList<>(window);
+        try {
+            for (int i = 0; i < window; i++) {
+                entries.add(
+                        new ParallelSampleByEntry(
+                                configuration,
+                                base.getColumnIndexes(),
+                                mapKeyTypes,
+                                valueTypes,
+                                keySink,
+                                this.groupByFunctions,
+                                timestampSampler,
+                                timestampIndex
+                        )
+                );
+            }
+        } catch (CairoException e) {
+            Misc.freeObjList(entries);
+            throw e;
+        }
+
+        this.cursor = new ParallelSampleByRecordCursor(
+                entries,
+                this.groupByFunctions,
+                base.getColumnIndexes(),
+                baseColumnIndexes,
+                timestampSampler,
+                timestampIndex,
+                valueTypes.getColumnCount(),
+                configuration.getParallelSampleByTaskRowCount()
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(entries);
+        Misc.freeObjList(groupByFunctions);
+        Misc.free(base);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        final DataFrameCursor dataFrameCursor = base.getDataFrameCursorFactory().getCursor(executionContext);
+        try {
+            cursor.of(dataFrameCursor, executionContext);
+            Function.init(groupByFunctions, cursor.getBaseSymbolTableSource(), executionContext);
+            return cursor;
+        } catch (CairoException e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public RecordMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+}
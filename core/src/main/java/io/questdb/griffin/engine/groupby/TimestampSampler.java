@@ -35,4 +35,15 @@ public interface TimestampSampler {
     default long getBucketSize() {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Distance between bucket boundaries and the ones produced by {@link #round(long)}. Buckets
+     * are aligned to the first sampled timestamp by default.
+     *
+     * @param firstTimestamp first timestamp of sampled data
+     * @return offset to add to rounded timestamp to get bucket start
+     */
+    default long getOffset(long firstTimestamp) {
+        return firstTimestamp - round(firstTimestamp);
+    }
 }
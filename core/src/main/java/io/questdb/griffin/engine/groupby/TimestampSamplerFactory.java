@@ -31,6 +31,20 @@ import io.questdb.std.datetime.microtime.Timestamps;
 
 public final class TimestampSamplerFactory {
 
+    /**
+     * Same as {@link #getInstance(CharSequence, int)} but optionally aligns buckets to calendar.
+     *
+     * @param cs              the key
+     * @param position        position in SQL text to report error against
+     * @param alignToCalendar when true bucket boundaries do not depend on first sampled timestamp
+     * @return instance of appropriate TimestampSampler
+     * @throws SqlException when input string is invalid
+     */
+    public static TimestampSampler getInstance(CharSequence cs, int position, boolean alignToCalendar) throws SqlException {
+        final TimestampSampler sampler = getInstance(cs, position);
+        return alignToCalendar ? new CalendarTimestampSampler(sampler) : sampler;
+    }
+
     /**
      * Parses strings such as '10m', '3M', '5d', '12h', 'y', '35s'
      *
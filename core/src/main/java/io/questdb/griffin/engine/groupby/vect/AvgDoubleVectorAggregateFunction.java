@@ -35,8 +35,6 @@ import io.questdb.std.Vect;
 import java.util.concurrent.atomic.DoubleAdder;
 import java.util.concurrent.atomic.LongAdder;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class AvgDoubleVectorAggregateFunction extends DoubleFunction implements VectorAggregateFunction {
 
     private final DoubleAdder sum = new DoubleAdder();
@@ -49,13 +47,8 @@ public class AvgDoubleVectorAggregateFunction extends DoubleFunction implements
     public AvgDoubleVectorAggregateFunction(int position, int keyKind, int columnIndex, int workerCount) {
         super(position);
         this.columnIndex = columnIndex;
-        if (keyKind == GKK_HOUR_INT) {
-            distinctFunc = Rosti::keyedHourDistinct;
-            keyValueFunc = Rosti::keyedHourSumDouble;
-        } else {
-            distinctFunc = Rosti::keyedIntDistinct;
-            keyValueFunc = Rosti::keyedIntSumDouble;
-        }
+        distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        keyValueFunc = RostiKeyedFunctions.SUM_DOUBLE[keyKind];
 
     }
 
@@ -35,8 +35,6 @@ import io.questdb.std.Vect;
 import java.util.concurrent.atomic.DoubleAdder;
 import java.util.concurrent.atomic.LongAdder;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class AvgLongVectorAggregateFunction extends DoubleFunction implements VectorAggregateFunction {
 
     private final DoubleAdder sum = new DoubleAdder();
@@ -49,13 +47,8 @@ public class AvgLongVectorAggregateFunction extends DoubleFunction implements Ve
     public AvgLongVectorAggregateFunction(int position, int keyKind, int columnIndex, int workerCount) {
         super(position);
         this.columnIndex = columnIndex;
-        if (keyKind == GKK_HOUR_INT) {
-            distinctFunc = Rosti::keyedHourDistinct;
-            keyValueFunc = Rosti::keyedHourSumLong;
-        } else {
-            distinctFunc = Rosti::keyedIntDistinct;
-            keyValueFunc = Rosti::keyedIntSumLong;
-        }
+        distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        keyValueFunc = RostiKeyedFunctions.SUM_LONG[keyKind];
     }
 
     @Override
@@ -27,7 +27,6 @@ package io.questdb.griffin.engine.groupby.vect;
 import io.questdb.cairo.ArrayColumnTypes;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.sql.Record;
-import io.questdb.griffin.SqlCodeGenerator;
 import io.questdb.griffin.engine.functions.LongFunction;
 import io.questdb.std.Rosti;
 import io.questdb.std.Unsafe;
@@ -43,7 +42,7 @@ public class CountVectorAggregateFunction extends LongFunction implements Vector
     public CountVectorAggregateFunction(int position, int keyKind, int sizeBits) {
         super(position);
         this.sizeBits = sizeBits;
-        countFunc = keyKind == SqlCodeGenerator.GKK_HOUR_INT ? Rosti::keyedHourCount : Rosti::keyedIntCount;
+        countFunc = RostiKeyedFunctions.COUNT[keyKind];
     }
 
     @Override
@@ -95,9 +94,4 @@ public class CountVectorAggregateFunction extends LongFunction implements Vector
     public long getLong(Record rec) {
         return count.sum();
     }
-
-    @FunctionalInterface
-    private interface CountFunc {
-        void count(long pRosti, long pKeys, long count, int valueOffset);
-    }
 }
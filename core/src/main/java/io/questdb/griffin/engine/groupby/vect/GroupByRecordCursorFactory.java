@@ -53,6 +53,12 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
 
     private final long[] pRosti;
     private final int keyColumnIndex;
+    // second key column index in base when two keys are packed into single LONG slot, otherwise -1
+    private final int keyColumnIndex2;
+    private final int keyNullValue;
+    private final int keyNullValue2;
+    // memory allocated for the duration of single aggregation, see getKeyAddress()
+    private final LongList keyMemory = new LongList();
     private final RostiRecordCursor cursor;
 
     public GroupByRecordCursorFactory(
@@ -62,15 +68,15 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
             @Transient ColumnTypes columnTypes,
             int workerCount,
             @Transient ObjList<VectorAggregateFunction> vafList,
-            int keyColumnIndexInBase,
-            int keyColumnIndexInThisCursor,
+            @Transient IntList keyColumnIndexesInBase,
+            @Transient IntList keyColumnIndexesInThisCursor,
             @Transient IntList symbolTableSkewIndex
     ) {
 
         this.entryPool = new ObjectPool<>(VectorAggregateEntry::new, configuration.getGroupByPoolCapacity());
         this.activeEntries = new ObjList<>(configuration.getGroupByPoolCapacity());
         // columnTypes and functions must align in the following way:
-        // columnTypes[0] is the type of key, for now single key is supported
+        // columnTypes[0] is the type of key, two INT or SYMBOL keys are packed into single LONG
         // functions.size = columnTypes.size - 1, functions do not have instance for key, only for values
         // functions[0].type == columnTypes[1]
         // ...
@@ -78,22 +84,32 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
 
         this.base = base;
         this.metadata = metadata;
-        // first column is INT or SYMBOL
         this.pRosti = new long[workerCount];
         final int vafCount = vafList.size();
+        final int keyCount = keyColumnIndexesInThisCursor.size();
         this.vafList = new ObjList<>(vafCount);
+        this.keyNullValue = getKeyNullValue(metadata.getColumnType(keyColumnIndexesInThisCursor.getQuick(0)));
+        this.keyNullValue2 = keyCount > 1 ? getKeyNullValue(metadata.getColumnType(keyColumnIndexesInThisCursor.getQuick(1))) : 0;
         for (int i = 0; i < workerCount; i++) {
             pRosti[i] = Rosti.alloc(columnTypes, configuration.getGroupByMapCapacity());
 
-            // todo: init key to null value
-
-            // remember, single key for now
+            final long pKey = Rosti.getInitialValueSlot(pRosti[i], 0);
             switch (columnTypes.getColumnType(0)) {
                 case ColumnType.INT:
-                    Unsafe.getUnsafe().putInt(Rosti.getInitialValueSlot(pRosti[i], 0), Numbers.INT_NaN);
-                    break;
                 case ColumnType.SYMBOL:
-                    Unsafe.getUnsafe().putInt(Rosti.getInitialValueSlot(pRosti[i], 0), SymbolTable.VALUE_IS_NULL);
+                    Unsafe.getUnsafe().putInt(pKey, keyNullValue);
+                    break;
+                case ColumnType.LONG:
+                    if (keyCount > 1) {
+                        // packed pair, first key occupies lower 4 bytes
+                        Unsafe.getUnsafe().putInt(pKey, keyNullValue);
+                        Unsafe.getUnsafe().putInt(pKey + Integer.BYTES, keyNullValue2);
+                    } else {
+                        Unsafe.getUnsafe().putLong(pKey, Numbers.LONG_NaN);
+                    }
+                    break;
+                case ColumnType.TIMESTAMP:
+                    Unsafe.getUnsafe().putLong(pKey, Numbers.LONG_NaN);
                     break;
                 default:
             }
@@ -113,20 +129,21 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
         final long pRosti = this.pRosti[0];
         final long columnOffsets = Rosti.getValueOffsets(pRosti);
 
-        // skew logic assumes single key, for multiple keys skew would be different
-
+        // key columns are at the start of the slot, packed keys are 4 bytes apart,
+        // aggregate columns appear in the same order as functions in the list
         final IntList columnSkewIndex = new IntList();
-        // key is in the middle, shift aggregates before the key one position left
-        addOffsets(columnSkewIndex, vafList, 0, keyColumnIndexInThisCursor, columnOffsets);
-
-        // this is offset of the key column
-        columnSkewIndex.add(0);
-
-        // add remaining aggregate columns as is
-        addOffsets(columnSkewIndex, vafList, keyColumnIndexInThisCursor, vafCount, columnOffsets);
+        for (int i = 0, k = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int keyIndex = keyIndexOf(keyColumnIndexesInThisCursor, i);
+            if (keyIndex > -1) {
+                columnSkewIndex.add(keyIndex * Integer.BYTES);
+            } else {
+                columnSkewIndex.add(Unsafe.getUnsafe().getInt(columnOffsets + vafList.getQuick(k++).getValueOffset() * Integer.BYTES));
+            }
+        }
 
         this.vafList.addAll(vafList);
-        this.keyColumnIndex = keyColumnIndexInBase;
+        this.keyColumnIndex = keyColumnIndexesInBase.getQuick(0);
+        this.keyColumnIndex2 = keyCount > 1 ? keyColumnIndexesInBase.getQuick(1) : -1;
         if (symbolTableSkewIndex.size() > 0) {
             final IntList symbolSkew = new IntList(symbolTableSkewIndex.size());
             symbolSkew.addAll(symbolTableSkewIndex);
@@ -136,20 +153,22 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
         }
     }
 
-    private static void addOffsets(
-            IntList columnSkewIndex,
-            @Transient ObjList<VectorAggregateFunction> vafList,
-            int start,
-            int end,
-            long columnOffsets
-    ) {
-        for (int i = start; i < end; i++) {
-            columnSkewIndex.add(Unsafe.getUnsafe().getInt(columnOffsets + vafList.getQuick(i).getValueOffset() * Integer.BYTES));
+    private static int getKeyNullValue(int columnType) {
+        return columnType == ColumnType.SYMBOL ? SymbolTable.VALUE_IS_NULL : Numbers.INT_NaN;
+    }
+
+    private static int keyIndexOf(IntList keyColumnIndexes, int columnIndex) {
+        for (int i = 0, n = keyColumnIndexes.size(); i < n; i++) {
+            if (keyColumnIndexes.getQuick(i) == columnIndex) {
+                return i;
+            }
         }
+        return -1;
     }
 
     @Override
     public void close() {
+        freeKeyMemory();
         Misc.freeObjList(vafList);
         for (int i = 0, n = pRosti.length; i < n; i++) {
             Rosti.free(pRosti[i]);
@@ -198,7 +217,7 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
 
         PageFrame frame;
         while ((frame = cursor.next()) != null) {
-            final long keyAddress = frame.getPageAddress(keyColumnIndex);
+            final long keyAddress = getKeyAddress(frame);
             for (int i = 0; i < vafCount; i++) {
                 final VectorAggregateFunction vaf = vafList.getQuick(i);
                 // when column index = -1 we assume that vector function does not have value
@@ -246,6 +265,7 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
 
         // start at the back to reduce chance of clashing
         reclaimed = GroupByNotKeyedVectorRecordCursorFactory.getRunWhatsLeft(queuedCount, reclaimed, workerId, activeEntries, doneLatch, LOG);
+        freeKeyMemory();
         long pRosti0 = pRosti[0];
 
         if (pRosti.length > 1) {
@@ -269,6 +289,48 @@ public class GroupByRecordCursorFactory implements RecordCursorFactory {
         return this.cursor.of(cursor);
     }
 
+    private long allocKeyMemory(long size) {
+        final long p = Unsafe.malloc(size);
+        keyMemory.add(p);
+        keyMemory.add(size);
+        return p;
+    }
+
+    private void freeKeyMemory() {
+        for (int i = 0, n = keyMemory.size(); i < n; i += 2) {
+            Unsafe.free(keyMemory.getQuick(i), keyMemory.getQuick(i + 1));
+        }
+        keyMemory.clear();
+    }
+
+    // Returns address Rosti reads keys from. For two packed keys this is address
+    // of two column addresses. Memory must stay intact until all tasks for the frame are done.
+    private long getKeyAddress(PageFrame frame) {
+        final long keyAddress = frame.getPageAddress(keyColumnIndex);
+        if (keyColumnIndex2 == -1) {
+            return keyAddress;
+        }
+
+        final long keyAddress2 = frame.getPageAddress(keyColumnIndex2);
+        if (keyAddress == 0 && keyAddress2 == 0) {
+            return 0;
+        }
+
+        final long p = allocKeyMemory(2 * Long.BYTES);
+        Unsafe.getUnsafe().putLong(p, keyAddress != 0 ? keyAddress : getNullKeys(frame.getPageSize(keyColumnIndex2), keyNullValue));
+        Unsafe.getUnsafe().putLong(p + Long.BYTES, keyAddress2 != 0 ? keyAddress2 : getNullKeys(frame.getPageSize(keyColumnIndex), keyNullValue2));
+        return p;
+    }
+
+    // one of key columns is missing in the frame (column top), substitute it with nulls
+    private long getNullKeys(long size, int nullValue) {
+        final long p = allocKeyMemory(size);
+        for (long i = 0; i < size; i += Integer.BYTES) {
+            Unsafe.getUnsafe().putInt(p + i, nullValue);
+        }
+        return p;
+    }
+
     @Override
     public RecordMetadata getMetadata() {
         return metadata;
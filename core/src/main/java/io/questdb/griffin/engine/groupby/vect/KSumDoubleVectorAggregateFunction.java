@@ -35,8 +35,6 @@ import io.questdb.std.Vect;
 
 import java.util.Arrays;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class KSumDoubleVectorAggregateFunction extends DoubleFunction implements VectorAggregateFunction {
 
     private final int columnIndex;
@@ -53,13 +51,8 @@ public class KSumDoubleVectorAggregateFunction extends DoubleFunction implements
         this.sum = new double[workerCount * Misc.CACHE_LINE_SIZE];
         this.count = new long[workerCount * Misc.CACHE_LINE_SIZE];
         this.workerCount = workerCount;
-        if (keyKind == GKK_HOUR_INT) {
-            this.distinctFunc = Rosti::keyedHourDistinct;
-            this.keyValueFunc = Rosti::keyedHourKSumDouble;
-        } else {
-            this.keyValueFunc = Rosti::keyedIntKSumDouble;
-            this.distinctFunc = Rosti::keyedIntDistinct;
-        }
+        this.distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        this.keyValueFunc = RostiKeyedFunctions.KSUM_DOUBLE[keyKind];
     }
 
     @Override
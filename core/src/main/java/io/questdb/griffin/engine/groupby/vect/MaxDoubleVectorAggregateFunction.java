@@ -35,8 +35,6 @@ import io.questdb.std.Vect;
 import java.util.concurrent.atomic.DoubleAccumulator;
 import java.util.function.DoubleBinaryOperator;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class MaxDoubleVectorAggregateFunction extends DoubleFunction implements VectorAggregateFunction {
 
     public static final DoubleBinaryOperator MAX = Math::max;
@@ -51,13 +49,8 @@ public class MaxDoubleVectorAggregateFunction extends DoubleFunction implements
     public MaxDoubleVectorAggregateFunction(int position, int keyKind, int columnIndex, int workerCount) {
         super(position);
         this.columnIndex = columnIndex;
-        if (keyKind == GKK_HOUR_INT) {
-            this.distinctFunc = Rosti::keyedHourDistinct;
-            this.keyValueFunc = Rosti::keyedHourMaxDouble;
-        } else {
-            this.distinctFunc = Rosti::keyedIntDistinct;
-            this.keyValueFunc = Rosti::keyedIntMaxDouble;
-        }
+        this.distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        this.keyValueFunc = RostiKeyedFunctions.MAX_DOUBLE[keyKind];
     }
 
     @Override
@@ -35,8 +35,6 @@ import io.questdb.std.Vect;
 import java.util.concurrent.atomic.LongAccumulator;
 import java.util.function.LongBinaryOperator;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class MaxTimestampVectorAggregateFunction extends TimestampFunction implements VectorAggregateFunction {
 
     public static final LongBinaryOperator MAX = Math::max;
@@ -51,13 +49,8 @@ public class MaxTimestampVectorAggregateFunction extends TimestampFunction imple
     public MaxTimestampVectorAggregateFunction(int position, int keyKind, int columnIndex, int workerCount) {
         super(position);
         this.columnIndex = columnIndex;
-        if (keyKind == GKK_HOUR_INT) {
-            this.distinctFunc = Rosti::keyedHourDistinct;
-            this.keyValueFunc = Rosti::keyedHourMaxLong;
-        } else {
-            this.distinctFunc = Rosti::keyedIntDistinct;
-            this.keyValueFunc = Rosti::keyedIntMaxLong;
-        }
+        this.distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        this.keyValueFunc = RostiKeyedFunctions.MAX_LONG[keyKind];
     }
 
     @Override
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby.vect;
+
+import io.questdb.std.Rosti;
+
+/**
+ * Rosti natives for each aggregation, indexed by key kind. Order of elements follows
+ * values of SqlCodeGenerator.GKK_* constants: vanilla INT, hour INT, vanilla LONG,
+ * minute LONG, day LONG and INT pair.
+ */
+final class RostiKeyedFunctions {
+    static final DistinctFunc[] DISTINCT = {
+            Rosti::keyedIntDistinct,
+            Rosti::keyedHourDistinct,
+            Rosti::keyedLongDistinct,
+            Rosti::keyedMinuteDistinct,
+            Rosti::keyedDayDistinct,
+            Rosti::keyedIntPairDistinct
+    };
+
+    static final CountFunc[] COUNT = {
+            Rosti::keyedIntCount,
+            Rosti::keyedHourCount,
+            Rosti::keyedLongCount,
+            Rosti::keyedMinuteCount,
+            Rosti::keyedDayCount,
+            Rosti::keyedIntPairCount
+    };
+
+    static final KeyValueFunc[] SUM_DOUBLE = {
+            Rosti::keyedIntSumDouble,
+            Rosti::keyedHourSumDouble,
+            Rosti::keyedLongSumDouble,
+            Rosti::keyedMinuteSumDouble,
+            Rosti::keyedDaySumDouble,
+            Rosti::keyedIntPairSumDouble
+    };
+
+    static final KeyValueFunc[] KSUM_DOUBLE = {
+            Rosti::keyedIntKSumDouble,
+            Rosti::keyedHourKSumDouble,
+            Rosti::keyedLongKSumDouble,
+            Rosti::keyedMinuteKSumDouble,
+            Rosti::keyedDayKSumDouble,
+            Rosti::keyedIntPairKSumDouble
+    };
+
+    static final KeyValueFunc[] NSUM_DOUBLE = {
+            Rosti::keyedIntNSumDouble,
+            Rosti::keyedHourNSumDouble,
+            Rosti::keyedLongNSumDouble,
+            Rosti::keyedMinuteNSumDouble,
+            Rosti::keyedDayNSumDouble,
+            Rosti::keyedIntPairNSumDouble
+    };
+
+    static final KeyValueFunc[] SUM_INT = {
+            Rosti::keyedIntSumInt,
+            Rosti::keyedHourSumInt,
+            Rosti::keyedLongSumInt,
+            Rosti::keyedMinuteSumInt,
+            Rosti::keyedDaySumInt,
+            Rosti::keyedIntPairSumInt
+    };
+
+    static final KeyValueFunc[] SUM_LONG = {
+            Rosti::keyedIntSumLong,
+            Rosti::keyedHourSumLong,
+            Rosti::keyedLongSumLong,
+            Rosti::keyedMinuteSumLong,
+            Rosti::keyedDaySumLong,
+            Rosti::keyedIntPairSumLong
+    };
+
+    static final KeyValueFunc[] MIN_DOUBLE = {
+            Rosti::keyedIntMinDouble,
+            Rosti::keyedHourMinDouble,
+            Rosti::keyedLongMinDouble,
+            Rosti::keyedMinuteMinDouble,
+            Rosti::keyedDayMinDouble,
+            Rosti::keyedIntPairMinDouble
+    };
+
+    static final KeyValueFunc[] MIN_INT = {
+            Rosti::keyedIntMinInt,
+            Rosti::keyedHourMinInt,
+            Rosti::keyedLongMinInt,
+            Rosti::keyedMinuteMinInt,
+            Rosti::keyedDayMinInt,
+            Rosti::keyedIntPairMinInt
+    };
+
+    static final KeyValueFunc[] MIN_LONG = {
+            Rosti::keyedIntMinLong,
+            Rosti::keyedHourMinLong,
+            Rosti::keyedLongMinLong,
+            Rosti::keyedMinuteMinLong,
+            Rosti::keyedDayMinLong,
+            Rosti::keyedIntPairMinLong
+    };
+
+    static final KeyValueFunc[] MAX_DOUBLE = {
+            Rosti::keyedIntMaxDouble,
+            Rosti::keyedHourMaxDouble,
+            Rosti::keyedLongMaxDouble,
+            Rosti::keyedMinuteMaxDouble,
+            Rosti::keyedDayMaxDouble,
+            Rosti::keyedIntPairMaxDouble
+    };
+
+    static final KeyValueFunc[] MAX_INT = {
+            Rosti::keyedIntMaxInt,
+            Rosti::keyedHourMaxInt,
+            Rosti::keyedLongMaxInt,
+            Rosti::keyedMinuteMaxInt,
+            Rosti::keyedDayMaxInt,
+            Rosti::keyedIntPairMaxInt
+    };
+
+    static final KeyValueFunc[] MAX_LONG = {
+            Rosti::keyedIntMaxLong,
+            Rosti::keyedHourMaxLong,
+            Rosti::keyedLongMaxLong,
+            Rosti::keyedMinuteMaxLong,
+            Rosti::keyedDayMaxLong,
+            Rosti::keyedIntPairMaxLong
+    };
+
+    private RostiKeyedFunctions() {
+    }
+}
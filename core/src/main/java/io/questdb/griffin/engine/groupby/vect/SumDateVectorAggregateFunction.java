@@ -35,8 +35,6 @@ import io.questdb.std.Vect;
 
 import java.util.concurrent.atomic.LongAdder;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class SumDateVectorAggregateFunction extends DateFunction implements VectorAggregateFunction {
     private final LongAdder sum = new LongAdder();
     private final LongAdder count = new LongAdder();
@@ -48,13 +46,8 @@ public class SumDateVectorAggregateFunction extends DateFunction implements Vect
     public SumDateVectorAggregateFunction(int position, int keyKind, int columnIndex, int workerCount) {
         super(position);
         this.columnIndex = columnIndex;
-        if (keyKind == GKK_HOUR_INT) {
-            distinctFunc = Rosti::keyedHourDistinct;
-            keyValueFunc = Rosti::keyedHourSumLong;
-        } else {
-            distinctFunc = Rosti::keyedIntDistinct;
-            keyValueFunc = Rosti::keyedIntSumLong;
-        }
+        distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        keyValueFunc = RostiKeyedFunctions.SUM_LONG[keyKind];
     }
 
     @Override
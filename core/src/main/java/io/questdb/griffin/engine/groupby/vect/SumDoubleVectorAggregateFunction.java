@@ -36,8 +36,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 
-import static io.questdb.griffin.SqlCodeGenerator.GKK_HOUR_INT;
-
 public class SumDoubleVectorAggregateFunction extends DoubleFunction implements VectorAggregateFunction {
     private final int columnIndex;
     private final double[] sum;
@@ -54,13 +52,8 @@ public class SumDoubleVectorAggregateFunction extends DoubleFunction implements
         this.count = new long[workerCount * Misc.CACHE_LINE_SIZE];
         this.workerCount = workerCount;
 
-        if (keyKind == GKK_HOUR_INT) {
-            distinctFunc = Rosti::keyedHourDistinct;
-            keyValueFunc = Rosti::keyedHourSumDouble;
-        } else {
-            distinctFunc = Rosti::keyedIntDistinct;
-            keyValueFunc = Rosti::keyedIntSumDouble;
-        }
+        distinctFunc = RostiKeyedFunctions.DISTINCT[keyKind];
+        keyValueFunc = RostiKeyedFunctions.SUM_DOUBLE[keyKind];
     }
 
     @Override
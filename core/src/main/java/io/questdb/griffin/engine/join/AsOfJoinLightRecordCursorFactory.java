@@ -34,6 +34,7 @@ import io.questdb.cairo.map.MapKey;
 import io.questdb.cairo.map.MapValue;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.LongList;
 import io.questdb.std.Misc;
 import io.questdb.std.Numbers;
 import io.questdb.std.Transient;
@@ -69,7 +70,9 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
                 joinKeyMap,
                 NullRecordFactory.getInstance(slaveFactory.getMetadata()),
                 masterFactory.getMetadata().getTimestampIndex(),
-                slaveFactory.getMetadata().getTimestampIndex()
+                slaveFactory.getMetadata().getTimestampIndex(),
+                configuration.isSqlAsOfJoinSeekEnabled() && slaveFactory.recordCursorSupportsTimestampSeek(),
+                configuration.getSqlAsOfJoinLookback()
         );
     }
 
@@ -101,6 +104,10 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
         private final int columnSplit;
         private final int masterTimestampIndex;
         private final int slaveTimestampIndex;
+        private final boolean slaveSeekSupported;
+        private final long slaveLookback;
+        // pairs of slave row ids, (lo, hi], of skipped slave rows that were not added to the map yet
+        private final LongList slaveGaps = new LongList();
         private Record slaveRecord;
         private RecordCursor masterCursor;
         private RecordCursor slaveCursor;
@@ -113,13 +120,17 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
                 Map joinKeyMap,
                 Record nullRecord,
                 int masterTimestampIndex,
-                int slaveTimestampIndex
+                int slaveTimestampIndex,
+                boolean slaveSeekSupported,
+                long slaveLookback
         ) {
             this.record = new OuterJoinRecord(columnSplit, nullRecord);
             this.joinKeyMap = joinKeyMap;
             this.columnSplit = columnSplit;
             this.masterTimestampIndex = masterTimestampIndex;
             this.slaveTimestampIndex = slaveTimestampIndex;
+            this.slaveSeekSupported = slaveSeekSupported;
+            this.slaveLookback = slaveLookback;
         }
 
         @Override
@@ -164,6 +175,16 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
                         value.putLong(0, lastSlaveRowID);
                     }
 
+                    if (slaveSeekSupported && masterTimestamp != Numbers.LONG_NaN && slaveTimestamp < masterTimestamp - slaveLookback) {
+                        // slave rows older than lookback are skipped, they are added to the map
+                        // only when master key is not found among newer rows
+                        final long rowId = slaveCursor.skipToTimestamp(masterTimestamp - slaveLookback - 1);
+                        if (rowId != -1) {
+                            slaveGaps.add(lastSlaveRowID == Numbers.LONG_NaN ? -1L : lastSlaveRowID);
+                            slaveGaps.add(rowId);
+                        }
+                    }
+
                     final Record rec = slaveCursor.getRecord();
                     while (slaveCursor.hasNext()) {
                         slaveTimestamp = rec.getTimestamp(slaveTimestampIndex);
@@ -184,8 +205,12 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
                 key = joinKeyMap.withKey();
                 key.put(masterRecord, masterKeySink);
                 value = key.findValue();
-                if (value != null) {
-                    slaveCursor.recordAt(slaveRecord, value.getLong(0));
+                long rowId = value != null ? value.getLong(0) : -1;
+                if (slaveGaps.size() > 0) {
+                    rowId = scanSlaveGaps(rowId);
+                }
+                if (rowId != -1) {
+                    slaveCursor.recordAt(slaveRecord, rowId);
                     record.hasSlave(true);
                 } else {
                     record.hasSlave(false);
@@ -199,6 +224,7 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
         @Override
         public void toTop() {
             joinKeyMap.clear();
+            slaveGaps.clear();
             slaveTimestamp = Long.MIN_VALUE;
             lastSlaveRowID = Long.MIN_VALUE;
             masterCursor.toTop();
@@ -207,6 +233,7 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
 
         void of(RecordCursor masterCursor, RecordCursor slaveCursor) {
             joinKeyMap.clear();
+            slaveGaps.clear();
             slaveTimestamp = Long.MIN_VALUE;
             lastSlaveRowID = Long.MIN_VALUE;
             this.masterCursor = masterCursor;
@@ -215,5 +242,38 @@ public class AsOfJoinLightRecordCursorFactory extends AbstractRecordCursorFactor
             this.slaveRecord = slaveCursor.getRecordB();
             record.of(masterRecord, slaveRecord);
         }
+
+        private long scanSlaveGaps(long rowId) {
+            // gaps are scanned backwards starting from the most recent one until master key
+            // is found, slave rows older than the one found cannot affect the result
+            for (int i = slaveGaps.size() - 2; i > -1; i -= 2) {
+                final long lo = slaveGaps.getQuick(i);
+                long hi = slaveGaps.getQuick(i + 1);
+                while (hi > lo && hi > rowId) {
+                    slaveCursor.recordAt(slaveRecord, hi);
+                    MapKey key = joinKeyMap.withKey();
+                    key.put(slaveRecord, slaveKeySink);
+                    MapValue value = key.createValue();
+                    final long slaveRowId = hi;
+                    hi = slaveCursor.getPrevRowId(hi);
+                    if (value.isNew() || value.getLong(0) < slaveRowId) {
+                        value.putLong(0, slaveRowId);
+                        key = joinKeyMap.withKey();
+                        key.put(masterRecord, masterKeySink);
+                        value = key.findValue();
+                        if (value != null && value.getLong(0) == slaveRowId) {
+                            rowId = slaveRowId;
+                        }
+                    }
+                }
+
+                if (hi > lo) {
+                    slaveGaps.setQuick(i + 1, hi);
+                    break;
+                }
+                slaveGaps.setPos(i);
+            }
+            return rowId;
+        }
     }
 }
@@ -25,9 +25,11 @@
 package io.questdb.griffin.engine.join;
 
 import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
 
 public class AsOfJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory {
     private final RecordCursorFactory masterFactory;
@@ -35,6 +37,7 @@ public class AsOfJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactor
     private final AsOfLightJoinRecordCursor cursor;
 
     public AsOfJoinNoKeyRecordCursorFactory(
+            CairoConfiguration configuration,
             RecordMetadata metadata,
             RecordCursorFactory masterFactory,
             RecordCursorFactory slaveFactory,
@@ -48,7 +51,9 @@ public class AsOfJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactor
                 columnSplit,
                 NullRecordFactory.getInstance(slaveFactory.getMetadata()),
                 masterFactory.getMetadata().getTimestampIndex(),
-                slaveFactory.getMetadata().getTimestampIndex()
+                slaveFactory.getMetadata().getTimestampIndex(),
+                configuration.isSqlAsOfJoinSeekEnabled() && slaveFactory.recordCursorSupportsTimestampSeek(),
+                configuration.getSqlAsOfJoinLookback()
         );
     }
 
@@ -78,6 +83,8 @@ public class AsOfJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactor
         private final int columnSplit;
         private final int masterTimestampIndex;
         private final int slaveTimestampIndex;
+        private final boolean slaveSeekSupported;
+        private final long slaveLookback;
         private RecordCursor masterCursor;
         private RecordCursor slaveCursor;
         private Record masterRecord;
@@ -90,12 +97,16 @@ public class AsOfJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactor
                 int columnSplit,
                 Record nullRecord,
                 int masterTimestampIndex,
-                int slaveTimestampIndex
+                int slaveTimestampIndex,
+                boolean slaveSeekSupported,
+                long slaveLookback
         ) {
             this.record = new OuterJoinRecord(columnSplit, nullRecord);
             this.columnSplit = columnSplit;
             this.masterTimestampIndex = masterTimestampIndex;
             this.slaveTimestampIndex = slaveTimestampIndex;
+            this.slaveSeekSupported = slaveSeekSupported;
+            this.slaveLookback = slaveLookback;
         }
 
         @Override
@@ -126,12 +137,24 @@ public class AsOfJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactor
                 if (masterTimestamp < slaveTimestamp) {
                     return true;
                 }
+                if (slaveSeekSupported && masterTimestamp != Numbers.LONG_NaN && slaveTimestamp < masterTimestamp - slaveLookback) {
+                    seekSlave(masterTimestamp);
+                }
                 nextSlave(masterTimestamp);
                 return true;
             }
             return false;
         }
 
+        private void seekSlave(long masterTimestamp) {
+            // out of slave rows up to master timestamp only the last one can be joined,
+            // skip over the rest without reading them
+            final long rowId = slaveCursor.skipToTimestamp(masterTimestamp);
+            if (rowId != -1) {
+                latestSlaveRowID = rowId;
+            }
+        }
+
         private void nextSlave(long masterTimestamp) {
             if (slaveCursor.hasNext()) {
                 // check where this record falls
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+
+import java.io.Closeable;
+
+/**
+ * Radix partition of hash join input. Rows are appended to the partition as (row id, key) entries
+ * while cursor is scanned. On build side hash table over the entries is built afterwards, exactly once,
+ * either by a worker that picked the partition from the queue or by the cursor that owns it. Entries
+ * with equal keys are chained in the order they were added. Probe side partitions are only scanned,
+ * entry by entry, and never build their hash table.
+ */
+public class HashJoinPartition implements Closeable {
+    static final int STATE_PENDING = 0;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_DONE = 2;
+    private static final long STATE_OFFSET;
+    // entry is [next entry offset | row id | key hash | key length | key bytes padded to 8 bytes]
+    private static final int ENTRY_OFFSET_NEXT = 0;
+    private static final int ENTRY_OFFSET_ROW_ID = 8;
+    private static final int ENTRY_OFFSET_HASH = 16;
+    private static final int ENTRY_OFFSET_KEY_LEN = 20;
+    private static final int ENTRY_HEADER_SIZE = 24;
+    // slot is [first entry offset | last entry offset]
+    private static final int SLOT_SIZE = 16;
+    private static final int MIN_SLOT_COUNT = 16;
+
+    private final SpillableMemory entries;
+    private final SpillableMemory slots;
+    private CharSequence spillDir;
+    private String spillFileName;
+    private long entryCount;
+    private long slotMask;
+    private Throwable error;
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int state = STATE_DONE;
+
+    public HashJoinPartition(FilesFacade ff, long initialCapacity) {
+        this.entries = new SpillableMemory(ff, initialCapacity);
+        this.slots = new SpillableMemory(ff, MIN_SLOT_COUNT * SLOT_SIZE);
+    }
+
+    @Override
+    public void close() {
+        entries.close();
+        slots.close();
+    }
+
+    public boolean run() {
+        if (tryLock()) {
+            build();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Appends row to the partition.
+     *
+     * @return true when partition had to allocate more memory or its hash table, once built, will be larger
+     */
+    boolean add(long rowId, JoinKeyBuffer key, int hash) {
+        final long allocatedSize = entries.getAllocatedSize();
+        final int keyLen = key.getLength();
+        final long offset = entries.allocate((ENTRY_HEADER_SIZE + keyLen + 7) & ~7L);
+        final long p = entries.addressOf(offset);
+        Unsafe.getUnsafe().putLong(p + ENTRY_OFFSET_NEXT, -1);
+        Unsafe.getUnsafe().putLong(p + ENTRY_OFFSET_ROW_ID, rowId);
+        Unsafe.getUnsafe().putInt(p + ENTRY_OFFSET_HASH, hash);
+        Unsafe.getUnsafe().putInt(p + ENTRY_OFFSET_KEY_LEN, keyLen);
+        Unsafe.getUnsafe().copyMemory(key.getAddress(), p + ENTRY_HEADER_SIZE, keyLen);
+        entryCount++;
+        return entries.getAllocatedSize() != allocatedSize || (entryCount & (entryCount - 1)) == 0;
+    }
+
+    void clear() {
+        entries.clear();
+        slots.clear();
+        entryCount = 0;
+        slotMask = 0;
+        error = null;
+    }
+
+    /**
+     * Finds chain of entries with the same key as entry of probe side partition.
+     *
+     * @return offset of the first entry or -1 when key is not in the partition
+     */
+    long find(HashJoinPartition probe, long probeEntryOffset) {
+        if (entryCount == 0) {
+            return -1;
+        }
+        final long p = probe.entries.addressOf(probeEntryOffset);
+        final int hash = Unsafe.getUnsafe().getInt(p + ENTRY_OFFSET_HASH);
+        final int keyLen = Unsafe.getUnsafe().getInt(p + ENTRY_OFFSET_KEY_LEN);
+        final long slotsAddress = slots.addressOf(0);
+        long index = hash & slotMask;
+        while (true) {
+            final long head = Unsafe.getUnsafe().getLong(slotsAddress + index * SLOT_SIZE);
+            if (head == -1) {
+                return -1;
+            }
+            if (sameKey(entries.addressOf(head), p, hash, keyLen)) {
+                return head;
+            }
+            index = (index + 1) & slotMask;
+        }
+    }
+
+    /**
+     * @return off-heap memory held by the partition
+     */
+    long getAllocatedSize() {
+        return entries.getAllocatedSize() + slots.getAllocatedSize();
+    }
+
+    /**
+     * @return off-heap memory held by the partition once its hash table is built, hash table of
+     * spilled partition goes to disk with the entries
+     */
+    long getBuildSize() {
+        if (entries.isSpilled()) {
+            return slots.getAllocatedSize();
+        }
+        return entries.getAllocatedSize() + Math.max(slots.getAllocatedSize(), getSlotCount() * SLOT_SIZE);
+    }
+
+    long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return offset past the last entry, entries are iterated with {@link #nextEntry(long)} from 0
+     */
+    long getEntriesSize() {
+        return entries.getSize();
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    long getNext(long entryOffset) {
+        return Unsafe.getUnsafe().getLong(entries.addressOf(entryOffset) + ENTRY_OFFSET_NEXT);
+    }
+
+    long getRowId(long entryOffset) {
+        return Unsafe.getUnsafe().getLong(entries.addressOf(entryOffset) + ENTRY_OFFSET_ROW_ID);
+    }
+
+    boolean isDone() {
+        return state == STATE_DONE;
+    }
+
+    boolean isSpilled() {
+        return entries.isSpilled();
+    }
+
+    long nextEntry(long entryOffset) {
+        return entryOffset + getEntrySize(entries.addressOf(entryOffset));
+    }
+
+    void publish() {
+        error = null;
+        // volatile write publishes entries to the thread that locks the partition
+        state = STATE_PENDING;
+    }
+
+    void spill(CharSequence dir, String fileName) {
+        this.spillDir = dir;
+        this.spillFileName = fileName;
+        entries.spill(dir, fileName);
+    }
+
+    private void build() {
+        try {
+            final long slotCount = getSlotCount();
+            slots.clear();
+            if (entries.isSpilled()) {
+                // hash table is as large as entries and goes to disk with them
+                slots.spill(spillDir, spillFileName + ".s");
+            }
+            slots.allocate(slotCount * SLOT_SIZE);
+            final long slotsAddress = slots.addressOf(0);
+            Unsafe.getUnsafe().setMemory(slotsAddress, slotCount * SLOT_SIZE, (byte) -1);
+            slotMask = slotCount - 1;
+
+            for (long offset = 0, hi = entries.getSize(); offset < hi; ) {
+                final long e = entries.addressOf(offset);
+                final int hash = Unsafe.getUnsafe().getInt(e + ENTRY_OFFSET_HASH);
+                final int keyLen = Unsafe.getUnsafe().getInt(e + ENTRY_OFFSET_KEY_LEN);
+                long index = hash & slotMask;
+                while (true) {
+                    final long slot = slotsAddress + index * SLOT_SIZE;
+                    final long head = Unsafe.getUnsafe().getLong(slot);
+                    if (head == -1) {
+                        Unsafe.getUnsafe().putLong(slot, offset);
+                        Unsafe.getUnsafe().putLong(slot + 8, offset);
+                        break;
+                    }
+                    if (sameKey(entries.addressOf(head), e, hash, keyLen)) {
+                        final long tail = Unsafe.getUnsafe().getLong(slot + 8);
+                        Unsafe.getUnsafe().putLong(entries.addressOf(tail) + ENTRY_OFFSET_NEXT, offset);
+                        Unsafe.getUnsafe().putLong(slot + 8, offset);
+                        break;
+                    }
+                    index = (index + 1) & slotMask;
+                }
+                offset += getEntrySize(e);
+            }
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            state = STATE_DONE;
+        }
+    }
+
+    private static long getEntrySize(long entryAddress) {
+        return (ENTRY_HEADER_SIZE + Unsafe.getUnsafe().getInt(entryAddress + ENTRY_OFFSET_KEY_LEN) + 7) & ~7L;
+    }
+
+    private long getSlotCount() {
+        return Math.max(MIN_SLOT_COUNT, Numbers.ceilPow2(entryCount) * 2);
+    }
+
+    private static boolean sameKey(long a, long b, int hash, int keyLen) {
+        if (Unsafe.getUnsafe().getInt(a + ENTRY_OFFSET_HASH) != hash || Unsafe.getUnsafe().getInt(a + ENTRY_OFFSET_KEY_LEN) != keyLen) {
+            return false;
+        }
+        // keys are padded with garbage, compare their bytes only
+        long p = a + ENTRY_HEADER_SIZE;
+        long q = b + ENTRY_HEADER_SIZE;
+        final long hi = p + keyLen;
+        while (hi - p > 7) {
+            if (Unsafe.getUnsafe().getLong(p) != Unsafe.getUnsafe().getLong(q)) {
+                return false;
+            }
+            p += Long.BYTES;
+            q += Long.BYTES;
+        }
+        while (p < hi) {
+            if (Unsafe.getUnsafe().getByte(p++) != Unsafe.getUnsafe().getByte(q++)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean tryLock() {
+        return Unsafe.cas(this, STATE_OFFSET, STATE_PENDING, STATE_RUNNING);
+    }
+
+    static {
+        STATE_OFFSET = Unsafe.getFieldOffset(HashJoinPartition.class, "state");
+    }
+}
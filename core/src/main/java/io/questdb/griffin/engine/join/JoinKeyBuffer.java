@@ -0,0 +1,207 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.RecordSinkSPI;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.Record;
+import io.questdb.std.*;
+
+import java.io.Closeable;
+
+/**
+ * Serialised join key. Master and slave key sinks write the same sequence of values for equal keys,
+ * so keys can be compared and hashed as raw bytes.
+ */
+public class JoinKeyBuffer implements RecordSinkSPI, Closeable {
+    private static final int INITIAL_CAPACITY = 64;
+    private long address;
+    private long capacity;
+    private long appendAddress;
+
+    public JoinKeyBuffer() {
+        this.capacity = INITIAL_CAPACITY;
+        this.address = Unsafe.malloc(capacity);
+        this.appendAddress = address;
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            Unsafe.free(address, capacity);
+            address = 0;
+        }
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    public int getLength() {
+        return (int) (appendAddress - address);
+    }
+
+    public int hash() {
+        return Hash.hashMem(address, getLength());
+    }
+
+    public JoinKeyBuffer of(Record record, RecordSink sink) {
+        appendAddress = address;
+        sink.copy(record, this);
+        return this;
+    }
+
+    @Override
+    public void putBin(BinarySequence value) {
+        if (value == null) {
+            putInt(TableUtils.NULL_LEN);
+        } else {
+            final long len = value.length();
+            if (len + Integer.BYTES > Integer.MAX_VALUE) {
+                throw CairoException.instance(0).put("binary join key is too large");
+            }
+            putInt((int) len);
+            checkCapacity(len);
+            value.copyTo(appendAddress, 0, len);
+            appendAddress += len;
+        }
+    }
+
+    @Override
+    public void putBool(boolean value) {
+        putByte((byte) (value ? 1 : 0));
+    }
+
+    @Override
+    public void putByte(byte value) {
+        checkCapacity(Byte.BYTES);
+        Unsafe.getUnsafe().putByte(appendAddress, value);
+        appendAddress += Byte.BYTES;
+    }
+
+    @Override
+    public void putChar(char value) {
+        checkCapacity(Character.BYTES);
+        Unsafe.getUnsafe().putChar(appendAddress, value);
+        appendAddress += Character.BYTES;
+    }
+
+    @Override
+    public void putDate(long value) {
+        putLong(value);
+    }
+
+    @Override
+    public void putDouble(double value) {
+        checkCapacity(Double.BYTES);
+        Unsafe.getUnsafe().putDouble(appendAddress, value);
+        appendAddress += Double.BYTES;
+    }
+
+    @Override
+    public void putFloat(float value) {
+        checkCapacity(Float.BYTES);
+        Unsafe.getUnsafe().putFloat(appendAddress, value);
+        appendAddress += Float.BYTES;
+    }
+
+    @Override
+    public void putInt(int value) {
+        checkCapacity(Integer.BYTES);
+        Unsafe.getUnsafe().putInt(appendAddress, value);
+        appendAddress += Integer.BYTES;
+    }
+
+    @Override
+    public void putLong(long value) {
+        checkCapacity(Long.BYTES);
+        Unsafe.getUnsafe().putLong(appendAddress, value);
+        appendAddress += Long.BYTES;
+    }
+
+    @Override
+    public void putLong256(Long256 value) {
+        putLong(value.getLong0());
+        putLong(value.getLong1());
+        putLong(value.getLong2());
+        putLong(value.getLong3());
+    }
+
+    @Override
+    public void putRecord(Record value) {
+        // noop
+    }
+
+    @Override
+    public void putShort(short value) {
+        checkCapacity(Short.BYTES);
+        Unsafe.getUnsafe().putShort(appendAddress, value);
+        appendAddress += Short.BYTES;
+    }
+
+    @Override
+    public void putStr(CharSequence value) {
+        if (value == null) {
+            putInt(TableUtils.NULL_LEN);
+        } else {
+            putStr(value, 0, value.length());
+        }
+    }
+
+    @Override
+    public void putStr(CharSequence value, int lo, int hi) {
+        final int len = hi - lo;
+        putInt(len);
+        checkCapacity((long) len << 1);
+        for (int i = lo; i < hi; i++) {
+            Unsafe.getUnsafe().putChar(appendAddress, value.charAt(i));
+            appendAddress += Character.BYTES;
+        }
+    }
+
+    @Override
+    public void putTimestamp(long value) {
+        putLong(value);
+    }
+
+    @Override
+    public void skip(int bytes) {
+        checkCapacity(bytes);
+        appendAddress += bytes;
+    }
+
+    private void checkCapacity(long size) {
+        final long len = appendAddress - address;
+        if (len + size > capacity) {
+            final long newCapacity = Numbers.ceilPow2(len + size);
+            address = Unsafe.realloc(address, capacity, newCapacity);
+            capacity = newCapacity;
+            appendAddress = address + len;
+        }
+    }
+}
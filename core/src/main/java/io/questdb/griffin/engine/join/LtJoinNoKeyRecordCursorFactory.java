@@ -25,9 +25,11 @@
 package io.questdb.griffin.engine.join;
 
 import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
 
 public class LtJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory {
     private final RecordCursorFactory masterFactory;
@@ -35,6 +37,7 @@ public class LtJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory
     private final LtJoinNoKeyJoinRecordCursor cursor;
 
     public LtJoinNoKeyRecordCursorFactory(
+            CairoConfiguration configuration,
             RecordMetadata metadata,
             RecordCursorFactory masterFactory,
             RecordCursorFactory slaveFactory,
@@ -46,7 +49,9 @@ public class LtJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory
                 columnSplit,
                 NullRecordFactory.getInstance(slaveFactory.getMetadata()),
                 masterFactory.getMetadata().getTimestampIndex(),
-                slaveFactory.getMetadata().getTimestampIndex()
+                slaveFactory.getMetadata().getTimestampIndex(),
+                configuration.isSqlAsOfJoinSeekEnabled() && slaveFactory.recordCursorSupportsTimestampSeek(),
+                configuration.getSqlAsOfJoinLookback()
         );
     }
 
@@ -76,6 +81,8 @@ public class LtJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory
         private final int columnSplit;
         private final int masterTimestampIndex;
         private final int slaveTimestampIndex;
+        private final boolean slaveSeekSupported;
+        private final long slaveLookback;
         private RecordCursor masterCursor;
         private RecordCursor slaveCursor;
         private Record masterRecord;
@@ -88,11 +95,16 @@ public class LtJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory
                 int columnSplit,
                 Record nullRecord,
                 int masterTimestampIndex,
-                int slaveTimestampIndex) {
+                int slaveTimestampIndex,
+                boolean slaveSeekSupported,
+                long slaveLookback
+        ) {
             this.record = new OuterJoinRecord(columnSplit, nullRecord);
             this.columnSplit = columnSplit;
             this.masterTimestampIndex = masterTimestampIndex;
             this.slaveTimestampIndex = slaveTimestampIndex;
+            this.slaveSeekSupported = slaveSeekSupported;
+            this.slaveLookback = slaveLookback;
         }
 
         @Override
@@ -119,58 +131,59 @@ public class LtJoinNoKeyRecordCursorFactory extends AbstractRecordCursorFactory
             if (masterCursor.hasNext()) {
                 // great, we have a record no matter what
                 final long masterTimestamp = masterRecord.getTimestamp(masterTimestampIndex);
-                nextSlave(masterTimestamp);
+                if (slaveSeekSupported && masterTimestamp != Numbers.LONG_NaN && slaveTimestamp < masterTimestamp - slaveLookback) {
+                    seekSlave(masterTimestamp);
+                } else {
+                    nextSlave(masterTimestamp);
+                }
                 return true;
             }
             return false;
         }
 
-        private void nextSlave(long masterTimestamp) {
-            long slaveTimestamp = this.slaveTimestamp;
-            positionSlaveRecB();
-            // check where this record falls
-            if (slaveTimestamp < masterTimestamp) {
-                overScrollSlave(masterTimestamp, slaveTimestamp);
+        private void seekSlave(long masterTimestamp) {
+            // out of slave rows before master timestamp only the last one can be joined,
+            // skip over the rest without reading them
+            final long rowId = slaveCursor.skipToTimestamp(masterTimestamp - 1);
+            if (rowId != -1) {
+                latestSlaveRowID = rowId;
             }
+            overScrollSlave(masterTimestamp);
         }
 
-        private void positionSlaveRecB() {
-            if (this.latestSlaveRowID != Long.MIN_VALUE) {
-                record.hasSlave(true);
-                slaveCursor.recordAt(slaveRecB, latestSlaveRowID);
+        private void nextSlave(long masterTimestamp) {
+            // when dangling record is not before master timestamp
+            // slave record of previous master record is still the one to join
+            if (slaveTimestamp < masterTimestamp) {
+                overScrollSlave(masterTimestamp);
             }
         }
 
-        private void slaveIsDone() {
-            positionSlaveRecB();
-            this.slaveTimestamp = Long.MAX_VALUE;
-        }
-
-        private void overScrollSlave(long masterTimestamp, long slaveTimestamp) {
-            latestSlaveRowID = slaveRecA.getRowId();
-            this.slaveTimestamp = slaveTimestamp;
-
-            // scroll slave down
+        private void overScrollSlave(long masterTimestamp) {
+            // dangling record is before master timestamp, so is any record of slave
+            // before the first one that is not
+            long rowId = latestSlaveRowID;
             while (true) {
                 if (slaveCursor.hasNext()) {
-                    slaveTimestamp = slaveRecA.getTimestamp(slaveTimestampIndex);
+                    final long slaveTimestamp = slaveRecA.getTimestamp(slaveTimestampIndex);
                     if (slaveTimestamp < masterTimestamp) {
-                        record.hasSlave(true);
-                        slaveCursor.recordAt(slaveRecB, latestSlaveRowID);
-                        latestSlaveRowID = slaveRecA.getRowId();
-                        this.slaveTimestamp = slaveTimestamp;
+                        rowId = slaveRecA.getRowId();
                     } else {
                         latestSlaveRowID = slaveRecA.getRowId();
                         this.slaveTimestamp = slaveTimestamp;
                         break;
                     }
                 } else {
-                    record.hasSlave(true);
-                    slaveCursor.recordAt(slaveRecB, latestSlaveRowID);
+                    latestSlaveRowID = rowId;
                     this.slaveTimestamp = Long.MAX_VALUE;
                     break;
                 }
             }
+
+            if (rowId != Long.MIN_VALUE) {
+                record.hasSlave(true);
+                slaveCursor.recordAt(slaveRecB, rowId);
+            }
         }
 
         @Override
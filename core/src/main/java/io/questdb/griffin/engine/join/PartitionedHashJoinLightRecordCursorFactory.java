@@ -0,0 +1,388 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.tasks.HashJoinBuildTask;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Inner hash join, which splits both slave and master rows into radix partitions by key hash. Partition
+ * hash tables are built over slave rows on worker threads, when there are any, while master rows are
+ * being partitioned. Each partition of master rows is then probed against hash table of the matching
+ * slave partition only, one partition at a time. Rows that do not fit into
+ * {@link CairoConfiguration#getPartitionedHashJoinSpillThreshold()}, hash tables included, are moved to
+ * temporary files under Cairo root, largest partition first.
+ * <p>
+ * Join produces rows grouped by partition rather than in order of master rows, which is why it requires
+ * random access to master rows and result of the join has no designated timestamp.
+ */
+public class PartitionedHashJoinLightRecordCursorFactory extends AbstractRecordCursorFactory {
+    private static final AtomicLong SPILL_FILE_ID = new AtomicLong();
+    private static final long PARTITION_INITIAL_CAPACITY = 4096;
+    private final RecordCursorFactory masterFactory;
+    private final RecordCursorFactory slaveFactory;
+    private final RecordSink masterKeySink;
+    private final RecordSink slaveKeySink;
+    private final ObjList<HashJoinPartition> partitions = new ObjList<>();
+    private final ObjList<HashJoinPartition> probePartitions = new ObjList<>();
+    private final JoinKeyBuffer key = new JoinKeyBuffer();
+    private final CharSequence spillDir;
+    private final long spillThreshold;
+    private final PartitionedHashJoinRecordCursor cursor;
+
+    public PartitionedHashJoinLightRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory masterFactory,
+            RecordCursorFactory slaveFactory,
+            RecordSink masterKeySink,
+            RecordSink slaveKeySink,
+            int columnSplit
+    ) {
+        super(metadata);
+        assert masterFactory.recordCursorSupportsRandomAccess();
+        this.masterFactory = masterFactory;
+        this.slaveFactory = slaveFactory;
+        this.masterKeySink = masterKeySink;
+        this.slaveKeySink = slaveKeySink;
+        this.spillDir = configuration.getRoot();
+        this.spillThreshold = configuration.getPartitionedHashJoinSpillThreshold();
+        final int partitionCount = configuration.getPartitionedHashJoinPartitionCount();
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new HashJoinPartition(configuration.getFilesFacade(), PARTITION_INITIAL_CAPACITY));
+            probePartitions.add(new HashJoinPartition(configuration.getFilesFacade(), PARTITION_INITIAL_CAPACITY));
+        }
+        this.cursor = new PartitionedHashJoinRecordCursor(columnSplit);
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjList(partitions);
+        Misc.freeObjList(probePartitions);
+        key.close();
+        ((JoinRecordMetadata) getMetadata()).close();
+        masterFactory.close();
+        slaveFactory.close();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        final SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
+        final long spillFileId = SPILL_FILE_ID.incrementAndGet();
+        RecordCursor slaveCursor = slaveFactory.getCursor(executionContext);
+        RecordCursor masterCursor = null;
+        try {
+            partitionSlaveRecords(slaveCursor, interruptor, spillFileId);
+            final long buildSize = getBuildSize();
+            publishPartitions(executionContext);
+            Throwable error;
+            try {
+                masterCursor = masterFactory.getCursor(executionContext);
+                partitionMasterRecords(masterCursor, interruptor, spillFileId, buildSize);
+            } finally {
+                // all partitions must be built before we let go of them, even when some of them fail
+                error = awaitPartitions();
+            }
+            if (error != null) {
+                throwBuildError(error);
+            }
+        } catch (Throwable e) {
+            Misc.free(masterCursor);
+            slaveCursor.close();
+            throw e;
+        }
+        cursor.of(masterCursor, slaveCursor);
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    private static void await(HashJoinPartition partition) {
+        // build partition on this thread unless worker beat us to it
+        if (!partition.run()) {
+            while (!partition.isDone()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+    }
+
+    private static long getAllocatedSize(ObjList<HashJoinPartition> partitions) {
+        long size = 0;
+        for (int i = 0, n = partitions.size(); i < n; i++) {
+            size += partitions.getQuick(i).getAllocatedSize();
+        }
+        return size;
+    }
+
+    private static void throwBuildError(Throwable error) {
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        throw CairoException.instance(0).put("hash join failed [error=").put(error.getMessage()).put(']');
+    }
+
+    private Throwable awaitPartitions() {
+        Throwable error = null;
+        for (int i = 0, n = partitions.size(); i < n; i++) {
+            final HashJoinPartition partition = partitions.getQuick(i);
+            if (partition.getEntryCount() > 0) {
+                await(partition);
+                if (error == null) {
+                    error = partition.getError();
+                }
+            }
+        }
+        return error;
+    }
+
+    private long getBuildSize() {
+        long size = 0;
+        for (int i = 0, n = partitions.size(); i < n; i++) {
+            size += partitions.getQuick(i).getBuildSize();
+        }
+        return size;
+    }
+
+    private int getLargestInMemoryPartition(ObjList<HashJoinPartition> partitions, boolean build) {
+        int index = -1;
+        long size = 0;
+        for (int i = 0, n = partitions.size(); i < n; i++) {
+            final HashJoinPartition partition = partitions.getQuick(i);
+            if (!partition.isSpilled() && partition.getEntryCount() > 0) {
+                final long partitionSize = build ? partition.getBuildSize() : partition.getAllocatedSize();
+                if (partitionSize > size) {
+                    size = partitionSize;
+                    index = i;
+                }
+            }
+        }
+        return index;
+    }
+
+    private void partitionMasterRecords(RecordCursor masterCursor, SqlExecutionInterruptor interruptor, long spillFileId, long buildSize) {
+        for (int i = 0, n = probePartitions.size(); i < n; i++) {
+            probePartitions.getQuick(i).clear();
+        }
+
+        // slave partitions are being built by workers, only master partitions can be spilled now
+        final Record record = masterCursor.getRecord();
+        while (masterCursor.hasNext()) {
+            interruptor.checkInterrupted();
+            key.of(record, masterKeySink);
+            final int hash = key.hash();
+            final int index = partitionOf(hash);
+            // row cannot match anything when slave partition is empty
+            if (partitions.getQuick(index).getEntryCount() > 0 && probePartitions.getQuick(index).add(record.getRowId(), key, hash)) {
+                long allocatedSize = buildSize + getAllocatedSize(probePartitions);
+                while (allocatedSize > spillThreshold) {
+                    final int largest = getLargestInMemoryPartition(probePartitions, false);
+                    if (largest == -1) {
+                        break;
+                    }
+                    final HashJoinPartition partition = probePartitions.getQuick(largest);
+                    allocatedSize -= partition.getAllocatedSize();
+                    partition.spill(spillDir, ".hash_join_" + spillFileId + '_' + largest + ".p");
+                    allocatedSize += partition.getAllocatedSize();
+                }
+            }
+        }
+    }
+
+    private int partitionOf(int hash) {
+        // partition hash tables use low bits of key hash, small integer keys hash to themselves,
+        // so partition is picked by high bits of the scrambled hash
+        return (int) ((((hash * 0x9E3779B97F4A7C15L) >>> 32) * partitions.size()) >>> 32);
+    }
+
+    private void partitionSlaveRecords(RecordCursor slaveCursor, SqlExecutionInterruptor interruptor, long spillFileId) {
+        for (int i = 0, n = partitions.size(); i < n; i++) {
+            partitions.getQuick(i).clear();
+        }
+
+        final Record record = slaveCursor.getRecord();
+        while (slaveCursor.hasNext()) {
+            interruptor.checkInterrupted();
+            key.of(record, slaveKeySink);
+            final int hash = key.hash();
+            if (partitions.getQuick(partitionOf(hash)).add(record.getRowId(), key, hash)) {
+                // hash table is sized by number of entries, it counts towards threshold before it is built
+                long allocatedSize = getBuildSize();
+                while (allocatedSize > spillThreshold) {
+                    final int index = getLargestInMemoryPartition(partitions, true);
+                    if (index == -1) {
+                        break;
+                    }
+                    final HashJoinPartition partition = partitions.getQuick(index);
+                    allocatedSize -= partition.getBuildSize();
+                    // file name starts with a dot to keep it out of table list
+                    partition.spill(spillDir, ".hash_join_" + spillFileId + '_' + index);
+                    allocatedSize += partition.getBuildSize();
+                }
+            }
+        }
+    }
+
+    private void publishPartitions(SqlExecutionContext executionContext) {
+        final int partitionCount = partitions.size();
+        final MessageBus bus = executionContext.getMessageBus();
+        if (bus != null && executionContext.getWorkerCount() > 1) {
+            final RingQueue<HashJoinBuildTask> queue = bus.getHashJoinBuildQueue();
+            final Sequence pubSeq = bus.getHashJoinBuildPubSequence();
+            for (int i = 0; i < partitionCount; i++) {
+                final HashJoinPartition partition = partitions.getQuick(i);
+                if (partition.getEntryCount() > 0) {
+                    partition.publish();
+                    // when queue is full we do not publish, partition is built by this thread
+                    final long seq = pubSeq.next();
+                    if (seq > -1) {
+                        queue.get(seq).partition = partition;
+                        pubSeq.done(seq);
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < partitionCount; i++) {
+                final HashJoinPartition partition = partitions.getQuick(i);
+                if (partition.getEntryCount() > 0) {
+                    partition.publish();
+                }
+            }
+        }
+    }
+
+    private class PartitionedHashJoinRecordCursor implements NoRandomAccessRecordCursor {
+        private final JoinRecord record;
+        private final int columnSplit;
+        private RecordCursor masterCursor;
+        private RecordCursor slaveCursor;
+        private Record masterRecord;
+        private Record slaveRecord;
+        private HashJoinPartition partition;
+        private HashJoinPartition probePartition;
+        private int partitionIndex;
+        private long probeEntry;
+        private long probeHi;
+        private long nextEntry;
+
+        public PartitionedHashJoinRecordCursor(int columnSplit) {
+            this.record = new JoinRecord(columnSplit);
+            this.columnSplit = columnSplit;
+        }
+
+        @Override
+        public void close() {
+            masterCursor = Misc.free(masterCursor);
+            slaveCursor = Misc.free(slaveCursor);
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (columnIndex < columnSplit) {
+                return masterCursor.getSymbolTable(columnIndex);
+            }
+            return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextEntry != -1) {
+                slaveCursor.recordAt(slaveRecord, partition.getRowId(nextEntry));
+                nextEntry = partition.getNext(nextEntry);
+                return true;
+            }
+
+            while (true) {
+                while (probeEntry < probeHi) {
+                    final long entry = partition.find(probePartition, probeEntry);
+                    if (entry != -1) {
+                        masterCursor.recordAt(masterRecord, probePartition.getRowId(probeEntry));
+                        slaveCursor.recordAt(slaveRecord, partition.getRowId(entry));
+                        nextEntry = partition.getNext(entry);
+                        probeEntry = probePartition.nextEntry(probeEntry);
+                        return true;
+                    }
+                    probeEntry = probePartition.nextEntry(probeEntry);
+                }
+
+                if (++partitionIndex == partitions.size()) {
+                    partitionIndex--;
+                    return false;
+                }
+                partition = partitions.getQuick(partitionIndex);
+                probePartition = probePartitions.getQuick(partitionIndex);
+                probeEntry = 0;
+                probeHi = probePartition.getEntriesSize();
+            }
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            partitionIndex = -1;
+            probeEntry = 0;
+            probeHi = 0;
+            nextEntry = -1;
+        }
+
+        void of(RecordCursor masterCursor, RecordCursor slaveCursor) {
+            this.masterCursor = masterCursor;
+            this.slaveCursor = slaveCursor;
+            this.masterRecord = masterCursor.getRecord();
+            this.slaveRecord = slaveCursor.getRecordB();
+            record.of(masterRecord, slaveRecord);
+            toTop();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Contiguous growable memory, which is allocated off-heap until it is spilled. Spilled memory is
+ * moved into a temporary memory mapped file and keeps growing there, so that its pages can be written
+ * out by OS when memory is short. File is removed when memory is cleared or closed.
+ */
+public class SpillableMemory implements Closeable {
+    private static final Log LOG = LogFactory.getLog(SpillableMemory.class);
+    private final FilesFacade ff;
+    private final long initialCapacity;
+    private long address;
+    private long capacity;
+    private long size;
+    private long fd = -1;
+    private Path path;
+
+    public SpillableMemory(FilesFacade ff, long initialCapacity) {
+        this.ff = ff;
+        this.initialCapacity = initialCapacity;
+        this.capacity = initialCapacity;
+        this.address = Unsafe.malloc(initialCapacity);
+    }
+
+    public long addressOf(long offset) {
+        return address + offset;
+    }
+
+    /**
+     * Appends uninitialised block of memory.
+     *
+     * @param len block length in bytes
+     * @return offset of the block, offsets remain valid when memory grows or is spilled
+     */
+    public long allocate(long len) {
+        final long offset = size;
+        if (offset + len > capacity) {
+            grow(Numbers.ceilPow2(offset + len));
+        }
+        size = offset + len;
+        return offset;
+    }
+
+    public void clear() {
+        if (fd != -1) {
+            unmap();
+            capacity = initialCapacity;
+            address = Unsafe.malloc(capacity);
+        }
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        if (fd != -1) {
+            unmap();
+        } else if (address != 0) {
+            Unsafe.free(address, capacity);
+        }
+        address = 0;
+        size = 0;
+        if (path != null) {
+            path.close();
+            path = null;
+        }
+    }
+
+    /**
+     * @return number of bytes of off-heap memory held, spilled memory does not count
+     */
+    public long getAllocatedSize() {
+        return fd == -1 ? capacity : 0;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isSpilled() {
+        return fd != -1;
+    }
+
+    public void spill(CharSequence dir, CharSequence fileName) {
+        if (fd != -1) {
+            return;
+        }
+        if (path == null) {
+            path = new Path();
+        }
+        path.of(dir).concat(fileName).$();
+        final long fd = ff.openRW(path);
+        if (fd == -1) {
+            throw CairoException.instance(ff.errno()).put("could not open spill file [path=").put(path).put(']');
+        }
+        final long addr = map(fd, capacity);
+        Unsafe.getUnsafe().copyMemory(address, addr, size);
+        Unsafe.free(address, capacity);
+        this.fd = fd;
+        this.address = addr;
+    }
+
+    private void grow(long newCapacity) {
+        if (fd == -1) {
+            address = Unsafe.realloc(address, capacity, newCapacity);
+        } else {
+            if (!ff.truncate(fd, newCapacity)) {
+                throw CairoException.instance(ff.errno()).put("could not extend spill file [path=").put(path).put(", size=").put(newCapacity).put(']');
+            }
+            final long addr = ff.mremap(fd, address, capacity, newCapacity, 0, Files.MAP_RW);
+            if (addr == FilesFacade.MAP_FAILED) {
+                throw CairoException.instance(ff.errno()).put("could not remap spill file [path=").put(path).put(", size=").put(newCapacity).put(']');
+            }
+            address = addr;
+        }
+        capacity = newCapacity;
+    }
+
+    private long map(long fd, long size) {
+        if (ff.truncate(fd, size)) {
+            final long addr = ff.mmap(fd, size, 0, Files.MAP_RW);
+            if (addr != FilesFacade.MAP_FAILED) {
+                return addr;
+            }
+        }
+        final int errno = ff.errno();
+        ff.close(fd);
+        ff.remove(path);
+        throw CairoException.instance(errno).put("could not map spill file [path=").put(path).put(", size=").put(size).put(']');
+    }
+
+    private void unmap() {
+        ff.munmap(address, capacity);
+        ff.close(fd);
+        fd = -1;
+        if (!ff.remove(path)) {
+            LOG.error().$("could not remove spill file [path=").$(path).$(", errno=").$(ff.errno()).$(']').$();
+        }
+    }
+}
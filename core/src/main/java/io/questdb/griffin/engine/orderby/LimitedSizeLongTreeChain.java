@@ -0,0 +1,324 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.ContiguousVirtualMemory;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.griffin.engine.AbstractRedBlackTree;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.std.Misc;
+
+/**
+ * Red-black tree of long values, typically row ids, that keeps at most "limit" values.
+ * Once tree is full, value that ranks behind all other values is evicted to make room
+ * for better one, so that memory stays proportional to limit rather than to row count.
+ * <p>
+ * Values with equal keys are chained to the same tree node. Chain is doubly linked, and
+ * chain head refers back to chain tail, which makes both ends accessible in constant time.
+ */
+public class LimitedSizeLongTreeChain extends AbstractRedBlackTree {
+    // value + next + prev
+    private static final long ENTRY_SIZE = 24;
+    private static final long O_NEXT = 8;
+    private static final long O_PREV = 16;
+    private final TreeCursor cursor = new TreeCursor();
+    private final ContiguousVirtualMemory valueChain;
+    // when true values with equal keys are returned in reverse order
+    // of insertion, which is what LongTreeChain does
+    private final boolean newestFirst;
+    private long limit = Long.MAX_VALUE;
+    private long size = 0;
+    private long freeBlocks = -1;
+    private long freeEntries = -1;
+
+    public LimitedSizeLongTreeChain(long keyPageSize, int keyMaxPages, long valuePageSize, int valueMaxPages, boolean newestFirst) {
+        super(keyPageSize, keyMaxPages);
+        this.valueChain = new ContiguousVirtualMemory(valuePageSize, valueMaxPages);
+        this.newestFirst = newestFirst;
+    }
+
+    /**
+     * Checks if value of leftRecord would make it into the tree. When tree is full
+     * value has to rank ahead of the last value in the tree.
+     */
+    public boolean accepts(
+            Record leftRecord,
+            RecordCursor sourceCursor,
+            Record rightRecord,
+            RecordComparator comparator
+    ) {
+        if (size < limit) {
+            return true;
+        }
+
+        if (limit == 0) {
+            return false;
+        }
+
+        final long tail = tailOf(refOf(maxOf(root)));
+        sourceCursor.recordAt(rightRecord, valueChain.getLong(tail));
+        comparator.setLeft(leftRecord);
+        final int cmp = comparator.compare(rightRecord);
+        return cmp < 0 || (cmp == 0 && newestFirst);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.valueChain.jumpTo(0);
+        this.size = 0;
+        this.freeBlocks = -1;
+        this.freeEntries = -1;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        Misc.free(valueChain);
+    }
+
+    public TreeCursor getCursor() {
+        cursor.toTop();
+        return cursor;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Clears the tree and sets maximum number of values it keeps.
+     */
+    public void of(long limit) {
+        clear();
+        this.limit = limit;
+    }
+
+    /**
+     * Adds value, callers must check that value is accepted first. When tree is full,
+     * the last value in the tree is evicted.
+     */
+    public void put(
+            Record leftRecord,
+            RecordCursor sourceCursor,
+            Record rightRecord,
+            RecordComparator comparator,
+            long value
+    ) {
+        if (size == limit) {
+            evictLast();
+        }
+        size++;
+
+        if (root == -1) {
+            root = allocateBlock();
+            setRef(root, newChain(value));
+            setParent(root, -1);
+            return;
+        }
+
+        comparator.setLeft(leftRecord);
+
+        long p = root;
+        long parent;
+        int cmp;
+        do {
+            parent = p;
+            final long r = refOf(p);
+            sourceCursor.recordAt(rightRecord, valueChain.getLong(r));
+            cmp = comparator.compare(rightRecord);
+            if (cmp < 0) {
+                p = leftOf(p);
+            } else if (cmp > 0) {
+                p = rightOf(p);
+            } else {
+                appendToChain(p, r, value);
+                return;
+            }
+        } while (p > -1);
+
+        p = allocateBlock();
+        setParent(p, parent);
+        setRef(p, newChain(value));
+
+        if (cmp < 0) {
+            setLeft(parent, p);
+        } else {
+            setRight(parent, p);
+        }
+        fix(p);
+    }
+
+    /**
+     * Number of values in the tree.
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Replaces every value in the tree in place, tree order is not changed.
+     */
+    public void updateValues(ValueUpdater updater) {
+        long p = root;
+        if (p != -1) {
+            long l;
+            while ((l = leftOf(p)) != -1) {
+                p = l;
+            }
+        }
+        while (p != -1) {
+            long e = refOf(p);
+            while (e != -1) {
+                valueChain.putLong(e, updater.update(valueChain.getLong(e)));
+                e = valueChain.getLong(e + O_NEXT);
+            }
+            p = successor(p);
+        }
+    }
+
+    @Override
+    protected long allocateBlock() {
+        if (freeBlocks == -1) {
+            return super.allocateBlock();
+        }
+        final long p = freeBlocks;
+        freeBlocks = leftOf(p);
+        setLeft(p, -1);
+        setRight(p, -1);
+        setColor(p, BLACK);
+        return p;
+    }
+
+    private void appendToChain(long node, long head, long value) {
+        final long tail = tailOf(head);
+        final long e = newEntry(value);
+        if (newestFirst) {
+            // new entry becomes head
+            valueChain.putLong(e + O_NEXT, head);
+            valueChain.putLong(e + O_PREV, tail);
+            valueChain.putLong(head + O_PREV, e);
+            setRef(node, e);
+        } else {
+            valueChain.putLong(e + O_NEXT, -1);
+            valueChain.putLong(e + O_PREV, tail);
+            valueChain.putLong(tail + O_NEXT, e);
+            valueChain.putLong(head + O_PREV, e);
+        }
+    }
+
+    private void evictLast() {
+        final long node = maxOf(root);
+        final long head = refOf(node);
+        final long tail = tailOf(head);
+        if (tail == head) {
+            // the only value of the node, node has to go
+            freeEntry(head);
+            final long block = remove(node);
+            setLeft(block, freeBlocks);
+            freeBlocks = block;
+        } else {
+            final long newTail = valueChain.getLong(tail + O_PREV);
+            valueChain.putLong(newTail + O_NEXT, -1);
+            valueChain.putLong(head + O_PREV, newTail);
+            freeEntry(tail);
+        }
+        size--;
+    }
+
+    private void freeEntry(long e) {
+        valueChain.putLong(e + O_NEXT, freeEntries);
+        freeEntries = e;
+    }
+
+    private long newChain(long value) {
+        final long e = newEntry(value);
+        valueChain.putLong(e + O_NEXT, -1);
+        valueChain.putLong(e + O_PREV, e);
+        return e;
+    }
+
+    private long newEntry(long value) {
+        final long e;
+        if (freeEntries != -1) {
+            e = freeEntries;
+            freeEntries = valueChain.getLong(e + O_NEXT);
+            valueChain.putLong(e, value);
+        } else {
+            e = valueChain.getAppendOffset();
+            valueChain.putLong(value);
+            valueChain.skip(ENTRY_SIZE - Long.BYTES);
+        }
+        return e;
+    }
+
+    private long tailOf(long head) {
+        return valueChain.getLong(head + O_PREV);
+    }
+
+    @FunctionalInterface
+    public interface ValueUpdater {
+        long update(long value);
+    }
+
+    public class TreeCursor {
+
+        private long treeCurrent;
+        private long chainCurrent;
+
+        public boolean hasNext() {
+            if (chainCurrent != -1) {
+                return true;
+            }
+
+            treeCurrent = successor(treeCurrent);
+            if (treeCurrent == -1) {
+                return false;
+            }
+
+            chainCurrent = refOf(treeCurrent);
+            return true;
+        }
+
+        public long next() {
+            final long result = chainCurrent;
+            chainCurrent = valueChain.getLong(chainCurrent + O_NEXT);
+            return valueChain.getLong(result);
+        }
+
+        public void toTop() {
+            long p = root;
+            if (p != -1) {
+                while (leftOf(p) != -1) {
+                    p = leftOf(p);
+                }
+            }
+            chainCurrent = refOf(treeCurrent = p);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.griffin.engine.RecordComparator;
+
+class LimitedSizeSortedLightRecordCursor implements RecordCursor {
+    private final LimitedSizeLongTreeChain chain;
+    private final RecordComparator comparator;
+    private final LimitedSizeLongTreeChain.TreeCursor chainCursor;
+    private RecordCursor base;
+    private Record baseRecord;
+
+    public LimitedSizeSortedLightRecordCursor(LimitedSizeLongTreeChain chain, RecordComparator comparator) {
+        this.chain = chain;
+        this.comparator = comparator;
+        // assign it once, its the same instance anyway
+        this.chainCursor = chain.getCursor();
+    }
+
+    @Override
+    public void close() {
+        chain.clear();
+        base.close();
+    }
+
+    @Override
+    public Record getRecord() {
+        return baseRecord;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return base.getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chainCursor.hasNext()) {
+            base.recordAt(baseRecord, chainCursor.next());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Record getRecordB() {
+        return base.getRecordB();
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        base.recordAt(record, atRowId);
+    }
+
+    @Override
+    public void toTop() {
+        chainCursor.toTop();
+    }
+
+    @Override
+    public long size() {
+        return chain.size();
+    }
+
+    void of(RecordCursor base, long limit, SqlExecutionContext executionContext) {
+        this.base = base;
+        this.baseRecord = base.getRecord();
+        final Record placeHolderRecord = base.getRecordB();
+        final SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
+
+        chain.of(limit);
+        while (base.hasNext()) {
+            interruptor.checkInterrupted();
+            // most rows do not make it into the chain, they are
+            // checked against the last row in the chain first
+            if (chain.accepts(baseRecord, base, placeHolderRecord, comparator)) {
+                chain.put(baseRecord, base, placeHolderRecord, comparator, baseRecord.getRowId());
+            }
+        }
+        chainCursor.toTop();
+    }
+}
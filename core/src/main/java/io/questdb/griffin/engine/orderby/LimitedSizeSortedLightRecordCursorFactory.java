@@ -0,0 +1,115 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sorts row ids of ORDER BY ... LIMIT N queries keeping only top N rows. Limit itself
+ * is still applied by LimitRecordCursorFactory on top of this factory.
+ */
+public class LimitedSizeSortedLightRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final LimitedSizeLongTreeChain chain;
+    private final LimitedSizeSortedLightRecordCursor cursor;
+    private final Function loFunction;
+    private final Function hiFunction;
+
+    public LimitedSizeSortedLightRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory base,
+            RecordComparator comparator,
+            Function loFunction,
+            @Nullable Function hiFunction
+    ) {
+        super(metadata);
+        this.chain = new LimitedSizeLongTreeChain(
+                configuration.getSqlSortKeyPageSize(),
+                configuration.getSqlSortKeyMaxPages(),
+                configuration.getSqlSortLightValuePageSize(),
+                configuration.getSqlSortLightValueMaxPages(),
+                true
+        );
+        this.base = base;
+        this.loFunction = loFunction;
+        this.hiFunction = hiFunction;
+        this.cursor = new LimitedSizeSortedLightRecordCursor(chain, comparator);
+    }
+
+    // Number of rows sort has to keep to satisfy the limit. Rows counted from
+    // the end of result set and invalid limits require all rows.
+    static long getLimit(Function loFunction, @Nullable Function hiFunction) {
+        final long lo = loFunction.getLong(null);
+        if (hiFunction == null) {
+            return lo < 0 ? Long.MAX_VALUE : lo;
+        }
+        final long hi = hiFunction.getLong(null);
+        return lo < 0 || hi < 0 ? Long.MAX_VALUE : hi;
+    }
+
+    static void initLimit(Function loFunction, @Nullable Function hiFunction, RecordCursor baseCursor, SqlExecutionContext executionContext) {
+        loFunction.init(baseCursor, executionContext);
+        if (hiFunction != null) {
+            hiFunction.init(baseCursor, executionContext);
+        }
+    }
+
+    @Override
+    public void close() {
+        base.close();
+        chain.close();
+        Misc.free(loFunction);
+        Misc.free(hiFunction);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        RecordCursor baseCursor = base.getCursor(executionContext);
+        try {
+            initLimit(loFunction, hiFunction, baseCursor, executionContext);
+            cursor.of(baseCursor, getLimit(loFunction, hiFunction), executionContext);
+            return cursor;
+        } catch (RuntimeException ex) {
+            baseCursor.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.RecordChain;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionInterruptor;
+import io.questdb.griffin.engine.RecordComparator;
+
+class LimitedSizeSortedRecordCursor implements RecordCursor, LimitedSizeLongTreeChain.ValueUpdater {
+    private final LimitedSizeLongTreeChain chain;
+    private final RecordChain recordChainA;
+    private final RecordChain recordChainB;
+    private final RecordComparator comparator;
+    private final LimitedSizeLongTreeChain.TreeCursor chainCursor;
+    // record chain is not compacted until it outgrows this size
+    private final long compactThreshold;
+    private RecordChain recordChain;
+    private RecordChain compactTarget;
+    private RecordCursor base;
+    private long recordCount;
+
+    public LimitedSizeSortedRecordCursor(
+            LimitedSizeLongTreeChain chain,
+            RecordChain recordChainA,
+            RecordChain recordChainB,
+            RecordComparator comparator,
+            long compactThreshold
+    ) {
+        this.chain = chain;
+        this.recordChainA = recordChainA;
+        this.recordChainB = recordChainB;
+        this.comparator = comparator;
+        this.compactThreshold = compactThreshold;
+        this.chainCursor = chain.getCursor();
+    }
+
+    @Override
+    public void close() {
+        chain.clear();
+        recordChainA.clear();
+        recordChainB.clear();
+        base.close();
+    }
+
+    @Override
+    public Record getRecord() {
+        return recordChain.getRecord();
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return base.getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chainCursor.hasNext()) {
+            recordChain.recordAt(recordChain.getRecord(), chainCursor.next());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Record getRecordB() {
+        return recordChain.getRecordB();
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        recordChain.recordAt(record, atRowId);
+    }
+
+    @Override
+    public void toTop() {
+        chainCursor.toTop();
+    }
+
+    @Override
+    public long size() {
+        return chain.size();
+    }
+
+    @Override
+    public long update(long value) {
+        final Record record = recordChain.getRecordB();
+        recordChain.recordAt(record, value);
+        return compactTarget.put(record, -1L);
+    }
+
+    void of(RecordCursor base, long limit, SqlExecutionContext executionContext) {
+        this.base = base;
+        this.recordChain = recordChainA;
+        this.compactTarget = recordChainB;
+        this.recordCount = 0;
+        recordChainA.clear();
+        recordChainB.clear();
+        recordChainA.setSymbolTableResolver(base);
+        recordChainB.setSymbolTableResolver(base);
+
+        final Record record = base.getRecord();
+        final SqlExecutionInterruptor interruptor = executionContext.getSqlExecutionInterruptor();
+
+        chain.of(limit);
+        while (base.hasNext()) {
+            interruptor.checkInterrupted();
+            // record is copied only when it makes it into the chain
+            if (chain.accepts(record, recordChain, recordChain.getRecordB(), comparator)) {
+                final long offset = recordChain.put(record, -1L);
+                chain.put(record, recordChain, recordChain.getRecordB(), comparator, offset);
+                if (++recordCount > 2 * chain.size() && recordChain.getAppendOffset() > compactThreshold) {
+                    compact();
+                }
+            }
+        }
+        chainCursor.toTop();
+    }
+
+    // copies live records to the other chain and swaps chains
+    private void compact() {
+        compactTarget.clear();
+        chain.updateValues(this);
+        final RecordChain tmp = recordChain;
+        recordChain = compactTarget;
+        compactTarget = tmp;
+        compactTarget.clear();
+        recordCount = chain.size();
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordChain;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copies top N rows of ORDER BY ... LIMIT N queries when base cursor does not support
+ * random access. Rows that drop out of top N leave garbage in record chain, which is
+ * compacted once there is more garbage than live rows.
+ */
+public class LimitedSizeSortedRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final LimitedSizeLongTreeChain chain;
+    private final RecordChain recordChainA;
+    private final RecordChain recordChainB;
+    private final LimitedSizeSortedRecordCursor cursor;
+    private final Function loFunction;
+    private final Function hiFunction;
+
+    public LimitedSizeSortedRecordCursorFactory(
+            CairoConfiguration configuration,
+            RecordMetadata metadata,
+            RecordCursorFactory base,
+            ColumnTypes columnTypes,
+            RecordSink recordSink,
+            RecordComparator comparator,
+            Function loFunction,
+            @Nullable Function hiFunction
+    ) {
+        super(metadata);
+        this.chain = new LimitedSizeLongTreeChain(
+                configuration.getSqlSortKeyPageSize(),
+                configuration.getSqlSortKeyMaxPages(),
+                configuration.getSqlSortLightValuePageSize(),
+                configuration.getSqlSortLightValueMaxPages(),
+                false
+        );
+        this.recordChainA = new RecordChain(columnTypes, recordSink, configuration.getSqlSortValuePageSize(), configuration.getSqlSortValueMaxPages());
+        this.recordChainB = new RecordChain(columnTypes, recordSink, configuration.getSqlSortValuePageSize(), configuration.getSqlSortValueMaxPages());
+        this.base = base;
+        this.loFunction = loFunction;
+        this.hiFunction = hiFunction;
+        this.cursor = new LimitedSizeSortedRecordCursor(chain, recordChainA, recordChainB, comparator, configuration.getSqlSortValuePageSize());
+    }
+
+    @Override
+    public void close() {
+        base.close();
+        chain.close();
+        recordChainA.close();
+        recordChainB.close();
+        Misc.free(loFunction);
+        Misc.free(hiFunction);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        RecordCursor baseCursor = base.getCursor(executionContext);
+        try {
+            LimitedSizeSortedLightRecordCursorFactory.initLimit(loFunction, hiFunction, baseCursor, executionContext);
+            cursor.of(
+                    baseCursor,
+                    LimitedSizeSortedLightRecordCursorFactory.getLimit(loFunction, hiFunction),
+                    executionContext
+            );
+            return cursor;
+        } catch (RuntimeException ex) {
+            baseCursor.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+}
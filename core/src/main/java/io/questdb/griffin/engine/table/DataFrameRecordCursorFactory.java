@@ -41,6 +41,7 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
     private final boolean framingSupported;
     private final IntList columnIndexes;
     private final IntList columnSizes;
+    private final boolean entityCursor;
     private TableReaderPageFrameCursor pageFrameCursor;
 
     public DataFrameRecordCursorFactory(
@@ -61,6 +62,7 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         this.framingSupported = framingSupported;
         this.columnIndexes = columnIndexes;
         this.columnSizes = columnSizes;
+        this.entityCursor = rowCursorFactory.isEntity();
     }
 
     @Override
@@ -74,6 +76,14 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         return followsOrderByAdvice;
     }
 
+    public IntList getColumnIndexes() {
+        return columnIndexes;
+    }
+
+    public DataFrameCursorFactory getDataFrameCursorFactory() {
+        return dataFrameCursorFactory;
+    }
+
     @Override
     public PageFrameCursor getPageFrameCursor(SqlExecutionContext executionContext) {
         DataFrameCursor dataFrameCursor = dataFrameCursorFactory.getCursor(executionContext);
@@ -92,6 +102,12 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
         return true;
     }
 
+    // parallel filter evaluates every row of every data frame, which is
+    // only correct when this factory does not skip rows itself
+    public boolean supportsParallelFilter() {
+        return entityCursor && filter == null;
+    }
+
     @Override
     public boolean supportPageFrameCursor() {
         return framingSupported;
@@ -242,12 +258,11 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
 
         private PageFrame computeFrame(long min) {
             for (int i = 0; i < columnCount; i++) {
-                final int columnIndex = columnIndexes.getQuick(i);
                 final long top = topsRemaining.getQuick(i);
                 if (top > 0) {
                     assert min <= top;
                     topsRemaining.setQuick(i, top - min);
-                    columnPageAddress.setQuick(columnIndex, 0);
+                    columnPageAddress.setQuick(i, 0);
                     pageSizes.setQuick(i, min);
                 } else {
                     long addr = columnPageNextAddress.getQuick(i);
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.EmptyTableRandomRecordCursor;
+import io.questdb.griffin.engine.functions.SymbolKeyPredicateFunction;
+import io.questdb.std.IntList;
+import io.questdb.std.IntObjHashMap;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Serves predicate over indexed symbol column, such as "sym like 'ab%'", from the symbol index.
+ * Predicate is evaluated once per distinct symbol and rows of matching keys are merged from
+ * index cursors.
+ */
+public class FilterOnSymbolKeysRecordCursorFactory extends AbstractDataFrameRecordCursorFactory {
+    private final DataFrameRecordCursor cursor;
+    private final int columnIndex;
+    private final SymbolKeyPredicateFunction predicate;
+    private final ObjList<RowCursorFactory> cursorFactories = new ObjList<>();
+    private final IntObjHashMap<RowCursorFactory> factoryCache = new IntObjHashMap<>();
+    private final IntList keys = new IntList();
+
+    public FilterOnSymbolKeysRecordCursorFactory(
+            @NotNull RecordMetadata metadata,
+            @NotNull DataFrameCursorFactory dataFrameCursorFactory,
+            int columnIndex,
+            @NotNull SymbolKeyPredicateFunction predicate,
+            @NotNull IntList columnIndexes
+    ) {
+        super(metadata, dataFrameCursorFactory);
+        this.columnIndex = columnIndex;
+        this.predicate = predicate;
+        this.cursor = new DataFrameRecordCursor(new HeapRowCursorFactory(cursorFactories), false, null, columnIndexes);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(predicate);
+        factoryCache.clear();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    protected RecordCursor getCursorInstance(
+            DataFrameCursor dataFrameCursor,
+            SqlExecutionContext executionContext
+    ) {
+        keys.clear();
+        predicate.findMatchingKeys(dataFrameCursor.getSymbolTable(columnIndex), keys);
+
+        final int keyCount = keys.size();
+        if (keyCount == 0) {
+            dataFrameCursor.close();
+            return EmptyTableRandomRecordCursor.INSTANCE;
+        }
+
+        cursorFactories.clear();
+        for (int i = 0; i < keyCount; i++) {
+            final int symbolKey = keys.getQuick(i);
+            final int index = factoryCache.keyIndex(symbolKey);
+            final RowCursorFactory rowCursorFactory;
+            if (index > -1) {
+                rowCursorFactory = new SymbolIndexRowCursorFactory(columnIndex, symbolKey, false, BitmapIndexReader.DIR_FORWARD, null);
+                factoryCache.putAt(index, symbolKey, rowCursorFactory);
+            } else {
+                rowCursorFactory = factoryCache.valueAtQuick(index);
+            }
+            cursorFactories.add(rowCursorFactory);
+        }
+        cursor.of(dataFrameCursor, executionContext);
+        return cursor;
+    }
+}
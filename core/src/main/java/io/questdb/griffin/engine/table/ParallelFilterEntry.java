@@ -0,0 +1,224 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ReadOnlyColumn;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.engine.functions.BatchFunction;
+import io.questdb.griffin.engine.functions.BooleanBatchFunction;
+import io.questdb.griffin.engine.functions.FunctionBatch;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.Unsafe;
+
+/**
+ * Page frame of a table, which is a row range within single partition, along with the
+ * list of rows in that frame that passed the filter. Entry is evaluated exactly once, either
+ * by a worker that picked it from the queue or by the cursor that owns it. Whoever
+ * successfully locks the entry evaluates it.
+ * <p>
+ * Filters that support batch evaluation are evaluated over column memory of the frame in
+ * batches of {@link FunctionBatch#CAPACITY} rows, otherwise filter is evaluated row by row.
+ */
+public class ParallelFilterEntry {
+    static final int STATE_PENDING = 0;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_DONE = 2;
+    private static final long STATE_OFFSET;
+
+    private final LongList rows = new LongList();
+    private final TableReaderSelectedColumnRecord record;
+    private final IntList columnIndexes;
+    private final LongList columnAddresses = new LongList();
+    private final LongList columnTops = new LongList();
+    private final IntList columnSizes = new IntList();
+    private FunctionBatch batch;
+    private boolean[] selection;
+    private TableReader reader;
+    private Function filter;
+    private int partitionIndex;
+    private long rowLo;
+    private long rowHi;
+    private Throwable error;
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int state = STATE_DONE;
+
+    public ParallelFilterEntry(IntList columnIndexes) {
+        this.record = new TableReaderSelectedColumnRecord(columnIndexes);
+        this.columnIndexes = columnIndexes;
+    }
+
+    public boolean run() {
+        if (tryLock()) {
+            evaluate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Attempts to cancel entry, which is still sitting in the queue. Entry that is being
+     * evaluated by another thread cannot be cancelled and must be awaited.
+     *
+     * @return true when entry will not be evaluated
+     */
+    boolean cancel() {
+        if (tryLock()) {
+            state = STATE_DONE;
+            return true;
+        }
+        return state == STATE_DONE;
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    int getPartitionIndex() {
+        return partitionIndex;
+    }
+
+    LongList getRows() {
+        return rows;
+    }
+
+    boolean isDone() {
+        return state == STATE_DONE;
+    }
+
+    void of(TableReader reader, Function filter, int partitionIndex, long rowLo, long rowHi) {
+        this.record.of(reader);
+        this.reader = reader;
+        this.filter = filter;
+        this.partitionIndex = partitionIndex;
+        this.rowLo = rowLo;
+        this.rowHi = rowHi;
+        this.error = null;
+        this.rows.clear();
+        // volatile write publishes the fields above to the thread that locks the entry
+        this.state = STATE_PENDING;
+    }
+
+    private void evaluate() {
+        try {
+            final TableReaderSelectedColumnRecord record = this.record;
+            final Function filter = this.filter;
+            final LongList rows = this.rows;
+            if (filter instanceof BooleanBatchFunction && BatchFunction.supportsBatch(filter) && evaluateBatches((BooleanBatchFunction) filter)) {
+                return;
+            }
+            record.jumpTo(partitionIndex, rowLo);
+            for (long r = rowLo; r < rowHi; r++) {
+                record.setRecordIndex(r);
+                if (filter.getBool(record)) {
+                    rows.add(r);
+                }
+            }
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            state = STATE_DONE;
+        }
+    }
+
+    /**
+     * Evaluates filter in batches, which never span column top. This way every column
+     * either has values for all rows of the batch or for none of them.
+     *
+     * @return false when column memory is not mapped as single page, frame has to be evaluated row by row then
+     */
+    private boolean evaluateBatches(BooleanBatchFunction filter) {
+        final int columnCount = columnIndexes.size();
+        final int base = reader.getColumnBase(partitionIndex);
+        columnAddresses.setAll(columnCount, 0);
+        columnTops.setAll(columnCount, 0);
+        columnSizes.setAll(columnCount, 0);
+        for (int i = 0; i < columnCount; i++) {
+            final int columnIndex = columnIndexes.getQuick(i);
+            final long top = reader.getColumnTop(base, columnIndex);
+            final int size = ColumnType.sizeOf(reader.getMetadata().getColumnType(columnIndex));
+            columnTops.setQuick(i, top);
+            columnSizes.setQuick(i, size);
+            // variable length columns are never read in batches
+            if (size > 0 && top < rowHi) {
+                final ReadOnlyColumn column = reader.getColumn(TableReader.getPrimaryColumnIndex(base, columnIndex));
+                // column that is absent in partition has no pages, it is null for the entire frame
+                if (column.getPageCount() > 0) {
+                    if (column.getPageCount() > 1 || column.getPageSize(0) < (rowHi - top) * size) {
+                        return false;
+                    }
+                    columnAddresses.setQuick(i, column.getPageAddress(0));
+                }
+            }
+        }
+
+        if (batch == null) {
+            batch = new FunctionBatch(columnCount);
+            selection = new boolean[FunctionBatch.CAPACITY];
+        }
+
+        final FunctionBatch batch = this.batch;
+        final boolean[] selection = this.selection;
+        long lo = rowLo;
+        while (lo < rowHi) {
+            long hi = Math.min(lo + FunctionBatch.CAPACITY, rowHi);
+            for (int i = 0; i < columnCount; i++) {
+                final long top = columnTops.getQuick(i);
+                if (top > lo && top < hi) {
+                    hi = top;
+                }
+            }
+
+            for (int i = 0; i < columnCount; i++) {
+                final long address = columnAddresses.getQuick(i);
+                final long top = columnTops.getQuick(i);
+                batch.setColumnAddress(i, address == 0 || lo < top ? 0 : address + (lo - top) * columnSizes.getQuick(i));
+            }
+
+            final int size = (int) (hi - lo);
+            batch.of(size);
+            filter.getBoolBatch(batch, selection);
+            for (int i = 0; i < size; i++) {
+                if (selection[i]) {
+                    rows.add(lo + i);
+                }
+            }
+            lo = hi;
+        }
+        return true;
+    }
+
+    private boolean tryLock() {
+        return Unsafe.cas(this, STATE_OFFSET, STATE_PENDING, STATE_RUNNING);
+    }
+
+    static {
+        STATE_OFFSET = Unsafe.getFieldOffset(ParallelFilterEntry.class, "state");
+    }
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.DataFrameCursor;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.tasks.ParallelFilterTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Splits table scan into page frames and publishes them on the message bus for the
+ * worker pool to filter. Frames are published lazily, no more than "window" frames are in
+ * flight at any time, so that LIMIT on top of this cursor does not cause full table scan.
+ * Rows are returned in the same order as they appear in the table.
+ */
+class ParallelFilteredRecordCursor extends AbstractDataFrameRecordCursor {
+    private final Function filter;
+    private final ObjList<ParallelFilterEntry> entries;
+    private final long frameRowCount;
+    private final int window;
+    private RingQueue<ParallelFilterTask> queue;
+    private Sequence pubSeq;
+    private TableReader reader;
+    private int head;
+    private int inFlightCount;
+    private ParallelFilterEntry current;
+    private LongList rows;
+    private int rowIndex;
+    private int rowCount;
+    private int framePartitionIndex;
+    private long frameRowLo;
+    private long frameRowHi;
+
+    public ParallelFilteredRecordCursor(
+            @NotNull IntList columnIndexes,
+            Function filter,
+            long frameRowCount,
+            int window
+    ) {
+        super(columnIndexes);
+        this.filter = filter;
+        this.frameRowCount = frameRowCount;
+        this.window = window;
+        this.entries = new ObjList<>(window);
+        for (int i = 0; i < window; i++) {
+            entries.add(new ParallelFilterEntry(columnIndexes));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (dataFrameCursor != null) {
+            drain();
+        }
+        super.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (true) {
+            if (rowIndex < rowCount) {
+                recordA.setRecordIndex(rows.getQuick(rowIndex++));
+                return true;
+            }
+
+            if (current != null) {
+                release();
+            }
+
+            dispatch();
+
+            if (inFlightCount == 0) {
+                return false;
+            }
+
+            current = entries.getQuick(head);
+            await(current);
+            rows = current.getRows();
+            rowIndex = 0;
+            rowCount = rows.size();
+            recordA.jumpTo(current.getPartitionIndex(), 0);
+        }
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        drain();
+        filter.toTop();
+        dataFrameCursor.toTop();
+    }
+
+    private static void await(ParallelFilterEntry entry) {
+        // evaluate entry on this thread unless worker beat us to it
+        if (!entry.run()) {
+            while (!entry.isDone()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+
+        final Throwable error = entry.getError();
+        if (error != null) {
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw CairoException.instance(0).put("filter failed [error=").put(error.getMessage()).put(']');
+        }
+    }
+
+    private void dispatch() {
+        while (inFlightCount < window) {
+            if (frameRowLo >= frameRowHi) {
+                final DataFrame dataFrame = dataFrameCursor.next();
+                if (dataFrame == null) {
+                    return;
+                }
+                framePartitionIndex = dataFrame.getPartitionIndex();
+                frameRowLo = dataFrame.getRowLo();
+                frameRowHi = dataFrame.getRowHi();
+                continue;
+            }
+
+            final long hi = Math.min(frameRowLo + frameRowCount, frameRowHi);
+            final ParallelFilterEntry entry = entries.getQuick((head + inFlightCount) % window);
+            entry.of(reader, filter, framePartitionIndex, frameRowLo, hi);
+            frameRowLo = hi;
+            inFlightCount++;
+
+            // when queue is full we do not publish, cursor will evaluate entry when it gets to it
+            final long seq = pubSeq.next();
+            if (seq > -1) {
+                queue.get(seq).entry = entry;
+                pubSeq.done(seq);
+            }
+        }
+    }
+
+    private void drain() {
+        // entries in flight reference table reader, we cannot let go of
+        // the reader until workers are done with these entries
+        for (int i = 0; i < inFlightCount; i++) {
+            final ParallelFilterEntry entry = entries.getQuick((head + i) % window);
+            while (!entry.cancel()) {
+                LockSupport.parkNanos(1);
+            }
+        }
+        head = 0;
+        inFlightCount = 0;
+        current = null;
+        rows = null;
+        rowIndex = 0;
+        rowCount = 0;
+        frameRowLo = 0;
+        frameRowHi = 0;
+    }
+
+    private void release() {
+        current = null;
+        head = (head + 1) % window;
+        inFlightCount--;
+    }
+
+    @Override
+    void of(DataFrameCursor dataFrameCursor, SqlExecutionContext executionContext) {
+        if (this.dataFrameCursor != dataFrameCursor) {
+            close();
+            this.dataFrameCursor = dataFrameCursor;
+        }
+        final MessageBus bus = executionContext.getMessageBus();
+        assert bus != null;
+        this.queue = bus.getParallelFilterQueue();
+        this.pubSeq = bus.getParallelFilterPubSequence();
+        this.reader = dataFrameCursor.getTableReader();
+        this.recordA.of(reader);
+        this.recordB.of(reader);
+        drain();
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Misc;
+
+/**
+ * Filters table scan using the shared worker pool. Filter must be safe to evaluate
+ * concurrently, see {@link Function#isReadThreadSafe()}.
+ */
+public class ParallelFilteredRecordCursorFactory implements RecordCursorFactory {
+    private final DataFrameRecordCursorFactory base;
+    private final ParallelFilteredRecordCursor cursor;
+    private final Function filter;
+
+    public ParallelFilteredRecordCursorFactory(
+            CairoConfiguration configuration,
+            DataFrameRecordCursorFactory base,
+            Function filter,
+            int workerCount
+    ) {
+        assert base.supportsParallelFilter();
+        assert filter.isReadThreadSafe();
+        this.base = base;
+        this.filter = filter;
+        this.cursor = new ParallelFilteredRecordCursor(
+                base.getColumnIndexes(),
+                filter,
+                configuration.getParallelFilterFrameRowCount(),
+                // let each worker have a frame to steal while the cursor is consuming one
+                Math.max(2, 2 * workerCount)
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.free(base);
+        Misc.free(filter);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        final DataFrameCursor dataFrameCursor = base.getDataFrameCursorFactory().getCursor(executionContext);
+        try {
+            cursor.of(dataFrameCursor, executionContext);
+            filter.init(cursor, executionContext);
+            return cursor;
+        } catch (CairoException e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public RecordMetadata getMetadata() {
+        return base.getMetadata();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+}
@@ -55,6 +55,11 @@ class SelectedRecordCursor implements RecordCursor {
         return recordA;
     }
 
+    @Override
+    public long getPrevRowId(long rowId) {
+        return baseCursor.getPrevRowId(rowId);
+    }
+
     @Override
     public SymbolTable getSymbolTable(int columnIndex) {
         return baseCursor.getSymbolTable(columnCrossIndex.getQuick(columnIndex));
@@ -65,6 +70,11 @@ class SelectedRecordCursor implements RecordCursor {
         return baseCursor.size();
     }
 
+    @Override
+    public long skipToTimestamp(long timestamp) {
+        return baseCursor.skipToTimestamp(timestamp);
+    }
+
     @Override
     public boolean hasNext() {
         return baseCursor.hasNext();
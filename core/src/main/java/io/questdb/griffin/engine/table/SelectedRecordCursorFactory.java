@@ -35,11 +35,17 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
 
     private final RecordCursorFactory base;
     private final SelectedRecordCursor cursor;
+    private final boolean timestampSeekSupported;
 
     public SelectedRecordCursorFactory(RecordMetadata metadata, IntList columnCrossIndex, RecordCursorFactory base) {
         super(metadata);
         this.base = base;
         this.cursor = new SelectedRecordCursor(columnCrossIndex, base.recordCursorSupportsRandomAccess());
+        // seek is done on timestamp of base cursor, which has to remain timestamp of this one
+        final int timestampIndex = metadata.getTimestampIndex();
+        this.timestampSeekSupported = base.recordCursorSupportsTimestampSeek()
+                && timestampIndex > -1
+                && columnCrossIndex.getQuick(timestampIndex) == base.getMetadata().getTimestampIndex();
     }
 
     @Override
@@ -62,4 +68,9 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
     public boolean recordCursorSupportsRandomAccess() {
         return base.recordCursorSupportsRandomAccess();
     }
+
+    @Override
+    public boolean recordCursorSupportsTimestampSeek() {
+        return timestampSeekSupported;
+    }
 }
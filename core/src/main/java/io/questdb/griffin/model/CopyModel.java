@@ -34,9 +34,16 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
     private ExpressionNode tableName;
     private ExpressionNode fileName;
     private boolean header;
+    private QueryModel queryModel;
+    private boolean arrowFormat;
 
     @Override
     public void clear() {
+        tableName = null;
+        fileName = null;
+        header = false;
+        queryModel = null;
+        arrowFormat = false;
     }
 
     public ExpressionNode getFileName() {
@@ -60,6 +67,24 @@ public class CopyModel implements ExecutionModel, Mutable, Sinkable {
         this.tableName = tableName;
     }
 
+    // query which result set is copied out to the client, null when data is copied in
+    public QueryModel getQueryModel() {
+        return queryModel;
+    }
+
+    public void setQueryModel(QueryModel queryModel) {
+        this.queryModel = queryModel;
+    }
+
+    // result set is copied out as Arrow IPC stream rather than PGCOPY binary
+    public boolean isArrowFormat() {
+        return arrowFormat;
+    }
+
+    public void setArrowFormat(boolean arrowFormat) {
+        this.arrowFormat = arrowFormat;
+    }
+
     public boolean isHeader() {
         return header;
     }
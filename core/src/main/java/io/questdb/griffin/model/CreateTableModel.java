@@ -43,6 +43,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
     private ExpressionNode timestamp;
     private ExpressionNode partitionBy;
     private boolean ignoreIfExists = false;
+    private String matViewQuery;
+    private ExpressionNode matViewBaseTable;
+    private int matViewBaseTableLo;
+    private int matViewBaseTableHi;
+    private ExpressionNode matViewSampleBy;
 
     private CreateTableModel() {
     }
@@ -84,6 +89,9 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         columnNames.clear();
         columnNameIndexMap.clear();
         ignoreIfExists = false;
+        matViewQuery = null;
+        matViewBaseTable = null;
+        matViewSampleBy = null;
     }
 
     public CharSequenceObjHashMap<ColumnCastModel> getColumnCastModels() {
@@ -161,6 +169,26 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return CREATE_TABLE;
     }
 
+    public ExpressionNode getMatViewBaseTable() {
+        return matViewBaseTable;
+    }
+
+    public int getMatViewBaseTableHi() {
+        return matViewBaseTableHi;
+    }
+
+    public int getMatViewBaseTableLo() {
+        return matViewBaseTableLo;
+    }
+
+    public String getMatViewQuery() {
+        return matViewQuery;
+    }
+
+    public ExpressionNode getMatViewSampleBy() {
+        return matViewSampleBy;
+    }
+
     public ExpressionNode getName() {
         return name;
     }
@@ -189,6 +217,27 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return ignoreIfExists;
     }
 
+    public boolean isMatView() {
+        return matViewQuery != null;
+    }
+
+    /**
+     * Turns this model into materialized view definition.
+     *
+     * @param query       text of view query
+     * @param baseTable   name of the table view query selects from
+     * @param baseTableLo position of base table name in query text
+     * @param baseTableHi position of the first character after base table name in query text
+     * @param sampleBy    sampling interval of view query
+     */
+    public void setMatView(String query, ExpressionNode baseTable, int baseTableLo, int baseTableHi, ExpressionNode sampleBy) {
+        this.matViewQuery = query;
+        this.matViewBaseTable = baseTable;
+        this.matViewBaseTableLo = baseTableLo;
+        this.matViewBaseTableHi = baseTableHi;
+        this.matViewSampleBy = sampleBy;
+    }
+
     public void setIgnoreIfExists(boolean flag) {
         this.ignoreIfExists = flag;
     }
@@ -211,7 +260,7 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
 
     @Override
     public void toSink(CharSink sink) {
-        sink.put("create table ");
+        sink.put(isMatView() ? "create materialized view " : "create table ");
         sink.put(getName().token);
         if (getQueryModel() != null) {
             sink.put(" as (");
@@ -97,6 +97,7 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
     private ExpressionNode alias;
     private ExpressionNode timestamp;
     private ExpressionNode sampleBy;
+    private boolean sampleByAlignToCalendar;
     private JoinContext context;
     private ExpressionNode joinCriteria;
     private int joinType;
@@ -250,6 +251,7 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
     public void clearSampleBy() {
         sampleBy = null;
         sampleByFill.clear();
+        sampleByAlignToCalendar = false;
     }
 
     public void copyColumnsFrom(
@@ -517,6 +519,14 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
         return sampleByFill;
     }
 
+    public boolean isSampleByAlignToCalendar() {
+        return sampleByAlignToCalendar;
+    }
+
+    public void setSampleByAlignToCalendar(boolean sampleByAlignToCalendar) {
+        this.sampleByAlignToCalendar = sampleByAlignToCalendar;
+    }
+
     public int getSelectModelType() {
         return selectModelType;
     }
@@ -629,6 +639,7 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
         this.sampleBy = model.sampleBy;
         this.sampleByFill.clear();
         this.sampleByFill.addAll(model.sampleByFill);
+        this.sampleByAlignToCalendar = model.sampleByAlignToCalendar;
 
         // clear the source
         model.clearSampleBy();
@@ -907,6 +918,10 @@ public class QueryModel implements Mutable, ExecutionModel, AliasTranslator, Sin
                 }
                 sink.put(')');
             }
+
+            if (sampleByAlignToCalendar) {
+                sink.put(" align to calendar");
+            }
         }
 
         if (orderHash.size() > 0 && orderBy.size() > 0) {
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.CharSink;
+
+/**
+ * Monotonic counter for hot paths. Increments are spread over cache line padded
+ * stripes picked by thread id, so that writers on different threads rarely contend
+ * on the same line. Reading sums all stripes and is meant for scrapes only.
+ */
+public class Counter implements Scrapable {
+    // 8 longs per stripe keep adjacent stripes on separate cache lines
+    private static final int STRIPE_SHIFT = 3;
+    private static final int STRIPE_COUNT = 16;
+    private final CharSequence name;
+    private final CharSequence help;
+    private final long[] stripes = new long[STRIPE_COUNT << STRIPE_SHIFT];
+
+    Counter(CharSequence name, CharSequence help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public void add(long delta) {
+        final int stripe = (int) (Thread.currentThread().getId() & (STRIPE_COUNT - 1));
+        Unsafe.getUnsafe().getAndAddLong(
+                stripes,
+                Unsafe.LONG_OFFSET + ((long) (stripe << STRIPE_SHIFT) << Unsafe.LONG_SCALE),
+                delta
+        );
+    }
+
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            sum += Unsafe.arrayGetVolatile(stripes, i << STRIPE_SHIFT);
+        }
+        return sum;
+    }
+
+    public void inc() {
+        add(1);
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        PrometheusFormatUtils.appendHeader(sink, name, help, PrometheusFormatUtils.TYPE_COUNTER);
+        PrometheusFormatUtils.appendSample(sink, name, get());
+    }
+
+    void scrapeSample(CharSink sink, CharSequence labelName, CharSequence labelValue) {
+        sink.put(name).put('{');
+        PrometheusFormatUtils.appendLabel(sink, labelName, labelValue);
+        sink.put("} ").put(get()).put(PrometheusFormatUtils.LF);
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.CharSink;
+
+/**
+ * Family of counters that differ by the value of a single label, for example
+ * rows ingested per table. Child lookup is synchronized and allocates for a new
+ * label value, callers are expected to look the child up once and keep it.
+ */
+public class CounterWithLabel implements Scrapable {
+    private final CharSequence name;
+    private final CharSequence help;
+    private final CharSequence labelName;
+    private final CharSequenceObjHashMap<Counter> children = new CharSequenceObjHashMap<>();
+
+    CounterWithLabel(CharSequence name, CharSequence help, CharSequence labelName) {
+        this.name = name;
+        this.help = help;
+        this.labelName = labelName;
+    }
+
+    public synchronized Counter getChild(CharSequence labelValue) {
+        final int index = children.keyIndex(labelValue);
+        if (index < 0) {
+            return children.valueAt(index);
+        }
+        final Counter counter = new Counter(name, help);
+        children.putAt(index, Chars.toString(labelValue), counter);
+        return counter;
+    }
+
+    @Override
+    public synchronized void scrapeIntoPrometheus(CharSink sink) {
+        PrometheusFormatUtils.appendHeader(sink, name, help, PrometheusFormatUtils.TYPE_COUNTER);
+        final ObjList<CharSequence> labelValues = children.keys();
+        for (int i = 0, n = labelValues.size(); i < n; i++) {
+            final CharSequence labelValue = labelValues.getQuick(i);
+            children.get(labelValue).scrapeSample(sink, labelName, labelValue);
+        }
+    }
+}
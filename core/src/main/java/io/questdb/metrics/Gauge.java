@@ -0,0 +1,67 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.CharSink;
+
+public class Gauge implements Scrapable {
+    private static final long VALUE_OFFSET = Unsafe.getFieldOffset(Gauge.class, "value");
+    private final CharSequence name;
+    private final CharSequence help;
+    private volatile long value;
+
+    Gauge(CharSequence name, CharSequence help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public void add(long delta) {
+        Unsafe.getUnsafe().getAndAddLong(this, VALUE_OFFSET, delta);
+    }
+
+    public void dec() {
+        add(-1);
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void inc() {
+        add(1);
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        PrometheusFormatUtils.appendHeader(sink, name, help, PrometheusFormatUtils.TYPE_GAUGE);
+        PrometheusFormatUtils.appendSample(sink, name, value);
+    }
+}
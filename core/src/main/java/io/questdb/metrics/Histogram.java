@@ -0,0 +1,95 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.CharSink;
+
+/**
+ * Histogram with fixed, inclusive upper bucket bounds. Recording a value is a short
+ * linear scan over the bounds followed by two atomic adds, nothing is allocated.
+ */
+public class Histogram implements Scrapable {
+    private static final long SUM_OFFSET = Unsafe.getFieldOffset(Histogram.class, "sum");
+    private final CharSequence name;
+    private final CharSequence help;
+    private final CharSequence bucketName;
+    private final CharSequence sumName;
+    private final CharSequence countName;
+    private final long[] bounds;
+    // last bucket counts values above the highest bound
+    private final long[] counts;
+    private volatile long sum;
+
+    Histogram(CharSequence name, CharSequence help, long[] bounds) {
+        for (int i = 1, n = bounds.length; i < n; i++) {
+            assert bounds[i - 1] < bounds[i];
+        }
+        this.name = name;
+        this.help = help;
+        this.bucketName = name + "_bucket";
+        this.sumName = name + "_sum";
+        this.countName = name + "_count";
+        this.bounds = bounds;
+        this.counts = new long[bounds.length + 1];
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0, n = counts.length; i < n; i++) {
+            count += Unsafe.arrayGetVolatile(counts, i);
+        }
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public void record(long value) {
+        int bucket = 0;
+        final int n = bounds.length;
+        while (bucket < n && value > bounds[bucket]) {
+            bucket++;
+        }
+        Unsafe.getUnsafe().getAndAddLong(counts, Unsafe.LONG_OFFSET + ((long) bucket << Unsafe.LONG_SCALE), 1);
+        Unsafe.getUnsafe().getAndAddLong(this, SUM_OFFSET, value);
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        PrometheusFormatUtils.appendHeader(sink, name, help, PrometheusFormatUtils.TYPE_HISTOGRAM);
+        long cumulative = 0;
+        for (int i = 0, n = bounds.length; i < n; i++) {
+            cumulative += Unsafe.arrayGetVolatile(counts, i);
+            sink.put(bucketName).put("{le=\"").put(bounds[i]).put("\"} ").put(cumulative).put(PrometheusFormatUtils.LF);
+        }
+        cumulative += Unsafe.arrayGetVolatile(counts, bounds.length);
+        sink.put(bucketName).put("{le=\"+Inf\"} ").put(cumulative).put(PrometheusFormatUtils.LF);
+        PrometheusFormatUtils.appendSample(sink, sumName, sum);
+        PrometheusFormatUtils.appendSample(sink, countName, cumulative);
+    }
+}
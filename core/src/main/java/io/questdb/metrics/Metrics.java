@@ -0,0 +1,81 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.str.CharSink;
+
+/**
+ * Runtime metrics of a single server instance. Hot path metrics are created here and
+ * updated directly by the owning subsystems; values that subsystems already track, such as
+ * pool and connection counts, are registered as virtual metrics and only read on scrape.
+ */
+public class Metrics implements Scrapable {
+    private static final long[] O3_MERGE_DURATION_BOUNDS_MICROS = {100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final CounterWithLabel lineTcpRows = registry.newCounter(
+            "questdb_line_tcp_rows_total",
+            "Rows appended by the ILP TCP receiver",
+            "table"
+    );
+    private final Counter lineTcpRebalances = registry.newCounter(
+            "questdb_line_tcp_rebalances_total",
+            "Tables moved between ILP TCP writer threads"
+    );
+    private final Histogram o3MergeDuration = registry.newHistogram(
+            "questdb_o3_merge_duration_micros",
+            "Time to merge out-of-order rows on commit",
+            O3_MERGE_DURATION_BOUNDS_MICROS
+    );
+    private final Counter o3MergedRows = registry.newCounter(
+            "questdb_o3_merged_rows_total",
+            "Out-of-order rows merged on commit"
+    );
+
+    public CounterWithLabel getLineTcpRows() {
+        return lineTcpRows;
+    }
+
+    public Counter getLineTcpRebalances() {
+        return lineTcpRebalances;
+    }
+
+    public Histogram getO3MergeDuration() {
+        return o3MergeDuration;
+    }
+
+    public Counter getO3MergedRows() {
+        return o3MergedRows;
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        registry.scrapeIntoPrometheus(sink);
+    }
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.ObjList;
+import io.questdb.std.str.CharSink;
+
+/**
+ * Ordered collection of metrics rendered together. Registration is expected at
+ * component start-up and shutdown, it is synchronized with scrapes but never with
+ * metric updates.
+ */
+public class MetricsRegistry implements Scrapable {
+    private final ObjList<Scrapable> metrics = new ObjList<>();
+
+    public synchronized Scrapable add(Scrapable metric) {
+        metrics.add(metric);
+        return metric;
+    }
+
+    public Counter newCounter(CharSequence name, CharSequence help) {
+        return (Counter) add(new Counter(name, help));
+    }
+
+    public CounterWithLabel newCounter(CharSequence name, CharSequence help, CharSequence labelName) {
+        return (CounterWithLabel) add(new CounterWithLabel(name, help, labelName));
+    }
+
+    public Gauge newGauge(CharSequence name, CharSequence help) {
+        return (Gauge) add(new Gauge(name, help));
+    }
+
+    public Histogram newHistogram(CharSequence name, CharSequence help, long[] bounds) {
+        return (Histogram) add(new Histogram(name, help, bounds));
+    }
+
+    public VirtualMetric newVirtualCounter(CharSequence name, CharSequence help, VirtualMetric.ValueProvider provider) {
+        return (VirtualMetric) add(new VirtualMetric(name, help, PrometheusFormatUtils.TYPE_COUNTER, provider));
+    }
+
+    public VirtualMetric newVirtualGauge(CharSequence name, CharSequence help, VirtualMetric.ValueProvider provider) {
+        return (VirtualMetric) add(new VirtualMetric(name, help, PrometheusFormatUtils.TYPE_GAUGE, provider));
+    }
+
+    public synchronized void remove(Scrapable metric) {
+        metrics.remove(metric);
+    }
+
+    @Override
+    public synchronized void scrapeIntoPrometheus(CharSink sink) {
+        for (int i = 0, n = metrics.size(); i < n; i++) {
+            metrics.getQuick(i).scrapeIntoPrometheus(sink);
+        }
+    }
+}
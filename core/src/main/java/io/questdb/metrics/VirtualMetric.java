@@ -0,0 +1,57 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.str.CharSink;
+
+/**
+ * Metric whose value is owned by another component and is only read when scraped,
+ * e.g. pool sizes and connection counts that are already tracked elsewhere.
+ */
+public class VirtualMetric implements Scrapable {
+    private final CharSequence name;
+    private final CharSequence help;
+    private final CharSequence type;
+    private final ValueProvider provider;
+
+    VirtualMetric(CharSequence name, CharSequence help, CharSequence type, ValueProvider provider) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.provider = provider;
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        PrometheusFormatUtils.appendHeader(sink, name, help, type);
+        PrometheusFormatUtils.appendSample(sink, name, provider.getValue());
+    }
+
+    @FunctionalInterface
+    public interface ValueProvider {
+        long getValue();
+    }
+}
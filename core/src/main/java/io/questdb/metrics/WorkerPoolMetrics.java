@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.mp.WorkerJobStats;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.CharSequenceIntHashMap;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.CharSink;
+
+/**
+ * Per-job iteration counters and busy time of a worker pool. Jobs are labelled by class
+ * name and counters of the same job on different workers are added up. Values are collected
+ * from the workers when scraped, workers do not update any shared state.
+ */
+public class WorkerPoolMetrics implements Scrapable {
+    private static final CharSequence USEFUL_NAME = "questdb_worker_job_useful_iterations_total";
+    private static final CharSequence USEFUL_HELP = "Job runs that did useful work";
+    private static final CharSequence USELESS_NAME = "questdb_worker_job_useless_iterations_total";
+    private static final CharSequence USELESS_HELP = "Job runs that found no work";
+    private static final CharSequence BUSY_NAME = "questdb_worker_job_busy_micros_total";
+    private static final CharSequence BUSY_HELP = "Time workers spent running the job";
+    private final WorkerPool pool;
+    private final CharSequenceIntHashMap jobIndexes = new CharSequenceIntHashMap();
+    private final ObjList<CharSequence> jobNames = new ObjList<>();
+    private final LongList usefulCounts = new LongList();
+    private final LongList uselessCounts = new LongList();
+    private final LongList busyNanos = new LongList();
+
+    public WorkerPoolMetrics(WorkerPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        collect();
+        final int jobCount = jobNames.size();
+        PrometheusFormatUtils.appendHeader(sink, USEFUL_NAME, USEFUL_HELP, PrometheusFormatUtils.TYPE_COUNTER);
+        for (int i = 0; i < jobCount; i++) {
+            appendSample(sink, USEFUL_NAME, jobNames.getQuick(i), usefulCounts.getQuick(i));
+        }
+        PrometheusFormatUtils.appendHeader(sink, USELESS_NAME, USELESS_HELP, PrometheusFormatUtils.TYPE_COUNTER);
+        for (int i = 0; i < jobCount; i++) {
+            appendSample(sink, USELESS_NAME, jobNames.getQuick(i), uselessCounts.getQuick(i));
+        }
+        PrometheusFormatUtils.appendHeader(sink, BUSY_NAME, BUSY_HELP, PrometheusFormatUtils.TYPE_COUNTER);
+        for (int i = 0; i < jobCount; i++) {
+            appendSample(sink, BUSY_NAME, jobNames.getQuick(i), busyNanos.getQuick(i) / 1000);
+        }
+    }
+
+    private void appendSample(CharSink sink, CharSequence name, CharSequence jobName, long value) {
+        sink.put(name).put('{');
+        PrometheusFormatUtils.appendLabel(sink, "pool", pool.getPoolName());
+        sink.put(',');
+        PrometheusFormatUtils.appendLabel(sink, "job", jobName);
+        sink.put("} ").put(value).put(PrometheusFormatUtils.LF);
+    }
+
+    private void collect() {
+        usefulCounts.setAll(jobNames.size(), 0);
+        uselessCounts.setAll(jobNames.size(), 0);
+        busyNanos.setAll(jobNames.size(), 0);
+        for (int w = 0, n = pool.getWorkerCount(); w < n; w++) {
+            final WorkerJobStats stats = pool.getJobStats(w);
+            if (stats == null) {
+                return;
+            }
+            for (int j = 0, m = stats.getJobCount(); j < m; j++) {
+                final String jobName = stats.getJob(j).getClass().getName();
+                final int keyIndex = jobIndexes.keyIndex(jobName);
+                final int index;
+                if (keyIndex > -1) {
+                    index = jobNames.size();
+                    jobIndexes.putAt(keyIndex, jobName, index);
+                    jobNames.add(jobName);
+                    usefulCounts.add(0);
+                    uselessCounts.add(0);
+                    busyNanos.add(0);
+                } else {
+                    index = jobIndexes.valueAt(keyIndex);
+                }
+                usefulCounts.setQuick(index, usefulCounts.getQuick(index) + stats.getUsefulCount(j));
+                uselessCounts.setQuick(index, uselessCounts.getQuick(index) + stats.getUselessCount(j));
+                busyNanos.setQuick(index, busyNanos.getQuick(index) + stats.getBusyNanos(j));
+            }
+        }
+    }
+}
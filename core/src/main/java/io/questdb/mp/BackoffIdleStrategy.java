@@ -0,0 +1,72 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.mp;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins for the first few idle iterations, then yields and eventually parks the worker.
+ * Park time starts at the minimum and doubles with every further idle iteration until
+ * it reaches the maximum. Equal minimum and maximum give fixed park time.
+ */
+public class BackoffIdleStrategy implements WorkerIdleStrategy {
+    public static final BackoffIdleStrategy DEFAULT = new BackoffIdleStrategy(10, 10000, 1000000, 1000000);
+    protected final long yieldThreshold;
+    protected final long parkThreshold;
+    protected final long minParkNanos;
+    protected final long maxParkNanos;
+    private final long maxShift;
+
+    public BackoffIdleStrategy(long yieldThreshold, long parkThreshold, long minParkNanos, long maxParkNanos) {
+        assert yieldThreshold <= parkThreshold;
+        assert minParkNanos > 0 && minParkNanos <= maxParkNanos;
+        this.yieldThreshold = yieldThreshold;
+        this.parkThreshold = parkThreshold;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+        this.maxShift = 63 - Long.numberOfLeadingZeros(maxParkNanos / minParkNanos);
+    }
+
+    @Override
+    public void idle(int workerId, long idleCount) {
+        if (idleCount > parkThreshold) {
+            park(workerId, getParkNanos(idleCount));
+        } else if (idleCount > yieldThreshold) {
+            Thread.yield();
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+
+    protected long getParkNanos(long idleCount) {
+        final long shift = idleCount - parkThreshold - 1;
+        return shift <= maxShift ? minParkNanos << shift : maxParkNanos;
+    }
+
+    protected void park(int workerId, long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.mp;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Backoff strategy, which also wakes parked workers up when it is signalled. Pass the
+ * strategy as wait strategy of consumer sequences that pool workers poll, so that
+ * publishing to the queue unparks idle workers instead of waiting for park timeout.
+ * Parking still times out to let workers poll jobs that are not fed by sequences,
+ * such as network dispatchers, and to cover signals that arrive right before a worker
+ * parks.
+ */
+public class ParkingIdleStrategy extends BackoffIdleStrategy implements WaitStrategy {
+    private final AtomicReferenceArray<Thread> parked;
+
+    public ParkingIdleStrategy(int workerCount, long yieldThreshold, long parkThreshold, long minParkNanos, long maxParkNanos) {
+        super(yieldThreshold, parkThreshold, minParkNanos, maxParkNanos);
+        this.parked = new AtomicReferenceArray<>(workerCount);
+    }
+
+    @Override
+    public boolean acceptSignal() {
+        return true;
+    }
+
+    @Override
+    public void alert() {
+        signal();
+    }
+
+    @Override
+    public void await() {
+        LockSupport.parkNanos(minParkNanos);
+    }
+
+    @Override
+    public void signal() {
+        for (int i = 0, n = parked.length(); i < n; i++) {
+            final Thread thread = parked.get(i);
+            if (thread != null && parked.compareAndSet(i, thread, null)) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    @Override
+    protected void park(int workerId, long nanos) {
+        parked.set(workerId, Thread.currentThread());
+        LockSupport.parkNanos(nanos);
+        parked.lazySet(workerId, null);
+    }
+}
@@ -34,8 +34,6 @@ import java.util.concurrent.locks.LockSupport;
 
 public class Worker extends Thread {
     private final static long RUNNING_OFFSET = Unsafe.getFieldOffset(Worker.class, "running");
-    private static final long YIELD_THRESHOLD = 10L;
-    private static final long SLEEP_THRESHOLD = 10000L;
     private final static AtomicInteger COUNTER = new AtomicInteger();
     private final ObjHashSet<? extends Job> jobs;
     private final SOCountDownLatch haltLatch;
@@ -44,6 +42,8 @@ public class Worker extends Thread {
     private final WorkerCleaner cleaner;
     private final boolean haltOnError;
     private final int workerId;
+    private final WorkerIdleStrategy idleStrategy;
+    private final WorkerJobStats jobStats;
     private volatile int running = 0;
     private volatile int fence;
 
@@ -54,7 +54,8 @@ public class Worker extends Thread {
             final Log log,
             final WorkerCleaner cleaner,
             final boolean haltOnError,
-            final int workerId
+            final int workerId,
+            final WorkerIdleStrategy idleStrategy
     ) {
         this.log = log;
         this.jobs = jobs;
@@ -64,6 +65,12 @@ public class Worker extends Thread {
         this.cleaner = cleaner;
         this.haltOnError = haltOnError;
         this.workerId = workerId;
+        this.idleStrategy = idleStrategy;
+        this.jobStats = new WorkerJobStats(jobs);
+    }
+
+    public WorkerJobStats getJobStats() {
+        return jobStats;
     }
 
     public int getWorkerId() {
@@ -72,6 +79,8 @@ public class Worker extends Thread {
 
     public void halt() {
         running = 2;
+        // wake worker up if idle strategy parked it
+        LockSupport.unpark(this);
     }
 
     @Override
@@ -103,11 +112,15 @@ public class Worker extends Thread {
                     for (int i = 0; i < n; i++) {
                         loadFence();
                         try {
+                            final long start = System.nanoTime();
+                            boolean jobUseful = false;
                             try {
-                                useful |= jobs.get(i).run(workerId);
+                                jobUseful = jobs.get(i).run(workerId);
                             } catch (Throwable e) {
                                 onError(i, e);
                             }
+                            jobStats.update(i, jobUseful, System.nanoTime() - start);
+                            useful |= jobUseful;
                         } finally {
                             storeFence();
                         }
@@ -122,16 +135,10 @@ public class Worker extends Thread {
 
                     if (uselessCounter < 0) {
                         // deal with overflow
-                        uselessCounter = SLEEP_THRESHOLD + 1;
+                        uselessCounter = Long.MAX_VALUE;
                     }
 
-                    if (uselessCounter > YIELD_THRESHOLD) {
-                        Thread.yield();
-                    }
-
-                    if (uselessCounter > SLEEP_THRESHOLD) {
-                        LockSupport.parkNanos(1000000);
-                    }
+                    idleStrategy.idle(workerId, uselessCounter);
                 }
             }
         } catch (Throwable e) {
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.mp;
+
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.Unsafe;
+
+/**
+ * Iteration counters and time spent in each job of a single worker. Counters are
+ * written by the worker thread only and can be read by any thread for monitoring.
+ */
+public class WorkerJobStats {
+    private final ObjHashSet<? extends Job> jobs;
+    private final long[] usefulCounts;
+    private final long[] uselessCounts;
+    private final long[] busyNanos;
+
+    WorkerJobStats(ObjHashSet<? extends Job> jobs) {
+        this.jobs = jobs;
+        final int jobCount = jobs.size();
+        this.usefulCounts = new long[jobCount];
+        this.uselessCounts = new long[jobCount];
+        this.busyNanos = new long[jobCount];
+    }
+
+    public long getBusyNanos(int jobIndex) {
+        return Unsafe.arrayGetVolatile(busyNanos, jobIndex);
+    }
+
+    public Job getJob(int jobIndex) {
+        return jobs.get(jobIndex);
+    }
+
+    public int getJobCount() {
+        return usefulCounts.length;
+    }
+
+    public long getUsefulCount(int jobIndex) {
+        return Unsafe.arrayGetVolatile(usefulCounts, jobIndex);
+    }
+
+    public long getUselessCount(int jobIndex) {
+        return Unsafe.arrayGetVolatile(uselessCounts, jobIndex);
+    }
+
+    void update(int jobIndex, boolean useful, long nanos) {
+        if (useful) {
+            Unsafe.arrayPutOrdered(usefulCounts, jobIndex, usefulCounts[jobIndex] + 1);
+        } else {
+            Unsafe.arrayPutOrdered(uselessCounts, jobIndex, uselessCounts[jobIndex] + 1);
+        }
+        Unsafe.arrayPutOrdered(busyNanos, jobIndex, busyNanos[jobIndex] + nanos);
+    }
+}
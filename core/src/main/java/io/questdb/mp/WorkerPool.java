@@ -25,6 +25,8 @@
 package io.questdb.mp;
 
 import io.questdb.log.Log;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.WorkerPoolMetrics;
 import io.questdb.std.Misc;
 import io.questdb.std.ObjHashSet;
 import io.questdb.std.ObjList;
@@ -44,13 +46,31 @@ public class WorkerPool {
     private final ObjList<ObjList<Closeable>> cleaners;
     private final boolean haltOnError;
     private final boolean daemons;
+    private final String poolName;
+    private final WorkerIdleStrategy idleStrategy;
+    private final MetricsRegistry metricsRegistry;
+    private final WorkerPoolMetrics metrics;
+    // publishes workers list to threads that read job stats
+    private volatile boolean workersCreated = false;
 
     public WorkerPool(WorkerPoolConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * @param configuration   pool configuration
+     * @param metricsRegistry registry to publish per-job iteration counters to, the counters
+     *                        stay registered until the pool is halted
+     */
+    public WorkerPool(WorkerPoolConfiguration configuration, @Nullable MetricsRegistry metricsRegistry) {
         this.workerCount = configuration.getWorkerCount();
         this.workerAffinity = configuration.getWorkerAffinity();
         this.halted = new SOCountDownLatch(workerCount);
         this.haltOnError = configuration.haltOnError();
         this.daemons = configuration.isDaemonPool();
+        this.poolName = configuration.getPoolName();
+        this.idleStrategy = configuration.getIdleStrategy();
+        this.metricsRegistry = metricsRegistry;
 
         assert workerAffinity.length == workerCount;
 
@@ -60,6 +80,13 @@ public class WorkerPool {
             workerJobs.add(new ObjHashSet<>());
             cleaners.add(new ObjList<>());
         }
+
+        if (metricsRegistry != null) {
+            this.metrics = new WorkerPoolMetrics(this);
+            metricsRegistry.add(metrics);
+        } else {
+            this.metrics = null;
+        }
     }
 
     /**
@@ -87,6 +114,24 @@ public class WorkerPool {
         cleaners.getQuick(worker).add(cleaner);
     }
 
+    public WorkerIdleStrategy getIdleStrategy() {
+        return idleStrategy;
+    }
+
+    /**
+     * @param worker index of worker
+     * @return iteration counters of worker's jobs or null when pool is not started
+     */
+    @Nullable
+    public WorkerJobStats getJobStats(int worker) {
+        assert worker > -1 && worker < workerCount;
+        return workersCreated ? workers.getQuick(worker).getJobStats() : null;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
     public int getWorkerCount() {
         return workerCount;
     }
@@ -102,6 +147,10 @@ public class WorkerPool {
             for (int i = 0; i < workerCount; i++) {
                 Misc.free(workers.getQuick(i));
             }
+
+            if (metricsRegistry != null) {
+                metricsRegistry.remove(metrics);
+            }
         }
     }
 
@@ -124,12 +173,14 @@ public class WorkerPool {
                             }
                         },
                         haltOnError,
-                        i
+                        i,
+                        idleStrategy
                 );
                 worker.setDaemon(daemons);
                 workers.add(worker);
                 worker.start();
             }
+            workersCreated = true;
             if (log != null) {
                 log.info().$("started").$();
             }
@@ -31,6 +31,14 @@ public interface WorkerPoolConfiguration {
 
     boolean haltOnError();
 
+    default WorkerIdleStrategy getIdleStrategy() {
+        return BackoffIdleStrategy.DEFAULT;
+    }
+
+    default String getPoolName() {
+        return "worker";
+    }
+
     default boolean isDaemonPool() {
         return false;
     }
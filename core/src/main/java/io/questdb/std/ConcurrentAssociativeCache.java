@@ -0,0 +1,229 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.std;
+
+import java.io.Closeable;
+
+/**
+ * Thread-safe cache of pooled values that are owned exclusively by the thread
+ * that checked them out, such as compiled query factories. Keys are hashed onto
+ * a power of two number of stripes, each guarded by its own spin lock, so that
+ * threads working on different queries rarely contend.
+ * <p>
+ * Every stripe keeps up to "blocks" entries ordered from most to least recently
+ * pushed. Same key can occupy several entries, one per pooled value. {@link #poll(CharSequence)}
+ * checks value out, leaving key in place so that returning value via
+ * {@link #push(CharSequence, Closeable)} does not create another immutable key. When stripe
+ * is full the least recently pushed entry is evicted and its value is closed.
+ */
+public class ConcurrentAssociativeCache<V extends Closeable> implements Closeable, Mutable {
+    private static final long LOCK_OFFSET = Unsafe.getFieldOffset(Stripe.class, "lock");
+    private final Stripe<V>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings({"rawtypes", "unchecked"}) // generic array creation
+    public ConcurrentAssociativeCache(int blocks, int rows) {
+        final int stripeCount = Numbers.ceilPow2(Math.max(1, rows));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(Math.max(1, blocks));
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0, n = stripes.length; i < n; i++) {
+            final Stripe<V> stripe = stripes[i];
+            stripe.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    public long getHitCount() {
+        long count = 0;
+        for (int i = 0, n = stripes.length; i < n; i++) {
+            count += stripes[i].hitCount;
+        }
+        return count;
+    }
+
+    public long getMissCount() {
+        long count = 0;
+        for (int i = 0, n = stripes.length; i < n; i++) {
+            count += stripes[i].missCount;
+        }
+        return count;
+    }
+
+    /**
+     * Checks out value cached for the key. Returned value is removed from cache
+     * and must be either pushed back or closed by the caller.
+     *
+     * @param key cache key, typically SQL text
+     * @return cached value or null when there is none available
+     */
+    public V poll(CharSequence key) {
+        final Stripe<V> stripe = getStripe(key);
+        stripe.lock();
+        try {
+            final V value = stripe.poll(key);
+            if (value != null) {
+                stripe.hitCount++;
+            } else {
+                stripe.missCount++;
+            }
+            return value;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public void push(CharSequence key, V value) {
+        if (value != null) {
+            final Stripe<V> stripe = getStripe(key);
+            final V evicted;
+            stripe.lock();
+            try {
+                evicted = stripe.push(key, value);
+            } finally {
+                stripe.unlock();
+            }
+            Misc.free(evicted);
+        }
+    }
+
+    /**
+     * Closes all values cached for the key. Values currently checked out by other
+     * threads are not affected.
+     *
+     * @param key cache key, typically SQL text
+     */
+    public void remove(CharSequence key) {
+        final Stripe<V> stripe = getStripe(key);
+        while (true) {
+            final V value;
+            stripe.lock();
+            try {
+                value = stripe.poll(key);
+            } finally {
+                stripe.unlock();
+            }
+            if (value == null) {
+                break;
+            }
+            Misc.free(value);
+        }
+    }
+
+    private Stripe<V> getStripe(CharSequence key) {
+        return stripes[Hash.spread(Chars.hashCode(key)) & mask];
+    }
+
+    private static class Stripe<V extends Closeable> {
+        private final CharSequence[] keys;
+        private final V[] values;
+        private int size;
+        private long hitCount;
+        private long missCount;
+        @SuppressWarnings("unused")
+        private volatile int lock;
+
+        @SuppressWarnings("unchecked")
+        private Stripe(int capacity) {
+            this.keys = new CharSequence[capacity];
+            this.values = (V[]) new Closeable[capacity];
+        }
+
+        private void clear() {
+            for (int i = 0; i < size; i++) {
+                keys[i] = null;
+                values[i] = Misc.free(values[i]);
+            }
+            size = 0;
+        }
+
+        private void lock() {
+            while (!Unsafe.cas(this, LOCK_OFFSET, 0, 1)) {
+                // critical sections are short, spin
+            }
+        }
+
+        private V poll(CharSequence key) {
+            for (int i = 0; i < size; i++) {
+                final V value = values[i];
+                if (value != null && Chars.equals(keys[i], key)) {
+                    values[i] = null;
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        private V push(CharSequence key, V value) {
+            // prefer entry vacated by poll() to reuse its key
+            int index = -1;
+            for (int i = 0; i < size; i++) {
+                if (values[i] == null && Chars.equals(keys[i], key)) {
+                    index = i;
+                    break;
+                }
+            }
+
+            final CharSequence k;
+            V evicted = null;
+            if (index == -1) {
+                if (size == keys.length) {
+                    evicted = values[--size];
+                }
+                k = Chars.toString(key);
+                index = size++;
+            } else {
+                k = keys[index];
+            }
+
+            // move entry to the front
+            System.arraycopy(keys, 0, keys, 1, index);
+            System.arraycopy(values, 0, values, 1, index);
+            keys[0] = k;
+            values[0] = value;
+            return evicted;
+        }
+
+        private void unlock() {
+            lock = 0;
+        }
+    }
+}
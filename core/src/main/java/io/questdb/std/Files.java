@@ -28,6 +28,7 @@ import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicLong;
@@ -94,6 +95,21 @@ public final class Files {
 
     public native static long getStdOutFd();
 
+    /**
+     * Creates hard link to existing file. There is no native call for that, links are rare enough
+     * to go through java.nio.
+     *
+     * @return false when link could not be created, e.g. when files are on different file systems
+     */
+    public static boolean hardLink(LPSZ src, LPSZ hardLink) {
+        try {
+            java.nio.file.Files.createLink(new File(hardLink.toString()).toPath(), new File(src.toString()).toPath());
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
     public static boolean isDots(CharSequence name) {
         return Chars.equals(name, '.') || Chars.equals(name, "..");
     }
@@ -62,6 +62,8 @@ public interface FilesFacade {
 
     long getPageSize();
 
+    boolean hardLink(LPSZ src, LPSZ hardLink);
+
     boolean isRestrictedFileSystem();
 
     void iterateDir(LPSZ path, FindVisitor func);
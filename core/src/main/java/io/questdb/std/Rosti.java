@@ -29,6 +29,12 @@ import io.questdb.cairo.ColumnTypes;
 public final class Rosti {
 
     public static final int FAKE_ALLOC_SIZE = 1024;
+    private static final boolean KEYED_LONG_SUPPORTED;
+
+    static {
+        Os.init();
+        KEYED_LONG_SUPPORTED = probeKeyedLong();
+    }
 
     public static native long alloc(long pKeyTypes, int keyTypeCount, long capacity);
 
@@ -63,8 +69,24 @@ public final class Rosti {
 
     public static native void keyedHourDistinct(long pRosti, long pKeys, long count);
 
+    public static native void keyedLongDistinct(long pRosti, long pKeys, long count);
+
+    public static native void keyedMinuteDistinct(long pRosti, long pKeys, long count);
+
+    public static native void keyedDayDistinct(long pRosti, long pKeys, long count);
+
+    public static native void keyedIntPairDistinct(long pRosti, long pKeys, long count);
+
     public static native void keyedHourCount(long pRosti, long pKeys, long count, int valueOffset);
 
+    public static native void keyedLongCount(long pRosti, long pKeys, long count, int valueOffset);
+
+    public static native void keyedMinuteCount(long pRosti, long pKeys, long count, int valueOffset);
+
+    public static native void keyedDayCount(long pRosti, long pKeys, long count, int valueOffset);
+
+    public static native void keyedIntPairCount(long pRosti, long pKeys, long count, int valueOffset);
+
     public static native void keyedIntCount(long pRosti, long pKeys, long count, int valueOffset);
 
     public static native void keyedIntCountMerge(long pRostiA, long pRostiB, int valueOffset);
@@ -74,6 +96,14 @@ public final class Rosti {
 
     public static native void keyedHourSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDaySumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntSumDoubleMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntSumDoubleWrapUp(long pRosti, int valueOffset, double valueAtNull, long valueAtNullCount);
@@ -85,6 +115,14 @@ public final class Rosti {
 
     public static native void keyedHourKSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongKSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteKSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayKSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairKSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntKSumDoubleMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntKSumDoubleWrapUp(long pRosti, int valueOffset, double valueAtNull, long valueAtNullCount);
@@ -94,6 +132,14 @@ public final class Rosti {
 
     public static native void keyedHourNSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongNSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteNSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayNSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairNSumDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntNSumDoubleMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntNSumDoubleWrapUp(long pRosti, int valueOffset, double valueAtNull, long valueAtNullCount, double valueAtNullC);
@@ -103,6 +149,14 @@ public final class Rosti {
 
     public static native void keyedHourMinDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongMinDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteMinDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayMinDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairMinDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntMinDoubleMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntMinDoubleWrapUp(long pRosti, int valueOffset, double valueAtNull);
@@ -112,6 +166,14 @@ public final class Rosti {
 
     public static native void keyedHourMaxDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongMaxDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteMaxDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayMaxDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairMaxDouble(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntMaxDoubleMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntMaxDoubleWrapUp(long pRosti, int valueOffset, double valueAtNull);
@@ -121,6 +183,14 @@ public final class Rosti {
 
     public static native void keyedHourSumInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongSumInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteSumInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDaySumInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairSumInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntSumIntMerge(long pRostiA, long pRostiB, int valueOffset);
 
     // min int
@@ -128,6 +198,14 @@ public final class Rosti {
 
     public static native void keyedHourMinInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongMinInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteMinInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayMinInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairMinInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntMinIntMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntMinIntWrapUp(long pRosti, int valueOffset, int valueAtNull);
@@ -137,6 +215,14 @@ public final class Rosti {
 
     public static native void keyedHourMaxInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongMaxInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteMaxInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayMaxInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairMaxInt(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntMaxIntMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntMaxIntWrapUp(long pRosti, int valueOffset, int valueAtNull);
@@ -146,6 +232,14 @@ public final class Rosti {
 
     public static native void keyedHourSumLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongSumLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteSumLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDaySumLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairSumLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntSumLongMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntSumLongWrapUp(long pRosti, int valueOffset, long valueAtNull, long valueAtNullCount);
@@ -158,6 +252,14 @@ public final class Rosti {
 
     public static native void keyedHourMinLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongMinLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteMinLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayMinLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairMinLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntMinLongMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntMinLongWrapUp(long pRosti, int valueOffset, long valueAtNull);
@@ -167,6 +269,14 @@ public final class Rosti {
 
     public static native void keyedHourMaxLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
 
+    public static native void keyedLongMaxLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedMinuteMaxLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedDayMaxLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
+    public static native void keyedIntPairMaxLong(long pRosti, long pKeys, long pDouble, long count, int valueOffset);
+
     public static native void keyedIntMaxLongMerge(long pRostiA, long pRostiB, int valueOffset);
 
     public static native void keyedIntMaxLongWrapUp(long pRosti, int valueOffset, long valueAtNull);
@@ -215,6 +325,32 @@ public final class Rosti {
         }
     }
 
+    /**
+     * Native libraries built before LONG, INT pair, minute and day keys were introduced do not
+     * export keyedLong*, keyedIntPair*, keyedMinute* and keyedDay* functions. SQL code generator
+     * must not plan vectorised GROUP BY on such keys unless this method returns true.
+     *
+     * @return true when native library supports LONG based Rosti keys
+     */
+    public static boolean isKeyedLongSupported() {
+        return KEYED_LONG_SUPPORTED;
+    }
+
+    // all keyed functions are compiled from the same source file, which means library
+    // either exports all of them or none. Distinct functions do not touch memory when
+    // there are no keys to process, so they are safe to call with null pointers.
+    private static boolean probeKeyedLong() {
+        try {
+            keyedLongDistinct(0, 0, 0);
+            keyedIntPairDistinct(0, 0, 0);
+            keyedMinuteDistinct(0, 0, 0);
+            keyedDayDistinct(0, 0, 0);
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            return false;
+        }
+    }
+
     public static long getInitialValueSlot(long pRosti, int columnIndex) {
         return getInitialValuesSlot(pRosti) + Unsafe.getUnsafe().getInt(getValueOffsets(pRosti) + columnIndex * Integer.BYTES);
     }
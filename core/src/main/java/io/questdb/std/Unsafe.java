@@ -30,6 +30,7 @@ import java.lang.reflect.Field;
 import java.util.concurrent.atomic.AtomicLong;
 
 public final class Unsafe {
+    public static final long DOUBLE_OFFSET;
     public static final long INT_OFFSET;
     public static final long INT_SCALE;
     public static final long LONG_OFFSET;
@@ -45,6 +46,8 @@ public final class Unsafe {
             theUnsafe.setAccessible(true);
             UNSAFE = (sun.misc.Unsafe) theUnsafe.get(null);
 
+            DOUBLE_OFFSET = Unsafe.getUnsafe().arrayBaseOffset(double[].class);
+
             INT_OFFSET = Unsafe.getUnsafe().arrayBaseOffset(int[].class);
             INT_SCALE = msb(Unsafe.getUnsafe().arrayIndexScale(int[].class));
 
@@ -68,6 +68,10 @@ final public class Timestamps {
     public static final TimestampFloorMethod FLOOR_MM = Timestamps::floorMM;
     public static final TimestampAddMethod ADD_MM = Timestamps::addMonths;
     public static final TimestampAddMethod ADD_YYYY = Timestamps::addYear;
+    public static final TimestampFloorMethod FLOOR_HH = Timestamps::floorHH;
+    public static final TimestampAddMethod ADD_HH = Timestamps::addHours;
+    public static final TimestampFloorMethod FLOOR_WW = Timestamps::floorWW;
+    public static final TimestampAddMethod ADD_WW = Timestamps::addWeeks;
     private static final char BEFORE_ZERO = '0' - 1;
     private static final char AFTER_NINE = '9' + 1;
 
@@ -177,6 +181,10 @@ final public class Timestamps {
                 ;
     }
 
+    public static long ceilHH(long micros) {
+        return floorHH(micros) + HOUR_MICROS - 1;
+    }
+
     public static long ceilMM(long micros) {
         int y, m;
         boolean l;
@@ -190,6 +198,10 @@ final public class Timestamps {
                 ;
     }
 
+    public static long ceilWW(long micros) {
+        return floorWW(micros) + WEEK_MICROS - 1;
+    }
+
     public static long ceilYYYY(long micros) {
         int y;
         boolean l;
@@ -224,6 +236,13 @@ final public class Timestamps {
         return yearMicros(y = getYear(micros), l = isLeapYear(y)) + monthOfYearMicros(getMonthOfYear(micros, y, l), l);
     }
 
+    /**
+     * Floors timestamp to the start of the week, weeks start on Monday.
+     */
+    public static long floorWW(long micros) {
+        return floorDD(micros) - (getDayOfWeek(micros) - 1) * DAY_MICROS;
+    }
+
     public static long floorYYYY(long micros) {
         int y;
         return yearMicros(y = getYear(micros), isLeapYear(y));
@@ -80,6 +80,7 @@ open module io.questdb {
     exports io.questdb.std.ex;
     exports io.questdb.network;
     exports io.questdb.log;
+    exports io.questdb.metrics;
     exports io.questdb.mp;
     exports io.questdb.tasks;
 
@@ -120,6 +121,8 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.lt.LtTimestampStrFunctionFactory,
             io.questdb.griffin.engine.functions.lt.LtStrTimestampFunctionFactory,
             io.questdb.griffin.engine.functions.lt.LtTimestampFunctionFactory,
+            io.questdb.griffin.engine.functions.lt.LtSymStrFunctionFactory,
+            io.questdb.griffin.engine.functions.lt.LtStrSymFunctionFactory,
 
 //                   '+' operator
             io.questdb.griffin.engine.functions.math.AddByteFunctionFactory,
@@ -156,13 +159,16 @@ open module io.questdb {
 //                    # '~=',
             io.questdb.griffin.engine.functions.regex.MatchStrFunctionFactory,
             io.questdb.griffin.engine.functions.regex.MatchCharFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.MatchSymFunctionFactory,
 //                    #like
             io.questdb.griffin.engine.functions.regex.LikeCharFunctionFactory,
             io.questdb.griffin.engine.functions.regex.LikeStrFunctionFactory,
             io.questdb.griffin.engine.functions.regex.ILikeStrFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.LikeSymFunctionFactory,
 //                    # '!~',
             io.questdb.griffin.engine.functions.regex.NotMatchStrFunctionFactory,
             io.questdb.griffin.engine.functions.regex.NotMatchCharFunctionFactory,
+            io.questdb.griffin.engine.functions.regex.NotMatchSymFunctionFactory,
 //                    # 'to_char',
             io.questdb.griffin.engine.functions.date.ToStrDateFunctionFactory,
             io.questdb.griffin.engine.functions.date.ToStrTimestampFunctionFactory,
@@ -222,6 +228,7 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.date.IsLeapYearFunctionFactory,
             io.questdb.griffin.engine.functions.date.TimestampDiffFunctionFactory,
             io.questdb.griffin.engine.functions.date.TimestampAddFunctionFactory,
+            io.questdb.griffin.engine.functions.date.TimestampFloorFunctionFactory,
             io.questdb.griffin.engine.functions.date.ToDateFunctionFactory,
             io.questdb.griffin.engine.functions.date.ToPgDateFunctionFactory,
 //                  cast functions,
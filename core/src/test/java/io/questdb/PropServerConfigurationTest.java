@@ -35,6 +35,8 @@ import io.questdb.cutlass.line.LineProtoNanoTimestampAdapter;
 import io.questdb.cutlass.line.LineProtoSecondTimestampAdapter;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.BackoffIdleStrategy;
+import io.questdb.mp.ParkingIdleStrategy;
 import io.questdb.network.EpollFacadeImpl;
 import io.questdb.network.IOOperation;
 import io.questdb.network.NetworkFacadeImpl;
@@ -248,6 +250,7 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(1.9, configuration.getLineTcpReceiverConfiguration().getMaxLoadRatio(), 0.001);
         Assert.assertEquals(1000, configuration.getLineTcpReceiverConfiguration().getMaxUncommittedRows());
         Assert.assertEquals(250, configuration.getLineTcpReceiverConfiguration().getMaintenanceJobHysteresisInMs());
+        Assert.assertFalse(configuration.getLineTcpReceiverConfiguration().isShardedWriterQueue());
 
         Assert.assertTrue(configuration.getHttpServerConfiguration().getHttpContextConfiguration().getServerKeepAlive());
         Assert.assertEquals("HTTP/1.1 ", configuration.getHttpServerConfiguration().getHttpContextConfiguration().getHttpVersion());
@@ -319,6 +322,24 @@ public class PropServerConfigurationTest {
         }
     }
 
+    @Test
+    public void testIdleStrategy() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        PropServerConfiguration configuration = new PropServerConfiguration(configPath, properties, null, LOG, new BuildInformationHolder());
+        Assert.assertTrue(configuration.getWorkerPoolConfiguration().getIdleStrategy() instanceof BackoffIdleStrategy);
+        Assert.assertEquals("shared", configuration.getWorkerPoolConfiguration().getPoolName());
+
+        properties.setProperty("shared.worker.idle.strategy", "park");
+        properties.setProperty("line.tcp.worker.count", "2");
+        properties.setProperty("line.tcp.worker.idle.strategy", "park");
+        properties.setProperty("line.tcp.worker.sleep.min.micros", "10");
+        properties.setProperty("line.tcp.worker.sleep.max.micros", "10000");
+        configuration = new PropServerConfiguration(configPath, properties, null, LOG, new BuildInformationHolder());
+        Assert.assertTrue(configuration.getWorkerPoolConfiguration().getIdleStrategy() instanceof ParkingIdleStrategy);
+        Assert.assertTrue(configuration.getLineTcpReceiverConfiguration().getWorkerPoolConfiguration().getIdleStrategy() instanceof ParkingIdleStrategy);
+        Assert.assertEquals("line_tcp", configuration.getLineTcpReceiverConfiguration().getWorkerPoolConfiguration().getPoolName());
+    }
+
     @Test(expected = ServerConfigurationException.class)
     public void testInvalidBindToAddress() throws ServerConfigurationException, JsonException {
         Properties properties = new Properties();
@@ -354,6 +375,21 @@ public class PropServerConfigurationTest {
         new PropServerConfiguration(configPath, properties, null, LOG, new BuildInformationHolder());
     }
 
+    @Test(expected = ServerConfigurationException.class)
+    public void testInvalidIdleStrategy() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        properties.setProperty("shared.worker.idle.strategy", "spin");
+        new PropServerConfiguration("root", properties, null, LOG, new BuildInformationHolder());
+    }
+
+    @Test(expected = ServerConfigurationException.class)
+    public void testInvalidIdleStrategySleepRange() throws ServerConfigurationException, JsonException {
+        Properties properties = new Properties();
+        properties.setProperty("line.tcp.worker.sleep.min.micros", "100");
+        properties.setProperty("line.tcp.worker.sleep.max.micros", "10");
+        new PropServerConfiguration("root", properties, null, LOG, new BuildInformationHolder());
+    }
+
     @Test(expected = ServerConfigurationException.class)
     public void testInvalidInt() throws ServerConfigurationException, JsonException {
         Properties properties = new Properties();
@@ -560,6 +596,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(1.5, configuration.getLineTcpReceiverConfiguration().getMaxLoadRatio(), 0.001);
             Assert.assertEquals(100000, configuration.getLineTcpReceiverConfiguration().getMaxUncommittedRows());
             Assert.assertEquals(1000, configuration.getLineTcpReceiverConfiguration().getMaintenanceJobHysteresisInMs());
+            Assert.assertTrue(configuration.getLineTcpReceiverConfiguration().isShardedWriterQueue());
 
             Assert.assertTrue(configuration.getCairoConfiguration().getTelemetryConfiguration().getEnabled());
             Assert.assertEquals(512, configuration.getCairoConfiguration().getTelemetryConfiguration().getQueueCapacity());
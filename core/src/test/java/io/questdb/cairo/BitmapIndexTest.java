@@ -44,11 +44,15 @@ public class BitmapIndexTest extends AbstractCairoTest {
     private int plen;
 
     public static void create(CairoConfiguration configuration, Path path, CharSequence name, int valueBlockCapacity) {
+        create(configuration, path, name, valueBlockCapacity, false);
+    }
+
+    public static void create(CairoConfiguration configuration, Path path, CharSequence name, int valueBlockCapacity, boolean packed) {
         int plen = path.length();
         try {
             FilesFacade ff = configuration.getFilesFacade();
             try (AppendMemory mem = new AppendMemory(ff, BitmapIndexUtils.keyFileName(path, name), ff.getPageSize())) {
-                BitmapIndexWriter.initKeyMemory(mem, Numbers.ceilPow2(valueBlockCapacity));
+                BitmapIndexWriter.initKeyMemory(mem, Numbers.ceilPow2(valueBlockCapacity), packed);
             }
             ff.touch(BitmapIndexUtils.valueFileName(path.trimTo(plen), name));
         } finally {
@@ -344,22 +348,32 @@ public class BitmapIndexTest extends AbstractCairoTest {
 
     @Test
     public void testConcurrentWriterAndBackwardReadBreadth() throws Exception {
-        testConcurrentBackwardRW(10000000, 1024);
+        testConcurrentBackwardRW(10000000, 1024, false);
+    }
+
+    @Test
+    public void testConcurrentWriterAndBackwardReadBreadthPacked() throws Exception {
+        testConcurrentBackwardRW(10000000, 1024, true);
     }
 
     @Test
     public void testConcurrentWriterAndBackwardReadHeight() throws Exception {
-        testConcurrentBackwardRW(1000000, 100000);
+        testConcurrentBackwardRW(1000000, 100000, false);
     }
 
     @Test
     public void testConcurrentWriterAndForwardReadBreadth() throws Exception {
-        testConcurrentForwardRW(10000000, 1024);
+        testConcurrentForwardRW(10000000, 1024, false);
+    }
+
+    @Test
+    public void testConcurrentWriterAndForwardReadBreadthPacked() throws Exception {
+        testConcurrentForwardRW(10000000, 1024, true);
     }
 
     @Test
     public void testConcurrentWriterAndForwardReadHeight() throws Exception {
-        testConcurrentForwardRW(1000000, 100000);
+        testConcurrentForwardRW(1000000, 100000, false);
     }
 
     @Test
@@ -553,178 +567,128 @@ public class BitmapIndexTest extends AbstractCairoTest {
 
     @Test
     public void testLimitBackwardCursor() throws Exception {
-        TestUtils.assertMemoryLeak(() -> {
-            create(configuration, path.trimTo(plen), "x", 128);
-
-            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
-                for (int i = 0; i < 265; i++) {
-                    if (i % 3 == 0) {
-                        continue;
-                    }
-                    writer.add(0, i);
-                    writer.add(0, i);
-                    writer.add(0, i);
-                }
-            }
+        testLimitBackwardCursor(false);
+    }
 
-            LongList tmp = new LongList();
-            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
-                assertBackwardCursorLimit(reader, 260L, tmp);
-                assertBackwardCursorLimit(reader, 16L, tmp);
-                assertBackwardCursorLimit(reader, 9L, tmp);
-                Assert.assertFalse(reader.getCursor(true, 0, -1L, -1L).hasNext());
-            }
-        });
+    @Test
+    public void testLimitBackwardCursorPacked() throws Exception {
+        testLimitBackwardCursor(true);
     }
 
     @Test
     public void testLimitForwardCursor() throws Exception {
+        testLimitForwardCursor(false);
+    }
+
+    @Test
+    public void testLimitForwardCursorPacked() throws Exception {
+        testLimitForwardCursor(true);
+    }
+
+    @Test
+    public void testPackedAdd() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
-            create(configuration, path.trimTo(plen), "x", 128);
+            LongList list = new LongList();
+            create(configuration, path.trimTo(plen), "x", 4, true);
+            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path, "x")) {
+                Assert.assertTrue(writer.isPacked());
+                writer.add(0, 1000);
+                writer.add(64, 10);
+                writer.add(256, 1234);
+                writer.add(64, 91);
+                writer.add(64, 92);
+                writer.add(64, 93);
+                writer.add(64, 987);
+                writer.add(256, 5567);
+                writer.add(64, 1000);
+                writer.add(64, 1001);
+                writer.add(64, 1002);
+                writer.add(64, 1003);
+                writer.add(64, 5000);
 
-            int N = 265;
-            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
-                for (int i = 0; i < N; i++) {
-                    if (i % 3 == 0) {
-                        continue;
-                    }
-                    writer.add(0, i);
-                    writer.add(0, i);
-                    writer.add(0, i);
-                }
+                assertThat("[5567,1234]", writer.getCursor(256), list);
+                assertThat("[5000,1003,1002,1001,1000,987,93,92,91,10]", writer.getCursor(64), list);
+                assertThat("[1000]", writer.getCursor(0), list);
+                assertThat("[]", writer.getCursor(1000), list);
+            }
+
+            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                assertThat("[5567,1234]", reader.getCursor(true, 256, 0, Long.MAX_VALUE), list);
+                assertThat("[5000,1003,1002,1001,1000,987,93,92,91,10]", reader.getCursor(true, 64, 0, Long.MAX_VALUE), list);
+                assertThat("[1001,1000,987,93,92]", reader.getCursor(true, 64, 92, 1001), list);
+                assertThat("[987,93,92,91]", reader.getCursor(true, 64, 11, 999), list);
+                assertThat("[]", reader.getCursor(true, 64, 0, 9), list);
+                assertThat("[1000]", reader.getCursor(true, 0, 0, Long.MAX_VALUE), list);
             }
 
-            LongList tmp = new LongList();
             try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0)) {
-                assertForwardCursorLimit(reader, 260, N, tmp, 9);
-                assertForwardCursorLimit(reader, 260, N - 2, tmp, 6);
-                assertForwardCursorLimit(reader, 16, N, tmp, 498);
-                assertForwardCursorLimit(reader, 9, N, tmp, 510);
-                Assert.assertFalse(reader.getCursor(true, 0, 266, Long.MAX_VALUE).hasNext());
-                Assert.assertFalse(reader.getCursor(true, 0, Long.MAX_VALUE, Long.MAX_VALUE).hasNext());
+                assertThat("[1234,5567]", reader.getCursor(true, 256, 0, Long.MAX_VALUE), list);
+                assertThat("[10,91,92,93,987,1000,1001,1002,1003,5000]", reader.getCursor(true, 64, 0, Long.MAX_VALUE), list);
+                assertThat("[92,93,987,1000,1001]", reader.getCursor(true, 64, 92, 1001), list);
+                assertThat("[1003,5000]", reader.getCursor(true, 64, 1003, Long.MAX_VALUE), list);
+                assertThat("[]", reader.getCursor(true, 64, 5001, Long.MAX_VALUE), list);
+                assertThat("[1000]", reader.getCursor(true, 0, 0, Long.MAX_VALUE), list);
             }
         });
     }
 
     @Test
-    public void testSimpleRollback() throws Exception {
+    public void testPackedIndexIsSmaller() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
-            Rnd modelRnd = new Rnd();
-            final int maxKeys = 1024;
             final int N = 1000000;
-            final int CUTOFF = 60000;
-
-            // this is an assertion in case somebody change the test
-            //noinspection ConstantConditions
-            assert CUTOFF < N;
-
-            IntList keys = new IntList();
-            IntObjHashMap<LongList> lists = new IntObjHashMap<>();
-
-            // populate model for both reader and writer
-            for (int i = 0; i < N; i++) {
-                int key = modelRnd.nextPositiveInt() % maxKeys;
-                LongList list = lists.get(key);
-                if (list == null) {
-                    lists.put(key, list = new LongList());
-                    keys.add(key);
-                }
-
-                if (i > CUTOFF) {
-                    continue;
-                }
-
-                list.add(i);
-            }
+            final int maxKeys = 4;
+            final LongList plain = new LongList();
+            final LongList packed = new LongList();
 
+            // low cardinality key, such as exchange or side of trade
+            create(configuration, path.trimTo(plen), "x", 256, false);
+            create(configuration, path.trimTo(plen), "y", 256, true);
             Rnd rnd = new Rnd();
-            create(configuration, path.trimTo(plen), "x", 1024);
-            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
+            try (
+                    BitmapIndexWriter writerX = new BitmapIndexWriter(configuration, path.trimTo(plen), "x");
+                    BitmapIndexWriter writerY = new BitmapIndexWriter(configuration, path.trimTo(plen), "y")
+            ) {
                 for (int i = 0; i < N; i++) {
-                    writer.add(rnd.nextPositiveInt() % maxKeys, i);
-                }
-                writer.rollbackValues(CUTOFF);
-            }
-
-            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
-                for (int i = 0, n = keys.size(); i < n; i++) {
-                    int key = keys.getQuick(i);
-                    // do not limit reader, we have to read everything index has
-                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
-                    LongList list = lists.get(key);
-
-                    int v = list.size();
-                    while (cursor.hasNext()) {
-                        Assert.assertEquals(list.getQuick(--v), cursor.next());
-                    }
-                    Assert.assertEquals(0, v);
-                }
-            }
-
-            try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0)) {
-                for (int i = 0, n = keys.size(); i < n; i++) {
-                    int key = keys.getQuick(i);
-                    // do not limit reader, we have to read everything index has
-                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
-                    LongList list = lists.get(key);
-
-                    int v = 0;
-                    while (cursor.hasNext()) {
-                        Assert.assertEquals(list.getQuick(v++), cursor.next());
-                    }
-                    Assert.assertEquals(list.size(), v);
+                    final int key = rnd.nextPositiveInt() % maxKeys;
+                    writerX.add(key, i);
+                    writerY.add(key, i);
                 }
             }
 
-            // add more data to model
-            for (int i = 0; i < N; i++) {
-                int key = modelRnd.nextPositiveInt() % maxKeys;
-                LongList list = lists.get(key);
-                if (list == null) {
-                    lists.put(key, list = new LongList());
-                    keys.add(key);
+            try (
+                    BitmapIndexFwdReader readerX = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0);
+                    BitmapIndexFwdReader readerY = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "y", 0)
+            ) {
+                for (int key = 0; key < maxKeys; key++) {
+                    assertThat(readerX.getCursor(true, key, 0, Long.MAX_VALUE), plain, readerY.getCursor(true, key, 0, Long.MAX_VALUE), packed);
+                    assertThat(readerX.getCursor(true, key, 250000, 750000), plain, readerY.getCursor(true, key, 250000, 750000), packed);
                 }
-                list.add(i + N);
             }
 
-            // add more date to index
-            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
-                for (int i = 0; i < N; i++) {
-                    writer.add(rnd.nextPositiveInt() % maxKeys, i + N);
+            try (
+                    BitmapIndexBwdReader readerX = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0);
+                    BitmapIndexBwdReader readerY = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "y", 0)
+            ) {
+                for (int key = 0; key < maxKeys; key++) {
+                    assertThat(readerX.getCursor(true, key, 0, Long.MAX_VALUE), plain, readerY.getCursor(true, key, 0, Long.MAX_VALUE), packed);
+                    assertThat(readerX.getCursor(true, key, 250000, 750000), plain, readerY.getCursor(true, key, 250000, 750000), packed);
                 }
             }
 
-            // assert against model again
-            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
-                for (int i = 0, n = keys.size(); i < n; i++) {
-                    int key = keys.getQuick(i);
-                    // do not limit reader, we have to read everything index has
-                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
-                    LongList list = lists.get(key);
-
-                    int v = list.size();
-                    while (cursor.hasNext()) {
-                        Assert.assertEquals(list.getQuick(--v), cursor.next());
-                    }
-                    Assert.assertEquals(0, v);
-                }
-            }
+            final long plainSize = readValueMemSize("x");
+            final long packedSize = readValueMemSize("y");
+            Assert.assertTrue("plain: " + plainSize + ", packed: " + packedSize, packedSize * 4 < plainSize);
+        });
+    }
 
-            try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0)) {
-                for (int i = 0, n = keys.size(); i < n; i++) {
-                    int key = keys.getQuick(i);
-                    // do not limit reader, we have to read everything index has
-                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
-                    LongList list = lists.get(key);
+    @Test
+    public void testSimpleRollback() throws Exception {
+        testSimpleRollback(false);
+    }
 
-                    int v = 0;
-                    while (cursor.hasNext()) {
-                        Assert.assertEquals(list.getQuick(v++), cursor.next());
-                    }
-                    Assert.assertEquals(list.size(), v);
-                }
-            }
-        });
+    @Test
+    public void testSimpleRollbackPacked() throws Exception {
+        testSimpleRollback(true);
     }
 
     @Test
@@ -900,6 +864,20 @@ public class BitmapIndexTest extends AbstractCairoTest {
         Assert.assertEquals(expected, temp.toString());
     }
 
+    private void assertThat(RowCursor expectedCursor, LongList expected, RowCursor actualCursor, LongList actual) {
+        expected.clear();
+        while (expectedCursor.hasNext()) {
+            expected.add(expectedCursor.next());
+        }
+
+        actual.clear();
+        while (actualCursor.hasNext()) {
+            actual.add(actualCursor.next());
+        }
+        Assert.assertTrue(expected.size() > 0);
+        Assert.assertEquals(expected, actual);
+    }
+
     private void assertWriterConstructorFail(CharSequence contains) {
         try {
             new BitmapIndexWriter(configuration, path.trimTo(plen), "x");
@@ -915,6 +893,15 @@ public class BitmapIndexTest extends AbstractCairoTest {
         }
     }
 
+    private long readValueMemSize(CharSequence name) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        try (ReadOnlyMemory mem = new ReadOnlyMemory(ff, BitmapIndexUtils.keyFileName(path.trimTo(plen), name), ff.getPageSize(), BitmapIndexUtils.KEY_FILE_RESERVED)) {
+            return mem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_VALUE_MEM_SIZE);
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
     private void setupIndexHeader() {
         try (AppendMemory mem = openKey()) {
             mem.putByte(BitmapIndexUtils.SIGNATURE);
@@ -927,7 +914,7 @@ public class BitmapIndexTest extends AbstractCairoTest {
         }
     }
 
-    private void testConcurrentBackwardRW(int N, int maxKeys) throws Exception {
+    private void testConcurrentBackwardRW(int N, int maxKeys, boolean packed) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
             Rnd rnd = new Rnd();
 
@@ -952,7 +939,7 @@ public class BitmapIndexTest extends AbstractCairoTest {
             AtomicInteger errors = new AtomicInteger();
 
             // create empty index
-            create(configuration, path.trimTo(plen), "x", 1024);
+            create(configuration, path.trimTo(plen), "x", 1024, packed);
 
             new Thread(() -> {
                 try {
@@ -1038,7 +1025,7 @@ public class BitmapIndexTest extends AbstractCairoTest {
         });
     }
 
-    private void testConcurrentForwardRW(int N, int maxKeys) throws Exception {
+    private void testConcurrentForwardRW(int N, int maxKeys, boolean packed) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
             Rnd rnd = new Rnd();
 
@@ -1063,7 +1050,7 @@ public class BitmapIndexTest extends AbstractCairoTest {
             AtomicInteger errors = new AtomicInteger();
 
             // create empty index
-            create(configuration, path.trimTo(plen), "x", 1024);
+            create(configuration, path.trimTo(plen), "x", 1024, packed);
 
             new Thread(() -> {
                 try {
@@ -1149,4 +1136,177 @@ public class BitmapIndexTest extends AbstractCairoTest {
         });
     }
 
-}
\ No newline at end of file
+    private void testLimitBackwardCursor(boolean packed) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            create(configuration, path.trimTo(plen), "x", 128, packed);
+
+            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
+                for (int i = 0; i < 265; i++) {
+                    if (i % 3 == 0) {
+                        continue;
+                    }
+                    writer.add(0, i);
+                    writer.add(0, i);
+                    writer.add(0, i);
+                }
+            }
+
+            LongList tmp = new LongList();
+            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                assertBackwardCursorLimit(reader, 260L, tmp);
+                assertBackwardCursorLimit(reader, 16L, tmp);
+                assertBackwardCursorLimit(reader, 9L, tmp);
+                Assert.assertFalse(reader.getCursor(true, 0, -1L, -1L).hasNext());
+            }
+        });
+    }
+
+    private void testLimitForwardCursor(boolean packed) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            create(configuration, path.trimTo(plen), "x", 128, packed);
+
+            int N = 265;
+            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
+                for (int i = 0; i < N; i++) {
+                    if (i % 3 == 0) {
+                        continue;
+                    }
+                    writer.add(0, i);
+                    writer.add(0, i);
+                    writer.add(0, i);
+                }
+            }
+
+            LongList tmp = new LongList();
+            try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                assertForwardCursorLimit(reader, 260, N, tmp, 9);
+                assertForwardCursorLimit(reader, 260, N - 2, tmp, 6);
+                assertForwardCursorLimit(reader, 16, N, tmp, 498);
+                assertForwardCursorLimit(reader, 9, N, tmp, 510);
+                Assert.assertFalse(reader.getCursor(true, 0, 266, Long.MAX_VALUE).hasNext());
+                Assert.assertFalse(reader.getCursor(true, 0, Long.MAX_VALUE, Long.MAX_VALUE).hasNext());
+            }
+        });
+    }
+
+    private void testSimpleRollback(boolean packed) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            Rnd modelRnd = new Rnd();
+            final int maxKeys = 1024;
+            final int N = 1000000;
+            final int CUTOFF = 60000;
+
+            // this is an assertion in case somebody change the test
+            //noinspection ConstantConditions
+            assert CUTOFF < N;
+
+            IntList keys = new IntList();
+            IntObjHashMap<LongList> lists = new IntObjHashMap<>();
+
+            // populate model for both reader and writer
+            for (int i = 0; i < N; i++) {
+                int key = modelRnd.nextPositiveInt() % maxKeys;
+                LongList list = lists.get(key);
+                if (list == null) {
+                    lists.put(key, list = new LongList());
+                    keys.add(key);
+                }
+
+                if (i > CUTOFF) {
+                    continue;
+                }
+
+                list.add(i);
+            }
+
+            Rnd rnd = new Rnd();
+            // packed index needs smaller blocks for rollback to reach into packed values
+            create(configuration, path.trimTo(plen), "x", packed ? 16 : 1024, packed);
+            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
+                for (int i = 0; i < N; i++) {
+                    writer.add(rnd.nextPositiveInt() % maxKeys, i);
+                }
+                writer.rollbackValues(CUTOFF);
+            }
+
+            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                for (int i = 0, n = keys.size(); i < n; i++) {
+                    int key = keys.getQuick(i);
+                    // do not limit reader, we have to read everything index has
+                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
+                    LongList list = lists.get(key);
+
+                    int v = list.size();
+                    while (cursor.hasNext()) {
+                        Assert.assertEquals(list.getQuick(--v), cursor.next());
+                    }
+                    Assert.assertEquals(0, v);
+                }
+            }
+
+            try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                for (int i = 0, n = keys.size(); i < n; i++) {
+                    int key = keys.getQuick(i);
+                    // do not limit reader, we have to read everything index has
+                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
+                    LongList list = lists.get(key);
+
+                    int v = 0;
+                    while (cursor.hasNext()) {
+                        Assert.assertEquals(list.getQuick(v++), cursor.next());
+                    }
+                    Assert.assertEquals(list.size(), v);
+                }
+            }
+
+            // add more data to model
+            for (int i = 0; i < N; i++) {
+                int key = modelRnd.nextPositiveInt() % maxKeys;
+                LongList list = lists.get(key);
+                if (list == null) {
+                    lists.put(key, list = new LongList());
+                    keys.add(key);
+                }
+                list.add(i + N);
+            }
+
+            // add more date to index
+            try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path.trimTo(plen), "x")) {
+                for (int i = 0; i < N; i++) {
+                    writer.add(rnd.nextPositiveInt() % maxKeys, i + N);
+                }
+            }
+
+            // assert against model again
+            try (BitmapIndexBwdReader reader = new BitmapIndexBwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                for (int i = 0, n = keys.size(); i < n; i++) {
+                    int key = keys.getQuick(i);
+                    // do not limit reader, we have to read everything index has
+                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
+                    LongList list = lists.get(key);
+
+                    int v = list.size();
+                    while (cursor.hasNext()) {
+                        Assert.assertEquals(list.getQuick(--v), cursor.next());
+                    }
+                    Assert.assertEquals(0, v);
+                }
+            }
+
+            try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, path.trimTo(plen), "x", 0)) {
+                for (int i = 0, n = keys.size(); i < n; i++) {
+                    int key = keys.getQuick(i);
+                    // do not limit reader, we have to read everything index has
+                    RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
+                    LongList list = lists.get(key);
+
+                    int v = 0;
+                    while (cursor.hasNext()) {
+                        Assert.assertEquals(list.getQuick(v++), cursor.next());
+                    }
+                    Assert.assertEquals(list.size(), v);
+                }
+            }
+        });
+    }
+}
@@ -334,6 +334,74 @@ public class CairoMemoryTest {
         Assert.assertEquals(openFileCount, ff.getOpenFileCount());
     }
 
+    @Test
+    public void testReadOnlyMemoryVarcharAcrossPages() throws Exception {
+        long used = Unsafe.getMemUsed();
+        final Rnd rnd = new Rnd();
+        final int n = 2000;
+        final String[] values = new String[n];
+        final long[] offsets = new long[n];
+        final StringBuilder b = new StringBuilder();
+        try (Path path = new Path().of(temp.newFile().getAbsolutePath()).$()) {
+            try (AppendMemory mem = new AppendMemory(FF, path, FF.getPageSize())) {
+                for (int i = 0; i < n; i++) {
+                    if (i % 17 == 0) {
+                        values[i] = null;
+                    } else {
+                        // mix of ascii, two, three and four byte sequences, some longer than a page
+                        b.setLength(0);
+                        final int len = i % 101 == 0 ? 3000 : rnd.nextPositiveInt() % 40;
+                        final boolean ascii = rnd.nextBoolean();
+                        for (int k = 0; k < len; k++) {
+                            if (ascii) {
+                                b.append((char) ('a' + rnd.nextPositiveInt() % 26));
+                            } else {
+                                switch (rnd.nextPositiveInt() % 4) {
+                                    case 0:
+                                        b.append((char) ('a' + rnd.nextPositiveInt() % 26));
+                                        break;
+                                    case 1:
+                                        b.append((char) (0x400 + rnd.nextPositiveInt() % 100));
+                                        break;
+                                    case 2:
+                                        b.append((char) (0x4e00 + rnd.nextPositiveInt() % 1000));
+                                        break;
+                                    default:
+                                        b.appendCodePoint(0x1f600 + rnd.nextPositiveInt() % 50);
+                                        break;
+                                }
+                            }
+                        }
+                        values[i] = b.toString();
+                    }
+                    offsets[i] = mem.putVarchar(values[i]);
+                }
+                final long size = mem.getAppendOffset();
+
+                try (ReadOnlyMemory ro = new ReadOnlyMemory(FF, path, FF.getPageSize(), size)) {
+                    for (int i = 0; i < n; i++) {
+                        final CharSequence value = ro.getVarchar(offsets[i]);
+                        final CharSequence value2 = ro.getVarchar2(offsets[i > 0 ? i - 1 : 0]);
+                        if (values[i] == null) {
+                            Assert.assertNull(value);
+                            Assert.assertEquals(TableUtils.NULL_LEN, ro.getVarcharLen(offsets[i]));
+                        } else {
+                            TestUtils.assertEquals(values[i], value);
+                            Assert.assertEquals(values[i].length(), ro.getVarcharLen(offsets[i]));
+                        }
+                        // value read earlier is not affected by reading the next one
+                        if (values[i > 0 ? i - 1 : 0] == null) {
+                            Assert.assertNull(value2);
+                        } else {
+                            TestUtils.assertEquals(values[i > 0 ? i - 1 : 0], value2);
+                        }
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(used, Unsafe.getMemUsed());
+    }
+
     @Test
     public void testReadOnlyMemoryJump() {
         try (ReadOnlyMemory mem = new ReadOnlyMemory()) {
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.std.Numbers;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnMappingCacheTest extends AbstractCairoTest {
+    private static final CairoConfiguration smallPageConfiguration = new DefaultCairoConfiguration(root) {
+        @Override
+        public long getAppendPageSize() {
+            return getFilesFacade().getPageSize();
+        }
+    };
+
+    @Before
+    public void setUpInstance() {
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.NONE)
+                .col("i", ColumnType.INT)
+                .col("s", ColumnType.STRING)) {
+            CairoTestUtils.create(model);
+        }
+    }
+
+    @Test
+    public void testDroppedColumnIsNotShared() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final ColumnMappingCache cache = new ColumnMappingCache(configuration.getFilesFacade());
+            try (TableWriter writer = new TableWriter(configuration, "x")) {
+                appendRows(writer, 0, 100);
+                try (TableReader reader1 = new TableReader(configuration, "x", cache)) {
+                    assertRows(reader1, 0, 100);
+
+                    writer.removeColumn("i");
+                    writer.addColumn("i", ColumnType.INT);
+                    for (int i = 100; i < 110; i++) {
+                        TableWriter.Row row = writer.newRow();
+                        row.putStr(0, "s" + i);
+                        row.putInt(1, i);
+                        row.append();
+                    }
+                    writer.commit();
+
+                    try (TableReader reader2 = new TableReader(configuration, "x", cache)) {
+                        Assert.assertNotEquals(getAddress(reader1, 0), getAddress(reader2, 1));
+                        // old rows of re-added column are null
+                        final RecordCursor cursor = reader2.getCursor();
+                        final Record record = cursor.getRecord();
+                        long count = 0;
+                        while (cursor.hasNext()) {
+                            Assert.assertEquals(count < 100 ? Numbers.INT_NaN : (int) count, record.getInt(1));
+                            count++;
+                        }
+                        Assert.assertEquals(110, count);
+                    }
+                    // reader of old structure keeps its mapping
+                    assertRows(reader1, 0, 100);
+                }
+            }
+            Assert.assertEquals(0, cache.getMappingCount());
+        });
+    }
+
+    @Test
+    public void testReadersShareMappings() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final ColumnMappingCache cache = new ColumnMappingCache(configuration.getFilesFacade());
+            try (TableWriter writer = new TableWriter(configuration, "x")) {
+                appendRows(writer, 0, 1000);
+            }
+
+            try (
+                    TableReader reader1 = new TableReader(configuration, "x", cache);
+                    TableReader reader2 = new TableReader(configuration, "x", cache)
+            ) {
+                assertRows(reader1, 0, 1000);
+                assertRows(reader2, 0, 1000);
+                Assert.assertEquals(getAddress(reader1, 0), getAddress(reader2, 0));
+                Assert.assertEquals(getAddress(reader1, 1), getAddress(reader2, 1));
+                // i.d, s.d and s.i
+                Assert.assertEquals(3, cache.getMappingCount());
+            }
+            Assert.assertEquals(0, cache.getMappingCount());
+        });
+    }
+
+    @Test
+    public void testReloadSwitchesToLargerMapping() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final ColumnMappingCache cache = new ColumnMappingCache(configuration.getFilesFacade());
+            try (TableWriter writer = new TableWriter(smallPageConfiguration, "x")) {
+                appendRows(writer, 0, 10);
+                try (TableReader reader1 = new TableReader(configuration, "x", cache)) {
+                    assertRows(reader1, 0, 10);
+                    try (TableReader reader2 = new TableReader(configuration, "x", cache)) {
+                        assertRows(reader2, 0, 10);
+                        Assert.assertEquals(getAddress(reader1, 0), getAddress(reader2, 0));
+
+                        appendRows(writer, 10, 10_000);
+                        Assert.assertTrue(reader1.reload());
+                        assertRows(reader1, 0, 10_010);
+
+                        // stale reader holds on to smaller mapping
+                        assertRows(reader2, 0, 10);
+                        Assert.assertNotEquals(getAddress(reader1, 0), getAddress(reader2, 0));
+
+                        try (TableReader reader3 = new TableReader(configuration, "x", cache)) {
+                            assertRows(reader3, 0, 10_010);
+                            Assert.assertEquals(getAddress(reader1, 0), getAddress(reader3, 0));
+                        }
+
+                        Assert.assertTrue(reader2.reload());
+                        assertRows(reader2, 0, 10_010);
+                        Assert.assertEquals(getAddress(reader1, 0), getAddress(reader2, 0));
+                    }
+                }
+            }
+            Assert.assertEquals(0, cache.getMappingCount());
+        });
+    }
+
+    private static void appendRows(TableWriter writer, int from, int count) {
+        for (int i = from, n = from + count; i < n; i++) {
+            TableWriter.Row row = writer.newRow();
+            row.putInt(0, i);
+            row.putStr(1, "s" + i);
+            row.append();
+        }
+        writer.commit();
+    }
+
+    private static void assertRows(TableReader reader, int from, int count) {
+        final RecordCursor cursor = reader.getCursor();
+        final Record record = cursor.getRecord();
+        int i = from;
+        while (cursor.hasNext()) {
+            Assert.assertEquals(i, record.getInt(0));
+            TestUtils.assertEquals("s" + i, record.getStr(1));
+            i++;
+        }
+        Assert.assertEquals(from + count, i);
+    }
+
+    private static long getAddress(TableReader reader, int columnIndex) {
+        reader.openPartition(0);
+        return reader.getColumn(TableReader.getPrimaryColumnIndex(reader.getColumnBase(0), columnIndex)).getPageAddress(0);
+    }
+}
@@ -35,6 +35,12 @@ import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.StringSink;
 import io.questdb.tasks.ColumnIndexerTask;
+import io.questdb.tasks.HashJoinBuildTask;
+import io.questdb.tasks.OutOfOrderColumnTask;
+import io.questdb.tasks.ParallelFilterTask;
+import io.questdb.tasks.ParallelSampleByTask;
+import io.questdb.tasks.TableBackupTask;
+import io.questdb.tasks.TextImportTask;
 import io.questdb.tasks.VectorAggregateTask;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
@@ -2481,5 +2487,95 @@ public class FullFwdDataFrameCursorTest extends AbstractCairoTest {
         public Sequence getVectorAggregateSubSequence() {
             return null;
         }
+
+        @Override
+        public RingQueue<ParallelFilterTask> getParallelFilterQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getParallelFilterPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getParallelFilterSubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<OutOfOrderColumnTask> getOutOfOrderColumnQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getOutOfOrderColumnPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getOutOfOrderColumnSubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<HashJoinBuildTask> getHashJoinBuildQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getHashJoinBuildPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getHashJoinBuildSubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<TableBackupTask> getTableBackupQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getTableBackupPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getTableBackupSubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<ParallelSampleByTask> getParallelSampleByQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getParallelSampleByPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getParallelSampleBySubSequence() {
+            return null;
+        }
+
+        @Override
+        public RingQueue<TextImportTask> getTextImportQueue() {
+            return null;
+        }
+
+        @Override
+        public Sequence getTextImportPubSequence() {
+            return null;
+        }
+
+        @Override
+        public Sequence getTextImportSubSequence() {
+            return null;
+        }
     }
 }
@@ -374,6 +374,74 @@ public class IntervalFwdDataFrameCursorTest extends AbstractCairoTest {
         testIntervals(PartitionBy.DAY, increment, N, expected, 11);
     }
 
+    @Test
+    public void testPartitionCullByHour() throws Exception {
+        // hour partition
+        // two hour interval between timestamps
+        long increment = 1000000L * 3600 * 2;
+        // 3 days
+        int N = 36;
+
+        // single interval spanning all of the table
+        intervals.clear();
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T01:00:00.000Z"));
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T16:00:00.000Z"));
+        //
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T21:00:00.000Z"));
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T22:00:00.000Z"));
+        //
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-03T11:00:00.000Z"));
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-03T14:00:00.000Z"));
+
+        final String expected = "1980-01-02T02:00:00.000000Z\n" +
+                "1980-01-02T04:00:00.000000Z\n" +
+                "1980-01-02T06:00:00.000000Z\n" +
+                "1980-01-02T08:00:00.000000Z\n" +
+                "1980-01-02T10:00:00.000000Z\n" +
+                "1980-01-02T12:00:00.000000Z\n" +
+                "1980-01-02T14:00:00.000000Z\n" +
+                "1980-01-02T16:00:00.000000Z\n" +
+                "1980-01-02T22:00:00.000000Z\n" +
+                "1980-01-03T12:00:00.000000Z\n" +
+                "1980-01-03T14:00:00.000000Z\n";
+
+        testIntervals(PartitionBy.HOUR, increment, N, expected, 11);
+    }
+
+    @Test
+    public void testPartitionCullByWeek() throws Exception {
+        // week partition
+        // two hour interval between timestamps
+        long increment = 1000000L * 3600 * 2;
+        // 3 days
+        int N = 36;
+
+        // single interval spanning all of the table
+        intervals.clear();
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T01:00:00.000Z"));
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T16:00:00.000Z"));
+        //
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T21:00:00.000Z"));
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-02T22:00:00.000Z"));
+        //
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-03T11:00:00.000Z"));
+        intervals.add(TimestampFormatUtils.parseTimestamp("1980-01-03T14:00:00.000Z"));
+
+        final String expected = "1980-01-02T02:00:00.000000Z\n" +
+                "1980-01-02T04:00:00.000000Z\n" +
+                "1980-01-02T06:00:00.000000Z\n" +
+                "1980-01-02T08:00:00.000000Z\n" +
+                "1980-01-02T10:00:00.000000Z\n" +
+                "1980-01-02T12:00:00.000000Z\n" +
+                "1980-01-02T14:00:00.000000Z\n" +
+                "1980-01-02T16:00:00.000000Z\n" +
+                "1980-01-02T22:00:00.000000Z\n" +
+                "1980-01-03T12:00:00.000000Z\n" +
+                "1980-01-03T14:00:00.000000Z\n";
+
+        testIntervals(PartitionBy.WEEK, increment, N, expected, 11);
+    }
+
     @Test
     public void testPositiveReloadByDay() throws Exception {
         // day partition
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.DataFrameCursor;
+import io.questdb.std.Misc;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PartitionPruningDataFrameCursorFactoryTest extends AbstractCairoTest {
+
+    @Test
+    public void testColumnStats() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable();
+            try (
+                    TableReader reader = new TableReader(configuration, "x");
+                    ColumnStats stats = new ColumnStats()
+            ) {
+                Assert.assertEquals(3, reader.getPartitionCount());
+                Assert.assertEquals(100, reader.openPartition(0));
+                Assert.assertEquals(100, reader.openPartition(1));
+                Assert.assertEquals(100, reader.openPartition(2));
+
+                Assert.assertTrue(reader.readColumnStats(0, 0, stats));
+                Assert.assertEquals(100, stats.getRowCount());
+                Assert.assertEquals(0, stats.getNullCount());
+                Assert.assertEquals(0, stats.getMin());
+                Assert.assertEquals(99, stats.getMax());
+
+                Assert.assertTrue(reader.readColumnStats(1, 1, stats));
+                Assert.assertEquals(10, stats.getNullCount());
+                Assert.assertEquals(50.5, stats.getMinDouble(), 0.0000001);
+                Assert.assertEquals(99.5, stats.getMaxDouble(), 0.0000001);
+
+                Assert.assertTrue(reader.readColumnStats(1, 2, stats));
+                Assert.assertEquals(0, stats.getNullCount());
+                Assert.assertEquals(1, stats.getMin());
+                Assert.assertEquals(1, stats.getMax());
+
+                // last partition is still open for appends
+                Assert.assertFalse(reader.readColumnStats(2, 0, stats));
+            }
+        });
+    }
+
+    @Test
+    public void testPruneDouble() throws Exception {
+        assertFrameCount(2, factory -> factory.addDouble(1, PartitionPruningDataFrameCursorFactory.OP_GE, 60));
+    }
+
+    @Test
+    public void testPruneEq() throws Exception {
+        assertFrameCount(2, factory -> factory.addLong(0, PartitionPruningDataFrameCursorFactory.OP_EQ, 50));
+    }
+
+    @Test
+    public void testPruneGreater() throws Exception {
+        assertFrameCount(2, factory -> factory.addLong(0, PartitionPruningDataFrameCursorFactory.OP_GT, 150));
+    }
+
+    @Test
+    public void testPruneLess() throws Exception {
+        assertFrameCount(1, factory -> factory.addLong(0, PartitionPruningDataFrameCursorFactory.OP_LT, 0));
+    }
+
+    @Test
+    public void testPruneRange() throws Exception {
+        assertFrameCount(1, factory -> {
+            factory.addLong(0, PartitionPruningDataFrameCursorFactory.OP_GE, 210);
+            factory.addLong(0, PartitionPruningDataFrameCursorFactory.OP_LE, 220);
+        });
+    }
+
+    @Test
+    public void testPruneSymbol() throws Exception {
+        assertFrameCount(2, factory -> factory.addSymbol(2, "b"));
+    }
+
+    @Test
+    public void testPruneSymbolNotFound() throws Exception {
+        assertFrameCount(0, factory -> factory.addSymbol(2, "z"));
+    }
+
+    @Test
+    public void testStatsRemovedWithColumn() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable();
+            try (TableWriter writer = new TableWriter(configuration, "x")) {
+                writer.removeColumn("i");
+            }
+
+            try (TableWriter writer = new TableWriter(configuration, "x")) {
+                writer.addColumn("i", ColumnType.INT);
+            }
+
+            try (
+                    TableReader reader = new TableReader(configuration, "x");
+                    ColumnStats stats = new ColumnStats()
+            ) {
+                Assert.assertEquals(100, reader.openPartition(0));
+                Assert.assertFalse(reader.readColumnStats(0, reader.getMetadata().getColumnIndex("i"), stats));
+            }
+        });
+    }
+
+    private static void createTable() {
+        try (TableModel model = new TableModel(configuration, "x", PartitionBy.DAY).
+                col("i", ColumnType.INT).
+                col("d", ColumnType.DOUBLE).
+                col("s", ColumnType.SYMBOL).
+                timestamp()
+        ) {
+            CairoTestUtils.create(model);
+        }
+
+        final String[] symbols = {"a", "b", "c"};
+        final long increment = Timestamps.DAY_MICROS / 100;
+        try (TableWriter writer = new TableWriter(configuration, "x")) {
+            for (int i = 0; i < 300; i++) {
+                TableWriter.Row row = writer.newRow(i * increment);
+                row.putInt(0, i);
+                row.putDouble(1, i % 10 == 0 ? Double.NaN : i * 0.5);
+                row.putSym(2, symbols[i / 100]);
+                row.append();
+            }
+            writer.commit();
+        }
+    }
+
+    private void assertFrameCount(int expected, PruningConditions conditions) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createTable();
+            try (CairoEngine engine = new CairoEngine(configuration)) {
+                PartitionPruningDataFrameCursorFactory factory = new PartitionPruningDataFrameCursorFactory(
+                        new FullFwdDataFrameCursorFactory(engine, "x", 0)
+                );
+                try {
+                    conditions.add(factory);
+                    int count = 0;
+                    try (DataFrameCursor cursor = factory.getCursor(AllowAllSqlSecurityContext.INSTANCE)) {
+                        DataFrame frame;
+                        while ((frame = cursor.next()) != null) {
+                            Assert.assertEquals(100, frame.getRowHi() - frame.getRowLo());
+                            count++;
+                        }
+                    }
+                    Assert.assertEquals(expected, count);
+                } finally {
+                    Misc.free(factory);
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface PruningConditions {
+        void add(PartitionPruningDataFrameCursorFactory factory);
+    }
+}
@@ -2175,6 +2175,16 @@ public class TableReaderTest extends AbstractCairoTest {
         testReload(PartitionBy.DAY, 150, 6 * 60000L, MUST_SWITCH);
     }
 
+    @Test
+    public void testReloadByHourSamePartition() throws Exception {
+        testReload(PartitionBy.HOUR, 10, 60000L, MUST_NOT_SWITCH);
+    }
+
+    @Test
+    public void testReloadByHourSwitch() throws Exception {
+        testReload(PartitionBy.HOUR, 150, 6 * 60000L / 24, MUST_SWITCH);
+    }
+
     @Test
     public void testReloadByMonthSamePartition() throws Exception {
         testReload(PartitionBy.MONTH, 15, 60L * 60000, MUST_NOT_SWITCH);
@@ -2185,6 +2195,16 @@ public class TableReaderTest extends AbstractCairoTest {
         testReload(PartitionBy.MONTH, 15, 24 * 60L * 60000, MUST_SWITCH);
     }
 
+    @Test
+    public void testReloadByWeekSamePartition() throws Exception {
+        testReload(PartitionBy.WEEK, 10, 6 * 60L * 60000, MUST_NOT_SWITCH);
+    }
+
+    @Test
+    public void testReloadByWeekSwitch() throws Exception {
+        testReload(PartitionBy.WEEK, 150, 7 * 6 * 60000L, MUST_SWITCH);
+    }
+
     @Test
     public void testReloadByYearSamePartition() throws Exception {
         testReload(PartitionBy.YEAR, 100, 60 * 60000 * 24L, MUST_NOT_SWITCH);
@@ -2311,11 +2331,21 @@ public class TableReaderTest extends AbstractCairoTest {
         testRemoveActivePartition(PartitionBy.DAY, current -> Timestamps.addDays(Timestamps.floorDD(current), 1), "2017-12-15");
     }
 
+    @Test
+    public void testRemoveActivePartitionByHour() throws Exception {
+        testRemoveActivePartition(PartitionBy.HOUR, current -> Timestamps.addHours(Timestamps.floorHH(current), 1), "2017-12-11T04");
+    }
+
     @Test
     public void testRemoveActivePartitionByMonth() throws Exception {
         testRemoveActivePartition(PartitionBy.MONTH, current -> Timestamps.addMonths(Timestamps.floorMM(current), 1), "2018-04");
     }
 
+    @Test
+    public void testRemoveActivePartitionByWeek() throws Exception {
+        testRemoveActivePartition(PartitionBy.WEEK, current -> Timestamps.addWeeks(Timestamps.floorWW(current), 1), "2018-01-08");
+    }
+
     @Test
     public void testRemoveActivePartitionByYear() throws Exception {
         testRemoveActivePartition(PartitionBy.YEAR, current -> Timestamps.addYear(Timestamps.floorYYYY(current), 1), "2021");
@@ -2434,6 +2464,26 @@ public class TableReaderTest extends AbstractCairoTest {
         testRemovePartition(PartitionBy.YEAR, "2017", 0, current -> Timestamps.addYear(Timestamps.floorYYYY(current), 2));
     }
 
+    @Test
+    public void testRemovePartitionByHour() throws Exception {
+        testRemovePartition(PartitionBy.HOUR, "2017-12-11T13", 3000, current -> Timestamps.addHours(Timestamps.floorHH(current), 1));
+    }
+
+    @Test
+    public void testRemovePartitionByHourReload() throws Exception {
+        testRemovePartitionReload(PartitionBy.HOUR, "2017-12-11T03", 3000, current -> Timestamps.addHours(Timestamps.floorHH(current), 1));
+    }
+
+    @Test
+    public void testRemovePartitionByWeek() throws Exception {
+        testRemovePartition(PartitionBy.WEEK, "2017-12-25", 2000, current -> Timestamps.addWeeks(Timestamps.floorWW(current), 1));
+    }
+
+    @Test
+    public void testRemovePartitionByWeekReload() throws Exception {
+        testRemovePartitionReload(PartitionBy.WEEK, "2017-12-25", 2000, current -> Timestamps.addWeeks(Timestamps.floorWW(current), 1));
+    }
+
     @Test
     public void testRemovePartitionByDay() throws Exception {
         testRemovePartition(PartitionBy.DAY, "2017-12-14", 3000, current -> Timestamps.addDays(Timestamps.floorDD(current), 1));
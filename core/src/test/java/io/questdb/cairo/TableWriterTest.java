@@ -601,7 +601,8 @@ public class TableWriterTest extends AbstractCairoTest {
     public void testAddIndexAndFailOnceByDay() throws Exception {
 
         final FilesFacade ff = new FilesFacadeImpl() {
-            int count = 5;
+            // first commit reads "supplier.d" of each of 41 sealed partitions to write column statistics
+            int count = 5 + 41;
 
             @Override
             public long openRO(LPSZ name) {
@@ -2081,6 +2082,85 @@ public class TableWriterTest extends AbstractCairoTest {
         testUnrecoverableRemoveColumn(new X());
     }
 
+    @Test
+    public void testRemoveRows() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final long increment = 60000L * 1000L;
+            final long lastTs = populateTable(FF);
+            final long[] committedMin = {0};
+
+            try (TableWriter writer = new TableWriter(configuration, PRODUCT)) {
+                writer.setCommitListener((tableName, minTimestamp) -> committedMin[0] = minTimestamp);
+
+                // rows in older partitions cannot be removed
+                Assert.assertFalse(writer.removeRows(TimestampFormatUtils.parseTimestamp("2013-03-05T00:00:00.000Z")));
+                Assert.assertEquals(10000, writer.size());
+
+                // nothing to remove
+                Assert.assertTrue(writer.removeRows(lastTs + 1));
+                Assert.assertEquals(10000, writer.size());
+
+                try (TableReader reader = new TableReader(configuration, PRODUCT)) {
+                    Assert.assertTrue(writer.removeRows(lastTs - 9 * increment));
+                    Assert.assertEquals(9990, writer.size());
+                    Assert.assertEquals(lastTs - 10 * increment, writer.getMaxTimestamp());
+
+                    // removal is visible at commit
+                    Assert.assertFalse(reader.reload());
+                    Assert.assertEquals(10000, reader.size());
+                    writer.commit();
+                    Assert.assertEquals(lastTs - 9 * increment, committedMin[0]);
+                    Assert.assertTrue(reader.reload());
+                    Assert.assertEquals(9990, reader.size());
+                }
+
+                // uncommitted rows are rolled back
+                populateProducts(writer, new Rnd(), lastTs, 5, increment);
+                Assert.assertTrue(writer.removeRows(lastTs - 20 * increment + 1));
+                Assert.assertEquals(9980, writer.size());
+
+                long ts = populateProducts(writer, new Rnd(), writer.getMaxTimestamp(), 30, increment);
+                writer.commit();
+                Assert.assertEquals(10010, writer.size());
+                Assert.assertEquals(ts, writer.getMaxTimestamp());
+                // appended rows replace removed ones within the same commit
+                Assert.assertEquals(lastTs - 20 * increment + 1, committedMin[0]);
+
+                // removal is undone by rollback
+                Assert.assertTrue(writer.removeRows(ts));
+                Assert.assertEquals(10009, writer.size());
+                writer.rollback();
+                Assert.assertEquals(10010, writer.size());
+                Assert.assertEquals(ts, writer.getMaxTimestamp());
+            }
+
+            try (TableReader reader = new TableReader(configuration, PRODUCT)) {
+                Assert.assertEquals(10010, reader.size());
+            }
+        });
+    }
+
+    @Test
+    public void testRemoveRowsNonPartitioned() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final long lastTs = populateTable(FF, PartitionBy.NONE);
+
+            try (TableWriter writer = new TableWriter(configuration, PRODUCT)) {
+                Assert.assertTrue(writer.removeRows(lastTs - 99 * 60000L * 1000L));
+                Assert.assertEquals(9900, writer.size());
+
+                // all rows are at or after timestamp
+                Assert.assertTrue(writer.removeRows(TimestampFormatUtils.parseTimestamp("2013-03-04T00:00:00.000Z")));
+                Assert.assertEquals(0, writer.size());
+                writer.commit();
+            }
+
+            try (TableReader reader = new TableReader(configuration, PRODUCT)) {
+                Assert.assertEquals(0, reader.size());
+            }
+        });
+    }
+
     @Test
     public void testRemoveTimestamp() throws Exception {
         try (TableModel model = new TableModel(configuration, "ABC", PartitionBy.NONE)
@@ -0,0 +1,472 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.Long256;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class ArrowStreamWriterTest extends AbstractGriffinTest {
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_int(0, 1000, 0) a, timestamp_sequence(0, 3600000000) ts from long_sequence(60)" +
+                    ") timestamp(ts) partition by DAY", sqlExecutionContext);
+            compiler.compile("alter table x add column b long", sqlExecutionContext);
+            compiler.compile("insert into x select rnd_int(0, 1000, 0) a, timestamp_sequence(216000000000, 3600000000) ts, rnd_long(0, 1000, 3) b from long_sequence(30)", sqlExecutionContext);
+            assertPageFrames("x", 90);
+        });
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (a int, s string)", sqlExecutionContext);
+            assertRecords("x", 0, Long.MAX_VALUE, 0);
+        });
+    }
+
+    @Test
+    public void testManyBatches() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select rnd_long(0, 1000000, 4) l, rnd_str(1, 10, 3) s from long_sequence(150000)" +
+                    ")", sqlExecutionContext);
+            assertRecords("x where l > 1000", 0, Long.MAX_VALUE, -1);
+        });
+    }
+
+    @Test
+    public void testPageFrames() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select" +
+                    " rnd_boolean() bool," +
+                    " rnd_byte(1, 100) b," +
+                    " rnd_short(1, 1000) sh," +
+                    " rnd_char() c," +
+                    " rnd_int(0, 1000, 3) i," +
+                    " rnd_long(0, 1000, 3) l," +
+                    " rnd_float(3) f," +
+                    " rnd_double(3) d," +
+                    " rnd_date(to_date('2020', 'yyyy'), to_date('2021', 'yyyy'), 3) dt," +
+                    " timestamp_sequence(0, 360000000) ts" +
+                    " from long_sequence(1000)" +
+                    ") timestamp(ts) partition by DAY", sqlExecutionContext);
+            assertPageFrames("x", 1000);
+        });
+    }
+
+    @Test
+    public void testRecords() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (" +
+                    "select" +
+                    " rnd_boolean() bool," +
+                    " rnd_byte(1, 100) b," +
+                    " rnd_short(1, 1000) sh," +
+                    " rnd_char() c," +
+                    " rnd_int(0, 1000, 3) i," +
+                    " rnd_long(0, 1000, 3) l," +
+                    " rnd_float(3) f," +
+                    " rnd_double(3) d," +
+                    " rnd_date(to_date('2020', 'yyyy'), to_date('2021', 'yyyy'), 3) dt," +
+                    " rnd_str(3, 10, 3) s," +
+                    " rnd_symbol(5, 3, 6, 3) sym," +
+                    " rnd_bin(1, 20, 3) bin," +
+                    " rnd_long256() l256," +
+                    " timestamp_sequence(0, 360000000) ts" +
+                    " from long_sequence(1000)" +
+                    ") timestamp(ts)", sqlExecutionContext);
+            // symbol, string and binary columns are not framed
+            assertRecords("x", 0, Long.MAX_VALUE, 1000);
+            assertRecords("x where i > 100", 0, Long.MAX_VALUE, -1);
+        });
+    }
+
+    @Test
+    public void testSkipAndStop() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select x a, rnd_str(3, 10, 3) s from long_sequence(100))", sqlExecutionContext);
+            assertRecords("x", 10, 25, 15);
+        });
+    }
+
+    private static void assertBatches(ArrowStream stream, int pos, RecordCursor cursor, RecordMetadata metadata, long expectedRowCount) {
+        final Record record = cursor.getRecord();
+        final int columnCount = metadata.getColumnCount();
+        long total = 0;
+        while ((pos = stream.readMessage(pos)) > -1) {
+            Assert.assertEquals(ArrowStream.HEADER_RECORD_BATCH, stream.headerType);
+            final int batch = stream.header;
+            final long rows = stream.bb.getLong(stream.field(batch, 0));
+            final int nodes = stream.deref(stream.field(batch, 1));
+            final int buffers = stream.deref(stream.field(batch, 2));
+            Assert.assertEquals(columnCount, stream.bb.getInt(nodes));
+
+            int bufferIndex = 0;
+            final long[] nullCounts = new long[columnCount];
+            final int[] validity = new int[columnCount];
+            final int[] offsets = new int[columnCount];
+            final int[] data = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                Assert.assertEquals(rows, stream.bb.getLong(nodes + Integer.BYTES + i * 2 * Long.BYTES));
+                nullCounts[i] = stream.bb.getLong(nodes + Integer.BYTES + Long.BYTES + i * 2 * Long.BYTES);
+                validity[i] = stream.buffer(buffers, bufferIndex++);
+                if (isVarLength(metadata.getColumnType(i))) {
+                    offsets[i] = stream.buffer(buffers, bufferIndex++);
+                }
+                data[i] = stream.buffer(buffers, bufferIndex++);
+            }
+            Assert.assertEquals(bufferIndex, stream.bb.getInt(buffers));
+
+            final long[] nulls = new long[columnCount];
+            for (int r = 0; r < rows; r++) {
+                Assert.assertTrue(cursor.hasNext());
+                for (int i = 0; i < columnCount; i++) {
+                    final boolean valid = nullCounts[i] == 0 || (stream.bb.get(validity[i] + (r >>> 3)) & (1 << (r & 7))) != 0;
+                    if (!valid) {
+                        nulls[i]++;
+                    }
+                    assertValue(stream.bb, metadata.getColumnType(i), record, i, r, valid, offsets[i], data[i]);
+                }
+            }
+            Assert.assertArrayEquals(nullCounts, nulls);
+            total += rows;
+        }
+        Assert.assertFalse(cursor.hasNext());
+        if (expectedRowCount > -1) {
+            Assert.assertEquals(expectedRowCount, total);
+        }
+    }
+
+    private static void assertSchema(ArrowStream stream, RecordMetadata metadata) {
+        Assert.assertEquals(ArrowStream.HEADER_SCHEMA, stream.headerType);
+        Assert.assertEquals(0, stream.bodyLength);
+        final int fields = stream.deref(stream.field(stream.header, 1));
+        Assert.assertEquals(metadata.getColumnCount(), stream.bb.getInt(fields));
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int field = stream.deref(fields + Integer.BYTES + i * Integer.BYTES);
+            Assert.assertEquals(metadata.getColumnName(i), stream.string(stream.field(field, 0)));
+            Assert.assertEquals(1, stream.bb.get(stream.field(field, 1)));
+            Assert.assertNotEquals(0, stream.field(field, 5));
+        }
+    }
+
+    private static void assertValue(ByteBuffer bb, int columnType, Record record, int col, int row, boolean valid, int offsets, int data) {
+        switch (columnType) {
+            case ColumnType.BOOLEAN:
+                Assert.assertEquals(record.getBool(col), (bb.get(data + (row >>> 3)) & (1 << (row & 7))) != 0);
+                break;
+            case ColumnType.BYTE:
+                Assert.assertEquals(record.getByte(col), bb.get(data + row));
+                break;
+            case ColumnType.SHORT:
+                Assert.assertEquals(record.getShort(col), bb.getShort(data + row * Short.BYTES));
+                break;
+            case ColumnType.CHAR:
+                Assert.assertEquals(record.getChar(col) != 0, valid);
+                Assert.assertEquals(record.getChar(col), bb.getChar(data + row * Character.BYTES));
+                break;
+            case ColumnType.INT:
+                Assert.assertEquals(record.getInt(col) != Numbers.INT_NaN, valid);
+                if (valid) {
+                    Assert.assertEquals(record.getInt(col), bb.getInt(data + row * Integer.BYTES));
+                }
+                break;
+            case ColumnType.LONG:
+                Assert.assertEquals(record.getLong(col) != Numbers.LONG_NaN, valid);
+                if (valid) {
+                    Assert.assertEquals(record.getLong(col), bb.getLong(data + row * Long.BYTES));
+                }
+                break;
+            case ColumnType.DATE:
+                Assert.assertEquals(record.getDate(col) != Numbers.LONG_NaN, valid);
+                if (valid) {
+                    Assert.assertEquals(record.getDate(col), bb.getLong(data + row * Long.BYTES));
+                }
+                break;
+            case ColumnType.TIMESTAMP:
+                Assert.assertEquals(record.getTimestamp(col) != Numbers.LONG_NaN, valid);
+                if (valid) {
+                    Assert.assertEquals(record.getTimestamp(col), bb.getLong(data + row * Long.BYTES));
+                }
+                break;
+            case ColumnType.FLOAT:
+                Assert.assertEquals(!Float.isNaN(record.getFloat(col)), valid);
+                if (valid) {
+                    Assert.assertEquals(record.getFloat(col), bb.getFloat(data + row * Float.BYTES), 0);
+                }
+                break;
+            case ColumnType.DOUBLE:
+                Assert.assertEquals(!Double.isNaN(record.getDouble(col)), valid);
+                if (valid) {
+                    Assert.assertEquals(record.getDouble(col), bb.getDouble(data + row * Double.BYTES), 0);
+                }
+                break;
+            case ColumnType.LONG256:
+                final Long256 value = record.getLong256A(col);
+                Assert.assertTrue(valid);
+                Assert.assertEquals(value.getLong0(), bb.getLong(data + row * 32));
+                Assert.assertEquals(value.getLong1(), bb.getLong(data + row * 32 + 8));
+                Assert.assertEquals(value.getLong2(), bb.getLong(data + row * 32 + 16));
+                Assert.assertEquals(value.getLong3(), bb.getLong(data + row * 32 + 24));
+                break;
+            case ColumnType.STRING:
+            case ColumnType.SYMBOL:
+                final CharSequence str = columnType == ColumnType.STRING ? record.getStr(col) : record.getSym(col);
+                Assert.assertEquals(str != null, valid);
+                final int lo = bb.getInt(offsets + row * Integer.BYTES);
+                final int hi = bb.getInt(offsets + (row + 1) * Integer.BYTES);
+                if (valid) {
+                    final byte[] bytes = new byte[hi - lo];
+                    for (int i = 0; i < bytes.length; i++) {
+                        bytes[i] = bb.get(data + lo + i);
+                    }
+                    Assert.assertEquals(str.toString(), new String(bytes, StandardCharsets.UTF_8));
+                } else {
+                    Assert.assertEquals(lo, hi);
+                }
+                break;
+            case ColumnType.BINARY:
+                final BinarySequence bin = record.getBin(col);
+                Assert.assertEquals(bin != null, valid);
+                final int binLo = bb.getInt(offsets + row * Integer.BYTES);
+                final int binHi = bb.getInt(offsets + (row + 1) * Integer.BYTES);
+                if (valid) {
+                    Assert.assertEquals(bin.length(), binHi - binLo);
+                    for (int i = 0; i < binHi - binLo; i++) {
+                        Assert.assertEquals(bin.byteAt(i), bb.get(data + binLo + i));
+                    }
+                } else {
+                    Assert.assertEquals(binLo, binHi);
+                }
+                break;
+            default:
+                Assert.fail("unexpected type " + ColumnType.nameOf(columnType));
+        }
+    }
+
+    private static byte[] drain(ArrowStreamWriter writer) {
+        // buffer is smaller than any message, writer has to stop and resume all the time
+        final int size = 13;
+        final long buf = Unsafe.malloc(size);
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            while (!writer.isDone()) {
+                final long n = writer.drain(buf, buf + size);
+                Assert.assertTrue(n == size || writer.isDone());
+                for (int i = 0; i < n; i++) {
+                    out.write(Unsafe.getUnsafe().getByte(buf + i));
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            Unsafe.free(buf, size);
+        }
+    }
+
+    private static boolean isVarLength(int columnType) {
+        return columnType == ColumnType.STRING || columnType == ColumnType.SYMBOL || columnType == ColumnType.BINARY;
+    }
+
+    private void assertPageFrames(String query, long expectedRowCount) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                ArrowStreamWriter writer = new ArrowStreamWriter()
+        ) {
+            final ArrowStream stream;
+            try (PageFrameCursor pageFrameCursor = ArrowStreamWriter.getPageFrameCursor(factory, sqlExecutionContext)) {
+                Assert.assertNotNull(pageFrameCursor);
+                stream = new ArrowStream(drain(writer.of(factory.getMetadata(), pageFrameCursor)));
+            }
+            Assert.assertEquals(expectedRowCount, writer.getRowCount());
+
+            final int pos = stream.readMessage(0);
+            assertSchema(stream, factory.getMetadata());
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                assertBatches(stream, pos, cursor, factory.getMetadata(), expectedRowCount);
+            }
+        }
+    }
+
+    private void assertRecords(String query, long skip, long stop, long expectedRowCount) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                ArrowStreamWriter writer = new ArrowStreamWriter()
+        ) {
+            final ArrowStream stream;
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                stream = new ArrowStream(drain(writer.of(factory.getMetadata(), cursor, skip, stop)));
+            }
+            if (expectedRowCount > -1) {
+                Assert.assertEquals(expectedRowCount, writer.getRowCount());
+            }
+
+            final int pos = stream.readMessage(0);
+            assertSchema(stream, factory.getMetadata());
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                for (long i = 0; i < skip; i++) {
+                    Assert.assertTrue(cursor.hasNext());
+                }
+                if (stop == Long.MAX_VALUE) {
+                    assertBatches(stream, pos, cursor, factory.getMetadata(), expectedRowCount);
+                } else {
+                    assertBatches(stream, pos, new LimitedCursor(cursor, stop - skip), factory.getMetadata(), expectedRowCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Just enough of FlatBuffers and Arrow IPC format to read what the writer produces.
+     */
+    private static class ArrowStream {
+        static final byte HEADER_SCHEMA = 1;
+        static final byte HEADER_RECORD_BATCH = 3;
+        final ByteBuffer bb;
+        byte headerType;
+        int header;
+        long bodyLength;
+        int body;
+
+        ArrowStream(byte[] bytes) {
+            this.bb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int buffer(int buffers, int index) {
+            final int p = buffers + Integer.BYTES + index * 2 * Long.BYTES;
+            final long offset = bb.getLong(p);
+            Assert.assertEquals(0, offset % 8);
+            Assert.assertTrue(offset + bb.getLong(p + Long.BYTES) <= bodyLength);
+            return body + (int) offset;
+        }
+
+        int deref(int p) {
+            return p + bb.getInt(p);
+        }
+
+        int field(int table, int slot) {
+            final int vtable = table - bb.getInt(table);
+            final int vo = Integer.BYTES + slot * Short.BYTES;
+            if (vo >= bb.getShort(vtable)) {
+                return 0;
+            }
+            final int o = bb.getShort(vtable + vo);
+            return o == 0 ? 0 : table + o;
+        }
+
+        // returns position of the next message or -1 when stream ends
+        int readMessage(int pos) {
+            Assert.assertEquals(-1, bb.getInt(pos));
+            final int len = bb.getInt(pos + Integer.BYTES);
+            if (len == 0) {
+                Assert.assertEquals(bb.capacity(), pos + 2 * Integer.BYTES);
+                return -1;
+            }
+            final int metadata = pos + 2 * Integer.BYTES;
+            Assert.assertEquals(0, (metadata + len) % 8);
+            final int message = deref(metadata);
+            Assert.assertEquals(4, bb.getShort(field(message, 0)));
+            headerType = bb.get(field(message, 1));
+            header = deref(field(message, 2));
+            bodyLength = bb.getLong(field(message, 3));
+            body = metadata + len;
+            return body + (int) bodyLength;
+        }
+
+        String string(int p) {
+            final int s = deref(p);
+            final byte[] bytes = new byte[bb.getInt(s)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = bb.get(s + Integer.BYTES + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class LimitedCursor implements RecordCursor {
+        private final RecordCursor base;
+        private long remaining;
+
+        LimitedCursor(RecordCursor base, long limit) {
+            this.base = base;
+            this.remaining = limit;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Record getRecord() {
+            return base.getRecord();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return base.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining-- > 0 && base.hasNext();
+        }
+
+        @Override
+        public Record getRecordB() {
+            return base.getRecordB();
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            base.recordAt(record, atRowId);
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            base.toTop();
+        }
+    }
+}
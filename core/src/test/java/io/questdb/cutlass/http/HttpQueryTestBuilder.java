@@ -222,7 +222,7 @@ public class HttpQueryTestBuilder {
                     }
                 });
 
-                QueryCache.configure(httpConfiguration);
+                final QueryCache queryCache = QueryCache.configure(httpConfiguration);
 
                 workerPool.start(LOG);
 
@@ -230,6 +230,7 @@ public class HttpQueryTestBuilder {
                     code.run(engine);
                 } finally {
                     workerPool.halt();
+                    Misc.free(queryCache);
 
                     if (telemetryJob != null) {
                         Misc.free(telemetryJob);
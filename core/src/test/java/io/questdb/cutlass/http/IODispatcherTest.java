@@ -4306,7 +4306,7 @@ public class IODispatcherTest {
                     }
                 });
 
-                QueryCache.configure(httpConfiguration);
+                final QueryCache queryCache = QueryCache.configure(httpConfiguration);
                 workerPool.start(LOG);
 
                 // create 20Mb file in /tmp directory
@@ -4461,6 +4461,7 @@ public class IODispatcherTest {
                         } finally {
                             Net.freeSockAddr(sockAddr);
                             workerPool.halt();
+                            Misc.free(queryCache);
                         }
                     } finally {
                         Files.remove(path);
@@ -30,6 +30,7 @@ import io.questdb.log.LogFactory;
 import io.questdb.mp.WorkerPool;
 import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.network.*;
+import io.questdb.std.Chars;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
 import io.questdb.std.Unsafe;
@@ -60,6 +61,7 @@ public class LineTcpConnectionContextTest extends AbstractCairoTest {
     private boolean disconnected;
     private String recvBuffer;
     private int nWriterThreads;
+    private boolean shardedWriterQueue;
     private WorkerPool workerPool;
     private int[] rebalanceLoadByThread;
     private int rebalanceNLoadCheckCycles = 0;
@@ -110,6 +112,7 @@ public class LineTcpConnectionContextTest extends AbstractCairoTest {
             }
         };
         nWriterThreads = 2;
+        shardedWriterQueue = false;
         microSecondTicks = -1;
         lineTcpConfiguration = new DefaultLineTcpReceiverConfiguration() {
             @Override
@@ -127,6 +130,11 @@ public class LineTcpConnectionContextTest extends AbstractCairoTest {
                 return nf;
             }
 
+            @Override
+            public boolean isShardedWriterQueue() {
+                return shardedWriterQueue;
+            }
+
             @Override
             public MicrosecondClock getMicrosecondClock() {
                 return new MicrosecondClockImpl() {
@@ -796,6 +804,27 @@ public class LineTcpConnectionContextTest extends AbstractCairoTest {
         Assert.assertEquals(0, rebalanceNRebalances);
     }
 
+    @Test
+    public void testMultiplTablesWithShardedWriterQueues() throws Exception {
+        nWriterThreads = 5;
+        shardedWriterQueue = true;
+        int nTables = 12;
+        int nIterations = 20_000;
+        testThreading(nTables, nIterations, null);
+        Assert.assertEquals(0, rebalanceNRebalances);
+    }
+
+    @Test
+    public void testMeasurementNameHash() {
+        final int expected = Chars.hashCode("weather");
+        assertMeasurementNameHash(expected, "weather,location=us-midwest temperature=82\n");
+        assertMeasurementNameHash(expected, "weather temperature=82\n");
+        assertMeasurementNameHash(expected, "wea\\ther temperature=82\n");
+        assertMeasurementNameHash(expected, "weather");
+        assertMeasurementNameHash(Chars.hashCode("wea ther"), "wea\\ ther,location=us-midwest temperature=82\n");
+        assertMeasurementNameHash(Chars.hashCode("wea,ther"), "wea\\,ther temperature=82\n");
+    }
+
     @Test
     public void testMultipleMeasurements1() throws Exception {
         runInContext(() -> {
@@ -990,6 +1019,19 @@ public class LineTcpConnectionContextTest extends AbstractCairoTest {
         }
     }
 
+    private void assertMeasurementNameHash(int expected, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        long mem = Unsafe.malloc(bytes.length);
+        try {
+            for (int i = 0; i < bytes.length; i++) {
+                Unsafe.getUnsafe().putByte(mem + i, bytes[i]);
+            }
+            Assert.assertEquals(expected, LineTcpMeasurementScheduler.measurementNameHash(mem, mem + bytes.length));
+        } finally {
+            Unsafe.free(mem, bytes.length);
+        }
+    }
+
     private void assertTable(CharSequence expected, CharSequence tableName) {
         try (TableReader reader = new TableReader(configuration, tableName)) {
             assertThat(expected, reader.getCursor(), reader.getMetadata(), true);
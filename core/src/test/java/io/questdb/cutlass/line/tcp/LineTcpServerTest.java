@@ -58,25 +58,35 @@ public class LineTcpServerTest extends AbstractCairoTest {
 
     @Test(timeout = 120000)
     public void testUnauthenticated() {
-        test(null, null, 200, 1_000);
+        test(null, null, 200, 1_000, false);
     }
 
     @Test(timeout = 120000)
     public void testGoodAuthenticated() {
-        test(AUTH_KEY_ID1, AUTH_PRIVATE_KEY1, 768, 1_000);
+        test(AUTH_KEY_ID1, AUTH_PRIVATE_KEY1, 768, 1_000, false);
+    }
+
+    @Test(timeout = 120000)
+    public void testUnauthenticatedShardedWriterQueue() {
+        test(null, null, 200, 1_000, true);
+    }
+
+    @Test(timeout = 120000)
+    public void testGoodAuthenticatedShardedWriterQueue() {
+        test(AUTH_KEY_ID1, AUTH_PRIVATE_KEY1, 768, 1_000, true);
     }
 
     @Test(timeout = 120000, expected = NetworkError.class)
     public void testInvalidUser() {
-        test(AUTH_KEY_ID2, AUTH_PRIVATE_KEY2, 768, 100);
+        test(AUTH_KEY_ID2, AUTH_PRIVATE_KEY2, 768, 100, false);
     }
 
     @Test(timeout = 120000, expected = NetworkError.class)
     public void testInvalidSignature() {
-        test(AUTH_KEY_ID1, AUTH_PRIVATE_KEY2, 768, 100);
+        test(AUTH_KEY_ID1, AUTH_PRIVATE_KEY2, 768, 100, false);
     }
 
-    private void test(String authKeyId, PrivateKey authPrivateKey, int msgBufferSize, final int nRows) {
+    private void test(String authKeyId, PrivateKey authPrivateKey, int msgBufferSize, final int nRows, boolean shardedWriterQueue) {
         WorkerPool sharedWorkerPool = new WorkerPool(new WorkerPoolConfiguration() {
             private final int[] affinity = { -1, -1 };
 
@@ -149,6 +159,11 @@ public class LineTcpServerTest extends AbstractCairoTest {
                 URL u = getClass().getResource("authDb.txt");
                 return u.getFile();
             }
+
+            @Override
+            public boolean isShardedWriterQueue() {
+                return shardedWriterQueue;
+            }
         };
 
         final String[] tables = { "weather1", "weather2", "weather3" };
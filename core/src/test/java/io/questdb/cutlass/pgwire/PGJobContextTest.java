@@ -51,8 +51,13 @@ import org.postgresql.core.BaseConnection;
 import org.postgresql.util.PGTimestamp;
 import org.postgresql.util.PSQLException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.*;
 import java.text.SimpleDateFormat;
@@ -361,6 +366,45 @@ public class PGJobContextTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testCachedSelectAfterAlterTable() throws Exception {
+        assertMemoryLeak(() -> {
+            try (
+                    final PGWireServer ignored = createPGServer(2);
+                    final Connection connection1 = getConnection(true, false);
+                    final Connection connection2 = getConnection(true, false);
+                    final Statement statement1 = connection1.createStatement();
+                    final Statement statement2 = connection2.createStatement()
+            ) {
+                statement1.execute("create table x as (select cast(x as int) a from long_sequence(2))");
+
+                // compiled select is cached and shared by both connections
+                for (int i = 0; i < 2; i++) {
+                    try (ResultSet rs = statement1.executeQuery("select * from x")) {
+                        sink.clear();
+                        assertResultSet("a[INTEGER]\n1\n2\n", sink, rs);
+                    }
+                    try (ResultSet rs = statement2.executeQuery("select * from x")) {
+                        sink.clear();
+                        assertResultSet("a[INTEGER]\n1\n2\n", sink, rs);
+                    }
+                }
+
+                statement1.execute("alter table x add column b long");
+
+                // cached factories are out of date and have to be recompiled
+                try (ResultSet rs = statement2.executeQuery("select * from x")) {
+                    sink.clear();
+                    assertResultSet("a[INTEGER],b[BIGINT]\n1,null\n2,null\n", sink, rs);
+                }
+                try (ResultSet rs = statement1.executeQuery("select * from x")) {
+                    sink.clear();
+                    assertResultSet("a[INTEGER],b[BIGINT]\n1,null\n2,null\n", sink, rs);
+                }
+            }
+        });
+    }
+
     @Test
     public void testCairoException() throws Exception {
         assertMemoryLeak(() -> {
@@ -619,6 +663,146 @@ public class PGJobContextTest extends AbstractGriffinTest {
         }
     }
 
+    @Test
+    public void testCopyOutBinary() throws Exception {
+        assertMemoryLeak(() -> {
+            try (
+                    final PGWireServer ignored = createPGServer(2);
+                    final Connection connection = getConnection(false, true)
+            ) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final long rowCount = new CopyManager((BaseConnection) connection).copyOut(
+                        "copy (select" +
+                                " cast(x as int) a," +
+                                " x * 1000000007 b," +
+                                " x / 4.0 c," +
+                                " x % 2 = 0 d," +
+                                " cast(x * 1000000 as timestamp) t," +
+                                " cast(x * 123456789012 as long256) l" +
+                                " from long_sequence(3)) to stdout with (format binary)",
+                        out
+                );
+                Assert.assertEquals(3, rowCount);
+
+                final DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+                final byte[] signature = new byte[11];
+                in.readFully(signature);
+                Assert.assertArrayEquals("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1), signature);
+                // flags and header extension length
+                Assert.assertEquals(0, in.readInt());
+                Assert.assertEquals(0, in.readInt());
+
+                for (int x = 1; x < 4; x++) {
+                    Assert.assertEquals(6, in.readShort());
+
+                    Assert.assertEquals(Integer.BYTES, in.readInt());
+                    Assert.assertEquals(x, in.readInt());
+
+                    Assert.assertEquals(Long.BYTES, in.readInt());
+                    Assert.assertEquals(x * 1000000007L, in.readLong());
+
+                    Assert.assertEquals(Double.BYTES, in.readInt());
+                    Assert.assertEquals(x / 4.0, in.readDouble(), 0.0000001);
+
+                    Assert.assertEquals(1, in.readInt());
+                    Assert.assertEquals(x % 2 == 0 ? 1 : 0, in.readByte());
+
+                    Assert.assertEquals(Long.BYTES, in.readInt());
+                    Assert.assertEquals(x * 1000000L - Numbers.JULIAN_EPOCH_OFFSET_USEC, in.readLong());
+
+                    final int len = in.readInt();
+                    final short digitCount = in.readShort();
+                    Assert.assertEquals(8 + 2 * digitCount, len);
+                    final short weight = in.readShort();
+                    Assert.assertEquals(0, in.readShort());
+                    Assert.assertEquals(0, in.readShort());
+                    BigInteger value = BigInteger.ZERO;
+                    for (int i = 0; i < digitCount; i++) {
+                        value = value.multiply(BigInteger.valueOf(10000)).add(BigInteger.valueOf(in.readShort()));
+                    }
+                    value = value.multiply(BigInteger.valueOf(10000).pow(weight - digitCount + 1));
+                    Assert.assertEquals(BigInteger.valueOf(x * 123456789012L), value);
+                }
+                // trailer
+                Assert.assertEquals(-1, in.readShort());
+                Assert.assertEquals(0, in.available());
+            }
+        });
+    }
+
+    @Test
+    public void testCopyOutSlowClient() throws Exception {
+        assertMemoryLeak(() -> {
+            final String query = "copy (select x a, cast(x as string) b, x / 3.0 c from long_sequence(10000)) to stdout with (format ";
+            final byte[] expectedBinary;
+            final byte[] expectedArrow;
+            try (
+                    final PGWireServer ignored = createPGServer(1);
+                    final Connection connection = getConnection(false, true)
+            ) {
+                expectedBinary = copyOut(connection, query + "binary)");
+                expectedArrow = copyOut(connection, query + "arrow)");
+            }
+
+            final int[] affinity = {-1};
+            final PGWireConfiguration configuration = new DefaultPGWireConfiguration() {
+                private final NetworkFacade nf = new NetworkFacadeImpl() {
+                    private int count;
+
+                    @Override
+                    public int send(long fd, long buffer, int bufferLen) {
+                        // two sends out of every four make no progress, context has to yield and resume
+                        if ((++count & 3) < 2) {
+                            return 0;
+                        }
+                        return super.send(fd, buffer, bufferLen);
+                    }
+                };
+
+                @Override
+                public int getIdleSendCountBeforeGivingUp() {
+                    return 1;
+                }
+
+                @Override
+                public NetworkFacade getNetworkFacade() {
+                    return nf;
+                }
+
+                @Override
+                public int getSendBufferSize() {
+                    return 512;
+                }
+
+                @Override
+                public int[] getWorkerAffinity() {
+                    return affinity;
+                }
+
+                @Override
+                public int getWorkerCount() {
+                    return 1;
+                }
+            };
+
+            try (
+                    final PGWireServer ignored = createPGServer(configuration);
+                    final Connection connection = getConnection(false, true)
+            ) {
+                Assert.assertArrayEquals(expectedBinary, copyOut(connection, query + "binary)"));
+                Assert.assertArrayEquals(expectedArrow, copyOut(connection, query + "arrow)"));
+                // connection is still usable after resumed copy
+                try (
+                        Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery("select count() from long_sequence(10000)")
+                ) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertEquals(10000, rs.getLong(1));
+                }
+            }
+        });
+    }
+
     @Test
     public void testDDL() throws Exception {
         assertMemoryLeak(() -> {
@@ -2906,6 +3090,12 @@ nodejs code:
         });
     }
 
+    private static byte[] copyOut(Connection connection, String sql) throws SQLException, IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(10000, new CopyManager((BaseConnection) connection).copyOut(sql, out));
+        return out.toByteArray();
+    }
+
     private PGWireServer createPGServer(PGWireConfiguration configuration) {
         return PGWireServer.create(
                 configuration,
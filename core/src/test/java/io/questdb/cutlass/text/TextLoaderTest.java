@@ -32,11 +32,14 @@ import io.questdb.cutlass.http.ex.NotEnoughLinesException;
 import io.questdb.cutlass.json.JsonLexer;
 import io.questdb.griffin.AbstractGriffinTest;
 import io.questdb.griffin.SqlException;
+import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.Files;
 import io.questdb.std.Unsafe;
 import io.questdb.std.datetime.DateLocale;
+import io.questdb.std.datetime.microtime.TimestampFormatUtils;
 import io.questdb.std.datetime.millitime.DateFormatUtils;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import io.questdb.test.tools.TestUtils;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -44,6 +47,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TextLoaderTest extends AbstractGriffinTest {
 
@@ -1771,6 +1775,139 @@ public class TextLoaderTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testParallelImport() throws Exception {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+        try (CairoEngine engine = new CairoEngine(newParallelImportConfiguration())) {
+            final TextImportJob job = new TextImportJob(engine.getMessageBus());
+            new Thread(() -> {
+                while (running.get()) {
+                    job.run(0);
+                }
+                haltLatch.countDown();
+            }).start();
+
+            try {
+                assertNoLeak(
+                        engine,
+                        textLoader -> {
+                            final StringSink csv = new StringSink();
+                            final StringSink expected = new StringSink();
+                            csv.put("id,name,value,ts\n");
+                            expected.put("id\tname\tvalue\tts\n");
+                            long ts = 1577836800000000L;
+                            for (int i = 0; i < 300; i++) {
+                                ts += 600_000_000L;
+                                if (i == 210) {
+                                    // bad timestamp skips the row
+                                    csv.put("210,n0,0.5,x\n");
+                                    continue;
+                                }
+                                csv.put(i).put(",n").put(i % 7).put("\u00e9,").put(i).put(".5,");
+                                TimestampFormatUtils.appendDateTimeUSec(csv, ts);
+                                csv.put('\n');
+
+                                expected.put(i).put("\tn").put(i % 7).put("\u00e9\t").put(i).put(".5\t");
+                                TimestampFormatUtils.appendDateTimeUSec(expected, ts);
+                                expected.put('\n');
+                            }
+
+                            configureLoaderDefaults(textLoader, (byte) ',', Atomicity.SKIP_ROW, false, PartitionBy.DAY, "ts");
+                            textLoader.setForceHeaders(false);
+                            playText(
+                                    engine,
+                                    textLoader,
+                                    csv.toString(),
+                                    200,
+                                    expected.toString(),
+                                    "{\"columnCount\":4,\"columns\":[{\"index\":0,\"name\":\"id\",\"type\":\"INT\"},{\"index\":1,\"name\":\"name\",\"type\":\"STRING\"},{\"index\":2,\"name\":\"value\",\"type\":\"DOUBLE\"},{\"index\":3,\"name\":\"ts\",\"type\":\"TIMESTAMP\"}],\"timestampIndex\":3}",
+                                    300,
+                                    299
+                            );
+                        }
+                );
+            } finally {
+                running.set(false);
+                haltLatch.await();
+            }
+        }
+    }
+
+    @Test
+    public void testParallelImportLineLongerThanChunk() throws Exception {
+        try (CairoEngine engine = new CairoEngine(newParallelImportConfiguration())) {
+            assertNoLeak(
+                    engine,
+                    textLoader -> {
+                        final StringSink csv = new StringSink();
+                        for (int i = 0; i < 10; i++) {
+                            csv.put(i).put(",s").put(i).put('\n');
+                        }
+                        // line that does not fit import chunk
+                        csv.put(10).put(',');
+                        for (int i = 0; i < 300; i++) {
+                            csv.put('x');
+                        }
+                        csv.put('\n');
+                        for (int i = 11; i < 50; i++) {
+                            csv.put(i).put(",s").put(i).put('\n');
+                        }
+
+                        configureLoaderDefaults(textLoader, (byte) ',');
+                        try {
+                            playText0(textLoader, csv.toString(), 40, ENTITY_MANIPULATOR);
+                            Assert.fail();
+                        } catch (CairoException e) {
+                            TestUtils.assertContains(e.getFlyweightMessage(), "line is longer than import chunk");
+                        }
+                        textLoader.clear();
+                        assertTable("f0\tf1\n");
+                    }
+            );
+        }
+    }
+
+    @Test
+    public void testParallelImportNonPartitioned() throws Exception {
+        // nothing consumes the queue, chunks are parsed by the importing thread
+        try (CairoEngine engine = new CairoEngine(newParallelImportConfiguration())) {
+            assertNoLeak(
+                    engine,
+                    textLoader -> {
+                        final StringSink csv = new StringSink();
+                        final StringSink expected = new StringSink();
+                        expected.put("f0\tf1\tf2\n");
+                        for (int i = 0; i < 100; i++) {
+                            if (i == 70) {
+                                // bad int skips the row
+                                csv.put("x,\"s70\",true\n");
+                                continue;
+                            }
+                            csv.put(i).put(",\"s").put(i).put("\",").put(i % 2 == 0 ? "true" : "false");
+                            // last line has no line break
+                            if (i < 99) {
+                                csv.put('\n');
+                            }
+                            expected.put(i).put("\ts").put(i).put('\t').put(i % 2 == 0 ? "true" : "false").put('\n');
+                        }
+
+                        configureLoaderDefaults(textLoader, (byte) ',');
+                        playText(
+                                engine,
+                                textLoader,
+                                csv.toString(),
+                                100,
+                                expected.toString(),
+                                "{\"columnCount\":3,\"columns\":[{\"index\":0,\"name\":\"f0\",\"type\":\"INT\"},{\"index\":1,\"name\":\"f1\",\"type\":\"STRING\"},{\"index\":2,\"name\":\"f2\",\"type\":\"BOOLEAN\"}],\"timestampIndex\":-1}",
+                                100,
+                                99
+                        );
+                    }
+            );
+        }
+    }
+
     @Test
     public void testReservedTableName() throws Exception {
         assertNoLeak(textLoader -> {
@@ -2643,6 +2780,38 @@ public class TextLoaderTest extends AbstractGriffinTest {
         });
     }
 
+    private static CairoConfiguration newParallelImportConfiguration() {
+        final TextConfiguration textConfiguration = new DefaultTextConfiguration() {
+            @Override
+            public int getTextAnalysisMaxLines() {
+                return 3;
+            }
+        };
+
+        // chunks are small enough for the text to be cut into dozens of them
+        return new DefaultCairoConfiguration(root) {
+            @Override
+            public int getParallelTextImportChunkCount() {
+                return 3;
+            }
+
+            @Override
+            public int getParallelTextImportChunkSize() {
+                return 256;
+            }
+
+            @Override
+            public TextConfiguration getTextConfiguration() {
+                return textConfiguration;
+            }
+
+            @Override
+            public boolean isParallelTextImportEnabled() {
+                return true;
+            }
+        };
+    }
+
     private void assertTable(String expected) throws SqlException {
         try (
                 RecordCursorFactory factory = compiler.compile("test", sqlExecutionContext).getRecordCursorFactory();
@@ -31,6 +31,9 @@ import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.mp.Job;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
 import io.questdb.std.*;
 import io.questdb.test.tools.TestUtils;
 import org.jetbrains.annotations.NotNull;
@@ -40,6 +43,8 @@ import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class AbstractGriffinTest extends AbstractCairoTest {
     protected static final BindVariableService bindVariableService = new BindVariableServiceImpl(configuration);
     private static final LongList rows = new LongList();
@@ -56,6 +61,7 @@ public class AbstractGriffinTest extends AbstractCairoTest {
                 for (int i = 0; i < columnCount; i++) {
                     switch (metadata.getColumnType(i)) {
                         case ColumnType.STRING:
+                        case ColumnType.VARCHAR:
                             CharSequence a = record.getStr(i);
                             CharSequence b = record.getStrB(i);
                             if (a == null) {
@@ -280,6 +286,7 @@ public class AbstractGriffinTest extends AbstractCairoTest {
             for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
                 switch (metadata.getColumnType(i)) {
                     case ColumnType.STRING:
+                    case ColumnType.VARCHAR:
                         CharSequence s = record.getStr(i);
                         if (s != null) {
                             if (checkSameStr) {
@@ -576,6 +583,62 @@ public class AbstractGriffinTest extends AbstractCairoTest {
         }
     }
 
+    /**
+     * Consumes sequence fully and does nothing with the tasks. This is needed to make
+     * sure test does not pick up tasks other tests published on the shared message bus.
+     *
+     * @param subSequence job's sub-sequence of the message bus queue
+     */
+    protected static void drainQueue(Sequence subSequence) {
+        while (true) {
+            long cursor = subSequence.next();
+            if (cursor == -1) {
+                break;
+            } else if (cursor > -1) {
+                subSequence.done(cursor);
+            }
+        }
+    }
+
+    protected static SqlExecutionContext newParallelContext(CairoEngine engine) throws SqlException {
+        return new SqlExecutionContextImpl(engine, 4)
+                .with(
+                        AllowAllCairoSecurityContext.INSTANCE,
+                        bindVariableService,
+                        null,
+                        -1,
+                        null
+                );
+    }
+
+    /**
+     * Runs code while a background thread runs job the way a worker would. Queue of
+     * the job is drained beforehand and the thread is stopped before this method returns.
+     *
+     * @param job         job to run in background
+     * @param subSequence job's sub-sequence of the message bus queue
+     * @param code        code that publishes tasks for the job
+     * @throws Exception when code fails
+     */
+    protected static void runWithBackgroundJob(Job job, Sequence subSequence, TestUtils.LeakProneCode code) throws Exception {
+        drainQueue(subSequence);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+        new Thread(() -> {
+            while (running.get()) {
+                job.run(0);
+            }
+            haltLatch.countDown();
+        }).start();
+
+        try {
+            code.run();
+        } finally {
+            running.set(false);
+            haltLatch.await();
+        }
+    }
+
     protected static void assertMemoryLeak(TestUtils.LeakProneCode code) throws Exception {
         TestUtils.assertMemoryLeak(() -> {
             try {
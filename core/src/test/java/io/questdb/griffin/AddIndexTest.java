@@ -24,6 +24,8 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.std.Rnd;
 import io.questdb.test.tools.TestUtils;
@@ -63,6 +65,53 @@ public class AddIndexTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testAddIndexUnknownFormat() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table trades as (select rnd_symbol('ABB', 'HBC', 'DXR') sym from long_sequence(10))", sqlExecutionContext);
+            try {
+                compiler.compile("alter table trades alter column sym add index compressed", sqlExecutionContext);
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(46, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "'packed' expected");
+            }
+        });
+    }
+
+    @Test
+    public void testAddPackedIndex() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(
+                    "create table trades as (\n" +
+                            "    select \n" +
+                            "        rnd_symbol('ABB', 'HBC', 'DXR') sym, \n" +
+                            "        rnd_double() price, \n" +
+                            "        timestamp_sequence(172800000000, 36000000) ts \n" +
+                            "    from long_sequence(10000)\n" +
+                            ") timestamp(ts) partition by DAY",
+                    sqlExecutionContext
+            );
+
+            final String expected = select("trades where sym = 'ABB'");
+            compiler.compile("alter table trades alter column sym add index packed", sqlExecutionContext);
+            TestUtils.assertEquals(expected, select("trades where sym = 'ABB'"));
+
+            // new partitions have to be indexed in the same format
+            compiler.compile(
+                    "insert into trades select \n" +
+                            "        rnd_symbol('ABB', 'HBC', 'DXR') sym, \n" +
+                            "        rnd_double() price, \n" +
+                            "        timestamp_sequence(604800000000, 36000000) ts \n" +
+                            "    from long_sequence(10000)",
+                    sqlExecutionContext
+            );
+            compiler.compile("create table trades_copy as (select * from trades)", sqlExecutionContext);
+            TestUtils.assertEquals(select("trades_copy where sym = 'HBC'"), select("trades where sym = 'HBC'"));
+            TestUtils.assertEquals(select("trades_copy where sym = 'DXR' and ts > '1970-01-08'"), select("trades where sym = 'DXR' and ts > '1970-01-08'"));
+        });
+    }
+
     @Test
     public void testBeforeAndAfterIndex() throws Exception {
         final String expected = "sym\tprice\tts\n" +
@@ -101,4 +150,15 @@ public class AddIndexTest extends AbstractGriffinTest {
 
         );
     }
+
+    private static String select(CharSequence query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            return sink.toString();
+        }
+    }
 }
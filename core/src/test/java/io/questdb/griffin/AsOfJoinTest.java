@@ -24,8 +24,12 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.std.Rnd;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -170,6 +174,16 @@ public class AsOfJoinTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testJoinSeekingSlaveNonPartitioned() throws Exception {
+        assertJoinsSeekingSlave("NONE");
+    }
+
+    @Test
+    public void testJoinSeekingSlavePartitioned() throws Exception {
+        assertJoinsSeekingSlave("DAY");
+    }
+
     @Test
     public void testLtJoin() throws Exception {
         final String expected = "tag\thi\tlo\tts\tts1\n" +
@@ -604,5 +618,61 @@ public class AsOfJoinTest extends AbstractGriffinTest {
             printSqlResult(ex, query, null, null, null, false, true, false);
         });
     }
-}
 
+    private void assertJoinsSeekingSlave(String partitionBy) throws Exception {
+        assertMemoryLeak(() -> {
+            // master rows are hours apart while slave has row every minute, join keys
+            // of slave repeat less often than lookback, some master keys are never found
+            compiler.compile(
+                    "create table x as (" +
+                            "select rnd_int(0, 320, 0) k," +
+                            " rnd_double() amt," +
+                            " timestamp_sequence(0, 13800000000) ts" +
+                            " from long_sequence(60)" +
+                            ") timestamp(ts)",
+                    sqlExecutionContext
+            );
+            compiler.compile(
+                    "create table y as (" +
+                            "select rnd_int(0, 300, 0) k," +
+                            " rnd_double() price," +
+                            " timestamp_sequence(3600000000, 60000000) ts" +
+                            " from long_sequence(10000)" +
+                            ") timestamp(ts) partition by " + partitionBy,
+                    sqlExecutionContext
+            );
+
+            try (RecordCursorFactory factory = compiler.compile("y", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory.recordCursorSupportsTimestampSeek());
+            }
+
+            // filtered slave is not seekable, it produces the reference result
+            assertJoinSeekingSlave("select x.k, x.ts, y.k, y.ts, y.price from x asof join %s y on (k)");
+            assertJoinSeekingSlave("select x.k, x.ts, y.k, y.ts, y.price from x lt join %s y on (k)");
+            assertJoinSeekingSlave("select x.k, x.ts, y.k, y.ts, y.price from x asof join %s y");
+            assertJoinSeekingSlave("select x.k, x.ts, y.k, y.ts, y.price from x lt join %s y");
+        });
+    }
+
+    private void assertJoinSeekingSlave(String query) throws SqlException {
+        final String expected = printQuery(String.format(query, "(y where price >= 0)"));
+        TestUtils.assertEquals(expected, printQuery(String.format(query, "y")));
+    }
+
+    private String printQuery(String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            // second pass checks that cursor state is reset
+            cursor.toTop();
+            final String result = sink.toString();
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), false);
+            TestUtils.assertEquals(result.substring(result.indexOf('\n') + 1), sink);
+            return result;
+        }
+    }
+}
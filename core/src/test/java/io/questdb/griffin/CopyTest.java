@@ -628,6 +628,61 @@ public class CopyTest extends AbstractCairoTest {
         ));
     }
 
+    @Test
+    public void testCopyOutBinary() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select x a, x % 2 = 0 b from long_sequence(5))", sqlExecutionContext);
+            final String expected = "a\tb\n" +
+                    "1\tfalse\n" +
+                    "2\ttrue\n" +
+                    "3\tfalse\n" +
+                    "4\ttrue\n" +
+                    "5\tfalse\n";
+            assertCopyOut(expected, "copy x to stdout with (format binary)");
+            assertCopyOut(expected, "copy x to stdout binary");
+            assertCopyOut("a\n4\n5\n", "copy (select a from x where a > 3) to stdout with binary");
+        });
+    }
+
+    @Test
+    public void testCopyOutArrow() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x as (select x a from long_sequence(3))", sqlExecutionContext);
+            assertCopyOut(CompiledQuery.COPY_OUT_ARROW, "a\n1\n2\n3\n", "copy x to stdout with (format arrow)");
+            assertCopyOut(CompiledQuery.COPY_OUT_ARROW, "a\n3\n", "copy (select a from x where a > 2) to stdout arrow");
+        });
+    }
+
+    @Test
+    public void testCopyOutNotStdout() throws Exception {
+        assertFailure(
+                "copy x to '/tmp/x.csv'",
+                "create table x (a int)",
+                10,
+                "'stdout' expected"
+        );
+    }
+
+    @Test
+    public void testCopyOutTextFormat() throws Exception {
+        assertFailure(
+                "copy x to stdout with (format csv)",
+                "create table x (a int)",
+                30,
+                "only binary and arrow formats are supported when copying to stdout"
+        );
+    }
+
+    @Test
+    public void testCopyOutNoFormat() throws Exception {
+        assertFailure(
+                "copy x to stdout",
+                "create table x (a int)",
+                16,
+                "only binary and arrow formats are supported when copying to stdout"
+        );
+    }
+
     @Test
     public void testCopyFullHack() throws Exception {
         assertMemoryLeak(() -> assertFailure(
@@ -663,6 +718,18 @@ public class CopyTest extends AbstractCairoTest {
         assertVariableColumns(factory, true);
     }
 
+    private void assertCopyOut(String expected, String query) throws SqlException {
+        assertCopyOut(CompiledQuery.COPY_OUT, expected, query);
+    }
+
+    private void assertCopyOut(short expectedType, String expected, String query) throws SqlException {
+        final CompiledQuery cc = compiler.compile(query, sqlExecutionContext);
+        Assert.assertEquals(expectedType, cc.getType());
+        try (RecordCursorFactory factory = cc.getRecordCursorFactory()) {
+            assertCursor(expected, factory, true, true);
+        }
+    }
+
     protected void assertFailure(
             CharSequence query,
             @Nullable CharSequence ddl,
@@ -24,14 +24,19 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.griffin.engine.groupby.vect.GroupByJob;
+import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.Rnd;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class KeyedAggregationTest extends AbstractGriffinTest {
     @Before
     public void setUp3() {
@@ -866,6 +871,161 @@ public class KeyedAggregationTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testLongKey() throws Exception {
+        assertQuery(
+                "k\tcount\tsum\tmin\tmax\tavg\n" +
+                        "NaN\t16518\t6926.154600483419\t1.2163940398635109E-4\t0.999888751425016\t0.5019316327620421\n" +
+                        "1\t16573\t6949.0104004142095\t3.679329919625829E-7\t0.9998594540687346\t0.5019510546384144\n" +
+                        "2\t16843\t7035.177471166341\t3.143149682938162E-4\t0.9999717156571641\t0.501581168627288\n" +
+                        "3\t16841\t6993.8273655249395\t3.865511016043488E-5\t0.999916269120484\t0.4998090020385149\n" +
+                        "4\t16604\t6962.860788123277\t2.633338445079403E-6\t0.9999586739984571\t0.5006011063428915\n" +
+                        "5\t16621\t6992.685078251234\t8.25508909115813E-5\t0.9999345177611331\t0.5027453503667577\n",
+                "select k, count(), sum(val), min(val), max(val), avg(val) from tab order by k",
+                "create table tab as (select rnd_long(1, 5, 2) k, rnd_double(2) val from long_sequence(100000))",
+                null, true, true, true
+        );
+    }
+
+    @Test
+    public void testLongKeyParallel() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table tab as (select rnd_long(-20, 20, 2) k, rnd_symbol('a', 'b', 'c', null) s, rnd_int() i, rnd_int(0, 3, 0) j, rnd_double(2) val, timestamp_sequence(0, 1000000) ts from long_sequence(400000)) timestamp(ts) partition by DAY", sqlExecutionContext);
+            final String[] queries = {
+                    "select k, count(), min(val), max(val), min(i), max(i) from tab order by k",
+                    "select s, j, count(), max(val), min(i) from tab order by s, j",
+                    "select timestamp_floor('m', ts) t, count(), min(val), max(k) from tab order by t"
+            };
+
+            // expressions as aggregate arguments keep the reference results off the vectorized path
+            final String[] expected = new String[queries.length];
+            for (int i = 0; i < queries.length; i++) {
+                try (
+                        RecordCursorFactory factory = compiler.compile(queries[i].replace("(val)", "(val * 1)"), sqlExecutionContext).getRecordCursorFactory();
+                        RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+                ) {
+                    sink.clear();
+                    printer.print(cursor, factory.getMetadata(), true);
+                    expected[i] = sink.toString();
+                }
+            }
+
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final SOCountDownLatch haltLatch = new SOCountDownLatch(3);
+            for (int w = 1; w < 4; w++) {
+                final int workerId = w;
+                final GroupByJob job = new GroupByJob(engine.getMessageBus());
+                new Thread(() -> {
+                    while (running.get()) {
+                        job.run(workerId);
+                    }
+                    haltLatch.countDown();
+                }).start();
+            }
+
+            try {
+                final SqlExecutionContext parallelContext = new SqlExecutionContextImpl(engine, 4)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, bindVariableService, null, -1, null);
+                for (int i = 0; i < queries.length; i++) {
+                    try (RecordCursorFactory factory = compiler.compile(queries[i], parallelContext).getRecordCursorFactory()) {
+                        assertCursor(expected[i], factory, true, true, false, true, parallelContext);
+                    }
+                }
+            } finally {
+                running.set(false);
+                haltLatch.await();
+            }
+        });
+    }
+
+    @Test
+    public void testMinuteBucket() throws Exception {
+        assertQuery(
+                "t\tcount\tsum\tmax\n" +
+                        "1969-12-31T23:57:00.000000Z\t60000\t25216.830632910114\t1000\n" +
+                        "1969-12-31T23:58:00.000000Z\t60000\t24931.124235822845\t1000\n" +
+                        "1969-12-31T23:59:00.000000Z\t60000\t24981.026635728715\t1000\n" +
+                        "1970-01-01T00:00:00.000000Z\t60000\t25173.473054902985\t1000\n" +
+                        "1970-01-01T00:01:00.000000Z\t60000\t25011.68213396904\t1000\n" +
+                        "1970-01-01T00:02:00.000000Z\t60000\t24863.49159988667\t1000\n" +
+                        "1970-01-01T00:03:00.000000Z\t40000\t16671.749881350574\t1000\n",
+                "select timestamp_floor('m', ts) t, count(), sum(val), max(lv) from tab order by t",
+                "create table tab as (select timestamp_sequence(-180000000, 1000) ts, rnd_double(2) val, rnd_long(0, 1000, 2) lv from long_sequence(400000))",
+                null, true, true, true
+        );
+    }
+
+    @Test
+    public void testDayBucket() throws Exception {
+        assertQuery(
+                "t\tcount\tksum\tmin\n" +
+                        "1969-12-31T00:00:00.000000Z\t86400\t36199.62670256612\t0\n" +
+                        "1970-01-01T00:00:00.000000Z\t86400\t35935.147203821914\t0\n" +
+                        "1970-01-02T00:00:00.000000Z\t86400\t36174.58527495681\t0\n" +
+                        "1970-01-03T00:00:00.000000Z\t40800\t17004.777511988636\t0\n",
+                "select timestamp_floor('d', ts) t, count(), ksum(val), min(iv) from tab order by t",
+                "create table tab as (select timestamp_sequence(cast('1969-12-31T00:00:00.000000Z' as timestamp), 1000000) ts, rnd_double(2) val, rnd_int(0, 1000, 2) iv from long_sequence(300000))",
+                null, true, true, true
+        );
+    }
+
+    @Test
+    public void testSymbolPair() throws Exception {
+        assertQuery(
+                "s1\ts2\tcount\tsum\tnsum\n" +
+                        "\t\t8332\t3506.9576052455873\t3506.957605245588\n" +
+                        "\ta1\t8373\t3486.703075632211\t3486.7030756322247\n" +
+                        "\ta2\t8330\t3477.367162427486\t3477.3671624274994\n" +
+                        "s1\t\t8325\t3501.624668421114\t3501.62466842111\n" +
+                        "s1\ta1\t8353\t3480.3811891914283\t3480.3811891914347\n" +
+                        "s1\ta2\t8376\t3472.8676676520226\t3472.867667652028\n" +
+                        "s2\t\t8313\t3459.002668463188\t3459.002668463191\n" +
+                        "s2\ta1\t8304\t3463.5683763271877\t3463.568376327193\n" +
+                        "s2\ta2\t8373\t3483.9517007995296\t3483.9517007995432\n" +
+                        "s3\t\t8345\t3488.8334626431842\t3488.833462643169\n" +
+                        "s3\ta1\t8261\t3411.603372736663\t3411.6033727366657\n" +
+                        "s3\ta2\t8315\t3474.343218999224\t3474.343218999224\n",
+                "select s1, s2, count(), sum(val), nsum(val) from tab order by s1, s2",
+                "create table tab as (select rnd_symbol('s1','s2','s3', null) s1, rnd_symbol('a1','a2', null) s2, rnd_double(2) val from long_sequence(100000))",
+                null, true, true, true
+        );
+    }
+
+    @Test
+    public void testSymbolPairAddKeyMidTable() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table tab as (select rnd_symbol('s1','s2','s3', null) s1, rnd_double(2) val from long_sequence(1000000))", sqlExecutionContext);
+            compiler.compile("alter table tab add column s2 symbol cache", sqlExecutionContext);
+            compiler.compile("insert into tab select rnd_symbol('s1','s2','s3', null), rnd_double(2), rnd_symbol('a1','a2','a3', null) s2 from long_sequence(1000000)", sqlExecutionContext);
+
+            try (
+                    RecordCursorFactory factory = compiler.compile("select s1, s2, count(), sum(val) from tab order by s1, s2", sqlExecutionContext).getRecordCursorFactory();
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                String expected = "s1\ts2\tcount\tsum\n" +
+                        "\t\t311736\t129925.87583031034\n" +
+                        "\ta1\t62840\t26180.577261416092\n" +
+                        "\ta2\t62812\t26195.716863453763\n" +
+                        "\ta3\t62865\t26164.25494388766\n" +
+                        "s1\t\t311969\t130036.45072737923\n" +
+                        "s1\ta1\t62533\t26097.626023274643\n" +
+                        "s1\ta2\t62532\t25972.230249014072\n" +
+                        "s1\ta3\t62137\t25741.51066586439\n" +
+                        "s2\t\t313225\t130508.23459568684\n" +
+                        "s2\ta1\t62307\t25895.80665788592\n" +
+                        "s2\ta2\t62784\t26135.014429537307\n" +
+                        "s2\ta3\t62458\t26122.799252215576\n" +
+                        "s3\t\t311939\t129977.10184349206\n" +
+                        "s3\ta1\t62547\t26134.648453617592\n" +
+                        "s3\ta2\t62830\t26256.325205512054\n" +
+                        "s3\ta3\t62486\t26015.548408010756\n";
+
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+        });
+    }
 
     @Test
     public void testSumInTimestampRange() throws Exception {
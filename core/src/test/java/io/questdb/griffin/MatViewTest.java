@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.MatViewDefinition;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.security.AllowAllCairoSecurityContext;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MatViewTest extends AbstractGriffinTest {
+
+    private static final String VIEW_QUERY = "select sym, sum(price) total, count() cnt, ts from trades sample by 1h align to calendar";
+
+    @Test
+    public void testBaseTableWithoutTimestamp() throws Exception {
+        assertFailure(
+                "create materialized view v as (select sym, sum(price), ts from trades timestamp(ts) sample by 1h align to calendar)",
+                "create table trades (sym symbol, price double, ts timestamp)",
+                63,
+                "materialized view base table must have designated timestamp"
+        );
+    }
+
+    @Test
+    public void testCreate() throws Exception {
+        assertMemoryLeak(() -> {
+            createTrades(1000);
+            compiler.compile("create materialized view v as (" + VIEW_QUERY + ")", sqlExecutionContext);
+
+            final MatViewDefinition view = engine.getMatViewRegistry().getView("v");
+            Assert.assertNotNull(view);
+            Assert.assertEquals("trades", view.getBaseTableName());
+            Assert.assertEquals("1h", view.getSamplingInterval());
+            Assert.assertEquals(VIEW_QUERY, view.getQuery());
+            Assert.assertEquals(
+                    "select sym, sum(price) total, count() cnt, ts from (select * from trades where ts >= $1) sample by 1h align to calendar",
+                    view.getRefreshQuery()
+            );
+            assertViewMatchesQuery();
+        });
+    }
+
+    @Test
+    public void testFillIsRejected() throws Exception {
+        assertFailure(
+                "create materialized view v as (select sym, sum(price), ts from trades sample by 1h fill(prev) align to calendar)",
+                tradesDdl(10),
+                88,
+                "materialized view query does not support fill"
+        );
+    }
+
+    @Test
+    public void testJoinIsRejected() throws Exception {
+        assertFailure(
+                "create materialized view v as (select a.sym, sum(a.price), a.ts from trades a join trades b on (sym) sample by 1h align to calendar)",
+                tradesDdl(10),
+                31,
+                "materialized view query must select from single table"
+        );
+    }
+
+    @Test
+    public void testRefreshAfterAppend() throws Exception {
+        assertMemoryLeak(() -> {
+            createTrades(1000);
+            compiler.compile("create materialized view v as (" + VIEW_QUERY + ")", sqlExecutionContext);
+
+            try (MatViewRefreshJob job = new MatViewRefreshJob(engine)) {
+                Assert.assertFalse(job.run(0));
+                insertTrades(1000, "timestamp_sequence(360000000000, 100000000)");
+                Assert.assertTrue(job.run(0));
+                assertViewMatchesQuery();
+                Assert.assertFalse(job.run(0));
+            }
+        });
+    }
+
+    @Test
+    public void testRefreshAfterDropPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTrades(1000);
+            compiler.compile("create materialized view v as (" + VIEW_QUERY + ")", sqlExecutionContext);
+
+            try (MatViewRefreshJob job = new MatViewRefreshJob(engine)) {
+                // rows are removed from the middle of base table
+                compiler.compile("alter table trades drop partition list '1970-01-02'", sqlExecutionContext);
+                Assert.assertTrue(job.run(0));
+                assertViewMatchesQuery();
+                TestUtils.assertEquals("count\n0\n", print("select count() from v where ts >= '1970-01-02' and ts < '1970-01-03'"));
+            }
+        });
+    }
+
+    @Test
+    public void testRefreshAfterTruncate() throws Exception {
+        assertMemoryLeak(() -> {
+            createTrades(1000);
+            compiler.compile("create materialized view v as (" + VIEW_QUERY + ")", sqlExecutionContext);
+
+            try (MatViewRefreshJob job = new MatViewRefreshJob(engine)) {
+                compiler.compile("truncate table trades", sqlExecutionContext);
+                Assert.assertTrue(job.run(0));
+                assertViewMatchesQuery();
+
+                insertTrades(10, "timestamp_sequence(0, 100000000)");
+                Assert.assertTrue(job.run(0));
+                assertViewMatchesQuery();
+            }
+        });
+    }
+
+    @Test
+    public void testRefreshIsSingleTransaction() throws Exception {
+        assertMemoryLeak(() -> {
+            createTrades(1000);
+            compiler.compile("create materialized view v as (" + VIEW_QUERY + ")", sqlExecutionContext);
+
+            try (
+                    MatViewRefreshJob job = new MatViewRefreshJob(engine);
+                    TableReader reader = engine.getReader(AllowAllCairoSecurityContext.INSTANCE, "v")
+            ) {
+                // last view bucket is removed and aggregated again
+                long txn = reader.getTxn();
+                insertTrades(100, "timestamp_sequence(359700000000, 100000000)");
+                Assert.assertTrue(job.run(0));
+                Assert.assertTrue(reader.reload());
+                Assert.assertEquals(txn + 1, reader.getTxn());
+                assertViewMatchesQuery();
+
+                // rows are removed from the middle of base table
+                txn = reader.getTxn();
+                compiler.compile("alter table trades drop partition list '1970-01-02'", sqlExecutionContext);
+                Assert.assertTrue(job.run(0));
+                Assert.assertTrue(reader.reload());
+                Assert.assertEquals(txn + 1, reader.getTxn());
+                assertViewMatchesQuery();
+            }
+        });
+    }
+
+    @Test
+    public void testSampleByMustAlignToCalendar() throws Exception {
+        assertFailure(
+                "create materialized view v as (select sym, sum(price), ts from trades sample by 1h)",
+                tradesDdl(10),
+                80,
+                "materialized view query must use 'sample by ... align to calendar'"
+        );
+    }
+
+    @Test
+    public void testViewIsLoadedOnStartup() throws Exception {
+        assertMemoryLeak(() -> {
+            createTrades(100);
+            compiler.compile("create materialized view v as (" + VIEW_QUERY + ")", sqlExecutionContext);
+            engine.releaseAllWriters();
+
+            try (CairoEngine engine2 = new CairoEngine(configuration)) {
+                final MatViewDefinition view = engine2.getMatViewRegistry().getView("v");
+                Assert.assertNotNull(view);
+                Assert.assertEquals(VIEW_QUERY, view.getQuery());
+                Assert.assertEquals(engine.getMatViewRegistry().getView("v").getRefreshTxn(), view.getRefreshTxn());
+            }
+        });
+    }
+
+    private static void assertViewMatchesQuery() throws SqlException {
+        final String expected = print(VIEW_QUERY);
+        TestUtils.assertEquals(expected, print("v"));
+    }
+
+    private static void createTrades(int count) throws SqlException {
+        compiler.compile(tradesDdl(count), sqlExecutionContext);
+    }
+
+    private static void insertTrades(int count, String timestamps) throws SqlException {
+        compiler.compile(
+                "insert into trades select rnd_symbol('ABB', 'HBC', 'DXR'), rnd_double(), " + timestamps +
+                        " from long_sequence(" + count + ")",
+                sqlExecutionContext
+        );
+    }
+
+    private static String tradesDdl(int count) {
+        return "create table trades as (" +
+                "select rnd_symbol('ABB', 'HBC', 'DXR') sym, rnd_double() price, timestamp_sequence(0, 360000000) ts " +
+                "from long_sequence(" + count + ")" +
+                ") timestamp(ts) partition by DAY";
+    }
+
+    private static String print(String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            return sink.toString();
+        }
+    }
+}
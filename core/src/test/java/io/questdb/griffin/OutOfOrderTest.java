@@ -25,12 +25,15 @@
 package io.questdb.griffin;
 
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.OutOfOrderColumnJob;
 import io.questdb.cairo.TableWriter;
 import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
+import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.Chars;
 import io.questdb.std.Rnd;
 import io.questdb.std.datetime.microtime.TimestampFormatUtils;
@@ -42,12 +45,20 @@ import org.junit.Test;
 
 import java.io.File;
 import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class OutOfOrderTest extends AbstractGriffinTest {
 
+    private int parallelMergeThreshold = 100_000;
+
     @Before
     public void setUp3() {
         configuration = new DefaultCairoConfiguration(root) {
+            @Override
+            public int getParallelOutOfOrderMergeThreshold() {
+                return parallelMergeThreshold;
+            }
+
             @Override
             public boolean isOutOfOrderEnabled() {
                 return true;
@@ -429,92 +440,29 @@ public class OutOfOrderTest extends AbstractGriffinTest {
 
     @Test
     public void testPartitionedDataMergeData() throws Exception {
-        assertMemoryLeak(() -> {
-                    // create table with roughly 2AM data
-                    compiler.compile(
-                            "create table x as (" +
-                                    "select" +
-                                    " cast(x as int) i," +
-                                    " rnd_symbol('msft','ibm', 'googl') sym," +
-                                    " round(rnd_double(0)*100, 3) amt," +
-                                    " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
-                                    " rnd_boolean() b," +
-                                    " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
-                                    " rnd_double(2) d," +
-                                    " rnd_float(2) e," +
-                                    " rnd_short(10,1024) f," +
-                                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) g," +
-                                    " rnd_symbol(4,4,4,2) ik," +
-                                    " rnd_long() j," +
-                                    " timestamp_sequence(500000000000L,1000000L) ts," +
-                                    " rnd_byte(2,50) l," +
-                                    " rnd_bin(10, 20, 2) m," +
-                                    " rnd_str(5,16,2) n," +
-                                    " rnd_char() t" +
-                                    " from long_sequence(500)" +
-                                    ") timestamp (ts) partition by DAY",
-                            sqlExecutionContext
-                    );
-
-                    compiler.compile(
-                            "create table middle as (" +
-                                    "select" +
-                                    " cast(x as int) i," +
-                                    " rnd_symbol('msft','ibm', 'googl') sym," +
-                                    " round(rnd_double(0)*100, 3) amt," +
-                                    " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
-                                    " rnd_boolean() b," +
-                                    " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
-                                    " rnd_double(2) d," +
-                                    " rnd_float(2) e," +
-                                    " rnd_short(10,1024) f," +
-                                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) g," +
-                                    " rnd_symbol(4,4,4,2) ik," +
-                                    " rnd_long() j," +
-                                    " timestamp_sequence(500288000000L,100000L) ts," +
-                                    " rnd_byte(2,50) l," +
-                                    " rnd_bin(10, 20, 2) m," +
-                                    " rnd_str(5,16,2) n," +
-                                    " rnd_char() t" +
-                                    " from long_sequence(100)" +
-                                    ") timestamp (ts) partition by DAY",
-                            sqlExecutionContext
-                    );
-
-
-                    // create third table, which will contain both X and 1AM
-                    compiler.compile("create table y as (x union all middle)", sqlExecutionContext);
-
-                    // expected outcome
-                    sink.clear();
-                    try (RecordCursorFactory factory = compiler.compile("y order by ts", sqlExecutionContext).getRecordCursorFactory()) {
-                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
-                            printer.print(cursor, factory.getMetadata(), true);
-                        }
-                    }
-
-                    // uncomment these to look at result comparison from two queries
-                    // we are using file comparison here because of ordering issue on the identical timestamps
-//                    String expected = Chars.toString(sink);
+        testPartitionedDataMergeData0();
+    }
 
-                    compiler.compile("insert into x select * from middle", sqlExecutionContext);
+    @Test
+    public void testPartitionedDataMergeDataParallel() throws Exception {
+        executeWithColumnWorker(this::testPartitionedDataMergeData0);
+    }
 
-                    // release reader
-                    engine.releaseAllReaders();
+    @Test
+    public void testPartitionedDataMergeDataParallelWorkStealing() throws Exception {
+        // no worker thread, committing thread has to steal all column tasks
+        parallelMergeThreshold = 1;
+        testPartitionedDataMergeData0();
+    }
 
-                    sink.clear();
-                    try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
-                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
-                            printer.print(cursor, factory.getMetadata(), true);
-                        }
-                    }
+    @Test
+    public void testPartitionedDataMergeVarchar() throws Exception {
+        testPartitionedDataMergeVarchar0();
+    }
 
-//                    TestUtils.assertEquals(expected, sink);
-                    URL url = OutOfOrderTest.class.getResource("/oo/testPartitionedDataMergeData.txt");
-                    Assert.assertNotNull(url);
-                    TestUtils.assertEquals(new File(url.toURI()), sink);
-                }
-        );
+    @Test
+    public void testPartitionedDataMergeVarcharParallel() throws Exception {
+        executeWithColumnWorker(this::testPartitionedDataMergeVarchar0);
     }
 
     @Test
@@ -1638,62 +1586,22 @@ public class OutOfOrderTest extends AbstractGriffinTest {
 
     @Test
     public void testPartitionedOOMergeOO() throws Exception {
-        assertMemoryLeak(() -> {
-                    compiler.compile(
-                            "create table x_1 as (" +
-                                    "select" +
-                                    " cast(x as int) i," +
-                                    " rnd_symbol('msft','ibm', 'googl') sym," +
-                                    " round(rnd_double(0)*100, 3) amt," +
-                                    " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
-                                    " rnd_boolean() b," +
-                                    " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
-                                    " rnd_double(2) d," +
-                                    " rnd_float(2) e," +
-                                    " rnd_short(10,1024) f," +
-                                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) g," +
-                                    " rnd_symbol(4,4,4,2) ik," +
-                                    " rnd_long() j," +
-                                    " timestamp_shuffle(0,100000000000L) ts," +
-                                    " rnd_byte(2,50) l," +
-                                    " rnd_bin(10, 20, 2) m," +
-                                    " rnd_str(5,16,2) n," +
-                                    " rnd_char() t" +
-                                    " from long_sequence(1000)" +
-                                    ")",
-                            sqlExecutionContext
-                    );
-
-                    compiler.compile(
-                            "create table x as (select * from x_1 order by ts) timestamp(ts) partition by DAY",
-                            sqlExecutionContext
-                    );
-
-                    compiler.compile(
-                            "create table y as (select * from x_1) timestamp(ts) partition by DAY",
-                            sqlExecutionContext
-                    );
-
-                    final String sqlTemplate = "select i,sym,amt,timestamp,b,c,d,e,f,g,ik,ts,l,n,t,m from ";
+        testPartitionedOOMergeOO("DAY");
+    }
 
-                    sink.clear();
-                    try (RecordCursorFactory factory = compiler.compile(sqlTemplate + "x", sqlExecutionContext).getRecordCursorFactory()) {
-                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
-                            printer.print(cursor, factory.getMetadata(), true);
-                        }
-                    }
+    @Test
+    public void testPartitionedOOMergeOOParallel() throws Exception {
+        executeWithColumnWorker(() -> testPartitionedOOMergeOO("DAY"));
+    }
 
-                    String expected = Chars.toString(sink);
+    @Test
+    public void testPartitionedOOMergeOOByHour() throws Exception {
+        testPartitionedOOMergeOO("HOUR");
+    }
 
-                    sink.clear();
-                    try (RecordCursorFactory factory = compiler.compile(sqlTemplate + "y", sqlExecutionContext).getRecordCursorFactory()) {
-                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
-                            printer.print(cursor, factory.getMetadata(), true);
-                        }
-                    }
-                    TestUtils.assertEquals(expected, sink);
-                }
-        );
+    @Test
+    public void testPartitionedOOMergeOOByWeek() throws Exception {
+        testPartitionedOOMergeOO("WEEK");
     }
 
     @Test
@@ -1938,4 +1846,226 @@ public class OutOfOrderTest extends AbstractGriffinTest {
                 }
         );
     }
+
+    private void testPartitionedOOMergeOO(String partitionBy) throws Exception {
+        assertMemoryLeak(() -> {
+                    compiler.compile(
+                            "create table x_1 as (" +
+                                    "select" +
+                                    " cast(x as int) i," +
+                                    " rnd_symbol('msft','ibm', 'googl') sym," +
+                                    " round(rnd_double(0)*100, 3) amt," +
+                                    " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
+                                    " rnd_boolean() b," +
+                                    " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
+                                    " rnd_double(2) d," +
+                                    " rnd_float(2) e," +
+                                    " rnd_short(10,1024) f," +
+                                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) g," +
+                                    " rnd_symbol(4,4,4,2) ik," +
+                                    " rnd_long() j," +
+                                    " timestamp_shuffle(0,100000000000L) ts," +
+                                    " rnd_byte(2,50) l," +
+                                    " rnd_bin(10, 20, 2) m," +
+                                    " rnd_str(5,16,2) n," +
+                                    " rnd_char() t" +
+                                    " from long_sequence(1000)" +
+                                    ")",
+                            sqlExecutionContext
+                    );
+
+                    compiler.compile(
+                            "create table x as (select * from x_1 order by ts) timestamp(ts) partition by " + partitionBy,
+                            sqlExecutionContext
+                    );
+
+                    compiler.compile(
+                            "create table y as (select * from x_1) timestamp(ts) partition by " + partitionBy,
+                            sqlExecutionContext
+                    );
+
+                    final String sqlTemplate = "select i,sym,amt,timestamp,b,c,d,e,f,g,ik,ts,l,n,t,m from ";
+
+                    sink.clear();
+                    try (RecordCursorFactory factory = compiler.compile(sqlTemplate + "x", sqlExecutionContext).getRecordCursorFactory()) {
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            printer.print(cursor, factory.getMetadata(), true);
+                        }
+                    }
+
+                    String expected = Chars.toString(sink);
+
+                    sink.clear();
+                    try (RecordCursorFactory factory = compiler.compile(sqlTemplate + "y", sqlExecutionContext).getRecordCursorFactory()) {
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            printer.print(cursor, factory.getMetadata(), true);
+                        }
+                    }
+                    TestUtils.assertEquals(expected, sink);
+                }
+        );
+    }
+
+    private void executeWithColumnWorker(TestUtils.LeakProneCode code) throws Exception {
+        parallelMergeThreshold = 1;
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+        final OutOfOrderColumnJob job = new OutOfOrderColumnJob(engine.getMessageBus());
+        new Thread(() -> {
+            while (running.get()) {
+                job.run(0);
+            }
+            haltLatch.countDown();
+        }).start();
+
+        try {
+            code.run();
+        } finally {
+            running.set(false);
+            haltLatch.await();
+        }
+    }
+
+    private void testPartitionedDataMergeData0() throws Exception {
+        assertMemoryLeak(() -> {
+                    // create table with roughly 2AM data
+                    compiler.compile(
+                            "create table x as (" +
+                                    "select" +
+                                    " cast(x as int) i," +
+                                    " rnd_symbol('msft','ibm', 'googl') sym," +
+                                    " round(rnd_double(0)*100, 3) amt," +
+                                    " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
+                                    " rnd_boolean() b," +
+                                    " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
+                                    " rnd_double(2) d," +
+                                    " rnd_float(2) e," +
+                                    " rnd_short(10,1024) f," +
+                                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) g," +
+                                    " rnd_symbol(4,4,4,2) ik," +
+                                    " rnd_long() j," +
+                                    " timestamp_sequence(500000000000L,1000000L) ts," +
+                                    " rnd_byte(2,50) l," +
+                                    " rnd_bin(10, 20, 2) m," +
+                                    " rnd_str(5,16,2) n," +
+                                    " rnd_char() t" +
+                                    " from long_sequence(500)" +
+                                    ") timestamp (ts) partition by DAY",
+                            sqlExecutionContext
+                    );
+
+                    compiler.compile(
+                            "create table middle as (" +
+                                    "select" +
+                                    " cast(x as int) i," +
+                                    " rnd_symbol('msft','ibm', 'googl') sym," +
+                                    " round(rnd_double(0)*100, 3) amt," +
+                                    " to_timestamp('2018-01', 'yyyy-MM') + x * 720000000 timestamp," +
+                                    " rnd_boolean() b," +
+                                    " rnd_str('ABC', 'CDE', null, 'XYZ') c," +
+                                    " rnd_double(2) d," +
+                                    " rnd_float(2) e," +
+                                    " rnd_short(10,1024) f," +
+                                    " rnd_date(to_date('2015', 'yyyy'), to_date('2016', 'yyyy'), 2) g," +
+                                    " rnd_symbol(4,4,4,2) ik," +
+                                    " rnd_long() j," +
+                                    " timestamp_sequence(500288000000L,100000L) ts," +
+                                    " rnd_byte(2,50) l," +
+                                    " rnd_bin(10, 20, 2) m," +
+                                    " rnd_str(5,16,2) n," +
+                                    " rnd_char() t" +
+                                    " from long_sequence(100)" +
+                                    ") timestamp (ts) partition by DAY",
+                            sqlExecutionContext
+                    );
+
+
+                    // create third table, which will contain both X and 1AM
+                    compiler.compile("create table y as (x union all middle)", sqlExecutionContext);
+
+                    // expected outcome
+                    sink.clear();
+                    try (RecordCursorFactory factory = compiler.compile("y order by ts", sqlExecutionContext).getRecordCursorFactory()) {
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            printer.print(cursor, factory.getMetadata(), true);
+                        }
+                    }
+
+                    // uncomment these to look at result comparison from two queries
+                    // we are using file comparison here because of ordering issue on the identical timestamps
+//                    String expected = Chars.toString(sink);
+
+                    compiler.compile("insert into x select * from middle", sqlExecutionContext);
+
+                    // release reader
+                    engine.releaseAllReaders();
+
+                    sink.clear();
+                    try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            printer.print(cursor, factory.getMetadata(), true);
+                        }
+                    }
+
+//                    TestUtils.assertEquals(expected, sink);
+                    URL url = OutOfOrderTest.class.getResource("/oo/testPartitionedDataMergeData.txt");
+                    Assert.assertNotNull(url);
+                    TestUtils.assertEquals(new File(url.toURI()), sink);
+                }
+        );
+    }
+
+    private void testPartitionedDataMergeVarchar0() throws Exception {
+        assertMemoryLeak(() -> {
+                    compiler.compile(
+                            "create table x as (" +
+                                    "select" +
+                                    " cast(x as int) i," +
+                                    " rnd_str('ABC', 'Ωmega', null, '日本語テキスト') c," +
+                                    " timestamp_sequence(500000000000L,1000000L) ts," +
+                                    " rnd_str(5,16,2) n" +
+                                    " from long_sequence(500)" +
+                                    "), cast(c as varchar), cast(n as varchar) timestamp (ts) partition by DAY",
+                            sqlExecutionContext
+                    );
+
+                    // timestamps interleave with x without duplicates
+                    compiler.compile(
+                            "create table middle as (" +
+                                    "select" +
+                                    " cast(x as int) i," +
+                                    " rnd_str('ABC', 'Ωmega', null, '日本語テキスト') c," +
+                                    " timestamp_sequence(500288000001L,100000L) ts," +
+                                    " rnd_str(5,16,2) n" +
+                                    " from long_sequence(100)" +
+                                    "), cast(c as varchar), cast(n as varchar) timestamp (ts) partition by DAY",
+                            sqlExecutionContext
+                    );
+
+                    compiler.compile("create table y as (x union all middle)", sqlExecutionContext);
+
+                    sink.clear();
+                    try (RecordCursorFactory factory = compiler.compile("y order by ts", sqlExecutionContext).getRecordCursorFactory()) {
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            printer.print(cursor, factory.getMetadata(), true);
+                        }
+                    }
+                    final String expected = Chars.toString(sink);
+
+                    compiler.compile("insert into x select * from middle", sqlExecutionContext);
+
+                    engine.releaseAllReaders();
+
+                    sink.clear();
+                    try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                        Assert.assertEquals(ColumnType.VARCHAR, factory.getMetadata().getColumnType(1));
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            printer.print(cursor, factory.getMetadata(), true);
+                        }
+                    }
+
+                    TestUtils.assertEquals(expected, sink);
+                }
+        );
+    }
 }
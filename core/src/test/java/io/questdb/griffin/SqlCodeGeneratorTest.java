@@ -32,6 +32,7 @@ import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.griffin.engine.functions.test.TestMatchFunctionFactory;
 import io.questdb.griffin.engine.groupby.vect.GroupByJob;
+import io.questdb.griffin.engine.table.FilterOnSymbolKeysRecordCursorFactory;
 import io.questdb.mp.SOCountDownLatch;
 import io.questdb.mp.Sequence;
 import io.questdb.std.Chars;
@@ -1229,6 +1230,43 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testFilterOnSymbolKeysIn() throws Exception {
+        // served by intrinsic key values
+        assertFilterOnSymbolKeys(8, "b in ('CPSW', 'HYRX', null)", false);
+    }
+
+    @Test
+    public void testFilterOnSymbolKeysLike() throws Exception {
+        assertFilterOnSymbolKeys(8, "b like '%P%'", true);
+    }
+
+    @Test
+    public void testFilterOnSymbolKeysManyKeys() throws Exception {
+        // symbol count is above the limit, table is scanned instead of the index
+        assertFilterOnSymbolKeys(300, "b ~ '[A-Z]'", false);
+    }
+
+    @Test
+    public void testFilterOnSymbolKeysNotMatch() throws Exception {
+        assertFilterOnSymbolKeys(8, "b !~ '^[A-M]'", true);
+    }
+
+    @Test
+    public void testFilterOnSymbolKeysGreaterThan() throws Exception {
+        assertFilterOnSymbolKeys(8, "b > 'M'", true);
+    }
+
+    @Test
+    public void testFilterOnSymbolKeysLessThanOrEqual() throws Exception {
+        assertFilterOnSymbolKeys(8, "b <= 'M'", true);
+    }
+
+    @Test
+    public void testFilterOnSymbolKeysWithOtherFilter() throws Exception {
+        assertFilterOnSymbolKeys(8, "b like '%P%' and a > 50", false);
+    }
+
     @Test
     public void testFilterOnValues() throws Exception {
         final String expected1 = "a\tb\tk\n" +
@@ -1570,6 +1608,27 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
                 "supported column types are STRING and SYMBOL, found: INT");
     }
 
+    @Test
+    public void testFilterWithPartitionPruning() throws Exception {
+        // first two partitions are sealed and have column statistics
+        assertQuery("i\td\ts\tts\n" +
+                        "151\t75.5\tb\t1970-01-02T12:14:24.000000Z\n" +
+                        "152\t76.0\tb\t1970-01-02T12:28:48.000000Z\n" +
+                        "153\t76.5\tb\t1970-01-02T12:43:12.000000Z\n",
+                "select * from x where 150 < i and i <= 153 and d > 10 and s = 'b'",
+                "create table x as " +
+                        "(" +
+                        "select" +
+                        " cast(x - 1 as int) i," +
+                        " (x - 1) * 0.5 d," +
+                        " cast(case when x <= 100 then 'a' when x <= 200 then 'b' else 'c' end as symbol) s," +
+                        " timestamp_sequence(0, 864000000) ts" +
+                        " from long_sequence(300)" +
+                        ") timestamp(ts) partition by DAY",
+                "ts"
+        );
+    }
+
     @Test
     public void testFilterWrongType() throws Exception {
         assertFailure("select * from x where b - a",
@@ -5144,4 +5203,31 @@ public class SqlCodeGeneratorTest extends AbstractGriffinTest {
             }
         });
     }
+
+    private void assertFilterOnSymbolKeys(int symbolCount, String filter, boolean expectIndexScan) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(
+                    "create table x as (" +
+                            "select rnd_double(0)*100 a, rnd_symbol(" + symbolCount + ",4,4,1) b, timestamp_sequence(0, 1000000000) k" +
+                            " from long_sequence(500)" +
+                            "), index(b) timestamp(k)",
+                    sqlExecutionContext
+            );
+            compiler.compile("create table y as (select * from x) timestamp(k)", sqlExecutionContext);
+
+            final String expected;
+            try (RecordCursorFactory factory = compiler.compile("y where " + filter, sqlExecutionContext).getRecordCursorFactory()) {
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    sink.clear();
+                    printer.print(cursor, factory.getMetadata(), true);
+                    expected = sink.toString();
+                }
+            }
+
+            try (RecordCursorFactory factory = compiler.compile("x where " + filter, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertEquals(expectIndexScan, factory instanceof FilterOnSymbolKeysRecordCursorFactory);
+            }
+            printSqlResult(expected, "x where " + filter, "k", null, null, true, true, false);
+        });
+    }
 }
@@ -514,6 +514,31 @@ public class SqlParserTest extends AbstractGriffinTest {
         );
     }
 
+    @Test
+    public void testCreateMatView() throws SqlException {
+        assertCreateTable(
+                "create materialized view X as (select-group-by sym, sum(price) sum, ts from (select [sym, price, ts] from tab timestamp (ts)) sample by 1h align to calendar)",
+                "create materialized view X as (select sym, sum(price), ts from tab sample by 1h align to calendar)",
+                modelOf("tab")
+                        .col("sym", ColumnType.SYMBOL)
+                        .col("price", ColumnType.DOUBLE)
+                        .timestamp("ts")
+        );
+    }
+
+    @Test
+    public void testCreateMatViewUnexpectedToken() throws Exception {
+        assertSyntaxError(
+                "create materialized view X as (select sym, sum(price), ts from tab sample by 1h align to calendar) partition by DAY",
+                99,
+                "unexpected token",
+                modelOf("tab")
+                        .col("sym", ColumnType.SYMBOL)
+                        .col("price", ColumnType.DOUBLE)
+                        .timestamp("ts")
+        );
+    }
+
     @Test
     public void testCreateNameDot() throws Exception {
         assertSyntaxError(
@@ -1167,7 +1192,7 @@ public class SqlParserTest extends AbstractGriffinTest {
                         "timestamp(t) " +
                         "partition by EPOCH",
                 128,
-                "'NONE', 'DAY', 'MONTH' or 'YEAR' expected"
+                "'NONE', 'HOUR', 'DAY', 'WEEK', 'MONTH' or 'YEAR' expected"
         );
     }
 
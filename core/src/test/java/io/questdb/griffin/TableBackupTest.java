@@ -29,6 +29,7 @@ import io.questdb.cairo.security.AllowAllCairoSecurityContext;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
@@ -43,6 +44,8 @@ import org.junit.*;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TableBackupTest {
     private static final StringSink sink = new StringSink();
@@ -61,6 +64,7 @@ public class TableBackupTest {
     private int renameErrno;
     private int mkdirsErrno;
     private int mkdirsErrnoCountDown = 0;
+    private long maxWriteLen;
 
     @Before
     public void setup() throws IOException {
@@ -69,6 +73,7 @@ public class TableBackupTest {
         backupRoot = temp.newFolder("dbBackupRoot").getAbsolutePath();
         mkdirsErrno = -1;
         renameErrno = -1;
+        maxWriteLen = Long.MAX_VALUE;
         FilesFacade ff = new FilesFacadeImpl() {
             private int nextErrno = -1;
 
@@ -102,6 +107,12 @@ public class TableBackupTest {
                 }
                 return super.rename(from, to);
             }
+
+            @Override
+            public long write(long fd, long address, long len, long offset) {
+                // emulate OS limit on number of bytes written by single call
+                return super.write(fd, address, Math.min(len, maxWriteLen), offset);
+            }
         };
         mainConfiguration = new DefaultCairoConfiguration(root) {
             @Override
@@ -382,6 +393,141 @@ public class TableBackupTest {
         });
     }
 
+    @Test
+    public void testIncrementalBackupLinksUnchangedPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(72)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            String backupSelectAll1 = selectAll(tableName, true);
+            Assert.assertEquals(selectAll(tableName, false), backupSelectAll1);
+            final String firstBackup = finalBackupPath.toString();
+
+            // @formatter:off
+            mainCompiler.compile("insert into " + tableName +
+                    " select * from (" +
+                    " select rnd_symbol(4,4,4,2) sym, rnd_double(2) d, timestamp_sequence(255601000000, 1000000) ts from long_sequence(5)" +
+                    ") timestamp(ts)", mainSqlExecutionContext);
+            // @formatter:on
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath(1);
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            final String secondBackup = finalBackupPath.toString();
+
+            // partitions, which did not change, are shared with previous backup
+            Assert.assertTrue(isSameFile(firstBackup, secondBackup, tableName, "1970-01-01", "d.d"));
+            Assert.assertTrue(isSameFile(firstBackup, secondBackup, tableName, "1970-01-02", "sym.d"));
+            Assert.assertFalse(isSameFile(firstBackup, secondBackup, tableName, "1970-01-03", "d.d"));
+
+            setFinalBackupPath();
+            Assert.assertEquals(backupSelectAll1, selectAll(tableName, true));
+        });
+    }
+
+    @Test
+    public void testPartialWrites() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_str(2,4,2) s," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 1000000000) ts" +
+                    " from long_sequence(1000)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            maxWriteLen = 13;
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+        });
+    }
+
+    @Test
+    public void testIncrementalBackupCopiesRewrittenPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_double(2) d," +
+                    " timestamp_sequence(0, 3600000000) ts" +
+                    " from long_sequence(72)) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath();
+            final String firstBackup = finalBackupPath.toString();
+
+            // the same number of rows is removed and appended again, partition keeps its size
+            try (TableWriter writer = mainEngine.getWriter(AllowAllCairoSecurityContext.INSTANCE, tableName)) {
+                final long lo = 66 * 3600000000L;
+                Assert.assertTrue(writer.removeRows(lo));
+                for (int i = 0; i < 6; i++) {
+                    TableWriter.Row row = writer.newRow(lo + i * 3600000000L);
+                    row.putSym(0, "ABC");
+                    row.putDouble(1, i);
+                    row.append();
+                }
+                writer.commit();
+            }
+
+            mainCompiler.compile("backup table " + tableName, mainSqlExecutionContext);
+            setFinalBackupPath(1);
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            Assert.assertFalse(isSameFile(firstBackup, finalBackupPath.toString(), tableName, "1970-01-03", "d.d"));
+        });
+    }
+
+    @Test
+    public void testParallelBackup() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = "testTable1";
+            // @formatter:off
+            mainCompiler.compile("create table " + tableName + " as (select" +
+                    " rnd_symbol(4,4,4,2) sym," +
+                    " rnd_str(3,10,2) s," +
+                    " rnd_long() l," +
+                    " timestamp_sequence(0, 600000000) ts" +
+                    " from long_sequence(5000)), index(sym) timestamp(ts) partition by DAY", mainSqlExecutionContext);
+            // @formatter:on
+
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final SOCountDownLatch haltLatch = new SOCountDownLatch(1);
+            final TableBackupJob job = new TableBackupJob(mainEngine.getMessageBus());
+            new Thread(() -> {
+                while (running.get()) {
+                    job.run(0);
+                }
+                haltLatch.countDown();
+            }).start();
+
+            try {
+                final SqlExecutionContext executionContext = new SqlExecutionContextImpl(mainEngine, 4)
+                        .with(AllowAllCairoSecurityContext.INSTANCE, new BindVariableServiceImpl(mainConfiguration), null, -1, null);
+                mainCompiler.compile("backup table " + tableName, executionContext);
+            } finally {
+                running.set(false);
+                haltLatch.await();
+            }
+
+            setFinalBackupPath();
+            Assert.assertEquals(selectAll(tableName, false), selectAll(tableName, true));
+            // index files are copied along with column files
+            Assert.assertEquals(selectAll(tableName + " latest by sym", false), selectAll(tableName + " latest by sym", true));
+        });
+    }
+
     @Test
     public void testSuccessiveBackups() throws Exception {
         assertMemoryLeak(() -> {
@@ -484,6 +630,13 @@ public class TableBackupTest {
         });
     }
 
+    private static boolean isSameFile(String backup1, String backup2, String tableName, String partition, String fileName) throws IOException {
+        return java.nio.file.Files.isSameFile(
+                Paths.get(backup1, tableName, partition, fileName),
+                Paths.get(backup2, tableName, partition, fileName)
+        );
+    }
+
     private String selectAll(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String tableName) throws Exception {
         CompiledQuery compiledQuery = compiler.compile("select * from " + tableName, sqlExecutionContext);
         try (RecordCursorFactory factory = compiledQuery.getRecordCursorFactory(); RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+package io.questdb.griffin;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.str.Path;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VarcharTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAddColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (i int, ts timestamp) timestamp(ts) partition by DAY", sqlExecutionContext);
+            executeInsert("insert into x values (1, 0)");
+            compiler.compile("alter table x add column v varchar", sqlExecutionContext);
+            executeInsert("insert into x values (2, 3600000000, 'added')");
+            executeInsert("insert into x values (3, 86400000000, 'ünïcödé')");
+
+            assertSql(
+                    "x",
+                    "i\tts\tv\n" +
+                            "1\t1970-01-01T00:00:00.000000Z\t\n" +
+                            "2\t1970-01-01T01:00:00.000000Z\tadded\n" +
+                            "3\t1970-01-02T00:00:00.000000Z\tünïcödé\n"
+            );
+        });
+    }
+
+    @Test
+    public void testCastFromString() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(
+                    "create table y as (" +
+                            "select" +
+                            " rnd_str(5,16,2) s," +
+                            " rnd_str('ABC', 'Ωmega', null, '日本') c," +
+                            " rnd_long() l," +
+                            " timestamp_sequence(0, 1000000000) ts" +
+                            " from long_sequence(200)" +
+                            ") timestamp (ts) partition by HOUR",
+                    sqlExecutionContext
+            );
+            compiler.compile("create table x as (y), cast(s as varchar), cast(c as varchar)", sqlExecutionContext);
+
+            final String expected = print("y");
+            TestUtils.assertEquals(expected, print("x"));
+
+            try (RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertEquals(ColumnType.VARCHAR, factory.getMetadata().getColumnType(0));
+                Assert.assertEquals(ColumnType.VARCHAR, factory.getMetadata().getColumnType(1));
+            }
+
+            // and back to string
+            compiler.compile("create table z as (x), cast(s as string), cast(c as string)", sqlExecutionContext);
+            TestUtils.assertEquals(expected, print("z"));
+        });
+    }
+
+    @Test
+    public void testFilterGroupAndOrder() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (k varchar, v int, ts timestamp) timestamp(ts)", sqlExecutionContext);
+            executeInsert("insert into x values ('beta', 1, 0)");
+            executeInsert("insert into x values ('alpha', 2, 1000000)");
+            executeInsert("insert into x values ('ßeta', 3, 2000000)");
+            executeInsert("insert into x values ('beta', 4, 3000000)");
+            executeInsert("insert into x values (null, 5, 4000000)");
+
+            assertSql(
+                    "select k, sum(v) from x order by k",
+                    "k\tsum\n" +
+                            "\t5\n" +
+                            "alpha\t2\n" +
+                            "beta\t5\n" +
+                            "ßeta\t3\n"
+            );
+
+            assertSql(
+                    "select v from x where k = 'beta'",
+                    "v\n" +
+                            "1\n" +
+                            "4\n"
+            );
+
+            assertSql(
+                    "select v from x where k like 'ß%'",
+                    "v\n" +
+                            "3\n"
+            );
+
+            assertSql(
+                    "select v from x where k = null",
+                    "v\n" +
+                            "5\n"
+            );
+        });
+    }
+
+    @Test
+    public void testInsertAndSelect() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (s varchar, ts timestamp) timestamp(ts)", sqlExecutionContext);
+            executeInsert("insert into x values ('order-0001', 0)");
+            executeInsert("insert into x values (null, 1000000)");
+            executeInsert("insert into x values ('', 2000000)");
+            executeInsert("insert into x values ('héllo wörld', 3000000)");
+            executeInsert("insert into x values ('日本語', 4000000)");
+            executeInsert("insert into x values ('𝄞 clef', 5000000)");
+
+            assertSql(
+                    "select s, length(s) len from x",
+                    "s\tlen\n" +
+                            "order-0001\t10\n" +
+                            "\t-1\n" +
+                            "\t-1\n" +
+                            "héllo wörld\t11\n" +
+                            "日本語\t3\n" +
+                            "𝄞 clef\t7\n"
+            );
+        });
+    }
+
+    @Test
+    public void testStorageIsUtf8() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile("create table x (s varchar, t string)", sqlExecutionContext);
+            executeInsert("insert into x values ('abc', 'abc')");
+            executeInsert("insert into x values ('日本', '日本')");
+            executeInsert("insert into x values (null, null)");
+            engine.releaseAllWriters();
+
+            try (Path path = new Path()) {
+                path.of(configuration.getRoot()).concat("x").concat("default");
+                final int plen = path.length();
+                // int header followed by UTF-8 bytes
+                Assert.assertEquals(4 + 3 + 4 + 6 + 4, FilesFacadeImpl.INSTANCE.length(path.concat("s.d").$()));
+                // int length followed by UTF-16 chars
+                Assert.assertEquals(4 + 6 + 4 + 4 + 4, FilesFacadeImpl.INSTANCE.length(path.trimTo(plen).concat("t.d").$()));
+            }
+
+            assertSql(
+                    "x",
+                    "s\tt\n" +
+                            "abc\tabc\n" +
+                            "日本\t日本\n" +
+                            "\t\n"
+            );
+        });
+    }
+
+    private void assertSql(String sql, String expected) throws SqlException {
+        TestUtils.assertEquals(expected, print(sql));
+    }
+
+    private String print(String sql) throws SqlException {
+        sink.clear();
+        try (RecordCursorFactory factory = compiler.compile(sql, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                printer.print(cursor, factory.getMetadata(), true);
+            }
+        }
+        return Chars.toString(sink);
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.date;
+
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.AbstractFunctionFactoryTest;
+import io.questdb.griffin.engine.functions.math.NegIntFunctionFactory;
+import io.questdb.std.Numbers;
+import org.junit.Test;
+
+public class TimestampFloorFunctionFactoryTest extends AbstractFunctionFactoryTest {
+
+    @Test
+    public void testDay() throws SqlException {
+        call('d', 1587275359886758L).andAssertTimestamp(1587254400000000L);
+    }
+
+    @Test
+    public void testDayNegative() throws SqlException {
+        call('d', -1L).andAssertTimestamp(-86400000000L);
+    }
+
+    @Test
+    public void testHour() throws SqlException {
+        call('h', 1587275359886758L).andAssertTimestamp(1587272400000000L);
+    }
+
+    @Test
+    public void testInvalidUnit() {
+        assertFailure(16, "invalid unit 'q'", 'q', 1587275359886758L);
+    }
+
+    @Test
+    public void testMinute() throws SqlException {
+        call('m', 1587275359886758L).andAssertTimestamp(1587275340000000L);
+    }
+
+    @Test
+    public void testMinuteNegative() throws SqlException {
+        call('m', -60000001L).andAssertTimestamp(-120000000L);
+    }
+
+    @Test
+    public void testMinuteNegativeExact() throws SqlException {
+        call('m', -60000000L).andAssertTimestamp(-60000000L);
+    }
+
+    @Test
+    public void testMonth() throws SqlException {
+        call('M', 1587275359886758L).andAssertTimestamp(1585699200000000L);
+    }
+
+    @Test
+    public void testNull() throws SqlException {
+        call('m', Numbers.LONG_NaN).andAssertTimestamp(Numbers.LONG_NaN);
+    }
+
+    @Test
+    public void testSecond() throws SqlException {
+        call('s', 1587275359886758L).andAssertTimestamp(1587275359000000L);
+    }
+
+    @Test
+    public void testYear() throws SqlException {
+        call('y', 1587275359886758L).andAssertTimestamp(1577836800000000L);
+    }
+
+    @Override
+    protected void addExtraFunctions() {
+        functions.add(new NegIntFunctionFactory());
+    }
+
+    @Override
+    protected FunctionFactory getFunctionFactory() {
+        return new TimestampFloorFunctionFactory();
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.lt;
+
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.AbstractFunctionFactoryTest;
+import org.junit.Test;
+
+public class LtSymStrFunctionFactoryTest extends AbstractFunctionFactoryTest {
+
+    @Test
+    public void testGreaterThanOrEqualTo() throws SqlException {
+        callBySignature(">=(Ks)", "ABC", "ABC").andAssert(true);
+        callBySignature(">=(Ks)", "ABC", "ABD").andAssert(false);
+        callBySignature(">=(Ks)", "ABD", "ABC").andAssert(true);
+    }
+
+    @Test
+    public void testLessThan() throws SqlException {
+        callBySignature("<(Ks)", "ABC", "ABC").andAssert(false);
+        callBySignature("<(Ks)", "ABC", "ABD").andAssert(true);
+        callBySignature("<(Ks)", "ABD", "ABC").andAssert(false);
+        callBySignature("<(Ks)", "AB", "ABC").andAssert(true);
+    }
+
+    @Test
+    public void testStrGreaterThan() throws SqlException {
+        callBySignature(">(sK)", "ABC", "ABC").andAssert(false);
+        callBySignature(">(sK)", "ABD", "ABC").andAssert(true);
+        callBySignature(">(sK)", "ABC", "ABD").andAssert(false);
+    }
+
+    @Test
+    public void testStrLessThanOrEqualTo() throws SqlException {
+        callBySignature("<=(sK)", "ABC", "ABC").andAssert(true);
+        callBySignature("<=(sK)", "ABC", "ABD").andAssert(true);
+        callBySignature("<=(sK)", "ABD", "ABC").andAssert(false);
+    }
+
+    @Override
+    protected FunctionFactory getFunctionFactory() {
+        return new LtSymStrFunctionFactory();
+    }
+}
@@ -101,4 +101,31 @@ public class MatchStrFunctionFactoryTest extends AbstractGriffinTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSymbol() throws Exception {
+        assertMemoryLeak(() -> assertSameAsStr(
+                "select s from x where s ~ '^[xa]b'",
+                "select s from x where cast(s as string) ~ '^[xa]b'"
+        ));
+    }
+
+    private void assertSameAsStr(String symQuery, String strQuery) throws SqlException {
+        compiler.compile("create table x as (select rnd_symbol('abc', 'xabcy', 'ABC', 'zz', null) s from long_sequence(200))", sqlExecutionContext);
+        final String expected;
+        try (RecordCursorFactory factory = compiler.compile(strQuery, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                expected = sink.toString();
+            }
+        }
+        try (RecordCursorFactory factory = compiler.compile(symQuery, sqlExecutionContext).getRecordCursorFactory()) {
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                TestUtils.assertEquals(expected, sink);
+            }
+        }
+    }
+}
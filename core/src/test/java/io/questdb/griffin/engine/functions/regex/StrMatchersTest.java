@@ -0,0 +1,115 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.std.Rnd;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+public class StrMatchersTest {
+
+    @Test
+    public void testLike() {
+        assertLike("abc", "abc", true);
+        assertLike("abc", "abcd", false);
+        assertLike("ab%", "abcd", true);
+        assertLike("ab%", "a", false);
+        assertLike("%cd", "abcd", true);
+        assertLike("%cd", "d", false);
+        assertLike("%bc%", "abcd", true);
+        assertLike("%bc%", "acbd", false);
+        assertLike("%", "", true);
+        assertLike("%%", "x", true);
+        assertLike("a%c", "ac", true);
+        assertLike("a%c", "abcbc", true);
+        assertLike("a%c", "abcb", false);
+        assertLike("a%b%a", "ab", false);
+        assertLike("a%b%a", "abba", true);
+        assertLike("_b_", "abc", true);
+        assertLike("_b_", "abcd", false);
+        assertLike("%a_c%", "xxabcyy", true);
+        assertLike("%.*%", "a.*b", true);
+        assertLike("%.*%", "ab", false);
+    }
+
+    @Test
+    public void testLikeRandom() {
+        final Rnd rnd = new Rnd();
+        for (int i = 0; i < 10_000; i++) {
+            final String pattern = rndStr(rnd, "ab%_", 6);
+            final String value = rndStr(rnd, "abc", 8);
+            assertLike(pattern, value, toRegex(pattern).matcher(value).matches());
+        }
+    }
+
+    @Test
+    public void testRegex() {
+        assertRegex("bc");
+        assertRegex("^ab");
+        assertRegex("^");
+        assertRegex("b");
+        assertRegex("c$");
+        assertRegex("^abc$");
+        assertRegex("a.c");
+        assertRegex("(?i)AB");
+    }
+
+    private static void assertLike(String pattern, String value, boolean expected) {
+        Assert.assertEquals(pattern + " like " + value, expected, StrMatchers.like(pattern).matches(value));
+    }
+
+    private static void assertRegex(String regex) {
+        final StrMatcher matcher = StrMatchers.regex(regex);
+        final Pattern pattern = Pattern.compile(regex);
+        for (String value : new String[]{"", "a", "abc", "xabcx", "bcb", "cab"}) {
+            Assert.assertEquals(regex + " ~ " + value, pattern.matcher(value).find(), matcher.matches(value));
+        }
+    }
+
+    private static String rndStr(Rnd rnd, String chars, int maxLen) {
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0, n = rnd.nextPositiveInt() % (maxLen + 1); i < n; i++) {
+            b.append(chars.charAt(rnd.nextPositiveInt() % chars.length()));
+        }
+        return b.toString();
+    }
+
+    private static Pattern toRegex(String pattern) {
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0, n = pattern.length(); i < n; i++) {
+            final char c = pattern.charAt(i);
+            if (c == '%') {
+                b.append(".*");
+            } else if (c == '_') {
+                b.append('.');
+            } else {
+                b.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(b.toString(), Pattern.DOTALL);
+    }
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlExecutionContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelSampleByRecordCursorFactoryTest extends AbstractGriffinTest {
+    private static final String DDL = "create table x as (" +
+            "select" +
+            " rnd_symbol('AB','CD','EF') sym," +
+            " rnd_double() price," +
+            " rnd_long(0, 100, 0) qty," +
+            " rnd_str('a','b') str," +
+            " timestamp_sequence(17000000, 600000000) ts" +
+            " from long_sequence(3000)" +
+            ") timestamp(ts) partition by DAY";
+
+    @Test
+    public void testSampleByFillNone() throws Exception {
+        assertParallel("select sym, sum(price), max(qty), count() from x sample by 1h");
+    }
+
+    @Test
+    public void testSampleByFillNoneNotKeyed() throws Exception {
+        assertParallel("select first(price), last(price), min(qty), avg(price) from x sample by 1d");
+    }
+
+    @Test
+    public void testSampleByFillNoneTableScanIsParallel() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try (RecordCursorFactory factory = compiler.compile("select sym, sum(price) from x sample by 1h", newParallelContext(engine)).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof SampleByFillNoneRecordCursorFactory);
+                Assert.assertTrue(((SampleByFillNoneRecordCursorFactory) factory).base instanceof ParallelSampleByRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testSampleByFillNull() throws Exception {
+        assertParallel("select sym, avg(price), min(qty) from x sample by 3h fill(null)");
+    }
+
+    @Test
+    public void testSampleByFillPrev() throws Exception {
+        assertParallel("select sym, max(price), sum(qty) from x sample by 2h fill(prev)");
+    }
+
+    @Test
+    public void testSampleByFillValue() throws Exception {
+        assertParallel("select sym, sum(price), count() from x sample by 30m fill(20.56, 10)");
+    }
+
+    @Test
+    public void testSampleByInterval() throws Exception {
+        assertParallel("select sym, sum(qty) from x where ts > '1970-01-05T10:00:00.000000Z' and ts < '1970-01-09T00:00:00.000000Z' sample by 90m fill(prev)");
+    }
+
+    @Test
+    public void testSingleWorkerFallsBack() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try (RecordCursorFactory factory = compiler.compile("select sym, sum(price) from x sample by 1h", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof SampleByFillNoneRecordCursorFactory);
+                Assert.assertFalse(((SampleByFillNoneRecordCursorFactory) factory).base instanceof ParallelSampleByRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testStringKeyFallsBack() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try (RecordCursorFactory factory = compiler.compile("select str, sum(price) from x sample by 1h", newParallelContext(engine)).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof SampleByFillNoneRecordCursorFactory);
+                Assert.assertFalse(((SampleByFillNoneRecordCursorFactory) factory).base instanceof ParallelSampleByRecordCursorFactory);
+            }
+        });
+    }
+
+    private static void assertParallel(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+
+            final String expected;
+            try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    sink.clear();
+                    printer.print(cursor, factory.getMetadata(), true);
+                    expected = sink.toString();
+                }
+            }
+
+            // small ranges make sure buckets have to be stitched across partitions and ranges
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public int getParallelSampleByTaskRowCount() {
+                    return 50;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    SqlCompiler compiler = new SqlCompiler(engine)
+            ) {
+                runWithBackgroundJob(
+                        new ParallelSampleByJob(engine.getMessageBus()),
+                        engine.getMessageBus().getParallelSampleBySubSequence(),
+                        () -> {
+                            final SqlExecutionContext parallelContext = newParallelContext(engine);
+                            try (RecordCursorFactory factory = compiler.compile(query, parallelContext).getRecordCursorFactory()) {
+                                Assert.assertTrue(expected.length() > 20);
+                                assertCursor(expected, factory, false, true, false, false, parallelContext);
+                            }
+                        }
+                );
+            }
+        });
+    }
+}
@@ -1865,6 +1865,29 @@ public class SampleByTest extends AbstractGriffinTest {
                 false);
     }
 
+    @Test
+    public void testSampleFillNoneAlignToCalendar() throws Exception {
+        assertQuery("b\tsum\tk\n" +
+                        "VTJW\t93.4460485739401\t1970-01-03T00:00:00.000000Z\n" +
+                        "CPSW\t98.56290845874263\t1970-01-03T00:00:00.000000Z\n" +
+                        "VTJW\t159.9592943284391\t1970-01-03T01:00:00.000000Z\n" +
+                        "VTJW\t100.66741466518712\t1970-01-03T02:00:00.000000Z\n" +
+                        "CPSW\t19.85581797355932\t1970-01-03T02:00:00.000000Z\n" +
+                        "CPSW\t85.39929958113451\t1970-01-03T03:00:00.000000Z\n",
+                "select b, sum(a), k from x sample by 1h align to calendar",
+                "create table x as " +
+                        "(" +
+                        "select" +
+                        " rnd_double(0)*100 a," +
+                        " rnd_symbol(2,4,4,0) b," +
+                        " timestamp_sequence(174600000000, 1200000000) k" +
+                        " from" +
+                        " long_sequence(10)" +
+                        ") timestamp(k) partition by NONE",
+                "k",
+                false);
+    }
+
     @Test
     public void testSampleFillNoneNotKeyed() throws Exception {
         assertQuery("sum\tk\n" +
@@ -1908,6 +1931,26 @@ public class SampleByTest extends AbstractGriffinTest {
                 false);
     }
 
+    @Test
+    public void testSampleFillNoneNotKeyedAlignToCalendar() throws Exception {
+        assertQuery("sum\tk\n" +
+                        "88.91920523224461\t1970-01-03T00:00:00.000000Z\n" +
+                        "152.58101421793862\t1970-01-03T01:00:00.000000Z\n" +
+                        "133.4733396433508\t1970-01-03T02:00:00.000000Z\n" +
+                        "45.85350049440533\t1970-01-03T03:00:00.000000Z\n",
+                "select sum(a), k from x sample by 1h align to calendar",
+                "create table x as " +
+                        "(" +
+                        "select" +
+                        " rnd_double(0)*100 a," +
+                        " timestamp_sequence(174600000000, 1200000000) k" +
+                        " from" +
+                        " long_sequence(10)" +
+                        ") timestamp(k) partition by NONE",
+                "k",
+                false);
+    }
+
     @Test
     public void testSampleFillNoneNotKeyedEmpty() throws Exception {
         assertQuery("sum\tk\n",
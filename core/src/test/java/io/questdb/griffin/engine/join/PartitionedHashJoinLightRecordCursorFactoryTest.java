@@ -0,0 +1,222 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.Sequence;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+public class PartitionedHashJoinLightRecordCursorFactoryTest extends AbstractGriffinTest {
+    private static final String DDL_A = "create table a as (" +
+            "select" +
+            " rnd_int(0, 200, 2) id," +
+            " rnd_symbol('AB','CD','EF', null) sym," +
+            " rnd_str(3, 5, 2) s," +
+            " rnd_double() price," +
+            " timestamp_sequence(0, 1000000) ts" +
+            " from long_sequence(2000)" +
+            ") timestamp(ts) partition by HOUR";
+    private static final String DDL_B = "create table b as (" +
+            "select" +
+            " rnd_int(0, 200, 2) b_id," +
+            " rnd_symbol('AB','CD','EF', null) b_sym," +
+            " rnd_str(3, 5, 2) b_s," +
+            " rnd_long() qty," +
+            " timestamp_sequence(0, 2000000) b_ts" +
+            " from long_sequence(1500)" +
+            ") timestamp(b_ts) partition by HOUR";
+
+    @Test
+    public void testDisabledFallsBack() throws Exception {
+        assertSpills("select * from a join b on a.id = b.b_id order by ts, b_ts", false, false);
+    }
+
+    @Test
+    public void testInnerJoinIsPartitioned() throws Exception {
+        assertSpills("select * from a join b on a.id = b.b_id order by ts, b_ts", true, true);
+    }
+
+    @Test
+    public void testJoinOnInt() throws Exception {
+        assertPartitioned("select a.id, a.price, b.qty, b.b_ts, a.ts from a join b on a.id = b.b_id order by ts, b_ts", 8, Long.MAX_VALUE, false);
+    }
+
+    @Test
+    public void testJoinOnStringAndSymbol() throws Exception {
+        assertPartitioned("select a.s, a.sym, a.id, b.b_id, b.qty, a.ts, b.b_ts from a join b on a.sym = b.b_sym and a.s = b.b_s order by ts, b_ts", 4, Long.MAX_VALUE, false);
+    }
+
+    @Test
+    public void testJoinOnWorkers() throws Exception {
+        assertPartitioned("select a.id, a.sym, b.qty, a.ts, b.b_ts from a join b on a.id = b.b_id where b.qty > 0 order by ts, b_ts", 32, Long.MAX_VALUE, true);
+    }
+
+    @Test
+    public void testJoinOrderedByMasterTimestamp() throws Exception {
+        // join result has no designated timestamp, so that it is sorted rather than taken as is
+        assertPartitioned("select a.ts, a.id, b.qty from a join b on a.id = b.b_id order by ts", 16, Long.MAX_VALUE, false);
+    }
+
+    @Test
+    public void testJoinSinglePartition() throws Exception {
+        assertPartitioned("select a.id, b.qty, a.ts, b.b_ts from a join b on a.id = b.b_id and a.sym = b.b_sym order by ts, b_ts", 1, Long.MAX_VALUE, false);
+    }
+
+    @Test
+    public void testJoinSpills() throws Exception {
+        assertPartitioned("select a.id, a.sym, b.b_sym, b.qty, a.ts, b.b_ts from a join b on a.id = b.b_id order by ts, b_ts", 16, 1, false);
+    }
+
+    @Test
+    public void testJoinSpillsOnWorkers() throws Exception {
+        assertPartitioned("select a.s, b.qty, b.b_ts, a.ts from a join b on a.s = b.b_s order by ts, b_ts", 16, 64 * 1024, true);
+    }
+
+    @Test
+    public void testLimitedJoinIsNotPartitioned() throws Exception {
+        assertSpills("select * from (select * from a join b on a.id = b.b_id limit 100) order by ts, b_ts", true, false);
+    }
+
+    @Test
+    public void testOuterJoinIsNotPartitioned() throws Exception {
+        assertSpills("select * from a left join b on a.id = b.b_id order by ts, b_ts", true, false);
+    }
+
+    @Test
+    public void testUnorderedJoinIsNotPartitioned() throws Exception {
+        // rows would come out grouped by partition rather than in order of master rows
+        assertSpills("select * from a join b on a.id = b.b_id", true, false);
+    }
+
+    private static void assertPartitioned(String query, int partitionCount, long spillThreshold, boolean workers) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL_A, sqlExecutionContext);
+            compiler.compile(DDL_B, sqlExecutionContext);
+
+            final String expected;
+            final CairoConfiguration lightJoinConfiguration = new DefaultCairoConfiguration(root) {
+                @Override
+                public boolean isPartitionedHashJoinEnabled() {
+                    return false;
+                }
+            };
+            try (
+                    CairoEngine engine = new CairoEngine(lightJoinConfiguration);
+                    SqlCompiler compiler = new SqlCompiler(engine);
+                    RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                sink.clear();
+                printer.print(cursor, factory.getMetadata(), true);
+                expected = sink.toString();
+            }
+
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public int getPartitionedHashJoinPartitionCount() {
+                    return partitionCount;
+                }
+
+                @Override
+                public long getPartitionedHashJoinSpillThreshold() {
+                    return spillThreshold;
+                }
+            };
+
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    SqlCompiler compiler = new SqlCompiler(engine)
+            ) {
+                final TestUtils.LeakProneCode code = () -> {
+                    final SqlExecutionContext executionContext = workers ? newParallelContext(engine) : sqlExecutionContext;
+                    try (RecordCursorFactory factory = compiler.compile(query, executionContext).getRecordCursorFactory()) {
+                        Assert.assertTrue(expected.length() > 100);
+                        try (RecordCursor ignored = factory.getCursor(executionContext)) {
+                            Assert.assertEquals(spillThreshold < Long.MAX_VALUE, listSpillFiles().length > 0);
+                        }
+                        assertCursor(expected, factory, true, true, false, false, executionContext);
+                    }
+                };
+
+                final Sequence subSequence = engine.getMessageBus().getHashJoinBuildSubSequence();
+                if (workers) {
+                    runWithBackgroundJob(new HashJoinBuildJob(engine.getMessageBus()), subSequence, code);
+                } else {
+                    drainQueue(subSequence);
+                    code.run();
+                }
+            }
+
+            // spill files are removed with the cursor
+            Assert.assertEquals(0, listSpillFiles().length);
+        });
+    }
+
+    private static void assertSpills(String query, boolean enabled, boolean expectSpill) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL_A, sqlExecutionContext);
+            compiler.compile(DDL_B, sqlExecutionContext);
+            // every partition of partitioned join spills, other joins leave no files behind
+            final CairoConfiguration configuration = new DefaultCairoConfiguration(root) {
+                @Override
+                public long getPartitionedHashJoinSpillThreshold() {
+                    return 1;
+                }
+
+                @Override
+                public boolean isPartitionedHashJoinEnabled() {
+                    return enabled;
+                }
+            };
+            try (
+                    CairoEngine engine = new CairoEngine(configuration);
+                    SqlCompiler compiler = new SqlCompiler(engine);
+                    RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                    RecordCursor ignored = factory.getCursor(sqlExecutionContext)
+            ) {
+                Assert.assertEquals(expectSpill, listSpillFiles().length > 0);
+            }
+            Assert.assertEquals(0, listSpillFiles().length);
+        });
+    }
+
+    private static String[] listSpillFiles() {
+        final String[] files = new File(root.toString()).list((dir, name) -> name.startsWith(".hash_join_"));
+        Assert.assertNotNull(files);
+        return files;
+    }
+}
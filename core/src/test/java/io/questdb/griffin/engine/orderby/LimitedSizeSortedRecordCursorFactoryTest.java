@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlException;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LimitedSizeSortedRecordCursorFactoryTest extends AbstractGriffinTest {
+    private static final String DDL = "create table x as (" +
+            "select" +
+            " rnd_int(0, 20, 0) a," +
+            " rnd_double(2) b," +
+            " rnd_str(3, 5, 2) s," +
+            " rnd_symbol('AB', 'CD', 'EF', null) sym," +
+            " timestamp_sequence(0, 1000000) ts" +
+            " from long_sequence(10000)" +
+            ") timestamp(ts) partition by DAY";
+
+    @Test
+    public void testBindVariableLimit() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            final String expected = printTopRows("select * from x order by b desc", 0, 15);
+            bindVariableService.clear();
+            bindVariableService.setLong("lim", 15);
+            assertSql("select * from x order by b desc limit :lim", expected);
+
+            // negative bind variable value falls back to sorting all rows
+            bindVariableService.setLong("lim", -15);
+            assertSql("select * from x order by b desc limit :lim", printBottomRows("select * from x order by b desc", 15));
+        });
+    }
+
+    @Test
+    public void testLimitLoHi() throws Exception {
+        assertTopRows("select * from x order by a, s", 20, 40);
+    }
+
+    @Test
+    public void testLimitLoHiNotRandomAccess() throws Exception {
+        assertTopRows("(x union all x) order by sym, a desc", 300, 350);
+    }
+
+    @Test
+    public void testLimitNegative() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            assertSql("select * from x order by b limit -7", printBottomRows("select * from x order by b", 7));
+        });
+    }
+
+    @Test
+    public void testLimitZero() throws Exception {
+        assertTopRows("select * from x order by a", 0, 0);
+    }
+
+    @Test
+    public void testNotRandomAccessTies() throws Exception {
+        assertTopRows("(x union all x) order by a", 0, 450);
+    }
+
+    @Test
+    public void testNotRandomAccessTiesDesc() throws Exception {
+        assertTopRows("(x union all x) order by a desc, s", 0, 5);
+    }
+
+    @Test
+    public void testRecordChainCompaction() throws Exception {
+        // every row makes it into top rows, evicted rows outgrow record chain page
+        assertMemoryLeak(() -> {
+            compiler.compile("create table y as (select rnd_str(50, 60, 0) s, timestamp_sequence(0, 1000) ts from long_sequence(200000)) timestamp(ts)", sqlExecutionContext);
+            final String query = "(y union all y) order by ts desc";
+            assertSql(query + " limit 11", printTopRows(query, 0, 11));
+        });
+    }
+
+    @Test
+    public void testTies() throws Exception {
+        // few distinct values, most of rows compare equal to the last row
+        assertTopRows("select * from x order by a", 0, 900);
+    }
+
+    @Test
+    public void testTiesDesc() throws Exception {
+        assertTopRows("select * from x order by a desc", 0, 3);
+    }
+
+    @Test
+    public void testTopDouble() throws Exception {
+        assertTopRows("select * from x order by b desc", 0, 10);
+    }
+
+    @Test
+    public void testTopMoreThanRows() throws Exception {
+        assertTopRows("select * from x order by sym, s desc", 0, 20000);
+    }
+
+    @Test
+    public void testTopString() throws Exception {
+        assertTopRows("select * from x where a > 5 order by s", 0, 25);
+    }
+
+    private static void assertSql(String query, String expected) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            TestUtils.assertEquals(expected, sink);
+
+            // cursor is re-iterable
+            cursor.toTop();
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            TestUtils.assertEquals(expected, sink);
+        }
+    }
+
+    private static void assertTopRows(String query, int lo, int hi) throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            final String expected = printTopRows(query, lo, hi);
+            if (lo == 0) {
+                assertSql(query + " limit " + hi, expected);
+            } else {
+                assertSql(query + " limit " + lo + "," + hi, expected);
+            }
+        });
+    }
+
+    // header and last "count" rows of fully sorted result set
+    private static String printBottomRows(String query, int count) throws SqlException {
+        final String[] lines = printAll(query);
+        return join(lines, Math.max(1, lines.length - count), lines.length);
+    }
+
+    private static String[] printAll(String query) throws SqlException {
+        try (
+                RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory();
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            sink.clear();
+            printer.print(cursor, factory.getMetadata(), true);
+            final String[] lines = sink.toString().split("\n");
+            Assert.assertTrue(lines.length > 1);
+            return lines;
+        }
+    }
+
+    // header and rows [lo, hi) of fully sorted result set
+    private static String printTopRows(String query, int lo, int hi) throws SqlException {
+        final String[] lines = printAll(query);
+        return join(lines, Math.min(lo + 1, lines.length), Math.min(hi + 1, lines.length));
+    }
+
+    private static String join(String[] lines, int lo, int hi) {
+        final StringBuilder b = new StringBuilder(lines[0]).append('\n');
+        for (int i = lo; i < hi; i++) {
+            b.append(lines[i]).append('\n');
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.AbstractGriffinTest;
+import io.questdb.griffin.SqlExecutionContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelFilteredRecordCursorFactoryTest extends AbstractGriffinTest {
+    private static final String DDL = "create table x as (" +
+            "select" +
+            " rnd_symbol('AB','CD','EF') sym," +
+            " rnd_double() price," +
+            " rnd_long(0, 100, 0) qty," +
+            " timestamp_sequence(0, 3600000000) ts" +
+            " from long_sequence(3000)" +
+            ") timestamp(ts) partition by DAY";
+
+    @Test
+    public void testFilterBatchColumnTop() throws Exception {
+        assertParallel(
+                "select * from y where v + 1 > 90 or v * 2 = 20 or price / 2 < 0.01",
+                "create table y as (" +
+                        "select" +
+                        " rnd_double() price," +
+                        " timestamp_sequence(0, 10000000) ts" +
+                        " from long_sequence(20000)" +
+                        ") timestamp(ts) partition by DAY",
+                "alter table y add column v int",
+                "insert into y select" +
+                        " rnd_double()," +
+                        " timestamp_sequence(200000000000, 10000000)," +
+                        " rnd_int(0, 100, 2)" +
+                        " from long_sequence(5000)"
+        );
+    }
+
+    @Test
+    public void testFilterBatchNulls() throws Exception {
+        assertParallel(
+                "select * from z where i - 50 < price * 100 and not(i = 42) and l - i <> 7",
+                "create table z as (" +
+                        "select" +
+                        " rnd_double(2) price," +
+                        " rnd_int(0, 100, 2) i," +
+                        " rnd_long(0, 100, 2) l," +
+                        " timestamp_sequence(0, 10000000) ts" +
+                        " from long_sequence(20000)" +
+                        ") timestamp(ts) partition by DAY"
+        );
+    }
+
+    @Test
+    public void testFilterDoubleAndSymbol() throws Exception {
+        assertParallel("select * from x where price > 0.5 and sym = 'AB'");
+    }
+
+    @Test
+    public void testFilterLimit() throws Exception {
+        assertParallel("select * from x where price > 0.9 limit 7");
+    }
+
+    @Test
+    public void testFilterLongArithmetic() throws Exception {
+        assertParallel("select * from x where qty * 2 < 50 or not(price < 0.99)");
+    }
+
+    @Test
+    public void testFilterNotThreadSafeFallsBack() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try (RecordCursorFactory factory = compiler.compile("select * from x where sym in ('AB', 'CD')", newParallelContext(engine)).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof FilteredRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testSingleWorkerFallsBack() throws Exception {
+        assertMemoryLeak(() -> {
+            compiler.compile(DDL, sqlExecutionContext);
+            try (RecordCursorFactory factory = compiler.compile("select * from x where price > 0.5", sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(factory instanceof FilteredRecordCursorFactory);
+            }
+        });
+    }
+
+    private static void assertParallel(String query) throws Exception {
+        assertParallel(query, DDL);
+    }
+
+    private static void assertParallel(String query, String... ddl) throws Exception {
+        assertMemoryLeak(() -> {
+            for (int i = 0, n = ddl.length; i < n; i++) {
+                compiler.compile(ddl[i], sqlExecutionContext);
+            }
+
+            final String expected;
+            try (RecordCursorFactory factory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                    sink.clear();
+                    printer.print(cursor, factory.getMetadata(), true);
+                    expected = sink.toString();
+                }
+            }
+
+            runWithBackgroundJob(
+                    new ParallelFilterJob(engine.getMessageBus()),
+                    engine.getMessageBus().getParallelFilterSubSequence(),
+                    () -> {
+                        final SqlExecutionContext parallelContext = newParallelContext(engine);
+                        try (RecordCursorFactory factory = compiler.compile(query, parallelContext).getRecordCursorFactory()) {
+                            Assert.assertTrue(expected.length() > 20);
+                            assertCursor(expected, factory, true, true, false, true, parallelContext);
+                        }
+                    }
+            );
+        });
+    }
+}
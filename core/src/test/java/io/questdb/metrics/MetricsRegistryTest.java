@@ -0,0 +1,160 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testConcurrentCounter() throws Exception {
+        final int threadCount = 4;
+        final int iterations = 100_000;
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Counter counter = registry.newCounter("test_total", "test");
+        final AtomicInteger errors = new AtomicInteger();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(threadCount);
+
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < iterations; i++) {
+                        counter.inc();
+                    }
+                } catch (Throwable e) {
+                    errors.incrementAndGet();
+                } finally {
+                    haltLatch.countDown();
+                }
+            }).start();
+        }
+
+        haltLatch.await();
+        Assert.assertEquals(0, errors.get());
+        Assert.assertEquals(threadCount * iterations, counter.get());
+    }
+
+    @Test
+    public void testCounterAndGauge() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Counter counter = registry.newCounter("questdb_rows_total", "Rows");
+        final Gauge gauge = registry.newGauge("questdb_lag", "Lag");
+        counter.add(5);
+        counter.inc();
+        gauge.set(10);
+        gauge.dec();
+
+        assertScrape(
+                "# HELP questdb_rows_total Rows\n" +
+                        "# TYPE questdb_rows_total counter\n" +
+                        "questdb_rows_total 6\n" +
+                        "# HELP questdb_lag Lag\n" +
+                        "# TYPE questdb_lag gauge\n" +
+                        "questdb_lag 9\n",
+                registry
+        );
+    }
+
+    @Test
+    public void testCounterWithLabel() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final CounterWithLabel rows = registry.newCounter("questdb_rows_total", "Rows", "table");
+        rows.getChild("trades").add(3);
+        rows.getChild("quote\"s").inc();
+        Assert.assertSame(rows.getChild("trades"), rows.getChild("trades"));
+
+        assertScrape(
+                "# HELP questdb_rows_total Rows\n" +
+                        "# TYPE questdb_rows_total counter\n" +
+                        "questdb_rows_total{table=\"trades\"} 3\n" +
+                        "questdb_rows_total{table=\"quote\\\"s\"} 1\n",
+                registry
+        );
+    }
+
+    @Test
+    public void testHistogram() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Histogram histogram = registry.newHistogram("questdb_merge_micros", "Merge", new long[]{10, 100});
+        histogram.record(1);
+        histogram.record(10);
+        histogram.record(50);
+        histogram.record(1000);
+
+        Assert.assertEquals(4, histogram.getCount());
+        Assert.assertEquals(1061, histogram.getSum());
+        assertScrape(
+                "# HELP questdb_merge_micros Merge\n" +
+                        "# TYPE questdb_merge_micros histogram\n" +
+                        "questdb_merge_micros_bucket{le=\"10\"} 2\n" +
+                        "questdb_merge_micros_bucket{le=\"100\"} 3\n" +
+                        "questdb_merge_micros_bucket{le=\"+Inf\"} 4\n" +
+                        "questdb_merge_micros_sum 1061\n" +
+                        "questdb_merge_micros_count 4\n",
+                registry
+        );
+    }
+
+    @Test
+    public void testVirtualMetricRemove() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final VirtualMetric connections = registry.newVirtualGauge("questdb_connections", "Connections", () -> 42);
+        registry.newVirtualCounter("questdb_hits_total", "Hits", () -> 7);
+
+        assertScrape(
+                "# HELP questdb_connections Connections\n" +
+                        "# TYPE questdb_connections gauge\n" +
+                        "questdb_connections 42\n" +
+                        "# HELP questdb_hits_total Hits\n" +
+                        "# TYPE questdb_hits_total counter\n" +
+                        "questdb_hits_total 7\n",
+                registry
+        );
+
+        registry.remove(connections);
+        assertScrape(
+                "# HELP questdb_hits_total Hits\n" +
+                        "# TYPE questdb_hits_total counter\n" +
+                        "questdb_hits_total 7\n",
+                registry
+        );
+    }
+
+    private static void assertScrape(CharSequence expected, Scrapable scrapable) {
+        final StringSink sink = new StringSink();
+        scrapable.scrapeIntoPrometheus(sink);
+        TestUtils.assertEquals(expected, sink);
+    }
+}
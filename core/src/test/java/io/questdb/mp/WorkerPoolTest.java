@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.mp;
+
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class WorkerPoolTest {
+
+    @Test
+    public void testBackoffParkNanos() {
+        final BackoffIdleStrategy strategy = new BackoffIdleStrategy(10, 100, 1000, 10000);
+        Assert.assertEquals(1000, strategy.getParkNanos(101));
+        Assert.assertEquals(2000, strategy.getParkNanos(102));
+        Assert.assertEquals(4000, strategy.getParkNanos(103));
+        Assert.assertEquals(8000, strategy.getParkNanos(104));
+        Assert.assertEquals(10000, strategy.getParkNanos(105));
+        Assert.assertEquals(10000, strategy.getParkNanos(Long.MAX_VALUE));
+
+        final BackoffIdleStrategy fixed = BackoffIdleStrategy.DEFAULT;
+        Assert.assertEquals(1000000, fixed.getParkNanos(10001));
+        Assert.assertEquals(1000000, fixed.getParkNanos(20000));
+    }
+
+    @Test
+    public void testJobStats() {
+        final AtomicInteger remaining = new AtomicInteger(100);
+        final SOCountDownLatch doneLatch = new SOCountDownLatch(1);
+        final MetricsRegistry registry = new MetricsRegistry();
+        final WorkerPool pool = new WorkerPool(new TestWorkerPoolConfiguration(1, BackoffIdleStrategy.DEFAULT), registry);
+        pool.assign(new CountingJob(remaining, doneLatch));
+        Assert.assertNull(pool.getJobStats(0));
+        pool.start(null);
+        try {
+            doneLatch.await();
+        } finally {
+            pool.halt();
+        }
+
+        final WorkerJobStats stats = pool.getJobStats(0);
+        Assert.assertNotNull(stats);
+        Assert.assertEquals(1, stats.getJobCount());
+        Assert.assertEquals(100, stats.getUsefulCount(0));
+        Assert.assertTrue(stats.getUselessCount(0) > 0);
+        Assert.assertTrue(stats.getBusyNanos(0) > 0);
+
+        // metrics are removed from registry when pool halts
+        final StringSink sink = new StringSink();
+        registry.scrapeIntoPrometheus(sink);
+        TestUtils.assertEquals("", sink);
+    }
+
+    @Test
+    public void testJobStatsMetrics() {
+        final AtomicInteger remaining = new AtomicInteger(10);
+        final SOCountDownLatch doneLatch = new SOCountDownLatch(1);
+        final MetricsRegistry registry = new MetricsRegistry();
+        final WorkerPool pool = new WorkerPool(new TestWorkerPoolConfiguration(2, BackoffIdleStrategy.DEFAULT), registry);
+        pool.assign(0, new CountingJob(remaining, doneLatch));
+        pool.start(null);
+        try {
+            doneLatch.await();
+            final StringSink sink = new StringSink();
+            registry.scrapeIntoPrometheus(sink);
+            final String expected = "questdb_worker_job_useful_iterations_total{pool=\"test\",job=\"" + CountingJob.class.getName() + "\"} 10\n";
+            Assert.assertTrue(sink.toString(), sink.toString().contains(expected));
+            Assert.assertTrue(sink.toString().contains("# TYPE questdb_worker_job_busy_micros_total counter\n"));
+        } finally {
+            pool.halt();
+        }
+    }
+
+    @Test
+    public void testParkedWorkerWakesUpOnPublish() {
+        // workers park for a minute, publishing must wake them up well before that
+        final ParkingIdleStrategy strategy = new ParkingIdleStrategy(1, 0, 0, TimeUnit.MINUTES.toNanos(1), TimeUnit.MINUTES.toNanos(1));
+        final SPSequence pubSeq = new SPSequence(16);
+        final SCSequence subSeq = new SCSequence(strategy);
+        pubSeq.then(subSeq).then(pubSeq);
+
+        final SOCountDownLatch consumedLatch = new SOCountDownLatch(1);
+        final WorkerPool pool = new WorkerPool(new TestWorkerPoolConfiguration(1, strategy));
+        pool.assign(workerId -> {
+            final long cursor = subSeq.next();
+            if (cursor > -1) {
+                subSeq.done(cursor);
+                consumedLatch.countDown();
+                return true;
+            }
+            return false;
+        });
+        pool.start(null);
+        try {
+            // let worker go idle and park
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            final long cursor = pubSeq.next();
+            Assert.assertTrue(cursor > -1);
+            pubSeq.done(cursor);
+            Assert.assertTrue(consumedLatch.await(TimeUnit.SECONDS.toNanos(10)));
+        } finally {
+            pool.halt();
+        }
+    }
+
+    private static class CountingJob implements Job {
+        private final AtomicInteger remaining;
+        private final SOCountDownLatch doneLatch;
+
+        private CountingJob(AtomicInteger remaining, SOCountDownLatch doneLatch) {
+            this.remaining = remaining;
+            this.doneLatch = doneLatch;
+        }
+
+        @Override
+        public boolean run(int workerId) {
+            if (remaining.get() > 0) {
+                remaining.decrementAndGet();
+                return true;
+            }
+            doneLatch.countDown();
+            return false;
+        }
+    }
+
+    private static class TestWorkerPoolConfiguration implements WorkerPoolConfiguration {
+        private final int workerCount;
+        private final WorkerIdleStrategy idleStrategy;
+
+        private TestWorkerPoolConfiguration(int workerCount, WorkerIdleStrategy idleStrategy) {
+            this.workerCount = workerCount;
+            this.idleStrategy = idleStrategy;
+        }
+
+        @Override
+        public WorkerIdleStrategy getIdleStrategy() {
+            return idleStrategy;
+        }
+
+        @Override
+        public String getPoolName() {
+            return "test";
+        }
+
+        @Override
+        public int[] getWorkerAffinity() {
+            final int[] affinity = new int[workerCount];
+            Arrays.fill(affinity, -1);
+            return affinity;
+        }
+
+        @Override
+        public int getWorkerCount() {
+            return workerCount;
+        }
+
+        @Override
+        public boolean haltOnError() {
+            return false;
+        }
+    }
+}
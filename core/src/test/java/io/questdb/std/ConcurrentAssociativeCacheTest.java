@@ -0,0 +1,161 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2020 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.std;
+
+import io.questdb.mp.SOCountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentAssociativeCacheTest {
+
+    @Test
+    public void testConcurrentCheckout() throws Exception {
+        final int threadCount = 4;
+        final int iterations = 10_000;
+        final ConcurrentAssociativeCache<Value> cache = new ConcurrentAssociativeCache<>(8, 4);
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        final SOCountDownLatch haltLatch = new SOCountDownLatch(threadCount);
+
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < iterations; i++) {
+                        Value value = cache.poll("select * from x");
+                        if (value == null) {
+                            value = new Value();
+                            created.incrementAndGet();
+                        }
+                        // value must be owned exclusively by this thread
+                        if (value.owners.incrementAndGet() != 1 || value.closed) {
+                            errors.incrementAndGet();
+                        }
+                        value.owners.decrementAndGet();
+                        cache.push("select * from x", value);
+                    }
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                    errors.incrementAndGet();
+                } finally {
+                    haltLatch.countDown();
+                }
+            }).start();
+        }
+        haltLatch.await();
+
+        Assert.assertEquals(0, errors.get());
+        // each thread compiles at most one instance of the same query
+        Assert.assertTrue(created.get() <= threadCount);
+        Assert.assertEquals(threadCount * iterations, cache.getHitCount() + cache.getMissCount());
+        Assert.assertEquals(created.get(), cache.getMissCount());
+        cache.close();
+    }
+
+    @Test
+    public void testEviction() {
+        // single stripe with two entries
+        final ConcurrentAssociativeCache<Value> cache = new ConcurrentAssociativeCache<>(2, 1);
+        final Value a = new Value();
+        final Value b = new Value();
+        final Value c = new Value();
+        cache.push("a", a);
+        cache.push("b", b);
+        // "a" is checked out and returned, which makes it most recent
+        Assert.assertSame(a, cache.poll("a"));
+        cache.push("a", a);
+        cache.push("c", c);
+
+        Assert.assertTrue(b.closed);
+        Assert.assertFalse(a.closed);
+        Assert.assertFalse(c.closed);
+        Assert.assertNull(cache.poll("b"));
+        Assert.assertSame(c, cache.poll("c"));
+        Assert.assertSame(a, cache.poll("a"));
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testMultipleInstances() {
+        final ConcurrentAssociativeCache<Value> cache = new ConcurrentAssociativeCache<>(8, 8);
+        final Value a = new Value();
+        final Value b = new Value();
+        cache.push("x", a);
+        cache.push("x", b);
+
+        final Value v1 = cache.poll("x");
+        final Value v2 = cache.poll("x");
+        Assert.assertNotNull(v1);
+        Assert.assertNotNull(v2);
+        Assert.assertNotSame(v1, v2);
+        Assert.assertNull(cache.poll("x"));
+
+        cache.push("x", v1);
+        cache.push("x", v2);
+        cache.close();
+        Assert.assertTrue(a.closed);
+        Assert.assertTrue(b.closed);
+        Assert.assertNull(cache.poll("x"));
+    }
+
+    @Test
+    public void testRemove() {
+        final ConcurrentAssociativeCache<Value> cache = new ConcurrentAssociativeCache<>(8, 8);
+        final Value a = new Value();
+        final Value b = new Value();
+        final Value checkedOut = new Value();
+        final Value other = new Value();
+        cache.push("x", a);
+        cache.push("x", b);
+        cache.push("x", checkedOut);
+        cache.push("y", other);
+        Assert.assertSame(checkedOut, cache.poll("x"));
+
+        cache.remove("x");
+        Assert.assertTrue(a.closed);
+        Assert.assertTrue(b.closed);
+        Assert.assertFalse(checkedOut.closed);
+        Assert.assertNull(cache.poll("x"));
+        Assert.assertSame(other, cache.poll("y"));
+        Assert.assertFalse(other.closed);
+    }
+
+    private static class Value implements Closeable {
+        private final AtomicInteger owners = new AtomicInteger();
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
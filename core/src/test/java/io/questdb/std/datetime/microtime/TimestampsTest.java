@@ -104,6 +104,13 @@ public class TimestampsTest {
         TestUtils.assertEquals("1888-05-12T23:59:59.999Z", sink);
     }
 
+    @Test
+    public void testCeilHH() throws Exception {
+        long micros = TimestampFormatUtils.parseTimestamp("2008-05-12T23:45:51.045Z");
+        TimestampFormatUtils.appendDateTime(sink, Timestamps.ceilHH(micros));
+        TestUtils.assertEquals("2008-05-12T23:59:59.999Z", sink);
+    }
+
     @Test
     public void testCeilMM() throws Exception {
         long micros = TimestampFormatUtils.parseTimestamp("2008-05-12T23:45:51.045Z");
@@ -111,6 +118,13 @@ public class TimestampsTest {
         TestUtils.assertEquals("2008-05-31T23:59:59.999Z", sink);
     }
 
+    @Test
+    public void testCeilWW() throws Exception {
+        long micros = TimestampFormatUtils.parseTimestamp("2008-05-15T23:45:51.045Z");
+        TimestampFormatUtils.appendDateTime(sink, Timestamps.ceilWW(micros));
+        TestUtils.assertEquals("2008-05-18T23:59:59.999Z", sink);
+    }
+
     @Test
     public void testCeilYYYY() throws Exception {
         long micros = TimestampFormatUtils.parseTimestamp("2008-05-12T23:45:51.045Z");
@@ -165,6 +179,23 @@ public class TimestampsTest {
         TestUtils.assertEquals("2008-05-01T00:00:00.000Z", sink);
     }
 
+    @Test
+    public void testFloorWW() throws Exception {
+        long micros = TimestampFormatUtils.parseTimestamp("2008-05-15T23:45:51.045Z");
+        TimestampFormatUtils.appendDateTime(sink, Timestamps.floorWW(micros));
+        TestUtils.assertEquals("2008-05-12T00:00:00.000Z", sink);
+
+        sink.clear();
+        micros = TimestampFormatUtils.parseTimestamp("2008-05-18T23:59:59.999Z");
+        TimestampFormatUtils.appendDateTime(sink, Timestamps.floorWW(micros));
+        TestUtils.assertEquals("2008-05-12T00:00:00.000Z", sink);
+
+        sink.clear();
+        micros = TimestampFormatUtils.parseTimestamp("2008-05-12T00:00:00.000Z");
+        TimestampFormatUtils.appendDateTime(sink, Timestamps.floorWW(micros));
+        TestUtils.assertEquals("2008-05-12T00:00:00.000Z", sink);
+    }
+
     @Test
     public void testFloorYYYY() throws Exception {
         long micros = TimestampFormatUtils.parseTimestamp("2008-05-12T23:45:51.045Z");